@@ -37,6 +37,7 @@ import org.apache.flink.runtime.instance.ActorGateway;
 import org.apache.flink.runtime.jobgraph.JobGraph;
 import org.apache.flink.runtime.messages.JobManagerMessages;
 import org.apache.flink.runtime.minicluster.LocalFlinkMiniCluster;
+import org.apache.flink.runtime.operators.util.metrics.OutputStatisticsCollector;
 
 import java.util.List;
 
@@ -183,14 +184,20 @@ public class LocalExecutor extends PlanExecutor {
 			try {
 				Configuration configuration = this.flink.configuration();
 
-				Optimizer pc = new Optimizer(new DataStatistics(), configuration);
+				DataStatistics statistics = DataStatistics.fromConfiguration(configuration);
+				Optimizer pc = new Optimizer(statistics, configuration);
 				OptimizedPlan op = pc.compile(plan);
 
 				JobGraphGenerator jgg = new JobGraphGenerator(configuration);
 				JobGraph jobGraph = jgg.compileJobGraph(op, plan.getJobId());
 
 				boolean sysoutPrint = isPrintingStatusDuringExecution();
-				return flink.submitJobAndWait(jobGraph, sysoutPrint);
+				JobExecutionResult result = flink.submitJobAndWait(jobGraph, sysoutPrint);
+
+				// remember the number of records that the operators emitted for later compilations
+				statistics.recordOperatorStatistics(result.getAllAccumulatorResults());
+				return new JobExecutionResult(result.getJobID(), result.getNetRuntime(),
+					OutputStatisticsCollector.removeStatisticsAccumulators(result.getAllAccumulatorResults()));
 			}
 			finally {
 				if (shutDownAtEnd) {
@@ -53,6 +53,7 @@ import org.apache.flink.runtime.messages.JobManagerMessages;
 import org.apache.flink.runtime.messages.accumulators.AccumulatorResultsErroneous;
 import org.apache.flink.runtime.messages.accumulators.AccumulatorResultsFound;
 import org.apache.flink.runtime.messages.accumulators.RequestAccumulatorResults;
+import org.apache.flink.runtime.operators.util.metrics.OutputStatisticsCollector;
 import org.apache.flink.runtime.util.LeaderConnectionInfo;
 import org.apache.flink.runtime.util.LeaderRetrievalUtils;
 import org.apache.flink.util.FlinkException;
@@ -146,7 +147,7 @@ public abstract class ClusterClient {
 	 */
 	public ClusterClient(Configuration flinkConfig, HighAvailabilityServices highAvailabilityServices) {
 		this.flinkConfig = Preconditions.checkNotNull(flinkConfig);
-		this.compiler = new Optimizer(new DataStatistics(), new DefaultCostEstimator(), flinkConfig);
+		this.compiler = new Optimizer(DataStatistics.fromConfiguration(flinkConfig), new DefaultCostEstimator(), flinkConfig);
 
 		this.timeout = AkkaUtils.getClientTimeout(flinkConfig);
 		this.lookupTimeout = AkkaUtils.getLookupTimeout(flinkConfig);
@@ -474,6 +475,15 @@ public abstract class ClusterClient {
 				printStatusDuringExecution,
 				classLoader);
 
+			// remember the number of records that the operators emitted for later compilations
+			if (compiler.getStatistics() != null) {
+				compiler.getStatistics().recordOperatorStatistics(lastJobExecutionResult.getAllAccumulatorResults());
+			}
+			this.lastJobExecutionResult = new JobExecutionResult(
+				lastJobExecutionResult.getJobID(),
+				lastJobExecutionResult.getNetRuntime(),
+				OutputStatisticsCollector.removeStatisticsAccumulators(lastJobExecutionResult.getAllAccumulatorResults()));
+
 			return lastJobExecutionResult;
 		} catch (JobExecutionException e) {
 			throw new ProgramInvocationException("The program execution failed: " + e.getMessage(), e);
@@ -666,7 +676,8 @@ public abstract class ClusterClient {
 			Map<String, SerializedValue<Object>> serializedAccumulators =
 					((AccumulatorResultsFound) result).result();
 
-			return AccumulatorHelper.deserializeAccumulators(serializedAccumulators, loader);
+			return OutputStatisticsCollector.removeStatisticsAccumulators(
+				AccumulatorHelper.deserializeAccumulators(serializedAccumulators, loader));
 
 		} else if (result instanceof AccumulatorResultsErroneous) {
 			throw ((AccumulatorResultsErroneous) result).cause();
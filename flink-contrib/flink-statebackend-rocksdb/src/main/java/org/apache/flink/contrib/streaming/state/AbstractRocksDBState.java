@@ -145,12 +145,15 @@ public abstract class AbstractRocksDBState<K, N, S extends State, SD extends Sta
 	}
 
 	protected void writeCurrentKeyWithGroupAndNamespace() throws IOException {
-		writeKeyWithGroupAndNamespace(
-			backend.getCurrentKeyGroupIndex(),
-			backend.getCurrentKey(),
-			currentNamespace,
-			keySerializationStream,
-			keySerializationDataOutputView);
+		keySerializationStream.reset();
+
+		// the backend serializes the current key only once for all states
+		int keyLength = backend.writeCurrentKeyGroupAndKey(keySerializationDataOutputView);
+		if (ambiguousKeyPossible) {
+			writeVariableIntBytes(keyLength, keySerializationDataOutputView);
+		}
+
+		writeNameSpace(currentNamespace, keySerializationStream, keySerializationDataOutputView);
 	}
 
 	protected void writeKeyWithGroupAndNamespace(
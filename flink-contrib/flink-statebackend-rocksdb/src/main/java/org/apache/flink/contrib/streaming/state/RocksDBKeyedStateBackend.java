@@ -38,6 +38,7 @@ import org.apache.flink.core.fs.FSDataOutputStream;
 import org.apache.flink.core.fs.FileStatus;
 import org.apache.flink.core.fs.FileSystem;
 import org.apache.flink.core.fs.Path;
+import org.apache.flink.core.memory.ByteArrayOutputStreamWithPos;
 import org.apache.flink.core.memory.DataInputView;
 import org.apache.flink.core.memory.DataInputViewStreamWrapper;
 import org.apache.flink.core.memory.DataOutputView;
@@ -199,6 +200,16 @@ public class RocksDBKeyedStateBackend<K> extends AbstractKeyedStateBackend<K> {
 	/** Unique ID of this backend. */
 	private UUID backendUID;
 
+	/** Holds the key group prefix and the serialized current key, shared by all states of this backend. */
+	private final ByteArrayOutputStreamWithPos currentKeyGroupAndKeyStream = new ByteArrayOutputStreamWithPos(32);
+
+	/** Data output view on top of {@link #currentKeyGroupAndKeyStream}. */
+	private final DataOutputView currentKeyGroupAndKeyOutputView =
+		new DataOutputViewStreamWrapper(currentKeyGroupAndKeyStream);
+
+	/** True if {@link #currentKeyGroupAndKeyStream} holds the serialized form of the current key. */
+	private boolean currentKeyGroupAndKeySerialized;
+
 	public RocksDBKeyedStateBackend(
 		String operatorIdentifier,
 		ClassLoader userCodeClassLoader,
@@ -302,6 +313,39 @@ public class RocksDBKeyedStateBackend<K> extends AbstractKeyedStateBackend<K> {
 		return keyGroupPrefixBytes;
 	}
 
+	@Override
+	public void setCurrentKey(K newKey) {
+		super.setCurrentKey(newKey);
+		this.currentKeyGroupAndKeySerialized = false;
+	}
+
+	/**
+	 * Writes the key group prefix and the serialized current key to the given output view.
+	 *
+	 * <p>The current key is serialized at most once after each call to {@link #setCurrentKey(Object)}.
+	 * All states that are accessed for the same key copy the cached bytes instead of serializing
+	 * the key again.
+	 *
+	 * @param out The output view to write the key group and the key to.
+	 * @return The number of bytes of the serialized key, without the key group prefix.
+	 */
+	int writeCurrentKeyGroupAndKey(DataOutputView out) throws IOException {
+		if (!currentKeyGroupAndKeySerialized) {
+			Preconditions.checkNotNull(currentKey, "No key set. This method should not be called outside of a keyed context.");
+
+			currentKeyGroupAndKeyStream.reset();
+			int keyGroup = getCurrentKeyGroupIndex();
+			for (int i = keyGroupPrefixBytes; --i >= 0;) {
+				currentKeyGroupAndKeyOutputView.writeByte(keyGroup >>> (i << 3));
+			}
+			getKeySerializer().serialize(currentKey, currentKeyGroupAndKeyOutputView);
+			currentKeyGroupAndKeySerialized = true;
+		}
+
+		out.write(currentKeyGroupAndKeyStream.getBuf(), 0, currentKeyGroupAndKeyStream.getPosition());
+		return currentKeyGroupAndKeyStream.getPosition() - keyGroupPrefixBytes;
+	}
+
 	/**
 	 * Triggers an asynchronous snapshot of the keyed state backend from RocksDB. This snapshot can be canceled and
 	 * is also stopped when the backend is closed through {@link #dispose()}. For each backend, this method must always
@@ -273,6 +273,12 @@ public class RocksDBStateBackend extends AbstractStateBackend {
 		return checkpointStreamBackend.createStreamFactory(jobId, operatorIdentifier);
 	}
 
+	@Override
+	public CheckpointStreamFactory createStreamFactory(Environment env,
+			String operatorIdentifier) throws IOException {
+		return checkpointStreamBackend.createStreamFactory(env, operatorIdentifier);
+	}
+
 	@Override
 	public CheckpointStreamFactory createSavepointStreamFactory(
 			JobID jobId,
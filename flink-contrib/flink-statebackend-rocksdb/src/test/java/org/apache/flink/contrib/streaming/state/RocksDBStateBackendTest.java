@@ -23,6 +23,9 @@ import org.apache.flink.api.common.JobID;
 import org.apache.flink.api.common.state.ValueState;
 import org.apache.flink.api.common.state.ValueStateDescriptor;
 import org.apache.flink.api.common.typeutils.base.IntSerializer;
+import org.apache.flink.api.common.typeutils.base.StringSerializer;
+import org.apache.flink.core.memory.ByteArrayOutputStreamWithPos;
+import org.apache.flink.core.memory.DataOutputViewStreamWrapper;
 import org.apache.flink.core.testutils.OneShotLatch;
 import org.apache.flink.runtime.checkpoint.CheckpointOptions;
 import org.apache.flink.runtime.execution.Environment;
@@ -31,6 +34,7 @@ import org.apache.flink.runtime.query.TaskKvStateRegistry;
 import org.apache.flink.runtime.state.AbstractKeyedStateBackend;
 import org.apache.flink.runtime.state.IncrementalKeyedStateHandle;
 import org.apache.flink.runtime.state.KeyGroupRange;
+import org.apache.flink.runtime.state.KeyGroupRangeAssignment;
 import org.apache.flink.runtime.state.KeyedStateHandle;
 import org.apache.flink.runtime.state.SharedStateRegistry;
 import org.apache.flink.runtime.state.StateBackendTestBase;
@@ -76,7 +80,9 @@ import java.util.Queue;
 import java.util.concurrent.RunnableFuture;
 
 import static junit.framework.TestCase.assertNotNull;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
@@ -441,6 +447,65 @@ public class RocksDBStateBackendTest extends StateBackendTestBase<RocksDBStateBa
 		assertEquals(1, allFilesInDbDir.size());
 	}
 
+	@Test
+	public void testCurrentKeySerializationIsSharedByStates() throws Exception {
+		RocksDBKeyedStateBackend<String> backend =
+			(RocksDBKeyedStateBackend<String>) createKeyedBackend(StringSerializer.INSTANCE);
+		try {
+			ValueStateDescriptor<String> namespacedId = new ValueStateDescriptor<>("namespaced", String.class);
+			namespacedId.initializeSerializerUnlessSet(new ExecutionConfig());
+			ValueStateDescriptor<String> voidNamespaceId = new ValueStateDescriptor<>("void-namespace", String.class);
+			voidNamespaceId.initializeSerializerUnlessSet(new ExecutionConfig());
+
+			// key and namespace have variable lengths, so their lengths are part of the RocksDB key
+			RocksDBValueState<String, String, String> namespacedState =
+				(RocksDBValueState<String, String, String>) backend.createValueState(StringSerializer.INSTANCE, namespacedId);
+			RocksDBValueState<String, VoidNamespace, String> voidNamespaceState =
+				(RocksDBValueState<String, VoidNamespace, String>) backend.createValueState(VoidNamespaceSerializer.INSTANCE, voidNamespaceId);
+			voidNamespaceState.setCurrentNamespace(VoidNamespace.INSTANCE);
+
+			for (String key : Arrays.asList("a", "bbb", "a", "")) {
+				backend.setCurrentKey(key);
+				int keyGroup = KeyGroupRangeAssignment.assignToKeyGroup(key, backend.getNumberOfKeyGroups());
+
+				for (String namespace : Arrays.asList("n", "nnnn")) {
+					namespacedState.setCurrentNamespace(namespace);
+					namespacedState.writeCurrentKeyWithGroupAndNamespace();
+					assertArrayEquals(
+						serializeKeyWithGroupAndNamespace(namespacedState, keyGroup, key, namespace),
+						namespacedState.keySerializationStream.toByteArray());
+
+					namespacedState.update(key + namespace);
+				}
+
+				voidNamespaceState.writeCurrentKeyWithGroupAndNamespace();
+				assertArrayEquals(
+					serializeKeyWithGroupAndNamespace(voidNamespaceState, keyGroup, key, VoidNamespace.INSTANCE),
+					voidNamespaceState.keySerializationStream.toByteArray());
+			}
+
+			backend.setCurrentKey("bbb");
+			namespacedState.setCurrentNamespace("nnnn");
+			assertEquals("bbbnnnn", namespacedState.value());
+			assertNull(voidNamespaceState.value());
+		} finally {
+			IOUtils.closeQuietly(backend);
+			backend.dispose();
+		}
+	}
+
+	private static <N> byte[] serializeKeyWithGroupAndNamespace(
+			AbstractRocksDBState<String, N, ?, ?, ?> state,
+			int keyGroup,
+			String key,
+			N namespace) throws IOException {
+
+		ByteArrayOutputStreamWithPos outputStream = new ByteArrayOutputStreamWithPos();
+		state.writeKeyWithGroupAndNamespace(
+			keyGroup, key, namespace, outputStream, new DataOutputViewStreamWrapper(outputStream));
+		return outputStream.toByteArray();
+	}
+
 	@Test
 	public void testSharedIncrementalStateDeRegistration() throws Exception {
 		if (enableIncrementalCheckpointing) {
@@ -0,0 +1,44 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.api.common.functions.util;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.util.Collector;
+
+/**
+ * A {@link Collector} that can receive a whole batch of records in one call, in the format of the
+ * function that produced it. Chained drivers implement it to hand a batch to a
+ * {@link BatchFlatMapFunction} without converting it into records and back. Collectors that need
+ * to see every record, such as the ones that gather statistics, do not implement it, in which
+ * case the producer emits the records one by one.
+ *
+ * @param <T> Type of the records in the batch.
+ */
+@Internal
+public interface BatchCollector<T> extends Collector<T> {
+
+	/**
+	 * Passes a batch of records on, if the receiver can take the batch as a whole.
+	 *
+	 * @param batch The batch of records. The receiver must not hold on to the batch after the call.
+	 * @param numRecords The number of records in the batch.
+	 * @return True, if the batch was passed on, false, if the caller must collect the records one by one.
+	 */
+	boolean collectBatch(Object batch, int numRecords);
+}
@@ -0,0 +1,47 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.api.common.functions.util;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.util.Collector;
+
+/**
+ * A {@link BufferingFlatMapFunction} that can also process a whole batch of records that a chained
+ * predecessor passed on through a {@link BatchCollector}. The function emits its results for the
+ * records it buffered before the batch, such that the order of the records is retained.
+ *
+ * @param <IN> Type of the input elements.
+ * @param <OUT> Type of the returned elements.
+ */
+@Internal
+public interface BatchFlatMapFunction<IN, OUT> extends BufferingFlatMapFunction<IN, OUT> {
+
+	/**
+	 * Processes a batch of records.
+	 *
+	 * @param batch The batch of records. The function must not modify it or hold on to it after the call.
+	 * @param out The collector for returning result values.
+	 * @return True, if the function processed the batch, false, if the batch is not of a format the
+	 *         function can process, in which case the caller passes the records one by one.
+	 *
+	 * @throws Exception This method may throw exceptions. Throwing an exception will cause the operation
+	 *                   to fail and may trigger recovery.
+	 */
+	boolean flatMapBatch(Object batch, Collector<OUT> out) throws Exception;
+}
@@ -22,6 +22,7 @@ import org.apache.flink.annotation.Internal;
 import org.apache.flink.api.common.ExecutionConfig;
 import org.apache.flink.api.common.functions.FlatMapFunction;
 import org.apache.flink.api.common.functions.RuntimeContext;
+import org.apache.flink.api.common.functions.util.BufferingFlatMapFunction;
 import org.apache.flink.api.common.functions.util.CopyingListCollector;
 import org.apache.flink.api.common.functions.util.FunctionUtils;
 import org.apache.flink.api.common.operators.SingleInputOperator;
@@ -73,6 +74,10 @@ public class FlatMapOperatorBase<IN, OUT, FT extends FlatMapFunction<IN, OUT>> e
 			function.flatMap(inCopy, resultCollector);
 		}
 
+		if (function instanceof BufferingFlatMapFunction) {
+			((BufferingFlatMapFunction<IN, OUT>) function).flush(resultCollector);
+		}
+
 		FunctionUtils.closeFunction(function);
 
 		return result;
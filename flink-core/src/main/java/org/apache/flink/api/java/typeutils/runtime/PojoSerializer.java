@@ -40,6 +40,14 @@ import org.apache.flink.api.common.typeutils.TypeSerializer;
 import org.apache.flink.api.common.typeutils.TypeSerializerConfigSnapshot;
 import org.apache.flink.api.common.typeutils.TypeSerializerSerializationUtil;
 import org.apache.flink.api.common.typeutils.UnloadableDummyTypeSerializer;
+import org.apache.flink.api.common.typeutils.base.BooleanSerializer;
+import org.apache.flink.api.common.typeutils.base.ByteSerializer;
+import org.apache.flink.api.common.typeutils.base.CharSerializer;
+import org.apache.flink.api.common.typeutils.base.DoubleSerializer;
+import org.apache.flink.api.common.typeutils.base.FloatSerializer;
+import org.apache.flink.api.common.typeutils.base.IntSerializer;
+import org.apache.flink.api.common.typeutils.base.LongSerializer;
+import org.apache.flink.api.common.typeutils.base.ShortSerializer;
 import org.apache.flink.api.java.tuple.Tuple2;
 import org.apache.flink.api.java.typeutils.TypeExtractor;
 import org.apache.flink.core.memory.ByteArrayInputStreamWithPos;
@@ -61,6 +69,18 @@ public final class PojoSerializer<T> extends TypeSerializer<T> {
 	private static byte IS_SUBCLASS = 4;
 	private static byte IS_TAGGED_SUBCLASS = 8;
 
+	// Kinds of fields that are accessed without boxing
+
+	private static final byte OBJECT_FIELD = 0;
+	private static final byte BOOLEAN_FIELD = 1;
+	private static final byte BYTE_FIELD = 2;
+	private static final byte SHORT_FIELD = 3;
+	private static final byte CHAR_FIELD = 4;
+	private static final byte INT_FIELD = 5;
+	private static final byte LONG_FIELD = 6;
+	private static final byte FLOAT_FIELD = 7;
+	private static final byte DOUBLE_FIELD = 8;
+
 	private static final long serialVersionUID = 1L;
 
 	// --------------------------------------------------------------------------------------------
@@ -83,6 +103,17 @@ public final class PojoSerializer<T> extends TypeSerializer<T> {
 	private TypeSerializer<Object>[] fieldSerializers;
 	private final int numFields;
 
+	/**
+	 * The kind of each field. Fields of primitive type that are handled by the corresponding
+	 * basic type serializer are read, written and copied directly through the primitive
+	 * accessors of {@link Field}, which avoids boxing and the virtual call to the field
+	 * serializer. The serialized format is the same as for the field serializers.
+	 *
+	 * <p>This is derived from {@link #fields} and {@link #fieldSerializers} and must be
+	 * recomputed whenever either of them changes.
+	 */
+	private transient byte[] fieldKinds;
+
 	/**
 	 * Registered subclasses and their serializers.
 	 * Each subclass to their registered class tag is maintained as a separate map ordered by the class tag.
@@ -129,6 +160,7 @@ public final class PojoSerializer<T> extends TypeSerializer<T> {
 		for (int i = 0; i < numFields; i++) {
 			this.fields[i].setAccessible(true);
 		}
+		this.fieldKinds = getFieldKinds(this.fields, this.fieldSerializers);
 
 		cl = Thread.currentThread().getContextClassLoader();
 
@@ -154,6 +186,7 @@ public final class PojoSerializer<T> extends TypeSerializer<T> {
 		this.fields = checkNotNull(fields);
 		this.numFields = fields.length;
 		this.fieldSerializers = checkNotNull(fieldSerializers);
+		this.fieldKinds = getFieldKinds(this.fields, this.fieldSerializers);
 		this.registeredClasses = checkNotNull(registeredClasses);
 		this.registeredSerializers = checkNotNull(registeredSerializers);
 		this.subclassSerializerCache = checkNotNull(subclassSerializerCache);
@@ -233,7 +266,9 @@ public final class PojoSerializer<T> extends TypeSerializer<T> {
 			// no subclass
 			try {
 				for (int i = 0; i < numFields; i++) {
-					if (fields[i] != null) {
+					if (fieldKinds[i] != OBJECT_FIELD) {
+						copyPrimitiveField(fieldKinds[i], fields[i], from, target);
+					} else if (fields[i] != null) {
 						Object value = fields[i].get(from);
 						if (value != null) {
 							Object copy = fieldSerializers[i].copy(value);
@@ -271,7 +306,9 @@ public final class PojoSerializer<T> extends TypeSerializer<T> {
 		if (actualType == clazz) {
 			try {
 				for (int i = 0; i < numFields; i++) {
-					if (fields[i] != null) {
+					if (fieldKinds[i] != OBJECT_FIELD) {
+						copyPrimitiveField(fieldKinds[i], fields[i], from, reuse);
+					} else if (fields[i] != null) {
 						Object value = fields[i].get(from);
 						if (value != null) {
 							Object reuseValue = fields[i].get(reuse);
@@ -345,6 +382,13 @@ public final class PojoSerializer<T> extends TypeSerializer<T> {
 		if ((flags & NO_SUBCLASS) != 0) {
 			try {
 				for (int i = 0; i < numFields; i++) {
+					if (fieldKinds[i] != OBJECT_FIELD) {
+						// primitive fields are never null
+						target.writeBoolean(false);
+						serializePrimitiveField(fieldKinds[i], fields[i], value, target);
+						continue;
+					}
+
 					Object o = (fields[i] != null) ? fields[i].get(value) : null;
 					if (o == null) {
 						target.writeBoolean(true); // null field handling
@@ -407,6 +451,8 @@ public final class PojoSerializer<T> extends TypeSerializer<T> {
 					if (fields[i] != null) {
 						if (isNull) {
 							fields[i].set(target, null);
+						} else if (fieldKinds[i] != OBJECT_FIELD) {
+							deserializePrimitiveField(fieldKinds[i], fields[i], target, source);
 						} else {
 							Object field = fieldSerializers[i].deserialize(source);
 							fields[i].set(target, field);
@@ -478,6 +524,8 @@ public final class PojoSerializer<T> extends TypeSerializer<T> {
 					if (fields[i] != null) {
 						if (isNull) {
 							fields[i].set(reuse, null);
+						} else if (fieldKinds[i] != OBJECT_FIELD) {
+							deserializePrimitiveField(fieldKinds[i], fields[i], reuse, source);
 						} else {
 							Object field;
 
@@ -724,6 +772,7 @@ public final class PojoSerializer<T> extends TypeSerializer<T> {
 					if (!requiresMigration) {
 						this.fields = reorderedFields;
 						this.fieldSerializers = reorderedFieldSerializers;
+						this.fieldKinds = getFieldKinds(reorderedFields, reorderedFieldSerializers);
 
 						this.registeredClasses = reorderedRegisteredSubclassesToClasstags;
 						this.registeredSerializers = reorderedRegisteredSubclassSerializers;
@@ -1044,6 +1093,7 @@ public final class PojoSerializer<T> extends TypeSerializer<T> {
 			// instance, the missing fields will simply be skipped
 			fields[i] = FieldSerializer.deserializeField(in);
 		}
+		fieldKinds = getFieldKinds(fields, fieldSerializers);
 
 		cl = Thread.currentThread().getContextClassLoader();
 		subclassSerializerCache = new HashMap<Class<?>, TypeSerializer<?>>();
@@ -1053,6 +1103,154 @@ public final class PojoSerializer<T> extends TypeSerializer<T> {
 	// Utilities
 	// --------------------------------------------------------------------------------------------
 
+	/**
+	 * Determines for each field whether it can be accessed through the primitive accessors
+	 * of {@link Field}, i.e. whether it is of primitive type and handled by the basic type
+	 * serializer that writes exactly the primitive value.
+	 */
+	private static byte[] getFieldKinds(Field[] fields, TypeSerializer<?>[] fieldSerializers) {
+		byte[] fieldKinds = new byte[fields.length];
+
+		for (int i = 0; i < fields.length; i++) {
+			fieldKinds[i] = OBJECT_FIELD;
+
+			if (fields[i] == null || !fields[i].getType().isPrimitive()) {
+				continue;
+			}
+
+			Class<?> fieldType = fields[i].getType();
+			Class<?> serializerClass = fieldSerializers[i].getClass();
+
+			if (fieldType == boolean.class && serializerClass == BooleanSerializer.class) {
+				fieldKinds[i] = BOOLEAN_FIELD;
+			} else if (fieldType == byte.class && serializerClass == ByteSerializer.class) {
+				fieldKinds[i] = BYTE_FIELD;
+			} else if (fieldType == short.class && serializerClass == ShortSerializer.class) {
+				fieldKinds[i] = SHORT_FIELD;
+			} else if (fieldType == char.class && serializerClass == CharSerializer.class) {
+				fieldKinds[i] = CHAR_FIELD;
+			} else if (fieldType == int.class && serializerClass == IntSerializer.class) {
+				fieldKinds[i] = INT_FIELD;
+			} else if (fieldType == long.class && serializerClass == LongSerializer.class) {
+				fieldKinds[i] = LONG_FIELD;
+			} else if (fieldType == float.class && serializerClass == FloatSerializer.class) {
+				fieldKinds[i] = FLOAT_FIELD;
+			} else if (fieldType == double.class && serializerClass == DoubleSerializer.class) {
+				fieldKinds[i] = DOUBLE_FIELD;
+			}
+		}
+
+		return fieldKinds;
+	}
+
+	private static void serializePrimitiveField(
+			byte fieldKind,
+			Field field,
+			Object value,
+			DataOutputView target) throws IOException, IllegalAccessException {
+
+		switch (fieldKind) {
+			case BOOLEAN_FIELD:
+				target.writeBoolean(field.getBoolean(value));
+				break;
+			case BYTE_FIELD:
+				target.writeByte(field.getByte(value));
+				break;
+			case SHORT_FIELD:
+				target.writeShort(field.getShort(value));
+				break;
+			case CHAR_FIELD:
+				target.writeChar(field.getChar(value));
+				break;
+			case INT_FIELD:
+				target.writeInt(field.getInt(value));
+				break;
+			case LONG_FIELD:
+				target.writeLong(field.getLong(value));
+				break;
+			case FLOAT_FIELD:
+				target.writeFloat(field.getFloat(value));
+				break;
+			case DOUBLE_FIELD:
+				target.writeDouble(field.getDouble(value));
+				break;
+			default:
+				throw new IllegalStateException("Unknown primitive field kind: " + fieldKind);
+		}
+	}
+
+	private static void deserializePrimitiveField(
+			byte fieldKind,
+			Field field,
+			Object target,
+			DataInputView source) throws IOException, IllegalAccessException {
+
+		switch (fieldKind) {
+			case BOOLEAN_FIELD:
+				field.setBoolean(target, source.readBoolean());
+				break;
+			case BYTE_FIELD:
+				field.setByte(target, source.readByte());
+				break;
+			case SHORT_FIELD:
+				field.setShort(target, source.readShort());
+				break;
+			case CHAR_FIELD:
+				field.setChar(target, source.readChar());
+				break;
+			case INT_FIELD:
+				field.setInt(target, source.readInt());
+				break;
+			case LONG_FIELD:
+				field.setLong(target, source.readLong());
+				break;
+			case FLOAT_FIELD:
+				field.setFloat(target, source.readFloat());
+				break;
+			case DOUBLE_FIELD:
+				field.setDouble(target, source.readDouble());
+				break;
+			default:
+				throw new IllegalStateException("Unknown primitive field kind: " + fieldKind);
+		}
+	}
+
+	private static void copyPrimitiveField(
+			byte fieldKind,
+			Field field,
+			Object from,
+			Object target) throws IllegalAccessException {
+
+		switch (fieldKind) {
+			case BOOLEAN_FIELD:
+				field.setBoolean(target, field.getBoolean(from));
+				break;
+			case BYTE_FIELD:
+				field.setByte(target, field.getByte(from));
+				break;
+			case SHORT_FIELD:
+				field.setShort(target, field.getShort(from));
+				break;
+			case CHAR_FIELD:
+				field.setChar(target, field.getChar(from));
+				break;
+			case INT_FIELD:
+				field.setInt(target, field.getInt(from));
+				break;
+			case LONG_FIELD:
+				field.setLong(target, field.getLong(from));
+				break;
+			case FLOAT_FIELD:
+				field.setFloat(target, field.getFloat(from));
+				break;
+			case DOUBLE_FIELD:
+				field.setDouble(target, field.getDouble(from));
+				break;
+			default:
+				throw new IllegalStateException("Unknown primitive field kind: " + fieldKind);
+		}
+	}
+
 	/**
 	 * Extracts the subclasses of the base POJO class registered in the execution config.
 	 */
@@ -55,6 +55,8 @@ public class RowComparator extends CompositeTypeComparator<Row> {
 	private final int numLeadingNormalizableKeys;
 	private final int normalizableKeyPrefixLen;
 	private final boolean invertNormKey;
+	/** whether the key positions are strictly ascending, which allows comparing serialized rows field by field */
+	private final boolean keyPositionsAscending;
 
 	// null masks for serialized comparison
 	private final boolean[] nullMask1;
@@ -144,6 +146,7 @@ public class RowComparator extends CompositeTypeComparator<Row> {
 		this.numLeadingNormalizableKeys = numLeadingNormalizableKeys;
 		this.normalizableKeyPrefixLen = normalizableKeyPrefixLen;
 		this.invertNormKey = invertNormKey;
+		this.keyPositionsAscending = isStrictlyAscending(keyPositions);
 		this.nullMask1 = new boolean[arity];
 		this.nullMask2 = new boolean[arity];
 		deserializedKeyFields1 = instantiateDeserializationFields();
@@ -254,12 +257,16 @@ public class RowComparator extends CompositeTypeComparator<Row> {
 		DataInputView firstSource,
 		DataInputView secondSource) throws IOException {
 
-		int len = serializers.length;
-		int keyLen = keyPositions.length;
-
 		readIntoNullMask(arity, firstSource, nullMask1);
 		readIntoNullMask(arity, secondSource, nullMask2);
 
+		if (keyPositionsAscending) {
+			return compareSerializedInFieldOrder(firstSource, secondSource);
+		}
+
+		int len = serializers.length;
+		int keyLen = keyPositions.length;
+
 		// deserialize
 		for (int i = 0; i < len; i++) {
 			TypeSerializer<Object> serializer = serializers[i];
@@ -315,6 +322,77 @@ public class RowComparator extends CompositeTypeComparator<Row> {
 		return 0;
 	}
 
+	/**
+	 * Compares two serialized rows whose null masks have already been read, for the case that
+	 * the key fields appear in the rows in the same order as in the key. The key fields are
+	 * compared as soon as they have been read, so that the remaining fields do not need to be
+	 * deserialized once a key field differs. Fixed-length non-key fields are skipped without
+	 * deserializing them.
+	 */
+	private int compareSerializedInFieldOrder(
+		DataInputView firstSource,
+		DataInputView secondSource) throws IOException {
+
+		int len = serializers.length;
+		int key = 0;
+
+		for (int i = 0; i < len; i++) {
+			TypeSerializer<Object> serializer = serializers[i];
+			boolean isNull1 = nullMask1[i];
+			boolean isNull2 = nullMask2[i];
+
+			if (keyPositions[key] != i) {
+				// not a key field, skip it on both sides
+				skipField(serializer, isNull1, i, firstSource, deserializedKeyFields1);
+				skipField(serializer, isNull2, i, secondSource, deserializedKeyFields2);
+				continue;
+			}
+
+			if (!isNull1) {
+				deserializedKeyFields1[i] = serializer.deserialize(deserializedKeyFields1[i], firstSource);
+			}
+			if (!isNull2) {
+				deserializedKeyFields2[i] = serializer.deserialize(deserializedKeyFields2[i], secondSource);
+			}
+
+			int cmp;
+			// both values are null -> equality
+			if (isNull1 && isNull2) {
+				cmp = 0;
+			} else {
+				cmp = comparators[key].compare(
+					isNull1 ? null : deserializedKeyFields1[i],
+					isNull2 ? null : deserializedKeyFields2[i]);
+			}
+
+			if (cmp != 0) {
+				return cmp;
+			}
+			key++;
+		}
+
+		return 0;
+	}
+
+	private static void skipField(
+		TypeSerializer<Object> serializer,
+		boolean isNull,
+		int pos,
+		DataInputView source,
+		Object[] reuseFields) throws IOException {
+
+		if (isNull) {
+			return;
+		}
+
+		int fieldLength = serializer.getLength();
+		if (fieldLength > 0) {
+			source.skipBytesToRead(fieldLength);
+		} else {
+			reuseFields[pos] = serializer.deserialize(reuseFields[pos], source);
+		}
+	}
+
 	@Override
 	public boolean supportsNormalizedKey() {
 		return numLeadingNormalizableKeys > 0;
@@ -476,6 +554,15 @@ public class RowComparator extends CompositeTypeComparator<Row> {
 			inverted);
 	}
 
+	private static boolean isStrictlyAscending(int[] keyPositions) {
+		for (int i = 1; i < keyPositions.length; i++) {
+			if (keyPositions[i] <= keyPositions[i - 1]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	private static NullAwareComparator<Object>[] makeNullAware(
 		TypeComparator<Object>[] comparators,
 		boolean[] orders) {
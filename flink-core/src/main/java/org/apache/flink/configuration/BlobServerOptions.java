@@ -87,4 +87,14 @@ public class BlobServerOptions {
 		key("blob.service.cleanup.interval")
 			.defaultValue(3_600L) // once per hour
 			.withDeprecatedKeys("library-cache-manager.cleanup.interval");
+
+	/**
+	 * The minimum size in bytes of the serialized job and task information that is shipped to the
+	 * task managers via the blob server instead of inside the task deployment descriptors. The
+	 * task managers then download the information only once per job and task. A negative value
+	 * disables the offloading.
+	 */
+	public static final ConfigOption<Integer> OFFLOAD_MINSIZE =
+		key("blob.offload.minsize")
+			.defaultValue(1_024 * 1_024); // 1 MiB by default
 }
@@ -70,4 +70,9 @@ public class CoreOptions {
 	public static final ConfigOption<String> CHECKPOINTS_DIRECTORY = ConfigOptions
 		.key("state.checkpoints.dir")
 		.noDefaultValue();
+
+	/** The maximum number of concurrent disposals of state of subsumed checkpoints. */
+	public static final ConfigOption<Integer> CHECKPOINTS_MAX_CONCURRENT_DISPOSALS = ConfigOptions
+		.key("state.checkpoints.max-concurrent-disposals")
+		.defaultValue(4);
 }
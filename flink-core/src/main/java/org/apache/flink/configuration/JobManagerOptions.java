@@ -73,12 +73,44 @@ public class JobManagerOptions {
 			.withDeprecatedKeys("job-manager.max-attempts-history-size");
 
 	/**
-	 * The maximum number of prior execution attempts kept in history.
+	 * The strategy to recover from task failures: "full", "individual", "region" or
+	 * "upstream-replay".
 	 */
 	public static final ConfigOption<String> EXECUTION_FAILOVER_STRATEGY =
 		key("jobmanager.execution.failover-strategy")
 			.defaultValue("full");
 
+	/**
+	 * Flag whether the JobManager launches speculative attempts of slow batch source tasks. The
+	 * TaskManagers report the progress of their tasks only if this flag is set.
+	 */
+	public static final ConfigOption<Boolean> SPECULATIVE_EXECUTION_ENABLED =
+		key("jobmanager.execution.speculative.enabled")
+			.defaultValue(false);
+
+	/**
+	 * The fraction of the median progress of a task's parallel subtasks, below which a subtask
+	 * counts as slow and gets a speculative attempt.
+	 */
+	public static final ConfigOption<Double> SPECULATIVE_EXECUTION_SLOW_TASK_RATIO =
+		key("jobmanager.execution.speculative.slow-task-ratio")
+			.defaultValue(0.5);
+
+	/**
+	 * The time in milliseconds that a task has to run before it can get a speculative attempt.
+	 */
+	public static final ConfigOption<Long> SPECULATIVE_EXECUTION_MIN_RUNTIME =
+		key("jobmanager.execution.speculative.min-runtime")
+			.defaultValue(60000L);
+
+	/**
+	 * Flag whether the scheduler places tasks according to the data volume of their inputs
+	 * and the host topology, to reduce the network traffic between hosts.
+	 */
+	public static final ConfigOption<Boolean> SCHEDULER_TOPOLOGY_AWARE =
+		key("jobmanager.scheduler.topology-aware")
+			.defaultValue(false);
+
 	/**
 	 * This option specifies the interval in order to trigger a resource manager reconnection if the connection
 	 * to the resource manager has been lost.
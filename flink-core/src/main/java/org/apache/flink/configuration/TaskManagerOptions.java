@@ -107,6 +107,26 @@ public class TaskManagerOptions {
 			key("taskmanager.memory.preallocate")
 			.defaultValue(false);
 
+	/**
+	 * Interval in milliseconds in which lazily allocated managed memory that was idle is released.
+	 * Zero disables pooling of lazily allocated memory.
+	 */
+	public static final ConfigOption<Long> MANAGED_MEMORY_POOL_RELEASE_INTERVAL =
+			key("taskmanager.memory.pool-release-interval")
+			.defaultValue(0L);
+
+	// ------------------------------------------------------------------------
+	//  I/O Manager Options
+	// ------------------------------------------------------------------------
+
+	/**
+	 * The number of threads that the I/O manager uses to read, and the number of threads it uses
+	 * to write, temporary files in each of the temporary directories.
+	 */
+	public static final ConfigOption<Integer> IO_THREADS_PER_TMP_DIR =
+			key("taskmanager.tmp.io-threads-per-dir")
+			.defaultValue(1);
+
 	// ------------------------------------------------------------------------
 	//  Network Options
 	// ------------------------------------------------------------------------
@@ -184,6 +204,14 @@ public class TaskManagerOptions {
 			key("taskmanager.network.detailed-metrics")
 			.defaultValue(false);
 
+	/**
+	 * Maximum number of bytes that a pipelined result partition retains on the heap for
+	 * replaying its in-flight data to restarted consumers.
+	 */
+	public static final ConfigOption<Long> NETWORK_REPLAY_MAX_RETAINED_BYTES =
+			key("taskmanager.network.replay.max-retained-bytes")
+			.defaultValue(64L << 20);
+
 	// ------------------------------------------------------------------------
 	//  Task Options
 	// ------------------------------------------------------------------------
@@ -217,6 +245,34 @@ public class TaskManagerOptions {
 			key("task.checkpoint.alignment.max-size")
 			.defaultValue(-1L);
 
+	// ------------------------------------------------------------------------
+	//  Runtime Algorithm Options
+	// ------------------------------------------------------------------------
+
+	/**
+	 * The number of threads that each external sorter uses to sort filled sort buffers concurrently.
+	 */
+	public static final ConfigOption<Integer> RUNTIME_SORT_THREADS =
+			key("taskmanager.runtime.sort-threads")
+			.defaultValue(1);
+
+	/**
+	 * Flag to let hash joins send runtime filters with the keys of their build side to the producers
+	 * of their probe side, which drop records that cannot find a join partner before shipping them.
+	 */
+	public static final ConfigOption<Boolean> RUNTIME_HASH_JOIN_RUNTIME_FILTERS =
+			key("taskmanager.runtime.hashjoin-runtime-filters")
+			.defaultValue(false);
+
+	/**
+	 * Flag to let hash joins determine the sizes of both inputs before building the hash table.
+	 * The smaller input becomes the build side, and the join falls back to a sort-merge join if
+	 * neither input fits into the memory of the join.
+	 */
+	public static final ConfigOption<Boolean> RUNTIME_HASH_JOIN_ADAPTIVE_BUILD_SIDE =
+			key("taskmanager.runtime.hashjoin-adaptive-build-side")
+			.defaultValue(false);
+
 	// ------------------------------------------------------------------------
 
 	/** Not intended to be instantiated */
@@ -281,6 +281,112 @@ public class PojoSerializerTest extends SerializerTestBase<PojoSerializerTest.Te
 		
 	}
 
+	/**
+	 * Verifies that primitive fields, which are accessed without boxing, are written in
+	 * exactly the format of their field serializers and are read and copied correctly.
+	 */
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testPrimitiveFieldsSerializationFormat() throws Exception {
+		PojoSerializer<PrimitivesTestUserClass> pojoSerializer = (PojoSerializer<PrimitivesTestUserClass>)
+			TypeExtractor.getForClass(PrimitivesTestUserClass.class).createSerializer(new ExecutionConfig());
+
+		PrimitivesTestUserClass value = new PrimitivesTestUserClass(
+			true, (byte) -7, (short) 1234, 'x', 42, Long.MIN_VALUE, 3.14f, Double.MAX_VALUE, "foo");
+
+		// write the expected bytes through the field serializers
+		ByteArrayOutputStream expected = new ByteArrayOutputStream();
+		DataOutputViewStreamWrapper expectedOut = new DataOutputViewStreamWrapper(expected);
+		expectedOut.writeByte(2); // NO_SUBCLASS flag
+		Field[] fields = pojoSerializer.getFields();
+		TypeSerializer<Object>[] fieldSerializers = (TypeSerializer<Object>[]) pojoSerializer.getFieldSerializers();
+		for (int i = 0; i < fields.length; i++) {
+			expectedOut.writeBoolean(false);
+			fieldSerializers[i].serialize(fields[i].get(value), expectedOut);
+		}
+
+		ByteArrayOutputStream actual = new ByteArrayOutputStream();
+		pojoSerializer.serialize(value, new DataOutputViewStreamWrapper(actual));
+
+		Assert.assertArrayEquals(expected.toByteArray(), actual.toByteArray());
+
+		PrimitivesTestUserClass deserialized = pojoSerializer.deserialize(
+			new DataInputViewStreamWrapper(new ByteArrayInputStream(actual.toByteArray())));
+		assertEquals(value, deserialized);
+
+		PrimitivesTestUserClass reused = pojoSerializer.deserialize(
+			new PrimitivesTestUserClass(),
+			new DataInputViewStreamWrapper(new ByteArrayInputStream(actual.toByteArray())));
+		assertEquals(value, reused);
+
+		assertEquals(value, pojoSerializer.copy(value));
+		assertEquals(value, pojoSerializer.copy(value, new PrimitivesTestUserClass()));
+	}
+
+	/**
+	 * A POJO with fields of all primitive types.
+	 */
+	public static class PrimitivesTestUserClass {
+		public boolean booleanField;
+		public byte byteField;
+		public short shortField;
+		public char charField;
+		public int intField;
+		public long longField;
+		public float floatField;
+		public double doubleField;
+		public String stringField;
+
+		public PrimitivesTestUserClass() {}
+
+		public PrimitivesTestUserClass(
+				boolean booleanField,
+				byte byteField,
+				short shortField,
+				char charField,
+				int intField,
+				long longField,
+				float floatField,
+				double doubleField,
+				String stringField) {
+			this.booleanField = booleanField;
+			this.byteField = byteField;
+			this.shortField = shortField;
+			this.charField = charField;
+			this.intField = intField;
+			this.longField = longField;
+			this.floatField = floatField;
+			this.doubleField = doubleField;
+			this.stringField = stringField;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (o == null || getClass() != o.getClass()) {
+				return false;
+			}
+			PrimitivesTestUserClass that = (PrimitivesTestUserClass) o;
+			return booleanField == that.booleanField &&
+				byteField == that.byteField &&
+				shortField == that.shortField &&
+				charField == that.charField &&
+				intField == that.intField &&
+				longField == that.longField &&
+				Float.compare(that.floatField, floatField) == 0 &&
+				Double.compare(that.doubleField, doubleField) == 0 &&
+				Objects.equals(stringField, that.stringField);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(
+				booleanField, byteField, shortField, charField, intField, longField, floatField, doubleField, stringField);
+		}
+	}
+
 	// --------------------------------------------------------------------------------------------
 	// Configuration snapshotting & reconfiguring tests
 	// --------------------------------------------------------------------------------------------
@@ -26,12 +26,19 @@ import org.apache.flink.api.java.tuple.Tuple3;
 import org.apache.flink.api.java.typeutils.RowTypeInfo;
 import org.apache.flink.api.java.typeutils.TupleTypeInfo;
 import org.apache.flink.api.java.typeutils.TypeExtractor;
+import org.apache.flink.core.memory.DataInputViewStreamWrapper;
+import org.apache.flink.core.memory.DataOutputViewStreamWrapper;
 import org.apache.flink.types.Row;
 import org.junit.BeforeClass;
+import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.Serializable;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 public class RowComparatorTest extends ComparatorTestBase<Row> {
 
@@ -110,6 +117,51 @@ public class RowComparatorTest extends ComparatorTestBase<Row> {
 		return true;
 	}
 
+	@Test
+	public void testCompareSerializedWithNonKeyFields() throws IOException {
+		TypeSerializer<Row> serializer = createSerializer();
+
+		// leading fixed-length and variable-length non-key fields are skipped
+		TypeComparator<Row> comparator = typeInfo.createComparator(
+			new int[] {2}, new boolean[] {true}, 0, new ExecutionConfig());
+
+		assertEquals(0, compareSerialized(comparator, serializer,
+			createRow(1, null, "a", null, null),
+			createRow(2, 2.0, "a", null, null)));
+		assertTrue(compareSerialized(comparator, serializer,
+			createRow(2, 2.0, "a", null, null),
+			createRow(1, null, "b", null, null)) < 0);
+
+		// key fields in a different order than in the row
+		comparator = typeInfo.createComparator(
+			new int[] {2, 0}, new boolean[] {true, false}, 0, new ExecutionConfig());
+
+		assertTrue(compareSerialized(comparator, serializer,
+			createRow(1, 2.0, "a", null, null),
+			createRow(2, 1.0, "a", null, null)) > 0);
+		assertTrue(compareSerialized(comparator, serializer,
+			createRow(1, 2.0, "a", null, null),
+			createRow(0, 1.0, "b", null, null)) < 0);
+	}
+
+	private static int compareSerialized(
+			TypeComparator<Row> comparator,
+			TypeSerializer<Row> serializer,
+			Row first,
+			Row second) throws IOException {
+
+		ByteArrayOutputStream out1 = new ByteArrayOutputStream();
+		serializer.serialize(first, new DataOutputViewStreamWrapper(out1));
+		ByteArrayOutputStream out2 = new ByteArrayOutputStream();
+		serializer.serialize(second, new DataOutputViewStreamWrapper(out2));
+
+		int cmp = comparator.compareSerialized(
+			new DataInputViewStreamWrapper(new ByteArrayInputStream(out1.toByteArray())),
+			new DataInputViewStreamWrapper(new ByteArrayInputStream(out2.toByteArray())));
+		assertEquals(Integer.signum(comparator.compare(first, second)), Integer.signum(cmp));
+		return cmp;
+	}
+
 	private static Row createRow(Object f0, Object f1, Object f2, Object f3, Object f4) {
 		Row row = new Row(5);
 		row.setField(0, f0);
@@ -42,9 +42,12 @@ import org.apache.flink.api.common.operators.base.PartitionOperatorBase.Partitio
 import org.apache.flink.api.common.typeinfo.TypeInformation;
 import org.apache.flink.api.common.typeutils.TypeSerializer;
 import org.apache.flink.api.java.aggregation.Aggregations;
+import org.apache.flink.api.java.functions.ColumnBatch;
+import org.apache.flink.api.java.functions.FilterBatchFunction;
 import org.apache.flink.api.java.functions.FirstReducer;
 import org.apache.flink.api.java.functions.FormattingMapper;
 import org.apache.flink.api.java.functions.KeySelector;
+import org.apache.flink.api.java.functions.MapBatchFunction;
 import org.apache.flink.api.java.functions.SelectByMaxFunction;
 import org.apache.flink.api.java.functions.SelectByMinFunction;
 import org.apache.flink.api.java.io.CsvOutputFormat;
@@ -77,6 +80,8 @@ import org.apache.flink.api.java.operators.UnionOperator;
 import org.apache.flink.api.java.operators.UnsortedGrouping;
 import org.apache.flink.api.java.operators.join.JoinOperatorSetsBase;
 import org.apache.flink.api.java.operators.join.JoinType;
+import org.apache.flink.api.java.operators.translation.ColumnBatchFilter;
+import org.apache.flink.api.java.operators.translation.ColumnBatchMapper;
 import org.apache.flink.api.java.tuple.Tuple;
 import org.apache.flink.api.java.tuple.Tuple2;
 import org.apache.flink.api.java.typeutils.InputTypeConfigurable;
@@ -288,6 +293,103 @@ public abstract class DataSet<T> {
 		return new FilterOperator<>(this, clean(filter), Utils.getCallLocationName());
 	}
 
+	/**
+	 * Applies a batched Map transformation on a {@link DataSet} of primitive values or tuples of primitive values.
+	 *
+	 * <p>The records of each parallel partition are collected in {@link ColumnBatch ColumnBatches} and the
+	 * {@link MapBatchFunction} is called once per batch instead of once per record. The function can work
+	 * on the primitive arrays of the columns in tight loops without boxing the values. The transformation
+	 * is executed as a flat map and chained to its predecessor. Batched transformations that are chained
+	 * to each other pass the batches on without converting them into records.
+	 *
+	 * <p>The result type is extracted from the generic parameters of the function. Use
+	 * {@link #mapBatch(MapBatchFunction, TypeInformation)} if that is not possible, e.g., for lambdas.
+	 *
+	 * @param mapper The MapBatchFunction that is called for each batch of the DataSet.
+	 * @return A FlatMapOperator that represents the transformed DataSet.
+	 *
+	 * @see MapBatchFunction
+	 * @see ColumnBatch
+	 */
+	@PublicEvolving
+	public <R> FlatMapOperator<T, R> mapBatch(MapBatchFunction<T, R> mapper) {
+		if (mapper == null) {
+			throw new NullPointerException("MapBatch function must not be null.");
+		}
+
+		String callLocation = Utils.getCallLocationName();
+		TypeInformation<R> resultType;
+		try {
+			resultType = TypeExtractor.getUnaryOperatorReturnType(
+				mapper, MapBatchFunction.class, 0, 1, new int[]{0}, new int[]{1}, getType(), callLocation, false);
+		} catch (InvalidTypesException e) {
+			throw new InvalidProgramException("The result type of the MapBatch function could not be determined. " +
+				"Please specify it with mapBatch(MapBatchFunction, TypeInformation).", e);
+		}
+		return mapBatch(mapper, resultType, callLocation);
+	}
+
+	/**
+	 * Applies a batched Map transformation on a {@link DataSet} of primitive values or tuples of primitive values.
+	 *
+	 * @param mapper The MapBatchFunction that is called for each batch of the DataSet.
+	 * @param resultType The type of the records that the function produces.
+	 * @return A FlatMapOperator that represents the transformed DataSet.
+	 *
+	 * @see #mapBatch(MapBatchFunction)
+	 */
+	@PublicEvolving
+	public <R> FlatMapOperator<T, R> mapBatch(MapBatchFunction<T, R> mapper, TypeInformation<R> resultType) {
+		if (mapper == null) {
+			throw new NullPointerException("MapBatch function must not be null.");
+		}
+		if (resultType == null) {
+			throw new NullPointerException("Result type must not be null.");
+		}
+		return mapBatch(mapper, resultType, Utils.getCallLocationName());
+	}
+
+	private <R> FlatMapOperator<T, R> mapBatch(MapBatchFunction<T, R> mapper, TypeInformation<R> resultType, String callLocation) {
+		checkColumnBatchType(getType());
+		checkColumnBatchType(resultType);
+
+		return new FlatMapOperator<>(this, resultType,
+			new ColumnBatchMapper<>(clean(mapper), getType(), resultType), callLocation);
+	}
+
+	/**
+	 * Applies a batched Filter transformation on a {@link DataSet} of primitive values or tuples of primitive values.
+	 *
+	 * <p>The records of each parallel partition are collected in {@link ColumnBatch ColumnBatches} and the
+	 * {@link FilterBatchFunction} is called once per batch. It returns the positions of the records that are
+	 * retained. The transformation is executed as a flat map and chained to its predecessor. Batched
+	 * transformations that are chained to each other pass the batches on without converting them into records.
+	 *
+	 * @param filter The FilterBatchFunction that is called for each batch of the DataSet.
+	 * @return A FlatMapOperator that represents the filtered DataSet.
+	 *
+	 * @see FilterBatchFunction
+	 * @see ColumnBatch
+	 */
+	@PublicEvolving
+	public FlatMapOperator<T, T> filterBatch(FilterBatchFunction<T> filter) {
+		if (filter == null) {
+			throw new NullPointerException("FilterBatch function must not be null.");
+		}
+		checkColumnBatchType(getType());
+
+		return new FlatMapOperator<>(this, getType(),
+			new ColumnBatchFilter<>(clean(filter), getType()), Utils.getCallLocationName())
+			.withForwardedFields("*");
+	}
+
+	private static void checkColumnBatchType(TypeInformation<?> type) {
+		if (!ColumnBatch.isSupportedType(type)) {
+			throw new InvalidProgramException("Batch functions are only supported for primitive types " +
+				"and tuples of primitive types, but the type is " + type + ".");
+		}
+	}
+
 	// --------------------------------------------------------------------------------------------
 	//  Projections
 	// --------------------------------------------------------------------------------------------
@@ -0,0 +1,612 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.api.java.functions;
+
+import org.apache.flink.annotation.PublicEvolving;
+import org.apache.flink.api.common.typeinfo.BasicTypeInfo;
+import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.api.java.tuple.Tuple;
+import org.apache.flink.api.java.typeutils.TupleTypeInfo;
+import org.apache.flink.types.NullFieldException;
+import org.apache.flink.util.InstantiationUtil;
+
+/**
+ * A batch of records in columnar layout. Each field of the records is stored in an array of the
+ * field's primitive type, such that functions can process the values of a field in a tight loop,
+ * without boxing and without a function call per record.
+ *
+ * <p>Batches hold records of a primitive type, such as {@code Long} or {@code Double}, in a single
+ * column, and tuples whose fields are all of primitive types in one column per field. The column
+ * arrays have the capacity of the batch as length, of which the first {@link #getSize()} entries
+ * are valid.
+ *
+ * @see MapBatchFunction
+ * @see FilterBatchFunction
+ */
+@PublicEvolving
+public class ColumnBatch {
+
+	/** The default number of records in a batch. */
+	public static final int DEFAULT_CAPACITY = 1024;
+
+	private static final byte LONG = 0;
+	private static final byte INT = 1;
+	private static final byte DOUBLE = 2;
+	private static final byte FLOAT = 3;
+	private static final byte SHORT = 4;
+	private static final byte BYTE = 5;
+	private static final byte BOOLEAN = 6;
+	private static final byte CHAR = 7;
+
+	private final TypeInformation<?> type;
+
+	private final boolean isTuple;
+
+	/** Empty record from which the records of the batch are created, or null for primitive types. */
+	private final Tuple recordTemplate;
+
+	/** Whether the template is a plain tuple, whose copies are created without reflection. */
+	private final boolean isPlainTuple;
+
+	private final Column[] columns;
+
+	private final int capacity;
+
+	private int size;
+
+	/**
+	 * Creates a batch for records of the given type.
+	 *
+	 * @param type The type of the records, a primitive type or a tuple of primitive types.
+	 * @param capacity The maximum number of records in the batch.
+	 * @throws IllegalArgumentException Thrown, if the type cannot be stored in columns.
+	 */
+	public ColumnBatch(TypeInformation<?> type, int capacity) {
+		if (!isSupportedType(type)) {
+			throw new IllegalArgumentException("Only primitive types and tuples of primitive types " +
+				"can be stored in column batches, but the type is " + type);
+		}
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("The capacity of a column batch must be positive.");
+		}
+
+		this.type = type;
+		this.isTuple = type.isTupleType();
+		this.recordTemplate = isTuple ? (Tuple) InstantiationUtil.instantiate(type.getTypeClass()) : null;
+		this.capacity = capacity;
+
+		final int numColumns = isTuple ? type.getArity() : 1;
+		this.isPlainTuple = isTuple && recordTemplate.getClass() == Tuple.getTupleClass(numColumns);
+		this.columns = new Column[numColumns];
+
+		for (int i = 0; i < numColumns; i++) {
+			final TypeInformation<?> fieldType = isTuple ? ((TupleTypeInfo<?>) type).getTypeAt(i) : type;
+			columns[i] = createColumn(getColumnType(fieldType), capacity);
+		}
+	}
+
+	/**
+	 * Checks whether records of the given type can be stored in column batches.
+	 *
+	 * @param type The type of the records.
+	 * @return True, if the type is a primitive type or a tuple of primitive types.
+	 */
+	public static boolean isSupportedType(TypeInformation<?> type) {
+		if (type instanceof TupleTypeInfo) {
+			final TupleTypeInfo<?> tupleType = (TupleTypeInfo<?>) type;
+			for (int i = 0; i < tupleType.getArity(); i++) {
+				if (getColumnType(tupleType.getTypeAt(i)) < 0) {
+					return false;
+				}
+			}
+			return tupleType.getArity() > 0;
+		} else {
+			return getColumnType(type) >= 0;
+		}
+	}
+
+	// ------------------------------------------------------------------------
+	//  Accessors
+	// ------------------------------------------------------------------------
+
+	/**
+	 * Gets the type of the records in this batch.
+	 */
+	public TypeInformation<?> getType() {
+		return type;
+	}
+
+	/**
+	 * Gets the number of records in this batch.
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * Sets the number of records in this batch.
+	 */
+	public void setSize(int size) {
+		if (size < 0 || size > capacity) {
+			throw new IllegalArgumentException("Size " + size + " is out of the batch's capacity " + capacity);
+		}
+		this.size = size;
+	}
+
+	/**
+	 * Gets the maximum number of records in this batch.
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Gets the number of columns, which is the arity for tuples and one for primitive types.
+	 */
+	public int getNumColumns() {
+		return columns.length;
+	}
+
+	public long[] getLongColumn(int column) {
+		return (long[]) getColumn(column, LONG);
+	}
+
+	public int[] getIntColumn(int column) {
+		return (int[]) getColumn(column, INT);
+	}
+
+	public double[] getDoubleColumn(int column) {
+		return (double[]) getColumn(column, DOUBLE);
+	}
+
+	public float[] getFloatColumn(int column) {
+		return (float[]) getColumn(column, FLOAT);
+	}
+
+	public short[] getShortColumn(int column) {
+		return (short[]) getColumn(column, SHORT);
+	}
+
+	public byte[] getByteColumn(int column) {
+		return (byte[]) getColumn(column, BYTE);
+	}
+
+	public boolean[] getBooleanColumn(int column) {
+		return (boolean[]) getColumn(column, BOOLEAN);
+	}
+
+	public char[] getCharColumn(int column) {
+		return (char[]) getColumn(column, CHAR);
+	}
+
+	private Object getColumn(int column, byte columnType) {
+		if (columns[column].type != columnType) {
+			throw new IllegalArgumentException("Column " + column + " is of type " +
+				columns[column].values.getClass().getComponentType() + ".");
+		}
+		return columns[column].values;
+	}
+
+	// ------------------------------------------------------------------------
+	//  Conversion from and to records
+	// ------------------------------------------------------------------------
+
+	/**
+	 * Stores the fields of the given record in the given row of the columns.
+	 *
+	 * @param row The row to write.
+	 * @param record The record, of the type of this batch.
+	 * @throws NullFieldException Thrown, if the record or one of its fields is null, which cannot
+	 *                            be stored in a primitive column.
+	 */
+	public void setRecord(int row, Object record) {
+		if (isTuple) {
+			final Tuple tuple = (Tuple) record;
+			for (int i = 0; i < columns.length; i++) {
+				final Object value = tuple.getField(i);
+				if (value == null) {
+					throw new NullFieldException(i);
+				}
+				columns[i].set(row, value);
+			}
+		} else {
+			if (record == null) {
+				throw new NullFieldException(0);
+			}
+			columns[0].set(row, record);
+		}
+	}
+
+	/**
+	 * Creates a record from the given row of the columns.
+	 *
+	 * @param row The row to read.
+	 * @return The record, of the type of this batch.
+	 */
+	public Object getRecord(int row) {
+		if (isTuple) {
+			// subclasses of tuples are instantiated, since their copies would be plain tuples
+			final Tuple tuple = isPlainTuple ?
+				recordTemplate.copy() : InstantiationUtil.instantiate(recordTemplate.getClass());
+			for (int i = 0; i < columns.length; i++) {
+				tuple.setField(columns[i].get(row), i);
+			}
+			return tuple;
+		} else {
+			return columns[0].get(row);
+		}
+	}
+
+	/**
+	 * Copies the given rows of another batch into the first rows of this batch and sets the size
+	 * of this batch to the number of copied rows. The values are copied column by column, without
+	 * creating records.
+	 *
+	 * @param source The batch to copy from, with the same column types as this batch.
+	 * @param rows The rows to copy, of which the first {@code numRows} entries are used.
+	 * @param numRows The number of rows to copy.
+	 * @throws IllegalArgumentException Thrown, if the columns of the batches differ.
+	 */
+	public void copyRows(ColumnBatch source, int[] rows, int numRows) {
+		if (source.columns.length != columns.length) {
+			throw new IllegalArgumentException("The batch has " + source.columns.length +
+				" columns, but " + columns.length + " columns are required.");
+		}
+		for (int i = 0; i < columns.length; i++) {
+			if (source.columns[i].type != columns[i].type) {
+				throw new IllegalArgumentException("Column " + i + " is of type " +
+					source.columns[i].values.getClass().getComponentType() + ".");
+			}
+		}
+		setSize(numRows);
+
+		for (int i = 0; i < columns.length; i++) {
+			columns[i].copyRows(source.columns[i], rows, numRows);
+		}
+	}
+
+	// ------------------------------------------------------------------------
+
+	private static byte getColumnType(TypeInformation<?> type) {
+		if (!(type instanceof BasicTypeInfo)) {
+			return -1;
+		}
+
+		final Class<?> clazz = type.getTypeClass();
+		if (clazz == Long.class) {
+			return LONG;
+		} else if (clazz == Integer.class) {
+			return INT;
+		} else if (clazz == Double.class) {
+			return DOUBLE;
+		} else if (clazz == Float.class) {
+			return FLOAT;
+		} else if (clazz == Short.class) {
+			return SHORT;
+		} else if (clazz == Byte.class) {
+			return BYTE;
+		} else if (clazz == Boolean.class) {
+			return BOOLEAN;
+		} else if (clazz == Character.class) {
+			return CHAR;
+		} else {
+			return -1;
+		}
+	}
+
+	private static Column createColumn(byte columnType, int capacity) {
+		switch (columnType) {
+			case LONG:
+				return new LongColumn(capacity);
+			case INT:
+				return new IntColumn(capacity);
+			case DOUBLE:
+				return new DoubleColumn(capacity);
+			case FLOAT:
+				return new FloatColumn(capacity);
+			case SHORT:
+				return new ShortColumn(capacity);
+			case BYTE:
+				return new ByteColumn(capacity);
+			case BOOLEAN:
+				return new BooleanColumn(capacity);
+			case CHAR:
+				return new CharColumn(capacity);
+			default:
+				throw new IllegalArgumentException("Unknown column type " + columnType);
+		}
+	}
+
+	// ------------------------------------------------------------------------
+	//  Columns
+	// ------------------------------------------------------------------------
+
+	/**
+	 * A column of values of one primitive type, which converts between the values and the fields of
+	 * the records without dispatching on the type per value.
+	 */
+	private abstract static class Column {
+
+		/** The type of the column. */
+		final byte type;
+
+		/** The primitive array that holds the values. */
+		final Object values;
+
+		Column(byte type, Object values) {
+			this.type = type;
+			this.values = values;
+		}
+
+		abstract void set(int row, Object value);
+
+		abstract Object get(int row);
+
+		/** Copies the given rows of a column of the same type into the first rows of this column. */
+		abstract void copyRows(Column source, int[] rows, int numRows);
+	}
+
+	private static final class LongColumn extends Column {
+		private final long[] array;
+
+		LongColumn(int capacity) {
+			this(new long[capacity]);
+		}
+
+		private LongColumn(long[] array) {
+			super(LONG, array);
+			this.array = array;
+		}
+
+		@Override
+		void set(int row, Object value) {
+			array[row] = (Long) value;
+		}
+
+		@Override
+		Object get(int row) {
+			return array[row];
+		}
+
+		@Override
+		void copyRows(Column source, int[] rows, int numRows) {
+			final long[] sourceArray = ((LongColumn) source).array;
+			for (int i = 0; i < numRows; i++) {
+				array[i] = sourceArray[rows[i]];
+			}
+		}
+	}
+
+	private static final class IntColumn extends Column {
+		private final int[] array;
+
+		IntColumn(int capacity) {
+			this(new int[capacity]);
+		}
+
+		private IntColumn(int[] array) {
+			super(INT, array);
+			this.array = array;
+		}
+
+		@Override
+		void set(int row, Object value) {
+			array[row] = (Integer) value;
+		}
+
+		@Override
+		Object get(int row) {
+			return array[row];
+		}
+
+		@Override
+		void copyRows(Column source, int[] rows, int numRows) {
+			final int[] sourceArray = ((IntColumn) source).array;
+			for (int i = 0; i < numRows; i++) {
+				array[i] = sourceArray[rows[i]];
+			}
+		}
+	}
+
+	private static final class DoubleColumn extends Column {
+		private final double[] array;
+
+		DoubleColumn(int capacity) {
+			this(new double[capacity]);
+		}
+
+		private DoubleColumn(double[] array) {
+			super(DOUBLE, array);
+			this.array = array;
+		}
+
+		@Override
+		void set(int row, Object value) {
+			array[row] = (Double) value;
+		}
+
+		@Override
+		Object get(int row) {
+			return array[row];
+		}
+
+		@Override
+		void copyRows(Column source, int[] rows, int numRows) {
+			final double[] sourceArray = ((DoubleColumn) source).array;
+			for (int i = 0; i < numRows; i++) {
+				array[i] = sourceArray[rows[i]];
+			}
+		}
+	}
+
+	private static final class FloatColumn extends Column {
+		private final float[] array;
+
+		FloatColumn(int capacity) {
+			this(new float[capacity]);
+		}
+
+		private FloatColumn(float[] array) {
+			super(FLOAT, array);
+			this.array = array;
+		}
+
+		@Override
+		void set(int row, Object value) {
+			array[row] = (Float) value;
+		}
+
+		@Override
+		Object get(int row) {
+			return array[row];
+		}
+
+		@Override
+		void copyRows(Column source, int[] rows, int numRows) {
+			final float[] sourceArray = ((FloatColumn) source).array;
+			for (int i = 0; i < numRows; i++) {
+				array[i] = sourceArray[rows[i]];
+			}
+		}
+	}
+
+	private static final class ShortColumn extends Column {
+		private final short[] array;
+
+		ShortColumn(int capacity) {
+			this(new short[capacity]);
+		}
+
+		private ShortColumn(short[] array) {
+			super(SHORT, array);
+			this.array = array;
+		}
+
+		@Override
+		void set(int row, Object value) {
+			array[row] = (Short) value;
+		}
+
+		@Override
+		Object get(int row) {
+			return array[row];
+		}
+
+		@Override
+		void copyRows(Column source, int[] rows, int numRows) {
+			final short[] sourceArray = ((ShortColumn) source).array;
+			for (int i = 0; i < numRows; i++) {
+				array[i] = sourceArray[rows[i]];
+			}
+		}
+	}
+
+	private static final class ByteColumn extends Column {
+		private final byte[] array;
+
+		ByteColumn(int capacity) {
+			this(new byte[capacity]);
+		}
+
+		private ByteColumn(byte[] array) {
+			super(BYTE, array);
+			this.array = array;
+		}
+
+		@Override
+		void set(int row, Object value) {
+			array[row] = (Byte) value;
+		}
+
+		@Override
+		Object get(int row) {
+			return array[row];
+		}
+
+		@Override
+		void copyRows(Column source, int[] rows, int numRows) {
+			final byte[] sourceArray = ((ByteColumn) source).array;
+			for (int i = 0; i < numRows; i++) {
+				array[i] = sourceArray[rows[i]];
+			}
+		}
+	}
+
+	private static final class BooleanColumn extends Column {
+		private final boolean[] array;
+
+		BooleanColumn(int capacity) {
+			this(new boolean[capacity]);
+		}
+
+		private BooleanColumn(boolean[] array) {
+			super(BOOLEAN, array);
+			this.array = array;
+		}
+
+		@Override
+		void set(int row, Object value) {
+			array[row] = (Boolean) value;
+		}
+
+		@Override
+		Object get(int row) {
+			return array[row];
+		}
+
+		@Override
+		void copyRows(Column source, int[] rows, int numRows) {
+			final boolean[] sourceArray = ((BooleanColumn) source).array;
+			for (int i = 0; i < numRows; i++) {
+				array[i] = sourceArray[rows[i]];
+			}
+		}
+	}
+
+	private static final class CharColumn extends Column {
+		private final char[] array;
+
+		CharColumn(int capacity) {
+			this(new char[capacity]);
+		}
+
+		private CharColumn(char[] array) {
+			super(CHAR, array);
+			this.array = array;
+		}
+
+		@Override
+		void set(int row, Object value) {
+			array[row] = (Character) value;
+		}
+
+		@Override
+		Object get(int row) {
+			return array[row];
+		}
+
+		@Override
+		void copyRows(Column source, int[] rows, int numRows) {
+			final char[] sourceArray = ((CharColumn) source).array;
+			for (int i = 0; i < numRows; i++) {
+				array[i] = sourceArray[rows[i]];
+			}
+		}
+	}
+}
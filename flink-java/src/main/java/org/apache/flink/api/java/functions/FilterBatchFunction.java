@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.api.java.functions;
+
+import org.apache.flink.annotation.PublicEvolving;
+import org.apache.flink.api.common.functions.Function;
+
+import java.io.Serializable;
+
+/**
+ * Interface for filter functions which evaluate their predicate on batches of records in columnar
+ * layout, instead of single records. The function is called once per batch of up to
+ * {@link ColumnBatch#DEFAULT_CAPACITY} records and selects the rows of the records to retain.
+ *
+ * <p>The type of the records must be a primitive type or a tuple of primitive types.
+ *
+ * <pre>{@code
+ * DataSet<Tuple2<Long, Double>> input = ...;
+ *
+ * DataSet<Tuple2<Long, Double>> result = input.filterBatch(new FilterBatchFunction<Tuple2<Long, Double>>() {
+ *     public int filter(ColumnBatch values, int[] selected) {
+ *         double[] amounts = values.getDoubleColumn(1);
+ *         int numSelected = 0;
+ *         for (int i = 0; i < values.getSize(); i++) {
+ *             if (amounts[i] > 100.0) {
+ *                 selected[numSelected++] = i;
+ *             }
+ *         }
+ *         return numSelected;
+ *     }
+ * });
+ * }</pre>
+ *
+ * @param <T> Type of the filtered elements.
+ */
+@PublicEvolving
+public interface FilterBatchFunction<T> extends Function, Serializable {
+
+	/**
+	 * The filter method. Writes the rows of the records to retain, in ascending order, to the
+	 * selection vector.
+	 *
+	 * @param values The records to filter. The batch must not be modified.
+	 * @param selected The selection vector, with at least as many entries as there are records.
+	 * @return The number of selected rows.
+	 *
+	 * @throws Exception This method may throw exceptions. Throwing an exception will cause the operation
+	 *                   to fail and may trigger recovery.
+	 */
+	int filter(ColumnBatch values, int[] selected) throws Exception;
+}
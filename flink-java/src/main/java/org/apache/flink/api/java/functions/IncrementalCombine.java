@@ -0,0 +1,49 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.api.java.functions;
+
+import org.apache.flink.annotation.PublicEvolving;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares that a {@link org.apache.flink.api.common.functions.GroupCombineFunction GroupCombineFunction}
+ * can combine its records incrementally.
+ *
+ * <p>The records of a group are usually combined by sorting them and calling the function once per group.
+ * Incremental combine functions can instead be evaluated with a hash table that keeps one partial result
+ * per key and combines it with every new record of that key, or the first record of a key on its own. The
+ * runtime picks the hash-based strategy if few distinct keys are observed and falls back to sorting otherwise.
+ * Groups with an order, as defined by {@code sortGroup()}, are always combined by sorting.
+ *
+ * <p><b>NOTE: An annotated function must consume and produce records of the same type, must emit exactly one
+ * record with the key of the group for every call, and must give the same result for a group as for the
+ * partial results of any split of that group. A single record must be a valid partial result of its own.
+ * Violating this contract can lead to incorrect results.</b>
+ */
+@PublicEvolving
+@Documented
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface IncrementalCombine {
+}
@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.api.java.functions;
+
+import org.apache.flink.annotation.PublicEvolving;
+import org.apache.flink.api.common.functions.Function;
+
+import java.io.Serializable;
+
+/**
+ * Interface for map functions which transform batches of records in columnar layout, instead of
+ * single records. The function is called once per batch of up to {@link ColumnBatch#DEFAULT_CAPACITY}
+ * records and computes the fields of the result records from the columns of the input records.
+ *
+ * <p>The input and output types must be primitive types or tuples of primitive types.
+ *
+ * <pre>{@code
+ * DataSet<Tuple2<Long, Double>> input = ...;
+ *
+ * DataSet<Double> result = input.mapBatch(new MapBatchFunction<Tuple2<Long, Double>, Double>() {
+ *     public void map(ColumnBatch values, ColumnBatch out) {
+ *         long[] counts = values.getLongColumn(0);
+ *         double[] sums = values.getDoubleColumn(1);
+ *         double[] averages = out.getDoubleColumn(0);
+ *         for (int i = 0; i < values.getSize(); i++) {
+ *             averages[i] = sums[i] / counts[i];
+ *         }
+ *     }
+ * });
+ * }</pre>
+ *
+ * @param <IN> Type of the input elements.
+ * @param <OUT> Type of the returned elements.
+ */
+@PublicEvolving
+public interface MapBatchFunction<IN, OUT> extends Function, Serializable {
+
+	/**
+	 * The mapping method. Computes one output record per input record.
+	 *
+	 * @param values The input records. The batch must not be modified.
+	 * @param out The output records, with the same size as the input batch. The function sets the
+	 *            values of all columns for the valid rows.
+	 *
+	 * @throws Exception This method may throw exceptions. Throwing an exception will cause the operation
+	 *                   to fail and may trigger recovery.
+	 */
+	void map(ColumnBatch values, ColumnBatch out) throws Exception;
+}
@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.api.java.operators.translation;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.api.common.functions.util.BatchCollector;
+import org.apache.flink.api.common.functions.util.BatchFlatMapFunction;
+import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.api.java.functions.ColumnBatch;
+import org.apache.flink.api.java.functions.FilterBatchFunction;
+import org.apache.flink.util.Collector;
+
+/**
+ * Flat map function that collects the records in column batches and filters them with a
+ * {@link FilterBatchFunction} once a batch is full, or once the input is exhausted. As a flat map,
+ * the function is chained to its predecessor. Batches of a chained batch function are filtered
+ * directly, and the selected rows are passed on to a chained batch function as a whole.
+ *
+ * @param <T> Type of the filtered elements.
+ */
+@Internal
+public final class ColumnBatchFilter<T> extends WrappingFunction<FilterBatchFunction<T>>
+		implements BatchFlatMapFunction<T, T> {
+
+	private static final long serialVersionUID = 1L;
+
+	private final TypeInformation<T> type;
+
+	private transient ColumnBatch batch;
+
+	/** The selected rows, copied into a batch of their own when they are passed on as a batch. */
+	private transient ColumnBatch filtered;
+
+	private transient int[] selected;
+
+	private transient int size;
+
+	/** Whether the collector rejected a batch, such that the results are emitted record by record. */
+	private transient boolean emitRecords;
+
+	public ColumnBatchFilter(FilterBatchFunction<T> filter, TypeInformation<T> type) {
+		super(filter);
+		this.type = type;
+	}
+
+	@Override
+	public void flatMap(T value, Collector<T> out) throws Exception {
+		if (batch == null) {
+			batch = new ColumnBatch(type, ColumnBatch.DEFAULT_CAPACITY);
+			selected = new int[batch.getCapacity()];
+		}
+
+		batch.setRecord(size++, value);
+		if (size == batch.getCapacity()) {
+			flush(out);
+		}
+	}
+
+	@Override
+	public boolean flatMapBatch(Object batch, Collector<T> out) throws Exception {
+		if (!(batch instanceof ColumnBatch) || !type.equals(((ColumnBatch) batch).getType())) {
+			return false;
+		}
+		final ColumnBatch values = (ColumnBatch) batch;
+		if (this.batch == null) {
+			this.batch = new ColumnBatch(type, ColumnBatch.DEFAULT_CAPACITY);
+			selected = new int[this.batch.getCapacity()];
+		}
+		if (values.getSize() > selected.length) {
+			return false;
+		}
+
+		// the buffered records precede the batch
+		flush(out);
+		filter(values, out);
+		return true;
+	}
+
+	@Override
+	public void flush(Collector<T> out) throws Exception {
+		if (size == 0) {
+			return;
+		}
+
+		batch.setSize(size);
+		size = 0;
+		filter(batch, out);
+	}
+
+	@SuppressWarnings("unchecked")
+	private void filter(ColumnBatch values, Collector<T> out) throws Exception {
+		final int numSelected = wrappedFunction.filter(values, selected);
+		if (numSelected < 0 || numSelected > values.getSize()) {
+			throw new IllegalStateException("The filter selected " + numSelected + " of " + values.getSize() + " records.");
+		}
+		for (int i = 0; i < numSelected; i++) {
+			final int row = selected[i];
+			if (row < 0 || row >= values.getSize()) {
+				throw new IllegalStateException("The filter selected row " + row + " of a batch with " + values.getSize() + " records.");
+			}
+		}
+		if (numSelected == 0) {
+			return;
+		}
+
+		if (!emitRecords && out instanceof BatchCollector) {
+			if (filtered == null) {
+				filtered = new ColumnBatch(type, selected.length);
+			}
+			filtered.copyRows(values, selected, numSelected);
+			if (((BatchCollector<T>) out).collectBatch(filtered, numSelected)) {
+				return;
+			}
+			emitRecords = true;
+		}
+		for (int i = 0; i < numSelected; i++) {
+			out.collect((T) values.getRecord(selected[i]));
+		}
+	}
+}
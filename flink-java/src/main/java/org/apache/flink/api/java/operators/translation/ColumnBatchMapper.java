@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.api.java.operators.translation;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.api.common.functions.util.BatchCollector;
+import org.apache.flink.api.common.functions.util.BatchFlatMapFunction;
+import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.api.java.functions.ColumnBatch;
+import org.apache.flink.api.java.functions.MapBatchFunction;
+import org.apache.flink.util.Collector;
+
+/**
+ * Flat map function that collects the records in column batches and transforms them with a
+ * {@link MapBatchFunction} once a batch is full, or once the input is exhausted. As a flat map,
+ * the function is chained to its predecessor. Batches of a chained batch function are transformed
+ * directly, and the transformed batches are passed on to a chained batch function as a whole.
+ *
+ * @param <IN> Type of the input elements.
+ * @param <OUT> Type of the returned elements.
+ */
+@Internal
+public final class ColumnBatchMapper<IN, OUT> extends WrappingFunction<MapBatchFunction<IN, OUT>>
+		implements BatchFlatMapFunction<IN, OUT> {
+
+	private static final long serialVersionUID = 1L;
+
+	private final TypeInformation<IN> inputType;
+
+	private final TypeInformation<OUT> outputType;
+
+	private transient ColumnBatch input;
+
+	private transient ColumnBatch output;
+
+	private transient int size;
+
+	/** Whether the collector rejected a batch, such that the results are emitted record by record. */
+	private transient boolean emitRecords;
+
+	public ColumnBatchMapper(MapBatchFunction<IN, OUT> mapper, TypeInformation<IN> inputType, TypeInformation<OUT> outputType) {
+		super(mapper);
+		this.inputType = inputType;
+		this.outputType = outputType;
+	}
+
+	@Override
+	public void flatMap(IN value, Collector<OUT> out) throws Exception {
+		if (input == null) {
+			input = new ColumnBatch(inputType, ColumnBatch.DEFAULT_CAPACITY);
+			output = new ColumnBatch(outputType, ColumnBatch.DEFAULT_CAPACITY);
+		}
+
+		input.setRecord(size++, value);
+		if (size == input.getCapacity()) {
+			flush(out);
+		}
+	}
+
+	@Override
+	public boolean flatMapBatch(Object batch, Collector<OUT> out) throws Exception {
+		if (!(batch instanceof ColumnBatch) || !inputType.equals(((ColumnBatch) batch).getType())) {
+			return false;
+		}
+		final ColumnBatch values = (ColumnBatch) batch;
+		if (input == null) {
+			input = new ColumnBatch(inputType, ColumnBatch.DEFAULT_CAPACITY);
+			output = new ColumnBatch(outputType, ColumnBatch.DEFAULT_CAPACITY);
+		}
+		if (values.getSize() > output.getCapacity()) {
+			return false;
+		}
+
+		// the buffered records precede the batch
+		flush(out);
+		map(values, out);
+		return true;
+	}
+
+	@Override
+	public void flush(Collector<OUT> out) throws Exception {
+		if (size == 0) {
+			return;
+		}
+
+		input.setSize(size);
+		size = 0;
+		map(input, out);
+	}
+
+	@SuppressWarnings("unchecked")
+	private void map(ColumnBatch values, Collector<OUT> out) throws Exception {
+		output.setSize(values.getSize());
+		wrappedFunction.map(values, output);
+
+		if (!emitRecords && out instanceof BatchCollector) {
+			if (((BatchCollector<OUT>) out).collectBatch(output, output.getSize())) {
+				return;
+			}
+			emitRecords = true;
+		}
+		for (int i = 0; i < output.getSize(); i++) {
+			out.collect((OUT) output.getRecord(i));
+		}
+	}
+}
@@ -0,0 +1,305 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.api.java.functions;
+
+import org.apache.flink.api.common.InvalidProgramException;
+import org.apache.flink.api.common.functions.util.BatchCollector;
+import org.apache.flink.api.common.functions.util.ListCollector;
+import org.apache.flink.api.common.typeinfo.BasicTypeInfo;
+import org.apache.flink.api.java.CollectionEnvironment;
+import org.apache.flink.api.java.DataSet;
+import org.apache.flink.api.java.ExecutionEnvironment;
+import org.apache.flink.api.java.operators.translation.ColumnBatchFilter;
+import org.apache.flink.api.java.operators.translation.ColumnBatchMapper;
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.api.java.typeutils.TupleTypeInfo;
+import org.apache.flink.types.NullFieldException;
+import org.apache.flink.util.Collector;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for the {@link ColumnBatch} and the batched map and filter transformations.
+ */
+public class ColumnBatchTest {
+
+	@Test
+	public void testSupportedTypes() {
+		assertTrue(ColumnBatch.isSupportedType(BasicTypeInfo.LONG_TYPE_INFO));
+		assertTrue(ColumnBatch.isSupportedType(BasicTypeInfo.CHAR_TYPE_INFO));
+		assertTrue(ColumnBatch.isSupportedType(
+			new TupleTypeInfo<Tuple2<Integer, Double>>(BasicTypeInfo.INT_TYPE_INFO, BasicTypeInfo.DOUBLE_TYPE_INFO)));
+
+		assertFalse(ColumnBatch.isSupportedType(BasicTypeInfo.STRING_TYPE_INFO));
+		assertFalse(ColumnBatch.isSupportedType(
+			new TupleTypeInfo<Tuple2<Integer, String>>(BasicTypeInfo.INT_TYPE_INFO, BasicTypeInfo.STRING_TYPE_INFO)));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnsupportedType() {
+		new ColumnBatch(BasicTypeInfo.STRING_TYPE_INFO, ColumnBatch.DEFAULT_CAPACITY);
+	}
+
+	@Test
+	public void testTupleRoundTrip() {
+		ColumnBatch batch = new ColumnBatch(
+			new TupleTypeInfo<Tuple2<Integer, Double>>(BasicTypeInfo.INT_TYPE_INFO, BasicTypeInfo.DOUBLE_TYPE_INFO), 4);
+
+		batch.setRecord(0, new Tuple2<>(1, 1.5));
+		batch.setRecord(1, new Tuple2<>(2, 2.5));
+		batch.setSize(2);
+
+		assertEquals(2, batch.getNumColumns());
+		assertEquals(4, batch.getCapacity());
+		assertArrayEquals(new int[] {1, 2, 0, 0}, batch.getIntColumn(0));
+		assertEquals(2.5, batch.getDoubleColumn(1)[1], 0.0);
+		assertEquals(new Tuple2<>(2, 2.5), batch.getRecord(1));
+	}
+
+	@Test(expected = NullFieldException.class)
+	public void testNullField() {
+		ColumnBatch batch = new ColumnBatch(
+			new TupleTypeInfo<Tuple2<Integer, Double>>(BasicTypeInfo.INT_TYPE_INFO, BasicTypeInfo.DOUBLE_TYPE_INFO), 4);
+
+		batch.setRecord(0, new Tuple2<>(1, null));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testWrongColumnType() {
+		new ColumnBatch(BasicTypeInfo.INT_TYPE_INFO, 4).getLongColumn(0);
+	}
+
+	@Test
+	public void testCopyRows() {
+		ColumnBatch source = new ColumnBatch(
+			new TupleTypeInfo<Tuple2<Integer, Double>>(BasicTypeInfo.INT_TYPE_INFO, BasicTypeInfo.DOUBLE_TYPE_INFO), 4);
+		for (int i = 0; i < 4; i++) {
+			source.setRecord(i, new Tuple2<>(i, i + 0.5));
+		}
+		source.setSize(4);
+
+		ColumnBatch target = new ColumnBatch(source.getType(), 4);
+		target.copyRows(source, new int[] {1, 3}, 2);
+
+		assertEquals(2, target.getSize());
+		assertEquals(new Tuple2<>(1, 1.5), target.getRecord(0));
+		assertEquals(new Tuple2<>(3, 3.5), target.getRecord(1));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testCopyRowsOfOtherColumnType() {
+		ColumnBatch source = new ColumnBatch(BasicTypeInfo.INT_TYPE_INFO, 4);
+		new ColumnBatch(BasicTypeInfo.LONG_TYPE_INFO, 4).copyRows(source, new int[] {0}, 1);
+	}
+
+	@Test
+	public void testChainedBatchFunctionsPassBatches() throws Exception {
+		ColumnBatchFilter<Long> filter = new ColumnBatchFilter<>(new EvenFilter(), BasicTypeInfo.LONG_TYPE_INFO);
+		ColumnBatchMapper<Long, Tuple2<Long, Double>> mapper = new ColumnBatchMapper<>(new HalvingMapper(),
+			BasicTypeInfo.LONG_TYPE_INFO, new TupleTypeInfo<Tuple2<Long, Double>>(BasicTypeInfo.LONG_TYPE_INFO, BasicTypeInfo.DOUBLE_TYPE_INFO));
+
+		List<Tuple2<Long, Double>> result = new ArrayList<>();
+		ChainingCollector<Long, Tuple2<Long, Double>> chain = new ChainingCollector<>(mapper, new ListCollector<>(result));
+
+		for (long i = 1; i <= 3000; i++) {
+			filter.flatMap(i, chain);
+		}
+		filter.flush(chain);
+		mapper.flush(chain.out);
+
+		// the mapper is called once per batch of the filter and never per record
+		assertEquals(0, chain.numRecords);
+		assertEquals(3, chain.numBatches);
+		assertEquals(1500, result.size());
+		for (int i = 0; i < result.size(); i++) {
+			assertEquals(new Tuple2<>(2L * (i + 1), i + 1.0), result.get(i));
+		}
+	}
+
+	@Test
+	public void testBatchFunctionEmitsRecordsIfBatchIsRejected() throws Exception {
+		ColumnBatchFilter<Long> filter = new ColumnBatchFilter<>(new EvenFilter(), BasicTypeInfo.LONG_TYPE_INFO);
+		RejectingCollector<Long> out = new RejectingCollector<>();
+
+		for (long i = 1; i <= 3000; i++) {
+			filter.flatMap(i, out);
+		}
+		filter.flush(out);
+
+		// the filter does not offer batches again once one was rejected
+		assertEquals(1, out.numRejected);
+		assertEquals(1500, out.records.size());
+
+		// batches of other types are rejected
+		ColumnBatchMapper<Long, Long> mapper = new ColumnBatchMapper<>(
+			new IdentityMapper<Long>(), BasicTypeInfo.LONG_TYPE_INFO, BasicTypeInfo.LONG_TYPE_INFO);
+		ColumnBatch batch = new ColumnBatch(BasicTypeInfo.INT_TYPE_INFO, 4);
+		batch.setSize(1);
+		assertFalse(mapper.flatMapBatch(batch, out));
+	}
+
+	@Test
+	public void testMapBatch() throws Exception {
+		ExecutionEnvironment env = new CollectionEnvironment();
+		DataSet<Long> input = env.generateSequence(1, 3000);
+
+		List<Tuple2<Long, Double>> result = new ArrayList<>(input.mapBatch(new HalvingMapper()).collect());
+		Collections.sort(result, (a, b) -> Long.compare(a.f0, b.f0));
+
+		assertEquals(3000, result.size());
+		for (int i = 0; i < result.size(); i++) {
+			assertEquals(new Tuple2<>(i + 1L, (i + 1) / 2.0), result.get(i));
+		}
+	}
+
+	@Test
+	public void testFilterBatch() throws Exception {
+		ExecutionEnvironment env = new CollectionEnvironment();
+		DataSet<Long> input = env.generateSequence(1, 3000);
+
+		List<Long> result = input.filterBatch(new EvenFilter()).collect();
+
+		assertEquals(1500, result.size());
+		for (Long value : result) {
+			assertEquals(0L, value % 2);
+		}
+	}
+
+	@Test(expected = InvalidProgramException.class)
+	public void testMapBatchOnUnsupportedType() {
+		ExecutionEnvironment env = new CollectionEnvironment();
+		env.fromElements("a", "b").mapBatch(new IdentityMapper<String>(), BasicTypeInfo.STRING_TYPE_INFO);
+	}
+
+	// ------------------------------------------------------------------------
+
+	private static class HalvingMapper implements MapBatchFunction<Long, Tuple2<Long, Double>> {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public void map(ColumnBatch values, ColumnBatch out) {
+			long[] in = values.getLongColumn(0);
+			long[] keys = out.getLongColumn(0);
+			double[] halves = out.getDoubleColumn(1);
+			for (int i = 0; i < values.getSize(); i++) {
+				keys[i] = in[i];
+				halves[i] = in[i] / 2.0;
+			}
+		}
+	}
+
+	private static class EvenFilter implements FilterBatchFunction<Long> {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public int filter(ColumnBatch values, int[] selected) {
+			long[] in = values.getLongColumn(0);
+			int numSelected = 0;
+			for (int i = 0; i < values.getSize(); i++) {
+				if (in[i] % 2 == 0) {
+					selected[numSelected++] = i;
+				}
+			}
+			return numSelected;
+		}
+	}
+
+	/**
+	 * Passes records and batches to a chained batch function, like a chained flat map driver, and
+	 * counts the calls.
+	 */
+	private static class ChainingCollector<IN, OUT> implements BatchCollector<IN> {
+
+		private final ColumnBatchMapper<IN, OUT> function;
+
+		private final Collector<OUT> out;
+
+		private int numRecords;
+
+		private int numBatches;
+
+		ChainingCollector(ColumnBatchMapper<IN, OUT> function, Collector<OUT> out) {
+			this.function = function;
+			this.out = out;
+		}
+
+		@Override
+		public void collect(IN record) {
+			numRecords++;
+			try {
+				function.flatMap(record, out);
+			} catch (Exception e) {
+				throw new RuntimeException(e);
+			}
+		}
+
+		@Override
+		public boolean collectBatch(Object batch, int numRecords) {
+			try {
+				if (function.flatMapBatch(batch, out)) {
+					numBatches++;
+					return true;
+				}
+				return false;
+			} catch (Exception e) {
+				throw new RuntimeException(e);
+			}
+		}
+
+		@Override
+		public void close() {}
+	}
+
+	private static class RejectingCollector<T> implements BatchCollector<T> {
+
+		private final List<T> records = new ArrayList<>();
+
+		private int numRejected;
+
+		@Override
+		public void collect(T record) {
+			records.add(record);
+		}
+
+		@Override
+		public boolean collectBatch(Object batch, int numRecords) {
+			numRejected++;
+			return false;
+		}
+
+		@Override
+		public void close() {}
+	}
+
+	private static class IdentityMapper<T> implements MapBatchFunction<T, T> {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public void map(ColumnBatch values, ColumnBatch out) {}
+	}
+}
@@ -48,6 +48,18 @@ class StreamQueryConfig private[table] extends QueryConfig {
     */
   private var maxIdleStateRetentionTime: Long = Long.MinValue
 
+  /**
+    * The maximum time for which input records of a non-windowed aggregation are buffered before
+    * they are applied to the aggregation state. Mini-batching is disabled if not positive.
+    */
+  private var miniBatchInterval: Long = 0L
+
+  /**
+    * The maximum number of input records of a non-windowed aggregation which are buffered before
+    * they are applied to the aggregation state. Mini-batching is disabled if not positive.
+    */
+  private var miniBatchSize: Long = 0L
+
   /**
     * Specifies the time interval for how long idle state, i.e., state which was not updated, will
     * be retained. When state was not updated for the specified interval of time, it will be cleared
@@ -92,6 +104,33 @@ class StreamQueryConfig private[table] extends QueryConfig {
     this
   }
 
+  /**
+    * Enables mini-batch execution for non-windowed (group by) aggregations.
+    *
+    * In mini-batch mode, input records are buffered per key and applied to the aggregation state
+    * in bulk once the buffer holds `maxSize` records or `interval` has passed, whichever happens
+    * first. All buffered records of a key are aggregated with a single state read and write, and
+    * at most one retraction and one update message are emitted per key and mini-batch.
+    *
+    * Mini-batching trades latency for throughput. The results are the same as without
+    * mini-batching, except that intermediate updates which are superseded within a mini-batch are
+    * not emitted.
+    *
+    * @param interval The maximum time for which input records are buffered. Must be positive.
+    * @param maxSize The maximum number of buffered input records. Must be positive.
+    */
+  def withMiniBatch(interval: Time, maxSize: Long): StreamQueryConfig = {
+    if (interval.toMilliseconds <= 0) {
+      throw new IllegalArgumentException("The mini-batch interval must be positive.")
+    }
+    if (maxSize <= 0) {
+      throw new IllegalArgumentException("The mini-batch size must be positive.")
+    }
+    miniBatchInterval = interval.toMilliseconds
+    miniBatchSize = maxSize
+    this
+  }
+
   def getMinIdleStateRetentionTime: Long = {
     minIdleStateRetentionTime
   }
@@ -99,4 +138,16 @@ class StreamQueryConfig private[table] extends QueryConfig {
   def getMaxIdleStateRetentionTime: Long = {
     maxIdleStateRetentionTime
   }
+
+  def getMiniBatchInterval: Long = {
+    miniBatchInterval
+  }
+
+  def getMiniBatchSize: Long = {
+    miniBatchSize
+  }
+
+  def isMiniBatchEnabled: Boolean = {
+    miniBatchInterval > 0 && miniBatchSize > 0
+  }
 }
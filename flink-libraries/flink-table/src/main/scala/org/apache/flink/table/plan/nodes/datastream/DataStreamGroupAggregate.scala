@@ -21,6 +21,7 @@ import org.apache.calcite.plan.{RelOptCluster, RelTraitSet}
 import org.apache.calcite.rel.core.AggregateCall
 import org.apache.calcite.rel.{RelNode, RelWriter, SingleRel}
 import org.apache.flink.api.java.functions.NullByteKeySelector
+import org.apache.flink.api.java.tuple.Tuple
 import org.apache.flink.streaming.api.datastream.DataStream
 import org.apache.flink.table.api.{StreamQueryConfig, StreamTableEnvironment}
 import org.apache.flink.table.codegen.AggregationCodeGenerator
@@ -29,6 +30,7 @@ import org.apache.flink.table.plan.rules.datastream.DataStreamRetractionRules
 import org.apache.flink.table.plan.schema.RowSchema
 import org.apache.flink.table.runtime.aggregate.AggregateUtil.CalcitePair
 import org.apache.flink.table.runtime.aggregate._
+import org.apache.flink.table.runtime.operators.MiniBatchGroupAggOperator
 import org.apache.flink.table.runtime.types.{CRow, CRowTypeInfo}
 import org.apache.flink.table.util.Logging
 
@@ -140,8 +142,22 @@ class DataStreamGroupAggregate(
       DataStreamRetractionRules.isAccRetract(getInput))
 
     val result: DataStream[CRow] =
-    // grouped / keyed aggregation
-      if (groupings.nonEmpty) {
+    // grouped / keyed aggregation with mini-batches
+      if (groupings.nonEmpty && queryConfig.isMiniBatchEnabled) {
+        inputDS
+        .keyBy(groupings: _*)
+        .transform(
+          keyedAggOpName,
+          outRowType,
+          new MiniBatchGroupAggOperator[Tuple](
+            processFunction,
+            inputDS.getType,
+            queryConfig.getMiniBatchInterval,
+            queryConfig.getMiniBatchSize))
+        .asInstanceOf[DataStream[CRow]]
+      }
+      // grouped / keyed aggregation
+      else if (groupings.nonEmpty) {
         inputDS
         .keyBy(groupings: _*)
         .process(processFunction)
@@ -149,6 +165,22 @@ class DataStreamGroupAggregate(
         .name(keyedAggOpName)
         .asInstanceOf[DataStream[CRow]]
       }
+      // global / non-keyed aggregation with mini-batches
+      else if (queryConfig.isMiniBatchEnabled) {
+        inputDS
+        .keyBy(new NullByteKeySelector[CRow])
+        .transform(
+          nonKeyedAggOpName,
+          outRowType,
+          new MiniBatchGroupAggOperator[java.lang.Byte](
+            processFunction,
+            inputDS.getType,
+            queryConfig.getMiniBatchInterval,
+            queryConfig.getMiniBatchSize))
+        .setParallelism(1)
+        .setMaxParallelism(1)
+        .asInstanceOf[DataStream[CRow]]
+      }
       // global / non-keyed aggregation
       else {
         inputDS
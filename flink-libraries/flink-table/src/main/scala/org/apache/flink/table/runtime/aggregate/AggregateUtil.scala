@@ -151,7 +151,7 @@ object AggregateUtil {
     * @param queryConfig     The configuration of the query to generate.
     * @param generateRetraction It is a tag that indicates whether generate retract record.
     * @param consumeRetraction It is a tag that indicates whether consume the retract record.
-    * @return [[org.apache.flink.streaming.api.functions.ProcessFunction]]
+    * @return [[GroupAggProcessFunction]]
     */
   private[flink] def createGroupAggregateFunction(
       generator: AggregationCodeGenerator,
@@ -161,7 +161,7 @@ object AggregateUtil {
       groupings: Array[Int],
       queryConfig: StreamQueryConfig,
       generateRetraction: Boolean,
-      consumeRetraction: Boolean): ProcessFunction[CRow, CRow] = {
+      consumeRetraction: Boolean): GroupAggProcessFunction = {
 
     val (aggFields, aggregates, accTypes, accSpecs) =
       transformToAggregateFunctions(
@@ -18,10 +18,12 @@
 package org.apache.flink.table.runtime.aggregate
 
 import java.lang.{Long => JLong}
+import java.util.{Collections, List => JList}
 
 import org.apache.flink.api.common.state.{ValueState, ValueStateDescriptor}
 import org.apache.flink.api.java.typeutils.RowTypeInfo
 import org.apache.flink.configuration.Configuration
+import org.apache.flink.streaming.api.TimerService
 import org.apache.flink.streaming.api.functions.ProcessFunction
 import org.apache.flink.table.api.{StreamQueryConfig, Types}
 import org.apache.flink.table.codegen.{Compiler, GeneratedAggregationsFunction}
@@ -84,11 +86,26 @@ class GroupAggProcessFunction(
       ctx: ProcessFunction[CRow, CRow]#Context,
       out: Collector[CRow]): Unit = {
 
-    val currentTime = ctx.timerService().currentProcessingTime()
-    // register state-cleanup timer
-    registerProcessingCleanupTimer(ctx, currentTime)
+    processElements(Collections.singletonList(inputC), ctx.timerService(), out)
+  }
 
-    val input = inputC.row
+  /**
+    * Applies a bundle of input records which all belong to the current key to the aggregation
+    * state. The accumulators are read and written only once and at most one retraction and one
+    * update message is emitted for the whole bundle.
+    *
+    * @param inputs       The input records of the current key in arrival order.
+    * @param timerService The timer service to register the state cleanup timer.
+    * @param out          The collector to emit the results.
+    */
+  private[flink] def processElements(
+      inputs: JList[CRow],
+      timerService: TimerService,
+      out: Collector[CRow]): Unit = {
+
+    val currentTime = timerService.currentProcessingTime()
+    // register state-cleanup timer
+    registerProcessingCleanupTimer(timerService, currentTime)
 
     // get accumulators and input counter
     var accumulators = state.value()
@@ -103,28 +120,39 @@ class GroupAggProcessFunction(
     }
 
     // Set group keys value to the final output
-    function.setForwardedFields(input, newRow.row)
-    function.setForwardedFields(input, prevRow.row)
+    val lastInput = inputs.get(inputs.size() - 1).row
+    function.setForwardedFields(lastInput, newRow.row)
+    function.setForwardedFields(lastInput, prevRow.row)
 
     // Set previous aggregate result to the prevRow
     function.setAggregationResults(accumulators, prevRow.row)
 
-    // update aggregate result and set to the newRow
-    if (inputC.change) {
-      inputCnt += 1
-      // accumulate input
-      function.accumulate(accumulators, input)
-      function.setAggregationResults(accumulators, newRow.row)
-    } else {
-      inputCnt -= 1
-      // retract input
-      function.retract(accumulators, input)
-      function.setAggregationResults(accumulators, newRow.row)
+    var i = 0
+    while (i < inputs.size()) {
+      val inputC = inputs.get(i)
+      if (inputC.change) {
+        inputCnt += 1
+        // accumulate input
+        function.accumulate(accumulators, inputC.row)
+      } else {
+        inputCnt -= 1
+        // retract input
+        function.retract(accumulators, inputC.row)
+      }
+
+      if (inputCnt == 0 && i < inputs.size() - 1) {
+        // all records of this key were retracted, the following records start from scratch
+        accumulators = function.createAccumulators()
+      }
+      i += 1
     }
 
     if (inputCnt != 0) {
       // we aggregated at least one record for this key
 
+      // update aggregate result and set to the newRow
+      function.setAggregationResults(accumulators, newRow.row)
+
       // update the state
       state.update(accumulators)
       cntState.update(inputCnt)
@@ -147,8 +175,10 @@ class GroupAggProcessFunction(
 
     } else {
       // we retracted the last record for this key
-      // sent out a delete message
-      out.collect(prevRow)
+      if (!firstRow) {
+        // sent out a delete message
+        out.collect(prevRow)
+      }
       // and clear all state
       state.clear()
       cntState.clear()
@@ -21,7 +21,7 @@ import java.lang.{Long => JLong}
 
 import org.apache.flink.api.common.state.{ValueState, ValueStateDescriptor}
 import org.apache.flink.api.common.state.State
-import org.apache.flink.streaming.api.TimeDomain
+import org.apache.flink.streaming.api.{TimeDomain, TimerService}
 import org.apache.flink.streaming.api.functions.ProcessFunction
 import org.apache.flink.table.api.{StreamQueryConfig, Types}
 
@@ -46,6 +46,12 @@ abstract class ProcessFunctionWithCleanupState[IN,OUT](queryConfig: StreamQueryC
   protected def registerProcessingCleanupTimer(
     ctx: ProcessFunction[IN, OUT]#Context,
     currentTime: Long): Unit = {
+    registerProcessingCleanupTimer(ctx.timerService(), currentTime)
+  }
+
+  protected def registerProcessingCleanupTimer(
+    timerService: TimerService,
+    currentTime: Long): Unit = {
     if (stateCleaningEnabled) {
 
       // last registered timer
@@ -57,7 +63,7 @@ abstract class ProcessFunctionWithCleanupState[IN,OUT](queryConfig: StreamQueryC
         // we need to register a new (later) timer
         val cleanupTime = currentTime + maxRetentionTime
         // register timer and remember clean-up time
-        ctx.timerService().registerProcessingTimeTimer(cleanupTime)
+        timerService.registerProcessingTimeTimer(cleanupTime)
         cleanupTimeState.update(cleanupTime)
       }
     }
@@ -0,0 +1,245 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators
+
+import java.util.{ArrayList => JArrayList, LinkedHashMap => JLinkedHashMap, List => JList}
+
+import org.apache.flink.api.common.state.{ListState, ListStateDescriptor}
+import org.apache.flink.api.common.typeinfo.TypeInformation
+import org.apache.flink.api.common.typeutils.TypeSerializer
+import org.apache.flink.api.java.functions.KeySelector
+import org.apache.flink.runtime.state._
+import org.apache.flink.streaming.api.{SimpleTimerService, TimeDomain, TimerService}
+import org.apache.flink.streaming.api.operators._
+import org.apache.flink.streaming.api.watermark.Watermark
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord
+import org.apache.flink.streaming.runtime.tasks.ProcessingTimeCallback
+import org.apache.flink.table.runtime.aggregate.GroupAggProcessFunction
+import org.apache.flink.table.runtime.types.CRow
+import org.apache.flink.util.OutputTag
+
+import scala.collection.JavaConverters._
+
+/**
+  * A keyed operator that evaluates a [[GroupAggProcessFunction]] in mini-batches.
+  *
+  * Input records are buffered in memory per key until either `maxSize` records are buffered or
+  * `interval` milliseconds have passed since the first record of the mini-batch arrived. The
+  * buffered records of each key are then applied with a single read and write of the aggregation
+  * state and result in at most one retraction and one update message per key.
+  *
+  * Buffered records are not part of the keyed state. They are checkpointed as union list state
+  * and on restore every subtask picks up the records of the key groups it is responsible for.
+  *
+  * @param function  The group aggregation function to evaluate.
+  * @param inputType The type of the input records.
+  * @param interval  The maximum time in milliseconds for which records are buffered.
+  * @param maxSize   The maximum number of records which are buffered.
+  */
+class MiniBatchGroupAggOperator[KEY](
+    private val function: GroupAggProcessFunction,
+    private val inputType: TypeInformation[CRow],
+    private val interval: Long,
+    private val maxSize: Long)
+  extends AbstractUdfStreamOperator[CRow, GroupAggProcessFunction](function)
+  with OneInputStreamOperator[CRow, CRow]
+  with Triggerable[KEY, VoidNamespace]
+  with ProcessingTimeCallback {
+
+  if (interval <= 0) {
+    throw new IllegalArgumentException("The mini-batch interval must be positive.")
+  }
+  if (maxSize <= 0) {
+    throw new IllegalArgumentException("The mini-batch size must be positive.")
+  }
+
+  chainingStrategy = ChainingStrategy.ALWAYS
+
+  // buffered records per key in order of the first arrival of each key
+  @transient private var buffer: JLinkedHashMap[KEY, JList[CRow]] = _
+  @transient private var numBufferedRecords: Long = 0L
+  // the processing time at which the current mini-batch is flushed, Long.MinValue if empty
+  @transient private var flushTime: Long = Long.MinValue
+
+  @transient private var bufferState: ListState[CRow] = _
+  @transient private var inputSerializer: TypeSerializer[CRow] = _
+  @transient private var copyInput: Boolean = false
+
+  @transient private var collector: TimestampedCollector[CRow] = _
+  @transient private var timerService: TimerService = _
+  @transient private var onTimerContext: OnTimerContextImpl = _
+
+  override def initializeState(context: StateInitializationContext): Unit = {
+    super.initializeState(context)
+
+    buffer = new JLinkedHashMap[KEY, JList[CRow]]()
+    inputSerializer = inputType.createSerializer(getExecutionConfig)
+
+    bufferState = context.getOperatorStateStore.getUnionListState(
+      new ListStateDescriptor[CRow]("GroupAggregateMiniBatchBuffer", inputSerializer))
+
+    if (context.isRestored) {
+      val keySelector = config.getStatePartitioner(0, getUserCodeClassloader)
+        .asInstanceOf[KeySelector[CRow, KEY]]
+      val keyGroupRange = getKeyedStateBackend[KEY].getKeyGroupRange
+      val maxParallelism = getKeyedStateBackend[KEY].getNumberOfKeyGroups
+
+      // the buffers of all subtasks are restored, keep the records of our key groups
+      for (record <- bufferState.get().asScala) {
+        val key = keySelector.getKey(record)
+        val keyGroup = KeyGroupRangeAssignment.assignToKeyGroup(key, maxParallelism)
+        if (keyGroupRange.contains(keyGroup)) {
+          bufferRecord(key, record)
+        }
+      }
+    }
+  }
+
+  override def open(): Unit = {
+    super.open()
+
+    copyInput = getExecutionConfig.isObjectReuseEnabled
+    collector = new TimestampedCollector[CRow](output)
+    collector.eraseTimestamp()
+
+    val internalTimerService =
+      getInternalTimerService("user-timers", VoidNamespaceSerializer.INSTANCE, this)
+    timerService = new SimpleTimerService(internalTimerService)
+    onTimerContext = new OnTimerContextImpl(function, timerService)
+
+    if (numBufferedRecords > 0) {
+      // flush the records which were restored from a checkpoint
+      scheduleFlush()
+    }
+  }
+
+  override def processElement(element: StreamRecord[CRow]): Unit = {
+    val input = if (copyInput) {
+      inputSerializer.copy(element.getValue)
+    } else {
+      element.getValue
+    }
+    bufferRecord(getCurrentKey.asInstanceOf[KEY], input)
+
+    if (numBufferedRecords >= maxSize) {
+      flush()
+    } else if (flushTime == Long.MinValue) {
+      scheduleFlush()
+    }
+  }
+
+  override def processWatermark(mark: Watermark): Unit = {
+    // do not let watermarks overtake the buffered records
+    flush()
+    super.processWatermark(mark)
+  }
+
+  override def onProcessingTime(timestamp: Long): Unit = {
+    // ignore timers of mini-batches which were already flushed because they were full
+    if (flushTime != Long.MinValue && timestamp >= flushTime) {
+      flush()
+    }
+  }
+
+  override def onProcessingTime(timer: InternalTimer[KEY, VoidNamespace]): Unit = {
+    onTimer(timer, TimeDomain.PROCESSING_TIME)
+  }
+
+  override def onEventTime(timer: InternalTimer[KEY, VoidNamespace]): Unit = {
+    onTimer(timer, TimeDomain.EVENT_TIME)
+  }
+
+  override def snapshotState(context: StateSnapshotContext): Unit = {
+    super.snapshotState(context)
+
+    bufferState.clear()
+    for (records <- buffer.values().asScala; record <- records.asScala) {
+      bufferState.add(record)
+    }
+  }
+
+  override def close(): Unit = {
+    // emit the results of the records of the last mini-batch
+    flush()
+    super.close()
+  }
+
+  private def bufferRecord(key: KEY, record: CRow): Unit = {
+    var records = buffer.get(key)
+    if (records == null) {
+      records = new JArrayList[CRow]()
+      buffer.put(key, records)
+    }
+    records.add(record)
+    numBufferedRecords += 1
+  }
+
+  private def scheduleFlush(): Unit = {
+    val processingTimeService = getProcessingTimeService
+    flushTime = processingTimeService.getCurrentProcessingTime + interval
+    processingTimeService.registerTimer(flushTime, this)
+  }
+
+  private def flush(): Unit = {
+    if (numBufferedRecords > 0) {
+      // the buffer might be modified while we emit the results
+      val bufferedRecords = buffer
+      buffer = new JLinkedHashMap[KEY, JList[CRow]]()
+      numBufferedRecords = 0L
+
+      val entries = bufferedRecords.entrySet().iterator()
+      while (entries.hasNext) {
+        val entry = entries.next()
+        setCurrentKey(entry.getKey)
+        function.processElements(entry.getValue, timerService, collector)
+      }
+    }
+    flushTime = Long.MinValue
+  }
+
+  private def onTimer(timer: InternalTimer[KEY, VoidNamespace], timeDomain: TimeDomain): Unit = {
+    onTimerContext.currentTimeDomain = timeDomain
+    onTimerContext.currentTimer = timer
+    function.onTimer(timer.getTimestamp, onTimerContext, collector)
+    onTimerContext.currentTimeDomain = null
+    onTimerContext.currentTimer = null
+  }
+
+  private class OnTimerContextImpl(
+      function: GroupAggProcessFunction,
+      service: TimerService)
+    extends function.OnTimerContext {
+
+    var currentTimeDomain: TimeDomain = _
+
+    var currentTimer: InternalTimer[KEY, VoidNamespace] = _
+
+    override def timeDomain(): TimeDomain = currentTimeDomain
+
+    override def timestamp(): java.lang.Long = currentTimer.getTimestamp
+
+    override def output[X](outputTag: OutputTag[X], value: X): Unit = {
+      MiniBatchGroupAggOperator.this.output.collect(
+        outputTag,
+        new StreamRecord[X](value, currentTimer.getTimestamp))
+    }
+
+    override def timerService(): TimerService = service
+  }
+}
@@ -116,11 +116,13 @@ class CRowSerializer(val rowSerializer: TypeSerializer[Row]) extends TypeSeriali
 object CRowSerializer {
 
   class CRowSerializerConfigSnapshot(
-      private val rowSerializer: TypeSerializer[Row])
-    extends CompositeTypeSerializerConfigSnapshot(rowSerializer) {
+      private val rowSerializers: Array[TypeSerializer[Row]])
+    extends CompositeTypeSerializerConfigSnapshot(rowSerializers: _*) {
+
+    def this(rowSerializer: TypeSerializer[Row]) = this(Array(rowSerializer))
 
     /** This empty nullary constructor is required for deserializing the configuration. */
-    def this() = this(null)
+    def this() = this(Array[TypeSerializer[Row]]())
 
     override def getVersion: Int = CRowSerializerConfigSnapshot.VERSION
   }
@@ -27,6 +27,7 @@ import org.apache.flink.streaming.runtime.streamrecord.StreamRecord
 import org.apache.flink.table.api.StreamQueryConfig
 import org.apache.flink.table.runtime.aggregate._
 import org.apache.flink.table.runtime.harness.HarnessTestBase._
+import org.apache.flink.table.runtime.operators.MiniBatchGroupAggOperator
 import org.apache.flink.table.runtime.types.CRow
 import org.apache.flink.types.Row
 import org.junit.Test
@@ -154,4 +155,119 @@ class NonWindowHarnessTest extends HarnessTestBase {
 
     testHarness.close()
   }
+
+  @Test
+  def testProcTimeNonWindowMiniBatch(): Unit = {
+
+    val operator = new MiniBatchGroupAggOperator[String](
+      new GroupAggProcessFunction(
+        genSumAggFunction,
+        sumAggregationStateType,
+        true,
+        queryConfig),
+      sumCRowType,
+      10L,
+      4L)
+
+    val testHarness =
+      createHarnessTester(
+        operator,
+        new TupleRowKeySelector[String](2),
+        BasicTypeInfo.STRING_TYPE_INFO)
+
+    testHarness.open()
+
+    testHarness.setProcessingTime(1)
+
+    // the fourth record flushes the mini-batch
+    testHarness.processElement(new StreamRecord(CRow(Row.of(1L: JLong, 1: JInt, "aaa"), true), 1))
+    testHarness.processElement(new StreamRecord(CRow(Row.of(2L: JLong, 1: JInt, "bbb"), true), 2))
+    testHarness.processElement(new StreamRecord(CRow(Row.of(3L: JLong, 2: JInt, "aaa"), true), 3))
+    testHarness.processElement(new StreamRecord(CRow(Row.of(4L: JLong, 3: JInt, "aaa"), true), 4))
+
+    // records which are retracted within a mini-batch are not emitted
+    testHarness.setProcessingTime(2)
+    testHarness.processElement(new StreamRecord(CRow(Row.of(5L: JLong, 4: JInt, "aaa"), true), 5))
+    testHarness.processElement(new StreamRecord(CRow(Row.of(6L: JLong, 2: JInt, "bbb"), true), 6))
+    testHarness.processElement(new StreamRecord(CRow(Row.of(7L: JLong, 5: JInt, "ccc"), true), 7))
+    testHarness.processElement(new StreamRecord(CRow(Row.of(8L: JLong, 5: JInt, "ccc"), false), 8))
+
+    // the mini-batch is flushed after the interval
+    testHarness.setProcessingTime(3)
+    testHarness.processElement(new StreamRecord(CRow(Row.of(9L: JLong, 5: JInt, "aaa"), true), 9))
+    testHarness.setProcessingTime(12)
+    assert(testHarness.getOutput.size() == 6)
+    testHarness.setProcessingTime(13)
+
+    val result = testHarness.getOutput
+
+    val expectedOutput = new ConcurrentLinkedQueue[Object]()
+
+    expectedOutput.add(new StreamRecord(CRow(Row.of(4L: JLong, 6: JInt), true)))
+    expectedOutput.add(new StreamRecord(CRow(Row.of(2L: JLong, 1: JInt), true)))
+    expectedOutput.add(new StreamRecord(CRow(Row.of(5L: JLong, 6: JInt), false)))
+    expectedOutput.add(new StreamRecord(CRow(Row.of(5L: JLong, 10: JInt), true)))
+    expectedOutput.add(new StreamRecord(CRow(Row.of(6L: JLong, 1: JInt), false)))
+    expectedOutput.add(new StreamRecord(CRow(Row.of(6L: JLong, 3: JInt), true)))
+    expectedOutput.add(new StreamRecord(CRow(Row.of(9L: JLong, 10: JInt), false)))
+    expectedOutput.add(new StreamRecord(CRow(Row.of(9L: JLong, 15: JInt), true)))
+
+    verify(expectedOutput, result, new RowResultSortComparator())
+
+    testHarness.close()
+  }
+
+  @Test
+  def testProcTimeNonWindowMiniBatchRestore(): Unit = {
+
+    def createOperator() = new MiniBatchGroupAggOperator[String](
+      new GroupAggProcessFunction(
+        genSumAggFunction,
+        sumAggregationStateType,
+        true,
+        queryConfig),
+      sumCRowType,
+      10L,
+      100L)
+
+    var testHarness =
+      createHarnessTester(
+        createOperator(),
+        new TupleRowKeySelector[String](2),
+        BasicTypeInfo.STRING_TYPE_INFO)
+
+    testHarness.open()
+
+    testHarness.setProcessingTime(1)
+    testHarness.processElement(new StreamRecord(CRow(Row.of(1L: JLong, 1: JInt, "aaa"), true), 1))
+    testHarness.processElement(new StreamRecord(CRow(Row.of(2L: JLong, 2: JInt, "bbb"), true), 2))
+
+    // the buffered records are part of the snapshot
+    val snapshot = testHarness.snapshot(0L, 0L)
+    assert(testHarness.getOutput.isEmpty)
+    testHarness.close()
+
+    testHarness =
+      createHarnessTester(
+        createOperator(),
+        new TupleRowKeySelector[String](2),
+        BasicTypeInfo.STRING_TYPE_INFO)
+
+    testHarness.setup()
+    testHarness.initializeState(snapshot)
+    testHarness.open()
+
+    testHarness.setProcessingTime(10)
+
+    val result = testHarness.getOutput
+
+    val expectedOutput = new ConcurrentLinkedQueue[Object]()
+
+    expectedOutput.add(new StreamRecord(CRow(Row.of(1L: JLong, 1: JInt), true)))
+    expectedOutput.add(new StreamRecord(CRow(Row.of(2L: JLong, 2: JInt), true)))
+
+    verify(expectedOutput, result, new RowResultSortComparator())
+
+    testHarness.close()
+  }
 }
@@ -18,19 +18,48 @@
 
 package org.apache.flink.optimizer;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.HashMap;
 import java.util.Map;
 
 import org.apache.flink.api.common.io.statistics.BaseStatistics;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.configuration.OptimizerOptions;
+import org.apache.flink.runtime.operators.util.metrics.OutputStatisticsCollector;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * The collection of access methods that can be used to retrieve statistical information about the
- * data processed in a job. Currently this method acts as an entry point only for obtaining cached
- * statistics.
+ * data processed in a job. It serves cached statistics of inputs, and the statistics of the output
+ * of operators in previous executions.
+ *
+ * <p>The statistics of operators are identified by the fingerprints of the operators (see
+ * {@link org.apache.flink.optimizer.dag.OptimizerNode#getFingerprint()}). If a statistics directory
+ * is given, they are kept in that directory, such that they are available to later compilations
+ * of the same program in other processes.
  */
 public class DataStatistics {
+
+	private static final Logger LOG = LoggerFactory.getLogger(DataStatistics.class);
+
+	/** The prefix of the names of the accumulators that count the records that an operator emits. */
+	private static final String OPERATOR_RECORDS_ACCUMULATOR_PREFIX = OutputStatisticsCollector.ACCUMULATOR_NAME_PREFIX;
+
+	/** Separates the fingerprint from the occurrence of the operator in the names of the accumulators. */
+	private static final char OPERATOR_OCCURRENCE_SEPARATOR = '#';
 	
 	private final Map<String, BaseStatistics> baseStatisticsCache;
+
+	private final Map<String, BaseStatistics> operatorStatisticsCache;
+
+	/** The directory in which the operator statistics are kept, may be null. */
+	private final File operatorStatisticsDirectory;
 	
 	// --------------------------------------------------------------------------------------------
 	
@@ -38,7 +67,32 @@ public class DataStatistics {
 	 * Creates a new statistics object, with an empty cache. 
 	 */
 	public DataStatistics() {
+		this(null);
+	}
+
+	/**
+	 * Creates a new statistics object, with an empty cache, that keeps the statistics of operators
+	 * in the given directory.
+	 *
+	 * @param operatorStatisticsDirectory The directory for the operator statistics, or null to keep
+	 *                                    them only in this object.
+	 */
+	public DataStatistics(File operatorStatisticsDirectory) {
 		this.baseStatisticsCache = new HashMap<String, BaseStatistics>();
+		this.operatorStatisticsCache = new HashMap<String, BaseStatistics>();
+		this.operatorStatisticsDirectory = operatorStatisticsDirectory;
+	}
+
+	/**
+	 * Creates a new statistics object that keeps the statistics of operators in the directory
+	 * given by {@link OptimizerOptions#STATISTICS_DIRECTORY}, if it is set.
+	 *
+	 * @param config The configuration to read the directory from.
+	 * @return The statistics object.
+	 */
+	public static DataStatistics fromConfiguration(Configuration config) {
+		final String directory = config.getString(OptimizerOptions.STATISTICS_DIRECTORY);
+		return new DataStatistics(directory == null ? null : new File(directory));
 	}
 	
 	// --------------------------------------------------------------------------------------------
@@ -66,4 +120,211 @@ public class DataStatistics {
 			this.baseStatisticsCache.put(identifier, statistics);
 		}
 	}
+
+	// --------------------------------------------------------------------------------------------
+
+	/**
+	 * Gets the statistics of the output of the operator with the given fingerprint, as observed in
+	 * a previous execution.
+	 *
+	 * @param fingerprint The fingerprint of the operator.
+	 * @return The statistics of the operator's output, or null, if none are known.
+	 */
+	public BaseStatistics getOperatorStatistics(String fingerprint) {
+		synchronized (this.operatorStatisticsCache) {
+			BaseStatistics statistics = this.operatorStatisticsCache.get(fingerprint);
+			if (statistics == null && this.operatorStatisticsDirectory != null) {
+				statistics = readOperatorStatistics(fingerprint);
+				if (statistics != null) {
+					this.operatorStatisticsCache.put(fingerprint, statistics);
+				}
+			}
+			return statistics;
+		}
+	}
+
+	/**
+	 * Caches the given statistics of the output of the operator with the given fingerprint.
+	 *
+	 * @param statistics The statistics to cache.
+	 * @param fingerprint The fingerprint of the operator.
+	 */
+	public void cacheOperatorStatistics(BaseStatistics statistics, String fingerprint) {
+		synchronized (this.operatorStatisticsCache) {
+			this.operatorStatisticsCache.put(fingerprint, statistics);
+		}
+	}
+
+	/**
+	 * Records the statistics of the output of the operators of a finished job. The number of records
+	 * is taken from the accumulators named by {@link #getOperatorRecordsAccumulatorName(String, int)}, and
+	 * the size of the output is extrapolated from the records that were sampled alongside. Operators
+	 * which occur several times in the plan, because the plan has identical branches, are counted by
+	 * one accumulator per occurrence, and their statistics are averaged. The statistics are cached,
+	 * and written to the statistics directory, if there is one.
+	 *
+	 * @param accumulatorResults The accumulator results of the finished job.
+	 */
+	public void recordOperatorStatistics(Map<String, Object> accumulatorResults) {
+		final Map<String, ObservedOccurrences> observed = new HashMap<>();
+
+		for (Map.Entry<String, Object> entry : accumulatorResults.entrySet()) {
+			final String name = entry.getKey();
+			if (!name.startsWith(OPERATOR_RECORDS_ACCUMULATOR_PREFIX) || !(entry.getValue() instanceof Long) ||
+					name.endsWith(OutputStatisticsCollector.SAMPLED_RECORDS_SUFFIX) ||
+					name.endsWith(OutputStatisticsCollector.SAMPLED_BYTES_SUFFIX)) {
+				continue;
+			}
+
+			final int separator = name.lastIndexOf(OPERATOR_OCCURRENCE_SEPARATOR);
+			if (separator < OPERATOR_RECORDS_ACCUMULATOR_PREFIX.length()) {
+				continue;
+			}
+
+			final String fingerprint = name.substring(OPERATOR_RECORDS_ACCUMULATOR_PREFIX.length(), separator);
+			final long numRecords = (Long) entry.getValue();
+
+			final Object sampledRecords = accumulatorResults.get(name + OutputStatisticsCollector.SAMPLED_RECORDS_SUFFIX);
+			final Object sampledBytes = accumulatorResults.get(name + OutputStatisticsCollector.SAMPLED_BYTES_SUFFIX);
+			final long outputSize;
+			if (sampledRecords instanceof Long && sampledBytes instanceof Long && (Long) sampledRecords > 0) {
+				outputSize = (long) (numRecords * ((double) (Long) sampledBytes / (Long) sampledRecords));
+			} else {
+				outputSize = BaseStatistics.SIZE_UNKNOWN;
+			}
+
+			ObservedOccurrences occurrences = observed.get(fingerprint);
+			if (occurrences == null) {
+				occurrences = new ObservedOccurrences();
+				observed.put(fingerprint, occurrences);
+			}
+			occurrences.add(numRecords, outputSize);
+		}
+
+		for (Map.Entry<String, ObservedOccurrences> entry : observed.entrySet()) {
+			final String fingerprint = entry.getKey();
+			final ObservedOccurrences occurrences = entry.getValue();
+			final long numRecords = occurrences.getAverageNumRecords();
+			final long outputSize = occurrences.getAverageOutputSize();
+
+			cacheOperatorStatistics(new OperatorStatistics(numRecords, outputSize), fingerprint);
+			if (this.operatorStatisticsDirectory != null) {
+				writeOperatorStatistics(fingerprint, numRecords, outputSize);
+			}
+		}
+	}
+
+	/**
+	 * Gets the name of the accumulator that counts the records that the given occurrence of the
+	 * operator with the given fingerprint emits.
+	 *
+	 * @param fingerprint The fingerprint of the operator.
+	 * @param occurrence The index of the occurrence of the operator among the operators with the same
+	 *                   fingerprint in the plan.
+	 * @return The name of the accumulator.
+	 */
+	public static String getOperatorRecordsAccumulatorName(String fingerprint, int occurrence) {
+		return OPERATOR_RECORDS_ACCUMULATOR_PREFIX + fingerprint + OPERATOR_OCCURRENCE_SEPARATOR + occurrence;
+	}
+
+	private BaseStatistics readOperatorStatistics(String fingerprint) {
+		final File file = new File(this.operatorStatisticsDirectory, fingerprint);
+		if (!file.isFile()) {
+			return null;
+		}
+
+		try {
+			final String content = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+			final String[] fields = content.trim().split(" ");
+			return new OperatorStatistics(Long.parseLong(fields[0]), Long.parseLong(fields[1]));
+		}
+		catch (IOException | RuntimeException e) {
+			LOG.warn("Could not read the operator statistics from " + file + '.', e);
+			return null;
+		}
+	}
+
+	private void writeOperatorStatistics(String fingerprint, long numRecords, long outputSize) {
+		final File file = new File(this.operatorStatisticsDirectory, fingerprint);
+		try {
+			if (!this.operatorStatisticsDirectory.isDirectory() && !this.operatorStatisticsDirectory.mkdirs()) {
+				throw new IOException("Could not create the directory " + this.operatorStatisticsDirectory + '.');
+			}
+
+			// write to a temporary file first, such that concurrent readers never see a partial file
+			final File tempFile = File.createTempFile(fingerprint + "-stats-", ".tmp", this.operatorStatisticsDirectory);
+			try {
+				Files.write(tempFile.toPath(), (numRecords + " " + outputSize).getBytes(StandardCharsets.UTF_8));
+				Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			}
+			finally {
+				Files.deleteIfExists(tempFile.toPath());
+			}
+		}
+		catch (IOException e) {
+			LOG.warn("Could not write the operator statistics to " + file + '.', e);
+		}
+	}
+
+	// --------------------------------------------------------------------------------------------
+
+	/**
+	 * The statistics of the output of an operator, as observed in a previous execution.
+	 */
+	private static final class OperatorStatistics implements BaseStatistics {
+
+		private final long numRecords;
+
+		private final long outputSize;
+
+		OperatorStatistics(long numRecords, long outputSize) {
+			this.numRecords = numRecords;
+			this.outputSize = outputSize;
+		}
+
+		@Override
+		public long getTotalInputSize() {
+			return this.outputSize;
+		}
+
+		@Override
+		public long getNumberOfRecords() {
+			return this.numRecords;
+		}
+
+		@Override
+		public float getAverageRecordWidth() {
+			return this.numRecords > 0 && this.outputSize != SIZE_UNKNOWN ?
+				(float) this.outputSize / this.numRecords :
+				AVG_RECORD_BYTES_UNKNOWN;
+		}
+	}
+
+	/**
+	 * The statistics of all occurrences of an operator in an execution.
+	 */
+	private static final class ObservedOccurrences {
+
+		private long numRecords;
+
+		private long outputSize;
+
+		private int count;
+
+		void add(long numRecords, long outputSize) {
+			this.numRecords += numRecords;
+			// a single unknown size makes the size of all occurrences unknown
+			this.outputSize = this.outputSize == BaseStatistics.SIZE_UNKNOWN || outputSize == BaseStatistics.SIZE_UNKNOWN ?
+				BaseStatistics.SIZE_UNKNOWN : this.outputSize + outputSize;
+			this.count++;
+		}
+
+		long getAverageNumRecords() {
+			return this.numRecords / this.count;
+		}
+
+		long getAverageOutputSize() {
+			return this.outputSize == BaseStatistics.SIZE_UNKNOWN ? BaseStatistics.SIZE_UNKNOWN : this.outputSize / this.count;
+		}
+	}
 }
@@ -374,6 +374,15 @@ public class Optimizer {
 			throw new IllegalArgumentException("Default parallelism cannot be zero or negative.");
 		}
 	}
+
+	/**
+	 * Gets the statistics that the optimizer uses to estimate the sizes of intermediate results.
+	 *
+	 * @return The statistics, or null, if the optimizer has no access to statistics.
+	 */
+	public DataStatistics getStatistics() {
+		return statistics;
+	}
 	
 	// ------------------------------------------------------------------------
 	//                               Compilation
@@ -18,6 +18,10 @@
 
 package org.apache.flink.optimizer.dag;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
@@ -26,14 +30,20 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 
 import org.apache.flink.api.common.ExecutionConfig;
 import org.apache.flink.api.common.ExecutionMode;
+import org.apache.flink.api.common.io.FileInputFormat;
 import org.apache.flink.api.common.operators.AbstractUdfOperator;
 import org.apache.flink.api.common.operators.CompilerHints;
+import org.apache.flink.api.common.operators.GenericDataSourceBase;
 import org.apache.flink.api.common.operators.Operator;
 import org.apache.flink.api.common.operators.SemanticProperties;
+import org.apache.flink.api.common.io.statistics.BaseStatistics;
 import org.apache.flink.api.common.operators.util.FieldSet;
+import org.apache.flink.api.common.operators.util.UserCodeObjectWrapper;
+import org.apache.flink.api.common.operators.util.UserCodeWrapper;
 import org.apache.flink.optimizer.CompilerException;
 import org.apache.flink.optimizer.DataStatistics;
 import org.apache.flink.optimizer.costs.CostEstimator;
@@ -44,6 +54,8 @@ import org.apache.flink.optimizer.plan.PlanNode;
 import org.apache.flink.optimizer.plandump.DumpableConnection;
 import org.apache.flink.optimizer.plandump.DumpableNode;
 import org.apache.flink.runtime.operators.shipping.ShipStrategyType;
+import org.apache.flink.util.InstantiationUtil;
+import org.apache.flink.util.StringUtils;
 import org.apache.flink.util.Visitable;
 import org.apache.flink.util.Visitor;
 
@@ -111,6 +123,8 @@ public abstract class OptimizerNode implements Visitable<OptimizerNode>, Estimat
 	
 	protected List<PlanNode> cachedPlans;	// cache candidates, because the may be accessed repeatedly
 
+	private String fingerprint;			// identifies the node across compilations of the same program
+
 	// ------------------------------------------------------------------------
 	//                      Constructor / Setup
 	// ------------------------------------------------------------------------
@@ -370,6 +384,62 @@ public abstract class OptimizerNode implements Visitable<OptimizerNode>, Estimat
 		return this.operator;
 	}
 
+	/**
+	 * Gets the fingerprint of this node. The fingerprint is derived from the kind, the name, the
+	 * parameters, the user code, and the path of the read file, if any, of this node and of all its
+	 * (transitive) inputs. The user code contributes a hash of its serialized form, which covers the
+	 * configuration of the function, such as the values of its fields. The fingerprint does not depend
+	 * on the parallelism or on the chosen strategies, such that it identifies the node across
+	 * compilations of the same program. Identical branches of a program have the same fingerprint.
+	 *
+	 * @return The fingerprint of this node, as a hex string.
+	 */
+	public String getFingerprint() {
+		if (this.fingerprint == null) {
+			final MessageDigest digest;
+			try {
+				digest = MessageDigest.getInstance("MD5");
+			}
+			catch (NoSuchAlgorithmException e) {
+				throw new CompilerException("Could not compute the fingerprint of the node: " + e.getMessage(), e);
+			}
+
+			final StringBuilder bld = new StringBuilder(getOperatorName());
+			if (this.operator != null) {
+				bld.append('|').append(this.operator.getClass().getName());
+				bld.append('|').append(this.operator.getName());
+				// the parameters in the order of their keys
+				bld.append('|').append(new TreeMap<>(this.operator.getParameters().toMap()));
+
+				final UserCodeWrapper<?> userCode = this.operator.getUserCodeWrapper();
+				if (userCode != null) {
+					if (userCode.getUserCodeClass() != null) {
+						bld.append('|').append(userCode.getUserCodeClass().getName());
+					}
+					try {
+						bld.append('|').append(StringUtils.byteToHexString(digest.digest(InstantiationUtil.serializeObject(userCode))));
+					}
+					catch (IOException e) {
+						// user code that cannot be serialized fails the submission of the job later on
+					}
+				}
+				if (this.operator instanceof GenericDataSourceBase && userCode instanceof UserCodeObjectWrapper &&
+						userCode.getUserCodeObject() instanceof FileInputFormat) {
+					bld.append('|').append(((FileInputFormat<?>) userCode.getUserCodeObject()).getFilePath());
+				}
+			}
+			for (DagConnection conn : getIncomingConnections()) {
+				// the utility nodes of combiners have no input connections
+				if (conn != null && conn.getSource() != null) {
+					bld.append('(').append(conn.getSource().getFingerprint()).append(')');
+				}
+			}
+
+			this.fingerprint = StringUtils.byteToHexString(digest.digest(bld.toString().getBytes(StandardCharsets.UTF_8)));
+		}
+		return this.fingerprint;
+	}
+
 	/**
 	 * Gets the parallelism for the operator represented by this optimizer node.
 	 * The parallelism denotes how many parallel instances of the operator on will be
@@ -594,6 +664,11 @@ public abstract class OptimizerNode implements Visitable<OptimizerNode>, Estimat
 		if (this.estimatedNumRecords < 0) {
 			this.estimatedNumRecords = -1;
 		}
+
+		// the number of records that was observed in a previous execution beats any estimate
+		if (statistics != null && useObservedStatistics(statistics)) {
+			return;
+		}
 		
 		// overwrite default estimates with hints, if given
 		if (getOperator() == null || getOperator().getCompilerHints() == null) {
@@ -638,6 +713,37 @@ public abstract class OptimizerNode implements Visitable<OptimizerNode>, Estimat
 	}
 	
 	protected abstract void computeOperatorSpecificDefaultEstimates(DataStatistics statistics);
+
+	/**
+	 * Sets the estimates to the statistics that were observed for this node in a previous execution.
+	 * If the size of the output was not observed, it is derived from the observed number of records
+	 * and the estimated width of the records.
+	 *
+	 * @param statistics The statistics object to look up the observed statistics in.
+	 * @return True, if statistics were observed for this node, false otherwise.
+	 */
+	private boolean useObservedStatistics(DataStatistics statistics) {
+		final BaseStatistics observed = statistics.getOperatorStatistics(getFingerprint());
+		if (observed == null || observed.getNumberOfRecords() == BaseStatistics.NUM_RECORDS_UNKNOWN) {
+			return false;
+		}
+
+		float width = getEstimatedAvgWidthPerOutputRecord();
+		if (getOperator() != null && getOperator().getCompilerHints() != null &&
+				getOperator().getCompilerHints().getAvgOutputRecordSize() >= 1) {
+			width = getOperator().getCompilerHints().getAvgOutputRecordSize();
+		}
+
+		this.estimatedNumRecords = observed.getNumberOfRecords();
+		if (observed.getTotalInputSize() != BaseStatistics.SIZE_UNKNOWN) {
+			this.estimatedOutputSize = observed.getTotalInputSize();
+		} else if (width > 0) {
+			this.estimatedOutputSize = (long) (this.estimatedNumRecords * width);
+		} else {
+			this.estimatedOutputSize = -1;
+		}
+		return true;
+	}
 	
 	// ------------------------------------------------------------------------
 	// Reading of stub annotations
@@ -881,6 +987,16 @@ public abstract class OptimizerNode implements Visitable<OptimizerNode>, Estimat
 		return this.openBranches;
 	}
 
+	/**
+	 * Gets the branching nodes whose branches are joined at this node, i.e., the nodes whose
+	 * results reach this node through more than one input.
+	 *
+	 * @return The branching nodes, or null, if no branches are joined at this node.
+	 */
+	public List<OptimizerNode> getJoinedBranchingNodes() {
+		return this.hereJoinedBranches;
+	}
+
 
 	protected List<UnclosedBranchDescriptor> getBranchesForParent(DagConnection toParent) {
 		if (this.outgoingConnections.size() == 1) {
@@ -32,6 +32,8 @@ import org.apache.flink.api.common.operators.util.UserCodeWrapper;
 import org.apache.flink.api.common.typeutils.TypeSerializerFactory;
 import org.apache.flink.configuration.GlobalConfiguration;
 import org.apache.flink.optimizer.CompilerException;
+import org.apache.flink.optimizer.DataStatistics;
+import org.apache.flink.optimizer.dag.OptimizerNode;
 import org.apache.flink.optimizer.dag.TempMode;
 import org.apache.flink.optimizer.plan.BulkIterationPlanNode;
 import org.apache.flink.optimizer.plan.BulkPartialSolutionPlanNode;
@@ -50,6 +52,7 @@ import org.apache.flink.optimizer.plan.WorksetIterationPlanNode;
 import org.apache.flink.optimizer.plan.WorksetPlanNode;
 import org.apache.flink.configuration.ConfigConstants;
 import org.apache.flink.configuration.Configuration;
+import org.apache.flink.configuration.OptimizerOptions;
 import org.apache.flink.optimizer.util.Utils;
 import org.apache.flink.runtime.io.network.DataExchangeMode;
 import org.apache.flink.runtime.io.network.partition.ResultPartitionType;
@@ -130,12 +133,16 @@ public class JobGraphGenerator implements Visitor<PlanNode> {
 	private final float defaultSortSpillingThreshold;
 
 	private final boolean useLargeRecordHandler;
+
+	private final boolean countOperatorRecords;
 	
 	private int iterationIdEnumerator = 1;
 	
 	private IterationPlanNode currentIteration; // the current the enclosing iteration
 	
 	private List<IterationPlanNode> iterationStack;  // stack of enclosing iterations
+
+	private Map<String, Integer> fingerprintOccurrences; // the last occurrence of each counted fingerprint
 	
 	private SlotSharingGroup sharingGroup;
 	
@@ -148,6 +155,7 @@ public class JobGraphGenerator implements Visitor<PlanNode> {
 		this.defaultMaxFan = ConfigConstants.DEFAULT_SPILLING_MAX_FAN;
 		this.defaultSortSpillingThreshold = ConfigConstants.DEFAULT_SORT_SPILLING_THRESHOLD;
 		this.useLargeRecordHandler = ConfigConstants.DEFAULT_USE_LARGE_RECORD_HANDLER;
+		this.countOperatorRecords = false;
 	}
 	
 	public JobGraphGenerator(Configuration config) {
@@ -158,6 +166,7 @@ public class JobGraphGenerator implements Visitor<PlanNode> {
 		this.useLargeRecordHandler = config.getBoolean(
 				ConfigConstants.USE_LARGE_RECORD_HANDLER_KEY,
 				ConfigConstants.DEFAULT_USE_LARGE_RECORD_HANDLER);
+		this.countOperatorRecords = config.getString(OptimizerOptions.STATISTICS_DIRECTORY) != null;
 	}
 
 	/**
@@ -187,6 +196,7 @@ public class JobGraphGenerator implements Visitor<PlanNode> {
 		this.auxVertices = new ArrayList<JobVertex>();
 		this.iterations = new HashMap<IterationPlanNode, IterationDescriptor>();
 		this.iterationStack = new ArrayList<IterationPlanNode>();
+		this.fingerprintOccurrences = new HashMap<String, Integer>();
 		
 		this.sharingGroup = new SlotSharingGroup();
 		
@@ -859,6 +869,7 @@ public class JobGraphGenerator implements Visitor<PlanNode> {
 		}
 		// assign memory, file-handles, etc.
 		assignDriverResources(node, config);
+		assignOutputRecordsAccumulator(node, config);
 		return vertex;
 	}
 
@@ -886,12 +897,32 @@ public class JobGraphGenerator implements Visitor<PlanNode> {
 		if (node.getPairComparator() != null) {
 			config.setDriverPairComparator(node.getPairComparator());
 		}
+		if (acceptsAdaptiveBuildSide(node)) {
+			config.setDriverAdaptiveBuildSide(true);
+		}
 		
 		// assign memory, file-handles, etc.
 		assignDriverResources(node, config);
+		assignOutputRecordsAccumulator(node, config);
 		return vertex;
 	}
 
+	/**
+	 * Checks whether a hash join may read a part of its probe side before its build side is complete,
+	 * in order to choose the smaller input as build side at runtime. This is only the case if the
+	 * two inputs do not originate from a common operator, which could otherwise block on the unread
+	 * build side while the join waits for records of the probe side.
+	 */
+	private static boolean acceptsAdaptiveBuildSide(DualInputPlanNode node) {
+		if (node.getDriverStrategy() != DriverStrategy.HYBRIDHASH_BUILD_FIRST &&
+				node.getDriverStrategy() != DriverStrategy.HYBRIDHASH_BUILD_SECOND) {
+			return false;
+		}
+
+		final List<OptimizerNode> joinedBranchingNodes = node.getOptimizerNode().getJoinedBranchingNodes();
+		return !node.isOnDynamicPath() && (joinedBranchingNodes == null || joinedBranchingNodes.isEmpty());
+	}
+
 	private InputFormatVertex createDataSourceVertex(SourcePlanNode node) throws CompilerException {
 		final InputFormatVertex vertex = new InputFormatVertex(node.getNodeName());
 		final TaskConfig config = new TaskConfig(vertex.getConfiguration());
@@ -905,6 +936,7 @@ public class JobGraphGenerator implements Visitor<PlanNode> {
 		config.setStubParameters(node.getProgramOperator().getParameters());
 
 		config.setOutputSerializer(node.getSerializer());
+		assignOutputRecordsAccumulator(node, config);
 		return vertex;
 	}
 
@@ -1063,6 +1095,25 @@ public class JobGraphGenerator implements Visitor<PlanNode> {
 		return toReturn;
 	}
 	
+	/**
+	 * Lets the task count the records that the node emits, such that later compilations of the program
+	 * can use the number. Nodes on the dynamic path of an iteration are skipped, because they run
+	 * once per superstep.
+	 */
+	private void assignOutputRecordsAccumulator(PlanNode node, TaskConfig config) {
+		if (this.countOperatorRecords && !node.isOnDynamicPath()) {
+			final String fingerprint = node.getOptimizerNode().getFingerprint();
+
+			// identical branches share the fingerprint, each of them gets its own accumulator
+			final Integer previousOccurrence = this.fingerprintOccurrences.get(fingerprint);
+			final int occurrence = previousOccurrence == null ? 0 : previousOccurrence + 1;
+			this.fingerprintOccurrences.put(fingerprint, occurrence);
+
+			config.setOutputCardinalityAccumulator(
+				DataStatistics.getOperatorRecordsAccumulatorName(fingerprint, occurrence));
+		}
+	}
+
 	private void assignDriverResources(PlanNode node, TaskConfig config) {
 		final double relativeMem = node.getRelativeMemoryPerSubTask();
 		if (relativeMem > 0) {
@@ -1085,6 +1136,36 @@ public class JobGraphGenerator implements Visitor<PlanNode> {
 	// Connecting Vertices
 	// ------------------------------------------------------------------------
 
+	/**
+	 * Checks whether the producer of the given channel can drop records with the runtime filter of a
+	 * hash join. This is the case if the channel is the pipelined probe side of an inner hash join
+	 * outside of iterations, and if it is hash partitioned on exactly the keys of the join, such that
+	 * the producer computes the same hash codes as the join.
+	 */
+	private static boolean acceptsRuntimeFilter(Channel channel, int inputNumber) {
+		if (channel.getShipStrategy() != ShipStrategyType.PARTITION_HASH ||
+				channel.getShipStrategyComparator() == null ||
+				channel.getDataExchangeMode() != DataExchangeMode.PIPELINED ||
+				channel.getSource().isOnDynamicPath() ||
+				!(channel.getTarget() instanceof DualInputPlanNode)) {
+			return false;
+		}
+
+		final DualInputPlanNode join = (DualInputPlanNode) channel.getTarget();
+		if (join.isOnDynamicPath()) {
+			return false;
+		}
+
+		switch (join.getDriverStrategy()) {
+			case HYBRIDHASH_BUILD_FIRST:
+				return inputNumber == 1 && channel.getShipStrategyKeys().equals(join.getKeysForInput2());
+			case HYBRIDHASH_BUILD_SECOND:
+				return inputNumber == 0 && channel.getShipStrategyKeys().equals(join.getKeysForInput1());
+			default:
+				return false;
+		}
+	}
+
 	/**
 	 * NOTE: The channel for global and local strategies are different if we connect a union. The global strategy
 	 * channel is then the channel into the union node, the local strategy channel the one from the union to the
@@ -1153,6 +1234,10 @@ public class JobGraphGenerator implements Visitor<PlanNode> {
 		if (channel.getShipStrategyComparator() != null) {
 			sourceConfig.setOutputComparator(channel.getShipStrategyComparator(), outputIndex);
 		}
+		if (!isBroadcast && acceptsRuntimeFilter(channel, inputNumber)) {
+			sourceConfig.setOutputRuntimeFilter(true, outputIndex);
+			targetConfig.setDriverRuntimeFilter(true);
+		}
 		
 		if (channel.getShipStrategy() == ShipStrategyType.PARTITION_RANGE) {
 			
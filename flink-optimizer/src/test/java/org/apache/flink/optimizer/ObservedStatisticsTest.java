@@ -0,0 +1,312 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.optimizer;
+
+import org.apache.flink.api.common.Plan;
+import org.apache.flink.api.common.functions.FilterFunction;
+import org.apache.flink.api.java.DataSet;
+import org.apache.flink.api.java.ExecutionEnvironment;
+import org.apache.flink.api.java.io.DiscardingOutputFormat;
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.configuration.OptimizerOptions;
+import org.apache.flink.optimizer.plan.DualInputPlanNode;
+import org.apache.flink.optimizer.plan.OptimizedPlan;
+import org.apache.flink.optimizer.plan.PlanNode;
+import org.apache.flink.optimizer.plantranslate.JobGraphGenerator;
+import org.apache.flink.optimizer.util.CompilerTestBase;
+import org.apache.flink.runtime.jobgraph.JobGraph;
+import org.apache.flink.runtime.jobgraph.JobVertex;
+import org.apache.flink.runtime.operators.shipping.ShipStrategyType;
+import org.apache.flink.runtime.operators.util.TaskConfig;
+import org.apache.flink.runtime.operators.util.metrics.OutputStatisticsCollector;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests that the optimizer uses the statistics of operators that were observed in previous executions.
+ */
+@SuppressWarnings("serial")
+public class ObservedStatisticsTest extends CompilerTestBase {
+
+	@Rule
+	public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Test
+	public void testFingerprintIsStableAcrossCompilations() {
+		OptimizedPlan first = compileNoStats(createJoinPlan());
+		OptimizedPlan second = compileNoStats(createJoinPlan());
+
+		String fingerprint = getNode(first, "filter1").getOptimizerNode().getFingerprint();
+		assertEquals(fingerprint, getNode(second, "filter1").getOptimizerNode().getFingerprint());
+		assertNotEquals(fingerprint, getNode(second, "filter2").getOptimizerNode().getFingerprint());
+	}
+
+	@Test
+	public void testFingerprintDependsOnParametersAndFilePath() {
+		String fingerprint = getNode(compileNoStats(createFilePlan("file:///in1", 1)), "filter")
+			.getOptimizerNode().getFingerprint();
+
+		assertEquals(fingerprint, getNode(compileNoStats(createFilePlan("file:///in1", 1)), "filter")
+			.getOptimizerNode().getFingerprint());
+		assertNotEquals(fingerprint, getNode(compileNoStats(createFilePlan("file:///in2", 1)), "filter")
+			.getOptimizerNode().getFingerprint());
+		assertNotEquals(fingerprint, getNode(compileNoStats(createFilePlan("file:///in1", 2)), "filter")
+			.getOptimizerNode().getFingerprint());
+	}
+
+	@Test
+	public void testFingerprintDependsOnUserCodeFields() {
+		String fingerprint = getNode(compileNoStats(createThresholdPlan(10L)), "filter").getOptimizerNode().getFingerprint();
+
+		assertEquals(fingerprint, getNode(compileNoStats(createThresholdPlan(10L)), "filter")
+			.getOptimizerNode().getFingerprint());
+		assertNotEquals(fingerprint, getNode(compileNoStats(createThresholdPlan(20L)), "filter")
+			.getOptimizerNode().getFingerprint());
+	}
+
+	@Test
+	public void testStatisticsAccumulatorsAreRemovedFromResults() {
+		Map<String, Object> results = accumulatorResults(new String[] {"a"}, 10L, new String[] {"b"}, 20L);
+
+		Map<String, Object> userResults = OutputStatisticsCollector.removeStatisticsAccumulators(results);
+		assertEquals(Collections.<String, Object>singletonMap("user-accumulator", 42), userResults);
+		assertEquals(7, results.size());
+
+		Map<String, Object> noStatistics = Collections.<String, Object>singletonMap("user-accumulator", 42);
+		assertSame(noStatistics, OutputStatisticsCollector.removeStatisticsAccumulators(noStatistics));
+	}
+
+	@Test
+	public void testObservedStatisticsDetermineBroadcastSide() {
+		OptimizedPlan plan = compileWithStats(createJoinPlan());
+		String[] first = {
+			getNode(plan, "source1").getOptimizerNode().getFingerprint(),
+			getNode(plan, "filter1").getOptimizerNode().getFingerprint()};
+		String[] second = {
+			getNode(plan, "source2").getOptimizerNode().getFingerprint(),
+			getNode(plan, "filter2").getOptimizerNode().getFingerprint()};
+
+		// the first input is tiny, the second input is huge
+		this.dataStats.recordOperatorStatistics(accumulatorResults(first, 10L, second, 100000000L));
+
+		plan = compileWithStats(createJoinPlan());
+		assertEquals(10L, getNode(plan, "filter1").getOptimizerNode().getEstimatedNumRecords());
+		assertEquals(160L, getNode(plan, "filter1").getOptimizerNode().getEstimatedOutputSize());
+
+		DualInputPlanNode join = getNode(plan, "join");
+		assertEquals(ShipStrategyType.BROADCAST, join.getInput1().getShipStrategy());
+		assertEquals(ShipStrategyType.FORWARD, join.getInput2().getShipStrategy());
+
+		// the other way around
+		this.dataStats.recordOperatorStatistics(accumulatorResults(first, 100000000L, second, 10L));
+
+		join = getNode(compileWithStats(createJoinPlan()), "join");
+		assertEquals(ShipStrategyType.FORWARD, join.getInput1().getShipStrategy());
+		assertEquals(ShipStrategyType.BROADCAST, join.getInput2().getShipStrategy());
+	}
+
+	@Test
+	public void testObservedStatisticsAreStoredInDirectory() throws Exception {
+		File directory = new File(temporaryFolder.newFolder(), "statistics");
+		DataStatistics statistics = new DataStatistics(directory);
+		statistics.recordOperatorStatistics(accumulatorResults(new String[] {"a"}, 10L, new String[] {"b"}, 20L));
+
+		// a new statistics object reads the statistics from the directory
+		Configuration config = new Configuration();
+		config.setString(OptimizerOptions.STATISTICS_DIRECTORY, directory.getAbsolutePath());
+		DataStatistics restored = DataStatistics.fromConfiguration(config);
+
+		assertEquals(10L, restored.getOperatorStatistics("a").getNumberOfRecords());
+		assertEquals(160L, restored.getOperatorStatistics("a").getTotalInputSize());
+		assertEquals(20L, restored.getOperatorStatistics("b").getNumberOfRecords());
+		assertNull(restored.getOperatorStatistics("c"));
+	}
+
+	@Test
+	public void testJobGraphCountsOutputRecordsIfConfigured() throws Exception {
+		OptimizedPlan plan = compileNoStats(createJoinPlan());
+		String join = getNode(plan, "join").getOptimizerNode().getFingerprint();
+
+		JobGraph jobGraph = new JobGraphGenerator().compileJobGraph(plan);
+		for (JobVertex vertex : jobGraph.getVertices()) {
+			assertNull(new TaskConfig(vertex.getConfiguration()).getOutputCardinalityAccumulator());
+		}
+
+		Configuration config = new Configuration();
+		config.setString(OptimizerOptions.STATISTICS_DIRECTORY, temporaryFolder.newFolder().getAbsolutePath());
+		jobGraph = new JobGraphGenerator(config).compileJobGraph(plan);
+
+		boolean found = false;
+		for (JobVertex vertex : jobGraph.getVertices()) {
+			if (vertex.getName().startsWith("Join(join)")) {
+				assertEquals(DataStatistics.getOperatorRecordsAccumulatorName(join, 0),
+					new TaskConfig(vertex.getConfiguration()).getOutputCardinalityAccumulator());
+				found = true;
+			}
+		}
+		assertTrue(found);
+	}
+
+	@Test
+	public void testIdenticalBranchesAreCountedSeparately() throws Exception {
+		ExecutionEnvironment env = ExecutionEnvironment.getExecutionEnvironment();
+		env.setParallelism(DEFAULT_PARALLELISM);
+		DataSet<Long> i1 = env.generateSequence(1, 1000).name("source");
+		DataSet<Long> i2 = env.generateSequence(1, 1000).name("source");
+		i1.join(i2).where("*").equalTo("*").name("join")
+			.output(new DiscardingOutputFormat<Tuple2<Long, Long>>());
+
+		OptimizedPlan plan = compileNoStats(env.createProgramPlan());
+		DualInputPlanNode join = getNode(plan, "join");
+		String source = join.getInput1().getSource().getOptimizerNode().getFingerprint();
+		assertEquals(source, join.getInput2().getSource().getOptimizerNode().getFingerprint());
+
+		Configuration config = new Configuration();
+		config.setString(OptimizerOptions.STATISTICS_DIRECTORY, temporaryFolder.newFolder().getAbsolutePath());
+		JobGraph jobGraph = new JobGraphGenerator(config).compileJobGraph(plan);
+
+		Set<String> accumulators = new HashSet<>();
+		for (JobVertex vertex : jobGraph.getVertices()) {
+			if (vertex.getName().contains("(source)")) {
+				assertTrue(accumulators.add(new TaskConfig(vertex.getConfiguration()).getOutputCardinalityAccumulator()));
+			}
+		}
+		assertEquals(new HashSet<>(Arrays.asList(
+				DataStatistics.getOperatorRecordsAccumulatorName(source, 0),
+				DataStatistics.getOperatorRecordsAccumulatorName(source, 1))),
+			accumulators);
+
+		// the statistics of the identical branches are averaged, not summed
+		Map<String, Object> results = new HashMap<>();
+		addAccumulatorResults(results, source, 0, 10L);
+		addAccumulatorResults(results, source, 1, 30L);
+		this.dataStats.recordOperatorStatistics(results);
+
+		assertEquals(20L, this.dataStats.getOperatorStatistics(source).getNumberOfRecords());
+		assertEquals(320L, this.dataStats.getOperatorStatistics(source).getTotalInputSize());
+	}
+
+	// ------------------------------------------------------------------------
+
+	private static Plan createJoinPlan() {
+		ExecutionEnvironment env = ExecutionEnvironment.getExecutionEnvironment();
+		env.setParallelism(DEFAULT_PARALLELISM);
+
+		DataSet<Long> i1 = env.generateSequence(1, 1000).name("source1")
+			.filter(new NonZeroFilter()).name("filter1");
+		DataSet<Long> i2 = env.generateSequence(1, 1000).name("source2")
+			.filter(new NonZeroFilter()).name("filter2");
+
+		i1.join(i2).where("*").equalTo("*").name("join")
+			.output(new DiscardingOutputFormat<Tuple2<Long, Long>>());
+
+		return env.createProgramPlan();
+	}
+
+	private static Plan createFilePlan(String path, int parameter) {
+		ExecutionEnvironment env = ExecutionEnvironment.getExecutionEnvironment();
+		env.setParallelism(DEFAULT_PARALLELISM);
+
+		Configuration parameters = new Configuration();
+		parameters.setInteger("parameter", parameter);
+		env.readTextFile(path).name("source")
+			.filter(new NonEmptyFilter()).withParameters(parameters).name("filter")
+			.output(new DiscardingOutputFormat<String>());
+
+		return env.createProgramPlan();
+	}
+
+	private static Plan createThresholdPlan(long threshold) {
+		ExecutionEnvironment env = ExecutionEnvironment.getExecutionEnvironment();
+		env.setParallelism(DEFAULT_PARALLELISM);
+
+		env.generateSequence(1, 1000).name("source")
+			.filter(new ThresholdFilter(threshold)).name("filter")
+			.output(new DiscardingOutputFormat<Long>());
+
+		return env.createProgramPlan();
+	}
+
+	private static <T extends PlanNode> T getNode(OptimizedPlan plan, String name) {
+		return getOptimizerPlanNodeResolver(plan).getNode(name);
+	}
+
+	private static Map<String, Object> accumulatorResults(String[] fingerprints1, long numRecords1, String[] fingerprints2, long numRecords2) {
+		Map<String, Object> results = new HashMap<>();
+		for (String fingerprint : fingerprints1) {
+			addAccumulatorResults(results, fingerprint, 0, numRecords1);
+		}
+		for (String fingerprint : fingerprints2) {
+			addAccumulatorResults(results, fingerprint, 0, numRecords2);
+		}
+		results.put("user-accumulator", 42);
+		return results;
+	}
+
+	private static void addAccumulatorResults(Map<String, Object> results, String fingerprint, int occurrence, long numRecords) {
+		String name = DataStatistics.getOperatorRecordsAccumulatorName(fingerprint, occurrence);
+		results.put(name, numRecords);
+		results.put(name + OutputStatisticsCollector.SAMPLED_RECORDS_SUFFIX, 2L);
+		results.put(name + OutputStatisticsCollector.SAMPLED_BYTES_SUFFIX, 32L);
+	}
+
+	private static final class NonZeroFilter implements FilterFunction<Long> {
+		@Override
+		public boolean filter(Long value) {
+			return value != 0L;
+		}
+	}
+
+	private static final class ThresholdFilter implements FilterFunction<Long> {
+		private final long threshold;
+
+		ThresholdFilter(long threshold) {
+			this.threshold = threshold;
+		}
+
+		@Override
+		public boolean filter(Long value) {
+			return value > threshold;
+		}
+	}
+
+	private static final class NonEmptyFilter implements FilterFunction<String> {
+		@Override
+		public boolean filter(String value) {
+			return !value.isEmpty();
+		}
+	}
+}
@@ -21,8 +21,10 @@ package org.apache.flink.optimizer.plantranslate;
 import org.apache.flink.api.common.Plan;
 import org.apache.flink.api.common.aggregators.LongSumAggregator;
 import org.apache.flink.api.common.functions.FilterFunction;
+import org.apache.flink.api.common.functions.JoinFunction;
 import org.apache.flink.api.common.functions.MapFunction;
 import org.apache.flink.api.common.operators.ResourceSpec;
+import org.apache.flink.api.common.operators.base.JoinOperatorBase.JoinHint;
 import org.apache.flink.api.java.DataSet;
 import org.apache.flink.api.java.ExecutionEnvironment;
 import org.apache.flink.api.java.io.DiscardingOutputFormat;
@@ -36,10 +38,12 @@ import org.apache.flink.optimizer.Optimizer;
 import org.apache.flink.optimizer.plan.OptimizedPlan;
 import org.apache.flink.runtime.jobgraph.JobGraph;
 import org.apache.flink.runtime.jobgraph.JobVertex;
+import org.apache.flink.runtime.operators.util.TaskConfig;
 import org.junit.Test;
 
 import java.lang.reflect.Method;
 
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 public class JobGraphGeneratorTest {
@@ -206,4 +210,109 @@ public class JobGraphGeneratorTest {
 		assertTrue(sinkVertex.getPreferredResources().equals(resource6));
 		assertTrue(iterationSyncVertex.getMinResources().equals(resource3));
 	}
+
+	/**
+	 * Verifies that the producer of the probe side of a hash join applies the runtime filters of the join.
+	 */
+	@Test
+	public void testRuntimeFilterForHashJoin() throws Exception {
+		ExecutionEnvironment env = ExecutionEnvironment.getExecutionEnvironment();
+		env.setParallelism(4);
+
+		DataSet<Tuple2<Long, Long>> build = env.fromElements(new Tuple2<>(1L, 2L)).name("build");
+		DataSet<Tuple2<Long, Long>> probe = env.fromElements(new Tuple2<>(1L, 3L)).name("probe");
+
+		build.join(probe, JoinHint.REPARTITION_HASH_FIRST).where(0).equalTo(0)
+			.output(new DiscardingOutputFormat<Tuple2<Tuple2<Long, Long>, Tuple2<Long, Long>>>());
+
+		JobGraph jobGraph = compileJobGraph(env.createProgramPlan());
+
+		assertFalse(new TaskConfig(getVertex(jobGraph, "build").getConfiguration()).getOutputRuntimeFilter(0));
+		assertTrue(new TaskConfig(getVertex(jobGraph, "probe").getConfiguration()).getOutputRuntimeFilter(0));
+		assertTrue(new TaskConfig(getVertex(jobGraph, "Join").getConfiguration()).getDriverRuntimeFilter());
+	}
+
+	/**
+	 * Verifies that records of the outer side of an outer join are never dropped by runtime filters.
+	 */
+	@Test
+	public void testNoRuntimeFilterForOuterJoin() throws Exception {
+		ExecutionEnvironment env = ExecutionEnvironment.getExecutionEnvironment();
+		env.setParallelism(4);
+
+		DataSet<Tuple2<Long, Long>> build = env.fromElements(new Tuple2<>(1L, 2L)).name("build");
+		DataSet<Tuple2<Long, Long>> probe = env.fromElements(new Tuple2<>(1L, 3L)).name("probe");
+
+		probe.leftOuterJoin(build, JoinHint.REPARTITION_HASH_SECOND).where(0).equalTo(0)
+			.with(new JoinFunction<Tuple2<Long, Long>, Tuple2<Long, Long>, Long>() {
+				@Override
+				public Long join(Tuple2<Long, Long> first, Tuple2<Long, Long> second) {
+					return first.f1;
+				}
+			})
+			.output(new DiscardingOutputFormat<Long>());
+
+		JobGraph jobGraph = compileJobGraph(env.createProgramPlan());
+
+		assertFalse(new TaskConfig(getVertex(jobGraph, "probe").getConfiguration()).getOutputRuntimeFilter(0));
+		assertFalse(new TaskConfig(getVertex(jobGraph, "Join").getConfiguration()).getDriverRuntimeFilter());
+	}
+
+	/**
+	 * Verifies that a hash join may choose its build side at runtime if its inputs are independent.
+	 */
+	@Test
+	public void testAdaptiveBuildSideForIndependentInputs() throws Exception {
+		ExecutionEnvironment env = ExecutionEnvironment.getExecutionEnvironment();
+		env.setParallelism(4);
+
+		DataSet<Tuple2<Long, Long>> build = env.fromElements(new Tuple2<>(1L, 2L)).name("build");
+		DataSet<Tuple2<Long, Long>> probe = env.fromElements(new Tuple2<>(1L, 3L)).name("probe");
+
+		build.join(probe, JoinHint.REPARTITION_HASH_FIRST).where(0).equalTo(0)
+			.output(new DiscardingOutputFormat<Tuple2<Tuple2<Long, Long>, Tuple2<Long, Long>>>());
+
+		JobGraph jobGraph = compileJobGraph(env.createProgramPlan());
+
+		assertTrue(new TaskConfig(getVertex(jobGraph, "Join").getConfiguration()).getDriverAdaptiveBuildSide());
+	}
+
+	/**
+	 * Verifies that a hash join never reads its probe side early if both inputs originate from the
+	 * same operator, because that could deadlock the pipeline.
+	 */
+	@Test
+	public void testNoAdaptiveBuildSideForBranchingInputs() throws Exception {
+		ExecutionEnvironment env = ExecutionEnvironment.getExecutionEnvironment();
+		env.setParallelism(4);
+
+		DataSet<Tuple2<Long, Long>> source = env.fromElements(new Tuple2<>(1L, 2L)).name("source");
+		DataSet<Tuple2<Long, Long>> build = source.filter(new FilterFunction<Tuple2<Long, Long>>() {
+			@Override
+			public boolean filter(Tuple2<Long, Long> value) {
+				return value.f1 > 1L;
+			}
+		});
+
+		build.join(source, JoinHint.REPARTITION_HASH_FIRST).where(0).equalTo(0)
+			.output(new DiscardingOutputFormat<Tuple2<Tuple2<Long, Long>, Tuple2<Long, Long>>>());
+
+		JobGraph jobGraph = compileJobGraph(env.createProgramPlan());
+
+		assertFalse(new TaskConfig(getVertex(jobGraph, "Join").getConfiguration()).getDriverAdaptiveBuildSide());
+	}
+
+	private static JobGraph compileJobGraph(Plan plan) {
+		OptimizedPlan op = new Optimizer(new Configuration()).compile(plan);
+		return new JobGraphGenerator().compileJobGraph(op);
+	}
+
+	private static JobVertex getVertex(JobGraph jobGraph, String name) {
+		for (JobVertex vertex : jobGraph.getVertices()) {
+			if (vertex.getName().contains(name)) {
+				return vertex;
+			}
+		}
+		throw new IllegalArgumentException("No vertex with name " + name);
+	}
 }
@@ -21,10 +21,13 @@ package org.apache.flink.runtime.accumulators;
 import org.apache.flink.api.common.JobID;
 import org.apache.flink.api.common.accumulators.Accumulator;
 import org.apache.flink.runtime.executiongraph.ExecutionAttemptID;
+import org.apache.flink.runtime.executiongraph.IOMetrics;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
+
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -53,8 +56,18 @@ public class AccumulatorRegistry {
 	 * @return a serialized accumulator map
 	 */
 	public AccumulatorSnapshot getSnapshot() {
+		return getSnapshot(null);
+	}
+
+	/**
+	 * Creates a snapshot of this accumulator registry, which also carries the given I/O metrics
+	 * of the task as an indication of its progress.
+	 * @param ioMetrics the current I/O metrics of the task, may be null
+	 * @return a serialized accumulator map
+	 */
+	public AccumulatorSnapshot getSnapshot(@Nullable IOMetrics ioMetrics) {
 		try {
-			return new AccumulatorSnapshot(jobID, taskID, userAccumulators);
+			return new AccumulatorSnapshot(jobID, taskID, userAccumulators, ioMetrics);
 		} catch (Throwable e) {
 			LOG.warn("Failed to serialize accumulators for task.", e);
 			return null;
@@ -19,6 +19,7 @@
 package org.apache.flink.runtime.accumulators;
 
 import org.apache.flink.api.common.accumulators.Accumulator;
+import org.apache.flink.runtime.operators.util.metrics.OutputStatisticsCollector;
 
 import java.util.Map;
 
@@ -57,8 +58,10 @@ public class StringifiedAccumulatorResult implements java.io.Serializable{
 
 	/**
 	 * Flatten a map of accumulator names to Accumulator instances into an array of StringifiedAccumulatorResult values.
+	 * The accumulators that collect statistics for the optimizer are left out.
      */
 	public static StringifiedAccumulatorResult[] stringifyAccumulatorResults(Map<String, Accumulator<?, ?>> accs) {
+		accs = OutputStatisticsCollector.removeStatisticsAccumulators(accs);
 		if (accs == null || accs.isEmpty()) {
 			return new StringifiedAccumulatorResult[0];
 		}
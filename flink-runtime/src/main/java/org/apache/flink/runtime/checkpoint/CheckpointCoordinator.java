@@ -41,6 +41,7 @@ import org.apache.flink.runtime.messages.checkpoint.AcknowledgeCheckpoint;
 import org.apache.flink.runtime.messages.checkpoint.DeclineCheckpoint;
 import org.apache.flink.runtime.state.SharedStateRegistry;
 import org.apache.flink.runtime.state.SharedStateRegistryFactory;
+import org.apache.flink.runtime.state.StateDisposalService;
 import org.apache.flink.runtime.taskmanager.DispatcherThreadFactory;
 import org.apache.flink.util.Preconditions;
 import org.apache.flink.util.StringUtils;
@@ -49,6 +50,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
 
 import java.util.ArrayDeque;
 import java.util.HashMap;
@@ -56,6 +58,7 @@ import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ScheduledFuture;
@@ -91,6 +94,12 @@ public class CheckpointCoordinator {
 	 * messages during that phase. */
 	private final Object triggerLock = new Object();
 
+	/** Lock to serialize the accesses to the completed checkpoint store. Checkpoints are completed
+	 * outside the coordinator-wide lock, so that blocking store operations do not hold up the
+	 * processing of 'acknowledge/decline' messages. If both locks are needed, the coordinator-wide
+	 * lock is acquired first. */
+	private final Object storeLock = new Object();
+
 	/** The job whose checkpoint this coordinator coordinates */
 	private final JobID job;
 
@@ -121,6 +130,16 @@ public class CheckpointCoordinator {
 	@Nullable
 	private final String checkpointDirectory;
 
+	/** The ID of the latest checkpoint added to the completed checkpoint store, to keep
+	 * checkpoints which are completed concurrently in order */
+	@GuardedBy("storeLock")
+	private long latestStoredCheckpointId = -1L;
+
+	/** Checkpoints with a lower ID were abandoned while being finalized, because the checkpoint
+	 * scheduler was stopped, and must not be added to the completed checkpoint store */
+	@GuardedBy("storeLock")
+	private long minStorableCheckpointId = -1L;
+
 	/** A list of recent checkpoint IDs, to identify late messages (vs invalid ones) */
 	private final ArrayDeque<Long> recentPendingCheckpoints;
 
@@ -181,6 +200,9 @@ public class CheckpointCoordinator {
 	/** Registry that tracks state which is shared across (incremental) checkpoints */
 	private SharedStateRegistry sharedStateRegistry;
 
+	/** Service that disposes the state of subsumed checkpoints with bounded parallelism */
+	private final StateDisposalService stateDisposalService;
+
 	// --------------------------------------------------------------------------------------------
 
 	public CheckpointCoordinator(
@@ -199,6 +221,41 @@ public class CheckpointCoordinator {
 			Executor executor,
 			SharedStateRegistryFactory sharedStateRegistryFactory) {
 
+		this(
+			job,
+			baseInterval,
+			checkpointTimeout,
+			minPauseBetweenCheckpoints,
+			maxConcurrentCheckpointAttempts,
+			externalizeSettings,
+			tasksToTrigger,
+			tasksToWaitFor,
+			tasksToCommitTo,
+			checkpointIDCounter,
+			completedCheckpointStore,
+			checkpointDirectory,
+			executor,
+			sharedStateRegistryFactory,
+			CoreOptions.CHECKPOINTS_MAX_CONCURRENT_DISPOSALS.defaultValue());
+	}
+
+	public CheckpointCoordinator(
+			JobID job,
+			long baseInterval,
+			long checkpointTimeout,
+			long minPauseBetweenCheckpoints,
+			int maxConcurrentCheckpointAttempts,
+			ExternalizedCheckpointSettings externalizeSettings,
+			ExecutionVertex[] tasksToTrigger,
+			ExecutionVertex[] tasksToWaitFor,
+			ExecutionVertex[] tasksToCommitTo,
+			CheckpointIDCounter checkpointIDCounter,
+			CompletedCheckpointStore completedCheckpointStore,
+			@Nullable String checkpointDirectory,
+			Executor executor,
+			SharedStateRegistryFactory sharedStateRegistryFactory,
+			int maxConcurrentStateDisposals) {
+
 		// sanity checks
 		checkArgument(baseInterval > 0, "Checkpoint timeout must be larger than zero");
 		checkArgument(checkpointTimeout >= 1, "Checkpoint timeout must be larger than zero");
@@ -236,7 +293,8 @@ public class CheckpointCoordinator {
 		this.checkpointDirectory = checkpointDirectory;
 		this.executor = checkNotNull(executor);
 		this.sharedStateRegistryFactory = checkNotNull(sharedStateRegistryFactory);
-		this.sharedStateRegistry = sharedStateRegistryFactory.create(executor);
+		this.stateDisposalService = new StateDisposalService(executor, maxConcurrentStateDisposals);
+		this.sharedStateRegistry = sharedStateRegistryFactory.create(stateDisposalService);
 
 		this.recentPendingCheckpoints = new ArrayDeque<>(NUM_GHOST_CHECKPOINT_IDS);
 		this.masterHooks = new HashMap<>();
@@ -335,13 +393,18 @@ public class CheckpointCoordinator {
 				// shut down the thread that handles the timeouts and pending triggers
 				timer.shutdownNow();
 
-				// clear and discard all pending checkpoints
+				// clear and discard all pending checkpoints. Checkpoints that are being finalized
+				// discard themselves once they see the shutdown
 				for (PendingCheckpoint pending : pendingCheckpoints.values()) {
-					pending.abortError(new Exception("Checkpoint Coordinator is shutting down"));
+					if (!pending.isFinalizing()) {
+						pending.abortError(new Exception("Checkpoint Coordinator is shutting down"));
+					}
 				}
 				pendingCheckpoints.clear();
 
-				completedCheckpointStore.shutdown(jobStatus);
+				synchronized (storeLock) {
+					completedCheckpointStore.shutdown(jobStatus);
+				}
 				checkpointIdCounter.shutdown(jobStatus);
 			}
 		}
@@ -587,7 +650,8 @@ public class CheckpointCoordinator {
 					synchronized (lock) {
 						// only do the work if the checkpoint is not discarded anyways
 						// note that checkpoint completion discards the pending checkpoint object
-						if (!checkpoint.isDiscarded()) {
+						// and that fully acknowledged checkpoints are not aborted while being finalized
+						if (!checkpoint.isDiscarded() && !checkpoint.isFinalizing()) {
 							LOG.info("Checkpoint " + checkpointID + " expired before completing.");
 
 							checkpoint.abortExpired();
@@ -689,7 +753,7 @@ public class CheckpointCoordinator {
 				LOG.warn("Failed to trigger checkpoint {}. ({} consecutive failed attempts so far)",
 						checkpointID, numUnsuccessful, t);
 
-				if (!checkpoint.isDiscarded()) {
+				if (!checkpoint.isDiscarded() && !checkpoint.isFinalizing()) {
 					checkpoint.abortError(new Exception("Failed to trigger checkpoint", t));
 				}
 				return new CheckpointTriggerResult(CheckpointDeclineReason.EXCEPTION);
@@ -726,7 +790,12 @@ public class CheckpointCoordinator {
 
 			checkpoint = pendingCheckpoints.get(checkpointId);
 
-			if (checkpoint != null && !checkpoint.isDiscarded()) {
+			if (checkpoint != null && checkpoint.isFinalizing()) {
+				// all tasks acknowledged the checkpoint already, it is not aborted while being finalized
+				LOG.debug("Ignoring decline of checkpoint {} from task {}, since it is being finalized.",
+						checkpointId, message.getTaskExecutionId());
+			}
+			else if (checkpoint != null && !checkpoint.isDiscarded()) {
 				LOG.info("Discarding checkpoint {} because of checkpoint decline from task {} : {}",
 						checkpointId, message.getTaskExecutionId(), reason);
 
@@ -791,7 +860,8 @@ public class CheckpointCoordinator {
 		}
 
 		final long checkpointId = message.getCheckpointId();
-		
+		final PendingCheckpoint checkpoint;
+
 		synchronized (lock) {
 			// we need to check inside the lock for being shutdown as well, otherwise we
 			// get races and invalid error log messages
@@ -799,49 +869,15 @@ public class CheckpointCoordinator {
 				return false;
 			}
 
-			final PendingCheckpoint checkpoint = pendingCheckpoints.get(checkpointId);
-
-			if (checkpoint != null && !checkpoint.isDiscarded()) {
-
-				switch (checkpoint.acknowledgeTask(message.getTaskExecutionId(), message.getSubtaskState(), message.getCheckpointMetrics())) {
-					case SUCCESS:
-						LOG.debug("Received acknowledge message for checkpoint {} from task {} of job {}.",
-							checkpointId, message.getTaskExecutionId(), message.getJob());
-
-						if (checkpoint.isFullyAcknowledged()) {
-							completePendingCheckpoint(checkpoint);
-						}
-						break;
-					case DUPLICATE:
-						LOG.debug("Received a duplicate acknowledge message for checkpoint {}, task {}, job {}.",
-							message.getCheckpointId(), message.getTaskExecutionId(), message.getJob());
-						break;
-					case UNKNOWN:
-						LOG.warn("Could not acknowledge the checkpoint {} for task {} of job {}, " +
-								"because the task's execution attempt id was unknown. Discarding " +
-								"the state handle to avoid lingering state.", message.getCheckpointId(),
-							message.getTaskExecutionId(), message.getJob());
-
-						discardSubtaskState(message.getJob(), message.getTaskExecutionId(), message.getCheckpointId(), message.getSubtaskState());
-
-						break;
-					case DISCARDED:
-						LOG.warn("Could not acknowledge the checkpoint {} for task {} of job {}, " +
-							"because the pending checkpoint had been discarded. Discarding the " +
-								"state handle tp avoid lingering state.",
-							message.getCheckpointId(), message.getTaskExecutionId(), message.getJob());
-
-						discardSubtaskState(message.getJob(), message.getTaskExecutionId(), message.getCheckpointId(), message.getSubtaskState());
-				}
+			checkpoint = pendingCheckpoints.get(checkpointId);
 
-				return true;
-			}
-			else if (checkpoint != null) {
+			// a finalized checkpoint is discarded, but stays registered until its completion is done
+			if (checkpoint != null && checkpoint.isDiscarded() && !checkpoint.isFinalizing()) {
 				// this should not happen
 				throw new IllegalStateException(
 						"Received message for discarded but non-removed checkpoint " + checkpointId);
 			}
-			else {
+			else if (checkpoint == null) {
 				boolean wasPendingCheckpoint;
 
 				// message is for an unknown checkpoint, or comes too late (checkpoint disposed)
@@ -862,12 +898,83 @@ public class CheckpointCoordinator {
 				return wasPendingCheckpoint;
 			}
 		}
+
+		// the acknowledgements are aggregated outside the coordinator-wide lock. The pending
+		// checkpoint synchronizes them itself, so that acknowledgements of different checkpoints
+		// do not contend with each other, nor with triggering and declining checkpoints.
+		switch (checkpoint.acknowledgeTask(message.getTaskExecutionId(), message.getSubtaskState(), message.getCheckpointMetrics())) {
+			case SUCCESS:
+				LOG.debug("Received acknowledge message for checkpoint {} from task {} of job {}.",
+					checkpointId, message.getTaskExecutionId(), message.getJob());
+
+				if (checkpoint.markAsFinalizing()) {
+					completePendingCheckpointAsync(checkpoint);
+				}
+				break;
+			case DUPLICATE:
+				LOG.debug("Received a duplicate acknowledge message for checkpoint {}, task {}, job {}.",
+					message.getCheckpointId(), message.getTaskExecutionId(), message.getJob());
+				break;
+			case UNKNOWN:
+				LOG.warn("Could not acknowledge the checkpoint {} for task {} of job {}, " +
+						"because the task's execution attempt id was unknown. Discarding " +
+						"the state handle to avoid lingering state.", message.getCheckpointId(),
+					message.getTaskExecutionId(), message.getJob());
+
+				discardSubtaskState(message.getJob(), message.getTaskExecutionId(), message.getCheckpointId(), message.getSubtaskState());
+
+				break;
+			case DISCARDED:
+				LOG.warn("Could not acknowledge the checkpoint {} for task {} of job {}, " +
+					"because the pending checkpoint had been discarded. Discarding the " +
+						"state handle tp avoid lingering state.",
+					message.getCheckpointId(), message.getTaskExecutionId(), message.getJob());
+
+				discardSubtaskState(message.getJob(), message.getTaskExecutionId(), message.getCheckpointId(), message.getSubtaskState());
+		}
+
+		return true;
+	}
+
+	/**
+	 * Completes the fully acknowledged checkpoint on the I/O executor, since writing its metadata,
+	 * adding it to the completed checkpoint store, and discarding subsumed checkpoints may block.
+	 */
+	private void completePendingCheckpointAsync(final PendingCheckpoint pendingCheckpoint) {
+		executor.execute(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					completePendingCheckpoint(pendingCheckpoint);
+				} catch (Throwable t) {
+					LOG.warn("Error while completing checkpoint {} of job {}.", pendingCheckpoint.getCheckpointId(), job, t);
+				}
+			}
+		});
+	}
+
+	private void discardCompletedCheckpoint(final CompletedCheckpoint completedCheckpoint) {
+		stateDisposalService.execute(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					completedCheckpoint.discardOnFailedStoring();
+				} catch (Throwable t) {
+					LOG.warn("Could not properly discard completed checkpoint {}.", completedCheckpoint.getCheckpointID(), t);
+				}
+			}
+		});
 	}
 
 	/**
 	 * Try to complete the given pending checkpoint.
 	 *
-	 * Important: This method should only be called in the checkpoint lock scope.
+	 * Important: This method must not be called in the checkpoint lock scope, since it
+	 * acquires the lock only for updating the coordinator's bookkeeping.
+	 *
+	 * <p>The pending checkpoint is marked as finalizing and hence is not aborted concurrently,
+	 * except by this method. If the checkpoint scheduler was stopped or the coordinator was shut
+	 * down in the meantime, the checkpoint is discarded instead of being registered or stored.
 	 *
 	 * @param pendingCheckpoint to complete
 	 * @throws CheckpointException if the completion failed
@@ -878,7 +985,17 @@ public class CheckpointCoordinator {
 
 		// As a first step to complete the checkpoint, we register its state with the registry
 		Map<OperatorID, OperatorState> operatorStates = pendingCheckpoint.getOperatorStates();
-		sharedStateRegistry.registerAll(operatorStates.values());
+		synchronized (lock) {
+			// the checkpoint is no longer pending if the scheduler was stopped or the coordinator shut down
+			if (shutdown || pendingCheckpoints.get(checkpointId) != pendingCheckpoint) {
+				final Exception cause = new Exception("The checkpoint was abandoned before it could be finalized.");
+				pendingCheckpoint.abortError(cause);
+
+				throw new CheckpointException("Could not complete the pending checkpoint " + checkpointId + '.', cause);
+			}
+
+			sharedStateRegistry.registerAll(operatorStates.values());
+		}
 
 		try {
 			try {
@@ -902,38 +1019,60 @@ public class CheckpointCoordinator {
 
 			// TODO: add savepoints to completed checkpoint store once FLINK-4815 has been completed
 			if (!completedCheckpoint.getProperties().isSavepoint()) {
-				try {
-					completedCheckpointStore.addCheckpoint(completedCheckpoint);
-				} catch (Exception exception) {
-					// we failed to store the completed checkpoint. Let's clean up
-					executor.execute(new Runnable() {
-						@Override
-						public void run() {
-							try {
-								completedCheckpoint.discardOnFailedStoring();
-							} catch (Throwable t) {
-								LOG.warn("Could not properly discard completed checkpoint {}.", completedCheckpoint.getCheckpointID(), t);
-							}
-						}
-					});
+				synchronized (storeLock) {
+					// checkpoints are finalized concurrently, a newer one may have been stored already
+					final String discardReason;
+					if (shutdown) {
+						discardReason = "the checkpoint coordinator is shut down.";
+					} else if (checkpointId < minStorableCheckpointId) {
+						discardReason = "the checkpoint scheduler was stopped while it was being finalized.";
+					} else if (checkpointId < latestStoredCheckpointId) {
+						discardReason = "it has been subsumed by checkpoint " + latestStoredCheckpointId + " while being finalized.";
+					} else {
+						discardReason = null;
+					}
+
+					if (discardReason != null) {
+						discardCompletedCheckpoint(completedCheckpoint);
+
+						throw new CheckpointException("Could not complete the pending checkpoint " + checkpointId +
+							", since " + discardReason);
+					}
+
+					completedCheckpoint.setDisposalService(stateDisposalService);
+
+					try {
+						completedCheckpointStore.addCheckpoint(completedCheckpoint);
+					} catch (Exception exception) {
+						// we failed to store the completed checkpoint. Let's clean up
+						discardCompletedCheckpoint(completedCheckpoint);
+
+						throw new CheckpointException("Could not complete the pending checkpoint " + checkpointId + '.', exception);
+					}
 
-					throw new CheckpointException("Could not complete the pending checkpoint " + checkpointId + '.', exception);
+					latestStoredCheckpointId = checkpointId;
 				}
 
 				// drop those pending checkpoints that are at prior to the completed one
-				dropSubsumedCheckpoints(checkpointId);
+				synchronized (lock) {
+					dropSubsumedCheckpoints(checkpointId);
+				}
 			}
 		} finally {
-			pendingCheckpoints.remove(checkpointId);
+			synchronized (lock) {
+				pendingCheckpoints.remove(checkpointId);
 
-			triggerQueuedRequests();
+				triggerQueuedRequests();
+			}
 		}
-		
-		rememberRecentCheckpointId(checkpointId);
 
-		// record the time when this was completed, to calculate
-		// the 'min delay between checkpoints'
-		lastCheckpointCompletionNanos = System.nanoTime();
+		synchronized (lock) {
+			rememberRecentCheckpointId(checkpointId);
+
+			// record the time when this was completed, to calculate
+			// the 'min delay between checkpoints'
+			lastCheckpointCompletionNanos = System.nanoTime();
+		}
 
 		LOG.info("Completed checkpoint {} ({} bytes in {} ms).", checkpointId,
 			completedCheckpoint.getStateSize(), completedCheckpoint.getDuration());
@@ -975,7 +1114,8 @@ public class CheckpointCoordinator {
 		while (entries.hasNext()) {
 			PendingCheckpoint p = entries.next().getValue();
 			// remove all pending checkpoints that are lesser than the current completed checkpoint
-			if (p.getCheckpointId() < checkpointId && p.canBeSubsumed()) {
+			// a checkpoint that is being finalized is discarded when it is found to be subsumed
+			if (p.getCheckpointId() < checkpointId && p.canBeSubsumed() && !p.isFinalizing()) {
 				rememberRecentCheckpointId(p.getCheckpointId());
 				p.abortSubsumed();
 				entries.remove();
@@ -1053,20 +1193,29 @@ public class CheckpointCoordinator {
 			// runs will go against the old object (were they can do no harm).
 			// This must happen under the checkpoint lock.
 			sharedStateRegistry.close();
-			sharedStateRegistry = sharedStateRegistryFactory.create(executor);
+			sharedStateRegistry = sharedStateRegistryFactory.create(stateDisposalService);
 
-			// Recover the checkpoints, TODO this could be done only when there is a new leader, not on each recovery
-			completedCheckpointStore.recover();
+			final CompletedCheckpoint latest;
 
-			// Now, we re-register all (shared) states from the checkpoint store with the new registry
-			for (CompletedCheckpoint completedCheckpoint : completedCheckpointStore.getAllCheckpoints()) {
-				completedCheckpoint.registerSharedStatesAfterRestored(sharedStateRegistry);
-			}
+			synchronized (storeLock) {
+				// Recover the checkpoints, TODO this could be done only when there is a new leader, not on each recovery
+				completedCheckpointStore.recover();
+
+				// Now, we re-register all (shared) states from the checkpoint store with the new registry
+				for (CompletedCheckpoint completedCheckpoint : completedCheckpointStore.getAllCheckpoints()) {
+					completedCheckpoint.registerSharedStatesAfterRestored(sharedStateRegistry);
+					completedCheckpoint.setDisposalService(stateDisposalService);
+				}
 
-			LOG.debug("Status of the shared state registry after restore: {}.", sharedStateRegistry);
+				LOG.debug("Status of the shared state registry after restore: {}.", sharedStateRegistry);
 
-			// Restore from the latest checkpoint
-			CompletedCheckpoint latest = completedCheckpointStore.getLatestCheckpoint();
+				// Restore from the latest checkpoint
+				latest = completedCheckpointStore.getLatestCheckpoint();
+
+				if (latest != null) {
+					latestStoredCheckpointId = Math.max(latestStoredCheckpointId, latest.getCheckpointID());
+				}
+			}
 
 			if (latest == null) {
 				if (errorIfNoCheckpoint) {
@@ -1112,6 +1261,54 @@ public class CheckpointCoordinator {
 		}
 	}
 
+	/**
+	 * Restores the latest checkpointed state for a subset of the execution vertices, for example
+	 * when only a region of the job is restarted after a failure.
+	 *
+	 * <p>In contrast to {@link #restoreLatestCheckpointedState(Map, boolean, boolean)}, this neither
+	 * recovers the completed checkpoint store nor restores the master hooks, since the rest of the
+	 * job keeps running on the current state.
+	 *
+	 * @param tasks Map of job vertices to restore. The state is only assigned to the current
+	 * execution attempts of the given vertices.
+	 * @param verticesToRestore The execution vertices whose state is restored.
+	 * @param allowNonRestoredState Allow checkpoint state that cannot be mapped
+	 * to any job vertex in tasks.
+	 * @return The ID of the restored checkpoint, or -1 if no completed checkpoint is available.
+	 * @throws IllegalStateException If the CheckpointCoordinator is shut down.
+	 */
+	public long restoreLatestCheckpointedState(
+			Map<JobVertexID, ExecutionJobVertex> tasks,
+			Set<ExecutionVertex> verticesToRestore,
+			boolean allowNonRestoredState) throws Exception {
+
+		checkNotNull(verticesToRestore);
+
+		synchronized (lock) {
+			if (shutdown) {
+				throw new IllegalStateException("CheckpointCoordinator is shut down");
+			}
+
+			final CompletedCheckpoint latest;
+			synchronized (storeLock) {
+				latest = completedCheckpointStore.getLatestCheckpoint();
+			}
+
+			if (latest == null) {
+				return -1L;
+			}
+
+			LOG.info("Restoring {} tasks from latest valid checkpoint: {}.", verticesToRestore.size(), latest);
+
+			StateAssignmentOperation stateAssignmentOperation = new StateAssignmentOperation(
+				tasks, latest.getOperatorStates(), allowNonRestoredState, verticesToRestore);
+
+			stateAssignmentOperation.assignStates();
+
+			return latest.getCheckpointID();
+		}
+	}
+
 	/**
 	 * Restore the state with given savepoint
 	 * 
@@ -1139,7 +1336,10 @@ public class CheckpointCoordinator {
 		CompletedCheckpoint savepoint = SavepointLoader.loadAndValidateSavepoint(
 				job, tasks, savepointPath, userClassLoader, allowNonRestored);
 
-		completedCheckpointStore.addCheckpoint(savepoint);
+		synchronized (storeLock) {
+			completedCheckpointStore.addCheckpoint(savepoint);
+			latestStoredCheckpointId = savepoint.getCheckpointID();
+		}
 		
 		// Reset the checkpoint ID counter
 		long nextCheckpointId = savepoint.getCheckpointID() + 1;
@@ -1159,7 +1359,7 @@ public class CheckpointCoordinator {
 	}
 
 	public int getNumberOfRetainedSuccessfulCheckpoints() {
-		synchronized (lock) {
+		synchronized (storeLock) {
 			return completedCheckpointStore.getNumberOfRetainedCheckpoints();
 		}
 	}
@@ -1171,15 +1371,31 @@ public class CheckpointCoordinator {
 	}
 
 	public List<CompletedCheckpoint> getSuccessfulCheckpoints() throws Exception {
-		synchronized (lock) {
+		synchronized (storeLock) {
 			return completedCheckpointStore.getAllCheckpoints();
 		}
 	}
 
+	/**
+	 * Returns the ID of the latest checkpoint in the completed checkpoint store.
+	 *
+	 * @return The ID of the latest completed checkpoint, or -1 if there is none.
+	 */
+	public long getLatestCompletedCheckpointId() throws Exception {
+		synchronized (storeLock) {
+			final CompletedCheckpoint latest = completedCheckpointStore.getLatestCheckpoint();
+			return latest != null ? latest.getCheckpointID() : -1L;
+		}
+	}
+
 	public CompletedCheckpointStore getCheckpointStore() {
 		return completedCheckpointStore;
 	}
 
+	public StateDisposalService getStateDisposalService() {
+		return stateDisposalService;
+	}
+
 	public CheckpointIDCounter getCheckpointIdCounter() {
 		return checkpointIdCounter;
 	}
@@ -1218,8 +1434,21 @@ public class CheckpointCoordinator {
 				currentPeriodicTrigger = null;
 			}
 
+			long maxFinalizingCheckpointId = -1L;
+
 			for (PendingCheckpoint p : pendingCheckpoints.values()) {
-				p.abortError(new Exception("Checkpoint Coordinator is suspending."));
+				if (p.isFinalizing()) {
+					// the finalization discards the checkpoint instead of storing it
+					maxFinalizingCheckpointId = Math.max(maxFinalizingCheckpointId, p.getCheckpointId());
+				} else {
+					p.abortError(new Exception("Checkpoint Coordinator is suspending."));
+				}
+			}
+
+			if (maxFinalizingCheckpointId >= 0) {
+				synchronized (storeLock) {
+					minStorableCheckpointId = Math.max(minStorableCheckpointId, maxFinalizingCheckpointId + 1);
+				}
 			}
 
 			pendingCheckpoints.clear();
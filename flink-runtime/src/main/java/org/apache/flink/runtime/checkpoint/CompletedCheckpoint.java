@@ -19,11 +19,20 @@
 package org.apache.flink.runtime.checkpoint;
 
 import org.apache.flink.api.common.JobID;
+import org.apache.flink.core.fs.Path;
+import org.apache.flink.runtime.concurrent.FutureUtils;
 import org.apache.flink.runtime.jobgraph.JobStatus;
 import org.apache.flink.runtime.jobgraph.OperatorID;
+import org.apache.flink.runtime.state.KeyGroupsStateHandle;
+import org.apache.flink.runtime.state.KeyedStateHandle;
+import org.apache.flink.runtime.state.OperatorStateHandle;
 import org.apache.flink.runtime.state.SharedStateRegistry;
+import org.apache.flink.runtime.state.StateDisposalService;
 import org.apache.flink.runtime.state.StateUtil;
 import org.apache.flink.runtime.state.StreamStateHandle;
+import org.apache.flink.runtime.state.filesystem.FileStateHandle;
+import org.apache.flink.runtime.state.filesystem.FsCheckpointStreamFactory;
+import org.apache.flink.runtime.state.memory.ByteStreamStateHandle;
 import org.apache.flink.util.ExceptionUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -34,7 +43,9 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import static org.apache.flink.util.Preconditions.checkArgument;
 import static org.apache.flink.util.Preconditions.checkNotNull;
@@ -112,6 +123,10 @@ public class CompletedCheckpoint implements Serializable {
 	@Nullable
 	private transient volatile CompletedCheckpointStats.DiscardCallback discardCallback;
 
+	/** Optional service that disposes the state of this checkpoint when it is subsumed. */
+	@Nullable
+	private transient volatile StateDisposalService disposalService;
+
 	// ------------------------------------------------------------------------
 
 	public CompletedCheckpoint(
@@ -181,7 +196,13 @@ public class CompletedCheckpoint implements Serializable {
 	public boolean discardOnSubsume() throws Exception {
 
 		if (props.discardOnSubsumed()) {
-			doDiscard();
+			// to be null-pointer safe, copy reference to stack
+			StateDisposalService disposalService = this.disposalService;
+			if (disposalService != null) {
+				doDiscardAsync(disposalService);
+			} else {
+				doDiscard();
+			}
 			return true;
 		}
 
@@ -245,6 +266,105 @@ public class CompletedCheckpoint implements Serializable {
 		}
 	}
 
+	private void doDiscardAsync(StateDisposalService disposalService) {
+
+		LOG.trace("Scheduling discard procedure for {}.", this);
+
+		final List<CompletableFuture<Void>> disposalFutures = new ArrayList<>();
+
+		try {
+			if (externalizedMetadata != null) {
+				disposalFutures.add(disposalService.discard(externalizedMetadata));
+			}
+
+			final Path checkpointDirectory = getExclusiveCheckpointDirectory();
+			if (checkpointDirectory != null) {
+				// all files of this checkpoint are in its own directory, so we delete them at once
+				disposalFutures.add(disposalService.deleteDirectory(checkpointDirectory));
+			} else {
+				for (OperatorState operatorState : operatorStates.values()) {
+					for (OperatorSubtaskState subtaskState : operatorState.getStates()) {
+						disposalFutures.add(disposalService.discard(subtaskState));
+					}
+				}
+			}
+		} finally {
+			operatorStates.clear();
+
+			// the checkpoint counts as discarded once all of its queued disposals have run
+			FutureUtils.waitForAll(disposalFutures).whenComplete(
+				(Void ignored, Throwable throwable) -> {
+					// to be null-pointer safe, copy reference to stack
+					CompletedCheckpointStats.DiscardCallback discardCallback = this.discardCallback;
+					if (discardCallback != null) {
+						discardCallback.notifyDiscardedCheckpoint();
+					}
+				});
+		}
+	}
+
+	/**
+	 * Returns the directory that holds the state files of this checkpoint, if the checkpoint
+	 * owns the directory exclusively. That is the case if all state of this checkpoint is either
+	 * stored with the metadata, or in files directly in the checkpoint's own directory (as
+	 * created by the {@link FsCheckpointStreamFactory}), and none of it is shared with other
+	 * checkpoints.
+	 *
+	 * @return The checkpoint's own directory, or null, if the checkpoint does not exclusively own one.
+	 */
+	@Nullable
+	private Path getExclusiveCheckpointDirectory() {
+		final List<StreamStateHandle> stateHandles = new ArrayList<>();
+
+		for (OperatorState operatorState : operatorStates.values()) {
+			for (OperatorSubtaskState subtaskState : operatorState.getStates()) {
+				for (OperatorStateHandle stateHandle : subtaskState.getManagedOperatorState()) {
+					stateHandles.add(stateHandle.getDelegateStateHandle());
+				}
+				for (OperatorStateHandle stateHandle : subtaskState.getRawOperatorState()) {
+					stateHandles.add(stateHandle.getDelegateStateHandle());
+				}
+
+				for (KeyedStateHandle stateHandle : subtaskState.getManagedKeyedState()) {
+					if (!(stateHandle instanceof KeyGroupsStateHandle)) {
+						// for example incremental state, which shares files with other checkpoints
+						return null;
+					}
+					stateHandles.add(((KeyGroupsStateHandle) stateHandle).getDelegateStateHandle());
+				}
+				for (KeyedStateHandle stateHandle : subtaskState.getRawKeyedState()) {
+					if (!(stateHandle instanceof KeyGroupsStateHandle)) {
+						return null;
+					}
+					stateHandles.add(((KeyGroupsStateHandle) stateHandle).getDelegateStateHandle());
+				}
+			}
+		}
+
+		Path directory = null;
+
+		for (StreamStateHandle stateHandle : stateHandles) {
+			if (stateHandle instanceof FileStateHandle) {
+				final Path parent = ((FileStateHandle) stateHandle).getFilePath().getParent();
+
+				if (directory == null) {
+					directory = parent;
+				} else if (!directory.equals(parent)) {
+					return null;
+				}
+			} else if (!(stateHandle instanceof ByteStreamStateHandle)) {
+				return null;
+			}
+		}
+
+		if (directory != null &&
+				directory.getName().equals(FsCheckpointStreamFactory.CHECKPOINT_DIR_PREFIX + checkpointID)) {
+			return directory;
+		} else {
+			return null;
+		}
+	}
+
 	public long getStateSize() {
 		long result = 0L;
 
@@ -286,6 +406,16 @@ public class CompletedCheckpoint implements Serializable {
 		this.discardCallback = discardCallback;
 	}
 
+	/**
+	 * Sets the service that disposes the state of this checkpoint asynchronously when it is
+	 * subsumed. If no service is set, the state is disposed in the calling thread.
+	 *
+	 * @param disposalService Service to dispose the state of this checkpoint.
+	 */
+	void setDisposalService(@Nullable StateDisposalService disposalService) {
+		this.disposalService = disposalService;
+	}
+
 	/**
 	 * Register all shared states in the given registry. This is method is called
 	 * before the checkpoint is added into the store.
@@ -24,6 +24,7 @@ import org.apache.flink.runtime.state.OperatorStateHandle;
 import org.apache.flink.runtime.state.SharedStateRegistry;
 import org.apache.flink.runtime.state.StateObject;
 import org.apache.flink.runtime.state.StateUtil;
+import org.apache.flink.runtime.state.filesystem.FileSegmentStateHandle;
 import org.apache.flink.util.Preconditions;
 
 import org.slf4j.Logger;
@@ -214,6 +215,10 @@ public class OperatorSubtaskState implements CompositeStateHandle {
 	public void registerSharedStates(SharedStateRegistry sharedStateRegistry) {
 		registerSharedState(sharedStateRegistry, managedKeyedState);
 		registerSharedState(sharedStateRegistry, rawKeyedState);
+
+		// operator state handles are no composite state handles, but may still be segments of shared files
+		registerSharedFiles(sharedStateRegistry, managedOperatorState);
+		registerSharedFiles(sharedStateRegistry, rawOperatorState);
 	}
 
 	private static void registerSharedState(
@@ -226,6 +231,16 @@ public class OperatorSubtaskState implements CompositeStateHandle {
 		}
 	}
 
+	private static void registerSharedFiles(
+		SharedStateRegistry sharedStateRegistry,
+		Iterable<OperatorStateHandle> stateHandles) {
+		for (OperatorStateHandle stateHandle : stateHandles) {
+			if (stateHandle != null) {
+				FileSegmentStateHandle.registerSharedFile(stateHandle.getDelegateStateHandle(), sharedStateRegistry);
+			}
+		}
+	}
+
 	@Override
 	public long getStateSize() {
 		return stateSize;
@@ -111,6 +111,9 @@ public class PendingCheckpoint {
 
 	private boolean discarded;
 
+	/** Flag indicating whether the fully acknowledged checkpoint is being finalized. */
+	private volatile boolean finalizing;
+
 	/** Optional stats tracker callback. */
 	@Nullable
 	private PendingCheckpointStats statsCallback;
@@ -188,6 +191,27 @@ public class PendingCheckpoint {
 		return discarded;
 	}
 
+	public boolean isFinalizing() {
+		return finalizing;
+	}
+
+	/**
+	 * Marks the fully acknowledged checkpoint as being finalized. Only the first call after the
+	 * last acknowledgement succeeds, so that concurrent acknowledgements finalize the checkpoint once.
+	 *
+	 * @return True, if the caller should finalize the checkpoint, false otherwise.
+	 */
+	boolean markAsFinalizing() {
+		synchronized (lock) {
+			if (finalizing || !isFullyAcknowledged()) {
+				return false;
+			}
+
+			finalizing = true;
+			return true;
+		}
+	}
+
 	/**
 	 * Checks whether this checkpoint can be subsumed or whether it should always continue, regardless
 	 * of newer checkpoints in progress.
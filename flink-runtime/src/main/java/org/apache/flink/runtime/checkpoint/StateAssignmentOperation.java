@@ -21,6 +21,7 @@ package org.apache.flink.runtime.checkpoint;
 import org.apache.flink.api.java.tuple.Tuple2;
 import org.apache.flink.runtime.executiongraph.Execution;
 import org.apache.flink.runtime.executiongraph.ExecutionJobVertex;
+import org.apache.flink.runtime.executiongraph.ExecutionVertex;
 import org.apache.flink.runtime.jobgraph.JobVertexID;
 import org.apache.flink.runtime.jobgraph.OperatorID;
 import org.apache.flink.runtime.state.KeyGroupRange;
@@ -33,6 +34,8 @@ import org.apache.flink.util.Preconditions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
+
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -53,14 +56,28 @@ public class StateAssignmentOperation {
 	private final Map<OperatorID, OperatorState> operatorStates;
 	private final boolean allowNonRestoredState;
 
+	/** The execution vertices whose state is assigned, null to assign the state of all vertices. */
+	@Nullable
+	private final Set<ExecutionVertex> verticesToRestore;
+
 	public StateAssignmentOperation(
 			Map<JobVertexID, ExecutionJobVertex> tasks,
 			Map<OperatorID, OperatorState> operatorStates,
 			boolean allowNonRestoredState) {
 
+		this(tasks, operatorStates, allowNonRestoredState, null);
+	}
+
+	public StateAssignmentOperation(
+			Map<JobVertexID, ExecutionJobVertex> tasks,
+			Map<OperatorID, OperatorState> operatorStates,
+			boolean allowNonRestoredState,
+			@Nullable Set<ExecutionVertex> verticesToRestore) {
+
 		this.tasks = Preconditions.checkNotNull(tasks);
 		this.operatorStates = Preconditions.checkNotNull(operatorStates);
 		this.allowNonRestoredState = allowNonRestoredState;
+		this.verticesToRestore = verticesToRestore;
 	}
 
 	public boolean assignStates() throws Exception {
@@ -158,8 +175,13 @@ public class StateAssignmentOperation {
 		 */
 		for (int subTaskIndex = 0; subTaskIndex < newParallelism; subTaskIndex++) {
 
-			Execution currentExecutionAttempt = executionJobVertex.getTaskVertices()[subTaskIndex]
-				.getCurrentExecutionAttempt();
+			ExecutionVertex executionVertex = executionJobVertex.getTaskVertices()[subTaskIndex];
+
+			if (verticesToRestore != null && !verticesToRestore.contains(executionVertex)) {
+				continue;
+			}
+
+			Execution currentExecutionAttempt = executionVertex.getCurrentExecutionAttempt();
 
 			Tuple2<Collection<KeyedStateHandle>, Collection<KeyedStateHandle>> subKeyedState = null;
 
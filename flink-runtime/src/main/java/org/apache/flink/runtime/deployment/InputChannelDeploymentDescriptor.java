@@ -88,12 +88,27 @@ public class InputChannelDeploymentDescriptor implements Serializable {
 			SimpleSlot consumerSlot,
 			boolean allowLazyDeployment) throws ExecutionGraphException {
 
+		final IntermediateResultPartition[] partitions = new IntermediateResultPartition[edges.length];
+		for (int i = 0; i < edges.length; i++) {
+			partitions[i] = edges[i].getSource();
+		}
+
+		return fromPartitions(partitions, consumerSlot, allowLazyDeployment);
+	}
+
+	/**
+	 * Creates an input channel deployment descriptor for each consumed partition.
+	 */
+	public static InputChannelDeploymentDescriptor[] fromPartitions(
+			IntermediateResultPartition[] partitions,
+			SimpleSlot consumerSlot,
+			boolean allowLazyDeployment) throws ExecutionGraphException {
+
 		final ResourceID consumerTaskManager = consumerSlot.getTaskManagerID();
-		final InputChannelDeploymentDescriptor[] icdd = new InputChannelDeploymentDescriptor[edges.length];
+		final InputChannelDeploymentDescriptor[] icdd = new InputChannelDeploymentDescriptor[partitions.length];
 
-		// Each edge is connected to a different result partition
-		for (int i = 0; i < edges.length; i++) {
-			final IntermediateResultPartition consumedPartition = edges[i].getSource();
+		for (int i = 0; i < partitions.length; i++) {
+			final IntermediateResultPartition consumedPartition = partitions[i];
 			final Execution producer = consumedPartition.getProducer().getCurrentExecutionAttempt();
 
 			final ExecutionState producerState = producer.getState();
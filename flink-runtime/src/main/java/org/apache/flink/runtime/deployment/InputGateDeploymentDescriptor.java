@@ -18,6 +18,7 @@
 
 package org.apache.flink.runtime.deployment;
 
+import org.apache.flink.runtime.io.network.partition.ResultPartitionProvider;
 import org.apache.flink.runtime.io.network.partition.ResultPartitionType;
 import org.apache.flink.runtime.io.network.partition.consumer.SingleInputGate;
 import org.apache.flink.runtime.jobgraph.DistributionPattern;
@@ -59,12 +60,29 @@ public class InputGateDeploymentDescriptor implements Serializable {
 	/** An input channel for each consumed subpartition. */
 	private final InputChannelDeploymentDescriptor[] inputChannels;
 
+	/**
+	 * The checkpoint which the consuming task restores, if it replaces a failed consumer and the
+	 * producers replay the data following the barrier of that checkpoint.
+	 */
+	private final long replayFromCheckpointId;
+
 	public InputGateDeploymentDescriptor(
 			IntermediateDataSetID consumedResultId,
 			ResultPartitionType consumedPartitionType,
 			int consumedSubpartitionIndex,
 			InputChannelDeploymentDescriptor[] inputChannels) {
 
+		this(consumedResultId, consumedPartitionType, consumedSubpartitionIndex, inputChannels,
+			ResultPartitionProvider.NO_REPLAY);
+	}
+
+	public InputGateDeploymentDescriptor(
+			IntermediateDataSetID consumedResultId,
+			ResultPartitionType consumedPartitionType,
+			int consumedSubpartitionIndex,
+			InputChannelDeploymentDescriptor[] inputChannels,
+			long replayFromCheckpointId) {
+
 		this.consumedResultId = checkNotNull(consumedResultId);
 		this.consumedPartitionType = checkNotNull(consumedPartitionType);
 
@@ -72,6 +90,7 @@ public class InputGateDeploymentDescriptor implements Serializable {
 		this.consumedSubpartitionIndex = consumedSubpartitionIndex;
 
 		this.inputChannels = checkNotNull(inputChannels);
+		this.replayFromCheckpointId = replayFromCheckpointId;
 	}
 
 	public IntermediateDataSetID getConsumedResultId() {
@@ -95,6 +114,17 @@ public class InputGateDeploymentDescriptor implements Serializable {
 		return inputChannels;
 	}
 
+	/**
+	 * Returns the checkpoint after whose barrier the producers replay the consumed subpartitions,
+	 * if they have been consumed by a failed consumer before.
+	 *
+	 * @return The checkpoint to replay from, -1 for the start of the data, or
+	 * {@link ResultPartitionProvider#NO_REPLAY}
+	 */
+	public long getReplayFromCheckpointId() {
+		return replayFromCheckpointId;
+	}
+
 	@Override
 	public String toString() {
 		return String.format("InputGateDeploymentDescriptor [result id: %s, " +
@@ -57,6 +57,9 @@ public class ResultPartitionDeploymentDescriptor implements Serializable {
 	/** Flag whether the result partition should send scheduleOrUpdateConsumer messages. */
 	private final boolean sendScheduleOrUpdateConsumersMessage;
 
+	/** Flag whether the result partition should retain consumed buffers to replay them to restarted consumers. */
+	private final boolean retainBuffersForReplay;
+
 	public ResultPartitionDeploymentDescriptor(
 			IntermediateDataSetID resultId,
 			IntermediateResultPartitionID partitionId,
@@ -65,6 +68,18 @@ public class ResultPartitionDeploymentDescriptor implements Serializable {
 			int maxParallelism,
 			boolean lazyScheduling) {
 
+		this(resultId, partitionId, partitionType, numberOfSubpartitions, maxParallelism, lazyScheduling, false);
+	}
+
+	public ResultPartitionDeploymentDescriptor(
+			IntermediateDataSetID resultId,
+			IntermediateResultPartitionID partitionId,
+			ResultPartitionType partitionType,
+			int numberOfSubpartitions,
+			int maxParallelism,
+			boolean lazyScheduling,
+			boolean retainBuffersForReplay) {
+
 		this.resultId = checkNotNull(resultId);
 		this.partitionId = checkNotNull(partitionId);
 		this.partitionType = checkNotNull(partitionType);
@@ -74,6 +89,7 @@ public class ResultPartitionDeploymentDescriptor implements Serializable {
 		this.numberOfSubpartitions = numberOfSubpartitions;
 		this.maxParallelism = maxParallelism;
 		this.sendScheduleOrUpdateConsumersMessage = lazyScheduling;
+		this.retainBuffersForReplay = retainBuffersForReplay && partitionType.isPipelined();
 	}
 
 	public IntermediateDataSetID getResultId() {
@@ -100,6 +116,10 @@ public class ResultPartitionDeploymentDescriptor implements Serializable {
 		return sendScheduleOrUpdateConsumersMessage;
 	}
 
+	public boolean retainBuffersForReplay() {
+		return retainBuffersForReplay;
+	}
+
 	@Override
 	public String toString() {
 		return String.format("ResultPartitionDeploymentDescriptor [result id: %s, "
@@ -112,6 +132,15 @@ public class ResultPartitionDeploymentDescriptor implements Serializable {
 	public static ResultPartitionDeploymentDescriptor from(
 			IntermediateResultPartition partition, int maxParallelism, boolean lazyScheduling) {
 
+		return from(partition, maxParallelism, lazyScheduling, false);
+	}
+
+	public static ResultPartitionDeploymentDescriptor from(
+			IntermediateResultPartition partition,
+			int maxParallelism,
+			boolean lazyScheduling,
+			boolean retainBuffersForReplay) {
+
 		final IntermediateDataSetID resultId = partition.getIntermediateResult().getId();
 		final IntermediateResultPartitionID partitionId = partition.getPartitionId();
 		final ResultPartitionType partitionType = partition.getIntermediateResult().getResultType();
@@ -132,6 +161,7 @@ public class ResultPartitionDeploymentDescriptor implements Serializable {
 		}
 
 		return new ResultPartitionDeploymentDescriptor(
-				resultId, partitionId, partitionType, numberOfSubpartitions, maxParallelism, lazyScheduling);
+				resultId, partitionId, partitionType, numberOfSubpartitions, maxParallelism, lazyScheduling,
+				retainBuffersForReplay);
 	}
 }
@@ -18,15 +18,24 @@
 
 package org.apache.flink.runtime.deployment;
 
+import org.apache.flink.api.common.JobID;
+import org.apache.flink.runtime.blob.BlobKey;
+import org.apache.flink.runtime.blob.BlobService;
 import org.apache.flink.runtime.checkpoint.TaskStateSnapshot;
 import org.apache.flink.runtime.clusterframework.types.AllocationID;
 import org.apache.flink.runtime.executiongraph.ExecutionAttemptID;
 import org.apache.flink.runtime.executiongraph.JobInformation;
 import org.apache.flink.runtime.executiongraph.TaskInformation;
+import org.apache.flink.util.InstantiationUtil;
 import org.apache.flink.util.Preconditions;
 import org.apache.flink.util.SerializedValue;
 
+import javax.annotation.Nullable;
+
+import java.io.File;
+import java.io.IOException;
 import java.io.Serializable;
+import java.nio.file.Files;
 import java.util.Collection;
 
 /**
@@ -36,11 +45,25 @@ public final class TaskDeploymentDescriptor implements Serializable {
 
 	private static final long serialVersionUID = -3233562176034358530L;
 
-	/** Serialized job information. */
-	private final SerializedValue<JobInformation> serializedJobInformation;
+	/** The ID of the job the task belongs to, only required if information has been offloaded. */
+	@Nullable
+	private final JobID jobId;
+
+	/** Serialized job information, or null if it has been offloaded to the blob server. */
+	@Nullable
+	private SerializedValue<JobInformation> serializedJobInformation;
+
+	/** The key of the offloaded serialized job information, or null if it has not been offloaded. */
+	@Nullable
+	private BlobKey jobInformationBlobKey;
 
-	/** Serialized task information. */
-	private final SerializedValue<TaskInformation> serializedTaskInformation;
+	/** Serialized task information, or null if it has been offloaded to the blob server. */
+	@Nullable
+	private SerializedValue<TaskInformation> serializedTaskInformation;
+
+	/** The key of the offloaded serialized task information, or null if it has not been offloaded. */
+	@Nullable
+	private BlobKey taskInformationBlobKey;
 
 	/** The ID referencing the attempt to execute the task. */
 	private final ExecutionAttemptID executionId;
@@ -78,8 +101,55 @@ public final class TaskDeploymentDescriptor implements Serializable {
 			Collection<ResultPartitionDeploymentDescriptor> resultPartitionDeploymentDescriptors,
 			Collection<InputGateDeploymentDescriptor> inputGateDeploymentDescriptors) {
 
-		this.serializedJobInformation = Preconditions.checkNotNull(serializedJobInformation);
-		this.serializedTaskInformation = Preconditions.checkNotNull(serializedTaskInformation);
+		this(
+			null,
+			Preconditions.checkNotNull(serializedJobInformation),
+			null,
+			Preconditions.checkNotNull(serializedTaskInformation),
+			null,
+			executionAttemptId,
+			allocationId,
+			subtaskIndex,
+			attemptNumber,
+			targetSlotNumber,
+			taskStateHandles,
+			resultPartitionDeploymentDescriptors,
+			inputGateDeploymentDescriptors);
+	}
+
+	/**
+	 * Creates a task deployment descriptor whose job and task information may have been offloaded
+	 * to the blob server. For each of them, either the serialized information or the key of the
+	 * blob must be given. Offloaded information has to be loaded with {@link #loadBigData(BlobService)}
+	 * before it can be accessed.
+	 */
+	public TaskDeploymentDescriptor(
+			@Nullable JobID jobId,
+			@Nullable SerializedValue<JobInformation> serializedJobInformation,
+			@Nullable BlobKey jobInformationBlobKey,
+			@Nullable SerializedValue<TaskInformation> serializedTaskInformation,
+			@Nullable BlobKey taskInformationBlobKey,
+			ExecutionAttemptID executionAttemptId,
+			AllocationID allocationId,
+			int subtaskIndex,
+			int attemptNumber,
+			int targetSlotNumber,
+			TaskStateSnapshot taskStateHandles,
+			Collection<ResultPartitionDeploymentDescriptor> resultPartitionDeploymentDescriptors,
+			Collection<InputGateDeploymentDescriptor> inputGateDeploymentDescriptors) {
+
+		Preconditions.checkArgument((serializedJobInformation == null) != (jobInformationBlobKey == null),
+			"Either the serialized job information or its blob key must be given.");
+		Preconditions.checkArgument((serializedTaskInformation == null) != (taskInformationBlobKey == null),
+			"Either the serialized task information or its blob key must be given.");
+		Preconditions.checkArgument(jobId != null || (jobInformationBlobKey == null && taskInformationBlobKey == null),
+			"The job ID is required to load offloaded information.");
+
+		this.jobId = jobId;
+		this.serializedJobInformation = serializedJobInformation;
+		this.jobInformationBlobKey = jobInformationBlobKey;
+		this.serializedTaskInformation = serializedTaskInformation;
+		this.taskInformationBlobKey = taskInformationBlobKey;
 		this.executionId = Preconditions.checkNotNull(executionAttemptId);
 		this.allocationId = Preconditions.checkNotNull(allocationId);
 
@@ -104,6 +174,8 @@ public final class TaskDeploymentDescriptor implements Serializable {
 	 * @return serialized job information
 	 */
 	public SerializedValue<JobInformation> getSerializedJobInformation() {
+		Preconditions.checkState(jobInformationBlobKey == null,
+			"The job information has been offloaded and has not been loaded yet.");
 		return serializedJobInformation;
 	}
 
@@ -113,9 +185,58 @@ public final class TaskDeploymentDescriptor implements Serializable {
 	 * @return serialized task information
 	 */
 	public SerializedValue<TaskInformation> getSerializedTaskInformation() {
+		Preconditions.checkState(taskInformationBlobKey == null,
+			"The task information has been offloaded and has not been loaded yet.");
 		return serializedTaskInformation;
 	}
 
+	/**
+	 * Returns whether job or task information has been offloaded to the blob server and needs to
+	 * be loaded with {@link #loadBigData(BlobService)} before it can be accessed.
+	 */
+	public boolean hasOffloadedInformation() {
+		return jobInformationBlobKey != null || taskInformationBlobKey != null;
+	}
+
+	/**
+	 * Loads the job and task information that has been offloaded to the blob server, if any. The
+	 * blob service keeps a local copy of each blob, such that the information is only transferred
+	 * once per task manager, regardless of the number of tasks that are deployed to it.
+	 *
+	 * @param blobService The blob service to load the offloaded information from.
+	 * @throws IOException If the information could not be loaded.
+	 * @throws ClassNotFoundException If the loaded information could not be deserialized.
+	 */
+	public void loadBigData(@Nullable BlobService blobService) throws IOException, ClassNotFoundException {
+		if (jobInformationBlobKey != null) {
+			serializedJobInformation = loadSerializedValue(blobService, jobInformationBlobKey);
+			jobInformationBlobKey = null;
+		}
+		if (taskInformationBlobKey != null) {
+			serializedTaskInformation = loadSerializedValue(blobService, taskInformationBlobKey);
+			taskInformationBlobKey = null;
+		}
+	}
+
+	private <T> SerializedValue<T> loadSerializedValue(@Nullable BlobService blobService, BlobKey blobKey)
+			throws IOException, ClassNotFoundException {
+
+		if (blobService == null) {
+			throw new IOException("Cannot load the offloaded information " + blobKey + " without a blob service.");
+		}
+
+		final File file = blobService.getFile(jobId, blobKey);
+		return InstantiationUtil.deserializeObject(Files.readAllBytes(file.toPath()), getClass().getClassLoader());
+	}
+
+	/**
+	 * Returns the ID of the job the task belongs to, if the deployment descriptor was created with it.
+	 */
+	@Nullable
+	public JobID getJobId() {
+		return jobId;
+	}
+
 	public ExecutionAttemptID getExecutionAttemptId() {
 		return executionId;
 	}
@@ -22,4 +22,14 @@ package org.apache.flink.runtime.event;
  * Subclasses of this event are recognized as custom events that are not part of the core
  * flink runtime.
  */
-public abstract class TaskEvent extends AbstractEvent {}
+public abstract class TaskEvent extends AbstractEvent {
+
+	/**
+	 * Returns whether the event may be discarded if it cannot be delivered to the producer, for
+	 * example because the producing task has already finished. Events which are mere hints to the
+	 * producer can return <code>true</code>, all other events fail the consumer in this case.
+	 */
+	public boolean isOptional() {
+		return false;
+	}
+}
@@ -36,6 +36,7 @@ import org.apache.flink.runtime.jobgraph.tasks.InputSplitProvider;
 import org.apache.flink.runtime.memory.MemoryManager;
 import org.apache.flink.runtime.metrics.groups.TaskMetricGroup;
 import org.apache.flink.runtime.query.TaskKvStateRegistry;
+import org.apache.flink.runtime.state.filesystem.SharedCheckpointFilePool;
 import org.apache.flink.runtime.state.internal.InternalKvState;
 import org.apache.flink.runtime.taskmanager.TaskManagerRuntimeInfo;
 
@@ -144,6 +145,14 @@ public interface Environment {
 
 	BroadcastVariableManager getBroadcastVariableManager();
 
+	/**
+	 * Returns the pool of checkpoint files that are shared by the tasks of the TaskManager.
+	 *
+	 * @return the pool of shared checkpoint files, or {@code null}, if the environment
+	 *         does not run in a TaskManager.
+	 */
+	SharedCheckpointFilePool getSharedCheckpointFilePool();
+
 	/**
 	 * Return the registry for accumulators which are periodically sent to the job manager.
 	 * @return the registry
@@ -36,7 +36,10 @@ import org.apache.flink.runtime.instance.SimpleSlot;
 import org.apache.flink.runtime.instance.SlotProvider;
 import org.apache.flink.runtime.io.network.ConnectionID;
 import org.apache.flink.runtime.io.network.partition.ResultPartitionID;
+import org.apache.flink.runtime.io.network.partition.ResultPartitionProvider;
+import org.apache.flink.runtime.jobgraph.IntermediateDataSetID;
 import org.apache.flink.runtime.jobmanager.scheduler.CoLocationConstraint;
+import org.apache.flink.runtime.jobmanager.scheduler.Locality;
 import org.apache.flink.runtime.jobmanager.scheduler.ScheduledUnit;
 import org.apache.flink.runtime.jobmanager.scheduler.SlotSharingGroup;
 import org.apache.flink.runtime.jobmanager.slots.TaskManagerGateway;
@@ -47,6 +50,8 @@ import org.apache.flink.util.ExceptionUtils;
 
 import org.slf4j.Logger;
 
+import javax.annotation.Nullable;
+
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -135,6 +140,10 @@ public class Execution implements AccessExecution, Archiveable<ArchivedExecution
 	/** The handle to the state that the task gets on restore */
 	private volatile TaskStateSnapshot taskState;
 
+	/** The checkpoint restored by this execution, if the producers of its inputs replay the data
+	 * following its barrier because this execution replaces a failed one */
+	private volatile long replayFromCheckpointId = ResultPartitionProvider.NO_REPLAY;
+
 	// ------------------------ Accumulators & Metrics ------------------------
 
 	/** Lock for updating the accumulators atomically.
@@ -146,6 +155,9 @@ public class Execution implements AccessExecution, Archiveable<ArchivedExecution
 
 	private volatile IOMetrics ioMetrics;
 
+	/* The I/O metrics of the running task, as last reported by its TaskManager */
+	private volatile IOMetrics runningIOMetrics;
+
 	// --------------------------------------------------------------------------------------------
 
 	/**
@@ -268,6 +280,22 @@ public class Execution implements AccessExecution, Archiveable<ArchivedExecution
 		this.taskState = checkpointStateHandles;
 	}
 
+	public long getReplayFromCheckpointId() {
+		return replayFromCheckpointId;
+	}
+
+	/**
+	 * Sets the checkpoint restored by this execution, if it replaces a failed execution while the
+	 * producers of its inputs keep running. The producers then replay the data which follows the
+	 * barrier of that checkpoint.
+	 *
+	 * @param replayFromCheckpointId The restored checkpoint, -1 if no checkpoint is restored
+	 */
+	public void setReplayFromCheckpointId(long replayFromCheckpointId) {
+		checkState(state == CREATED, "Can only set the replayed checkpoint when execution attempt is in CREATED");
+		this.replayFromCheckpointId = replayFromCheckpointId;
+	}
+
 	/**
 	 * Gets a future that completes once the task execution reaches a terminal state.
 	 * The future will be completed with specific state that the execution reached.
@@ -368,6 +396,37 @@ public class Execution implements AccessExecution, Archiveable<ArchivedExecution
 	}
 
 	public void deployToSlot(final SimpleSlot slot) throws JobException {
+		final TaskDeploymentDescriptor deployment = prepareDeployment(slot, null);
+		if (deployment == null) {
+			return;
+		}
+
+		try {
+			final TaskManagerGateway taskManagerGateway = slot.getTaskManagerGateway();
+
+			handleDeploymentResult(taskManagerGateway.submitTask(deployment, timeout));
+		}
+		catch (Throwable t) {
+			markFailed(t);
+			ExceptionUtils.rethrow(t);
+		}
+	}
+
+	/**
+	 * Assigns this execution to the given slot and creates the descriptor to deploy it. The descriptor
+	 * needs to be submitted to the slot's task manager and the result of the submission has to be
+	 * passed to {@link #handleDeploymentResult(CompletableFuture)}.
+	 *
+	 * @param slot The slot to deploy this execution to.
+	 * @param sharedInputChannels The input channels to share among deployments to the same task manager,
+	 *                            or null to not share input channels.
+	 * @return The deployment descriptor, or null if the execution has been cancelled or failed concurrently.
+	 */
+	@Nullable
+	TaskDeploymentDescriptor prepareDeployment(
+			final SimpleSlot slot,
+			@Nullable Map<IntermediateDataSetID, InputChannelDeploymentDescriptor[]> sharedInputChannels) throws JobException {
+
 		checkNotNull(slot);
 
 		// Check if the TaskManager died in the meantime
@@ -392,6 +451,7 @@ public class Execution implements AccessExecution, Archiveable<ArchivedExecution
 			throw new IllegalStateException("The vertex must be in CREATED or SCHEDULED state to be deployed. Found state " + previous);
 		}
 
+		TaskDeploymentDescriptor deployment = null;
 		try {
 			// good, we are allowed to deploy
 			if (!slot.setExecutedVertex(this)) {
@@ -402,7 +462,12 @@ public class Execution implements AccessExecution, Archiveable<ArchivedExecution
 			// race double check, did we fail/cancel and do we need to release the slot?
 			if (this.state != DEPLOYING) {
 				slot.releaseSlot();
-				return;
+				return null;
+			}
+
+			final Locality locality = slot.getLocality();
+			if (locality != null) {
+				vertex.getExecutionGraph().registerSlotAssignment(locality);
 			}
 
 			if (LOG.isInfoEnabled()) {
@@ -410,37 +475,42 @@ public class Execution implements AccessExecution, Archiveable<ArchivedExecution
 						attemptNumber, getAssignedResourceLocation().getHostname()));
 			}
 
-			final TaskDeploymentDescriptor deployment = vertex.createDeploymentDescriptor(
+			deployment = vertex.createDeploymentDescriptor(
 				attemptId,
 				slot,
 				taskState,
-				attemptNumber);
-
-			final TaskManagerGateway taskManagerGateway = slot.getTaskManagerGateway();
-
-			final CompletableFuture<Acknowledge> submitResultFuture = taskManagerGateway.submitTask(deployment, timeout);
-
-			submitResultFuture.whenCompleteAsync(
-				(ack, failure) -> {
-					// only respond to the failure case
-					if (failure != null) {
-						if (failure instanceof TimeoutException) {
-							String taskname = vertex.getTaskNameWithSubtaskIndex() + " (" + attemptId + ')';
-
-							markFailed(new Exception(
-								"Cannot deploy task " + taskname + " - TaskManager (" + getAssignedResourceLocation()
-									+ ") not responding after a timeout of " + timeout, failure));
-						} else {
-							markFailed(failure);
-						}
-					}
-				},
-				executor);
+				attemptNumber,
+				replayFromCheckpointId,
+				sharedInputChannels);
 		}
 		catch (Throwable t) {
 			markFailed(t);
 			ExceptionUtils.rethrow(t);
 		}
+
+		return deployment;
+	}
+
+	/**
+	 * Fails this execution if the submission of its deployment descriptor failed.
+	 */
+	void handleDeploymentResult(CompletableFuture<Acknowledge> submitResultFuture) {
+		submitResultFuture.whenCompleteAsync(
+			(ack, failure) -> {
+				// only respond to the failure case
+				if (failure != null) {
+					if (failure instanceof TimeoutException) {
+						String taskname = vertex.getTaskNameWithSubtaskIndex() + " (" + attemptId + ')';
+
+						markFailed(new Exception(
+							"Cannot deploy task " + taskname + " - TaskManager (" + getAssignedResourceLocation()
+								+ ") not responding after a timeout of " + timeout, failure));
+					} else {
+						markFailed(failure);
+					}
+				}
+			},
+			executor);
 	}
 
 	/**
@@ -524,7 +594,8 @@ public class Execution implements AccessExecution, Archiveable<ArchivedExecution
 		}
 	}
 
-	void scheduleOrUpdateConsumers(List<List<ExecutionEdge>> allConsumers) {
+	void scheduleOrUpdateConsumers(IntermediateResultPartition partition) {
+		final List<List<ExecutionVertex>> allConsumers = partition.getConsumers();
 		final int numConsumers = allConsumers.size();
 
 		if (numConsumers > 1) {
@@ -534,14 +605,10 @@ public class Execution implements AccessExecution, Archiveable<ArchivedExecution
 			return;
 		}
 
-		for (ExecutionEdge edge : allConsumers.get(0)) {
-			final ExecutionVertex consumerVertex = edge.getTarget();
-
+		for (ExecutionVertex consumerVertex : allConsumers.get(0)) {
 			final Execution consumer = consumerVertex.getCurrentExecutionAttempt();
 			final ExecutionState consumerState = consumer.getState();
 
-			final IntermediateResultPartition partition = edge.getSource();
-
 			// ----------------------------------------------------------------
 			// Consumer is created => try to deploy and cache input channel
 			// descriptors if there is a deployment race
@@ -761,6 +828,20 @@ public class Execution implements AccessExecution, Archiveable<ArchivedExecution
 			if (current == RUNNING || current == DEPLOYING) {
 
 				if (transitionState(current, FINISHED)) {
+					if (vertex.getCurrentExecutionAttempt() != this) {
+						// another attempt of the vertex finished first and provides the results
+						try {
+							updateAccumulatorsAndMetrics(userAccumulators, metrics);
+
+							assignedResource.releaseSlot();
+							vertex.getExecutionGraph().deregisterExecution(this);
+						}
+						finally {
+							terminationFuture.complete(FINISHED);
+						}
+						return;
+					}
+
 					try {
 						for (IntermediateResultPartition finishedPartition
 								: getVertex().finishAllBlockingPartitions()) {
@@ -769,7 +850,7 @@ public class Execution implements AccessExecution, Archiveable<ArchivedExecution
 									.getIntermediateResult().getPartitions();
 
 							for (IntermediateResultPartition partition : allPartitions) {
-								scheduleOrUpdateConsumers(partition.getConsumers());
+								scheduleOrUpdateConsumers(partition);
 							}
 						}
 
@@ -1130,6 +1211,24 @@ public class Execution implements AccessExecution, Archiveable<ArchivedExecution
 		return userAccumulators;
 	}
 
+	/**
+	 * Updates the I/O metrics of the running task (discarded when the Execution has already been terminated).
+	 * @param metrics the I/O metrics that the TaskManager reported for the running task
+	 */
+	void setRunningIOMetrics(IOMetrics metrics) {
+		if (!state.isTerminal()) {
+			this.runningIOMetrics = metrics;
+		}
+	}
+
+	/**
+	 * Gets the I/O metrics of the running task, which tell about its progress.
+	 * @return the last reported I/O metrics of the running task, or null, if none were reported yet
+	 */
+	public IOMetrics getRunningIOMetrics() {
+		return runningIOMetrics;
+	}
+
 	@Override
 	public StringifiedAccumulatorResult[] getUserAccumulatorsStringified() {
 		return StringifiedAccumulatorResult.stringifyAccumulatorResults(userAccumulators);
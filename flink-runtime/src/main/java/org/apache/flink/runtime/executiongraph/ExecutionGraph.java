@@ -31,13 +31,16 @@ import org.apache.flink.runtime.JobException;
 import org.apache.flink.runtime.StoppingException;
 import org.apache.flink.runtime.accumulators.AccumulatorSnapshot;
 import org.apache.flink.runtime.accumulators.StringifiedAccumulatorResult;
+import org.apache.flink.runtime.blob.BlobClient;
 import org.apache.flink.runtime.blob.BlobKey;
+import org.apache.flink.runtime.blob.BlobServer;
 import org.apache.flink.runtime.checkpoint.CheckpointCoordinator;
 import org.apache.flink.runtime.checkpoint.CheckpointIDCounter;
 import org.apache.flink.runtime.checkpoint.CheckpointStatsSnapshot;
 import org.apache.flink.runtime.checkpoint.CheckpointStatsTracker;
 import org.apache.flink.runtime.checkpoint.CompletedCheckpointStore;
 import org.apache.flink.runtime.checkpoint.MasterTriggerRestoreHook;
+import org.apache.flink.runtime.clusterframework.types.ResourceID;
 import org.apache.flink.runtime.concurrent.FutureUtils;
 import org.apache.flink.runtime.concurrent.FutureUtils.ConjunctFuture;
 import org.apache.flink.runtime.concurrent.ScheduledExecutorServiceAdapter;
@@ -59,6 +62,7 @@ import org.apache.flink.runtime.jobgraph.ScheduleMode;
 import org.apache.flink.runtime.jobgraph.tasks.ExternalizedCheckpointSettings;
 import org.apache.flink.runtime.jobgraph.tasks.JobCheckpointingSettings;
 import org.apache.flink.runtime.jobmanager.scheduler.CoLocationGroup;
+import org.apache.flink.runtime.jobmanager.scheduler.Locality;
 import org.apache.flink.runtime.jobmanager.scheduler.NoResourceAvailableException;
 import org.apache.flink.runtime.query.KvStateLocationRegistry;
 import org.apache.flink.runtime.state.SharedStateRegistry;
@@ -68,6 +72,7 @@ import org.apache.flink.util.SerializedThrowable;
 import org.apache.flink.util.ExceptionUtils;
 import org.apache.flink.util.FlinkException;
 import org.apache.flink.util.FlinkRuntimeException;
+import org.apache.flink.util.InstantiationUtil;
 import org.apache.flink.util.Preconditions;
 import org.apache.flink.util.SerializedValue;
 import org.apache.flink.util.StringUtils;
@@ -75,6 +80,8 @@ import org.apache.flink.util.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
+
 import java.io.IOException;
 import java.net.URL;
 import java.util.ArrayList;
@@ -84,6 +91,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
@@ -96,6 +104,7 @@ import java.util.concurrent.Executor;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
@@ -207,6 +216,9 @@ public class ExecutionGraph implements AccessExecutionGraph, Archiveable<Archive
 	/** The implementation that decides how to recover the failures of tasks */
 	private final FailoverStrategy failoverStrategy;
 
+	/** The tracker that launches speculative attempts of slow tasks, null if speculation is disabled */
+	private volatile SpeculativeExecutionTracker speculativeExecutionTracker;
+
 	/** Timestamps (in milliseconds as returned by {@code System.currentTimeMillis()} when
 	 * the execution graph transitioned into a certain state. The index into this array is the
 	 * ordinal of the enum value, i.e. the timestamp when the graph went into state "RUNNING" is
@@ -246,6 +258,21 @@ public class ExecutionGraph implements AccessExecutionGraph, Archiveable<Archive
 	 * from results than need to be materialized. */
 	private ScheduleMode scheduleMode = ScheduleMode.LAZY_FROM_SOURCES;
 
+	/** The blob server to which large job and task information is offloaded, or null if
+	 * the information is always shipped within the task deployment descriptors. */
+	@Nullable
+	private BlobServer blobServer;
+
+	/** The minimum size of serialized job and task information that is offloaded. */
+	private int offloadMinSize = -1;
+
+	/** The key of the offloaded job information, or null if it has not been offloaded. */
+	@Nullable
+	private volatile BlobKey jobInformationBlobKey;
+
+	/** Flag indicating whether the job information has already been considered for offloading. */
+	private volatile boolean jobInformationOffloadChecked;
+
 	// ------ Execution status and progress. These values are volatile, and accessed under the lock -------
 
 	private final AtomicInteger verticesFinished;
@@ -264,6 +291,9 @@ public class ExecutionGraph implements AccessExecutionGraph, Archiveable<Archive
 	 * that was not recoverable and triggered job failure */
 	private volatile ErrorInfo failureCause;
 
+	/** The number of slots assigned to executions, indexed by the ordinal of the achieved locality */
+	private final AtomicLongArray slotAssignmentsByLocality;
+
 	// ------ Fields that are relevant to the execution and need to be cleared before archiving  -------
 
 	/** The coordinator for checkpoints, if snapshot checkpoints are enabled */
@@ -372,6 +402,7 @@ public class ExecutionGraph implements AccessExecutionGraph, Archiveable<Archive
 		this.kvStateLocationRegistry = new KvStateLocationRegistry(jobId, getAllVertices());
 
 		this.verticesFinished = new AtomicInteger();
+		this.slotAssignmentsByLocality = new AtomicLongArray(Locality.values().length);
 
 		this.globalModVersion = 1L;
 
@@ -405,6 +436,19 @@ public class ExecutionGraph implements AccessExecutionGraph, Archiveable<Archive
 		this.scheduleMode = scheduleMode;
 	}
 
+	/**
+	 * Sets the blob server to which serialized job and task information of at least the given size
+	 * is offloaded. Task managers download offloaded information once and then share it among all
+	 * tasks of the job, instead of receiving a copy within every task deployment descriptor.
+	 *
+	 * @param blobServer The blob server to offload to, or null to never offload.
+	 * @param offloadMinSize The minimum size in bytes of offloaded information, negative to never offload.
+	 */
+	public void setBlobServer(@Nullable BlobServer blobServer, int offloadMinSize) {
+		this.blobServer = blobServer;
+		this.offloadMinSize = offloadMinSize;
+	}
+
 	public ScheduleMode getScheduleMode() {
 		return scheduleMode;
 	}
@@ -428,7 +472,8 @@ public class ExecutionGraph implements AccessExecutionGraph, Archiveable<Archive
 			CompletedCheckpointStore checkpointStore,
 			String checkpointDir,
 			StateBackend metadataStore,
-			CheckpointStatsTracker statsTracker) {
+			CheckpointStatsTracker statsTracker,
+			int maxConcurrentStateDisposals) {
 
 		// simple sanity checks
 		checkArgument(interval >= 10, "checkpoint interval must not be below 10ms");
@@ -458,7 +503,8 @@ public class ExecutionGraph implements AccessExecutionGraph, Archiveable<Archive
 			checkpointStore,
 			checkpointDir,
 			ioExecutor,
-			SharedStateRegistry.DEFAULT_FACTORY);
+			SharedStateRegistry.DEFAULT_FACTORY,
+			maxConcurrentStateDisposals);
 
 		// register the master hooks on the checkpoint coordinator
 		for (MasterTriggerRestoreHook<?> hook : masterHooks) {
@@ -567,6 +613,41 @@ public class ExecutionGraph implements AccessExecutionGraph, Archiveable<Archive
 		return serializedJobInformation;
 	}
 
+	/**
+	 * Returns the key of the blob to which the serialized job information has been offloaded, or null,
+	 * if the information is too small to be offloaded. The information is offloaded on the first call.
+	 *
+	 * <p>The upload does not hold any lock. Concurrent first calls may upload the information more
+	 * than once, which the blob server stores under the same content-addressed key.
+	 */
+	@Nullable
+	BlobKey getJobInformationBlobKey() throws IOException {
+		if (!jobInformationOffloadChecked) {
+			// the key is published before the flag, so that readers of the flag see the key
+			jobInformationBlobKey = offloadIfLarge(serializedJobInformation);
+			jobInformationOffloadChecked = true;
+		}
+		return jobInformationBlobKey;
+	}
+
+	/**
+	 * Stores the given serialized value in the blob server, if it is at least as large as the
+	 * configured minimum size.
+	 *
+	 * @return The key of the blob, or null, if the value has not been offloaded.
+	 */
+	@Nullable
+	BlobKey offloadIfLarge(SerializedValue<?> serializedValue) throws IOException {
+		final BlobServer server = blobServer;
+		if (server == null || offloadMinSize < 0 || serializedValue.getByteArray().length < offloadMinSize) {
+			return null;
+		}
+
+		try (BlobClient client = server.createClient()) {
+			return client.put(getJobID(), InstantiationUtil.serializeObject(serializedValue));
+		}
+	}
+
 	@Override
 	public JobID getJobID() {
 		return jobInformation.getJobId();
@@ -611,6 +692,20 @@ public class ExecutionGraph implements AccessExecutionGraph, Archiveable<Archive
 		return globalModVersion - 1;
 	}
 
+	/**
+	 * Gets the number of slots that were assigned to executions with the given locality.
+	 *
+	 * @param locality The locality of the slot assignments to count
+	 * @return The number of slot assignments with the locality so far
+	 */
+	public long getNumberOfSlotAssignments(Locality locality) {
+		return slotAssignmentsByLocality.get(locality.ordinal());
+	}
+
+	void registerSlotAssignment(Locality locality) {
+		slotAssignmentsByLocality.incrementAndGet(locality.ordinal());
+	}
+
 	@Override
 	public ExecutionJobVertex getJobVertex(JobVertexID id) {
 		return this.tasks.get(id);
@@ -893,7 +988,8 @@ public class ExecutionGraph implements AccessExecutionGraph, Archiveable<Archive
 						timeoutCancelHandle.cancel(false);
 
 						if (throwable == null) {
-							// successfully obtained all slots, now deploy
+							// successfully obtained all slots, now deploy with one call per TaskManager
+							final Map<ResourceID, TaskDeploymentBatch> deploymentBatches = new LinkedHashMap<>();
 
 							for (ExecutionAndSlot[] jobVertexTasks : resources) {
 								for (ExecutionAndSlot execAndSlot : jobVertexTasks) {
@@ -909,10 +1005,20 @@ public class ExecutionGraph implements AccessExecutionGraph, Archiveable<Archive
 												"or erroneous even though all futures completed", e);
 									}
 
-									// actual deployment
-									execAndSlot.executionAttempt.deployToSlot(slot);
+									TaskDeploymentBatch deploymentBatch = deploymentBatches.get(slot.getTaskManagerID());
+									if (deploymentBatch == null) {
+										deploymentBatch = new TaskDeploymentBatch(slot.getTaskManagerGateway());
+										deploymentBatches.put(slot.getTaskManagerID(), deploymentBatch);
+									}
+
+									deploymentBatch.add(execAndSlot.executionAttempt, slot);
 								}
 							}
+
+							// actual deployment
+							for (TaskDeploymentBatch deploymentBatch : deploymentBatches.values()) {
+								deploymentBatch.submit(rpcCallTimeout);
+							}
 						}
 						else {
 							// let the exception handler deal with this
@@ -1265,6 +1371,25 @@ public class ExecutionGraph implements AccessExecutionGraph, Archiveable<Archive
 		return this.failoverStrategy;
 	}
 
+	/**
+	 * Sets the tracker that launches speculative attempts of slow tasks.
+	 *
+	 * @param tracker The speculative execution tracker, or null, to disable speculative execution
+	 */
+	public void setSpeculativeExecutionTracker(@Nullable SpeculativeExecutionTracker tracker) {
+		this.speculativeExecutionTracker = tracker;
+	}
+
+	/**
+	 * Gets the tracker that launches speculative attempts of slow tasks.
+	 *
+	 * @return The speculative execution tracker, or null, if speculative execution is disabled
+	 */
+	@Nullable
+	public SpeculativeExecutionTracker getSpeculativeExecutionTracker() {
+		return speculativeExecutionTracker;
+	}
+
 	/**
 	 * Gets the current global modification version of the ExecutionGraph.
 	 * The global modification version is incremented with each global action (cancel/fail/restart)
@@ -1602,6 +1727,16 @@ public class ExecutionGraph implements AccessExecutionGraph, Archiveable<Archive
 			Execution execution = currentExecutions.get(execID);
 			if (execution != null) {
 				execution.setAccumulators(userAccumulators);
+
+				final IOMetrics ioMetrics = accumulatorSnapshot.getIOMetrics();
+				if (ioMetrics != null) {
+					execution.setRunningIOMetrics(ioMetrics);
+
+					final SpeculativeExecutionTracker tracker = speculativeExecutionTracker;
+					if (tracker != null) {
+						tracker.onProgressUpdate(execution);
+					}
+				}
 			} else {
 				LOG.debug("Received accumulator result for unknown execution {}.", execID);
 			}
@@ -24,6 +24,7 @@ import org.apache.flink.api.common.time.Time;
 import org.apache.flink.configuration.Configuration;
 import org.apache.flink.configuration.CoreOptions;
 import org.apache.flink.configuration.IllegalConfigurationException;
+import org.apache.flink.configuration.JobManagerOptions;
 import org.apache.flink.configuration.WebOptions;
 import org.apache.flink.metrics.MetricGroup;
 import org.apache.flink.runtime.JobException;
@@ -40,6 +41,7 @@ import org.apache.flink.runtime.executiongraph.failover.FailoverStrategyLoader;
 import org.apache.flink.runtime.executiongraph.metrics.DownTimeGauge;
 import org.apache.flink.runtime.executiongraph.metrics.NumberOfFullRestartsGauge;
 import org.apache.flink.runtime.executiongraph.metrics.RestartTimeGauge;
+import org.apache.flink.runtime.executiongraph.metrics.SlotLocalityGauge;
 import org.apache.flink.runtime.executiongraph.metrics.UpTimeGauge;
 import org.apache.flink.runtime.executiongraph.restart.RestartStrategy;
 import org.apache.flink.runtime.instance.SlotProvider;
@@ -48,6 +50,7 @@ import org.apache.flink.runtime.jobgraph.JobVertex;
 import org.apache.flink.runtime.jobgraph.JobVertexID;
 import org.apache.flink.runtime.jobgraph.jsonplan.JsonPlanGenerator;
 import org.apache.flink.runtime.jobgraph.tasks.JobCheckpointingSettings;
+import org.apache.flink.runtime.jobmanager.scheduler.Locality;
 import org.apache.flink.runtime.state.AbstractStateBackend;
 import org.apache.flink.runtime.state.StateBackend;
 import org.apache.flink.util.DynamicCodeLoadingException;
@@ -122,6 +125,12 @@ public class ExecutionGraphBuilder {
 		executionGraph.setScheduleMode(jobGraph.getScheduleMode());
 		executionGraph.setQueuedSchedulingAllowed(jobGraph.getAllowQueuedScheduling());
 
+		if (jobManagerConfig.getBoolean(JobManagerOptions.SPECULATIVE_EXECUTION_ENABLED)) {
+			executionGraph.setSpeculativeExecutionTracker(new SpeculativeExecutionTracker(
+					jobManagerConfig.getDouble(JobManagerOptions.SPECULATIVE_EXECUTION_SLOW_TASK_RATIO),
+					jobManagerConfig.getLong(JobManagerOptions.SPECULATIVE_EXECUTION_MIN_RUNTIME)));
+		}
+
 		try {
 			executionGraph.setJsonPlan(JsonPlanGenerator.generatePlan(jobGraph));
 		}
@@ -216,6 +225,18 @@ public class ExecutionGraphBuilder {
 					snapshotSettings,
 					metrics);
 
+			int maxConcurrentStateDisposals = jobManagerConfig.getInteger(
+				CoreOptions.CHECKPOINTS_MAX_CONCURRENT_DISPOSALS);
+
+			if (maxConcurrentStateDisposals <= 0) {
+				log.warn("The setting for '{} : {}' is invalid. Using default value of {}",
+						CoreOptions.CHECKPOINTS_MAX_CONCURRENT_DISPOSALS.key(),
+						maxConcurrentStateDisposals,
+						CoreOptions.CHECKPOINTS_MAX_CONCURRENT_DISPOSALS.defaultValue());
+
+				maxConcurrentStateDisposals = CoreOptions.CHECKPOINTS_MAX_CONCURRENT_DISPOSALS.defaultValue();
+			}
+
 			// The default directory for externalized checkpoints
 			String externalizedCheckpointsDir = jobManagerConfig.getString(CoreOptions.CHECKPOINTS_DIRECTORY);
 
@@ -288,7 +309,10 @@ public class ExecutionGraphBuilder {
 					completedCheckpoints,
 					externalizedCheckpointsDir,
 					metadataBackend,
-					checkpointStatsTracker);
+					checkpointStatsTracker,
+					maxConcurrentStateDisposals);
+
+			executionGraph.getCheckpointCoordinator().getStateDisposalService().registerMetrics(metrics);
 		}
 
 		// create all the metrics for the Execution Graph
@@ -298,6 +322,10 @@ public class ExecutionGraphBuilder {
 		metrics.gauge(UpTimeGauge.METRIC_NAME, new UpTimeGauge(executionGraph));
 		metrics.gauge(NumberOfFullRestartsGauge.METRIC_NAME, new NumberOfFullRestartsGauge(executionGraph));
 
+		for (Locality locality : Locality.values()) {
+			metrics.gauge(SlotLocalityGauge.getMetricName(locality), new SlotLocalityGauge(executionGraph, locality));
+		}
+
 		executionGraph.getFailoverStrategy().registerMetrics(metrics);
 
 		return executionGraph;
@@ -32,9 +32,11 @@ import org.apache.flink.core.io.InputSplitAssigner;
 import org.apache.flink.core.io.InputSplitSource;
 import org.apache.flink.runtime.JobException;
 import org.apache.flink.runtime.accumulators.StringifiedAccumulatorResult;
+import org.apache.flink.runtime.blob.BlobKey;
 import org.apache.flink.runtime.execution.ExecutionState;
 import org.apache.flink.runtime.instance.SimpleSlot;
 import org.apache.flink.runtime.instance.SlotProvider;
+import org.apache.flink.runtime.jobgraph.DistributionPattern;
 import org.apache.flink.runtime.jobgraph.IntermediateDataSet;
 import org.apache.flink.runtime.jobgraph.IntermediateDataSetID;
 import org.apache.flink.runtime.jobgraph.JobEdge;
@@ -49,6 +51,8 @@ import org.apache.flink.util.SerializedValue;
 
 import org.slf4j.Logger;
 
+import javax.annotation.Nullable;
+
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -121,6 +125,13 @@ public class ExecutionJobVertex implements AccessExecutionJobVertex, Archiveable
 	 */
 	private SerializedValue<TaskInformation> serializedTaskInformation;
 
+	/** The key of the offloaded task information, or null if it has not been offloaded. */
+	@Nullable
+	private volatile BlobKey taskInformationBlobKey;
+
+	/** Flag indicating whether the task information has already been considered for offloading. */
+	private volatile boolean taskInformationOffloadChecked;
+
 	private InputSplitAssigner splitAssigner;
 
 	/**
@@ -373,6 +384,21 @@ public class ExecutionJobVertex implements AccessExecutionJobVertex, Archiveable
 		return serializedTaskInformation;
 	}
 
+	/**
+	 * Returns the key of the blob to which the serialized task information has been offloaded, or null,
+	 * if the information is too small to be offloaded. The information is offloaded on the first call,
+	 * without holding any lock (see {@link ExecutionGraph#getJobInformationBlobKey()}).
+	 */
+	@Nullable
+	BlobKey getTaskInformationBlobKey() throws IOException {
+		if (!taskInformationOffloadChecked) {
+			// the key is published before the flag, so that readers of the flag see the key
+			taskInformationBlobKey = graph.offloadIfLarge(getSerializedTaskInformation());
+			taskInformationOffloadChecked = true;
+		}
+		return taskInformationBlobKey;
+	}
+
 	@Override
 	public ExecutionState getAggregateState() {
 		int[] num = new int[ExecutionState.values().length];
@@ -429,7 +455,17 @@ public class ExecutionJobVertex implements AccessExecutionJobVertex, Archiveable
 			this.inputs.add(ires);
 			
 			int consumerIndex = ires.registerConsumer();
-			
+
+			if (edge.getDistributionPattern() == DistributionPattern.ALL_TO_ALL) {
+				// all partitions are consumed by all subtasks, so they share one list of consumers
+				// instead of keeping a consumer per partition and subtask
+				final List<ExecutionVertex> consumers = Collections.unmodifiableList(Arrays.asList(taskVertices));
+
+				for (IntermediateResultPartition partition : ires.getPartitions()) {
+					partition.setConsumers(consumers, consumerIndex);
+				}
+			}
+
 			for (int i = 0; i < parallelism; i++) {
 				ExecutionVertex ev = taskVertices[i];
 				ev.connectSource(num, ires, edge, consumerIndex);
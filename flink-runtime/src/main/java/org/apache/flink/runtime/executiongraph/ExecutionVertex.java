@@ -23,17 +23,23 @@ import org.apache.flink.api.common.Archiveable;
 import org.apache.flink.api.common.JobID;
 import org.apache.flink.api.common.time.Time;
 import org.apache.flink.configuration.JobManagerOptions;
+import org.apache.flink.core.io.InputSplit;
+import org.apache.flink.core.io.InputSplitAssigner;
 import org.apache.flink.runtime.JobException;
+import org.apache.flink.runtime.blob.BlobKey;
 import org.apache.flink.runtime.checkpoint.TaskStateSnapshot;
+import org.apache.flink.runtime.clusterframework.types.AllocationID;
 import org.apache.flink.runtime.deployment.InputChannelDeploymentDescriptor;
 import org.apache.flink.runtime.deployment.InputGateDeploymentDescriptor;
 import org.apache.flink.runtime.deployment.PartialInputChannelDeploymentDescriptor;
 import org.apache.flink.runtime.deployment.ResultPartitionDeploymentDescriptor;
 import org.apache.flink.runtime.deployment.TaskDeploymentDescriptor;
 import org.apache.flink.runtime.execution.ExecutionState;
+import org.apache.flink.runtime.executiongraph.failover.FailoverStrategy;
 import org.apache.flink.runtime.instance.SimpleSlot;
 import org.apache.flink.runtime.instance.SlotProvider;
 import org.apache.flink.runtime.io.network.partition.ResultPartitionID;
+import org.apache.flink.runtime.io.network.partition.ResultPartitionProvider;
 import org.apache.flink.runtime.io.network.partition.ResultPartitionType;
 import org.apache.flink.runtime.jobgraph.DistributionPattern;
 import org.apache.flink.runtime.jobgraph.IntermediateDataSetID;
@@ -51,9 +57,13 @@ import org.apache.flink.util.SerializedValue;
 
 import org.slf4j.Logger;
 
+import javax.annotation.Nullable;
+
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
@@ -80,7 +90,8 @@ public class ExecutionVertex implements AccessExecutionVertex, Archiveable<Archi
 
 	private final Map<IntermediateResultPartitionID, IntermediateResultPartition> resultPartitions;
 
-	private final ExecutionEdge[][] inputEdges;
+	/** The consumed partitions per input. All-to-all inputs share the partition array of the consumed result. */
+	private final IntermediateResultPartition[][] inputPartitions;
 
 	private final int subTaskIndex;
 
@@ -96,6 +107,26 @@ public class ExecutionVertex implements AccessExecutionVertex, Archiveable<Archi
 	/** The current or latest execution attempt of this vertex's task */
 	private volatile Execution currentExecution;	// this field must never be null
 
+	/** The speculative attempt that runs concurrently to the slow current execution, or null */
+	private volatile Execution speculativeExecution;
+
+	/** Speculative attempts that were discarded while the current execution kept running. They
+	 * become prior executions together with the current execution, to keep the attempt order */
+	private final List<Execution> discardedSpeculativeExecutions = new ArrayList<>(1);
+
+	/** The highest attempt number of all execution attempts of this vertex */
+	private int latestAttemptNumber;
+
+	/** The input splits assigned to the current execution, recorded only if speculative execution
+	 * is enabled, to be handed to the speculative attempt in the same order */
+	private List<InputSplit> assignedInputSplits;
+
+	/** The number of recorded input splits that were handed to the current execution */
+	private int numAssignedInputSplits;
+
+	/** The number of recorded input splits that were handed to the speculative attempt */
+	private int numReplayedInputSplits;
+
 	// --------------------------------------------------------------------------------------------
 
 	/**
@@ -152,7 +183,7 @@ public class ExecutionVertex implements AccessExecutionVertex, Archiveable<Archi
 			resultPartitions.put(irp.getPartitionId(), irp);
 		}
 
-		this.inputEdges = new ExecutionEdge[jobVertex.getJobVertex().getInputs().size()][];
+		this.inputPartitions = new IntermediateResultPartition[jobVertex.getJobVertex().getInputs().size()][];
 
 		this.priorExecutions = new EvictingBoundedList<>(maxPriorExecutionHistoryLength);
 
@@ -226,14 +257,34 @@ public class ExecutionVertex implements AccessExecutionVertex, Archiveable<Archi
 	}
 
 	public int getNumberOfInputs() {
-		return this.inputEdges.length;
+		return this.inputPartitions.length;
 	}
 
+	/**
+	 * Gets the edges of the given input. The edges are created on every call, use
+	 * {@link #getConsumedPartitions(int)} to look up the consumed partitions.
+	 */
 	public ExecutionEdge[] getInputEdges(int input) {
-		if (input < 0 || input >= this.inputEdges.length) {
-			throw new IllegalArgumentException(String.format("Input %d is out of range [0..%d)", input, this.inputEdges.length));
+		final IntermediateResultPartition[] partitions = getConsumedPartitions(input);
+		final ExecutionEdge[] edges = new ExecutionEdge[partitions.length];
+
+		for (int i = 0; i < partitions.length; i++) {
+			edges[i] = new ExecutionEdge(partitions[i], this, input);
+		}
+		return edges;
+	}
+
+	/**
+	 * Gets the partitions consumed by the given input.
+	 *
+	 * <p>The returned array must not be modified. The subtasks of an all-to-all input share
+	 * the array of the partitions of the consumed {@link IntermediateResult}.
+	 */
+	public IntermediateResultPartition[] getConsumedPartitions(int input) {
+		if (input < 0 || input >= this.inputPartitions.length) {
+			throw new IllegalArgumentException(String.format("Input %d is out of range [0..%d)", input, this.inputPartitions.length));
 		}
-		return inputEdges[input];
+		return inputPartitions[input];
 	}
 
 	public CoLocationConstraint getLocationConstraint() {
@@ -245,6 +296,16 @@ public class ExecutionVertex implements AccessExecutionVertex, Archiveable<Archi
 		return currentExecution;
 	}
 
+	/**
+	 * Gets the speculative execution attempt that runs concurrently to the current execution attempt.
+	 *
+	 * @return The speculative execution attempt, or null, if there is none.
+	 */
+	@Nullable
+	public Execution getSpeculativeExecutionAttempt() {
+		return speculativeExecution;
+	}
+
 	@Override
 	public ExecutionState getExecutionState() {
 		return currentExecution.getState();
@@ -302,6 +363,26 @@ public class ExecutionVertex implements AccessExecutionVertex, Archiveable<Archi
 		}
 	}
 
+	/**
+	 * Gets the allocation of the slot in which the latest completed/canceled/failed execution of the
+	 * vertex's task happened.
+	 *
+	 * @return The latest prior execution's slot allocation, or null, if there is none, yet, or the
+	 *         slot was not allocated from a slot pool.
+	 */
+	public AllocationID getLatestPriorAllocation() {
+		synchronized (priorExecutions) {
+			final int size = priorExecutions.size();
+			if (size > 0) {
+				final SimpleSlot priorSlot = priorExecutions.get(size - 1).getAssignedResource();
+				if (priorSlot != null && priorSlot.getAllocatedSlot() != null) {
+					return priorSlot.getAllocatedSlot().getSlotAllocationId();
+				}
+			}
+			return null;
+		}
+	}
+
 	EvictingBoundedList<Execution> getCopyOfPriorExecutionsList() {
 		synchronized (priorExecutions) {
 			return new EvictingBoundedList<>(priorExecutions);
@@ -325,50 +406,38 @@ public class ExecutionVertex implements AccessExecutionVertex, Archiveable<Archi
 		final DistributionPattern pattern = edge.getDistributionPattern();
 		final IntermediateResultPartition[] sourcePartitions = source.getPartitions();
 
-		ExecutionEdge[] edges;
-
 		switch (pattern) {
 			case POINTWISE:
-				edges = connectPointwise(sourcePartitions, inputNumber);
+				IntermediateResultPartition[] partitions = connectPointwise(sourcePartitions);
+				this.inputPartitions[inputNumber] = partitions;
+
+				// add the consumers to the source
+				// for now (until the receiver initiated handshake is in place), we need to register the
+				// consumers in the execution graph
+				for (IntermediateResultPartition partition : partitions) {
+					partition.addConsumer(this, consumerNumber);
+				}
 				break;
 
 			case ALL_TO_ALL:
-				edges = connectAllToAll(sourcePartitions, inputNumber);
+				// every subtask consumes all partitions, the consumers of the partitions are registered
+				// once for all subtasks by the ExecutionJobVertex
+				this.inputPartitions[inputNumber] = sourcePartitions;
 				break;
 
 			default:
 				throw new RuntimeException("Unrecognized distribution pattern.");
 
 		}
-
-		this.inputEdges[inputNumber] = edges;
-
-		// add the consumers to the source
-		// for now (until the receiver initiated handshake is in place), we need to register the
-		// edges as the execution graph
-		for (ExecutionEdge ee : edges) {
-			ee.getSource().addConsumer(ee, consumerNumber);
-		}
 	}
 
-	private ExecutionEdge[] connectAllToAll(IntermediateResultPartition[] sourcePartitions, int inputNumber) {
-		ExecutionEdge[] edges = new ExecutionEdge[sourcePartitions.length];
-
-		for (int i = 0; i < sourcePartitions.length; i++) {
-			IntermediateResultPartition irp = sourcePartitions[i];
-			edges[i] = new ExecutionEdge(irp, this, inputNumber);
-		}
-
-		return edges;
-	}
-
-	private ExecutionEdge[] connectPointwise(IntermediateResultPartition[] sourcePartitions, int inputNumber) {
+	private IntermediateResultPartition[] connectPointwise(IntermediateResultPartition[] sourcePartitions) {
 		final int numSources = sourcePartitions.length;
 		final int parallelism = getTotalNumberOfParallelSubtasks();
 
 		// simple case same number of sources as targets
 		if (numSources == parallelism) {
-			return new ExecutionEdge[] { new ExecutionEdge(sourcePartitions[subTaskIndex], this, inputNumber) };
+			return new IntermediateResultPartition[] { sourcePartitions[subTaskIndex] };
 		}
 		else if (numSources < parallelism) {
 
@@ -387,7 +456,7 @@ public class ExecutionVertex implements AccessExecutionVertex, Archiveable<Archi
 				sourcePartition = (int) (subTaskIndex / factor);
 			}
 
-			return new ExecutionEdge[] { new ExecutionEdge(sourcePartitions[sourcePartition], this, inputNumber) };
+			return new IntermediateResultPartition[] { sourcePartitions[sourcePartition] };
 		}
 		else {
 			if (numSources % parallelism == 0) {
@@ -395,11 +464,7 @@ public class ExecutionVertex implements AccessExecutionVertex, Archiveable<Archi
 				int factor = numSources / parallelism;
 				int startIndex = subTaskIndex * factor;
 
-				ExecutionEdge[] edges = new ExecutionEdge[factor];
-				for (int i = 0; i < factor; i++) {
-					edges[i] = new ExecutionEdge(sourcePartitions[startIndex + i], this, inputNumber);
-				}
-				return edges;
+				return Arrays.copyOfRange(sourcePartitions, startIndex, startIndex + factor);
 			}
 			else {
 				float factor = ((float) numSources) / parallelism;
@@ -409,12 +474,7 @@ public class ExecutionVertex implements AccessExecutionVertex, Archiveable<Archi
 						sourcePartitions.length :
 						(int) ((subTaskIndex + 1) * factor);
 
-				ExecutionEdge[] edges = new ExecutionEdge[end - start];
-				for (int i = 0; i < edges.length; i++) {
-					edges[i] = new ExecutionEdge(sourcePartitions[start + i], this, inputNumber);
-				}
-
-				return edges;
+				return Arrays.copyOfRange(sourcePartitions, start, end);
 			}
 		}
 	}
@@ -465,6 +525,18 @@ public class ExecutionVertex implements AccessExecutionVertex, Archiveable<Archi
 		}
 	}
 
+	/**
+	 * Gets the allocation of the slot to execute the current task execution attempt in, based on the
+	 * state that the execution attempt will resume. Resuming in the slot of the prior execution lets
+	 * the task reuse the OS caches of the TaskManager.
+	 *
+	 * @return The allocation of the prior execution's slot, or null, if there is no allocation
+	 *         preference based on the state.
+	 */
+	public AllocationID getPreferredAllocationBasedOnState() {
+		return currentExecution.getTaskStateSnapshot() != null ? getLatestPriorAllocation() : null;
+	}
+
 	/**
 	 * Gets the location preferences of the vertex's current task execution, as determined by the locations
 	 * of the predecessors from which it receives input data.
@@ -476,7 +548,7 @@ public class ExecutionVertex implements AccessExecutionVertex, Archiveable<Archi
 	 */
 	public Iterable<TaskManagerLocation> getPreferredLocationsBasedOnInputs() {
 		// otherwise, base the preferred locations on the input connections
-		if (inputEdges == null) {
+		if (inputPartitions == null) {
 			return Collections.emptySet();
 		}
 		else {
@@ -484,14 +556,14 @@ public class ExecutionVertex implements AccessExecutionVertex, Archiveable<Archi
 			Set<TaskManagerLocation> inputLocations = new HashSet<>();
 
 			// go over all inputs
-			for (int i = 0; i < inputEdges.length; i++) {
+			for (int i = 0; i < inputPartitions.length; i++) {
 				inputLocations.clear();
-				ExecutionEdge[] sources = inputEdges[i];
+				IntermediateResultPartition[] sources = inputPartitions[i];
 				if (sources != null) {
 					// go over all input sources
 					for (int k = 0; k < sources.length; k++) {
 						// look-up assigned slot of input source
-						SimpleSlot sourceSlot = sources[k].getSource().getProducer().getCurrentAssignedResource();
+						SimpleSlot sourceSlot = sources[k].getProducer().getCurrentAssignedResource();
 						if (sourceSlot != null) {
 							// add input location
 							inputLocations.add(sourceSlot.getTaskManagerLocation());
@@ -516,6 +588,101 @@ public class ExecutionVertex implements AccessExecutionVertex, Archiveable<Archi
 		}
 	}
 
+	/**
+	 * Gets the location preferences of the vertex's current task execution, ordered by the amount of
+	 * data that the task receives from each location. The data volume of a consumed partition is
+	 * estimated from the I/O metrics of the latest finished or failed execution of its producer, and
+	 * counts as one byte if no such metrics exist yet. Without metrics, the locations which produce
+	 * most of the consumed partitions (such as the producers of forward or rescale connections) come first.
+	 * 
+	 * <p>Like in {@link #getPreferredLocationsBasedOnInputs()}, inputs with more than
+	 * MAX_DISTINCT_LOCATIONS_TO_CONSIDER different source locations (such as keyed exchanges)
+	 * do not contribute location preferences.
+	 *
+	 * @return The preferred locations based on the input data volume, or an empty iterable,
+	 *         if there is no input-based preference.
+	 */
+	public Iterable<TaskManagerLocation> getPreferredLocationsBasedOnInputVolume() {
+		if (inputPartitions == null) {
+			return Collections.emptySet();
+		}
+
+		final Map<TaskManagerLocation, Long> bytesPerLocation = new HashMap<>();
+		final Map<TaskManagerLocation, Long> inputBytesPerLocation = new HashMap<>();
+
+		for (IntermediateResultPartition[] sources : inputPartitions) {
+			if (sources == null) {
+				continue;
+			}
+
+			inputBytesPerLocation.clear();
+			for (IntermediateResultPartition source : sources) {
+				SimpleSlot sourceSlot = source.getProducer().getCurrentAssignedResource();
+				if (sourceSlot != null) {
+					inputBytesPerLocation.merge(
+							sourceSlot.getTaskManagerLocation(), estimateBytesPerConsumer(source), Long::sum);
+
+					// inputs which have too many distinct sources are not considered
+					if (inputBytesPerLocation.size() > MAX_DISTINCT_LOCATIONS_TO_CONSIDER) {
+						inputBytesPerLocation.clear();
+						break;
+					}
+				}
+			}
+
+			for (Map.Entry<TaskManagerLocation, Long> entry : inputBytesPerLocation.entrySet()) {
+				bytesPerLocation.merge(entry.getKey(), entry.getValue(), Long::sum);
+			}
+		}
+
+		if (bytesPerLocation.isEmpty()) {
+			return Collections.emptyList();
+		}
+
+		final List<Map.Entry<TaskManagerLocation, Long>> entries = new ArrayList<>(bytesPerLocation.entrySet());
+		entries.sort((a, b) -> Long.compare(b.getValue(), a.getValue()));
+
+		final List<TaskManagerLocation> locations = new ArrayList<>(entries.size());
+		for (Map.Entry<TaskManagerLocation, Long> entry : entries) {
+			locations.add(entry.getKey());
+		}
+		return locations;
+	}
+
+	/**
+	 * Estimates the number of bytes that each consumer receives from the given partition, based on
+	 * the I/O metrics of the latest finished or failed execution of the partition's producer.
+	 */
+	private static long estimateBytesPerConsumer(IntermediateResultPartition partition) {
+		final ExecutionVertex producer = partition.getProducer();
+		final IOMetrics metrics = producer.getLatestIOMetrics();
+		if (metrics == null || metrics.getNumBytesOut() <= 0) {
+			return 1L;
+		}
+
+		final List<List<ExecutionVertex>> consumers = partition.getConsumers();
+		final int numConsumers = consumers.isEmpty() ? 1 : Math.max(1, consumers.get(0).size());
+		final int numPartitions = Math.max(1, producer.getProducedPartitions().size());
+
+		return Math.max(1L, metrics.getNumBytesOut() / numPartitions / numConsumers);
+	}
+
+	/**
+	 * Gets the I/O metrics of the current execution attempt, or, if the current attempt has none
+	 * (yet), of the latest prior execution attempt.
+	 */
+	private IOMetrics getLatestIOMetrics() {
+		final IOMetrics current = currentExecution.getIOMetrics();
+		if (current != null) {
+			return current;
+		}
+
+		synchronized (priorExecutions) {
+			final int size = priorExecutions.size();
+			return size > 0 ? priorExecutions.get(size - 1).getIOMetrics() : null;
+		}
+	}
+
 	// --------------------------------------------------------------------------------------------
 	//   Actions
 	// --------------------------------------------------------------------------------------------
@@ -558,12 +725,22 @@ public class ExecutionVertex implements AccessExecutionVertex, Archiveable<Archi
 			final ExecutionState oldState = oldExecution.getState();
 
 			if (oldState.isTerminal()) {
-				priorExecutions.add(oldExecution);
+				// a speculative attempt belongs to the old execution
+				final Execution oldSpeculativeExecution = speculativeExecution;
+				if (oldSpeculativeExecution != null) {
+					speculativeExecution = null;
+					discardedSpeculativeExecutions.add(oldSpeculativeExecution);
+					oldSpeculativeExecution.cancel();
+				}
+
+				retireCurrentExecution();
+				assignedInputSplits = null;
+				numAssignedInputSplits = 0;
 
 				final Execution newExecution = new Execution(
 					getExecutionGraph().getFutureExecutor(),
 					this,
-					oldExecution.getAttemptNumber() + 1,
+					++latestAttemptNumber,
 					originatingGlobalModVersion,
 					timestamp,
 					timeout);
@@ -608,8 +785,17 @@ public class ExecutionVertex implements AccessExecutionVertex, Archiveable<Archi
 		// to avoid any case of mixup in the presence of concurrent calls,
 		// we copy a reference to the stack to make sure both calls go to the same Execution 
 		final Execution exec = this.currentExecution;
+		final Execution speculative = this.speculativeExecution;
 		exec.cancel();
-		return exec.getTerminationFuture();
+
+		if (speculative != null) {
+			speculative.cancel();
+			return exec.getTerminationFuture().thenCombine(
+					speculative.getTerminationFuture(), (state, ignored) -> state);
+		}
+		else {
+			return exec.getTerminationFuture();
+		}
 	}
 
 	public void stop() {
@@ -620,6 +806,137 @@ public class ExecutionVertex implements AccessExecutionVertex, Archiveable<Archi
 		this.currentExecution.fail(t);
 	}
 
+	/**
+	 * Launches a speculative attempt of the vertex's running task on another TaskManager. The
+	 * speculative attempt receives the same input splits as the current execution, see
+	 * {@link #getNextInputSplit(String, Execution)}. If no slot on another TaskManager is
+	 * available immediately, the speculative attempt is discarded.
+	 *
+	 * <p>A failure of the speculative attempt never fails the vertex, because the speculative
+	 * attempt only becomes the current execution once it finished.
+	 *
+	 * @return True, if a speculative attempt was launched, false if the vertex already has one
+	 *         or its task is not running.
+	 */
+	boolean launchSpeculativeExecution() {
+		final Execution original;
+		final Execution speculative;
+
+		synchronized (priorExecutions) {
+			original = currentExecution;
+			if (speculativeExecution != null || original.getState() != ExecutionState.RUNNING) {
+				return false;
+			}
+
+			speculative = new Execution(
+				getExecutionGraph().getFutureExecutor(),
+				this,
+				++latestAttemptNumber,
+				original.getGlobalModVersion(),
+				System.currentTimeMillis(),
+				timeout);
+
+			speculativeExecution = speculative;
+			numReplayedInputSplits = 0;
+		}
+
+		// register the attempt at the execution graph, to receive call backs
+		getExecutionGraph().registerExecution(speculative);
+
+		final SimpleSlot originalSlot = original.getAssignedResource();
+
+		try {
+			speculative.allocateSlotForExecution(getExecutionGraph().getSlotProvider(), false).handle(
+				(slot, throwable) -> {
+					if (slot == null) {
+						LOG.debug("No slot available for a speculative attempt of {}.", taskNameWithSubtask, throwable);
+						speculative.cancel();
+					}
+					else if (originalSlot != null && slot.getTaskManagerID().equals(originalSlot.getTaskManagerID())) {
+						// an attempt on the same TaskManager would likely be as slow as the original one
+						slot.releaseSlot();
+						speculative.cancel();
+					}
+					else {
+						try {
+							speculative.deployToSlot(slot);
+						}
+						catch (Throwable t) {
+							try {
+								slot.releaseSlot();
+							} finally {
+								speculative.markFailed(t);
+							}
+						}
+					}
+					return null;
+				});
+		}
+		catch (IllegalExecutionStateException e) {
+			// cannot happen, the new attempt is in state CREATED
+			speculative.cancel();
+		}
+
+		return true;
+	}
+
+	/**
+	 * Gets the next input split for the given execution attempt of this vertex's task from the
+	 * split assigner of the job vertex. If speculative execution is enabled, the input splits
+	 * are recorded, and the current execution and a speculative attempt receive them in lockstep:
+	 * whichever attempt is ahead takes the next split from the split assigner, the other attempt
+	 * gets it from the recorded splits. Both attempts hence process the same input, which also
+	 * holds for split assigners that hand out a fixed set of splits per subtask.
+	 *
+	 * @param host The host of the requesting execution attempt, may be null.
+	 * @param attempt The execution attempt that requests the input split.
+	 *
+	 * @return The next input split, or null, if the attempt receives no further input splits.
+	 */
+	@Nullable
+	public InputSplit getNextInputSplit(@Nullable String host, Execution attempt) {
+		final InputSplitAssigner splitAssigner = jobVertex.getSplitAssigner();
+
+		synchronized (priorExecutions) {
+			final boolean isSpeculative = attempt == speculativeExecution;
+
+			if (!isSpeculative && attempt != currentExecution) {
+				// an outdated attempt
+				return null;
+			}
+			else if (getExecutionGraph().getSpeculativeExecutionTracker() == null) {
+				return splitAssigner.getNextInputSplit(host, subTaskIndex);
+			}
+
+			if (assignedInputSplits == null) {
+				assignedInputSplits = new ArrayList<>();
+			}
+
+			final int index = isSpeculative ? numReplayedInputSplits : numAssignedInputSplits;
+			final InputSplit nextInputSplit;
+
+			if (index < assignedInputSplits.size()) {
+				nextInputSplit = assignedInputSplits.get(index);
+			}
+			else {
+				nextInputSplit = splitAssigner.getNextInputSplit(host, subTaskIndex);
+				if (nextInputSplit == null) {
+					return null;
+				}
+				assignedInputSplits.add(nextInputSplit);
+			}
+
+			if (isSpeculative) {
+				numReplayedInputSplits++;
+			}
+			else {
+				numAssignedInputSplits++;
+			}
+
+			return nextInputSplit;
+		}
+	}
+
 	/**
 	 * Schedules or updates the consumer tasks of the result partition with the given ID.
 	 */
@@ -640,7 +957,7 @@ public class ExecutionVertex implements AccessExecutionVertex, Archiveable<Archi
 
 		if (partition.getIntermediateResult().getResultType().isPipelined()) {
 			// Schedule or update receivers of this partition
-			execution.scheduleOrUpdateConsumers(partition.getConsumers());
+			execution.scheduleOrUpdateConsumers(partition);
 		}
 		else {
 			throw new IllegalArgumentException("ScheduleOrUpdateConsumers msg is only valid for" +
@@ -684,16 +1001,82 @@ public class ExecutionVertex implements AccessExecutionVertex, Archiveable<Archi
 	//   Notifications from the Execution Attempt
 	// --------------------------------------------------------------------------------------------
 
+	/**
+	 * Called when an execution attempt switched to FINISHED. If the vertex has a speculative
+	 * attempt, the attempt that finished first becomes the current execution, and the other
+	 * attempt is canceled. The speculative attempt is only promoted once it reached the terminal
+	 * state FINISHED, so that a failure of it can never be mistaken for a failure of the vertex.
+	 */
+	private void executionFinishing(Execution execution) {
+		final Execution loser;
+
+		synchronized (priorExecutions) {
+			final Execution speculative = speculativeExecution;
+			if (speculative == null) {
+				return;
+			}
+			else if (execution == speculative) {
+				speculativeExecution = null;
+				loser = currentExecution;
+
+				if (loser.getState() == ExecutionState.FAILED) {
+					// the vertex is already being recovered from the failure of its current execution
+					discardedSpeculativeExecutions.add(speculative);
+					return;
+				}
+
+				retireCurrentExecution();
+				currentExecution = speculative;
+				numAssignedInputSplits = numReplayedInputSplits;
+			}
+			else if (execution == currentExecution) {
+				speculativeExecution = null;
+				loser = speculative;
+				discardedSpeculativeExecutions.add(speculative);
+			}
+			else {
+				return;
+			}
+		}
+
+		LOG.info("{} finished first of its attempts, canceling attempt {}.",
+				execution.getVertexWithAttempt(), loser.getAttemptId());
+		loser.cancel();
+	}
+
 	void executionFinished(Execution execution) {
 		getExecutionGraph().vertexFinished();
 	}
 
 	void executionCanceled(Execution execution) {
-		// nothing to do
+		clearSpeculativeExecution(execution);
 	}
 
 	void executionFailed(Execution execution, Throwable cause) {
-		// nothing to do
+		clearSpeculativeExecution(execution);
+	}
+
+	private void clearSpeculativeExecution(Execution execution) {
+		synchronized (priorExecutions) {
+			if (speculativeExecution == execution) {
+				speculativeExecution = null;
+				discardedSpeculativeExecutions.add(execution);
+			}
+		}
+	}
+
+	/**
+	 * Adds the current execution and the speculative attempts that were discarded next to it to
+	 * the prior executions, such that prior executions are listed by their attempt number.
+	 */
+	private void retireCurrentExecution() {
+		assert Thread.holdsLock(priorExecutions);
+
+		priorExecutions.add(currentExecution);
+		for (Execution discarded : discardedSpeculativeExecutions) {
+			priorExecutions.add(discarded);
+		}
+		discardedSpeculativeExecutions.clear();
 	}
 
 	// --------------------------------------------------------------------------------------------
@@ -704,8 +1087,13 @@ public class ExecutionVertex implements AccessExecutionVertex, Archiveable<Archi
 	 * Simply forward this notification
 	 */
 	void notifyStateTransition(Execution execution, ExecutionState newState, Throwable error) {
+		if (newState == FINISHED) {
+			// a finished speculative attempt replaces the current execution
+			executionFinishing(execution);
+		}
+
 		// only forward this notification if the execution is still the current execution
-		// otherwise we have an outdated execution
+		// otherwise we have an outdated execution, or a speculative attempt
 		if (currentExecution == execution) {
 			getExecutionGraph().notifyExecutionChange(execution, newState, error);
 		}
@@ -721,68 +1109,131 @@ public class ExecutionVertex implements AccessExecutionVertex, Archiveable<Archi
 			SimpleSlot targetSlot,
 			TaskStateSnapshot taskStateHandles,
 			int attemptNumber) throws ExecutionGraphException {
+
+		return createDeploymentDescriptor(
+			executionId, targetSlot, taskStateHandles, attemptNumber, ResultPartitionProvider.NO_REPLAY, null);
+	}
+
+	/**
+	 * Creates a task deployment descriptor to deploy a subtask to the given target slot.
+	 *
+	 * <p>The input channels of inputs that consume all partitions of an intermediate result are the
+	 * same for all subtasks on one task manager. If a map is given, such input channels are taken from
+	 * and added to it, such that deployment descriptors which are sent to the task manager together
+	 * share them and serialize them only once.
+	 *
+	 * @param replayFromCheckpointId The checkpoint after whose barrier the producers replay the
+	 *                               consumed pipelined subpartitions, if the subtask replaces a
+	 *                               failed consumer.
+	 * @param sharedInputChannels The input channels to share among deployments to the task manager
+	 *                            of the target slot, or null to not share input channels.
+	 */
+	TaskDeploymentDescriptor createDeploymentDescriptor(
+			ExecutionAttemptID executionId,
+			SimpleSlot targetSlot,
+			TaskStateSnapshot taskStateHandles,
+			int attemptNumber,
+			long replayFromCheckpointId,
+			@Nullable Map<IntermediateDataSetID, InputChannelDeploymentDescriptor[]> sharedInputChannels)
+			throws ExecutionGraphException {
 		
 		// Produced intermediate results
 		List<ResultPartitionDeploymentDescriptor> producedPartitions = new ArrayList<>(resultPartitions.size());
 		
 		// Consumed intermediate results
-		List<InputGateDeploymentDescriptor> consumedPartitions = new ArrayList<>(inputEdges.length);
+		List<InputGateDeploymentDescriptor> consumedPartitions = new ArrayList<>(inputPartitions.length);
 		
 		boolean lazyScheduling = getExecutionGraph().getScheduleMode().allowLazyDeployment();
 
+		// pipelined results retain their data for restarted consumers if the failover strategy replays it
+		FailoverStrategy failoverStrategy = getExecutionGraph().getFailoverStrategy();
+		boolean retainBuffersForReplay = failoverStrategy != null && failoverStrategy.requiresPipelinedResultReplay();
+
 		for (IntermediateResultPartition partition : resultPartitions.values()) {
 
-			List<List<ExecutionEdge>> consumers = partition.getConsumers();
+			List<List<ExecutionVertex>> consumers = partition.getConsumers();
 
 			if (consumers.isEmpty()) {
 				//TODO this case only exists for test, currently there has to be exactly one consumer in real jobs!
 				producedPartitions.add(ResultPartitionDeploymentDescriptor.from(
 						partition,
 						KeyGroupRangeAssignment.UPPER_BOUND_MAX_PARALLELISM,
-						lazyScheduling));
+						lazyScheduling,
+						retainBuffersForReplay));
 			} else {
 				Preconditions.checkState(1 == consumers.size(),
 						"Only one consumer supported in the current implementation! Found: " + consumers.size());
 
-				List<ExecutionEdge> consumer = consumers.get(0);
-				ExecutionJobVertex vertex = consumer.get(0).getTarget().getJobVertex();
+				List<ExecutionVertex> consumer = consumers.get(0);
+				ExecutionJobVertex vertex = consumer.get(0).getJobVertex();
 				int maxParallelism = vertex.getMaxParallelism();
-				producedPartitions.add(ResultPartitionDeploymentDescriptor.from(partition, maxParallelism, lazyScheduling));
+				producedPartitions.add(ResultPartitionDeploymentDescriptor.from(
+						partition, maxParallelism, lazyScheduling, retainBuffersForReplay));
 			}
 		}
 		
 		
-		for (ExecutionEdge[] edges : inputEdges) {
-			InputChannelDeploymentDescriptor[] partitions = InputChannelDeploymentDescriptor
-					.fromEdges(edges, targetSlot, lazyScheduling);
-
+		for (IntermediateResultPartition[] inputs : inputPartitions) {
 			// If the produced partition has multiple consumers registered, we
 			// need to request the one matching our sub task index.
 			// TODO Refactor after removing the consumers from the intermediate result partitions
-			int numConsumerEdges = edges[0].getSource().getConsumers().get(0).size();
+			int numConsumers = inputs[0].getConsumers().get(0).size();
 
-			int queueToRequest = subTaskIndex % numConsumerEdges;
+			int queueToRequest = subTaskIndex % numConsumers;
 
-			IntermediateResult consumedIntermediateResult = edges[0].getSource().getIntermediateResult();
+			IntermediateResult consumedIntermediateResult = inputs[0].getIntermediateResult();
 			final IntermediateDataSetID resultId = consumedIntermediateResult.getId();
 			final ResultPartitionType partitionType = consumedIntermediateResult.getResultType();
 
-			consumedPartitions.add(new InputGateDeploymentDescriptor(resultId, partitionType, queueToRequest, partitions));
+			// the inputs which consume all partitions are ordered by partition number
+			final boolean consumesAllPartitions = sharedInputChannels != null &&
+					inputs.length == consumedIntermediateResult.getNumberOfAssignedPartitions();
+
+			InputChannelDeploymentDescriptor[] partitions = consumesAllPartitions ? sharedInputChannels.get(resultId) : null;
+			if (partitions == null) {
+				partitions = InputChannelDeploymentDescriptor.fromPartitions(inputs, targetSlot, lazyScheduling);
+
+				if (consumesAllPartitions) {
+					sharedInputChannels.put(resultId, partitions);
+				}
+			}
+
+			consumedPartitions.add(new InputGateDeploymentDescriptor(
+				resultId, partitionType, queueToRequest, partitions, replayFromCheckpointId));
+		}
+
+		SerializedValue<JobInformation> serializedJobInformation = null;
+		BlobKey jobInformationBlobKey;
+
+		try {
+			jobInformationBlobKey = getExecutionGraph().getJobInformationBlobKey();
+		} catch (IOException e) {
+			throw new ExecutionGraphException("Could not offload the JobInformation to the blob server.", e);
+		}
+
+		if (jobInformationBlobKey == null) {
+			serializedJobInformation = getExecutionGraph().getSerializedJobInformation();
 		}
 
-		SerializedValue<JobInformation> serializedJobInformation = getExecutionGraph().getSerializedJobInformation();
 		SerializedValue<TaskInformation> serializedJobVertexInformation = null;
+		BlobKey taskInformationBlobKey;
 
 		try {
-			serializedJobVertexInformation = jobVertex.getSerializedTaskInformation();
+			taskInformationBlobKey = jobVertex.getTaskInformationBlobKey();
+			if (taskInformationBlobKey == null) {
+				serializedJobVertexInformation = jobVertex.getSerializedTaskInformation();
+			}
 		} catch (IOException e) {
 			throw new ExecutionGraphException(
 					"Could not create a serialized JobVertexInformation for " + jobVertex.getJobVertexId(), e);
 		}
 
 		return new TaskDeploymentDescriptor(
+			getJobId(),
 			serializedJobInformation,
+			jobInformationBlobKey,
 			serializedJobVertexInformation,
+			taskInformationBlobKey,
 			executionId,
 			targetSlot.getAllocatedSlot().getSlotAllocationId(),
 			subTaskIndex,
@@ -34,13 +34,14 @@ public class IntermediateResultPartition {
 
 	private final IntermediateResultPartitionID partitionId;
 
-	private List<List<ExecutionEdge>> consumers;
+	/** The consumer groups of this partition. All-to-all consumer groups are shared by all partitions of the result. */
+	private List<List<ExecutionVertex>> consumers;
 
 	public IntermediateResultPartition(IntermediateResult totalResult, ExecutionVertex producer, int partitionNumber) {
 		this.totalResult = totalResult;
 		this.producer = producer;
 		this.partitionNumber = partitionNumber;
-		this.consumers = new ArrayList<List<ExecutionEdge>>(0);
+		this.consumers = new ArrayList<List<ExecutionVertex>>(0);
 		this.partitionId = new IntermediateResultPartitionID();
 	}
 
@@ -64,7 +65,7 @@ public class IntermediateResultPartition {
 		return totalResult.getResultType();
 	}
 
-	public List<List<ExecutionEdge>> getConsumers() {
+	public List<List<ExecutionVertex>> getConsumers() {
 		return consumers;
 	}
 
@@ -80,12 +81,20 @@ public class IntermediateResultPartition {
 			throw new RuntimeException("Currently, each intermediate result can only have one consumer.");
 		}
 
-		consumers.add(new ArrayList<ExecutionEdge>());
+		consumers.add(new ArrayList<ExecutionVertex>());
 		return pos;
 	}
 
-	void addConsumer(ExecutionEdge edge, int consumerNumber) {
-		consumers.get(consumerNumber).add(edge);
+	void addConsumer(ExecutionVertex consumer, int consumerNumber) {
+		consumers.get(consumerNumber).add(consumer);
+	}
+
+	/**
+	 * Sets the consumers of the given consumer group. The list is shared with the other partitions
+	 * of the result which are consumed by the same all-to-all connection and must not be modified.
+	 */
+	void setConsumers(List<ExecutionVertex> consumerVertices, int consumerNumber) {
+		consumers.set(consumerNumber, consumerVertices);
 	}
 
 	boolean markFinished() {
@@ -0,0 +1,182 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.executiongraph;
+
+import org.apache.flink.annotation.VisibleForTesting;
+import org.apache.flink.runtime.execution.ExecutionState;
+import org.apache.flink.runtime.io.network.partition.ResultPartitionType;
+import org.apache.flink.runtime.jobgraph.JobVertexID;
+
+import org.slf4j.Logger;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+
+/**
+ * The speculative execution tracker watches the progress of the running tasks of a batch job and
+ * launches a speculative attempt of a subtask that falls far behind its parallel siblings, for
+ * example because it runs on a node with a degraded disk. Whichever attempt finishes first
+ * becomes the vertex's current execution and provides the result partitions, the other
+ * attempt is canceled.
+ *
+ * <p>The progress of a subtask is the number of records it has read and emitted, as reported
+ * by the {@link IOMetrics} of its running attempt with every TaskManager heartbeat, or of its
+ * finished attempt. A subtask is slow, if it runs for at least the minimum runtime and its progress
+ * is below a fraction of the median progress of all subtasks.
+ *
+ * <p>Only tasks which can be executed twice without side effects are speculated on: tasks
+ * without inputs (sources), whose results are all {@link ResultPartitionType#BLOCKING blocking}.
+ * Sinks are excluded because they write to external systems, and tasks with inputs are excluded
+ * because the partitions they consume can only be consumed once.
+ */
+public class SpeculativeExecutionTracker {
+
+	static final Logger LOG = ExecutionGraph.LOG;
+
+	/** The minimum time between two checks for slow subtasks of the same job vertex */
+	private static final long CHECK_INTERVAL_MILLIS = 1000L;
+
+	/** The fraction of the median progress below which a subtask is considered slow */
+	private final double slowTaskRatio;
+
+	/** The time that a subtask has to run before it can be considered slow */
+	private final long minRuntimeMillis;
+
+	/** The time of the last check, per job vertex */
+	private final Map<JobVertexID, Long> lastChecks = new HashMap<>();
+
+	public SpeculativeExecutionTracker(double slowTaskRatio, long minRuntimeMillis) {
+		checkArgument(slowTaskRatio > 0.0 && slowTaskRatio < 1.0, "The slow task ratio must be in (0, 1).");
+		checkArgument(minRuntimeMillis >= 0, "The minimum runtime must not be negative.");
+
+		this.slowTaskRatio = slowTaskRatio;
+		this.minRuntimeMillis = minRuntimeMillis;
+	}
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * Called when the progress of the given execution was updated. Checks the subtasks of the
+	 * execution's job vertex for slow subtasks and launches speculative attempts for them.
+	 *
+	 * @param execution The execution whose progress was updated.
+	 */
+	void onProgressUpdate(Execution execution) {
+		final ExecutionJobVertex jobVertex = execution.getVertex().getJobVertex();
+		final long now = System.currentTimeMillis();
+
+		synchronized (lastChecks) {
+			final Long lastCheck = lastChecks.get(jobVertex.getJobVertexId());
+			if (lastCheck != null && now - lastCheck < CHECK_INTERVAL_MILLIS) {
+				return;
+			}
+			lastChecks.put(jobVertex.getJobVertexId(), now);
+		}
+
+		if (isSpeculatable(jobVertex)) {
+			for (ExecutionVertex slowVertex : findSlowVertices(jobVertex, now)) {
+				if (slowVertex.launchSpeculativeExecution()) {
+					LOG.info("Launched a speculative attempt of slow task {}.",
+							slowVertex.getTaskNameWithSubtaskIndex());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Finds the subtasks of the given job vertex that run for at least the minimum runtime and
+	 * whose progress is below the slow task ratio of the median progress of all subtasks.
+	 */
+	@VisibleForTesting
+	ExecutionVertex[] findSlowVertices(ExecutionJobVertex jobVertex, long now) {
+		final ExecutionVertex[] vertices = jobVertex.getTaskVertices();
+		final long[] progress = new long[vertices.length];
+		int numWithProgress = 0;
+
+		for (ExecutionVertex vertex : vertices) {
+			final IOMetrics metrics = getProgressMetrics(vertex.getCurrentExecutionAttempt());
+			if (metrics != null) {
+				progress[numWithProgress++] = metrics.getNumRecordsOut();
+			}
+		}
+
+		// a straggler can only be recognized among several subtasks with progress
+		if (numWithProgress < 2) {
+			return new ExecutionVertex[0];
+		}
+
+		Arrays.sort(progress, 0, numWithProgress);
+		final long median = progress[numWithProgress / 2];
+		if (median <= 0) {
+			return new ExecutionVertex[0];
+		}
+
+		final ExecutionVertex[] slowVertices = new ExecutionVertex[vertices.length];
+		int numSlow = 0;
+
+		for (ExecutionVertex vertex : vertices) {
+			final Execution attempt = vertex.getCurrentExecutionAttempt();
+			if (attempt.getState() == ExecutionState.RUNNING &&
+					now - attempt.getStateTimestamp(ExecutionState.RUNNING) >= minRuntimeMillis) {
+
+				final IOMetrics metrics = attempt.getRunningIOMetrics();
+				final long recordsOut = metrics == null ? 0L : metrics.getNumRecordsOut();
+				if (recordsOut < slowTaskRatio * median) {
+					slowVertices[numSlow++] = vertex;
+				}
+			}
+		}
+
+		return Arrays.copyOf(slowVertices, numSlow);
+	}
+
+	/**
+	 * Checks whether subtasks of the given job vertex can be executed speculatively.
+	 */
+	static boolean isSpeculatable(ExecutionJobVertex jobVertex) {
+		final IntermediateResult[] results = jobVertex.getProducedDataSets();
+		if (!jobVertex.getJobVertex().isInputVertex() || results.length == 0 ||
+				jobVertex.getCoLocationGroup() != null) {
+			return false;
+		}
+
+		for (IntermediateResult result : results) {
+			if (result.getResultType() != ResultPartitionType.BLOCKING) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static IOMetrics getProgressMetrics(Execution attempt) {
+		final ExecutionState state = attempt.getState();
+		if (state == ExecutionState.RUNNING) {
+			return attempt.getRunningIOMetrics();
+		}
+		else if (state == ExecutionState.FINISHED) {
+			return attempt.getIOMetrics();
+		}
+		else {
+			return null;
+		}
+	}
+}
@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.executiongraph;
+
+import org.apache.flink.api.common.time.Time;
+import org.apache.flink.runtime.JobException;
+import org.apache.flink.runtime.concurrent.FutureUtils;
+import org.apache.flink.runtime.deployment.InputChannelDeploymentDescriptor;
+import org.apache.flink.runtime.deployment.TaskDeploymentDescriptor;
+import org.apache.flink.runtime.instance.SimpleSlot;
+import org.apache.flink.runtime.jobgraph.IntermediateDataSetID;
+import org.apache.flink.runtime.jobmanager.slots.TaskManagerGateway;
+import org.apache.flink.runtime.messages.Acknowledge;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * The executions which are deployed to one task manager with a single call.
+ *
+ * <p>The deployment descriptors of a batch are serialized together, such that the job and task
+ * information and the input channels which they share are only transferred once per batch.
+ */
+class TaskDeploymentBatch {
+
+	private final TaskManagerGateway taskManagerGateway;
+
+	private final List<Execution> executions = new ArrayList<>();
+
+	private final List<TaskDeploymentDescriptor> deploymentDescriptors = new ArrayList<>();
+
+	private final Map<IntermediateDataSetID, InputChannelDeploymentDescriptor[]> sharedInputChannels = new HashMap<>();
+
+	TaskDeploymentBatch(TaskManagerGateway taskManagerGateway) {
+		this.taskManagerGateway = checkNotNull(taskManagerGateway);
+	}
+
+	/**
+	 * Assigns the execution to the slot and adds its deployment descriptor to this batch.
+	 * The slot must belong to the task manager of this batch.
+	 */
+	void add(Execution execution, SimpleSlot slot) throws JobException {
+		final TaskDeploymentDescriptor deployment = execution.prepareDeployment(slot, sharedInputChannels);
+
+		if (deployment != null) {
+			executions.add(execution);
+			deploymentDescriptors.add(deployment);
+		}
+	}
+
+	/**
+	 * Submits all deployment descriptors of this batch. Each execution of the batch is failed if
+	 * its own submission fails, or if the submission of the batch as a whole fails.
+	 */
+	void submit(Time timeout) {
+		if (deploymentDescriptors.isEmpty()) {
+			return;
+		}
+
+		CompletableFuture<Map<ExecutionAttemptID, Throwable>> submitResultFuture;
+		try {
+			submitResultFuture = taskManagerGateway.submitTasks(deploymentDescriptors, timeout);
+		}
+		catch (Throwable t) {
+			submitResultFuture = FutureUtils.completedExceptionally(t);
+		}
+
+		for (Execution execution : executions) {
+			final CompletableFuture<Acknowledge> taskSubmitResultFuture = new CompletableFuture<>();
+
+			submitResultFuture.whenComplete(
+				(Map<ExecutionAttemptID, Throwable> failures, Throwable failure) -> {
+					final Throwable taskFailure = failure != null ? failure : failures.get(execution.getAttemptId());
+
+					if (taskFailure != null) {
+						taskSubmitResultFuture.completeExceptionally(taskFailure);
+					} else {
+						taskSubmitResultFuture.complete(Acknowledge.get());
+					}
+				});
+
+			execution.handleDeploymentResult(taskSubmitResultFuture);
+		}
+	}
+}
@@ -18,6 +18,7 @@
 
 package org.apache.flink.runtime.executiongraph.failover;
 
+import org.apache.flink.runtime.checkpoint.CheckpointCoordinator;
 import org.apache.flink.runtime.concurrent.FutureUtils;
 import org.apache.flink.runtime.executiongraph.Execution;
 import org.apache.flink.runtime.executiongraph.ExecutionGraph;
@@ -204,13 +205,18 @@ public class FailoverRegion {
 		try {
 			if (transitionState(JobStatus.CREATED, JobStatus.RUNNING)) {
 				// if we have checkpointed state, reload it into the executions
-				//TODO: checkpoint support restore part ExecutionVertex cp
-				/**
-				if (executionGraph.getCheckpointCoordinator() != null) {
-					executionGraph.getCheckpointCoordinator().restoreLatestCheckpointedState(
-							connectedExecutionVertexes, false, false);
+				long restoredCheckpointId = -1L;
+				final CheckpointCoordinator checkpointCoordinator = executionGraph.getCheckpointCoordinator();
+				if (checkpointCoordinator != null) {
+					restoredCheckpointId = checkpointCoordinator.restoreLatestCheckpointedState(
+							executionGraph.getAllVertices(), new HashSet<>(connectedExecutionVertexes), false);
 				}
-				*/
+
+				// producers which keep running replay their data from the barrier of the restored checkpoint
+				for (ExecutionVertex ev : connectedExecutionVertexes) {
+					ev.getCurrentExecutionAttempt().setReplayFromCheckpointId(restoredCheckpointId);
+				}
+
 				//TODO, use restart strategy to schedule them.
 				//restart all connected ExecutionVertexes
 				for (ExecutionVertex ev : connectedExecutionVertexes) {
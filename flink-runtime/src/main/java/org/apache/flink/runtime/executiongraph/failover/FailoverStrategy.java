@@ -70,6 +70,17 @@ public abstract class FailoverStrategy {
 	 */
 	public void registerMetrics(MetricGroup metricGroup) {}
 
+	/**
+	 * Checks whether the strategy restarts consumers of pipelined results without restarting
+	 * their producers. In that case, the producers have to retain the data of their pipelined
+	 * results so that it can be replayed to the restarted consumers.
+	 * 
+	 * <p>The default implementation returns false.
+	 */
+	public boolean requiresPipelinedResultReplay() {
+		return false;
+	}
+
 	// ------------------------------------------------------------------------
 	//  factory
 	// ------------------------------------------------------------------------
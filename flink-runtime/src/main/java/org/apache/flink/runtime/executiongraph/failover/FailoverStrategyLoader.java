@@ -41,6 +41,9 @@ public class FailoverStrategyLoader {
 	/** Config name for the {@link RestartPipelinedRegionStrategy} */
 	public static final String PIPELINED_REGION_RESTART_STRATEGY_NAME = "region";
 
+	/** Config name for the {@link RestartWithUpstreamReplayStrategy} */
+	public static final String UPSTREAM_REPLAY_RESTART_STRATEGY_NAME = "upstream-replay";
+
 	// ------------------------------------------------------------------------
 
 	/**
@@ -68,6 +71,9 @@ public class FailoverStrategyLoader {
 				case INDIVIDUAL_RESTART_STRATEGY_NAME:
 					return new RestartIndividualStrategy.Factory();
 
+				case UPSTREAM_REPLAY_RESTART_STRATEGY_NAME:
+					return new RestartWithUpstreamReplayStrategy.Factory();
+
 				default:
 					// we could interpret the parameter as a factory class name and instantiate that
 					// for now we simply do not support this
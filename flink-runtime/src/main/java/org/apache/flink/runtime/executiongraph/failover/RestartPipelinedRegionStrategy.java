@@ -20,11 +20,11 @@ package org.apache.flink.runtime.executiongraph.failover;
 
 import org.apache.flink.annotation.VisibleForTesting;
 import org.apache.flink.runtime.executiongraph.Execution;
-import org.apache.flink.runtime.executiongraph.ExecutionEdge;
 import org.apache.flink.runtime.executiongraph.ExecutionJobVertex;
 import org.apache.flink.runtime.executiongraph.ExecutionVertex;
 import org.apache.flink.runtime.executiongraph.ExecutionGraph;
 import org.apache.flink.runtime.executiongraph.IntermediateResult;
+import org.apache.flink.runtime.executiongraph.IntermediateResultPartition;
 import org.apache.flink.util.FlinkException;
 import org.apache.flink.util.FlinkRuntimeException;
 
@@ -124,7 +124,8 @@ public class RestartPipelinedRegionStrategy extends FailoverStrategy {
 		// we use the map (list -> null) to imitate an IdentityHashSet (which does not exist)
 		final IdentityHashMap<ArrayList<ExecutionVertex>, Object> distinctRegions = new IdentityHashMap<>();
 
-		// this loop will worst case iterate over every edge in the graph (complexity is O(#edges))
+		// this loop will worst case iterate over every edge in the graph (complexity is O(#edges)),
+		// except for all-to-all inputs whose edges are only iterated for the first subtask
 		
 		for (ExecutionJobVertex ejv : newJobVerticesTopological) {
 
@@ -148,6 +149,9 @@ public class RestartPipelinedRegionStrategy extends FailoverStrategy {
 			}
 
 			if (hasPipelinedInputs) {
+				// the partitions of each input which are already in the region of a previous subtask
+				final IntermediateResultPartition[][] mergedInputs = new IntermediateResultPartition[numInputs][];
+
 				// build upon the predecessors
 				for (ExecutionVertex ev : ejv.getTaskVertices()) {
 
@@ -157,8 +161,16 @@ public class RestartPipelinedRegionStrategy extends FailoverStrategy {
 					for (int inputNum = 0; inputNum < numInputs; inputNum++) {
 						if (inputs.get(inputNum).getResultType().isPipelined()) {
 
-							for (ExecutionEdge edge : ev.getInputEdges(inputNum)) {
-								final ExecutionVertex predecessor = edge.getSource().getProducer();
+							final IntermediateResultPartition[] consumedPartitions = ev.getConsumedPartitions(inputNum);
+
+							// subtasks of all-to-all inputs share the consumed partitions. After the first subtask,
+							// all producers are in one region and it suffices to join the region of the first one
+							final int numPartitionsToVisit = consumedPartitions == mergedInputs[inputNum] ?
+									Math.min(1, consumedPartitions.length) : consumedPartitions.length;
+							mergedInputs[inputNum] = consumedPartitions;
+
+							for (int i = 0; i < numPartitionsToVisit; i++) {
+								final ExecutionVertex predecessor = consumedPartitions[i].getProducer();
 								final ArrayList<ExecutionVertex> predecessorRegion = vertexToRegion.get(predecessor);
 
 								if (thisRegion != null) {
@@ -0,0 +1,226 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.executiongraph.failover;
+
+import org.apache.flink.annotation.VisibleForTesting;
+import org.apache.flink.runtime.checkpoint.CheckpointCoordinator;
+import org.apache.flink.runtime.executiongraph.Execution;
+import org.apache.flink.runtime.executiongraph.ExecutionGraph;
+import org.apache.flink.runtime.executiongraph.ExecutionJobVertex;
+import org.apache.flink.runtime.executiongraph.ExecutionVertex;
+import org.apache.flink.runtime.executiongraph.IntermediateResultPartition;
+import org.apache.flink.runtime.io.network.partition.ResultPartitionProvider;
+import org.apache.flink.runtime.jobgraph.JobStatus;
+import org.apache.flink.util.FlinkException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * A failover strategy that restarts only the failed task and the tasks downstream of it. The
+ * restarted tasks resume from the latest completed checkpoint, and the producers upstream of them
+ * replay the data of their pipelined results since that checkpoint, instead of being restarted
+ * as well.
+ *
+ * <p>To that end, the pipelined result partitions of the job retain their consumed buffers until
+ * the next checkpoint completes (see {@link #requiresPipelinedResultReplay()}). The restarted
+ * tasks request the replay from the checkpoint which they restored, and the producers replay
+ * exactly the data following the barrier of that checkpoint. Hence, no record is processed twice
+ * or skipped, and the restarted tasks do not have to de-duplicate their input.
+ *
+ * <p>If a producer cannot replay its data (for example because it exceeded its retention limit
+ * since the last checkpoint), the restarted consumer fails again when requesting the partition.
+ * Such repeated failures of restarted tasks before another checkpoint completes, jobs with
+ * co-location constraints, and failures that overlap with an ongoing restart of another part
+ * of the job fall back to a global failover.
+ */
+public class RestartWithUpstreamReplayStrategy extends FailoverStrategy {
+
+	/** The log object used for debugging. */
+	private static final Logger LOG = LoggerFactory.getLogger(RestartWithUpstreamReplayStrategy.class);
+
+	/** The execution graph on which this FailoverStrategy works */
+	private final ExecutionGraph executionGraph;
+
+	/** The executor used for future actions */
+	private final Executor executor;
+
+	/** The regions that have been restarted by this strategy, by the vertices they contain */
+	private final HashMap<ExecutionVertex, FailoverRegion> vertexToRegion;
+
+	/**
+	 * Creates a new failover strategy that restarts the downstream tasks of failed tasks and
+	 * uses the execution graph's future executor to call restart actions.
+	 *
+	 * @param executionGraph The execution graph on which this FailoverStrategy will work
+	 */
+	public RestartWithUpstreamReplayStrategy(ExecutionGraph executionGraph) {
+		this(executionGraph, executionGraph.getFutureExecutor());
+	}
+
+	/**
+	 * Creates a new failover strategy that restarts the downstream tasks of failed tasks and
+	 * uses the given executor to call restart actions.
+	 *
+	 * @param executionGraph The execution graph on which this FailoverStrategy will work
+	 * @param executor  The executor used for future actions
+	 */
+	public RestartWithUpstreamReplayStrategy(ExecutionGraph executionGraph, Executor executor) {
+		this.executionGraph = checkNotNull(executionGraph);
+		this.executor = checkNotNull(executor);
+		this.vertexToRegion = new HashMap<>();
+	}
+
+	// ------------------------------------------------------------------------
+	//  failover implementation
+	// ------------------------------------------------------------------------
+
+	@Override
+	public void onTaskFailure(Execution taskExecution, Throwable cause) {
+		final ExecutionVertex failedVertex = taskExecution.getVertex();
+
+		// the checkpoint which the failed execution restored, if it was restarted by this strategy
+		final long restoredCheckpointId = taskExecution.getReplayFromCheckpointId();
+		if (restoredCheckpointId != ResultPartitionProvider.NO_REPLAY &&
+				restoredCheckpointId == getLatestCompletedCheckpointId()) {
+			executionGraph.failGlobal(new FlinkException(
+					"Task " + failedVertex.getTaskNameWithSubtaskIndex() + " failed again after being restarted " +
+					"individually, before another checkpoint completed.", cause));
+			return;
+		}
+
+		final List<ExecutionVertex> downstreamVertices = getDownstreamVertices(failedVertex);
+
+		for (ExecutionVertex ev : downstreamVertices) {
+			if (ev.getJobVertex().getCoLocationGroup() != null) {
+				executionGraph.failGlobal(new FlinkException(
+						"Cannot restart task " + failedVertex.getTaskNameWithSubtaskIndex() +
+						" individually, since its downstream tasks have co-location constraints.", cause));
+				return;
+			}
+
+			final FailoverRegion region = vertexToRegion.get(ev);
+			if (region != null && region.getState() != JobStatus.RUNNING) {
+				executionGraph.failGlobal(new FlinkException(
+						"Cannot restart task " + failedVertex.getTaskNameWithSubtaskIndex() +
+						" individually, since its downstream task " + ev.getTaskNameWithSubtaskIndex() +
+						" is being restarted already.", cause));
+				return;
+			}
+		}
+
+		LOG.info("Recovering task failure for {} #{} ({}) via restart of {} downstream tasks with upstream replay",
+				failedVertex.getTaskNameWithSubtaskIndex(),
+				taskExecution.getAttemptNumber(),
+				taskExecution.getAttemptId(),
+				downstreamVertices.size());
+
+		final FailoverRegion region = new FailoverRegion(executionGraph, executor, downstreamVertices);
+		for (ExecutionVertex ev : downstreamVertices) {
+			vertexToRegion.put(ev, region);
+		}
+
+		region.onExecutionFail(taskExecution, cause);
+	}
+
+	@Override
+	public void notifyNewVertices(List<ExecutionJobVertex> newJobVerticesTopological) {
+		// the restarted vertices are determined on failure
+	}
+
+	@Override
+	public String getStrategyName() {
+		return "Downstream Failover with Upstream Replay";
+	}
+
+	@Override
+	public boolean requiresPipelinedResultReplay() {
+		return true;
+	}
+
+	private long getLatestCompletedCheckpointId() {
+		final CheckpointCoordinator checkpointCoordinator = executionGraph.getCheckpointCoordinator();
+
+		if (checkpointCoordinator != null) {
+			try {
+				return checkpointCoordinator.getLatestCompletedCheckpointId();
+			}
+			catch (Exception e) {
+				LOG.warn("Could not retrieve the latest completed checkpoint.", e);
+			}
+		}
+
+		return -1L;
+	}
+
+	/**
+	 * Collects the given vertex and all vertices that (transitively) consume its results.
+	 */
+	@VisibleForTesting
+	public static List<ExecutionVertex> getDownstreamVertices(ExecutionVertex vertex) {
+		final List<ExecutionVertex> downstreamVertices = new ArrayList<>();
+		final Set<ExecutionVertex> visited = new HashSet<>();
+		final ArrayDeque<ExecutionVertex> queue = new ArrayDeque<>();
+
+		visited.add(vertex);
+		queue.add(vertex);
+
+		ExecutionVertex current;
+		while ((current = queue.poll()) != null) {
+			downstreamVertices.add(current);
+
+			for (IntermediateResultPartition partition : current.getProducedPartitions().values()) {
+				for (List<ExecutionVertex> consumers : partition.getConsumers()) {
+					for (ExecutionVertex consumer : consumers) {
+						if (visited.add(consumer)) {
+							queue.add(consumer);
+						}
+					}
+				}
+			}
+		}
+
+		return downstreamVertices;
+	}
+
+	// ------------------------------------------------------------------------
+	//  factory
+	// ------------------------------------------------------------------------
+
+	/**
+	 * Factory that instantiates the RestartWithUpstreamReplayStrategy.
+	 */
+	public static class Factory implements FailoverStrategy.Factory {
+
+		@Override
+		public FailoverStrategy create(ExecutionGraph executionGraph) {
+			return new RestartWithUpstreamReplayStrategy(executionGraph);
+		}
+	}
+}
@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.executiongraph.metrics;
+
+import org.apache.flink.metrics.Gauge;
+import org.apache.flink.runtime.executiongraph.ExecutionGraph;
+import org.apache.flink.runtime.jobmanager.scheduler.Locality;
+
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * Gauge which returns the number of slots that were assigned to task executions with a certain
+ * {@link Locality}.
+ */
+public class SlotLocalityGauge implements Gauge<Long> {
+
+	private final ExecutionGraph eg;
+
+	private final Locality locality;
+
+	public SlotLocalityGauge(ExecutionGraph executionGraph, Locality locality) {
+		this.eg = checkNotNull(executionGraph);
+		this.locality = checkNotNull(locality);
+	}
+
+	// ------------------------------------------------------------------------
+
+	@Override
+	public Long getValue() {
+		return eg.getNumberOfSlotAssignments(locality);
+	}
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * Gets the name of the metric which counts the slot assignments with the given locality.
+	 */
+	public static String getMetricName(Locality locality) {
+		switch (locality) {
+			case UNCONSTRAINED:
+				return "unconstrainedSlotAssignments";
+			case LOCAL:
+				return "localSlotAssignments";
+			case HOST_LOCAL:
+				return "hostLocalSlotAssignments";
+			case NON_LOCAL:
+				return "nonLocalSlotAssignments";
+			case UNKNOWN:
+				return "unknownLocalitySlotAssignments";
+			default:
+				throw new IllegalArgumentException("Unknown locality " + locality);
+		}
+	}
+}
@@ -26,6 +26,7 @@ import org.apache.flink.runtime.clusterframework.types.AllocationID;
 import org.apache.flink.runtime.clusterframework.types.ResourceID;
 import org.apache.flink.runtime.clusterframework.types.ResourceProfile;
 import org.apache.flink.runtime.concurrent.FutureUtils;
+import org.apache.flink.runtime.executiongraph.ExecutionVertex;
 import org.apache.flink.runtime.jobmanager.scheduler.Locality;
 import org.apache.flink.runtime.jobmanager.scheduler.NoResourceAvailableException;
 import org.apache.flink.runtime.jobmanager.scheduler.ScheduledUnit;
@@ -46,6 +47,8 @@ import org.apache.flink.runtime.util.clock.SystemClock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
+
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -266,9 +269,10 @@ public class SlotPool extends RpcEndpoint implements SlotPoolGateway {
 			ScheduledUnit task,
 			ResourceProfile resources,
 			Iterable<TaskManagerLocation> locationPreferences,
+			@Nullable AllocationID preferredAllocation,
 			Time timeout) {
 
-		return internalAllocateSlot(task, resources, locationPreferences);
+		return internalAllocateSlot(task, resources, locationPreferences, preferredAllocation);
 	}
 
 	@Override
@@ -280,10 +284,11 @@ public class SlotPool extends RpcEndpoint implements SlotPoolGateway {
 	CompletableFuture<SimpleSlot> internalAllocateSlot(
 			ScheduledUnit task,
 			ResourceProfile resources,
-			Iterable<TaskManagerLocation> locationPreferences) {
+			Iterable<TaskManagerLocation> locationPreferences,
+			@Nullable AllocationID preferredAllocation) {
 
 		// (1) do we have a slot available already?
-		SlotAndLocality slotFromPool = availableSlots.poll(resources, locationPreferences);
+		SlotAndLocality slotFromPool = availableSlots.poll(resources, preferredAllocation, locationPreferences);
 		if (slotFromPool != null) {
 			SimpleSlot slot = createSimpleSlot(slotFromPool.slot(), slotFromPool.locality());
 			allocatedSlots.add(slot);
@@ -840,20 +845,34 @@ public class SlotPool extends RpcEndpoint implements SlotPoolGateway {
 		}
 
 		/**
-		 * Poll a slot which matches the required resource profile. The polling tries to satisfy the
-		 * location preferences, by TaskManager and by host.
+		 * Poll a slot which matches the required resource profile. The polling first tries to get
+		 * the preferred slot and then to satisfy the location preferences, by TaskManager and by host.
 		 *
 		 * @param resourceProfile      The required resource profile.
+		 * @param preferredAllocation  The allocation of the preferred slot, or null if there is none.
 		 * @param locationPreferences  The location preferences, in order to be checked.
 		 * 
 		 * @return Slot which matches the resource profile, null if we can't find a match
 		 */
-		SlotAndLocality poll(ResourceProfile resourceProfile, Iterable<TaskManagerLocation> locationPreferences) {
+		SlotAndLocality poll(
+				ResourceProfile resourceProfile,
+				@Nullable AllocationID preferredAllocation,
+				Iterable<TaskManagerLocation> locationPreferences) {
+
 			// fast path if no slots are available
 			if (availableSlots.isEmpty()) {
 				return null;
 			}
 
+			// the slot which the task used before, so that it finds its local state and caches again
+			if (preferredAllocation != null) {
+				final SlotAndTimestamp preferred = availableSlots.get(preferredAllocation);
+				if (preferred != null && preferred.slot().getResourceProfile().isMatching(resourceProfile)) {
+					remove(preferredAllocation);
+					return new SlotAndLocality(preferred.slot(), Locality.LOCAL);
+				}
+			}
+
 			boolean hadLocationPreference = false;
 
 			if (locationPreferences != null) {
@@ -1003,10 +1022,11 @@ public class SlotPool extends RpcEndpoint implements SlotPoolGateway {
 
 		@Override
 		public CompletableFuture<SimpleSlot> allocateSlot(ScheduledUnit task, boolean allowQueued) {
-			Iterable<TaskManagerLocation> locationPreferences = 
-					task.getTaskToExecute().getVertex().getPreferredLocations();
+			final ExecutionVertex vertex = task.getTaskToExecute().getVertex();
+			Iterable<TaskManagerLocation> locationPreferences = vertex.getPreferredLocations();
+			AllocationID preferredAllocation = vertex.getPreferredAllocationBasedOnState();
 
-			return gateway.allocateSlot(task, ResourceProfile.UNKNOWN, locationPreferences, timeout);
+			return gateway.allocateSlot(task, ResourceProfile.UNKNOWN, locationPreferences, preferredAllocation, timeout);
 		}
 	}
 
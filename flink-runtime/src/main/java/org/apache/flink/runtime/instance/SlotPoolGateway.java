@@ -32,6 +32,8 @@ import org.apache.flink.runtime.rpc.RpcTimeout;
 import org.apache.flink.runtime.taskexecutor.slot.SlotOffer;
 import org.apache.flink.runtime.taskmanager.TaskManagerLocation;
 
+import javax.annotation.Nullable;
+
 import java.util.Collection;
 import java.util.concurrent.CompletableFuture;
 
@@ -89,6 +91,7 @@ public interface SlotPoolGateway extends RpcGateway {
 			ScheduledUnit task,
 			ResourceProfile resources,
 			Iterable<TaskManagerLocation> locationPreferences,
+			@Nullable AllocationID preferredAllocation,
 			@RpcTimeout Time timeout);
 
 	void returnAllocatedSlot(Slot slot);
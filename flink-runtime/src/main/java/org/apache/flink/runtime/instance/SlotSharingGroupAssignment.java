@@ -275,9 +275,16 @@ public class SlotSharingGroupAssignment {
 	}
 
 	/**
-	 * 
+	 * Gets a slot suitable for a task of the given job vertex. This method will prefer slots that are
+	 * local with respect to the given location preferences, but will return non local slots if no
+	 * local slot is available.
+	 *
+	 * @param vertexID The ID of the job vertex to allocate a slot for.
+	 * @param locationPreferences The preferred locations, in order. May be null or empty.
+	 *
+	 * @return A slot for a task of the given job vertex, or null, if none is available.
 	 */
-	SimpleSlot getSlotForTask(JobVertexID vertexID, Iterable<TaskManagerLocation> locationPreferences) {
+	public SimpleSlot getSlotForTask(JobVertexID vertexID, Iterable<TaskManagerLocation> locationPreferences) {
 		synchronized (lock) {
 			Tuple2<SharedSlot, Locality> p = getSlotForTaskInternal(vertexID, locationPreferences, false);
 
@@ -316,7 +323,13 @@ public class SlotSharingGroupAssignment {
 		return getSlotForTask(constraint, vertex.getPreferredLocationsBasedOnInputs());
 	}
 	
-	SimpleSlot getSlotForTask(CoLocationConstraint constraint, Iterable<TaskManagerLocation> locationPreferences) {
+	/**
+	 * Gets a slot for a task that has a co-location constraint, preferring the given locations
+	 * if the constraint has not yet been assigned a location.
+	 *
+	 * @see #getSlotForTask(ExecutionVertex, CoLocationConstraint)
+	 */
+	public SimpleSlot getSlotForTask(CoLocationConstraint constraint, Iterable<TaskManagerLocation> locationPreferences) {
 		synchronized (lock) {
 			if (constraint.isAssignedAndAlive()) {
 				// the shared slot of the co-location group is initialized and set we allocate a sub-slot
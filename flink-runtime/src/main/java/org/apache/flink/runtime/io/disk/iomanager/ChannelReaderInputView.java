@@ -32,6 +32,13 @@ import org.apache.flink.runtime.memory.AbstractPagedInputView;
  * {@link BlockChannelReader}, making it effectively a data input
  * stream. The view reads it data in blocks from the underlying channel. The view can only read data that
  * has been written by a {@link ChannelWriterOutputView}, due to block formatting.
+ *
+ * <p>Consumed segments are not immediately sent back to the reader. Instead, the view collects them and
+ * issues the read requests for half of its segments at once. The requests for consecutive blocks of the
+ * channel are thereby queued together and served as one sequential run, rather than interleaved with the
+ * requests of other channels that are read concurrently, for example in a merge. The more memory a view
+ * has, the longer these runs become. The sorters therefore limit the number of channels they merge at
+ * once, such that each channel gets several segments.
  */
 public class ChannelReaderInputView extends AbstractPagedInputView {
 	
@@ -43,6 +50,10 @@ public class ChannelReaderInputView extends AbstractPagedInputView {
 	
 	private final ArrayList<MemorySegment> freeMem;	// memory gathered once the work is done
 	
+	private final int readBatchSize;				// the number of segments for which requests are issued together
+	
+	private final ArrayList<MemorySegment> pendingRequests;	// consumed segments that wait for their read request
+	
 	private boolean inLastBlock;					// flag indicating whether the view is already in the last block
 	
 	private boolean closed;							// flag indicating whether the reader is closed
@@ -137,6 +148,9 @@ public class ChannelReaderInputView extends AbstractPagedInputView {
 		this.numRequestsRemaining = numBlocks;
 		this.numSegments = memory.size();
 		this.freeMem = new ArrayList<MemorySegment>(this.numSegments);
+		// at least half of the segments remain requested, so that the view never waits for unsent requests
+		this.readBatchSize = Math.max(1, this.numSegments / 2);
+		this.pendingRequests = new ArrayList<MemorySegment>(this.readBatchSize);
 		
 		for (int i = 0; i < memory.size(); i++) {
 			sendReadRequest(memory.get(i));
@@ -172,6 +186,8 @@ public class ChannelReaderInputView extends AbstractPagedInputView {
 		
 		// re-collect all memory segments
 		ArrayList<MemorySegment> list = this.freeMem;
+		list.addAll(this.pendingRequests);
+		this.pendingRequests.clear();
 		final MemorySegment current = getCurrentSegment();
 		if (current != null) {
 			list.add(current);
@@ -221,7 +237,7 @@ public class ChannelReaderInputView extends AbstractPagedInputView {
 		// send a request first. if we have only a single segment, this same segment will be the one obtained in
 		// the next lines
 		if (current != null) {
-			sendReadRequest(current);
+			sendBatchedReadRequest(current);
 		}
 		
 		// get the next segment
@@ -247,6 +263,31 @@ public class ChannelReaderInputView extends AbstractPagedInputView {
 		return segment.getInt(ChannelWriterOutputView.HEAD_BLOCK_LENGTH_OFFSET);
 	}
 	
+	/**
+	 * Collects the segment for a read request. Once enough segments are collected, or if the
+	 * remaining blocks of the channel can be requested, the read requests for all collected segments
+	 * are sent together.
+	 * 
+	 * @param seg The segment to use for the read request.
+	 * @throws IOException Thrown, if the reader is in error.
+	 */
+	private void sendBatchedReadRequest(MemorySegment seg) throws IOException {
+		if (this.numRequestsRemaining == 0) {
+			this.freeMem.add(seg);
+			return;
+		}
+		
+		this.pendingRequests.add(seg);
+		if (this.pendingRequests.size() >= this.readBatchSize ||
+				(this.numRequestsRemaining != -1 && this.pendingRequests.size() >= this.numRequestsRemaining))
+		{
+			for (int i = 0; i < this.pendingRequests.size(); i++) {
+				sendReadRequest(this.pendingRequests.get(i));
+			}
+			this.pendingRequests.clear();
+		}
+	}
+	
 	/**
 	 * Sends a new read requests, if further requests remain. Otherwise, this method adds the segment
 	 * directly to the readers return queue.
@@ -147,13 +147,13 @@ public abstract class IOManager {
 	}
 
 	/**
-	 * Creates a new {@link FileIOChannel.Enumerator}, spreading the channels in a round-robin fashion
-	 * across the temporary file directories.
+	 * Creates a new {@link FileIOChannel.Enumerator}, spreading the channels across the temporary
+	 * file directories in the same way as {@link #createChannel()}.
 	 *
 	 * @return An enumerator for channels.
 	 */
 	public FileIOChannel.Enumerator createChannelEnumerator() {
-		return new FileIOChannel.Enumerator(this.paths, this.random);
+		return new FileIOChannel.Enumerator(this, this.random);
 	}
 
 	/**
@@ -296,6 +296,12 @@ public abstract class IOManager {
 		return strings;
 	}
 	
+	/**
+	 * Gets the index of the directory for the next channel. This implementation cycles through
+	 * the directories in a round-robin fashion.
+	 *
+	 * @return The index of the directory for the next channel.
+	 */
 	protected int getNextPathNum() {
 		final int next = this.nextPath;
 		final int newNext = next + 1;
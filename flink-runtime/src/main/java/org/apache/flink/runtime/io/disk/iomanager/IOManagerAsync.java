@@ -21,20 +21,29 @@ package org.apache.flink.runtime.io.disk.iomanager;
 import org.apache.flink.core.memory.MemorySegment;
 import org.apache.flink.runtime.io.network.buffer.Buffer;
 import org.apache.flink.runtime.util.EnvironmentInformation;
+import org.apache.flink.util.MathUtils;
 
+import java.io.File;
 import java.io.IOException;
 import java.lang.Thread.UncaughtExceptionHandler;
 import java.util.List;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import static org.apache.flink.util.Preconditions.checkArgument;
 import static org.apache.flink.util.Preconditions.checkState;
 
 /**
  * A version of the {@link IOManager} that uses asynchronous I/O.
  */
 public class IOManagerAsync extends IOManager implements UncaughtExceptionHandler {
-	
+
+	/** Directories with less usable space than this are skipped when placing new channels. */
+	private static final long MIN_USABLE_SPACE_FOR_NEW_CHANNELS = 64L * 1024 * 1024;
+
+	/** The number of reader and of writer threads per directory. */
+	private final int threadsPerDirectory;
+
 	/** The writer threads used for asynchronous block oriented channel writing. */
 	private final WriterThread[] writers;
 
@@ -69,15 +78,28 @@ public class IOManagerAsync extends IOManager implements UncaughtExceptionHandle
 	}
 
 	/**
-	 * Constructs a new asynchronous I/O manger, writing file round robin across the given directories.
+	 * Constructs a new asynchronous I/O manger, writing file across the given directories.
 	 * 
 	 * @param tempDirs The directories to write temporary files to.
 	 */
 	public IOManagerAsync(String[] tempDirs) {
+		this(tempDirs, 1);
+	}
+
+	/**
+	 * Constructs a new asynchronous I/O manger, writing file across the given directories. New
+	 * channels are placed in the directory with the fewest pending requests that has usable space left.
+	 *
+	 * @param tempDirs The directories to write temporary files to.
+	 * @param threadsPerDirectory The number of reader and of writer threads for each directory.
+	 */
+	public IOManagerAsync(String[] tempDirs, int threadsPerDirectory) {
 		super(tempDirs);
-		
-		// start a write worker thread for each directory
-		this.writers = new WriterThread[tempDirs.length];
+		checkArgument(threadsPerDirectory > 0, "The number of threads per directory must be positive.");
+		this.threadsPerDirectory = threadsPerDirectory;
+
+		// start the write worker threads for each directory
+		this.writers = new WriterThread[tempDirs.length * threadsPerDirectory];
 		for (int i = 0; i < this.writers.length; i++) {
 			final WriterThread t = new WriterThread();
 			this.writers[i] = t;
@@ -87,8 +109,8 @@ public class IOManagerAsync extends IOManager implements UncaughtExceptionHandle
 			t.start();
 		}
 
-		// start a reader worker thread for each directory
-		this.readers = new ReaderThread[tempDirs.length];
+		// start the reader worker threads for each directory
+		this.readers = new ReaderThread[tempDirs.length * threadsPerDirectory];
 		for (int i = 0; i < this.readers.length; i++) {
 			final ReaderThread t = new ReaderThread();
 			this.readers[i] = t;
@@ -223,13 +245,13 @@ public class IOManagerAsync extends IOManager implements UncaughtExceptionHandle
 								LinkedBlockingQueue<MemorySegment> returnQueue) throws IOException
 	{
 		checkState(!isShutdown.get(), "I/O-Manger is shut down.");
-		return new AsynchronousBlockWriter(channelID, this.writers[channelID.getThreadNum()].requestQueue, returnQueue);
+		return new AsynchronousBlockWriter(channelID, this.writers[getThreadIndex(channelID)].requestQueue, returnQueue);
 	}
 	
 	@Override
 	public BlockChannelWriterWithCallback<MemorySegment> createBlockChannelWriter(FileIOChannel.ID channelID, RequestDoneCallback<MemorySegment> callback) throws IOException {
 		checkState(!isShutdown.get(), "I/O-Manger is shut down.");
-		return new AsynchronousBlockWriterWithCallback(channelID, this.writers[channelID.getThreadNum()].requestQueue, callback);
+		return new AsynchronousBlockWriterWithCallback(channelID, this.writers[getThreadIndex(channelID)].requestQueue, callback);
 	}
 	
 	/**
@@ -247,28 +269,28 @@ public class IOManagerAsync extends IOManager implements UncaughtExceptionHandle
 										LinkedBlockingQueue<MemorySegment> returnQueue) throws IOException
 	{
 		checkState(!isShutdown.get(), "I/O-Manger is shut down.");
-		return new AsynchronousBlockReader(channelID, this.readers[channelID.getThreadNum()].requestQueue, returnQueue);
+		return new AsynchronousBlockReader(channelID, this.readers[getThreadIndex(channelID)].requestQueue, returnQueue);
 	}
 
 	@Override
 	public BufferFileWriter createBufferFileWriter(FileIOChannel.ID channelID) throws IOException {
 		checkState(!isShutdown.get(), "I/O-Manger is shut down.");
 
-		return new AsynchronousBufferFileWriter(channelID, writers[channelID.getThreadNum()].requestQueue);
+		return new AsynchronousBufferFileWriter(channelID, writers[getThreadIndex(channelID)].requestQueue);
 	}
 
 	@Override
 	public BufferFileReader createBufferFileReader(FileIOChannel.ID channelID, RequestDoneCallback<Buffer> callback) throws IOException {
 		checkState(!isShutdown.get(), "I/O-Manger is shut down.");
 
-		return new AsynchronousBufferFileReader(channelID, readers[channelID.getThreadNum()].requestQueue, callback);
+		return new AsynchronousBufferFileReader(channelID, readers[getThreadIndex(channelID)].requestQueue, callback);
 	}
 
 	@Override
 	public BufferFileSegmentReader createBufferFileSegmentReader(FileIOChannel.ID channelID, RequestDoneCallback<FileSegment> callback) throws IOException {
 		checkState(!isShutdown.get(), "I/O-Manger is shut down.");
 
-		return new AsynchronousBufferFileSegmentReader(channelID, readers[channelID.getThreadNum()].requestQueue, callback);
+		return new AsynchronousBufferFileSegmentReader(channelID, readers[getThreadIndex(channelID)].requestQueue, callback);
 	}
 
 	/**
@@ -291,19 +313,124 @@ public class IOManagerAsync extends IOManager implements UncaughtExceptionHandle
 			List<MemorySegment> targetSegments, int numBlocks) throws IOException
 	{
 		checkState(!isShutdown.get(), "I/O-Manger is shut down.");
-		return new AsynchronousBulkBlockReader(channelID, this.readers[channelID.getThreadNum()].requestQueue, targetSegments, numBlocks);
+		return new AsynchronousBulkBlockReader(channelID, this.readers[getThreadIndex(channelID)].requestQueue, targetSegments, numBlocks);
 	}
 	
+	// ------------------------------------------------------------------------
+	//                     Channel Placement and Statistics
+	// ------------------------------------------------------------------------
+
+	/**
+	 * Gets the index of the directory for the next channel. This is the directory with the fewest
+	 * pending read and write requests among those with usable space left. Ties are broken in a
+	 * round-robin fashion.
+	 *
+	 * @return The index of the directory for the next channel.
+	 */
+	@Override
+	protected int getNextPathNum() {
+		final int next = super.getNextPathNum();
+		final File[] paths = getSpillingDirectories();
+		if (paths.length == 1) {
+			return next;
+		}
+
+		int best = -1;
+		int bestQueueLength = Integer.MAX_VALUE;
+		for (int i = 0; i < paths.length; i++) {
+			final int num = (next + i) % paths.length;
+			if (paths[num].getUsableSpace() < MIN_USABLE_SPACE_FOR_NEW_CHANNELS) {
+				continue;
+			}
+
+			final int queueLength = getReadQueueLength(num) + getWriteQueueLength(num);
+			if (queueLength < bestQueueLength) {
+				best = num;
+				bestQueueLength = queueLength;
+			}
+		}
+
+		// if all directories are (almost) full, the round-robin choice is as good as any
+		return best >= 0 ? best : next;
+	}
+
+	/**
+	 * Gets the number of pending read requests for the given directory.
+	 *
+	 * @param pathNum The index of the directory, as in {@link #getSpillingDirectories()}.
+	 * @return The number of pending read requests.
+	 */
+	public int getReadQueueLength(int pathNum) {
+		int length = 0;
+		for (int i = pathNum * threadsPerDirectory; i < (pathNum + 1) * threadsPerDirectory; i++) {
+			length += readers[i].requestQueue.size();
+		}
+		return length;
+	}
+
+	/**
+	 * Gets the number of pending write requests for the given directory.
+	 *
+	 * @param pathNum The index of the directory, as in {@link #getSpillingDirectories()}.
+	 * @return The number of pending write requests.
+	 */
+	public int getWriteQueueLength(int pathNum) {
+		int length = 0;
+		for (int i = pathNum * threadsPerDirectory; i < (pathNum + 1) * threadsPerDirectory; i++) {
+			length += writers[i].requestQueue.size();
+		}
+		return length;
+	}
+
+	/**
+	 * Gets the number of read requests that were served for the given directory.
+	 *
+	 * @param pathNum The index of the directory, as in {@link #getSpillingDirectories()}.
+	 * @return The number of served read requests.
+	 */
+	public long getNumReadRequests(int pathNum) {
+		long num = 0;
+		for (int i = pathNum * threadsPerDirectory; i < (pathNum + 1) * threadsPerDirectory; i++) {
+			num += readers[i].numServedRequests;
+		}
+		return num;
+	}
+
+	/**
+	 * Gets the number of write requests that were served for the given directory.
+	 *
+	 * @param pathNum The index of the directory, as in {@link #getSpillingDirectories()}.
+	 * @return The number of served write requests.
+	 */
+	public long getNumWriteRequests(int pathNum) {
+		long num = 0;
+		for (int i = pathNum * threadsPerDirectory; i < (pathNum + 1) * threadsPerDirectory; i++) {
+			num += writers[i].numServedRequests;
+		}
+		return num;
+	}
+
+	/**
+	 * Gets the index of the reader and writer threads of the given channel. All requests of a
+	 * channel go to the same threads, such that they are served in the order they were issued.
+	 */
+	private int getThreadIndex(FileIOChannel.ID channelID) {
+		final int first = channelID.getThreadNum() * threadsPerDirectory;
+		return threadsPerDirectory == 1 ?
+			first :
+			first + MathUtils.murmurHash(channelID.hashCode()) % threadsPerDirectory;
+	}
+
 	// -------------------------------------------------------------------------
 	//                             For Testing
 	// -------------------------------------------------------------------------
 	
 	RequestQueue<ReadRequest> getReadRequestQueue(FileIOChannel.ID channelID) {
-		return this.readers[channelID.getThreadNum()].requestQueue;
+		return this.readers[getThreadIndex(channelID)].requestQueue;
 	}
 	
 	RequestQueue<WriteRequest> getWriteRequestQueue(FileIOChannel.ID channelID) {
-		return this.writers[channelID.getThreadNum()].requestQueue;
+		return this.writers[getThreadIndex(channelID)].requestQueue;
 	}
 
 	// -------------------------------------------------------------------------
@@ -317,6 +444,9 @@ public class IOManagerAsync extends IOManager implements UncaughtExceptionHandle
 		
 		protected final RequestQueue<ReadRequest> requestQueue;
 
+		/** The number of served requests, only modified by this thread. */
+		private volatile long numServedRequests;
+
 		private volatile boolean alive;
 
 		// ---------------------------------------------------------------------
@@ -403,6 +533,8 @@ public class IOManagerAsync extends IOManager implements UncaughtExceptionHandle
 					IOManagerAsync.LOG.error("I/O reading thread encountered an error" + (t.getMessage() == null ? "." : ": " + t.getMessage()), t);
 				}
 
+				numServedRequests++;
+
 				// invoke the processed buffer handler of the request issuing reader object
 				try {
 					request.requestDone(ioex);
@@ -422,6 +554,9 @@ public class IOManagerAsync extends IOManager implements UncaughtExceptionHandle
 		
 		protected final RequestQueue<WriteRequest> requestQueue;
 
+		/** The number of served requests, only modified by this thread. */
+		private volatile long numServedRequests;
+
 		private volatile boolean alive;
 
 		// ---------------------------------------------------------------------
@@ -509,6 +644,8 @@ public class IOManagerAsync extends IOManager implements UncaughtExceptionHandle
 					IOManagerAsync.LOG.error("I/O writing thread encountered an error" + (t.getMessage() == null ? "." : ": " + t.getMessage()), t);
 				}
 
+				numServedRequests++;
+
 				// invoke the processed buffer handler of the request issuing writer object
 				try {
 					request.requestDone(ioex);
@@ -61,16 +61,24 @@ class SequenceNumberingViewReader implements BufferAvailabilityListener {
 		ResultPartitionID resultPartitionId,
 		int subPartitionIndex) throws IOException {
 
+		requestSubpartitionView(partitionProvider, resultPartitionId, subPartitionIndex, ResultPartitionProvider.NO_REPLAY);
+	}
+
+	void requestSubpartitionView(
+		ResultPartitionProvider partitionProvider,
+		ResultPartitionID resultPartitionId,
+		int subPartitionIndex,
+		long replayFromCheckpointId) throws IOException {
+
 		synchronized (requestLock) {
 			if (subpartitionView == null) {
 				// This this call can trigger a notification we have to
 				// schedule a separate task at the event loop that will
 				// start consuming this. Otherwise the reference to the
 				// view cannot be available in getNextBuffer().
-				this.subpartitionView = partitionProvider.createSubpartitionView(
-					resultPartitionId,
-					subPartitionIndex,
-					this);
+				this.subpartitionView = replayFromCheckpointId == ResultPartitionProvider.NO_REPLAY ?
+					partitionProvider.createSubpartitionView(resultPartitionId, subPartitionIndex, this) :
+					partitionProvider.createSubpartitionView(resultPartitionId, subPartitionIndex, replayFromCheckpointId, this);
 			} else {
 				throw new IllegalStateException("Subpartition already requested");
 			}
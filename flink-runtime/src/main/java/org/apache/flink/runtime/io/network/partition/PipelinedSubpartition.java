@@ -25,6 +25,8 @@ import org.apache.flink.runtime.io.network.buffer.Buffer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
+
 import java.io.IOException;
 import java.util.ArrayDeque;
 
@@ -33,6 +35,10 @@ import static org.apache.flink.util.Preconditions.checkState;
 
 /**
  * A pipelined in-memory only subpartition, which can be consumed once.
+ *
+ * <p>If the subpartition retains its in-flight buffers, a consumer which failed can be replaced
+ * by a new one. The new consumer first receives the buffers which have been consumed since the
+ * last completed checkpoint, see {@link RetainedInFlightBuffers}.
  */
 class PipelinedSubpartition extends ResultSubpartition {
 
@@ -46,6 +52,13 @@ class PipelinedSubpartition extends ResultSubpartition {
 	/** The read view to consume this subpartition. */
 	private PipelinedSubpartitionView readView;
 
+	/** The consumed buffers which are replayed to a new consumer, null if they are not retained. */
+	@Nullable
+	private final RetainedInFlightBuffers retainedBuffers;
+
+	/** Flag indicating whether a read view has been created before. */
+	private boolean hasBeenConsumed;
+
 	/** Flag indicating whether the subpartition has been finished. */
 	private boolean isFinished;
 
@@ -55,7 +68,12 @@ class PipelinedSubpartition extends ResultSubpartition {
 	// ------------------------------------------------------------------------
 
 	PipelinedSubpartition(int index, ResultPartition parent) {
+		this(index, parent, null);
+	}
+
+	PipelinedSubpartition(int index, ResultPartition parent, @Nullable RetainedInFlightBuffers retainedBuffers) {
 		super(index, parent);
+		this.retainedBuffers = retainedBuffers;
 	}
 
 	@Override
@@ -127,6 +145,10 @@ class PipelinedSubpartition extends ResultSubpartition {
 				buffer.recycle();
 			}
 
+			if (retainedBuffers != null) {
+				retainedBuffers.clear();
+			}
+
 			// Get the view...
 			view = readView;
 			readView = null;
@@ -143,9 +165,55 @@ class PipelinedSubpartition extends ResultSubpartition {
 		}
 	}
 
-	Buffer pollBuffer() {
+	Buffer pollBuffer(PipelinedSubpartitionView view) {
 		synchronized (buffers) {
-			return buffers.pollFirst();
+			if (view != readView) {
+				// the view of a consumer which has been replaced
+				return null;
+			}
+
+			final Buffer buffer = buffers.pollFirst();
+
+			if (buffer != null && retainedBuffers != null) {
+				retainedBuffers.add(buffer);
+			}
+
+			return buffer;
+		}
+	}
+
+	/**
+	 * Called by the read view when its consumer does not consume the subpartition anymore.
+	 */
+	void onReadViewReleased(PipelinedSubpartitionView view) {
+		if (retainedBuffers != null) {
+			synchronized (buffers) {
+				if (view != readView) {
+					return;
+				}
+				else if (!isFinished || !buffers.isEmpty()) {
+					// the consumer failed, keep the subpartition for the consumer that replaces it
+					LOG.debug("Read view of {} released before consuming all data, retaining {} buffers for replay.",
+						this, retainedBuffers.getNumberOfBuffers());
+
+					readView = null;
+					return;
+				}
+			}
+		}
+
+		onConsumedSubpartition();
+	}
+
+	/**
+	 * Drops the retained buffers which are not needed anymore for replaying the data since the
+	 * given checkpoint.
+	 */
+	void notifyCheckpointComplete(long checkpointId) {
+		if (retainedBuffers != null) {
+			synchronized (buffers) {
+				retainedBuffers.onCheckpointComplete(checkpointId);
+			}
 		}
 	}
 
@@ -163,6 +231,14 @@ class PipelinedSubpartition extends ResultSubpartition {
 
 	@Override
 	public PipelinedSubpartitionView createReadView(BufferAvailabilityListener availabilityListener) throws IOException {
+		return createReadView(availabilityListener, ResultPartitionProvider.NO_REPLAY);
+	}
+
+	@Override
+	public PipelinedSubpartitionView createReadView(
+			BufferAvailabilityListener availabilityListener,
+			long replayFromCheckpointId) throws IOException {
+
 		final int queueSize;
 
 		synchronized (buffers) {
@@ -171,8 +247,28 @@ class PipelinedSubpartition extends ResultSubpartition {
 					"Subpartition %s of is being (or already has been) consumed, " +
 					"but pipelined subpartitions can only be consumed once.", index, parent.getPartitionId());
 
+			if (hasBeenConsumed && retainedBuffers != null) {
+				// the new consumer restored the given checkpoint, so the replay has to start
+				// exactly after its barrier. Otherwise, records are lost or processed twice.
+				if (replayFromCheckpointId == ResultPartitionProvider.NO_REPLAY) {
+					throw new IOException("Subpartition " + index + " of partition " + parent.getPartitionId() +
+						" has been consumed before, but the new consumer did not request a replay.");
+				}
+				else if (!retainedBuffers.prepareReplay(replayFromCheckpointId)) {
+					throw new IOException("Subpartition " + index + " of partition " + parent.getPartitionId() +
+						" cannot be replayed from checkpoint " + replayFromCheckpointId + ", since it did not " +
+						"retain all data since the barrier of that checkpoint.");
+				}
+
+				LOG.debug("Replaying {} buffers of subpartition {} of partition {} from checkpoint {}.",
+					retainedBuffers.getNumberOfBuffers(), index, parent.getPartitionId(), replayFromCheckpointId);
+
+				retainedBuffers.replayInto(buffers);
+			}
+
 			LOG.debug("Creating read view for subpartition {} of partition {}.", index, parent.getPartitionId());
 
+			hasBeenConsumed = true;
 			queueSize = buffers.size();
 			readView = new PipelinedSubpartitionView(this, availabilityListener);
 		}
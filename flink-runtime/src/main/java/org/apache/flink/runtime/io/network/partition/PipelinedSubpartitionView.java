@@ -46,7 +46,7 @@ class PipelinedSubpartitionView implements ResultSubpartitionView {
 
 	@Override
 	public Buffer getNextBuffer() {
-		return parent.pollBuffer();
+		return parent.pollBuffer(this);
 	}
 
 	@Override
@@ -62,9 +62,9 @@ class PipelinedSubpartitionView implements ResultSubpartitionView {
 	@Override
 	public void releaseAllResources() {
 		if (isReleased.compareAndSet(false, true)) {
-			// The view doesn't hold any resources and the parent cannot be restarted. Therefore,
-			// it's OK to notify about consumption as well.
-			parent.onConsumedSubpartition();
+			// The view doesn't hold any resources. Unless the parent retains its buffers for a
+			// new consumer, it cannot be restarted and it's OK to notify about consumption as well.
+			parent.onReadViewReleased(this);
 		}
 	}
 
@@ -37,6 +37,7 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.apache.flink.util.Preconditions.checkArgument;
 import static org.apache.flink.util.Preconditions.checkElementIndex;
@@ -140,6 +141,32 @@ public class ResultPartition implements BufferPoolOwner {
 		IOManager ioManager,
 		boolean sendScheduleOrUpdateConsumersMessage) {
 
+		this(owningTaskName, taskActions, jobId, partitionId, partitionType, numberOfSubpartitions,
+			numTargetKeyGroups, partitionManager, partitionConsumableNotifier, ioManager,
+			sendScheduleOrUpdateConsumersMessage, false, 0L);
+	}
+
+	/**
+	 * Creates a result partition. If {@code retainBuffersForReplay} is set, the pipelined
+	 * subpartitions retain the consumed buffers since the last completed checkpoint (up to
+	 * {@code maxRetainedBytes} for the whole partition), so that failed consumers can be
+	 * restarted without restarting the producer.
+	 */
+	public ResultPartition(
+		String owningTaskName,
+		TaskActions taskActions, // actions on the owning task
+		JobID jobId,
+		ResultPartitionID partitionId,
+		ResultPartitionType partitionType,
+		int numberOfSubpartitions,
+		int numTargetKeyGroups,
+		ResultPartitionManager partitionManager,
+		ResultPartitionConsumableNotifier partitionConsumableNotifier,
+		IOManager ioManager,
+		boolean sendScheduleOrUpdateConsumersMessage,
+		boolean retainBuffersForReplay,
+		long maxRetainedBytes) {
+
 		this.owningTaskName = checkNotNull(owningTaskName);
 		this.taskActions = checkNotNull(taskActions);
 		this.jobId = checkNotNull(jobId);
@@ -162,8 +189,11 @@ public class ResultPartition implements BufferPoolOwner {
 
 			case PIPELINED:
 			case PIPELINED_BOUNDED:
+				final AtomicLong retainedBytes = new AtomicLong();
+
 				for (int i = 0; i < subpartitions.length; i++) {
-					subpartitions[i] = new PipelinedSubpartition(i, this);
+					subpartitions[i] = new PipelinedSubpartition(i, this, retainBuffersForReplay ?
+						new RetainedInFlightBuffers(retainedBytes, maxRetainedBytes) : null);
 				}
 
 				break;
@@ -363,6 +393,18 @@ public class ResultPartition implements BufferPoolOwner {
 	 * Returns the requested subpartition.
 	 */
 	public ResultSubpartitionView createSubpartitionView(int index, BufferAvailabilityListener availabilityListener) throws IOException {
+		return createSubpartitionView(index, ResultPartitionProvider.NO_REPLAY, availabilityListener);
+	}
+
+	/**
+	 * Returns the requested subpartition. If the subpartition has been consumed by a failed
+	 * consumer before, the view replays the data following the barrier of the given checkpoint.
+	 */
+	public ResultSubpartitionView createSubpartitionView(
+			int index,
+			long replayFromCheckpointId,
+			BufferAvailabilityListener availabilityListener) throws IOException {
+
 		int refCnt = pendingReferences.get();
 
 		checkState(refCnt != -1, "Partition released.");
@@ -370,7 +412,7 @@ public class ResultPartition implements BufferPoolOwner {
 
 		checkElementIndex(index, subpartitions.length, "Subpartition not found.");
 
-		ResultSubpartitionView readView = subpartitions[index].createReadView(availabilityListener);
+		ResultSubpartitionView readView = subpartitions[index].createReadView(availabilityListener, replayFromCheckpointId);
 
 		LOG.debug("Created {}", readView);
 
@@ -385,6 +427,18 @@ public class ResultPartition implements BufferPoolOwner {
 		return numTargetKeyGroups;
 	}
 
+	/**
+	 * Notifies the subpartitions that a checkpoint has been completed, so that they can drop the
+	 * buffers they retained for replaying the data before that checkpoint.
+	 */
+	public void notifyCheckpointComplete(long checkpointId) {
+		if (partitionType.isPipelined()) {
+			for (ResultSubpartition subpartition : subpartitions) {
+				((PipelinedSubpartition) subpartition).notifyCheckpointComplete(checkpointId);
+			}
+		}
+	}
+
 	/**
 	 * Releases buffers held by this result partition.
 	 *
@@ -69,6 +69,16 @@ public class ResultPartitionManager implements ResultPartitionProvider {
 			int subpartitionIndex,
 			BufferAvailabilityListener availabilityListener) throws IOException {
 
+		return createSubpartitionView(partitionId, subpartitionIndex, NO_REPLAY, availabilityListener);
+	}
+
+	@Override
+	public ResultSubpartitionView createSubpartitionView(
+			ResultPartitionID partitionId,
+			int subpartitionIndex,
+			long replayFromCheckpointId,
+			BufferAvailabilityListener availabilityListener) throws IOException {
+
 		synchronized (registeredPartitions) {
 			final ResultPartition partition = registeredPartitions.get(partitionId.getProducerId(),
 					partitionId.getPartitionId());
@@ -79,7 +89,7 @@ public class ResultPartitionManager implements ResultPartitionProvider {
 
 			LOG.debug("Requesting subpartition {} of {}.", subpartitionIndex, partition);
 
-			return partition.createSubpartitionView(subpartitionIndex, availabilityListener);
+			return partition.createSubpartitionView(subpartitionIndex, replayFromCheckpointId, availabilityListener);
 		}
 	}
 
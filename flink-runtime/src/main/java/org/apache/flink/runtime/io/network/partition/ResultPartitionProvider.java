@@ -22,6 +22,12 @@ import java.io.IOException;
 
 public interface ResultPartitionProvider {
 
+	/**
+	 * Value of the checkpoint to replay from, if the consumer does not request the replay of data
+	 * which has been consumed by a failed consumer before.
+	 */
+	long NO_REPLAY = Long.MIN_VALUE;
+
 	/**
 	 * Returns the requested intermediate result partition input view.
 	 */
@@ -30,4 +36,18 @@ public interface ResultPartitionProvider {
 			int index,
 			BufferAvailabilityListener availabilityListener) throws IOException;
 
+	/**
+	 * Returns the requested intermediate result partition input view. If the subpartition has
+	 * been consumed by a failed consumer before, the view starts with the data following the
+	 * barrier of the given checkpoint.
+	 *
+	 * @param replayFromCheckpointId The checkpoint restored by the consumer, -1 for the start of
+	 *                               the data, or {@link #NO_REPLAY}
+	 */
+	ResultSubpartitionView createSubpartitionView(
+			ResultPartitionID partitionId,
+			int index,
+			long replayFromCheckpointId,
+			BufferAvailabilityListener availabilityListener) throws IOException;
+
 }
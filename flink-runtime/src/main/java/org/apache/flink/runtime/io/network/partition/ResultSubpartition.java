@@ -78,6 +78,18 @@ public abstract class ResultSubpartition {
 
 	abstract public ResultSubpartitionView createReadView(BufferAvailabilityListener availabilityListener) throws IOException;
 
+	/**
+	 * Creates a read view which replays the data following the barrier of the given checkpoint,
+	 * if the subpartition has been consumed by a failed consumer before. Only subpartitions which
+	 * retain their consumed data support this, the default implementation ignores the checkpoint.
+	 */
+	public ResultSubpartitionView createReadView(
+			BufferAvailabilityListener availabilityListener,
+			long replayFromCheckpointId) throws IOException {
+
+		return createReadView(availabilityListener);
+	}
+
 	abstract int releaseMemory() throws IOException;
 
 	abstract public boolean isReleased();
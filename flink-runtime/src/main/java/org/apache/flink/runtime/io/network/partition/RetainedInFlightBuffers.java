@@ -0,0 +1,218 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.io.network.partition;
+
+import org.apache.flink.core.memory.MemorySegmentFactory;
+import org.apache.flink.runtime.io.network.api.CheckpointBarrier;
+import org.apache.flink.runtime.io.network.api.serialization.EventSerializer;
+import org.apache.flink.runtime.io.network.buffer.Buffer;
+import org.apache.flink.runtime.io.network.buffer.FreeingBufferRecycler;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * The buffers of a {@link PipelinedSubpartition} which have been consumed since the barrier of the
+ * last completed checkpoint. If the consumer of the subpartition fails, they are replayed to the
+ * restarted consumer, so that it can resume from the checkpoint without restarting the producer.
+ *
+ * <p>A restarted consumer requests the replay from the checkpoint which it restored. Since the
+ * producer learns about completed checkpoints asynchronously, the retained buffers may start
+ * before the barrier of that checkpoint. In that case, the buffers up to the barrier are dropped
+ * before the replay. If the buffers start after the barrier, the subpartition cannot be replayed.
+ *
+ * <p>The buffers are retained as copies on the heap, because holding on to the network buffers
+ * would block the producer once its buffer pool is exhausted. If the buffers retained by all
+ * subpartitions of a partition exceed a limit, the subpartition drops its buffers and starts
+ * retaining again after the next checkpoint barrier. Until that checkpoint completes, the
+ * subpartition cannot be replayed.
+ *
+ * <p>This class is not thread-safe, access is synchronized by the subpartition.
+ */
+class RetainedInFlightBuffers {
+
+	private static final ClassLoader EVENT_CLASS_LOADER = RetainedInFlightBuffers.class.getClassLoader();
+
+	/** The retained buffers, in the order in which they have been consumed. */
+	private final ArrayDeque<Buffer> buffers = new ArrayDeque<>();
+
+	/** The number of bytes retained by all subpartitions of the partition. */
+	private final AtomicLong retainedBytesOfPartition;
+
+	/** The maximum number of bytes retained by all subpartitions of the partition. */
+	private final long maxRetainedBytesOfPartition;
+
+	/** The number of bytes retained by this subpartition. */
+	private long retainedBytes;
+
+	/** The checkpoint whose barrier precedes the retained buffers, -1 for the start of the data. */
+	private long retainedSinceCheckpointId = -1L;
+
+	/** Flag indicating whether all buffers since the barrier of the retained checkpoint are retained. */
+	private boolean isComplete = true;
+
+	RetainedInFlightBuffers(AtomicLong retainedBytesOfPartition, long maxRetainedBytesOfPartition) {
+		this.retainedBytesOfPartition = checkNotNull(retainedBytesOfPartition);
+		this.maxRetainedBytesOfPartition = maxRetainedBytesOfPartition;
+	}
+
+	/**
+	 * Retains a copy of a buffer which is handed to the consumer.
+	 */
+	void add(Buffer buffer) {
+		if (isComplete) {
+			final int size = buffer.getSize();
+
+			if (retainedBytesOfPartition.addAndGet(size) <= maxRetainedBytesOfPartition) {
+				buffers.add(copy(buffer));
+				retainedBytes += size;
+				return;
+			}
+
+			retainedBytesOfPartition.addAndGet(-size);
+			clear();
+			isComplete = false;
+		}
+
+		// the data since the retained barrier is incomplete, start over after the next barrier
+		final long checkpointId = getCheckpointBarrierId(buffer);
+		if (checkpointId >= 0) {
+			retainedSinceCheckpointId = checkpointId;
+			isComplete = true;
+		}
+	}
+
+	/**
+	 * Drops the buffers which precede the barrier of the completed checkpoint.
+	 */
+	void onCheckpointComplete(long checkpointId) {
+		if (!isComplete || retainedSinceCheckpointId >= checkpointId) {
+			return;
+		}
+
+		// find the barrier of the latest checkpoint which is subsumed by the completed one
+		int numBuffersToDrop = 0;
+		long droppedCheckpointId = -1L;
+		int position = 0;
+
+		for (Buffer buffer : buffers) {
+			position++;
+
+			final long barrierId = getCheckpointBarrierId(buffer);
+			if (barrierId > checkpointId) {
+				break;
+			}
+			else if (barrierId >= 0) {
+				numBuffersToDrop = position;
+				droppedCheckpointId = barrierId;
+			}
+		}
+
+		for (int i = 0; i < numBuffersToDrop; i++) {
+			recycle(buffers.poll());
+		}
+
+		if (droppedCheckpointId >= 0) {
+			retainedSinceCheckpointId = droppedCheckpointId;
+		}
+	}
+
+	/**
+	 * Prepares the replay of the data following the barrier of the given checkpoint, by dropping
+	 * the buffers which precede that barrier.
+	 *
+	 * @param checkpointId The checkpoint to replay from, -1 for the start of the data
+	 * @return True, if the retained buffers start exactly after the barrier of the checkpoint
+	 */
+	boolean prepareReplay(long checkpointId) {
+		onCheckpointComplete(checkpointId);
+
+		return isComplete && retainedSinceCheckpointId == checkpointId;
+	}
+
+	/**
+	 * Moves the retained buffers to the front of the given queue, in the order in which they
+	 * have been consumed. They are retained again when they are consumed from the queue.
+	 */
+	void replayInto(ArrayDeque<Buffer> queue) {
+		Buffer buffer;
+		while ((buffer = buffers.pollLast()) != null) {
+			queue.addFirst(buffer);
+		}
+
+		retainedBytesOfPartition.addAndGet(-retainedBytes);
+		retainedBytes = 0L;
+	}
+
+	/**
+	 * Drops all retained buffers.
+	 */
+	void clear() {
+		Buffer buffer;
+		while ((buffer = buffers.poll()) != null) {
+			recycle(buffer);
+		}
+	}
+
+	int getNumberOfBuffers() {
+		return buffers.size();
+	}
+
+	long getNumberOfBytes() {
+		return retainedBytes;
+	}
+
+	// ------------------------------------------------------------------------
+
+	private void recycle(Buffer buffer) {
+		final int size = buffer.getSize();
+
+		buffer.recycle();
+
+		retainedBytes -= size;
+		retainedBytesOfPartition.addAndGet(-size);
+	}
+
+	private static Buffer copy(Buffer buffer) {
+		final int size = buffer.getSize();
+		final byte[] data = new byte[size];
+
+		buffer.getMemorySegment().get(0, data, 0, size);
+
+		return new Buffer(MemorySegmentFactory.wrap(data), FreeingBufferRecycler.INSTANCE, buffer.isBuffer());
+	}
+
+	private static long getCheckpointBarrierId(Buffer buffer) {
+		if (!buffer.isBuffer()) {
+			try {
+				if (EventSerializer.isEvent(buffer, CheckpointBarrier.class, EVENT_CLASS_LOADER)) {
+					return ((CheckpointBarrier) EventSerializer.fromBuffer(buffer, EVENT_CLASS_LOADER)).getId();
+				}
+			}
+			catch (IOException ignored) {
+				// events of user code classes are no checkpoint barriers
+			}
+		}
+
+		return -1L;
+	}
+}
@@ -23,6 +23,7 @@ import org.apache.flink.runtime.event.TaskEvent;
 import org.apache.flink.runtime.execution.CancelTaskException;
 import org.apache.flink.runtime.io.network.buffer.Buffer;
 import org.apache.flink.runtime.io.network.partition.ResultPartitionID;
+import org.apache.flink.runtime.io.network.partition.ResultPartitionProvider;
 import org.apache.flink.runtime.io.network.partition.ResultSubpartitionView;
 
 import java.io.IOException;
@@ -66,6 +67,10 @@ public abstract class InputChannel {
 	/** The current backoff (in ms) */
 	private int currentBackoff;
 
+	/** The checkpoint which the consuming task restored, if the producer has to replay the data
+	 * following its barrier to replace a failed consumer */
+	private long replayFromCheckpointId = ResultPartitionProvider.NO_REPLAY;
+
 	protected InputChannel(
 			SingleInputGate inputGate,
 			int channelIndex,
@@ -100,6 +105,21 @@ public abstract class InputChannel {
 		return channelIndex;
 	}
 
+	/**
+	 * Returns the checkpoint after whose barrier the producer replays the consumed subpartition,
+	 * if the subpartition has been consumed by a failed consumer before.
+	 *
+	 * @return The checkpoint to replay from, -1 for the start of the data, or
+	 * {@link ResultPartitionProvider#NO_REPLAY}
+	 */
+	public long getReplayFromCheckpointId() {
+		return replayFromCheckpointId;
+	}
+
+	void setReplayFromCheckpointId(long replayFromCheckpointId) {
+		this.replayFromCheckpointId = replayFromCheckpointId;
+	}
+
 	/**
 	 * Notifies the owning {@link SingleInputGate} that this channel became non-empty.
 	 * 
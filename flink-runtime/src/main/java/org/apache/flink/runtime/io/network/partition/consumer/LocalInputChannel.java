@@ -27,6 +27,7 @@ import org.apache.flink.runtime.io.network.partition.PartitionNotFoundException;
 import org.apache.flink.runtime.io.network.partition.ProducerFailedException;
 import org.apache.flink.runtime.io.network.partition.ResultPartitionID;
 import org.apache.flink.runtime.io.network.partition.ResultPartitionManager;
+import org.apache.flink.runtime.io.network.partition.ResultPartitionProvider;
 import org.apache.flink.runtime.io.network.partition.ResultSubpartitionView;
 import org.apache.flink.runtime.metrics.groups.TaskIOMetricGroup;
 import org.slf4j.Logger;
@@ -112,8 +113,11 @@ public class LocalInputChannel extends InputChannel implements BufferAvailabilit
 					this, subpartitionIndex, partitionId);
 
 				try {
-					ResultSubpartitionView subpartitionView = partitionManager.createSubpartitionView(
-						partitionId, subpartitionIndex, this);
+					final long replayFromCheckpointId = getReplayFromCheckpointId();
+
+					ResultSubpartitionView subpartitionView = replayFromCheckpointId == ResultPartitionProvider.NO_REPLAY ?
+						partitionManager.createSubpartitionView(partitionId, subpartitionIndex, this) :
+						partitionManager.createSubpartitionView(partitionId, subpartitionIndex, replayFromCheckpointId, this);
 
 					if (subpartitionView == null) {
 						throw new IOException("Error requesting subpartition.");
@@ -232,7 +236,7 @@ public class LocalInputChannel extends InputChannel implements BufferAvailabilit
 		checkError();
 		checkState(subpartitionView != null, "Tried to send task event to producer before requesting the subpartition.");
 
-		if (!taskEventDispatcher.publish(partitionId, event)) {
+		if (!taskEventDispatcher.publish(partitionId, event) && !event.isOptional()) {
 			throw new IOException("Error while publishing event " + event + " to producer. The producer could not be found.");
 		}
 	}
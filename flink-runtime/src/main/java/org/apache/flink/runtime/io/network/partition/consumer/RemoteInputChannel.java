@@ -154,6 +154,10 @@ public class RemoteInputChannel extends InputChannel {
 
 	@Override
 	void sendTaskEvent(TaskEvent event) throws IOException {
+		if (isReleased.get() && event.isOptional()) {
+			return;
+		}
+
 		checkState(!isReleased.get(), "Tried to send task event to producer after channel has been released.");
 		checkState(partitionRequestClient != null, "Tried to send task event to producer before requesting a queue.");
 
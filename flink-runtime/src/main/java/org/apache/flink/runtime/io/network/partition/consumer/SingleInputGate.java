@@ -160,6 +160,9 @@ public class SingleInputGate implements InputGate {
 
 	private final List<TaskEvent> pendingEvents = new ArrayList<>();
 
+	/** Task events which were sent before the partitions were requested. */
+	private final List<TaskEvent> eventsBeforePartitionRequest = new ArrayList<>();
+
 	private int numberOfUninitializedChannels;
 
 	/** A timer to retrigger local partition requests. Only initialized if actually needed. */
@@ -435,6 +438,11 @@ public class SingleInputGate implements InputGate {
 			}
 
 			requestedPartitionsFlag = true;
+
+			for (TaskEvent event : eventsBeforePartitionRequest) {
+				sendTaskEventToChannels(event);
+			}
+			eventsBeforePartitionRequest.clear();
 		}
 	}
 
@@ -511,13 +519,24 @@ public class SingleInputGate implements InputGate {
 	@Override
 	public void sendTaskEvent(TaskEvent event) throws IOException {
 		synchronized (requestLock) {
-			for (InputChannel inputChannel : inputChannels.values()) {
-				inputChannel.sendTaskEvent(event);
+			if (requestedPartitionsFlag) {
+				sendTaskEventToChannels(event);
+			} else {
+				// the producers can only be reached after their partitions have been requested
+				eventsBeforePartitionRequest.add(event);
 			}
+		}
+	}
 
-			if (numberOfUninitializedChannels > 0) {
-				pendingEvents.add(event);
-			}
+	private void sendTaskEventToChannels(TaskEvent event) throws IOException {
+		assert Thread.holdsLock(requestLock);
+
+		for (InputChannel inputChannel : inputChannels.values()) {
+			inputChannel.sendTaskEvent(event);
+		}
+
+		if (numberOfUninitializedChannels > 0) {
+			pendingEvents.add(event);
 		}
 	}
 
@@ -644,6 +663,8 @@ public class SingleInputGate implements InputGate {
 				throw new IllegalStateException("Unexpected partition location.");
 			}
 
+			inputChannels[i].setReplayFromCheckpointId(igdd.getReplayFromCheckpointId());
+
 			inputGate.setInputChannel(partitionId.getPartitionId(), inputChannels[i]);
 		}
 
@@ -96,19 +96,42 @@ public class Scheduler implements InstanceListener, SlotAvailabilityListener, Sl
 	/** The number of slot allocations where locality could be respected */
 	private int localizedAssignments;
 
+	/** The number of slot allocations where only the host of a preferred location could be respected */
+	private int hostLocalizedAssignments;
+
 	/** The number of slot allocations where locality could not be respected */
 	private int nonLocalizedAssignments;
 
 	/** The Executor which is used to execute newSlotAvailable futures. */
 	private final Executor executor;
 
+	/** Flag whether tasks are placed according to the data volume of their inputs and the host topology */
+	private final boolean topologyAware;
+
 	// ------------------------------------------------------------------------
 
 	/**
 	 * Creates a new scheduler.
 	 */
 	public Scheduler(Executor executor) {
+		this(executor, false);
+	}
+
+	/**
+	 * Creates a new scheduler.
+	 *
+	 * <p>A topology aware scheduler orders the location preferences of a task by the amount of data
+	 * that the task receives from each location, falls back to instances on the same host as a
+	 * preferred location, and spreads tasks without location preference (such as the receivers
+	 * of keyed exchanges) across the instances with the most available slots.
+	 *
+	 * @param executor The executor to run the slot availability notifications in
+	 * @param topologyAware Flag whether to place tasks according to the data volume of their inputs
+	 *                      and the host topology
+	 */
+	public Scheduler(Executor executor, boolean topologyAware) {
 		this.executor = Preconditions.checkNotNull(executor);
+		this.topologyAware = topologyAware;
 	}
 	
 	/**
@@ -168,7 +191,7 @@ public class Scheduler implements InstanceListener, SlotAvailabilityListener, Sl
 
 		final ExecutionVertex vertex = task.getTaskToExecute().getVertex();
 		
-		final Iterable<TaskManagerLocation> preferredLocations = vertex.getPreferredLocationsBasedOnInputs();
+		final Iterable<TaskManagerLocation> preferredLocations = getPreferredLocations(vertex);
 		final boolean forceExternalLocation = false &&
 									preferredLocations != null && preferredLocations.iterator().hasNext();
 	
@@ -197,10 +220,10 @@ public class Scheduler implements InstanceListener, SlotAvailabilityListener, Sl
 				// get a slot from the group, if the group has one for us (and can fulfill the constraint)
 				final SimpleSlot slotFromGroup;
 				if (constraint == null) {
-					slotFromGroup = assignment.getSlotForTask(vertex);
+					slotFromGroup = assignment.getSlotForTask(vertex.getJobvertexId(), preferredLocations);
 				}
 				else {
-					slotFromGroup = assignment.getSlotForTask(vertex, constraint);
+					slotFromGroup = assignment.getSlotForTask(constraint, preferredLocations);
 				}
 
 				SimpleSlot newSlot = null;
@@ -234,7 +257,7 @@ public class Scheduler implements InstanceListener, SlotAvailabilityListener, Sl
 						localOnly = true;
 					}
 					else {
-						locations = vertex.getPreferredLocationsBasedOnInputs();
+						locations = preferredLocations;
 						localOnly = forceExternalLocation;
 					}
 					
@@ -267,9 +290,10 @@ public class Scheduler implements InstanceListener, SlotAvailabilityListener, Sl
 							toUse = slotFromGroup;
 						}
 					}
-					else if (slotFromGroup == null || !slotFromGroup.isAlive() || newSlot.getLocality() == Locality.LOCAL) {
-						// if there is no slot from the group, or the new slot is local,
-						// then we use the new slot
+					else if (slotFromGroup == null || !slotFromGroup.isAlive() ||
+							newSlot.getLocality() == Locality.LOCAL || newSlot.getLocality() == Locality.HOST_LOCAL) {
+						// if there is no slot from the group, or the new slot is local (at least
+						// by host), then we use the new slot
 						if (slotFromGroup != null) {
 							slotFromGroup.releaseSlot();
 						}
@@ -337,6 +361,16 @@ public class Scheduler implements InstanceListener, SlotAvailabilityListener, Sl
 		}
 	}
 	
+	/**
+	 * Gets the location preferences of the vertex, as determined by its inputs. A topology aware
+	 * scheduler orders the locations by the data volume that the vertex receives from them.
+	 */
+	private Iterable<TaskManagerLocation> getPreferredLocations(ExecutionVertex vertex) {
+		return topologyAware ?
+				vertex.getPreferredLocationsBasedOnInputVolume() :
+				vertex.getPreferredLocationsBasedOnInputs();
+	}
+
 	/**
 	 * Gets a suitable instance to schedule the vertex execution to.
 	 * <p>
@@ -499,6 +533,22 @@ public class Scheduler implements InstanceListener, SlotAvailabilityListener, Sl
 			if (localOnly) {
 				return null;
 			}
+			else if (topologyAware) {
+				// try to stay on the host of one of the preferred locations, to avoid network traffic
+				for (TaskManagerLocation location : requestedLocations) {
+					if (location != null) {
+						Instance instance = pollInstanceWithMostAvailableSlots(
+								allInstancesByHost.get(location.getHostname()));
+						if (instance != null) {
+							return new ImmutablePair<>(instance, Locality.HOST_LOCAL);
+						}
+					}
+				}
+
+				return new ImmutablePair<>(
+						pollInstanceWithMostAvailableSlots(instancesWithAvailableResources.values()),
+						Locality.NON_LOCAL);
+			}
 			else {
 				// take the first instance from the instances with resources
 				Iterator<Instance> instances = instancesWithAvailableResources.values().iterator();
@@ -508,6 +558,12 @@ public class Scheduler implements InstanceListener, SlotAvailabilityListener, Sl
 				return new ImmutablePair<>(instanceToUse, Locality.NON_LOCAL);
 			}
 		}
+		else if (topologyAware) {
+			// no location preference, so spread the tasks across the instances
+			return new ImmutablePair<>(
+					pollInstanceWithMostAvailableSlots(instancesWithAvailableResources.values()),
+					Locality.UNCONSTRAINED);
+		}
 		else {
 			// no location preference, so use some instance
 			Iterator<Instance> instances = instancesWithAvailableResources.values().iterator();
@@ -517,6 +573,35 @@ public class Scheduler implements InstanceListener, SlotAvailabilityListener, Sl
 			return new ImmutablePair<>(instanceToUse, Locality.UNCONSTRAINED);
 		}
 	}
+
+	/**
+	 * Removes the instance with the most available slots among the given instances from the
+	 * instances with available resources. Choosing the least loaded instance spreads the tasks,
+	 * and with them the network traffic, evenly across the instances.
+	 *
+	 * <p><b>NOTE:</b> This method is not thread-safe, it needs to be synchronized by the caller.</p>
+	 *
+	 * @param candidates The instances to choose from. May be null.
+	 * @return The chosen instance, or {@code null}, if none of the candidates has available resources.
+	 */
+	private Instance pollInstanceWithMostAvailableSlots(Iterable<Instance> candidates) {
+		if (candidates == null) {
+			return null;
+		}
+
+		Instance best = null;
+		for (Instance candidate : candidates) {
+			if (instancesWithAvailableResources.containsKey(candidate.getTaskManagerID()) &&
+					(best == null || candidate.getNumberOfAvailableSlots() > best.getNumberOfAvailableSlots())) {
+				best = candidate;
+			}
+		}
+
+		if (best != null) {
+			instancesWithAvailableResources.remove(best.getTaskManagerID());
+		}
+		return best;
+	}
 	
 	@Override
 	public void newSlotAvailable(final Instance instance) {
@@ -599,6 +684,9 @@ public class Scheduler implements InstanceListener, SlotAvailabilityListener, Sl
 		case LOCAL:
 			this.localizedAssignments++;
 			break;
+		case HOST_LOCAL:
+			this.hostLocalizedAssignments++;
+			break;
 		case NON_LOCAL:
 			this.nonLocalizedAssignments++;
 			break;
@@ -614,6 +702,9 @@ public class Scheduler implements InstanceListener, SlotAvailabilityListener, Sl
 				case LOCAL:
 					LOG.debug("Local assignment: " + vertex.getTaskNameWithSubtaskIndex() + " --> " + slot);
 					break;
+				case HOST_LOCAL:
+					LOG.debug("Host-local assignment: " + vertex.getTaskNameWithSubtaskIndex() + " --> " + slot);
+					break;
 				case NON_LOCAL:
 					LOG.debug("Non-local assignment: " + vertex.getTaskNameWithSubtaskIndex() + " --> " + slot);
 					break;
@@ -783,6 +874,10 @@ public class Scheduler implements InstanceListener, SlotAvailabilityListener, Sl
 	public int getNumberOfLocalizedAssignments() {
 		return localizedAssignments;
 	}
+
+	public int getNumberOfHostLocalizedAssignments() {
+		return hostLocalizedAssignments;
+	}
 	
 	public int getNumberOfNonLocalizedAssignments() {
 		return nonLocalizedAssignments;
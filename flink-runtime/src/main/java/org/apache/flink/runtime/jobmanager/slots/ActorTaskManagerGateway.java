@@ -41,6 +41,8 @@ import org.apache.flink.runtime.messages.checkpoint.NotifyCheckpointComplete;
 import org.apache.flink.runtime.messages.checkpoint.TriggerCheckpoint;
 import org.apache.flink.util.Preconditions;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
 import scala.concurrent.duration.FiniteDuration;
@@ -131,6 +133,19 @@ public class ActorTaskManagerGateway implements TaskManagerGateway {
 		return FutureUtils.toJava(submitResult);
 	}
 
+	@Override
+	public CompletableFuture<Map<ExecutionAttemptID, Throwable>> submitTasks(Collection<TaskDeploymentDescriptor> tdds, Time timeout) {
+		Preconditions.checkNotNull(tdds);
+		Preconditions.checkNotNull(timeout);
+
+		scala.concurrent.Future<Map<ExecutionAttemptID, Throwable>> submitResult = actorGateway.ask(
+			new TaskMessages.SubmitTasks(tdds),
+			new FiniteDuration(timeout.getSize(), timeout.getUnit()))
+			.mapTo(ClassTag$.MODULE$.<Map<ExecutionAttemptID, Throwable>>apply(Map.class));
+
+		return FutureUtils.toJava(submitResult);
+	}
+
 	@Override
 	public CompletableFuture<Acknowledge> stopTask(ExecutionAttemptID executionAttemptID, Time timeout) {
 		Preconditions.checkNotNull(executionAttemptID);
@@ -31,6 +31,8 @@ import org.apache.flink.runtime.messages.Acknowledge;
 import org.apache.flink.runtime.messages.StackTrace;
 import org.apache.flink.runtime.messages.StackTraceSampleResponse;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
 /**
@@ -99,6 +101,18 @@ public interface TaskManagerGateway {
 		TaskDeploymentDescriptor tdd,
 		Time timeout);
 
+	/**
+	 * Submit several tasks to the task manager at once.
+	 *
+	 * @param tdds describing the tasks to submit
+	 * @param timeout of the submit operation
+	 * @return Future of the failure causes of the tasks that could not be submitted, by execution
+	 * attempt. Tasks that are not contained have been submitted successfully.
+	 */
+	CompletableFuture<Map<ExecutionAttemptID, Throwable>> submitTasks(
+		Collection<TaskDeploymentDescriptor> tdds,
+		Time timeout);
+
 	/**
 	 * Stop the given task.
 	 *
@@ -23,15 +23,18 @@ import org.apache.flink.api.common.JobID;
 import org.apache.flink.api.common.restartstrategy.RestartStrategies;
 import org.apache.flink.api.common.time.Time;
 import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.configuration.BlobServerOptions;
 import org.apache.flink.configuration.Configuration;
+import org.apache.flink.configuration.CoreOptions;
 import org.apache.flink.core.io.InputSplit;
 import org.apache.flink.core.io.InputSplitAssigner;
 import org.apache.flink.metrics.MetricGroup;
 import org.apache.flink.metrics.groups.UnregisteredMetricsGroup;
+import org.apache.flink.runtime.JobException;
 import org.apache.flink.runtime.blob.BlobServer;
 import org.apache.flink.runtime.checkpoint.CheckpointCoordinator;
 import org.apache.flink.runtime.checkpoint.CheckpointMetrics;
-import org.apache.flink.runtime.checkpoint.CheckpointRecoveryFactory;
+import org.apache.flink.runtime.checkpoint.CompletedCheckpoint;
 import org.apache.flink.runtime.checkpoint.TaskStateSnapshot;
 import org.apache.flink.runtime.client.JobExecutionException;
 import org.apache.flink.runtime.clusterframework.types.AllocationID;
@@ -60,6 +63,7 @@ import org.apache.flink.runtime.io.network.partition.ResultPartitionID;
 import org.apache.flink.runtime.jobgraph.IntermediateDataSetID;
 import org.apache.flink.runtime.jobgraph.JobGraph;
 import org.apache.flink.runtime.jobgraph.JobStatus;
+import org.apache.flink.runtime.jobgraph.JobVertex;
 import org.apache.flink.runtime.jobgraph.JobVertexID;
 import org.apache.flink.runtime.jobmanager.OnCompletionActions;
 import org.apache.flink.runtime.jobmanager.PartitionProducerDisposedException;
@@ -107,6 +111,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeoutException;
@@ -136,8 +141,8 @@ public class JobMaster extends FencedRpcEndpoint<JobMasterId> implements JobMast
 
 	private final ResourceID resourceId;
 
-	/** Logical representation of the job */
-	private final JobGraph jobGraph;
+	/** Logical representation of the job, replaced by a rescaled copy once a rescaling succeeded */
+	private JobGraph jobGraph;
 
 	/** Configuration of the JobManager */
 	private final Configuration configuration;
@@ -154,10 +159,11 @@ public class JobMaster extends FencedRpcEndpoint<JobMasterId> implements JobMast
 	private final BlobLibraryCacheManager libraryCacheManager;
 
 	/** The metrics for the JobManager itself */
-	private final MetricGroup jobManagerMetricGroup;
+	@Nullable
+	private final JobManagerMetricGroup jobManagerMetricGroup;
 
 	/** The metrics for the job */
-	private final MetricGroup jobMetricGroup;
+	private MetricGroup jobMetricGroup;
 
 	/** The heartbeat manager with task managers */
 	private final HeartbeatManager<Void, Void> taskManagerHeartbeatManager;
@@ -166,7 +172,7 @@ public class JobMaster extends FencedRpcEndpoint<JobMasterId> implements JobMast
 	private final HeartbeatManager<Void, Void> resourceManagerHeartbeatManager;
 
 	/** The execution context which is used to execute futures */
-	private final Executor executor;
+	private final ScheduledExecutorService executor;
 
 	private final OnCompletionActions jobCompletionActions;
 
@@ -174,8 +180,13 @@ public class JobMaster extends FencedRpcEndpoint<JobMasterId> implements JobMast
 
 	private final ClassLoader userCodeLoader;
 
-	/** The execution graph of this job */
-	private final ExecutionGraph executionGraph;
+	private final RestartStrategy restartStrategy;
+
+	/** The execution graph of this job, replaced when the job is rescaled */
+	private ExecutionGraph executionGraph;
+
+	/** Flag indicating whether the job is currently being rescaled */
+	private boolean rescalingInProgress;
 
 	private final SlotPool slotPool;
 
@@ -243,11 +254,11 @@ public class JobMaster extends FencedRpcEndpoint<JobMasterId> implements JobMast
 		final String jobName = jobGraph.getName();
 		final JobID jid = jobGraph.getJobID();
 
+		this.jobManagerMetricGroup = jobManagerMetricGroup;
+
 		if (jobManagerMetricGroup != null) {
-			this.jobManagerMetricGroup = jobManagerMetricGroup;
 			this.jobMetricGroup = jobManagerMetricGroup.addJob(jobGraph);
 		} else {
-			this.jobManagerMetricGroup = new UnregisteredMetricsGroup();
 			this.jobMetricGroup = new UnregisteredMetricsGroup();
 		}
 
@@ -258,36 +269,18 @@ public class JobMaster extends FencedRpcEndpoint<JobMasterId> implements JobMast
 						.deserializeValue(userCodeLoader)
 						.getRestartStrategy();
 
-		final RestartStrategy restartStrategy = (restartStrategyConfiguration != null) ?
+		this.restartStrategy = (restartStrategyConfiguration != null) ?
 				RestartStrategyFactory.createRestartStrategy(restartStrategyConfiguration) :
 				restartStrategyFactory.createRestartStrategy();
 
 		log.info("Using restart strategy {} for {} ({}).", restartStrategy, jobName, jid);
 
-		CheckpointRecoveryFactory checkpointRecoveryFactory = highAvailabilityServices.getCheckpointRecoveryFactory();
-
 		resourceManagerLeaderRetriever = highAvailabilityServices.getResourceManagerLeaderRetriever();
 
 		this.slotPool = new SlotPool(rpcService, jobGraph.getJobID());
 		this.slotPoolGateway = slotPool.getSelfGateway(SlotPoolGateway.class);
 
-		this.executionGraph = ExecutionGraphBuilder.buildGraph(
-			null,
-			jobGraph,
-			configuration,
-			executor,
-			executor,
-			slotPool.getSlotProvider(),
-			userCodeLoader,
-			checkpointRecoveryFactory,
-			rpcAskTimeout,
-			restartStrategy,
-			jobMetricGroup,
-			-1,
-			log);
-
-		// register self as job status change listener
-		executionGraph.registerJobStatusListener(new JobManagerJobStatusListener());
+		this.executionGraph = createExecutionGraph(jobGraph);
 
 		this.registeredTaskManagers = new HashMap<>(4);
 	}
@@ -405,9 +398,8 @@ public class JobMaster extends FencedRpcEndpoint<JobMasterId> implements JobMast
 		}
 
 		final Slot slot = execution.getAssignedResource();
-		final int taskId = execution.getVertex().getParallelSubtaskIndex();
 		final String host = slot != null ? slot.getTaskManagerLocation().getHostname() : null;
-		final InputSplit nextInputSplit = splitAssigner.getNextInputSplit(host, taskId);
+		final InputSplit nextInputSplit = execution.getVertex().getNextInputSplit(host, execution);
 
 		if (log.isDebugEnabled()) {
 			log.debug("Send next input split {}.", nextInputSplit);
@@ -718,10 +710,253 @@ public class JobMaster extends FencedRpcEndpoint<JobMasterId> implements JobMast
 		resourceManagerHeartbeatManager.requestHeartbeat(resourceID, null);
 	}
 
+	@Override
+	public CompletableFuture<Acknowledge> rescaleJob(int newParallelism, Time timeout) {
+		final ArrayList<JobVertexID> allOperators = new ArrayList<>(jobGraph.getNumberOfVertices());
+
+		for (JobVertex jobVertex : jobGraph.getVertices()) {
+			allOperators.add(jobVertex.getID());
+		}
+
+		return rescaleOperators(allOperators, newParallelism, timeout);
+	}
+
+	@Override
+	public CompletableFuture<Acknowledge> rescaleOperators(
+			Collection<JobVertexID> operators,
+			int newParallelism,
+			Time timeout) {
+
+		if (newParallelism <= 0) {
+			return FutureUtils.completedExceptionally(
+				new FlinkException("The parallelism must be positive, but was " + newParallelism + '.'));
+		}
+
+		for (JobVertexID operator : operators) {
+			final ExecutionJobVertex vertex = executionGraph.getJobVertex(operator);
+
+			if (vertex == null) {
+				return FutureUtils.completedExceptionally(
+					new FlinkException("Cannot find the operator " + operator + " to rescale."));
+			}
+			else if (newParallelism > vertex.getMaxParallelism()) {
+				return FutureUtils.completedExceptionally(new FlinkException("Cannot rescale " +
+					vertex.getName() + " to parallelism " + newParallelism + " because its max parallelism is " +
+					vertex.getMaxParallelism() + '.'));
+			}
+		}
+
+		final CheckpointCoordinator checkpointCoordinator = executionGraph.getCheckpointCoordinator();
+		final String savepointDirectory = configuration.getString(CoreOptions.SAVEPOINT_DIRECTORY);
+
+		if (checkpointCoordinator == null) {
+			return FutureUtils.completedExceptionally(
+				new FlinkException("Cannot rescale a job which does not have checkpointing enabled."));
+		}
+		else if (savepointDirectory == null) {
+			return FutureUtils.completedExceptionally(new FlinkException("Cannot rescale the job because " +
+				"no default savepoint directory (" + CoreOptions.SAVEPOINT_DIRECTORY.key() + ") is configured."));
+		}
+		else if (rescalingInProgress) {
+			return FutureUtils.completedExceptionally(new FlinkException("The job is already being rescaled."));
+		}
+		else if (executionGraph.getState() != JobStatus.RUNNING) {
+			return FutureUtils.completedExceptionally(
+				new FlinkException("Cannot rescale the job in state " + executionGraph.getState() + '.'));
+		}
+
+		log.info("Rescaling {} operators of job {} ({}) to parallelism {}.",
+			operators.size(), jobGraph.getName(), jobGraph.getJobID(), newParallelism);
+
+		final JobGraph rescaledJobGraph;
+
+		try {
+			rescaledJobGraph = createRescaledJobGraph(operators, newParallelism);
+		}
+		catch (Exception e) {
+			return FutureUtils.completedExceptionally(new FlinkException("Could not copy the job graph for rescaling.", e));
+		}
+
+		final ExecutionGraph currentExecutionGraph = executionGraph;
+		final CompletableFuture<CompletedCheckpoint> savepointFuture;
+
+		try {
+			savepointFuture = checkpointCoordinator.triggerSavepoint(System.currentTimeMillis(), savepointDirectory);
+		}
+		catch (Exception e) {
+			return FutureUtils.completedExceptionally(new FlinkException("Could not trigger the savepoint for rescaling.", e));
+		}
+
+		rescalingInProgress = true;
+
+		final CompletableFuture<Acknowledge> rescalingFuture = savepointFuture
+			.thenComposeAsync(
+				(CompletedCheckpoint savepoint) ->
+					suspendForRescaling(currentExecutionGraph).thenApply((Void ignored) -> savepoint.getExternalPointer()),
+				getMainThreadExecutor())
+			.thenApplyAsync(
+				(String savepointPath) -> {
+					restartWithJobGraph(rescaledJobGraph, savepointPath);
+					return Acknowledge.get();
+				},
+				getMainThreadExecutor());
+
+		rescalingFuture.whenCompleteAsync(
+			(Acknowledge ignored, Throwable throwable) -> {
+				rescalingInProgress = false;
+
+				if (throwable != null) {
+					log.warn("Could not rescale job {} ({}).", jobGraph.getName(), jobGraph.getJobID(), throwable);
+				}
+			},
+			getMainThreadExecutor());
+
+		return rescalingFuture;
+	}
+
 	//----------------------------------------------------------------------------------------------
 	// Internal methods
 	//----------------------------------------------------------------------------------------------
 
+	private ExecutionGraph createExecutionGraph(JobGraph jobGraph) throws JobExecutionException, JobException {
+		final ExecutionGraph newExecutionGraph = ExecutionGraphBuilder.buildGraph(
+			null,
+			jobGraph,
+			configuration,
+			executor,
+			executor,
+			slotPool.getSlotProvider(),
+			userCodeLoader,
+			highAvailabilityServices.getCheckpointRecoveryFactory(),
+			rpcTimeout,
+			restartStrategy,
+			jobMetricGroup,
+			-1,
+			log);
+
+		newExecutionGraph.setBlobServer(blobServer, configuration.getInteger(BlobServerOptions.OFFLOAD_MINSIZE));
+
+		// register self as job status change listener
+		newExecutionGraph.registerJobStatusListener(new JobManagerJobStatusListener());
+
+		return newExecutionGraph;
+	}
+
+	//-- rescaling  ---------------------------------------------------------------------------------
+
+	/**
+	 * Creates a copy of the job graph in which the given operators have the new parallelism. The
+	 * submitted job graph stays untouched so that the job can resume with it if the rescaling fails.
+	 */
+	private JobGraph createRescaledJobGraph(Collection<JobVertexID> operators, int newParallelism)
+			throws IOException, ClassNotFoundException {
+
+		final JobGraph rescaledJobGraph = InstantiationUtil.clone(jobGraph, userCodeLoader);
+
+		for (JobVertexID operator : operators) {
+			final JobVertex jobVertex = rescaledJobGraph.findVertexByID(operator);
+
+			// the number of key groups must not change, otherwise the keyed state cannot be redistributed
+			jobVertex.setMaxParallelism(executionGraph.getJobVertex(operator).getMaxParallelism());
+			jobVertex.setParallelism(newParallelism);
+		}
+
+		return rescaledJobGraph;
+	}
+
+	/**
+	 * Suspends the given execution graph once the savepoint for rescaling has been taken.
+	 *
+	 * @return Future which is completed once all tasks of the execution graph have terminated
+	 */
+	private CompletableFuture<Void> suspendForRescaling(ExecutionGraph currentExecutionGraph) {
+		validateRunsInMainThread();
+
+		if (executionGraph != currentExecutionGraph || currentExecutionGraph.getState() != JobStatus.RUNNING) {
+			throw new CompletionException(
+				new FlinkException("The job left the state RUNNING while taking the savepoint for rescaling."));
+		}
+
+		currentExecutionGraph.suspend(new FlinkException("The job is being rescaled."));
+
+		final Collection<ExecutionJobVertex> vertices = currentExecutionGraph.getAllVertices().values();
+		final ArrayList<CompletableFuture<?>> terminationFutures = new ArrayList<>(vertices.size());
+
+		// the vertices are already being canceled, this only collects their termination futures
+		for (ExecutionJobVertex vertex : vertices) {
+			terminationFutures.add(vertex.cancelWithFuture());
+		}
+
+		return FutureUtils.waitForAll(terminationFutures);
+	}
+
+	/**
+	 * Replaces the suspended execution graph by one built from the rescaled job graph, restores it
+	 * from the savepoint and schedules it. If the state cannot be restored with the new parallelism,
+	 * the job resumes from the savepoint with its previous job graph.
+	 */
+	private void restartWithJobGraph(JobGraph rescaledJobGraph, String savepointPath) {
+		validateRunsInMainThread();
+
+		Exception rescalingFailure = null;
+
+		try {
+			executionGraph = restoreExecutionGraph(rescaledJobGraph, savepointPath);
+			jobGraph = rescaledJobGraph;
+		}
+		catch (Exception e) {
+			log.warn("Could not restore job {} ({}) with the new parallelism, resuming it with the previous one.",
+				jobGraph.getName(), jobGraph.getJobID(), e);
+
+			rescalingFailure = e;
+
+			try {
+				executionGraph = restoreExecutionGraph(jobGraph, savepointPath);
+			}
+			catch (Exception resumeFailure) {
+				resumeFailure.addSuppressed(e);
+
+				final JobExecutionException exception = new JobExecutionException(jobGraph.getJobID(),
+					"Could not resume the job from the savepoint " + savepointPath + " after rescaling.", resumeFailure);
+
+				executor.execute(() -> jobCompletionActions.jobFailed(exception));
+				throw new CompletionException(exception);
+			}
+		}
+
+		scheduleExecutionGraph();
+
+		if (rescalingFailure != null) {
+			throw new CompletionException(new FlinkException("Could not restore the state of the job with " +
+				"the new parallelism, the job has been resumed with its previous parallelism.", rescalingFailure));
+		}
+	}
+
+	private ExecutionGraph restoreExecutionGraph(JobGraph jobGraph, String savepointPath) throws Exception {
+		// the metrics of the job refer to the previous execution graph
+		if (jobManagerMetricGroup != null) {
+			jobManagerMetricGroup.removeJob(jobGraph.getJobID());
+			jobMetricGroup = jobManagerMetricGroup.addJob(jobGraph);
+		}
+
+		final ExecutionGraph newExecutionGraph = createExecutionGraph(jobGraph);
+
+		try {
+			newExecutionGraph.getCheckpointCoordinator().restoreSavepoint(
+				savepointPath,
+				false,
+				newExecutionGraph.getAllVertices(),
+				userCodeLoader);
+		}
+		catch (Exception e) {
+			// shuts down the checkpoint coordinator of the new execution graph
+			newExecutionGraph.suspend(e);
+			throw e;
+		}
+
+		return newExecutionGraph;
+	}
+
 	//-- job starting and stopping  -----------------------------------------------------------------
 
 	private Acknowledge startJobExecution(JobMasterId newJobMasterId) throws Exception {
@@ -765,18 +1000,24 @@ public class JobMaster extends FencedRpcEndpoint<JobMasterId> implements JobMast
 			throw new Exception("Could not start job execution: Failed to start JobMaster services.", t);
 		}
 
+		scheduleExecutionGraph();
+
+		return Acknowledge.get();
+	}
+
+	private void scheduleExecutionGraph() {
+		final ExecutionGraph currentExecutionGraph = executionGraph;
+
 		// start scheduling job in another thread
 		executor.execute(
 			() -> {
 				try {
-					executionGraph.scheduleForExecution();
+					currentExecutionGraph.scheduleForExecution();
 				}
 				catch (Throwable t) {
-					executionGraph.failGlobal(t);
+					currentExecutionGraph.failGlobal(t);
 				}
 			});
-
-		return Acknowledge.get();
 	}
 
 	/**
@@ -808,6 +1049,9 @@ public class JobMaster extends FencedRpcEndpoint<JobMasterId> implements JobMast
 		// tell the execution graph (JobManager is still processing messages here)
 		executionGraph.suspend(cause);
 
+		// callbacks of a pending rescaling are not executed for a new leader
+		rescalingInProgress = false;
+
 		// the slot pool stops receiving messages and clears its pooled slots
 		slotPoolGateway.suspend();
 
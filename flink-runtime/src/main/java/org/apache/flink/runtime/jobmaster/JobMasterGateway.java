@@ -209,4 +209,35 @@ public interface JobMasterGateway extends CheckpointCoordinatorGateway, FencedRp
 	 * @param resourceID unique id of the resource manager
 	 */
 	void heartbeatFromResourceManager(final ResourceID resourceID);
+
+	/**
+	 * Rescales all operators of the job to the given parallelism.
+	 *
+	 * @param newParallelism new parallelism of the job
+	 * @param timeout        for the rpc call
+	 * @return Future acknowledge once the job runs with the new parallelism
+	 * @see #rescaleOperators(Collection, int, Time)
+	 */
+	CompletableFuture<Acknowledge> rescaleJob(
+			int newParallelism,
+			@RpcTimeout final Time timeout);
+
+	/**
+	 * Rescales the given operators of the job to the given parallelism, without resubmitting the job.
+	 * The job master takes a savepoint, which requires checkpointing to be enabled and a default
+	 * savepoint directory to be configured, and redistributes the key groups of the operators to
+	 * the new parallelism when restoring the job from it.
+	 *
+	 * <p>If the state cannot be restored with the new parallelism, the job resumes from the
+	 * savepoint with its previous parallelism and the returned future is completed exceptionally.
+	 *
+	 * @param operators      to rescale
+	 * @param newParallelism new parallelism of the operators, at most their max parallelism
+	 * @param timeout        for the rpc call
+	 * @return Future acknowledge once the job runs with the new parallelism
+	 */
+	CompletableFuture<Acknowledge> rescaleOperators(
+			final Collection<JobVertexID> operators,
+			int newParallelism,
+			@RpcTimeout final Time timeout);
 }
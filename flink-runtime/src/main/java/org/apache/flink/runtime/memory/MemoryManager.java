@@ -22,6 +22,7 @@ import org.apache.flink.core.memory.HeapMemorySegment;
 import org.apache.flink.core.memory.HybridMemorySegment;
 import org.apache.flink.core.memory.MemorySegment;
 import org.apache.flink.core.memory.MemoryType;
+import org.apache.flink.runtime.util.ExecutorThreadFactory;
 import org.apache.flink.util.MathUtils;
 
 import org.slf4j.Logger;
@@ -37,6 +38,9 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * The memory manager governs the memory that Flink uses for sorting, hashing, and caching. Memory
@@ -53,6 +57,11 @@ import java.util.Set;
  * On-demand allocation means that the memory manager only keeps track how many memory segments are
  * currently allocated (bookkeeping only). Releasing a memory segment will not add it back to the pool,
  * but make it re-claimable by the garbage collector.
+ *
+ * <p>On-demand allocation can be combined with a pool release interval. Released memory then returns to
+ * the pool and is reused by later allocations. Once per interval, the pool is trimmed to the number of
+ * pages which were in use at peak during the interval but are not in use any more. Pooled memory that
+ * was not needed for a whole interval thereby becomes re-claimable by the garbage collector.
  */
 public class MemoryManager {
 
@@ -95,9 +104,18 @@ public class MemoryManager {
 	/** Flag marking whether the memory manager immediately allocates the memory. */
 	private final boolean isPreAllocated;
 
+	/** Flag marking whether released segments return to the pool even if the memory is allocated lazily. */
+	private final boolean isPoolingLazilyAllocated;
+
+	/** The service which periodically releases idle pooled memory, null if pooled memory is never released. */
+	private final ScheduledExecutorService poolReleaseService;
+
 	/** The number of memory pages that have not been allocated and are available for lazy allocation. */
 	private int numNonAllocatedPages;
 
+	/** The peak number of used pages since the pool was last trimmed. */
+	private int peakNumUsedPages;
+
 	/** Flag whether the close() has already been invoked. */
 	private boolean isShutDown;
 
@@ -124,6 +142,23 @@ public class MemoryManager {
 	 */
 	public MemoryManager(long memorySize, int numberOfSlots, int pageSize,
 							MemoryType memoryType, boolean preAllocateMemory) {
+		this(memorySize, numberOfSlots, pageSize, memoryType, preAllocateMemory, 0L);
+	}
+
+	/**
+	 * Creates a memory manager with the given capacity and given page size.
+	 *
+	 * @param memorySize The total size of the memory to be managed by this memory manager.
+	 * @param numberOfSlots The number of slots of the task manager.
+	 * @param pageSize The size of the pages handed out by the memory manager.
+	 * @param memoryType The type of memory (heap / off-heap) that the memory manager should allocate.
+	 * @param preAllocateMemory True, if the memory manager should immediately allocate all memory, false
+	 *                          if it should allocate and release the memory as needed.
+	 * @param poolReleaseInterval The interval in milliseconds in which idle pooled memory is released, if the
+	 *                            memory is not pre-allocated. Zero disables pooling of lazily allocated memory.
+	 */
+	public MemoryManager(long memorySize, int numberOfSlots, int pageSize,
+							MemoryType memoryType, boolean preAllocateMemory, long poolReleaseInterval) {
 		// sanity checks
 		if (memoryType == null) {
 			throw new NullPointerException();
@@ -137,6 +172,9 @@ public class MemoryManager {
 		if (!MathUtils.isPowerOf2(pageSize)) {
 			throw new IllegalArgumentException("The given page size is not a power of two.");
 		}
+		if (poolReleaseInterval < 0) {
+			throw new IllegalArgumentException("The pool release interval must not be negative.");
+		}
 
 		this.memoryType = memoryType;
 		this.memorySize = memorySize;
@@ -176,6 +214,23 @@ public class MemoryManager {
 			default:
 				throw new IllegalArgumentException("unrecognized memory type: " + memoryType);
 		}
+
+		this.isPoolingLazilyAllocated = !preAllocateMemory && poolReleaseInterval > 0;
+		if (isPoolingLazilyAllocated) {
+			this.poolReleaseService = Executors.newSingleThreadScheduledExecutor(
+				new ExecutorThreadFactory("flink-memory-manager-pool-release"));
+			this.poolReleaseService.scheduleWithFixedDelay(new Runnable() {
+				@Override
+				public void run() {
+					int numReleasedPages = releaseIdleMemory();
+					if (numReleasedPages > 0) {
+						LOG.debug("Released {} idle pages of the memory pool.", numReleasedPages);
+					}
+				}
+			}, poolReleaseInterval, poolReleaseInterval, TimeUnit.MILLISECONDS);
+		} else {
+			this.poolReleaseService = null;
+		}
 	}
 
 	// ------------------------------------------------------------------------
@@ -204,6 +259,10 @@ public class MemoryManager {
 				}
 
 				memoryPool.clear();
+
+				if (poolReleaseService != null) {
+					poolReleaseService.shutdownNow();
+				}
 			}
 		}
 		// -------------------- END CRITICAL SECTION -------------------
@@ -227,7 +286,7 @@ public class MemoryManager {
 		synchronized (lock) {
 			return isPreAllocated ?
 					memoryPool.getNumberOfAvailableMemorySegments() == totalNumPages :
-					numNonAllocatedPages == totalNumPages;
+					numNonAllocatedPages + memoryPool.getNumberOfAvailableMemorySegments() == totalNumPages;
 		}
 	}
 
@@ -303,13 +362,22 @@ public class MemoryManager {
 				}
 			}
 			else {
-				for (int i = numPages; i > 0; i--) {
+				// lazily allocated memory may have been pooled, use that first
+				final int numPooledPages = Math.min(numPages, memoryPool.getNumberOfAvailableMemorySegments());
+				for (int i = numPooledPages; i > 0; i--) {
+					MemorySegment segment = memoryPool.requestSegmentFromPool(owner);
+					target.add(segment);
+					segmentsForOwner.add(segment);
+				}
+				for (int i = numPages - numPooledPages; i > 0; i--) {
 					MemorySegment segment = memoryPool.allocateNewSegment(owner);
 					target.add(segment);
 					segmentsForOwner.add(segment);
 				}
-				numNonAllocatedPages -= numPages;
+				numNonAllocatedPages -= numPages - numPooledPages;
 			}
+
+			peakNumUsedPages = Math.max(peakNumUsedPages, getNumberOfUsedPagesUnsafe());
 		}
 		// -------------------- END CRITICAL SECTION -------------------
 	}
@@ -353,7 +421,7 @@ public class MemoryManager {
 					}
 				}
 
-				if (isPreAllocated) {
+				if (isPreAllocated || isPoolingLazilyAllocated) {
 					// release the memory in any case
 					memoryPool.returnSegmentToPool(segment);
 				}
@@ -426,7 +494,7 @@ public class MemoryManager {
 								}
 							}
 
-							if (isPreAllocated) {
+							if (isPreAllocated || isPoolingLazilyAllocated) {
 								memoryPool.returnSegmentToPool(seg);
 							}
 							else {
@@ -479,7 +547,7 @@ public class MemoryManager {
 			}
 
 			// free each segment
-			if (isPreAllocated) {
+			if (isPreAllocated || isPoolingLazilyAllocated) {
 				for (MemorySegment seg : segments) {
 					memoryPool.returnSegmentToPool(seg);
 				}
@@ -496,6 +564,41 @@ public class MemoryManager {
 		// -------------------- END CRITICAL SECTION -------------------
 	}
 
+	/**
+	 * Releases the pooled memory segments which were not needed since the last call, if the memory is
+	 * allocated lazily and pooled. The pool keeps as many segments as were in use at peak since the last
+	 * call, but are not in use any more. The released segments become re-claimable by the garbage collector.
+	 *
+	 * <p>This method is called periodically if the memory manager was created with a pool release interval.
+	 *
+	 * @return The number of released pages.
+	 */
+	public int releaseIdleMemory() {
+		// -------------------- BEGIN CRITICAL SECTION -------------------
+		synchronized (lock) {
+			if (isShutDown || !isPoolingLazilyAllocated) {
+				return 0;
+			}
+
+			final int numUsedPages = getNumberOfUsedPagesUnsafe();
+			final int numPagesToKeep = peakNumUsedPages - numUsedPages;
+			final int numPagesToRelease = memoryPool.getNumberOfAvailableMemorySegments() - numPagesToKeep;
+
+			for (int i = numPagesToRelease; i > 0; i--) {
+				memoryPool.releasePooledSegment();
+			}
+			peakNumUsedPages = numUsedPages;
+
+			if (numPagesToRelease > 0) {
+				numNonAllocatedPages += numPagesToRelease;
+				return numPagesToRelease;
+			} else {
+				return 0;
+			}
+		}
+		// -------------------- END CRITICAL SECTION -------------------
+	}
+
 	// ------------------------------------------------------------------------
 	//  Properties, sizes and size conversions
 	// ------------------------------------------------------------------------
@@ -518,6 +621,57 @@ public class MemoryManager {
 		return isPreAllocated;
 	}
 
+	/**
+	 * Gets the number of memory pages which are currently allocated from the JVM, either handed out to
+	 * an owner or held in the pool.
+	 *
+	 * @return The number of allocated memory pages.
+	 */
+	public int getNumberOfAllocatedPages() {
+		synchronized (lock) {
+			return totalNumPages - numNonAllocatedPages;
+		}
+	}
+
+	/**
+	 * Gets the number of memory pages which are currently held in the pool.
+	 *
+	 * @return The number of pooled memory pages.
+	 */
+	public int getNumberOfPooledPages() {
+		synchronized (lock) {
+			return memoryPool.getNumberOfAvailableMemorySegments();
+		}
+	}
+
+	/**
+	 * Gets the number of memory pages which are currently handed out to owners.
+	 *
+	 * @return The number of used memory pages.
+	 */
+	public int getNumberOfUsedPages() {
+		synchronized (lock) {
+			return getNumberOfUsedPagesUnsafe();
+		}
+	}
+
+	/**
+	 * Gets the number of memory pages which are currently handed out to the given owner.
+	 *
+	 * @param owner The owner of the memory pages.
+	 * @return The number of memory pages used by the owner.
+	 */
+	public int getNumberOfUsedPages(Object owner) {
+		synchronized (lock) {
+			final Set<MemorySegment> segments = allocatedSegments.get(owner);
+			return segments == null ? 0 : segments.size();
+		}
+	}
+
+	private int getNumberOfUsedPagesUnsafe() {
+		return totalNumPages - numNonAllocatedPages - memoryPool.getNumberOfAvailableMemorySegments();
+	}
+
 	/**
 	 * Gets the size of the pages handled by the memory manager.
 	 *
@@ -595,6 +749,8 @@ public class MemoryManager {
 
 		abstract void returnSegmentToPool(MemorySegment segment);
 
+		abstract void releasePooledSegment();
+
 		abstract void clear();
 	}
 
@@ -637,6 +793,11 @@ public class MemoryManager {
 			}
 		}
 
+		@Override
+		void releasePooledSegment() {
+			availableMemory.remove();
+		}
+
 		@Override
 		protected int getNumberOfAvailableMemorySegments() {
 			return availableMemory.size();
@@ -689,6 +850,11 @@ public class MemoryManager {
 			}
 		}
 
+		@Override
+		void releasePooledSegment() {
+			availableMemory.remove();
+		}
+
 		@Override
 		protected int getNumberOfAvailableMemorySegments() {
 			return availableMemory.size();
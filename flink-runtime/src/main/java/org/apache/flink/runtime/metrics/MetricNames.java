@@ -31,6 +31,7 @@ public class MetricNames {
 	public static final String IO_NUM_RECORDS_OUT = "numRecordsOut";
 	public static final String IO_NUM_RECORDS_IN_RATE = IO_NUM_RECORDS_IN + SUFFIX_RATE;
 	public static final String IO_NUM_RECORDS_OUT_RATE = IO_NUM_RECORDS_OUT + SUFFIX_RATE;
+	public static final String IO_NUM_RECORDS_IN_COPIED = IO_NUM_RECORDS_IN + "Copied";
 
 	public static final String IO_NUM_BYTES_IN = "numBytesIn";
 	public static final String IO_NUM_BYTES_IN_LOCAL = IO_NUM_BYTES_IN + "Local";
@@ -20,7 +20,10 @@ package org.apache.flink.runtime.metrics.util;
 
 import org.apache.flink.metrics.Gauge;
 import org.apache.flink.metrics.MetricGroup;
+import org.apache.flink.runtime.io.disk.iomanager.IOManager;
+import org.apache.flink.runtime.io.disk.iomanager.IOManagerAsync;
 import org.apache.flink.runtime.io.network.NetworkEnvironment;
+import org.apache.flink.runtime.memory.MemoryManager;
 
 import org.apache.commons.lang3.text.WordUtils;
 import org.slf4j.Logger;
@@ -69,6 +72,82 @@ public class MetricUtils {
 		});
 	}
 
+	public static void instantiateManagedMemoryMetrics(
+		MetricGroup metrics,
+		final MemoryManager memoryManager) {
+		MetricGroup status = metrics.addGroup(METRIC_GROUP_STATUS_NAME);
+
+		MetricGroup memoryGroup = status
+			.addGroup("ManagedMemory");
+
+		memoryGroup.gauge("TotalPages", new Gauge<Integer>() {
+			@Override
+			public Integer getValue() {
+				return memoryManager.getTotalNumPages();
+			}
+		});
+		memoryGroup.gauge("AllocatedPages", new Gauge<Integer>() {
+			@Override
+			public Integer getValue() {
+				return memoryManager.getNumberOfAllocatedPages();
+			}
+		});
+		memoryGroup.gauge("PooledPages", new Gauge<Integer>() {
+			@Override
+			public Integer getValue() {
+				return memoryManager.getNumberOfPooledPages();
+			}
+		});
+		memoryGroup.gauge("UsedPages", new Gauge<Integer>() {
+			@Override
+			public Integer getValue() {
+				return memoryManager.getNumberOfUsedPages();
+			}
+		});
+	}
+
+	public static void instantiateIOManagerMetrics(
+		MetricGroup metrics,
+		IOManager ioManager) {
+		if (!(ioManager instanceof IOManagerAsync)) {
+			return;
+		}
+		final IOManagerAsync asyncIOManager = (IOManagerAsync) ioManager;
+
+		MetricGroup ioGroup = metrics.addGroup(METRIC_GROUP_STATUS_NAME)
+			.addGroup("IO");
+
+		for (int i = 0; i < asyncIOManager.getSpillingDirectories().length; i++) {
+			final int pathNum = i;
+			MetricGroup directoryGroup = ioGroup.addGroup(String.valueOf(pathNum));
+
+			directoryGroup.gauge("ReadQueueLength", new Gauge<Integer>() {
+				@Override
+				public Integer getValue() {
+					return asyncIOManager.getReadQueueLength(pathNum);
+				}
+			});
+			directoryGroup.gauge("WriteQueueLength", new Gauge<Integer>() {
+				@Override
+				public Integer getValue() {
+					return asyncIOManager.getWriteQueueLength(pathNum);
+				}
+			});
+			directoryGroup.gauge("ReadRequests", new Gauge<Long>() {
+				@Override
+				public Long getValue() {
+					return asyncIOManager.getNumReadRequests(pathNum);
+				}
+			});
+			directoryGroup.gauge("WriteRequests", new Gauge<Long>() {
+				@Override
+				public Long getValue() {
+					return asyncIOManager.getNumWriteRequests(pathNum);
+				}
+			});
+		}
+	}
+
 	public static void instantiateStatusMetrics(
 		MetricGroup metrics) {
 		MetricGroup status = metrics
@@ -20,6 +20,7 @@ package org.apache.flink.runtime.operators;
 
 import org.apache.flink.api.common.ExecutionConfig;
 import org.apache.flink.api.common.accumulators.Accumulator;
+import org.apache.flink.api.common.accumulators.LongCounter;
 import org.apache.flink.api.common.distributions.DataDistribution;
 import org.apache.flink.api.common.functions.GroupCombineFunction;
 import org.apache.flink.api.common.functions.Function;
@@ -32,13 +33,14 @@ import org.apache.flink.configuration.Configuration;
 import org.apache.flink.core.io.IOReadableWritable;
 import org.apache.flink.metrics.MetricGroup;
 import org.apache.flink.runtime.broadcast.BroadcastVariableMaterialization;
+import org.apache.flink.runtime.event.TaskEvent;
 import org.apache.flink.runtime.execution.CancelTaskException;
 import org.apache.flink.runtime.execution.Environment;
 import org.apache.flink.runtime.io.disk.iomanager.IOManager;
 import org.apache.flink.runtime.io.network.api.reader.MutableReader;
 import org.apache.flink.runtime.io.network.api.reader.MutableRecordReader;
-import org.apache.flink.runtime.io.network.api.writer.ChannelSelector;
 import org.apache.flink.runtime.io.network.api.writer.RecordWriter;
+import org.apache.flink.runtime.io.network.api.writer.ResultPartitionWriter;
 import org.apache.flink.runtime.io.network.partition.consumer.InputGate;
 import org.apache.flink.runtime.io.network.partition.consumer.UnionInputGate;
 import org.apache.flink.runtime.jobgraph.tasks.AbstractInvokable;
@@ -57,6 +59,7 @@ import org.apache.flink.runtime.operators.util.DistributedRuntimeUDFContext;
 import org.apache.flink.runtime.operators.util.LocalStrategy;
 import org.apache.flink.runtime.operators.util.ReaderIterator;
 import org.apache.flink.runtime.operators.util.TaskConfig;
+import org.apache.flink.runtime.operators.util.metrics.OutputStatisticsCollector;
 import org.apache.flink.runtime.plugable.DeserializationDelegate;
 import org.apache.flink.runtime.plugable.SerializationDelegate;
 import org.apache.flink.runtime.taskmanager.TaskManagerRuntimeInfo;
@@ -1108,6 +1111,16 @@ public class BatchTask<S extends Function, OT> extends AbstractInvokable impleme
 	}
 
 
+	@Override
+	public void sendTaskEvent(int index, TaskEvent event) throws IOException {
+		if (index < 0 || index >= this.driver.getNumberOfInputs()) {
+			throw new IndexOutOfBoundsException();
+		}
+
+		this.inputReaders[index].sendTaskEvent(event);
+	}
+
+
 	@Override
 	public <X> TypeSerializerFactory<X> getInputSerializer(int index) {
 		if (index < 0 || index >= this.driver.getNumberOfInputs()) {
@@ -1225,7 +1238,7 @@ public class BatchTask<S extends Function, OT> extends AbstractInvokable impleme
 			final int indexInSubtaskGroup = task.getIndexInSubtaskGroup();
 			final TypeComparatorFactory<T> compFactory = config.getOutputComparator(i, cl);
 
-			final ChannelSelector<SerializationDelegate<T>> oe;
+			final OutputEmitter<T> oe;
 			if (compFactory == null) {
 				oe = new OutputEmitter<T>(strategy, indexInSubtaskGroup);
 			}
@@ -1237,8 +1250,13 @@ public class BatchTask<S extends Function, OT> extends AbstractInvokable impleme
 				oe = new OutputEmitter<T>(strategy, indexInSubtaskGroup, comparator, partitioner, dataDist);
 			}
 
+			final ResultPartitionWriter writer = task.getEnvironment().getWriter(outputOffset + i);
+			if (config.getOutputRuntimeFilter(i)) {
+				oe.subscribeToRuntimeFilters(writer);
+			}
+
 			final RecordWriter<SerializationDelegate<T>> recordWriter =
-					new RecordWriter<SerializationDelegate<T>>(task.getEnvironment().getWriter(outputOffset + i), oe);
+					new RecordWriter<SerializationDelegate<T>>(writer, oe);
 
 			recordWriter.setMetricGroup(task.getEnvironment().getMetricGroup().getIOMetricGroup());
 
@@ -1275,6 +1293,7 @@ public class BatchTask<S extends Function, OT> extends AbstractInvokable impleme
 			// instantiate each task
 			@SuppressWarnings("rawtypes")
 			Collector previous = null;
+			TaskConfig consumerConfig = null;
 			for (int i = numChained - 1; i >= 0; --i)
 			{
 				// get the task first
@@ -1296,6 +1315,7 @@ public class BatchTask<S extends Function, OT> extends AbstractInvokable impleme
 					previous = getOutputCollector(containingTask, chainedStubConf, cl, eventualOutputs, 0, chainedStubConf.getNumOutputs());
 				}
 
+				previous = countOutputRecords(previous, chainedStubConf, consumerConfig, cl, accumulatorMap);
 				ct.setup(chainedStubConf, taskName, previous, containingTask, cl, executionConfig, accumulatorMap);
 				chainedTasksTarget.add(0, ct);
 
@@ -1304,14 +1324,51 @@ public class BatchTask<S extends Function, OT> extends AbstractInvokable impleme
 				}
 
 				previous = ct;
+				consumerConfig = chainedStubConf;
 			}
 			// the collector of the first in the chain is the collector for the task
-			return (Collector<T>) previous;
+			return countOutputRecords((Collector<T>) previous, config, consumerConfig, cl, accumulatorMap);
 		}
 		// else
 
 		// instantiate the output collector the default way from this configuration
-		return getOutputCollector(containingTask , config, cl, eventualOutputs, 0, numOutputs);
+		return countOutputRecords(
+			BatchTask.<T>getOutputCollector(containingTask , config, cl, eventualOutputs, 0, numOutputs),
+			config, null, cl, accumulatorMap);
+	}
+
+	/**
+	 * Wraps the collector that receives the records of the driver with the given configuration, such that
+	 * the records are counted in the accumulators that the configuration names, if it names any.
+	 *
+	 * @param consumerConfig The configuration of the chained task that consumes the records, or null, if
+	 *                       the records are passed to the output writers of the task.
+	 */
+	private static <T> Collector<T> countOutputRecords(Collector<T> output, TaskConfig config, TaskConfig consumerConfig,
+			ClassLoader cl, Map<String, Accumulator<?, ?>> accumulatorMap) {
+		final String accumulatorName = config.getOutputCardinalityAccumulator();
+		if (accumulatorName == null || accumulatorMap == null) {
+			return output;
+		}
+
+		final TypeSerializerFactory<T> serializerFactory = consumerConfig != null ?
+			consumerConfig.<T>getInputSerializer(0, cl) :
+			config.<T>getOutputSerializer(cl);
+		return new OutputStatisticsCollector<>(
+			output,
+			serializerFactory == null ? null : serializerFactory.getSerializer(),
+			getOrAddLongCounter(accumulatorMap, accumulatorName),
+			getOrAddLongCounter(accumulatorMap, accumulatorName + OutputStatisticsCollector.SAMPLED_RECORDS_SUFFIX),
+			getOrAddLongCounter(accumulatorMap, accumulatorName + OutputStatisticsCollector.SAMPLED_BYTES_SUFFIX));
+	}
+
+	private static LongCounter getOrAddLongCounter(Map<String, Accumulator<?, ?>> accumulatorMap, String name) {
+		Accumulator<?, ?> counter = accumulatorMap.get(name);
+		if (!(counter instanceof LongCounter)) {
+			counter = new LongCounter();
+			accumulatorMap.put(name, counter);
+		}
+		return (LongCounter) counter;
 	}
 	
 	// --------------------------------------------------------------------------------------------
@@ -21,6 +21,7 @@ package org.apache.flink.runtime.operators;
 
 import org.apache.flink.api.common.ExecutionConfig;
 import org.apache.flink.api.common.functions.FlatMapFunction;
+import org.apache.flink.api.common.functions.util.BufferingFlatMapFunction;
 import org.apache.flink.metrics.Counter;
 import org.apache.flink.runtime.operators.util.metrics.CountingCollector;
 import org.apache.flink.util.Collector;
@@ -109,6 +110,10 @@ public class FlatMapDriver<IT, OT> implements Driver<FlatMapFunction<IT, OT>, OT
 				function.flatMap(record, output);
 			}
 		}
+
+		if (this.running && function instanceof BufferingFlatMapFunction) {
+			((BufferingFlatMapFunction<IT, OT>) function).flush(output);
+		}
 	}
 
 	@Override
@@ -19,16 +19,22 @@
 package org.apache.flink.runtime.operators;
 
 import org.apache.flink.api.common.ExecutionConfig;
+import org.apache.flink.api.common.functions.Function;
 import org.apache.flink.api.common.functions.GroupCombineFunction;
+import org.apache.flink.api.common.functions.GroupReduceFunction;
+import org.apache.flink.api.common.typeutils.SameTypePairComparator;
 import org.apache.flink.api.common.typeutils.TypeComparator;
 import org.apache.flink.api.common.typeutils.TypeSerializer;
 import org.apache.flink.api.common.typeutils.TypeSerializerFactory;
+import org.apache.flink.api.java.functions.IncrementalCombine;
+import org.apache.flink.api.java.operators.translation.WrappingFunction;
 import org.apache.flink.core.memory.MemorySegment;
 import org.apache.flink.runtime.memory.MemoryManager;
+import org.apache.flink.runtime.operators.hash.InPlaceMutableHashTable;
 import org.apache.flink.runtime.operators.sort.FixedLengthRecordSorter;
 import org.apache.flink.runtime.operators.sort.InMemorySorter;
 import org.apache.flink.runtime.operators.sort.NormalizedKeySorter;
-import org.apache.flink.runtime.operators.sort.QuickSort;
+import org.apache.flink.runtime.operators.sort.RadixSort;
 import org.apache.flink.runtime.util.NonReusingKeyGroupedIterator;
 import org.apache.flink.runtime.util.ReusingKeyGroupedIterator;
 import org.apache.flink.util.Collector;
@@ -37,6 +43,8 @@ import org.apache.flink.util.MutableObjectIterator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.EOFException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
@@ -51,6 +59,11 @@ import java.util.List;
  * {@code IN} to {@code OUT}.
  *
  * <p>The GroupReduceCombineDriver uses a combining iterator over its input. The output of the iterator is emitted.</p>
+ *
+ * <p>Combine functions which are annotated with {@link IncrementalCombine} are first evaluated with a hash table
+ * that holds one partial result per key, unless the groups are sorted. If the table runs full while most of its
+ * records have distinct keys, the driver emits the partial results and falls back to sorting for the remaining
+ * input.</p>
  * 
  * @param <IN> The data type consumed by the combiner.
  * @param <OUT> The data type produced by the combiner.
@@ -62,17 +75,26 @@ public class GroupReduceCombineDriver<IN, OUT> implements Driver<GroupCombineFun
 	/** Fix length records with a length below this threshold will be in-place sorted, if possible. */
 	private static final int THRESHOLD_FOR_IN_PLACE_SORTING = 32;
 
+	/** Hash-based combining is given up if the ratio of distinct keys to records of a full table exceeds this. */
+	public static final double MAX_DISTINCT_KEY_RATIO_FOR_HASHING = 0.5;
+
 	private TaskContext<GroupCombineFunction<IN, OUT>, OUT> taskContext;
 
 	private InMemorySorter<IN> sorter;
 
+	private InPlaceMutableHashTable<IN> table;
+
+	private InPlaceMutableHashTable<IN>.HashTableProber<IN> prober;
+
+	private TypeComparator<IN> sortingComparator;
+
 	private GroupCombineFunction<IN, OUT> combiner;
 
 	private TypeSerializer<IN> serializer;
 	
 	private TypeComparator<IN> groupingComparator;
 
-	private QuickSort sortAlgo = new QuickSort();
+	private RadixSort sortAlgo = new RadixSort();
 
 	private Collector<OUT> output;
 
@@ -121,8 +143,8 @@ public class GroupReduceCombineDriver<IN, OUT> implements Driver<GroupCombineFun
 		final TypeSerializerFactory<IN> serializerFactory = this.taskContext.getInputSerializer(0);
 		this.serializer = serializerFactory.getSerializer();
 
-		final TypeComparator<IN> sortingComparator = this.taskContext.getDriverComparator(0);
-		
+		this.sortingComparator = this.taskContext.getDriverComparator(0);
+
 		this.groupingComparator = this.taskContext.getDriverComparator(1);
 		this.combiner = this.taskContext.getStub();
 		this.output = this.taskContext.getOutputCollector();
@@ -131,13 +153,13 @@ public class GroupReduceCombineDriver<IN, OUT> implements Driver<GroupCombineFun
 		final int numMemoryPages = memManager.computeNumberOfPages(this.taskContext.getTaskConfig().getRelativeMemoryDriver());
 		this.memory = memManager.allocatePages(this.taskContext.getContainingTask(), numMemoryPages);
 
-		// instantiate a fix-length in-place sorter, if possible, otherwise the out-of-place sorter
-		if (sortingComparator.supportsSerializationWithKeyNormalization() &&
-				this.serializer.getLength() > 0 && this.serializer.getLength() <= THRESHOLD_FOR_IN_PLACE_SORTING)
-		{
-			this.sorter = new FixedLengthRecordSorter<IN>(this.serializer, sortingComparator.duplicate(), memory);
+		if (canCombineWithHashTable(this.combiner, this.sortingComparator, this.groupingComparator)) {
+			// the table holds one partial result per key, the sorter is only created if hashing does not pay off
+			final TypeComparator<IN> tableComparator = this.groupingComparator.duplicate();
+			this.table = new InPlaceMutableHashTable<IN>(this.serializer, tableComparator, memory);
+			this.prober = this.table.getProber(tableComparator, new SameTypePairComparator<IN>(tableComparator));
 		} else {
-			this.sorter = new NormalizedKeySorter<IN>(this.serializer, sortingComparator.duplicate(), memory);
+			this.sorter = createSorter();
 		}
 
 		ExecutionConfig executionConfig = taskContext.getExecutionConfig();
@@ -148,6 +170,17 @@ public class GroupReduceCombineDriver<IN, OUT> implements Driver<GroupCombineFun
 		}
 	}
 
+	private InMemorySorter<IN> createSorter() {
+		// instantiate a fix-length in-place sorter, if possible, otherwise the out-of-place sorter
+		if (this.sortingComparator.supportsSerializationWithKeyNormalization() &&
+				this.serializer.getLength() > 0 && this.serializer.getLength() <= THRESHOLD_FOR_IN_PLACE_SORTING)
+		{
+			return new FixedLengthRecordSorter<IN>(this.serializer, this.sortingComparator.duplicate(), this.memory);
+		} else {
+			return new NormalizedKeySorter<IN>(this.serializer, this.sortingComparator.duplicate(), this.memory);
+		}
+	}
+
 	@Override
 	public void run() throws Exception {
 		if (LOG.isDebugEnabled()) {
@@ -157,6 +190,10 @@ public class GroupReduceCombineDriver<IN, OUT> implements Driver<GroupCombineFun
 		final MutableObjectIterator<IN> in = this.taskContext.getInput(0);
 		final TypeSerializer<IN> serializer = this.serializer;
 
+		if (this.table != null && hashCombine(in)) {
+			return;
+		}
+
 		if (objectReuseEnabled) {
 			IN value = serializer.createInstance();
 	
@@ -189,6 +226,128 @@ public class GroupReduceCombineDriver<IN, OUT> implements Driver<GroupCombineFun
 		}
 	}
 
+	/**
+	 * Combines the input in the hash table until either the input is exhausted or the table runs full with
+	 * too many distinct keys. Every record passes through the combine function, either together with the
+	 * partial result of its key or on its own. If the table runs full with too many distinct keys, the partial
+	 * results are emitted, the record which did not fit is written to a newly created sorter, and the remaining
+	 * input has to be sort-combined.
+	 *
+	 * @return True, if the input was consumed completely, false if the driver switched to sorting.
+	 */
+	private boolean hashCombine(MutableObjectIterator<IN> in) throws Exception {
+		final InPlaceMutableHashTable<IN>.HashTableProber<IN> prober = this.prober;
+		final PartialResultCollector partialResult = new PartialResultCollector();
+		final List<IN> pair = new ArrayList<IN>(2);
+
+		IN value = objectReuseEnabled ? this.serializer.createInstance() : null;
+		IN reuse = this.serializer.createInstance();
+
+		// the number of records and distinct keys that went into the table since it was last emptied
+		long numRecords = 0;
+		long numKeys = 0;
+
+		this.table.open();
+
+		while (running && (value = objectReuseEnabled ? in.next(value) : in.next()) != null) {
+			numRecords++;
+
+			// the first record of a key is combined on its own, like a group of a single record when sorting
+			final IN match = prober.getMatchFor(value, reuse);
+			pair.clear();
+			if (match != null) {
+				pair.add(match);
+			}
+			pair.add(value);
+			this.combiner.combine(pair, partialResult);
+			final IN combined = partialResult.take();
+
+			try {
+				if (match == null) {
+					prober.insertAfterNoMatch(combined);
+					numKeys++;
+				} else {
+					// the combine function might keep the match, so create a new one if object reuse is disabled
+					if (!objectReuseEnabled) {
+						reuse = this.serializer.createInstance();
+					}
+					prober.updateMatch(combined);
+				}
+				continue;
+			} catch (EOFException e) {
+				// the table ran out of memory, the combined record is handled below
+			}
+
+			// the partial result in the table, if any, is superseded by the combined record
+			emitTable(combined);
+			this.table.close();
+
+			if ((double) numKeys / numRecords > MAX_DISTINCT_KEY_RATIO_FOR_HASHING) {
+				if (LOG.isDebugEnabled()) {
+					LOG.debug("Combiner switches from hashing to sorting after observing {} distinct keys in {} records.",
+						numKeys, numRecords);
+				}
+
+				this.table = null;
+				this.sorter = createSorter();
+				if (!this.sorter.write(combined)) {
+					sortAndCombineAndRetryWrite(combined);
+				}
+				return false;
+			}
+
+			this.table.open();
+			numRecords = 1;
+			numKeys = 1;
+			try {
+				this.table.insert(combined);
+			} catch (EOFException e) {
+				++oversizedRecordCount;
+				LOG.debug("Cannot write record to empty hash table, record is too large. " +
+						"Oversized record count: {}", oversizedRecordCount);
+
+				// the record is already a partial result, so we can simply forward it
+				emit(combined);
+				numKeys = 0;
+			}
+		}
+
+		if (running) {
+			emitTable(null);
+		}
+		this.table.close();
+		return true;
+	}
+
+	/**
+	 * Emits the partial results in the hash table.
+	 *
+	 * @param superseded A record whose key is skipped, or null to emit all partial results.
+	 */
+	private void emitTable(IN superseded) throws Exception {
+		final TypeComparator<IN> comparator = this.groupingComparator;
+		if (superseded != null) {
+			comparator.setReference(superseded);
+		}
+
+		final MutableObjectIterator<IN> entries = this.table.getEntryIterator();
+		IN record = this.serializer.createInstance();
+		while (this.running && (record = entries.next(record)) != null) {
+			if (superseded == null || !comparator.equalToReference(record)) {
+				emit(record);
+				if (!objectReuseEnabled) {
+					record = this.serializer.createInstance();
+				}
+			}
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private void emit(IN partialResult) {
+		// incremental combine functions produce records of their input type
+		this.output.collect((OUT) partialResult);
+	}
+
 	private void sortAndCombine() throws Exception {
 		if (sorter.isEmpty()) {
 			return;
@@ -238,6 +397,9 @@ public class GroupReduceCombineDriver<IN, OUT> implements Driver<GroupCombineFun
 		if (this.sorter != null) {
 			this.sorter.dispose();
 		}
+		if (this.table != null) {
+			this.table.close();
+		}
 
 		this.taskContext.getMemoryManager().release(this.memory);
 	}
@@ -254,6 +416,14 @@ public class GroupReduceCombineDriver<IN, OUT> implements Driver<GroupCombineFun
 				// may happen during concurrent modification
 			}
 		}
+		if (this.table != null) {
+			try {
+				this.table.close();
+			}
+			catch (Exception e) {
+				// may happen during concurrent modification
+			}
+		}
 
 		this.taskContext.getMemoryManager().release(this.memory);
 	}
@@ -266,4 +436,79 @@ public class GroupReduceCombineDriver<IN, OUT> implements Driver<GroupCombineFun
 	public long getOversizedRecordCount() {
 		return oversizedRecordCount;
 	}
+
+	/**
+	 * Checks whether the given combine function is annotated with {@link IncrementalCombine}. Wrappers of
+	 * combinable group reduce functions, such as the ones which unwrap the keys of key selectors, are looked
+	 * through because their combine method keeps the type of its input. Other wrappers may change the type of
+	 * the combined records and are therefore never combined incrementally.
+	 *
+	 * @param combiner The combine function to check.
+	 * @return True, if the function can be combined with a hash table.
+	 */
+	public static boolean isIncrementalCombine(GroupCombineFunction<?, ?> combiner) {
+		Function function = combiner;
+		while (function instanceof WrappingFunction && function instanceof GroupReduceFunction) {
+			function = ((WrappingFunction<?>) function).getWrappedFunction();
+		}
+		return function.getClass().isAnnotationPresent(IncrementalCombine.class);
+	}
+
+	/**
+	 * Checks whether a combiner can combine its records with a hash table. This requires an incremental combine
+	 * function and groups without an order, because the hash table combines the records of a group in the order
+	 * in which they arrive.
+	 *
+	 * @param combiner The combine function.
+	 * @param sortingComparator The comparator for the grouping keys, followed by the keys that order the groups.
+	 * @param groupingComparator The comparator for the grouping keys.
+	 * @return True, if the records can be combined with a hash table.
+	 */
+	public static boolean canCombineWithHashTable(
+			GroupCombineFunction<?, ?> combiner,
+			TypeComparator<?> sortingComparator,
+			TypeComparator<?> groupingComparator) {
+		return isIncrementalCombine(combiner) &&
+			sortingComparator.getFlatComparators().length == groupingComparator.getFlatComparators().length;
+	}
+
+	/**
+	 * Gets whether this combiner currently combines with a hash table rather than by sorting.
+	 *
+	 * @return True, if the combiner uses a hash table.
+	 */
+	boolean isHashCombining() {
+		return table != null;
+	}
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * Collector for the single partial result of an incremental combine function.
+	 */
+	private final class PartialResultCollector implements Collector<OUT> {
+
+		private IN result;
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public void collect(OUT record) {
+			if (result != null) {
+				throw new IllegalStateException("An incremental combine function must emit exactly one record per call.");
+			}
+			result = (IN) record;
+		}
+
+		IN take() {
+			if (result == null) {
+				throw new IllegalStateException("An incremental combine function must emit exactly one record per call.");
+			}
+			IN partial = result;
+			result = null;
+			return partial;
+		}
+
+		@Override
+		public void close() {}
+	}
 }
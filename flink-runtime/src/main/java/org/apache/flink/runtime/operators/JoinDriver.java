@@ -24,15 +24,20 @@ import org.apache.flink.api.common.typeutils.TypeComparator;
 import org.apache.flink.api.common.typeutils.TypePairComparatorFactory;
 import org.apache.flink.api.common.typeutils.TypeSerializer;
 import org.apache.flink.configuration.ConfigConstants;
+import org.apache.flink.configuration.TaskManagerOptions;
 import org.apache.flink.metrics.Counter;
 import org.apache.flink.runtime.io.disk.iomanager.IOManager;
 import org.apache.flink.runtime.memory.MemoryManager;
+import org.apache.flink.runtime.operators.hash.HashJoinInputSampler;
 import org.apache.flink.runtime.operators.hash.NonReusingBuildFirstHashJoinIterator;
 import org.apache.flink.runtime.operators.hash.NonReusingBuildSecondHashJoinIterator;
 import org.apache.flink.runtime.operators.hash.ReusingBuildFirstHashJoinIterator;
 import org.apache.flink.runtime.operators.hash.ReusingBuildSecondHashJoinIterator;
+import org.apache.flink.runtime.operators.hash.RuntimeFilterBuilder;
+import org.apache.flink.runtime.operators.hash.RuntimeFilterEvent;
 import org.apache.flink.runtime.operators.sort.NonReusingMergeInnerJoinIterator;
 import org.apache.flink.runtime.operators.sort.ReusingMergeInnerJoinIterator;
+import org.apache.flink.runtime.operators.sort.UnilateralSortMerger;
 import org.apache.flink.runtime.operators.util.JoinTaskIterator;
 import org.apache.flink.runtime.operators.util.TaskConfig;
 import org.apache.flink.runtime.operators.util.metrics.CountingCollector;
@@ -55,7 +60,19 @@ public class JoinDriver<IT1, IT2, OT> implements Driver<FlatJoinFunction<IT1, IT
 	
 	protected TaskContext<FlatJoinFunction<IT1, IT2, OT>, OT> taskContext;
 	
+	/** The share of the join memory that each input gets for sorting, if the join falls back to a sort-merge join. */
+	private static final double SORT_MEMORY_SHARE = 0.4;
+
+	/** The minimum ratio between the pages of the join and the pages of the input sampler. */
+	private static final int MIN_PAGES_PER_SAMPLER_PAGE = 4;
+	
 	private volatile JoinTaskIterator<IT1, IT2, OT> joinIterator; // the iterator that does the actual join 
+
+	private HashJoinInputSampler<IT1, IT2> inputSampler; // buffers the sampled records of both inputs
+
+	private UnilateralSortMerger<IT1> sorter1; // sorts the first input, if the join falls back to sort-merge
+
+	private UnilateralSortMerger<IT2> sorter2; // sorts the second input, if the join falls back to sort-merge
 	
 	protected volatile boolean running;
 
@@ -95,20 +112,93 @@ public class JoinDriver<IT1, IT2, OT> implements Driver<FlatJoinFunction<IT1, IT
 		final IOManager ioManager = this.taskContext.getIOManager();
 		
 		// set up memory and I/O parameters
-		final double fractionAvailableMemory = config.getRelativeMemoryDriver();
-		final int numPages = memoryManager.computeNumberOfPages(fractionAvailableMemory);
+		double fractionAvailableMemory = config.getRelativeMemoryDriver();
+		int numPages = memoryManager.computeNumberOfPages(fractionAvailableMemory);
 		
 		// test minimum memory requirements
-		final DriverStrategy ls = config.getDriverStrategy();
+		final DriverStrategy plannedStrategy = config.getDriverStrategy();
+		DriverStrategy ls = plannedStrategy;
 		
-		final MutableObjectIterator<IT1> in1 = new CountingMutableObjectIterator<>(this.taskContext.<IT1>getInput(0), numRecordsIn);
-		final MutableObjectIterator<IT2> in2 = new CountingMutableObjectIterator<>(this.taskContext.<IT2>getInput(1), numRecordsIn);
+		MutableObjectIterator<IT1> in1 = new CountingMutableObjectIterator<>(this.taskContext.<IT1>getInput(0), numRecordsIn);
+		MutableObjectIterator<IT2> in2 = new CountingMutableObjectIterator<>(this.taskContext.<IT2>getInput(1), numRecordsIn);
 
 		// get the key positions and types
 		final TypeSerializer<IT1> serializer1 = this.taskContext.<IT1>getInputSerializer(0).getSerializer();
 		final TypeSerializer<IT2> serializer2 = this.taskContext.<IT2>getInputSerializer(1).getSerializer();
 		final TypeComparator<IT1> comparator1 = this.taskContext.getDriverComparator(0);
 		final TypeComparator<IT2> comparator2 = this.taskContext.getDriverComparator(1);
+
+		// collect the hash codes of the build side for the producers of the probe side
+		RuntimeFilterBuilder<?> runtimeFilterBuilder = null;
+		int probeSideInput = -1;
+		if (config.getDriverRuntimeFilter() && taskContext.getTaskManagerInfo().getConfiguration().getBoolean(
+				TaskManagerOptions.RUNTIME_HASH_JOIN_RUNTIME_FILTERS)) {
+			if (ls == DriverStrategy.HYBRIDHASH_BUILD_FIRST) {
+				RuntimeFilterBuilder<IT1> builder = new RuntimeFilterBuilder<>(in1, comparator1);
+				in1 = builder;
+				runtimeFilterBuilder = builder;
+				probeSideInput = 1;
+			} else if (ls == DriverStrategy.HYBRIDHASH_BUILD_SECOND) {
+				RuntimeFilterBuilder<IT2> builder = new RuntimeFilterBuilder<>(in2, comparator2);
+				in2 = builder;
+				runtimeFilterBuilder = builder;
+				probeSideInput = 0;
+			}
+		}
+		
+		// let the smaller input become the build side, if the inputs can be read alternately
+		if (config.getDriverAdaptiveBuildSide() && taskContext.getTaskManagerInfo().getConfiguration().getBoolean(
+				TaskManagerOptions.RUNTIME_HASH_JOIN_ADAPTIVE_BUILD_SIDE)) {
+			final int numSamplerPages = 2 * HashJoinInputSampler.NUM_PAGES_PER_INPUT;
+
+			if (numPages >= MIN_PAGES_PER_SAMPLER_PAGE * numSamplerPages) {
+				// the memory of the sampler is taken from the memory of the join
+				fractionAvailableMemory = fractionAvailableMemory * (numPages - numSamplerPages) / numPages;
+				numPages = memoryManager.computeNumberOfPages(fractionAvailableMemory);
+
+				this.inputSampler = new HashJoinInputSampler<>(in1, serializer1, in2, serializer2,
+						memoryManager, ioManager, this.taskContext.getContainingTask(),
+						(long) numPages * memoryManager.getPageSize());
+				ls = this.inputSampler.sample(plannedStrategy);
+
+				if (LOG.isDebugEnabled()) {
+					LOG.debug(this.taskContext.formatLogString("Sampled " + this.inputSampler.getNumBytesSampled1() +
+							" bytes of the first input and " + this.inputSampler.getNumBytesSampled2() +
+							" bytes of the second input, using strategy " + ls.name() + " instead of " +
+							plannedStrategy.name() + "."));
+				}
+
+				in1 = this.inputSampler.getInput1();
+				in2 = this.inputSampler.getInput2();
+
+				if (ls == DriverStrategy.INNER_MERGE) {
+					// neither input fits into memory, sort both inputs for a sort-merge join
+					final double sortMemoryFraction = fractionAvailableMemory * SORT_MEMORY_SHARE;
+					this.sorter1 = new UnilateralSortMerger<>(memoryManager, ioManager, in1,
+							this.taskContext.getContainingTask(), this.taskContext.<IT1>getInputSerializer(0),
+							comparator1.duplicate(), sortMemoryFraction, config.getFilehandlesDriver(),
+							config.getSpillingThresholdDriver(), config.getUseLargeRecordHandler(),
+							taskContext.getExecutionConfig().isObjectReuseEnabled());
+					this.sorter2 = new UnilateralSortMerger<>(memoryManager, ioManager, in2,
+							this.taskContext.getContainingTask(), this.taskContext.<IT2>getInputSerializer(1),
+							comparator2.duplicate(), sortMemoryFraction, config.getFilehandlesDriver(),
+							config.getSpillingThresholdDriver(), config.getUseLargeRecordHandler(),
+							taskContext.getExecutionConfig().isObjectReuseEnabled());
+
+					in1 = this.sorter1.getIterator();
+					in2 = this.sorter2.getIterator();
+					numPages = memoryManager.computeNumberOfPages(fractionAvailableMemory * (1 - 2 * SORT_MEMORY_SHARE));
+				}
+
+				if (ls != plannedStrategy) {
+					// the filter would be built from the probe side
+					runtimeFilterBuilder = null;
+				}
+			} else if (LOG.isDebugEnabled()) {
+				LOG.debug(this.taskContext.formatLogString("Not sampling the join inputs, because the join has only " +
+						numPages + " memory pages."));
+			}
+		}
 		
 		final TypePairComparatorFactory<IT1, IT2> pairComparatorFactory = config.getPairComparatorFactory(
 				this.taskContext.getUserCodeClassLoader());
@@ -206,12 +296,33 @@ public class JoinDriver<IT1, IT2, OT> implements Driver<FlatJoinFunction<IT1, IT
 		// open the iterator - this triggers the sorting or hash-table building
 		// and blocks until the iterator is ready
 		this.joinIterator.open();
+
+		if (runtimeFilterBuilder != null) {
+			sendRuntimeFilter(runtimeFilterBuilder, probeSideInput);
+		}
 		
 		if (LOG.isDebugEnabled()) {
 			LOG.debug(this.taskContext.formatLogString("join task iterator ready."));
 		}
 	}
 
+	private void sendRuntimeFilter(RuntimeFilterBuilder<?> runtimeFilterBuilder, int probeSideInput) throws Exception {
+		// the join consumes the subpartition with its own index from each probe-side producer
+		final RuntimeFilterEvent event = runtimeFilterBuilder.createFilterEvent(
+				this.taskContext.getContainingTask().getIndexInSubtaskGroup());
+
+		if (event != null) {
+			if (LOG.isDebugEnabled()) {
+				LOG.debug(this.taskContext.formatLogString("Sending runtime filter with " + event.getNumEntries() +
+						" build-side records to the producers of the probe side."));
+			}
+			this.taskContext.sendTaskEvent(probeSideInput, event);
+		} else if (LOG.isDebugEnabled()) {
+			LOG.debug(this.taskContext.formatLogString("Not sending a runtime filter, because the build side has more than " +
+					RuntimeFilterBuilder.MAX_NUM_ENTRIES + " records."));
+		}
+	}
+
 	@Override
 	public void run() throws Exception {
 		final Counter numRecordsOut = this.taskContext.getMetricGroup().getIOMetricGroup().getNumRecordsOutCounter();
@@ -225,9 +336,24 @@ public class JoinDriver<IT1, IT2, OT> implements Driver<FlatJoinFunction<IT1, IT
 
 	@Override
 	public void cleanup() throws Exception {
-		if (this.joinIterator != null) {
-			this.joinIterator.close();
-			this.joinIterator = null;
+		try {
+			if (this.joinIterator != null) {
+				this.joinIterator.close();
+				this.joinIterator = null;
+			}
+		} finally {
+			if (this.sorter1 != null) {
+				this.sorter1.close();
+				this.sorter1 = null;
+			}
+			if (this.sorter2 != null) {
+				this.sorter2.close();
+				this.sorter2 = null;
+			}
+			if (this.inputSampler != null) {
+				this.inputSampler.close();
+				this.inputSampler = null;
+			}
 		}
 	}
 	
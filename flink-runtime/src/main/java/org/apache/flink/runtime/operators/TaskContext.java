@@ -22,6 +22,7 @@ package org.apache.flink.runtime.operators;
 import org.apache.flink.api.common.ExecutionConfig;
 import org.apache.flink.api.common.typeutils.TypeComparator;
 import org.apache.flink.api.common.typeutils.TypeSerializerFactory;
+import org.apache.flink.runtime.event.TaskEvent;
 import org.apache.flink.runtime.io.disk.iomanager.IOManager;
 import org.apache.flink.runtime.jobgraph.tasks.AbstractInvokable;
 import org.apache.flink.runtime.memory.MemoryManager;
@@ -31,6 +32,8 @@ import org.apache.flink.runtime.taskmanager.TaskManagerRuntimeInfo;
 import org.apache.flink.util.Collector;
 import org.apache.flink.util.MutableObjectIterator;
 
+import java.io.IOException;
+
 
 /**
  * The task context gives a driver (e.g., {@link MapDriver}, or {@link JoinDriver}) access to
@@ -54,6 +57,11 @@ public interface TaskContext<S, OT> {
 	IOManager getIOManager();
 
 	<X> MutableObjectIterator<X> getInput(int index);
+
+	/**
+	 * Sends the given event backwards to the producers of the given input.
+	 */
+	void sendTaskEvent(int index, TaskEvent event) throws IOException;
 	
 	<X> TypeSerializerFactory<X> getInputSerializer(int index);
 	
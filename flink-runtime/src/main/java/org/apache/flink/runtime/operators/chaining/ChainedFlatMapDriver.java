@@ -21,12 +21,15 @@ package org.apache.flink.runtime.operators.chaining;
 
 import org.apache.flink.api.common.functions.FlatMapFunction;
 import org.apache.flink.api.common.functions.Function;
+import org.apache.flink.api.common.functions.util.BatchCollector;
+import org.apache.flink.api.common.functions.util.BatchFlatMapFunction;
+import org.apache.flink.api.common.functions.util.BufferingFlatMapFunction;
 import org.apache.flink.api.common.functions.util.FunctionUtils;
 import org.apache.flink.configuration.Configuration;
 import org.apache.flink.runtime.jobgraph.tasks.AbstractInvokable;
 import org.apache.flink.runtime.operators.BatchTask;
 
-public class ChainedFlatMapDriver<IT, OT> extends ChainedDriver<IT, OT> {
+public class ChainedFlatMapDriver<IT, OT> extends ChainedDriver<IT, OT> implements BatchCollector<IT> {
 
 	private FlatMapFunction<IT, OT> mapper;
 
@@ -83,8 +86,31 @@ public class ChainedFlatMapDriver<IT, OT> extends ChainedDriver<IT, OT> {
 		}
 	}
 
+	@Override
+	public boolean collectBatch(Object batch, int numRecords) {
+		if (!(this.mapper instanceof BatchFlatMapFunction)) {
+			return false;
+		}
+		try {
+			if (((BatchFlatMapFunction<IT, OT>) this.mapper).flatMapBatch(batch, this.outputCollector)) {
+				this.numRecordsIn.inc(numRecords);
+				return true;
+			}
+			return false;
+		} catch (Exception ex) {
+			throw new ExceptionInChainedStubException(this.taskName, ex);
+		}
+	}
+
 	@Override
 	public void close() {
+		if (this.mapper instanceof BufferingFlatMapFunction) {
+			try {
+				((BufferingFlatMapFunction<IT, OT>) this.mapper).flush(this.outputCollector);
+			} catch (Exception ex) {
+				throw new ExceptionInChainedStubException(this.taskName, ex);
+			}
+		}
 		this.outputCollector.close();
 	}
 
@@ -18,12 +18,15 @@
 
 package org.apache.flink.runtime.operators.chaining;
 
+import java.io.EOFException;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 
 import org.apache.flink.api.common.functions.GroupCombineFunction;
 import org.apache.flink.api.common.functions.Function;
 import org.apache.flink.api.common.functions.util.FunctionUtils;
+import org.apache.flink.api.common.typeutils.SameTypePairComparator;
 import org.apache.flink.api.common.typeutils.TypeComparator;
 import org.apache.flink.api.common.typeutils.TypeComparatorFactory;
 import org.apache.flink.api.common.typeutils.TypeSerializer;
@@ -33,13 +36,16 @@ import org.apache.flink.core.memory.MemorySegment;
 import org.apache.flink.runtime.jobgraph.tasks.AbstractInvokable;
 import org.apache.flink.runtime.memory.MemoryManager;
 import org.apache.flink.runtime.operators.BatchTask;
+import org.apache.flink.runtime.operators.GroupReduceCombineDriver;
+import org.apache.flink.runtime.operators.hash.InPlaceMutableHashTable;
 import org.apache.flink.runtime.operators.sort.FixedLengthRecordSorter;
 import org.apache.flink.runtime.operators.sort.InMemorySorter;
 import org.apache.flink.runtime.operators.sort.NormalizedKeySorter;
-import org.apache.flink.runtime.operators.sort.QuickSort;
+import org.apache.flink.runtime.operators.sort.RadixSort;
 import org.apache.flink.runtime.util.NonReusingKeyGroupedIterator;
 import org.apache.flink.runtime.util.ReusingKeyGroupedIterator;
 import org.apache.flink.util.Collector;
+import org.apache.flink.util.MutableObjectIterator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -48,6 +54,9 @@ import org.slf4j.LoggerFactory;
  * GroupReduceCombineDriver, this driver's purpose is only to combine the values received in the chain. It is used by
  * the GroupReduce and the CombineGroup transformation.
  *
+ * <p>Like the GroupReduceCombineDriver, this driver first combines incremental combine functions with a hash table,
+ * unless the groups are sorted, and switches to sorting if most of the records in a full table have distinct keys.
+ *
  * @see org.apache.flink.runtime.operators.GroupReduceCombineDriver
  * @param <IN> The data type consumed by the combiner.
  * @param <OUT> The data type produced by the combiner.
@@ -65,6 +74,23 @@ public class SynchronousChainedCombineDriver<IN, OUT> extends ChainedDriver<IN,
 
 	private InMemorySorter<IN> sorter;
 
+	private InPlaceMutableHashTable<IN> table;
+
+	private InPlaceMutableHashTable<IN>.HashTableProber<IN> prober;
+
+	private PartialResultCollector partialResult;
+
+	private final List<IN> pair = new ArrayList<IN>(2);
+
+	private IN reuse;
+
+	/** The number of records and distinct keys that went into the hash table since it was last emptied. */
+	private long numTableRecords;
+
+	private long numTableKeys;
+
+	private TypeComparator<IN> sortingComparator;
+
 	private GroupCombineFunction<IN, OUT> combiner;
 
 	private TypeSerializer<IN> serializer;
@@ -73,7 +99,7 @@ public class SynchronousChainedCombineDriver<IN, OUT> extends ChainedDriver<IN,
 
 	private AbstractInvokable parent;
 
-	private final QuickSort sortAlgo = new QuickSort();
+	private final RadixSort sortAlgo = new RadixSort();
 
 	private List<MemorySegment> memory;
 	
@@ -107,20 +133,23 @@ public class SynchronousChainedCombineDriver<IN, OUT> extends ChainedDriver<IN,
 		
 		this.serializer = serializerFactory.getSerializer();
 
-		TypeComparator<IN> sortingComparator = sortingComparatorFactory.createComparator();
+		this.sortingComparator = sortingComparatorFactory.createComparator();
 		this.groupingComparator = groupingComparatorFactory.createComparator();
 		
 		MemoryManager memManager = this.parent.getEnvironment().getMemoryManager();
 		final int numMemoryPages = memManager.computeNumberOfPages(this.config.getRelativeMemoryDriver());
 		this.memory = memManager.allocatePages(this.parent, numMemoryPages);
 
-		// instantiate a fix-length in-place sorter, if possible, otherwise the out-of-place sorter
-		if (sortingComparator.supportsSerializationWithKeyNormalization() &&
-			this.serializer.getLength() > 0 && this.serializer.getLength() <= THRESHOLD_FOR_IN_PLACE_SORTING)
-		{
-			this.sorter = new FixedLengthRecordSorter<IN>(this.serializer, sortingComparator.duplicate(), this.memory);
+		if (GroupReduceCombineDriver.canCombineWithHashTable(this.combiner, this.sortingComparator, this.groupingComparator)) {
+			// the table holds one partial result per key, the sorter is only created if hashing does not pay off
+			final TypeComparator<IN> tableComparator = this.groupingComparator.duplicate();
+			this.table = new InPlaceMutableHashTable<IN>(this.serializer, tableComparator, this.memory);
+			this.prober = this.table.getProber(tableComparator, new SameTypePairComparator<IN>(tableComparator));
+			this.partialResult = new PartialResultCollector();
+			this.reuse = this.serializer.createInstance();
+			this.table.open();
 		} else {
-			this.sorter = new NormalizedKeySorter<IN>(this.serializer, sortingComparator.duplicate(), this.memory);
+			this.sorter = createSorter();
 		}
 
 		if (LOG.isDebugEnabled()) {
@@ -128,9 +157,25 @@ public class SynchronousChainedCombineDriver<IN, OUT> extends ChainedDriver<IN,
 		}
 	}
 
+	private InMemorySorter<IN> createSorter() {
+		// instantiate a fix-length in-place sorter, if possible, otherwise the out-of-place sorter
+		if (this.sortingComparator.supportsSerializationWithKeyNormalization() &&
+			this.serializer.getLength() > 0 && this.serializer.getLength() <= THRESHOLD_FOR_IN_PLACE_SORTING)
+		{
+			return new FixedLengthRecordSorter<IN>(this.serializer, this.sortingComparator.duplicate(), this.memory);
+		} else {
+			return new NormalizedKeySorter<IN>(this.serializer, this.sortingComparator.duplicate(), this.memory);
+		}
+	}
+
 	@Override
 	public void closeTask() throws Exception {
-		this.sorter.dispose();
+		if (this.sorter != null) {
+			this.sorter.dispose();
+		}
+		if (this.table != null) {
+			this.table.close();
+		}
 		this.parent.getEnvironment().getMemoryManager().release(this.memory);
 
 		if (this.running) {
@@ -142,7 +187,12 @@ public class SynchronousChainedCombineDriver<IN, OUT> extends ChainedDriver<IN,
 	public void cancelTask() {
 		this.running = false;
 		try {
-			this.sorter.dispose();
+			if (this.sorter != null) {
+				this.sorter.dispose();
+			}
+			if (this.table != null) {
+				this.table.close();
+			}
 		}
 		catch (Exception e) {
 			// may happen during concurrent modification when canceling
@@ -164,6 +214,16 @@ public class SynchronousChainedCombineDriver<IN, OUT> extends ChainedDriver<IN,
 	@Override
 	public void collect(IN record) {
 		this.numRecordsIn.inc();
+
+		if (this.table != null) {
+			try {
+				hashCombine(record);
+			} catch (Exception e) {
+				throw new ExceptionInChainedStubException(this.taskName, e);
+			}
+			return;
+		}
+
 		// try writing to the sorter first
 		try {
 			if (this.sorter.write(record)) {
@@ -192,10 +252,110 @@ public class SynchronousChainedCombineDriver<IN, OUT> extends ChainedDriver<IN,
 
 	// --------------------------------------------------------------------------------------------
 
+	/**
+	 * Combines the record with the partial result of its key in the hash table, or on its own if the key is not in
+	 * the table yet. If the table runs full, its partial results are emitted and the table is either emptied or, if
+	 * most of its records had distinct keys, replaced by a sorter for all following records.
+	 */
+	private void hashCombine(IN record) throws Exception {
+		final InPlaceMutableHashTable<IN>.HashTableProber<IN> prober = this.prober;
+		this.numTableRecords++;
+
+		// the first record of a key is combined on its own, like a group of a single record when sorting
+		final IN match = prober.getMatchFor(record, this.reuse);
+		this.pair.clear();
+		if (match != null) {
+			this.pair.add(match);
+		}
+		this.pair.add(record);
+		this.combiner.combine(this.pair, this.partialResult);
+		final IN combined = this.partialResult.take();
+
+		try {
+			if (match == null) {
+				prober.insertAfterNoMatch(combined);
+				this.numTableKeys++;
+			} else {
+				// the combine function might keep the match, so create a new one if object reuse is disabled
+				if (!this.objectReuseEnabled) {
+					this.reuse = this.serializer.createInstance();
+				}
+				prober.updateMatch(combined);
+			}
+			return;
+		} catch (EOFException e) {
+			// the table ran out of memory, the combined record is handled below
+		}
+
+		// the partial result in the table, if any, is superseded by the combined record
+		emitTable(combined);
+		this.table.close();
+
+		if ((double) this.numTableKeys / this.numTableRecords > GroupReduceCombineDriver.MAX_DISTINCT_KEY_RATIO_FOR_HASHING) {
+			if (LOG.isDebugEnabled()) {
+				LOG.debug("Chained combiner switches from hashing to sorting after observing {} distinct keys in {} records.",
+					this.numTableKeys, this.numTableRecords);
+			}
+
+			this.table = null;
+			this.sorter = createSorter();
+			if (!this.sorter.write(combined)) {
+				throw new IOException("Cannot write record to fresh sort buffer. Record too large.");
+			}
+			return;
+		}
+
+		this.table.open();
+		this.numTableRecords = 1;
+		this.numTableKeys = 1;
+		try {
+			this.table.insert(combined);
+		} catch (EOFException e) {
+			// the record is already a partial result, so we can simply forward it
+			emit(combined);
+			this.numTableKeys = 0;
+		}
+	}
+
+	/**
+	 * Emits the partial results in the hash table.
+	 *
+	 * @param superseded A record whose key is skipped, or null to emit all partial results.
+	 */
+	private void emitTable(IN superseded) throws Exception {
+		final TypeComparator<IN> comparator = this.groupingComparator;
+		if (superseded != null) {
+			comparator.setReference(superseded);
+		}
+
+		final MutableObjectIterator<IN> entries = this.table.getEntryIterator();
+		IN record = this.serializer.createInstance();
+		while (this.running && (record = entries.next(record)) != null) {
+			if (superseded == null || !comparator.equalToReference(record)) {
+				emit(record);
+				if (!this.objectReuseEnabled) {
+					record = this.serializer.createInstance();
+				}
+			}
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private void emit(IN partialResult) {
+		// incremental combine functions produce records of their input type
+		this.outputCollector.collect((OUT) partialResult);
+	}
+
+	// --------------------------------------------------------------------------------------------
+
 	@Override
 	public void close() {
 		try {
-			sortAndCombine();
+			if (this.table != null) {
+				emitTable(null);
+			} else {
+				sortAndCombine();
+			}
 		} catch (Exception e) {
 			throw new ExceptionInChainedStubException(this.taskName, e);
 		}
@@ -240,4 +400,35 @@ public class SynchronousChainedCombineDriver<IN, OUT> extends ChainedDriver<IN,
 			}
 		}
 	}
+
+	// --------------------------------------------------------------------------------------------
+
+	/**
+	 * Collector for the single partial result of an incremental combine function.
+	 */
+	private final class PartialResultCollector implements Collector<OUT> {
+
+		private IN result;
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public void collect(OUT record) {
+			if (result != null) {
+				throw new IllegalStateException("An incremental combine function must emit exactly one record per call.");
+			}
+			result = (IN) record;
+		}
+
+		IN take() {
+			if (result == null) {
+				throw new IllegalStateException("An incremental combine function must emit exactly one record per call.");
+			}
+			IN partial = result;
+			result = null;
+			return partial;
+		}
+
+		@Override
+		public void close() {}
+	}
 }
@@ -0,0 +1,283 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.operators.hash;
+
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.core.memory.MemorySegment;
+import org.apache.flink.runtime.io.disk.InputViewIterator;
+import org.apache.flink.runtime.io.disk.SpillingBuffer;
+import org.apache.flink.runtime.io.disk.iomanager.IOManager;
+import org.apache.flink.runtime.jobgraph.tasks.AbstractInvokable;
+import org.apache.flink.runtime.memory.ListMemorySegmentSource;
+import org.apache.flink.runtime.memory.MemoryAllocationException;
+import org.apache.flink.runtime.memory.MemoryManager;
+import org.apache.flink.runtime.operators.DriverStrategy;
+import org.apache.flink.util.MutableObjectIterator;
+
+import java.io.IOException;
+import java.util.ArrayList;
+
+/**
+ * Reads a prefix of both inputs of a hash join before the hash table is built, in order to find
+ * out which input is smaller than estimated by the optimizer.
+ *
+ * <p>The inputs are read alternately, such that roughly the same number of bytes is buffered for
+ * both inputs. Reading stops once one input is exhausted, which makes it the smaller input, or once
+ * both inputs exceed the given size limit. The buffered records are kept in a few memory pages and
+ * spilled to disk when these are full. The iterators returned by {@link #getInput1()} and
+ * {@link #getInput2()} first replay the buffered records and then continue with the remaining input.
+ *
+ * <p>Because the sampler reads from the probe side before the build side is complete, it must only
+ * be used if the two inputs do not originate from a common producer. Otherwise the producer may
+ * block on the unread build side while the sampler waits for probe-side records.
+ *
+ * @param <T1> The type of the records of the first input.
+ * @param <T2> The type of the records of the second input.
+ */
+public class HashJoinInputSampler<T1, T2> {
+
+	/** The number of memory pages in which the records of each input are buffered before spilling. */
+	public static final int NUM_PAGES_PER_INPUT = 8;
+
+	private final InputBuffer<T1> buffer1;
+
+	private final InputBuffer<T2> buffer2;
+
+	private final MemoryManager memManager;
+
+	private final long maxBuildSideBytes;
+
+	public HashJoinInputSampler(
+			MutableObjectIterator<T1> input1,
+			TypeSerializer<T1> serializer1,
+			MutableObjectIterator<T2> input2,
+			TypeSerializer<T2> serializer2,
+			MemoryManager memManager,
+			IOManager ioManager,
+			AbstractInvokable ownerTask,
+			long maxBuildSideBytes) throws MemoryAllocationException {
+
+		this.memManager = memManager;
+		this.maxBuildSideBytes = maxBuildSideBytes;
+
+		this.buffer1 = new InputBuffer<>(input1, serializer1, memManager, ioManager, ownerTask);
+		try {
+			this.buffer2 = new InputBuffer<>(input2, serializer2, memManager, ioManager, ownerTask);
+		} catch (MemoryAllocationException e) {
+			memManager.release(buffer1.memory);
+			throw e;
+		}
+	}
+
+	/**
+	 * Reads the inputs until the smaller one is known and chooses the join strategy accordingly.
+	 *
+	 * @param plannedStrategy The hybrid hash strategy which the optimizer has chosen.
+	 * @return The hybrid hash strategy which builds the hash table from the smaller input, or
+	 *         {@link DriverStrategy#INNER_MERGE} if both inputs exceed the size limit.
+	 */
+	public DriverStrategy sample(DriverStrategy plannedStrategy) throws IOException {
+		if (plannedStrategy != DriverStrategy.HYBRIDHASH_BUILD_FIRST &&
+				plannedStrategy != DriverStrategy.HYBRIDHASH_BUILD_SECOND) {
+			throw new IllegalArgumentException("Unsupported driver strategy for sampling: " + plannedStrategy);
+		}
+
+		// on ties, the planned build side is read first, such that it is kept if both inputs are equally large
+		final boolean preferFirst = plannedStrategy == DriverStrategy.HYBRIDHASH_BUILD_FIRST;
+
+		while (!buffer1.exhausted && !buffer2.exhausted) {
+			final long numBytes1 = buffer1.getNumBytes();
+			final long numBytes2 = buffer2.getNumBytes();
+			final boolean active1 = numBytes1 <= maxBuildSideBytes;
+			final boolean active2 = numBytes2 <= maxBuildSideBytes;
+
+			if (active1 && (!active2 || numBytes1 < numBytes2 || (numBytes1 == numBytes2 && preferFirst))) {
+				buffer1.bufferNext();
+			} else if (active2) {
+				buffer2.bufferNext();
+			} else {
+				// neither input fits into the memory of the hash table
+				return DriverStrategy.INNER_MERGE;
+			}
+		}
+
+		return buffer1.exhausted ? DriverStrategy.HYBRIDHASH_BUILD_FIRST : DriverStrategy.HYBRIDHASH_BUILD_SECOND;
+	}
+
+	/**
+	 * Gets the first input, starting with the records which have been buffered while sampling.
+	 */
+	public MutableObjectIterator<T1> getInput1() throws IOException {
+		return buffer1.getReplayingIterator();
+	}
+
+	/**
+	 * Gets the second input, starting with the records which have been buffered while sampling.
+	 */
+	public MutableObjectIterator<T2> getInput2() throws IOException {
+		return buffer2.getReplayingIterator();
+	}
+
+	public long getNumBytesSampled1() {
+		return buffer1.getNumBytes();
+	}
+
+	public long getNumBytesSampled2() {
+		return buffer2.getNumBytes();
+	}
+
+	/**
+	 * Releases the memory of the buffers and deletes spilled records.
+	 */
+	public void close() throws IOException {
+		try {
+			buffer1.close(memManager);
+		} finally {
+			buffer2.close(memManager);
+		}
+	}
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * The buffered records of one input.
+	 */
+	private static final class InputBuffer<T> {
+
+		private final MutableObjectIterator<T> input;
+
+		private final TypeSerializer<T> serializer;
+
+		private final ArrayList<MemorySegment> memory;
+
+		private final CountingSpillingBuffer buffer;
+
+		private T reuse;
+
+		private boolean exhausted;
+
+		private boolean closed;
+
+		InputBuffer(
+				MutableObjectIterator<T> input,
+				TypeSerializer<T> serializer,
+				MemoryManager memManager,
+				IOManager ioManager,
+				AbstractInvokable ownerTask) throws MemoryAllocationException {
+
+			this.input = input;
+			this.serializer = serializer;
+			this.reuse = serializer.createInstance();
+
+			this.memory = new ArrayList<>(NUM_PAGES_PER_INPUT);
+			memManager.allocatePages(ownerTask, this.memory, NUM_PAGES_PER_INPUT);
+			this.buffer = new CountingSpillingBuffer(
+				ioManager, new ListMemorySegmentSource(this.memory), memManager.getPageSize());
+		}
+
+		void bufferNext() throws IOException {
+			final T record = input.next(reuse);
+			if (record != null) {
+				reuse = record;
+				serializer.serialize(record, buffer);
+			} else {
+				exhausted = true;
+			}
+		}
+
+		long getNumBytes() {
+			return buffer.getNumBytes();
+		}
+
+		MutableObjectIterator<T> getReplayingIterator() throws IOException {
+			return new ReplayingIterator<>(
+				new InputViewIterator<>(buffer.flip(), serializer), exhausted ? null : input);
+		}
+
+		void close(MemoryManager memManager) throws IOException {
+			if (!closed) {
+				closed = true;
+				memManager.release(buffer.close());
+				memManager.release(memory);
+			}
+		}
+	}
+
+	/**
+	 * A spilling buffer which keeps track of the number of written bytes.
+	 */
+	private static final class CountingSpillingBuffer extends SpillingBuffer {
+
+		private long numFullSegments;
+
+		CountingSpillingBuffer(IOManager ioManager, ListMemorySegmentSource memSource, int segmentSize) {
+			super(ioManager, memSource, segmentSize);
+		}
+
+		@Override
+		protected MemorySegment nextSegment(MemorySegment current, int positionInCurrent) throws IOException {
+			final MemorySegment next = super.nextSegment(current, positionInCurrent);
+			numFullSegments++;
+			return next;
+		}
+
+		long getNumBytes() {
+			return numFullSegments * getSegmentSize() + getCurrentPositionInSegment();
+		}
+	}
+
+	/**
+	 * Iterator which returns the buffered records, followed by the remaining records of the input.
+	 */
+	private static final class ReplayingIterator<T> implements MutableObjectIterator<T> {
+
+		private MutableObjectIterator<T> buffered;
+
+		private final MutableObjectIterator<T> remaining;
+
+		ReplayingIterator(MutableObjectIterator<T> buffered, MutableObjectIterator<T> remaining) {
+			this.buffered = buffered;
+			this.remaining = remaining;
+		}
+
+		@Override
+		public T next(T reuse) throws IOException {
+			if (buffered != null) {
+				final T record = buffered.next(reuse);
+				if (record != null) {
+					return record;
+				}
+				buffered = null;
+			}
+			return remaining == null ? null : remaining.next(reuse);
+		}
+
+		@Override
+		public T next() throws IOException {
+			if (buffered != null) {
+				final T record = buffered.next();
+				if (record != null) {
+					return record;
+				}
+				buffered = null;
+			}
+			return remaining == null ? null : remaining.next();
+		}
+	}
+}
@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.operators.hash;
+
+import org.apache.flink.api.common.typeutils.TypeComparator;
+import org.apache.flink.runtime.operators.util.BloomFilter;
+import org.apache.flink.util.MutableObjectIterator;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Iterator which passes through the build side of a hash join and collects the hash codes of its
+ * records, in order to create a {@link RuntimeFilterEvent} for the producers of the probe side
+ * once the build side is complete.
+ *
+ * <p>The producers keep the filters of all parallel join instances in memory. No filter is created
+ * if the build side has more than {@link #MAX_NUM_ENTRIES} records.
+ *
+ * @param <T> The type of the build-side records.
+ */
+public class RuntimeFilterBuilder<T> implements MutableObjectIterator<T> {
+
+	/** The maximum number of build-side records for which a filter is created. */
+	public static final int MAX_NUM_ENTRIES = 1 << 18;
+
+	/** The false positive probability for which the filters are sized. */
+	private static final double FALSE_POSITIVE_PROBABILITY = 0.03;
+
+	private final MutableObjectIterator<T> input;
+
+	private final TypeComparator<T> comparator;
+
+	/** The collected hash codes, null if the build side is too large for a filter. */
+	private int[] hashCodes;
+
+	private int numHashCodes;
+
+	public RuntimeFilterBuilder(MutableObjectIterator<T> input, TypeComparator<T> comparator) {
+		this.input = input;
+		this.comparator = comparator.duplicate();
+		this.hashCodes = new int[64];
+	}
+
+	@Override
+	public T next(T reuse) throws IOException {
+		return collect(input.next(reuse));
+	}
+
+	@Override
+	public T next() throws IOException {
+		return collect(input.next());
+	}
+
+	private T collect(T record) {
+		if (record != null && hashCodes != null) {
+			if (numHashCodes == hashCodes.length) {
+				if (numHashCodes == MAX_NUM_ENTRIES) {
+					hashCodes = null;
+					return record;
+				}
+				hashCodes = Arrays.copyOf(hashCodes, Math.min(MAX_NUM_ENTRIES, numHashCodes * 2));
+			}
+			hashCodes[numHashCodes++] = MutableHashTable.hash(comparator.hash(record), 0);
+		}
+		return record;
+	}
+
+	/**
+	 * Creates the filter event for all records which have been read so far.
+	 *
+	 * @param subpartitionIndex The index of the subpartition which the join consumes.
+	 * @return The filter event, or null if the build side has too many records.
+	 */
+	public RuntimeFilterEvent createFilterEvent(int subpartitionIndex) {
+		if (hashCodes == null) {
+			return null;
+		}
+
+		if (numHashCodes == 0) {
+			return new RuntimeFilterEvent(subpartitionIndex, 0, new byte[0]);
+		}
+
+		// the bit set of the bloom filter works on whole longs
+		final int numBits = Math.max(BloomFilter.optimalNumOfBits(numHashCodes, FALSE_POSITIVE_PROBABILITY), 64);
+		final int numBytes = ((numBits + 63) >>> 6) << 3;
+
+		final RuntimeFilterEvent event = new RuntimeFilterEvent(subpartitionIndex, numHashCodes, new byte[numBytes]);
+		for (int i = 0; i < numHashCodes; i++) {
+			event.addHash(hashCodes[i]);
+		}
+		return event;
+	}
+}
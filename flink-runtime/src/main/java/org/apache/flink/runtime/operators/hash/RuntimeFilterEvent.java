@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.operators.hash;
+
+import org.apache.flink.core.memory.DataInputView;
+import org.apache.flink.core.memory.DataOutputView;
+import org.apache.flink.core.memory.MemorySegmentFactory;
+import org.apache.flink.runtime.event.TaskEvent;
+import org.apache.flink.runtime.operators.util.BloomFilter;
+
+import java.io.IOException;
+
+/**
+ * Event which a hash join sends to the producers of its probe side once its build side is complete.
+ * It carries a bloom filter over the hash codes of all build-side records of one parallel instance of
+ * the join. The producers drop records which are routed to that instance but cannot find a join partner.
+ *
+ * <p>The filter is only a hint. It is optional and discarded if the producer has already finished.
+ */
+public class RuntimeFilterEvent extends TaskEvent {
+
+	/** The index of the subpartition which is consumed by the sender of this event. */
+	private int subpartitionIndex;
+
+	/** The number of hash codes in the filter. */
+	private int numEntries;
+
+	private byte[] bits;
+
+	private BloomFilter filter;
+
+	/**
+	 * Default constructor (should only be used for deserialization).
+	 */
+	public RuntimeFilterEvent() {
+		// default constructor for serialization
+	}
+
+	public RuntimeFilterEvent(int subpartitionIndex, int numEntries, byte[] bits) {
+		this.subpartitionIndex = subpartitionIndex;
+		this.numEntries = numEntries;
+		this.bits = bits;
+		initFilter();
+	}
+
+	public int getSubpartitionIndex() {
+		return subpartitionIndex;
+	}
+
+	public int getNumEntries() {
+		return numEntries;
+	}
+
+	/**
+	 * Tests whether a build-side record with the given hash code might exist. The hash code must have
+	 * been computed by {@link MutableHashTable#hash(int, int)} at recursion level 0.
+	 *
+	 * @return False, if no build-side record has the given hash code, true otherwise.
+	 */
+	public boolean mightContain(int hashCode) {
+		return filter != null && filter.testHash(hashCode);
+	}
+
+	void addHash(int hashCode) {
+		filter.addHash(hashCode);
+	}
+
+	private void initFilter() {
+		if (numEntries > 0) {
+			filter = new BloomFilter(numEntries, bits.length);
+			filter.setBitsLocation(MemorySegmentFactory.wrap(bits), 0);
+		} else {
+			filter = null;
+		}
+	}
+
+	@Override
+	public boolean isOptional() {
+		return true;
+	}
+
+	// ------------------------------------------------------------------------
+	//  Serialization
+	// ------------------------------------------------------------------------
+
+	@Override
+	public void write(DataOutputView out) throws IOException {
+		out.writeInt(subpartitionIndex);
+		out.writeInt(numEntries);
+		out.writeInt(bits.length);
+		out.write(bits);
+	}
+
+	@Override
+	public void read(DataInputView in) throws IOException {
+		subpartitionIndex = in.readInt();
+		numEntries = in.readInt();
+		bits = new byte[in.readInt()];
+		in.readFully(bits);
+		initFilter();
+	}
+
+	@Override
+	public String toString() {
+		return "RuntimeFilterEvent (subpartition: " + subpartitionIndex + ", entries: " + numEntries +
+			", bytes: " + bits.length + ')';
+	}
+}
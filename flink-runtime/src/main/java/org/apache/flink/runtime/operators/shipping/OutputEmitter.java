@@ -21,10 +21,17 @@ package org.apache.flink.runtime.operators.shipping;
 import org.apache.flink.api.common.distributions.DataDistribution;
 import org.apache.flink.api.common.functions.Partitioner;
 import org.apache.flink.api.common.typeutils.TypeComparator;
+import org.apache.flink.runtime.event.TaskEvent;
 import org.apache.flink.runtime.io.network.api.writer.ChannelSelector;
+import org.apache.flink.runtime.io.network.api.writer.ResultPartitionWriter;
+import org.apache.flink.runtime.operators.hash.MutableHashTable;
+import org.apache.flink.runtime.operators.hash.RuntimeFilterEvent;
 import org.apache.flink.runtime.plugable.SerializationDelegate;
+import org.apache.flink.runtime.util.event.EventListener;
 import org.apache.flink.util.MathUtils;
 
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
 /**
  * The output emitter decides to which of the possibly multiple output channels a record is sent.
  * It implement routing based on hash-partitioning, broadcasting, round-robin, custom partition
@@ -33,7 +40,10 @@ import org.apache.flink.util.MathUtils;
  * @param <T> The type of the element handled by the emitter.
  */
 
-public class OutputEmitter<T> implements ChannelSelector<SerializationDelegate<T>> {
+public class OutputEmitter<T> implements ChannelSelector<SerializationDelegate<T>>, EventListener<TaskEvent> {
+
+	/** the channels returned for records which are dropped */
+	private static final int[] NO_CHANNELS = new int[0];
 	
 	/** the shipping strategy used by this output emitter */
 	private final ShipStrategyType strategy; 
@@ -59,6 +69,9 @@ public class OutputEmitter<T> implements ChannelSelector<SerializationDelegate<T
 	
 	private Object[] extractedKeys;
 
+	/** the runtime filters of the consuming hash join per channel, null if not subscribed */
+	private AtomicReferenceArray<RuntimeFilterEvent> runtimeFilters;
+
 	// ------------------------------------------------------------------------
 	// Constructors
 	// ------------------------------------------------------------------------
@@ -126,6 +139,35 @@ public class OutputEmitter<T> implements ChannelSelector<SerializationDelegate<T
 		}
 	}
 
+	// ------------------------------------------------------------------------
+	// Runtime Filters
+	// ------------------------------------------------------------------------
+
+	/**
+	 * Subscribes this emitter to the {@link RuntimeFilterEvent}s which the hash join that consumes the
+	 * given writer sends for its probe side. Once the filter of a channel has arrived, records which
+	 * are routed to this channel but cannot find a join partner are dropped.
+	 *
+	 * <p>The comparator of this emitter must compute the same hash codes as the probe-side comparator of the join.
+	 *
+	 * @param writer The writer whose channels this emitter selects.
+	 */
+	public void subscribeToRuntimeFilters(ResultPartitionWriter writer) {
+		if (strategy != ShipStrategyType.PARTITION_HASH) {
+			throw new IllegalStateException("Runtime filters require hash partitioning, but the ship strategy is " + strategy.name());
+		}
+
+		this.runtimeFilters = new AtomicReferenceArray<>(writer.getNumberOfOutputChannels());
+		writer.subscribeToEvent(this, RuntimeFilterEvent.class);
+	}
+
+	@Override
+	public void onEvent(TaskEvent event) {
+		// called by the network I/O thread for remote consumers and by the consuming task for local ones
+		RuntimeFilterEvent filter = (RuntimeFilterEvent) event;
+		this.runtimeFilters.set(filter.getSubpartitionIndex(), filter);
+	}
+
 	// ------------------------------------------------------------------------
 	// Channel Selection
 	// ------------------------------------------------------------------------
@@ -187,8 +229,16 @@ public class OutputEmitter<T> implements ChannelSelector<SerializationDelegate<T
 
 	private int[] hashPartitionDefault(T record, int numberOfChannels) {
 		int hash = this.comparator.hash(record);
+		int channel = MathUtils.murmurHash(hash) % numberOfChannels;
+
+		if (this.runtimeFilters != null) {
+			RuntimeFilterEvent filter = this.runtimeFilters.get(channel);
+			if (filter != null && !filter.mightContain(MutableHashTable.hash(hash, 0))) {
+				return NO_CHANNELS;
+			}
+		}
 
-		this.channels[0] = MathUtils.murmurHash(hash) % numberOfChannels;
+		this.channels[0] = channel;
 
 		return this.channels;
 	}
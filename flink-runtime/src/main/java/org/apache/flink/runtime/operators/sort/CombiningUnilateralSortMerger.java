@@ -400,7 +400,7 @@ public class CombiningUnilateralSortMerger<E> extends UnilateralSortMerger<E> {
 			// ------------------- Merging Phase ------------------------
 
 			// merge channels until sufficient file handles are available
-			while (isRunning() && channelIDs.size() > this.maxFanIn) {
+			while (isRunning() && channelIDs.size() > getMergeFanIn(this.mergeReadMemory.size())) {
 				channelIDs = mergeChannelList(channelIDs, this.mergeReadMemory, this.writeMemory);
 			}
 			
@@ -35,7 +35,7 @@ import java.util.List;
 /**
  * 
  */
-public final class FixedLengthRecordSorter<T> implements InMemorySorter<T> {
+public final class FixedLengthRecordSorter<T> implements InMemorySorter<T>, RadixSortable {
 	
 	private static final int MIN_REQUIRED_BUFFERS = 3;
 
@@ -307,6 +307,17 @@ public final class FixedLengthRecordSorter<T> implements InMemorySorter<T> {
 		return this.numRecords;
 	}
 
+	@Override
+	public int getRadixKeyLength() {
+		return this.numKeyBytes;
+	}
+
+	@Override
+	public int getRadixKeyByte(int segmentNumber, int segmentOffset, int keyByte) {
+		final int value = this.sortBuffer.get(segmentNumber).get(segmentOffset + keyByte) & 0xff;
+		return this.useNormKeyUninverted ? value : 0xff - value;
+	}
+
 	// -------------------------------------------------------------------------
 	
 	/**
@@ -37,7 +37,7 @@ import java.util.List;
 /**
  * 
  */
-public final class NormalizedKeySorter<T> implements InMemorySorter<T> {
+public final class NormalizedKeySorter<T> implements InMemorySorter<T>, RadixSortable {
 	
 	private static final Logger LOG = LoggerFactory.getLogger(NormalizedKeySorter.class);
 	
@@ -405,6 +405,17 @@ public final class NormalizedKeySorter<T> implements InMemorySorter<T> {
 		return this.numRecords;
 	}
 
+	@Override
+	public int getRadixKeyLength() {
+		return this.normalizedKeyFullyDetermines ? this.numKeyBytes : 0;
+	}
+
+	@Override
+	public int getRadixKeyByte(int segmentNumber, int segmentOffset, int keyByte) {
+		final int value = this.sortIndex.get(segmentNumber).get(segmentOffset + OFFSET_LEN + keyByte) & 0xff;
+		return this.useNormKeyUninverted ? value : 0xff - value;
+	}
+
 	// -------------------------------------------------------------------------
 	
 	/**
@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.operators.sort;
+
+import java.util.Arrays;
+
+/**
+ * An in-place MSD radix sort (American flag sort) for {@link RadixSortable RadixSortables}. It
+ * distributes the elements into buckets by one key byte at a time, using swaps only, and thus needs
+ * no memory besides the bucket counters. Small buckets are sorted with {@link QuickSort}.
+ *
+ * <p>Sortables that are not {@link RadixSortable} or whose order is not fully determined by their
+ * binary keys are sorted with {@link QuickSort}.
+ */
+public final class RadixSort implements IndexedSorter {
+
+	/** The number of distinct values of a key byte. */
+	private static final int NUM_BUCKETS = 256;
+
+	/** Ranges with fewer elements are sorted by comparisons. */
+	private static final int MIN_RADIX_SORT_ELEMENTS = 64;
+
+	private final QuickSort fallbackSorter = new QuickSort();
+
+	@Override
+	public void sort(IndexedSortable s, int p, int r) {
+		if (s instanceof RadixSortable && ((RadixSortable) s).getRadixKeyLength() > 0) {
+			final RadixSortable sortable = (RadixSortable) s;
+			final int keyLength = sortable.getRadixKeyLength();
+
+			// one set of bucket boundaries per key byte, reused by all buckets on that level
+			final int[][] bucketStarts = new int[keyLength][NUM_BUCKETS + 1];
+			final int[][] bucketNext = new int[keyLength][NUM_BUCKETS];
+
+			sortInternal(sortable, p, r, 0, bucketStarts, bucketNext);
+		} else {
+			fallbackSorter.sort(s, p, r);
+		}
+	}
+
+	@Override
+	public void sort(IndexedSortable s) {
+		sort(s, 0, s.size());
+	}
+
+	/**
+	 * Sorts the elements in the given range, whose key bytes before the given one are all equal.
+	 *
+	 * @param s the sortable
+	 * @param p index of first element in range
+	 * @param r index of last-plus-one'th element in range
+	 * @param keyByte the key byte to distribute the elements by
+	 * @param bucketStarts the bucket boundaries for each key byte
+	 * @param bucketNext the next unsorted position of each bucket for each key byte
+	 */
+	private void sortInternal(RadixSortable s, int p, int r, int keyByte, int[][] bucketStarts, int[][] bucketNext) {
+		if (r - p < MIN_RADIX_SORT_ELEMENTS) {
+			fallbackSorter.sort(s, p, r);
+			return;
+		}
+
+		final int recordsPerSegment = s.recordsPerSegment();
+		final int recordSize = s.recordSize();
+		final int maxOffset = recordSize * (recordsPerSegment - 1);
+
+		final int[] starts = bucketStarts[keyByte];
+		final int[] next = bucketNext[keyByte];
+
+		// count the elements per bucket
+		Arrays.fill(starts, 0);
+		int segmentNumber = p / recordsPerSegment;
+		int segmentOffset = (p % recordsPerSegment) * recordSize;
+		for (int i = p; i < r; i++) {
+			starts[s.getRadixKeyByte(segmentNumber, segmentOffset, keyByte) + 1]++;
+
+			if (segmentOffset == maxOffset) {
+				segmentNumber++;
+				segmentOffset = 0;
+			} else {
+				segmentOffset += recordSize;
+			}
+		}
+
+		// turn the counts into the bucket boundaries
+		starts[0] = p;
+		for (int b = 1; b <= NUM_BUCKETS; b++) {
+			starts[b] += starts[b - 1];
+		}
+		System.arraycopy(starts, 0, next, 0, NUM_BUCKETS);
+
+		// move every element into its bucket. all elements before the next position of a bucket belong to it
+		for (int b = 0; b < NUM_BUCKETS; b++) {
+			final int end = starts[b + 1];
+			int i = next[b];
+
+			while (i < end) {
+				final int iN = i / recordsPerSegment;
+				final int iO = (i % recordsPerSegment) * recordSize;
+				final int bucket = s.getRadixKeyByte(iN, iO, keyByte);
+
+				if (bucket == b) {
+					i++;
+				} else {
+					final int j = next[bucket]++;
+					s.swap(iN, iO, j / recordsPerSegment, (j % recordsPerSegment) * recordSize);
+				}
+			}
+			next[b] = end;
+		}
+
+		// sort the buckets by the remaining key bytes
+		if (keyByte + 1 < bucketStarts.length) {
+			for (int b = 0; b < NUM_BUCKETS; b++) {
+				final int start = starts[b];
+				final int end = starts[b + 1];
+
+				if (end - start > 1) {
+					sortInternal(s, start, end, keyByte + 1, bucketStarts, bucketNext);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,45 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.operators.sort;
+
+/**
+ * An {@link IndexedSortable} whose order is fully determined by a fixed-length binary key per element.
+ * The elements can be sorted byte by byte, as done by {@link RadixSort}.
+ */
+public interface RadixSortable extends IndexedSortable {
+
+	/**
+	 * Gets the number of key bytes that fully determine the order of the elements.
+	 *
+	 * @return The number of key bytes, or 0, if the order of the elements is not fully determined
+	 *         by a binary key.
+	 */
+	int getRadixKeyLength();
+
+	/**
+	 * Gets a key byte of the element at the given address. Comparing the key bytes of two elements in
+	 * order and as unsigned values must be consistent with {@link #compare(int, int)}.
+	 *
+	 * @param segmentNumber index of memory segment containing the element
+	 * @param segmentOffset offset into memory segment containing the element
+	 * @param keyByte the position of the byte in the key
+	 * @return The key byte as an unsigned value between 0 and 255.
+	 */
+	int getRadixKeyByte(int segmentNumber, int segmentOffset, int keyByte);
+}
@@ -29,6 +29,10 @@ import java.util.List;
 import java.util.Queue;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
 
 import org.slf4j.Logger;
@@ -36,7 +40,9 @@ import org.slf4j.LoggerFactory;
 import org.apache.flink.api.common.typeutils.TypeComparator;
 import org.apache.flink.api.common.typeutils.TypeSerializer;
 import org.apache.flink.api.common.typeutils.TypeSerializerFactory;
+import org.apache.flink.configuration.TaskManagerOptions;
 import org.apache.flink.core.memory.MemorySegment;
+import org.apache.flink.runtime.execution.Environment;
 import org.apache.flink.runtime.io.disk.ChannelReaderInputViewIterator;
 import org.apache.flink.runtime.io.disk.iomanager.FileIOChannel;
 import org.apache.flink.runtime.io.disk.iomanager.BlockChannelReader;
@@ -49,6 +55,7 @@ import org.apache.flink.runtime.jobgraph.tasks.AbstractInvokable;
 import org.apache.flink.runtime.memory.MemoryAllocationException;
 import org.apache.flink.runtime.memory.MemoryManager;
 import org.apache.flink.runtime.util.EmptyMutableObjectIterator;
+import org.apache.flink.runtime.util.ExecutorThreadFactory;
 import org.apache.flink.util.MutableObjectIterator;
 
 /**
@@ -78,6 +85,9 @@ public class UnilateralSortMerger<E> implements Sorter<E> {
 	/** The minimum number of segments that are required for the sort to operate. */
 	protected static final int MIN_NUM_SORT_MEM_SEGMENTS = 10;
 	
+	/** The minimal number of buffers per channel when merging, such that read requests are issued in groups. */
+	protected static final int MIN_NUM_READ_BUFFERS_PER_MERGED_CHANNEL = 4;
+	
 	// ------------------------------------------------------------------------
 	//                                  Threads
 	// ------------------------------------------------------------------------
@@ -229,6 +239,8 @@ public class UnilateralSortMerger<E> implements Sorter<E> {
 		this.memoryManager = memoryManager;
 		this.objectReuseEnabled = objectReuseEnabled;
 
+		final int numSortThreads = getConfiguredNumSortThreads(parentTask);
+
 		// adjust the memory quotas to the page size
 		final int numPagesTotal = memory.size();
 
@@ -291,6 +303,12 @@ public class UnilateralSortMerger<E> implements Sorter<E> {
 			else {
 				numSortBuffers = 1;
 			}
+
+			// use one more buffer than sort threads, such that reading continues while all threads sort
+			if (numSortThreads > 1) {
+				numSortBuffers = Math.max(numSortBuffers,
+						Math.min(numSortThreads + 1, sortMemPages / MIN_NUM_SORT_MEM_SEGMENTS));
+			}
 		}
 		final int numSegmentsPerSortBuffer = sortMemPages / numSortBuffers;
 		
@@ -298,9 +316,9 @@ public class UnilateralSortMerger<E> implements Sorter<E> {
 			LOG.debug(String.format("Instantiating sorter with %d pages of sorting memory (="
 					+ "%d bytes total) divided over %d sort buffers (%d pages per buffer). Using %d" 
 					+ " buffers for writing sorted results and merging maximally %d streams at once. "
-					+ "Using %d memory segments for large record spilling.",
+					+ "Using %d memory segments for large record spilling and %d threads for sorting.",
 					sortMemPages, sortMemory, numSortBuffers, numSegmentsPerSortBuffer, numWriteBuffers,
-					maxNumFileHandles, numLargeRecordBuffers));
+					maxNumFileHandles, numLargeRecordBuffers, numSortThreads));
 		}
 		
 		
@@ -378,7 +396,7 @@ public class UnilateralSortMerger<E> implements Sorter<E> {
 				parentTask, serializer, ((long) (startSpillingFraction * sortMemory)));
 
 		// start the thread that sorts the buffers
-		this.sortThread = getSortingThread(exceptionHandler, circularQueues, parentTask);
+		this.sortThread = getSortingThread(exceptionHandler, circularQueues, parentTask, numSortThreads);
 
 		// start the thread that handles spilling to secondary storage
 		this.spillThread = getSpillingThread(exceptionHandler, circularQueues, parentTask, 
@@ -550,6 +568,25 @@ public class UnilateralSortMerger<E> implements Sorter<E> {
 		}
 	}
 
+	/**
+	 * Gets the number of threads that sort buffers concurrently, as configured for the TaskManager
+	 * that runs the given task. Falls back to the default if the task has no environment.
+	 */
+	private static int getConfiguredNumSortThreads(AbstractInvokable parentTask) {
+		final Environment environment = parentTask.getEnvironment();
+		if (environment == null || environment.getTaskManagerInfo() == null) {
+			return TaskManagerOptions.RUNTIME_SORT_THREADS.defaultValue();
+		}
+
+		final int numSortThreads = environment.getTaskManagerInfo().getConfiguration().getInteger(
+				TaskManagerOptions.RUNTIME_SORT_THREADS);
+		if (numSortThreads < 1) {
+			throw new IllegalArgumentException("The number of sort threads (" +
+					TaskManagerOptions.RUNTIME_SORT_THREADS.key() + ") must be at least 1.");
+		}
+		return numSortThreads;
+	}
+
 	// ------------------------------------------------------------------------
 	//                           Factory Methods
 	// ------------------------------------------------------------------------
@@ -587,9 +624,9 @@ public class UnilateralSortMerger<E> implements Sorter<E> {
 	}
 
 	protected ThreadBase<E> getSortingThread(ExceptionHandler<IOException> exceptionHandler, CircularQueues<E> queues,
-			AbstractInvokable parentTask)
+			AbstractInvokable parentTask, int numSortThreads)
 	{
-		return new SortingThread<E>(exceptionHandler, queues, parentTask);
+		return new SortingThread<E>(exceptionHandler, queues, parentTask, numSortThreads);
 	}
 
 
@@ -1080,12 +1117,16 @@ public class UnilateralSortMerger<E> implements Sorter<E> {
 	}
 
 	/**
-	 * The thread that sorts filled buffers.
+	 * The thread that sorts filled buffers. If configured with more than one sort thread, it hands the
+	 * buffers to a pool of threads that sort them concurrently.
 	 */
 	protected static class SortingThread<E> extends ThreadBase<E> {
 		
 		private final IndexedSorter sorter;
 
+		/** The number of threads that sort buffers concurrently. */
+		private final int numSortThreads;
+
 		/**
 		 * Creates a new sorting thread.
 		 * 
@@ -1095,64 +1136,162 @@ public class UnilateralSortMerger<E> implements Sorter<E> {
 		 */
 		public SortingThread(ExceptionHandler<IOException> exceptionHandler, CircularQueues<E> queues,
 				AbstractInvokable parentTask) {
+			this(exceptionHandler, queues, parentTask, 1);
+		}
+
+		/**
+		 * Creates a new sorting thread.
+		 *
+		 * @param exceptionHandler The exception handler to call for all exceptions.
+		 * @param queues The queues used to pass buffers between the threads.
+		 * @param parentTask The task that started this thread. If non-null, it is used to register this thread.
+		 * @param numSortThreads The number of threads that sort buffers concurrently.
+		 */
+		public SortingThread(ExceptionHandler<IOException> exceptionHandler, CircularQueues<E> queues,
+				AbstractInvokable parentTask, int numSortThreads) {
 			super(exceptionHandler, "SortMerger sorting thread", queues, parentTask);
 
+			if (numSortThreads < 1) {
+				throw new IllegalArgumentException("The number of sort threads must be at least 1.");
+			}
+
 			// members
-			this.sorter = new QuickSort();
+			this.sorter = new RadixSort();
+			this.numSortThreads = numSortThreads;
 		}
 
 		/**
 		 * Entry point of the thread.
 		 */
 		public void go() throws IOException {
-			boolean alive = true;
+			// the pool threads are created by this thread and inherit its context class loader
+			final ExecutorService sortExecutor = numSortThreads > 1 ?
+				Executors.newFixedThreadPool(numSortThreads, new ExecutorThreadFactory("SortMerger sorting pool")) :
+				null;
 
-			// loop as long as the thread is marked alive
-			while (isRunning() && alive) {
-				CircularElement<E> element = null;
-				try {
-					element = this.queues.sort.take();
-				}
-				catch (InterruptedException iex) {
-					if (isRunning()) {
-						if (LOG.isErrorEnabled()) {
-							LOG.error(
-								"Sorting thread was interrupted (without being shut down) while grabbing a buffer. " +
-								"Retrying to grab buffer...");
+			// the sorts that were handed to the pool, but may not have been completed
+			final List<Future<?>> pendingSorts = new ArrayList<Future<?>>();
+
+			try {
+				boolean alive = true;
+
+				// loop as long as the thread is marked alive
+				while (isRunning() && alive) {
+					CircularElement<E> element = null;
+					try {
+						element = this.queues.sort.take();
+					}
+					catch (InterruptedException iex) {
+						if (isRunning()) {
+							if (LOG.isErrorEnabled()) {
+								LOG.error(
+									"Sorting thread was interrupted (without being shut down) while grabbing a buffer. " +
+									"Retrying to grab buffer...");
+							}
+							continue;
+						}
+						else {
+							return;
+						}
+					}
+
+					if (element != EOF_MARKER && element != SPILLING_MARKER) {
+
+						if (element.buffer.size() == 0) {
+							element.buffer.reset();
+							this.queues.empty.add(element);
+							continue;
+						}
+
+						if (sortExecutor == null) {
+							sortBuffer(element);
+							this.queues.spill.add(element);
+						}
+						else {
+							// forget completed sorts, failures are reported by the sorts themselves
+							for (Iterator<Future<?>> sorts = pendingSorts.iterator(); sorts.hasNext(); ) {
+								if (sorts.next().isDone()) {
+									sorts.remove();
+								}
+							}
+
+							final CircularElement<E> toSort = element;
+							pendingSorts.add(sortExecutor.submit(new Runnable() {
+								@Override
+								public void run() {
+									try {
+										// each buffer has its own comparator, so buffers can be sorted concurrently
+										new RadixSort().sort(toSort.buffer);
+										queues.spill.add(toSort);
+									}
+									catch (Throwable t) {
+										internalHandleException(new IOException("Sorting of buffer " + toSort.id +
+											" failed: " + t.getMessage(), t));
+									}
+								}
+							}));
 						}
-						continue;
 					}
 					else {
-						return;
+						// markers must not overtake the buffers that were taken before them
+						if (!awaitPendingSorts(pendingSorts)) {
+							return;
+						}
+
+						if (element == EOF_MARKER) {
+							if (LOG.isDebugEnabled()) {
+								LOG.debug("Sorting thread done.");
+							}
+							alive = false;
+						}
+						this.queues.spill.add(element);
 					}
 				}
+			}
+			finally {
+				if (sortExecutor != null) {
+					sortExecutor.shutdownNow();
+				}
+			}
+		}
 
-				if (element != EOF_MARKER && element != SPILLING_MARKER) {
-					
-					if (element.buffer.size() == 0) {
-						element.buffer.reset();
-						this.queues.empty.add(element);
-						continue;
-					}
-					
-					if (LOG.isDebugEnabled()) {
-						LOG.debug("Sorting buffer " + element.id + ".");
-					}
+		private void sortBuffer(CircularElement<E> element) {
+			if (LOG.isDebugEnabled()) {
+				LOG.debug("Sorting buffer " + element.id + ".");
+			}
 
-					this.sorter.sort(element.buffer);
-					
-					if (LOG.isDebugEnabled()) {
-						LOG.debug("Sorted buffer " + element.id + ".");
+			this.sorter.sort(element.buffer);
+
+			if (LOG.isDebugEnabled()) {
+				LOG.debug("Sorted buffer " + element.id + ".");
+			}
+		}
+
+		/**
+		 * Waits until all sorts that were handed to the pool are completed.
+		 *
+		 * @return False, if the thread was shut down while waiting, true otherwise.
+		 */
+		private boolean awaitPendingSorts(List<Future<?>> pendingSorts) throws IOException {
+			for (Iterator<Future<?>> sorts = pendingSorts.iterator(); sorts.hasNext(); ) {
+				final Future<?> sort = sorts.next();
+				while (true) {
+					try {
+						sort.get();
+						break;
 					}
-				}
-				else if (element == EOF_MARKER) {
-					if (LOG.isDebugEnabled()) {
-						LOG.debug("Sorting thread done.");
+					catch (InterruptedException iex) {
+						if (!isRunning()) {
+							return false;
+						}
+					}
+					catch (ExecutionException eex) {
+						throw new IOException("Sorting a buffer failed.", eex.getCause());
 					}
-					alive = false;
 				}
-				this.queues.spill.add(element);
+				sorts.remove();
 			}
+			return true;
 		}
 	}
 
@@ -1383,9 +1522,9 @@ public class UnilateralSortMerger<E> implements Sorter<E> {
 					mergeReadMemory = Collections.emptyList();
 				}
 				else {
-					int maxMergedStreams = Math.min(this.maxFanIn, channelIDs.size());
+					int maxMergedStreams = Math.min(getMergeFanIn(this.mergeReadMemory.size() / 2), channelIDs.size());
 					
-					int pagesPerStream = Math.max(MIN_NUM_WRITE_BUFFERS,
+					int pagesPerStream = Math.max(MIN_NUM_READ_BUFFERS_PER_MERGED_CHANNEL,
 							Math.min(MAX_NUM_WRITE_BUFFERS, this.mergeReadMemory.size() / 2 / maxMergedStreams));
 					
 					int totalMergeReadMemory = maxMergedStreams * pagesPerStream;
@@ -1413,7 +1552,7 @@ public class UnilateralSortMerger<E> implements Sorter<E> {
 			}
 			
 			// merge channels until sufficient file handles are available
-			while (isRunning() && channelIDs.size() > this.maxFanIn) {
+			while (isRunning() && channelIDs.size() > getMergeFanIn(mergeReadMemory.size())) {
 				channelIDs = mergeChannelList(channelIDs, mergeReadMemory, this.writeMemory);
 			}
 			
@@ -1528,6 +1667,20 @@ public class UnilateralSortMerger<E> implements Sorter<E> {
 			return new MergeIterator<E>(iterators, this.comparator);
 		}
 
+		/**
+		 * Gets the number of sorted runs that are merged at once with the given read memory. The number
+		 * is bounded by the maximal fan-in and by the memory, such that each run gets at least
+		 * {@value UnilateralSortMerger#MIN_NUM_READ_BUFFERS_PER_MERGED_CHANNEL} buffers. The readers of the runs then request
+		 * several consecutive blocks at once, rather than single blocks interleaved with the requests of the
+		 * other runs. With little memory, fewer runs are merged per pass, each with more read-ahead.
+		 *
+		 * @param numReadBuffers The number of buffers for reading the merged runs.
+		 * @return The number of runs to merge at once, at least two.
+		 */
+		protected final int getMergeFanIn(int numReadBuffers) {
+			return Math.max(2, Math.min(this.maxFanIn, numReadBuffers / MIN_NUM_READ_BUFFERS_PER_MERGED_CHANNEL));
+		}
+
 		/**
 		 * Merges the given sorted runs to a smaller number of sorted runs.
 		 *
@@ -1541,15 +1694,16 @@ public class UnilateralSortMerger<E> implements Sorter<E> {
 					final List<MemorySegment> allReadBuffers, final List<MemorySegment> writeBuffers)
 		throws IOException
 		{
-			// A channel list with length maxFanIn<sup>i</sup> can be merged to maxFanIn files in i-1 rounds where every merge
-			// is a full merge with maxFanIn input channels. A partial round includes merges with fewer than maxFanIn
+			// A channel list with length fanIn<sup>i</sup> can be merged to fanIn files in i-1 rounds where every merge
+			// is a full merge with fanIn input channels. A partial round includes merges with fewer than fanIn
 			// inputs. It is most efficient to perform the partial round first.
-			final double scale = Math.ceil(Math.log(channelIDs.size()) / Math.log(this.maxFanIn)) - 1;
+			final int fanIn = getMergeFanIn(allReadBuffers.size());
+			final double scale = Math.ceil(Math.log(channelIDs.size()) / Math.log(fanIn)) - 1;
 
 			final int numStart = channelIDs.size();
-			final int numEnd = (int) Math.pow(this.maxFanIn, scale);
+			final int numEnd = (int) Math.pow(fanIn, scale);
 
-			final int numMerges = (int) Math.ceil((numStart - numEnd) / (double) (this.maxFanIn - 1));
+			final int numMerges = (int) Math.ceil((numStart - numEnd) / (double) (fanIn - 1));
 
 			final int numNotMerged = numEnd - numMerges;
 			final int numToMerge = numStart - numNotMerged;
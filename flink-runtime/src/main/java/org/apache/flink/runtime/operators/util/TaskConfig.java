@@ -78,6 +78,10 @@ public class TaskConfig implements Serializable {
 	private static final String DRIVER_PAIR_COMPARATOR_FACTORY = "driver.paircomp";
 	
 	private static final String DRIVER_MUTABLE_OBJECT_MODE = "diver.mutableobjects";
+	
+	private static final String DRIVER_RUNTIME_FILTER = "driver.runtimefilter";
+
+	private static final String DRIVER_ADAPTIVE_BUILD_SIDE = "driver.adaptivebuildside";
 
 	// -------------------------------------- Inputs ----------------------------------------------
 
@@ -143,6 +147,10 @@ public class TaskConfig implements Serializable {
 	
 	private static final String OUTPUT_PARTITIONER = "out.partitioner.";
 	
+	private static final String OUTPUT_RUNTIME_FILTER_PREFIX = "out.runtimefilter.";
+	
+	private static final String OUTPUT_CARDINALITY_ACCUMULATOR = "out.cardinality.accumulator";
+	
 	// ------------------------------------- Chaining ---------------------------------------------
 	
 	private static final String CHAINING_NUM_STUBS = "chaining.num";
@@ -347,6 +355,26 @@ public class TaskConfig implements Serializable {
 		}
 	}
 	
+	/**
+	 * Sets whether the producers of the probe side of the hash join driver accept runtime filters
+	 * with the keys of the build side.
+	 */
+	public void setDriverRuntimeFilter(boolean runtimeFilter) {
+		this.config.setBoolean(DRIVER_RUNTIME_FILTER, runtimeFilter);
+	}
+	
+	public boolean getDriverRuntimeFilter() {
+		return this.config.getBoolean(DRIVER_RUNTIME_FILTER, false);
+	}
+	
+	public void setDriverAdaptiveBuildSide(boolean adaptiveBuildSide) {
+		this.config.setBoolean(DRIVER_ADAPTIVE_BUILD_SIDE, adaptiveBuildSide);
+	}
+	
+	public boolean getDriverAdaptiveBuildSide() {
+		return this.config.getBoolean(DRIVER_ADAPTIVE_BUILD_SIDE, false);
+	}
+	
 	public void setMutableObjectMode(boolean mode) {
 		this.config.setBoolean(DRIVER_MUTABLE_OBJECT_MODE, mode);
 	}
@@ -629,6 +657,31 @@ public class TaskConfig implements Serializable {
 		}
 	}
 	
+	/**
+	 * Sets whether the output applies the runtime filters which are sent by the hash join that consumes it.
+	 */
+	public void setOutputRuntimeFilter(boolean runtimeFilter, int outputNum) {
+		this.config.setBoolean(OUTPUT_RUNTIME_FILTER_PREFIX + outputNum, runtimeFilter);
+	}
+	
+	public boolean getOutputRuntimeFilter(int outputNum) {
+		return this.config.getBoolean(OUTPUT_RUNTIME_FILTER_PREFIX + outputNum, false);
+	}
+
+	/**
+	 * Sets the name of the accumulator that counts the records which the driver emits, such that
+	 * the optimizer can use the number for later compilations of the same plan.
+	 *
+	 * @param accumulatorName The name of the accumulator, or null to not count the records.
+	 */
+	public void setOutputCardinalityAccumulator(String accumulatorName) {
+		this.config.setString(OUTPUT_CARDINALITY_ACCUMULATOR, accumulatorName);
+	}
+
+	public String getOutputCardinalityAccumulator() {
+		return this.config.getString(OUTPUT_CARDINALITY_ACCUMULATOR, null);
+	}
+	
 	// --------------------------------------------------------------------------------------------
 	//                       Parameters to configure the memory and I/O behavior
 	// --------------------------------------------------------------------------------------------
@@ -17,10 +17,11 @@
  */
 package org.apache.flink.runtime.operators.util.metrics;
 
+import org.apache.flink.api.common.functions.util.BatchCollector;
 import org.apache.flink.metrics.Counter;
 import org.apache.flink.util.Collector;
 
-public class CountingCollector<OUT> implements Collector<OUT> {
+public class CountingCollector<OUT> implements BatchCollector<OUT> {
 	private final Collector<OUT> collector;
 	private final Counter numRecordsOut;
 
@@ -35,6 +36,16 @@ public class CountingCollector<OUT> implements Collector<OUT> {
 		this.collector.collect(record);
 	}
 
+	@Override
+	public boolean collectBatch(Object batch, int numRecords) {
+		if (this.collector instanceof BatchCollector &&
+				((BatchCollector<OUT>) this.collector).collectBatch(batch, numRecords)) {
+			this.numRecordsOut.inc(numRecords);
+			return true;
+		}
+		return false;
+	}
+
 	@Override
 	public void close() {
 		this.collector.close();
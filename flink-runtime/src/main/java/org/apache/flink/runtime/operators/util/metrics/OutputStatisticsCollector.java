@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.flink.runtime.operators.util.metrics;
+
+import org.apache.flink.api.common.accumulators.LongCounter;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.runtime.util.DataOutputSerializer;
+import org.apache.flink.util.Collector;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A collector that counts the collected records in {@link LongCounter} accumulators before it
+ * forwards them to the wrapped collector. Every {@value #SAMPLE_INTERVAL}th record is serialized
+ * to sample the average width of the records, if a serializer is given.
+ *
+ * <p>The accumulators are named with the prefix {@value #ACCUMULATOR_NAME_PREFIX}. They are meant for
+ * the optimizer and are not part of the accumulator results shown to users.
+ */
+public class OutputStatisticsCollector<OUT> implements Collector<OUT> {
+
+	/** The prefix of the names of the accumulators that collect statistics for the optimizer. */
+	public static final String ACCUMULATOR_NAME_PREFIX = "__optimizer-statistics-";
+
+	/** The suffix of the name of the accumulator that counts the sampled records. */
+	public static final String SAMPLED_RECORDS_SUFFIX = ".sampled-records";
+
+	/** The suffix of the name of the accumulator that sums up the widths of the sampled records. */
+	public static final String SAMPLED_BYTES_SUFFIX = ".sampled-bytes";
+
+	private static final int SAMPLE_INTERVAL = 128;
+
+	private final Collector<OUT> collector;
+	private final TypeSerializer<OUT> serializer;
+	private final LongCounter numRecords;
+	private final LongCounter numSampledRecords;
+	private final LongCounter numSampledBytes;
+	private final DataOutputSerializer sampleBuffer;
+
+	private int recordsUntilSample;
+
+	public OutputStatisticsCollector(Collector<OUT> collector, TypeSerializer<OUT> serializer,
+			LongCounter numRecords, LongCounter numSampledRecords, LongCounter numSampledBytes) {
+		this.collector = collector;
+		this.serializer = serializer;
+		this.numRecords = numRecords;
+		this.numSampledRecords = numSampledRecords;
+		this.numSampledBytes = numSampledBytes;
+		this.sampleBuffer = serializer == null ? null : new DataOutputSerializer(64);
+	}
+
+	@Override
+	public void collect(OUT record) {
+		this.numRecords.add(1L);
+		if (this.sampleBuffer != null && this.recordsUntilSample-- == 0) {
+			this.recordsUntilSample = SAMPLE_INTERVAL - 1;
+			sample(record);
+		}
+		this.collector.collect(record);
+	}
+
+	@Override
+	public void close() {
+		this.collector.close();
+	}
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * Checks whether the accumulator with the given name collects statistics for the optimizer.
+	 *
+	 * @param accumulatorName The name of the accumulator.
+	 * @return True, if the accumulator collects statistics for the optimizer.
+	 */
+	public static boolean isStatisticsAccumulator(String accumulatorName) {
+		return accumulatorName != null && accumulatorName.startsWith(ACCUMULATOR_NAME_PREFIX);
+	}
+
+	/**
+	 * Removes the accumulators that collect statistics for the optimizer from the given accumulators.
+	 *
+	 * @param accumulators The accumulators by name.
+	 * @return The given map, if it contains no statistics accumulators, or otherwise a copy without them.
+	 */
+	public static <V> Map<String, V> removeStatisticsAccumulators(Map<String, V> accumulators) {
+		if (accumulators == null) {
+			return null;
+		}
+
+		Map<String, V> result = accumulators;
+		for (Map.Entry<String, V> entry : accumulators.entrySet()) {
+			if (isStatisticsAccumulator(entry.getKey())) {
+				if (result == accumulators) {
+					result = new HashMap<>(accumulators);
+				}
+				result.remove(entry.getKey());
+			}
+		}
+		return result;
+	}
+
+	private void sample(OUT record) {
+		try {
+			this.serializer.serialize(record, this.sampleBuffer);
+			this.numSampledRecords.add(1L);
+			this.numSampledBytes.add((long) this.sampleBuffer.length());
+		}
+		catch (IOException ignored) {
+			// the sample is only used for estimates, the record is still forwarded
+		}
+		finally {
+			this.sampleBuffer.clear();
+		}
+	}
+}
@@ -70,6 +70,14 @@ public abstract class AbstractStateBackend implements StateBackend, java.io.Seri
 			JobID jobId,
 			String operatorIdentifier) throws IOException;
 
+	@Override
+	public CheckpointStreamFactory createStreamFactory(
+			Environment env,
+			String operatorIdentifier) throws IOException {
+
+		return createStreamFactory(env.getJobID(), operatorIdentifier);
+	}
+
 	@Override
 	public abstract CheckpointStreamFactory createSavepointStreamFactory(
 			JobID jobId,
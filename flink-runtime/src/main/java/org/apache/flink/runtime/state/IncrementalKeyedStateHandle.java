@@ -19,6 +19,7 @@
 package org.apache.flink.runtime.state;
 
 import org.apache.flink.annotation.VisibleForTesting;
+import org.apache.flink.runtime.state.filesystem.FileSegmentStateHandle;
 import org.apache.flink.util.Preconditions;
 
 import org.slf4j.Logger;
@@ -244,6 +245,19 @@ public class IncrementalKeyedStateHandle implements KeyedStateHandle {
 			// deduplication and returns the previous reference.
 			sharedStateHandle.setValue(result.getReference());
 		}
+
+		// The state handles may be segments of files that are shared with other handles. This must
+		// happen after the consolidation above, so that only the handles that replaced placeholders
+		// and duplicates reference their files.
+		FileSegmentStateHandle.registerSharedFile(metaStateHandle, stateRegistry);
+
+		for (StreamStateHandle privateStateHandle : privateState.values()) {
+			FileSegmentStateHandle.registerSharedFile(privateStateHandle, stateRegistry);
+		}
+
+		for (StreamStateHandle sharedStateHandle : sharedState.values()) {
+			FileSegmentStateHandle.registerSharedFile(sharedStateHandle, stateRegistry);
+		}
 	}
 
 	/**
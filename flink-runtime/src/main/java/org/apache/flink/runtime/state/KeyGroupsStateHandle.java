@@ -20,6 +20,7 @@ package org.apache.flink.runtime.state;
 
 
 import org.apache.flink.core.fs.FSDataInputStream;
+import org.apache.flink.runtime.state.filesystem.FileSegmentStateHandle;
 import org.apache.flink.util.Preconditions;
 
 import java.io.IOException;
@@ -94,7 +95,8 @@ public class KeyGroupsStateHandle implements StreamStateHandle, KeyedStateHandle
 
 	@Override
 	public void registerSharedStates(SharedStateRegistry stateRegistry) {
-		// No shared states
+		// No shared states, but the state may be a segment of a shared file
+		FileSegmentStateHandle.registerSharedFile(stateHandle, stateRegistry);
 	}
 
 	@Override
@@ -96,6 +96,17 @@ public interface StateBackend extends java.io.Serializable {
 	 */
 	CheckpointStreamFactory createStreamFactory(JobID jobId, String operatorIdentifier) throws IOException;
 
+	/**
+	 * Creates a {@link CheckpointStreamFactory} that can be used to create streams
+	 * that should end up in a checkpoint of the task with the given environment. In contrast
+	 * to {@link #createStreamFactory(JobID, String)}, the streams may use services of the
+	 * TaskManager that executes the task.
+	 *
+	 * @param env                The runtime environment of the executing task.
+	 * @param operatorIdentifier An identifier of the operator for which we create streams.
+	 */
+	CheckpointStreamFactory createStreamFactory(Environment env, String operatorIdentifier) throws IOException;
+
 	/**
 	 * Creates a {@link CheckpointStreamFactory} that can be used to create streams
 	 * that should end up in a savepoint.
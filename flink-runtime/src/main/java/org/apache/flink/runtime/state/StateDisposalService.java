@@ -0,0 +1,236 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.state;
+
+import org.apache.flink.core.fs.Path;
+import org.apache.flink.metrics.Gauge;
+import org.apache.flink.metrics.MetricGroup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.concurrent.GuardedBy;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * A service that disposes state objects and checkpoint directories asynchronously, with a
+ * bounded number of concurrent disposals.
+ *
+ * <p>Disposals are queued and executed by at most {@code maxConcurrentDisposals} workers on the
+ * given I/O executor. That way, discarding the many small files of subsumed checkpoints neither
+ * happens one by one in the calling thread, nor floods the I/O executor which is shared with
+ * other operations.
+ *
+ * <p>The service is itself an {@link Executor} for disposal actions, so that it can be used
+ * wherever state disposals are scheduled on an executor, for example by the
+ * {@link SharedStateRegistry}.
+ */
+public class StateDisposalService implements Executor {
+
+	private static final Logger LOG = LoggerFactory.getLogger(StateDisposalService.class);
+
+	/** The name of the metric for the number of disposals that have not finished yet. */
+	public static final String NUMBER_OF_PENDING_DISPOSALS_METRIC = "numberOfPendingStateDisposals";
+
+	/** The executor that runs the disposal workers */
+	private final Executor ioExecutor;
+
+	/** The maximum number of disposals that run concurrently */
+	private final int maxConcurrentDisposals;
+
+	/** Lock for the queued disposals and the number of workers */
+	private final Object lock = new Object();
+
+	/** The disposals that have not been picked up by a worker yet */
+	@GuardedBy("lock")
+	private final ArrayDeque<Runnable> queuedDisposals;
+
+	/** The number of workers that are currently running */
+	@GuardedBy("lock")
+	private int numRunningWorkers;
+
+	/** The number of disposals that are queued or running */
+	private final AtomicInteger numPendingDisposals;
+
+	public StateDisposalService(Executor ioExecutor, int maxConcurrentDisposals) {
+		checkArgument(maxConcurrentDisposals >= 1, "maxConcurrentDisposals must be >= 1");
+
+		this.ioExecutor = checkNotNull(ioExecutor);
+		this.maxConcurrentDisposals = maxConcurrentDisposals;
+		this.queuedDisposals = new ArrayDeque<>();
+		this.numPendingDisposals = new AtomicInteger();
+	}
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * Queues the given disposal action. Exceptions thrown by the action are logged.
+	 *
+	 * @param disposal The disposal action to run
+	 */
+	@Override
+	public void execute(Runnable disposal) {
+		checkNotNull(disposal);
+
+		numPendingDisposals.incrementAndGet();
+
+		final boolean startWorker;
+		synchronized (lock) {
+			queuedDisposals.add(disposal);
+
+			startWorker = numRunningWorkers < maxConcurrentDisposals;
+			if (startWorker) {
+				numRunningWorkers++;
+			}
+		}
+
+		if (startWorker) {
+			final DisposalWorker worker = new DisposalWorker();
+
+			try {
+				ioExecutor.execute(worker);
+			}
+			catch (Throwable t) {
+				// there may be no other worker to pick up the queued disposals, so we run
+				// them in the calling thread
+				LOG.warn("Could not start a worker for disposing state. Disposing state in the calling thread.", t);
+				worker.run();
+			}
+		}
+	}
+
+	/**
+	 * Queues the disposal of the given state object.
+	 *
+	 * @param stateObject The state object to discard
+	 * @return Future that is completed once the disposal has run, also if it failed
+	 */
+	public CompletableFuture<Void> discard(final StateObject stateObject) {
+		checkNotNull(stateObject);
+
+		final CompletableFuture<Void> disposalFuture = new CompletableFuture<>();
+
+		execute(() -> {
+			try {
+				stateObject.discardState();
+			} catch (Exception e) {
+				LOG.warn("Could not properly discard state object {}.", stateObject, e);
+			} finally {
+				disposalFuture.complete(null);
+			}
+		});
+
+		return disposalFuture;
+	}
+
+	/**
+	 * Queues the recursive deletion of the given directory. This is used instead of discarding
+	 * the state objects in the directory one by one, when all of them are known to be unused.
+	 *
+	 * @param directory The directory to delete
+	 * @return Future that is completed once the deletion has run, also if it failed
+	 */
+	public CompletableFuture<Void> deleteDirectory(final Path directory) {
+		checkNotNull(directory);
+
+		final CompletableFuture<Void> disposalFuture = new CompletableFuture<>();
+
+		execute(() -> {
+			try {
+				directory.getFileSystem().delete(directory, true);
+			} catch (Exception e) {
+				LOG.warn("Could not delete directory {}.", directory, e);
+			} finally {
+				disposalFuture.complete(null);
+			}
+		});
+
+		return disposalFuture;
+	}
+
+	/**
+	 * Returns the number of disposals that are queued or currently running.
+	 *
+	 * @return The number of pending disposals
+	 */
+	public int getNumberOfPendingDisposals() {
+		return numPendingDisposals.get();
+	}
+
+	/**
+	 * Registers the metrics of this service in the given metric group.
+	 *
+	 * @param metricGroup The metric group to register the metrics in
+	 */
+	public void registerMetrics(MetricGroup metricGroup) {
+		metricGroup.gauge(NUMBER_OF_PENDING_DISPOSALS_METRIC, new Gauge<Integer>() {
+			@Override
+			public Integer getValue() {
+				return getNumberOfPendingDisposals();
+			}
+		});
+	}
+
+	@Override
+	public String toString() {
+		return "StateDisposalService{" +
+			"maxConcurrentDisposals=" + maxConcurrentDisposals +
+			", numPendingDisposals=" + numPendingDisposals.get() +
+			'}';
+	}
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * A worker that runs queued disposals until the queue is empty.
+	 */
+	private final class DisposalWorker implements Runnable {
+
+		@Override
+		public void run() {
+			while (true) {
+				final Runnable disposal;
+				synchronized (lock) {
+					disposal = queuedDisposals.poll();
+					if (disposal == null) {
+						numRunningWorkers--;
+						return;
+					}
+				}
+
+				try {
+					disposal.run();
+				}
+				catch (Throwable t) {
+					LOG.warn("Error while disposing state.", t);
+				}
+				finally {
+					numPendingDisposals.decrementAndGet();
+				}
+			}
+		}
+	}
+}
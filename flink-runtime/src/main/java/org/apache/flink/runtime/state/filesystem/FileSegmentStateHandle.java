@@ -0,0 +1,294 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.state.filesystem;
+
+import org.apache.flink.core.fs.FSDataInputStream;
+import org.apache.flink.core.fs.FileSystem;
+import org.apache.flink.core.fs.Path;
+import org.apache.flink.runtime.state.SharedStateRegistry;
+import org.apache.flink.runtime.state.SharedStateRegistryKey;
+import org.apache.flink.runtime.state.StreamStateHandle;
+
+import javax.annotation.Nullable;
+
+import java.io.IOException;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * {@link StreamStateHandle} for state that was written as a segment of a file which is shared with
+ * other state handles of the same checkpoint. The state is identified by the file path and the
+ * position and length of the segment in the file.
+ *
+ * <p>Since the file holds the state of several handles, discarding one handle does not delete the
+ * file. Instead, the handles register the file with the {@link SharedStateRegistry} (see
+ * {@link #registerSharedFile(StreamStateHandle, SharedStateRegistry)}), which counts the references
+ * to the file and deletes it once the last registered handle is discarded.
+ *
+ * <p>A handle that has not been registered belongs to a checkpoint that has not been completed,
+ * for example one that was aborted. Since a shared file only holds segments of one checkpoint
+ * (see {@link SharedCheckpointFilePool}), which are all garbage once any of them is discarded
+ * without having been registered, discarding such a handle deletes the whole file, just like the {@link org.apache.flink.runtime.state.IncrementalKeyedStateHandle} discards
+ * its shared state directly if it has not been registered.
+ */
+public class FileSegmentStateHandle implements StreamStateHandle {
+
+	private static final long serialVersionUID = 1L;
+
+	/** The path to the shared file in the filesystem, fully describing the file system */
+	private final Path filePath;
+
+	/** The position in the file where the state starts */
+	private final long startPosition;
+
+	/** The size of the state in the file */
+	private final long stateSize;
+
+	/** The registry that counts the references to the file, if this handle is registered */
+	@Nullable
+	private transient SharedStateRegistry sharedStateRegistry;
+
+	/**
+	 * Creates a new handle for the state in the given segment of the given file.
+	 *
+	 * @param filePath The path to the file that holds the state.
+	 * @param startPosition The position in the file where the state starts.
+	 * @param stateSize The size of the state in the file.
+	 */
+	public FileSegmentStateHandle(Path filePath, long startPosition, long stateSize) {
+		checkArgument(startPosition >= 0);
+		checkArgument(stateSize >= 0);
+
+		this.filePath = checkNotNull(filePath);
+		this.startPosition = startPosition;
+		this.stateSize = stateSize;
+	}
+
+	/**
+	 * Gets the path of the file that holds this handle's state.
+	 *
+	 * @return The path of the file that holds this handle's state.
+	 */
+	public Path getFilePath() {
+		return filePath;
+	}
+
+	/**
+	 * Gets the position in the file where this handle's state starts.
+	 *
+	 * @return The position in the file where this handle's state starts.
+	 */
+	public long getStartPosition() {
+		return startPosition;
+	}
+
+	@Override
+	public long getStateSize() {
+		return stateSize;
+	}
+
+	/**
+	 * Opens a stream that reads the segment of this handle. Positions of the stream are relative
+	 * to the start of the segment.
+	 */
+	@Override
+	public FSDataInputStream openInputStream() throws IOException {
+		final FSDataInputStream inStream = FileSystem.get(filePath.toUri()).open(filePath);
+
+		try {
+			inStream.seek(startPosition);
+		} catch (IOException e) {
+			inStream.close();
+			throw e;
+		}
+
+		return new FileSegmentInputStream(inStream, startPosition, stateSize);
+	}
+
+	/**
+	 * Releases the reference of this handle to the shared file, if the handle is registered. The
+	 * registry deletes the file once it is not referenced any more. If the handle is not
+	 * registered, the file is deleted directly.
+	 */
+	@Override
+	public void discardState() throws Exception {
+		final SharedStateRegistry registry;
+
+		synchronized (this) {
+			registry = sharedStateRegistry;
+			sharedStateRegistry = null;
+		}
+
+		if (registry != null) {
+			registry.unregisterReference(createSharedFileKey(filePath));
+		} else {
+			// the other segments of the file belong to the same uncompleted checkpoint,
+			// possibly of other tasks
+			createSharedFileHandle(filePath).discardState();
+		}
+	}
+
+	private synchronized void registerSharedFile(SharedStateRegistry stateRegistry) {
+		// every handle references the file at most once per registry. After a restart, the
+		// handle registers again with the new registry of the CheckpointCoordinator.
+		if (sharedStateRegistry != stateRegistry) {
+			stateRegistry.registerReference(createSharedFileKey(filePath), createSharedFileHandle(filePath));
+			sharedStateRegistry = stateRegistry;
+		}
+	}
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * Registers a reference to the shared file of the given handle, if the handle is a
+	 * {@link FileSegmentStateHandle}. This is called by the composite state handles that may
+	 * contain segments of shared files, when they register their shared states.
+	 *
+	 * @param stateHandle The handle to register, may be null
+	 * @param stateRegistry The registry that counts the references to the shared file
+	 */
+	public static void registerSharedFile(@Nullable StreamStateHandle stateHandle, SharedStateRegistry stateRegistry) {
+		if (stateHandle instanceof FileSegmentStateHandle) {
+			((FileSegmentStateHandle) stateHandle).registerSharedFile(stateRegistry);
+		}
+	}
+
+	private static SharedStateRegistryKey createSharedFileKey(Path filePath) {
+		return new SharedStateRegistryKey(filePath.toString());
+	}
+
+	private static FileStateHandle createSharedFileHandle(Path filePath) {
+		return new FileStateHandle(filePath, -1L);
+	}
+
+	// ------------------------------------------------------------------------
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof FileSegmentStateHandle)) {
+			return false;
+		}
+
+		FileSegmentStateHandle that = (FileSegmentStateHandle) o;
+		return startPosition == that.startPosition &&
+			stateSize == that.stateSize &&
+			filePath.equals(that.filePath);
+	}
+
+	@Override
+	public int hashCode() {
+		int result = filePath.hashCode();
+		result = 31 * result + (int) (startPosition ^ (startPosition >>> 32));
+		result = 31 * result + (int) (stateSize ^ (stateSize >>> 32));
+		return result;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("File Segment State: %s [%d, %d bytes]", filePath, startPosition, stateSize);
+	}
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * A stream that reads one segment of a file. Positions are relative to the start of the segment.
+	 */
+	private static final class FileSegmentInputStream extends FSDataInputStream {
+
+		private final FSDataInputStream inStream;
+
+		private final long startPosition;
+
+		private final long length;
+
+		/** The current position, relative to the start of the segment */
+		private long position;
+
+		FileSegmentInputStream(FSDataInputStream inStream, long startPosition, long length) {
+			this.inStream = inStream;
+			this.startPosition = startPosition;
+			this.length = length;
+		}
+
+		@Override
+		public void seek(long desired) throws IOException {
+			if (desired < 0 || desired > length) {
+				throw new IOException("Cannot seek to position " + desired + " of a segment of length " + length);
+			}
+
+			inStream.seek(startPosition + desired);
+			position = desired;
+		}
+
+		@Override
+		public long getPos() throws IOException {
+			return position;
+		}
+
+		@Override
+		public int read() throws IOException {
+			if (position >= length) {
+				return -1;
+			}
+
+			final int b = inStream.read();
+			if (b >= 0) {
+				position++;
+			}
+			return b;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if (len == 0) {
+				return 0;
+			}
+			if (position >= length) {
+				return -1;
+			}
+
+			final int numRead = inStream.read(b, off, (int) Math.min(len, length - position));
+			if (numRead > 0) {
+				position += numRead;
+			}
+			return numRead;
+		}
+
+		@Override
+		public long skip(long n) throws IOException {
+			final long toSkip = Math.max(0L, Math.min(n, length - position));
+			seek(position + toSkip);
+			return toSkip;
+		}
+
+		@Override
+		public int available() throws IOException {
+			return (int) Math.min(inStream.available(), length - position);
+		}
+
+		@Override
+		public void close() throws IOException {
+			inStream.close();
+		}
+	}
+}
@@ -54,6 +54,9 @@ public class FsCheckpointStreamFactory implements CheckpointStreamFactory {
 	/** Default size for the write buffer */
 	private static final int DEFAULT_WRITE_BUFFER_SIZE = 4096;
 
+	/** The prefix of the names of the directories that hold the files of one checkpoint each */
+	public static final String CHECKPOINT_DIR_PREFIX = "chk-";
+
 	/** State below this size will be stored as part of the metadata, rather than in files */
 	private final int fileStateThreshold;
 
@@ -134,7 +137,7 @@ public class FsCheckpointStreamFactory implements CheckpointStreamFactory {
 	}
 
 	protected Path createCheckpointDirPath(Path checkpointDirectory, long checkpointID) {
-		return new Path(checkpointDirectory, "chk-" + checkpointID);
+		return new Path(checkpointDirectory, CHECKPOINT_DIR_PREFIX + checkpointID);
 	}
 
 	@Override
@@ -0,0 +1,378 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.state.filesystem;
+
+import org.apache.flink.api.common.JobID;
+import org.apache.flink.core.fs.FSDataOutputStream;
+import org.apache.flink.core.fs.FileSystem;
+import org.apache.flink.core.fs.Path;
+import org.apache.flink.runtime.state.CheckpointStreamFactory;
+import org.apache.flink.runtime.state.StreamStateHandle;
+import org.apache.flink.runtime.state.memory.ByteStreamStateHandle;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * {@link CheckpointStreamFactory} that produces streams which do not create a file each, but
+ * append their data as segments to a few files that are shared by the streams of one checkpoint
+ * (see {@link FileSegmentStateHandle}). The files are leased from the {@link SharedCheckpointFilePool}
+ * of the TaskManager, so that the streams of all tasks of a job on the TaskManager append to the
+ * same files. The files are placed in the same directories as the files of the
+ * {@link FsCheckpointStreamFactory}.
+ *
+ * <p>State that is not written for a checkpoint, such as the write-ahead log of the
+ * {@code GenericWriteAheadSink} (which uses checkpoint ID 0), is owned and discarded by its writer
+ * segment by segment. Such state is written to a file of its own.
+ *
+ * <p>The factory holds a reference of its job to the pool until it is closed.
+ */
+public class FsSegmentCheckpointStreamFactory implements CheckpointStreamFactory {
+
+	private static final Logger LOG = LoggerFactory.getLogger(FsSegmentCheckpointStreamFactory.class);
+
+	/** Default size for the write buffer */
+	private static final int DEFAULT_WRITE_BUFFER_SIZE = 4096;
+
+	/** State below this size will be stored as part of the metadata, rather than in files */
+	private final int fileStateThreshold;
+
+	/** The size after which shared files are not appended to any more */
+	private final long maxFileSize;
+
+	/** The job whose checkpoint data the streams write */
+	private final JobID jobId;
+
+	/** The directory (job specific) into this initialized instance of the backend stores its data */
+	private final Path checkpointDirectory;
+
+	/** Cached handle to the file system for file operations */
+	private final FileSystem filesystem;
+
+	/** The pool of shared files that the streams append their data to */
+	private final SharedCheckpointFilePool sharedFilePool;
+
+	/** The factory for streams that are not written for a checkpoint */
+	private final FsCheckpointStreamFactory fileStreamFactory;
+
+	/** Flag indicating whether the reference to the pool has been released */
+	private boolean closed;
+
+	/**
+	 * Creates a new stream factory that stores its checkpoint data in shared files in the file
+	 * system and location defined by the given URI.
+	 *
+	 * @param checkpointDataUri The URI describing the filesystem (scheme and optionally authority),
+	 *                          and the path to the checkpoint data directory.
+	 * @param jobId The job whose checkpoint data the streams write
+	 * @param fileStateSizeThreshold State up to this size will be stored as part of the metadata,
+	 *                             rather than in files
+	 * @param maxFileSize The size in bytes after which shared files are not appended to
+	 * @param sharedFilePool The pool of shared files that the streams append their data to
+	 *
+	 * @throws IOException Thrown, if no file system can be found for the scheme in the URI.
+	 */
+	FsSegmentCheckpointStreamFactory(
+			Path checkpointDataUri,
+			JobID jobId,
+			int fileStateSizeThreshold,
+			long maxFileSize,
+			SharedCheckpointFilePool sharedFilePool) throws IOException {
+
+		checkArgument(maxFileSize > 0, "The maximum size of shared files must be larger than zero.");
+
+		this.fileStreamFactory = new FsCheckpointStreamFactory(checkpointDataUri, jobId, fileStateSizeThreshold);
+		this.fileStateThreshold = fileStateSizeThreshold;
+		this.maxFileSize = maxFileSize;
+		this.jobId = checkNotNull(jobId);
+		this.sharedFilePool = checkNotNull(sharedFilePool);
+
+		filesystem = checkpointDataUri.getFileSystem();
+		checkpointDirectory = new Path(checkpointDataUri, jobId.toString());
+
+		sharedFilePool.acquireReference(jobId);
+
+		if (LOG.isDebugEnabled()) {
+			LOG.debug("Initialed shared file stream factory to URI {}.", checkpointDirectory);
+		}
+	}
+
+	/**
+	 * Releases the reference of the job to the pool of shared files. The pool closes the idle files
+	 * of the job once it is not referenced by any stream factory of the job any more.
+	 */
+	@Override
+	public void close() throws Exception {
+		synchronized (this) {
+			if (closed) {
+				return;
+			}
+			closed = true;
+		}
+
+		sharedFilePool.releaseReference(jobId);
+	}
+
+	@Override
+	public CheckpointStateOutputStream createCheckpointStateOutputStream(long checkpointID, long timestamp) throws Exception {
+		// the IDs of checkpoints start at 1
+		if (checkpointID <= 0) {
+			return fileStreamFactory.createCheckpointStateOutputStream(checkpointID, timestamp);
+		}
+
+		Path checkpointDir = new Path(checkpointDirectory, FsCheckpointStreamFactory.CHECKPOINT_DIR_PREFIX + checkpointID);
+		int bufferSize = Math.max(DEFAULT_WRITE_BUFFER_SIZE, fileStateThreshold);
+		return new FsSegmentCheckpointStateOutputStream(
+			sharedFilePool, jobId, checkpointDir, checkpointID, maxFileSize, filesystem, bufferSize, fileStateThreshold);
+	}
+
+	@Override
+	public String toString() {
+		return "Shared File Stream Factory @ " + checkpointDirectory;
+	}
+
+	// ------------------------------------------------------------------------
+	//  output stream
+	// ------------------------------------------------------------------------
+
+
+	/**
+	 * A {@link CheckpointStreamFactory.CheckpointStateOutputStream} that appends its data as a
+	 * segment to a file which is shared with other streams of the same checkpoint, and returns a
+	 * {@link FileSegmentStateHandle} upon closing.
+	 */
+	public static final class FsSegmentCheckpointStateOutputStream
+			extends CheckpointStreamFactory.CheckpointStateOutputStream {
+
+		private final byte[] writeBuffer;
+
+		private int pos;
+
+		private final int localStateThreshold;
+
+		private final SharedCheckpointFilePool filePool;
+
+		private final JobID jobId;
+
+		private final Path basePath;
+
+		private final long checkpointId;
+
+		private final long maxFileSize;
+
+		private final FileSystem fs;
+
+		/** The shared file that is leased by this stream, once data is flushed */
+		private SharedCheckpointFilePool.SharedFile sharedFile;
+
+		/** The position in the shared file where the segment of this stream starts */
+		private long segmentStartPos;
+
+		private volatile boolean closed;
+
+		FsSegmentCheckpointStateOutputStream(
+				SharedCheckpointFilePool filePool,
+				JobID jobId,
+				Path basePath,
+				long checkpointId,
+				long maxFileSize,
+				FileSystem fs,
+				int bufferSize,
+				int localStateThreshold) {
+
+			if (bufferSize < localStateThreshold) {
+				throw new IllegalArgumentException();
+			}
+
+			this.filePool = filePool;
+			this.jobId = jobId;
+			this.basePath = basePath;
+			this.checkpointId = checkpointId;
+			this.maxFileSize = maxFileSize;
+			this.fs = fs;
+			this.writeBuffer = new byte[bufferSize];
+			this.localStateThreshold = localStateThreshold;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			if (pos >= writeBuffer.length) {
+				flush();
+			}
+			writeBuffer[pos++] = (byte) b;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			if (len < writeBuffer.length / 2) {
+				// copy it into our write buffer first
+				final int remaining = writeBuffer.length - pos;
+				if (len > remaining) {
+					// copy as much as fits
+					System.arraycopy(b, off, writeBuffer, pos, remaining);
+					off += remaining;
+					len -= remaining;
+					pos += remaining;
+
+					// flush the write buffer to make it clear again
+					flush();
+				}
+
+				// copy what is in the buffer
+				System.arraycopy(b, off, writeBuffer, pos, len);
+				pos += len;
+			}
+			else {
+				// flush the current buffer
+				flush();
+				// write the bytes directly
+				sharedFile.getOutputStream().write(b, off, len);
+			}
+		}
+
+		@Override
+		public long getPos() throws IOException {
+			return pos + (sharedFile == null ? 0 : sharedFile.getPos() - segmentStartPos);
+		}
+
+		@Override
+		public void flush() throws IOException {
+			if (!closed) {
+				// lease a shared file if this is the first flush
+				if (sharedFile == null) {
+					sharedFile = filePool.acquire(jobId, fs, basePath, checkpointId, maxFileSize);
+					segmentStartPos = sharedFile.getPos();
+				}
+
+				// now flush
+				if (pos > 0) {
+					sharedFile.getOutputStream().write(writeBuffer, 0, pos);
+					pos = 0;
+				}
+			}
+			else {
+				throw new IOException("closed");
+			}
+		}
+
+		@Override
+		public void sync() throws IOException {
+			// a stream that has not written anything has no shared file yet, and nothing to sync
+			if (sharedFile != null || pos > 0) {
+				flush();
+				sharedFile.getOutputStream().sync();
+			}
+		}
+
+		/**
+		 * Checks whether the stream is closed.
+		 * @return True if the stream was closed, false if it is still open.
+		 */
+		public boolean isClosed() {
+			return closed;
+		}
+
+		/**
+		 * If the stream is only closed, the data written so far stays in the shared file, but is
+		 * not referenced by any state handle. The shared file is not appended to any more, since
+		 * the stream may have been closed in the middle of a write.
+		 */
+		@Override
+		public void close() {
+			if (!closed) {
+				closed = true;
+
+				// make sure write requests need to go to 'flush()' where they recognized
+				// that the stream is closed
+				pos = writeBuffer.length;
+
+				releaseSharedFile(false);
+			}
+		}
+
+		@Override
+		public StreamStateHandle closeAndGetHandle() throws IOException {
+			// check if there was nothing ever written
+			if (sharedFile == null && pos == 0) {
+				return null;
+			}
+
+			synchronized (this) {
+				if (!closed) {
+					if (sharedFile == null && pos <= localStateThreshold) {
+						closed = true;
+						byte[] bytes = Arrays.copyOf(writeBuffer, pos);
+						pos = writeBuffer.length;
+						return new ByteStreamStateHandle(new Path(basePath, UUID.randomUUID().toString()).toString(), bytes);
+					}
+					else {
+						final Path filePath = sharedFile != null ? sharedFile.getFilePath() : null;
+
+						try {
+							flush();
+
+							pos = writeBuffer.length;
+
+							// the segment must be persistent before its handle is acknowledged,
+							// but the shared file is not closed
+							final FSDataOutputStream outStream = sharedFile.getOutputStream();
+							outStream.sync();
+
+							final long segmentEndPos = sharedFile.getPos();
+							final StreamStateHandle handle = new FileSegmentStateHandle(
+								sharedFile.getFilePath(), segmentStartPos, segmentEndPos - segmentStartPos);
+
+							sharedFile.segmentCompleted();
+							releaseSharedFile(true);
+
+							return handle;
+						} catch (Exception exception) {
+							releaseSharedFile(false);
+
+							throw new IOException("Could not flush and sync the shared file system " +
+								"output stream to " + (filePath != null ? filePath : basePath) + " in order to " +
+								"obtain the stream state handle", exception);
+						} finally {
+							closed = true;
+						}
+					}
+				}
+				else {
+					throw new IOException("Stream has already been closed and discarded.");
+				}
+			}
+		}
+
+		private synchronized void releaseSharedFile(boolean reusable) {
+			final SharedCheckpointFilePool.SharedFile file = sharedFile;
+
+			if (file != null) {
+				sharedFile = null;
+				filePool.release(file, reusable);
+			}
+		}
+	}
+}
@@ -61,6 +61,9 @@ public class FsStateBackend extends AbstractStateBackend {
 
 	/** Maximum size of state that is stored with the metadata, rather than in files */
 	private static final int MAX_FILE_STATE_THRESHOLD = 1024 * 1024;
+
+	/** By default, shared checkpoint files are not appended to any more once they reach 256 MB */
+	public static final long DEFAULT_MAX_AGGREGATED_FILE_SIZE = 256L * 1024 * 1024;
 	
 	/** The path to the directory for the checkpoint data, including the file system
 	 * description via scheme and optional authority */
@@ -72,6 +75,12 @@ public class FsStateBackend extends AbstractStateBackend {
 	/** Switch to chose between synchronous and asynchronous snapshots */
 	private final boolean asynchronousSnapshots;
 
+	/** Switch to aggregate the checkpoint files of the tasks of a TaskManager in a few shared files */
+	private final boolean aggregateFiles;
+
+	/** The size after which shared checkpoint files are not appended to any more */
+	private final long maxAggregatedFileSize;
+
 	/**
 	 * Creates a new state backend that stores its checkpoint data in the file system and location
 	 * defined by the given URI.
@@ -240,6 +249,62 @@ public class FsStateBackend extends AbstractStateBackend {
 			int fileStateSizeThreshold,
 			boolean asynchronousSnapshots) throws IOException {
 
+		this(checkpointDataUri, fileStateSizeThreshold, asynchronousSnapshots, false);
+	}
+
+	/**
+	 * Creates a new state backend that stores its checkpoint data in the file system and location
+	 * defined by the given URI.
+	 *
+	 * <p>If file aggregation is enabled, the state of one checkpoint of all tasks of a job on a
+	 * TaskManager is written to a few shared files, rather than to a file per operator and state. This requires a file system whose
+	 * {@link org.apache.flink.core.fs.FSDataOutputStream#sync()} makes the written data persistent
+	 * and visible, such as HDFS.
+	 *
+	 * @param checkpointDataUri The URI describing the filesystem (scheme and optionally authority),
+	 *                          and the path to the checkpoint data directory.
+	 * @param fileStateSizeThreshold State up to this size will be stored as part of the metadata,
+	 *                             rather than in files
+	 * @param asynchronousSnapshots Switch to enable asynchronous snapshots.
+	 * @param aggregateFiles Switch to enable the aggregation of checkpoint files in shared files.
+	 *
+	 * @throws IOException Thrown, if no file system can be found for the scheme in the URI.
+	 */
+	public FsStateBackend(
+			URI checkpointDataUri,
+			int fileStateSizeThreshold,
+			boolean asynchronousSnapshots,
+			boolean aggregateFiles) throws IOException {
+
+		this(checkpointDataUri, fileStateSizeThreshold, asynchronousSnapshots, aggregateFiles,
+			DEFAULT_MAX_AGGREGATED_FILE_SIZE);
+	}
+
+	/**
+	 * Creates a new state backend that stores its checkpoint data in the file system and location
+	 * defined by the given URI.
+	 *
+	 * <p>If file aggregation is enabled, the state of one checkpoint of all tasks of a job on a
+	 * TaskManager is written to a few shared files, which are not appended to any more once they reach the given maximum size.
+	 *
+	 * @param checkpointDataUri The URI describing the filesystem (scheme and optionally authority),
+	 *                          and the path to the checkpoint data directory.
+	 * @param fileStateSizeThreshold State up to this size will be stored as part of the metadata,
+	 *                             rather than in files
+	 * @param asynchronousSnapshots Switch to enable asynchronous snapshots.
+	 * @param aggregateFiles Switch to enable the aggregation of checkpoint files in shared files.
+	 * @param maxAggregatedFileSize The size in bytes after which shared files are not appended to.
+	 *
+	 * @throws IOException Thrown, if no file system can be found for the scheme in the URI.
+	 */
+	public FsStateBackend(
+			URI checkpointDataUri,
+			int fileStateSizeThreshold,
+			boolean asynchronousSnapshots,
+			boolean aggregateFiles,
+			long maxAggregatedFileSize) throws IOException {
+
+		checkArgument(maxAggregatedFileSize > 0, "The maximum size of aggregated files must be larger than zero.");
 		checkArgument(fileStateSizeThreshold >= 0, "The threshold for file state size must be zero or larger.");
 		checkArgument(fileStateSizeThreshold <= MAX_FILE_STATE_THRESHOLD,
 				"The threshold for file state size cannot be larger than %s", MAX_FILE_STATE_THRESHOLD);
@@ -248,6 +313,8 @@ public class FsStateBackend extends AbstractStateBackend {
 		this.basePath = validateAndNormalizeUri(checkpointDataUri);
 
 		this.asynchronousSnapshots = asynchronousSnapshots;
+		this.aggregateFiles = aggregateFiles;
+		this.maxAggregatedFileSize = maxAggregatedFileSize;
 	}
 
 	/**
@@ -273,6 +340,27 @@ public class FsStateBackend extends AbstractStateBackend {
 		return fileStateThreshold;
 	}
 
+	/**
+	 * Gets whether the checkpoint streams of the tasks of a TaskManager aggregate their data in
+	 * shared files.
+	 *
+	 * @return True, if the checkpoint files are aggregated, false otherwise.
+	 */
+	public boolean isFileAggregationEnabled() {
+		return aggregateFiles;
+	}
+
+	/**
+	 * Gets the size after which shared checkpoint files are not appended to any more.
+	 *
+	 * <p>By default, this size is {@value #DEFAULT_MAX_AGGREGATED_FILE_SIZE}.
+	 *
+	 * @return The maximum size of shared checkpoint files, in bytes.
+	 */
+	public long getMaxAggregatedFileSize() {
+		return maxAggregatedFileSize;
+	}
+
 	// ------------------------------------------------------------------------
 	//  initialization and cleanup
 	// ------------------------------------------------------------------------
@@ -282,6 +370,23 @@ public class FsStateBackend extends AbstractStateBackend {
 		return new FsCheckpointStreamFactory(basePath, jobId, fileStateThreshold);
 	}
 
+	/**
+	 * If file aggregation is enabled, the streams append their data to the files of the
+	 * {@link SharedCheckpointFilePool} of the TaskManager. Without such a pool, for example in
+	 * test environments, every stream writes a file of its own.
+	 */
+	@Override
+	public CheckpointStreamFactory createStreamFactory(Environment env, String operatorIdentifier) throws IOException {
+		final SharedCheckpointFilePool sharedFilePool = env.getSharedCheckpointFilePool();
+
+		if (aggregateFiles && sharedFilePool != null) {
+			return new FsSegmentCheckpointStreamFactory(
+				basePath, env.getJobID(), fileStateThreshold, maxAggregatedFileSize, sharedFilePool);
+		} else {
+			return createStreamFactory(env.getJobID(), operatorIdentifier);
+		}
+	}
+
 	@Override
 	public CheckpointStreamFactory createSavepointStreamFactory(
 			JobID jobId,
@@ -38,12 +38,23 @@ public class FsStateBackendFactory implements StateBackendFactory<FsStateBackend
 	 * rather than in files */
 	public static final String MEMORY_THRESHOLD_CONF_KEY = "state.backend.fs.memory-threshold";
 
+	/** The key under which the config stores whether the checkpoint files of the tasks
+	 * of a TaskManager are aggregated in a few shared files */
+	public static final String AGGREGATE_FILES_CONF_KEY = "state.backend.fs.aggregate-files";
+
+	/** The key under which the config stores the size after which shared checkpoint files
+	 * are not appended to any more */
+	public static final String AGGREGATE_FILES_MAX_SIZE_CONF_KEY = "state.backend.fs.aggregate-files.max-size";
+
 
 	@Override
 	public FsStateBackend createFromConfig(Configuration config) throws IllegalConfigurationException {
 		final String checkpointDirURI = config.getString(CHECKPOINT_DIRECTORY_URI_CONF_KEY, null);
 		final int memoryThreshold = config.getInteger(
 			MEMORY_THRESHOLD_CONF_KEY, FsStateBackend.DEFAULT_FILE_STATE_THRESHOLD);
+		final boolean aggregateFiles = config.getBoolean(AGGREGATE_FILES_CONF_KEY, false);
+		final long maxAggregatedFileSize = config.getLong(
+			AGGREGATE_FILES_MAX_SIZE_CONF_KEY, FsStateBackend.DEFAULT_MAX_AGGREGATED_FILE_SIZE);
 
 		if (checkpointDirURI == null) {
 			throw new IllegalConfigurationException(
@@ -53,7 +64,7 @@ public class FsStateBackendFactory implements StateBackendFactory<FsStateBackend
 
 		try {
 			Path path = new Path(checkpointDirURI);
-			return new FsStateBackend(path.toUri(), memoryThreshold);
+			return new FsStateBackend(path.toUri(), memoryThreshold, false, aggregateFiles, maxAggregatedFileSize);
 		}
 		catch (IOException | IllegalArgumentException e) {
 			throw new IllegalConfigurationException("Invalid configuration for the state backend", e);
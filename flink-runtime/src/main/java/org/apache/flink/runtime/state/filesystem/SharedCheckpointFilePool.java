@@ -0,0 +1,443 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.state.filesystem;
+
+import org.apache.flink.api.common.JobID;
+import org.apache.flink.core.fs.FSDataOutputStream;
+import org.apache.flink.core.fs.FileSystem;
+import org.apache.flink.core.fs.Path;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.concurrent.GuardedBy;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.UUID;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+import static org.apache.flink.util.Preconditions.checkNotNull;
+import static org.apache.flink.util.Preconditions.checkState;
+
+/**
+ * A pool of files that are shared by the checkpoint streams of all tasks of a TaskManager, so that
+ * the state of one checkpoint of a job is written to a few files per TaskManager, rather than to
+ * one file per stream. The pool is a service of the TaskManager, which hands it to its tasks
+ * through the {@link org.apache.flink.runtime.execution.Environment}, and closes it when it shuts down.
+ *
+ * <p>A stream leases a file exclusively, appends its data as one segment at the end of the file,
+ * and returns the file to the pool when it is closed. The next stream of the same checkpoint of the
+ * same job then appends to the same file, no matter which task it belongs to. Hence, the number of
+ * files per checkpoint is bounded by the number of concurrently written streams, rather than by the
+ * number of streams. Since a file only holds segments of one checkpoint, it is garbage as a whole
+ * if the checkpoint is aborted.
+ *
+ * <p>Files are closed when they exceed the maximum file size, when a stream fails, when a stream
+ * of a newer checkpoint of the same job requests a file, or when the last stream factory of the
+ * job is closed. Files of checkpoints that a task declined are deleted (see
+ * {@link #abortCheckpoint(JobID, long)}), since the checkpoint coordinator aborts the checkpoint.
+ */
+public final class SharedCheckpointFilePool {
+
+	private static final Logger LOG = LoggerFactory.getLogger(SharedCheckpointFilePool.class);
+
+	/** Lock for the idle files and the jobs */
+	private final Object lock = new Object();
+
+	/** The files that are not leased by a stream, by the directory of the checkpoint they belong to */
+	@GuardedBy("lock")
+	private final Map<Path, ArrayDeque<SharedFile>> idleFiles;
+
+	/** The jobs whose stream factories use this pool */
+	@GuardedBy("lock")
+	private final Map<JobID, JobCheckpoints> jobs;
+
+	/** Flag indicating whether the pool has been closed */
+	@GuardedBy("lock")
+	private boolean closed;
+
+	public SharedCheckpointFilePool() {
+		this.idleFiles = new HashMap<>();
+		this.jobs = new HashMap<>();
+	}
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * Adds a reference of the given job to this pool, for a stream factory that uses it.
+	 */
+	void acquireReference(JobID jobId) {
+		synchronized (lock) {
+			JobCheckpoints job = jobs.get(jobId);
+			if (job == null) {
+				job = new JobCheckpoints();
+				jobs.put(jobId, job);
+			}
+			job.numReferences++;
+		}
+	}
+
+	/**
+	 * Releases a reference of the given job to this pool. Once the job does not reference the pool
+	 * any more, the idle files of the job are closed, and files of the job that are returned
+	 * afterwards are closed rather than kept open.
+	 */
+	void releaseReference(JobID jobId) {
+		final List<SharedFile> filesToClose = new ArrayList<>();
+
+		synchronized (lock) {
+			final JobCheckpoints job = jobs.get(jobId);
+			checkState(job != null && job.numReferences > 0, "The pool is not referenced by job %s.", jobId);
+
+			if (--job.numReferences == 0) {
+				jobs.remove(jobId);
+				removeIdleFiles(jobId, Long.MAX_VALUE, filesToClose);
+			}
+		}
+
+		for (SharedFile fileToClose : filesToClose) {
+			fileToClose.close(false);
+		}
+	}
+
+	/**
+	 * Leases a file to write a segment of the given checkpoint to. The file must be returned via
+	 * {@link #release(SharedFile, boolean)} once the segment is written.
+	 *
+	 * @param jobId The job that the checkpoint belongs to
+	 * @param fs The file system of the checkpoint directory
+	 * @param checkpointDirectory The directory of the checkpoint, in which new files are created
+	 * @param checkpointId The ID of the checkpoint
+	 * @param maxFileSize The size after which the file is not appended to any more
+	 * @return A file that is exclusively leased to the caller
+	 * @throws IOException Thrown, if the checkpoint was aborted, or if a new file could not be created.
+	 */
+	SharedFile acquire(
+			JobID jobId,
+			FileSystem fs,
+			Path checkpointDirectory,
+			long checkpointId,
+			long maxFileSize) throws IOException {
+
+		checkArgument(maxFileSize > 0, "maxFileSize must be larger than zero");
+
+		final List<SharedFile> filesToClose = new ArrayList<>();
+		SharedFile file = null;
+
+		synchronized (lock) {
+			if (closed) {
+				throw new IOException("The shared checkpoint file pool has been closed.");
+			}
+
+			final JobCheckpoints job = jobs.get(jobId);
+			checkState(job != null, "The pool is not referenced by job %s.", jobId);
+
+			if (job.abortedCheckpoints.contains(checkpointId)) {
+				throw new IOException("Checkpoint " + checkpointId + " of job " + jobId + " has been aborted.");
+			}
+
+			if (job.latestCheckpointId < checkpointId) {
+				job.latestCheckpointId = checkpointId;
+
+				// the files of older checkpoints of the job are not appended to any more
+				removeIdleFiles(jobId, checkpointId, filesToClose);
+				job.abortedCheckpoints.headSet(checkpointId).clear();
+			}
+
+			final ArrayDeque<SharedFile> files = idleFiles.get(checkpointDirectory);
+			if (files != null) {
+				file = files.poll();
+				if (files.isEmpty()) {
+					idleFiles.remove(checkpointDirectory);
+				}
+			}
+		}
+
+		for (SharedFile fileToClose : filesToClose) {
+			fileToClose.close(false);
+		}
+
+		if (file == null) {
+			file = SharedFile.create(jobId, fs, checkpointDirectory, checkpointId, maxFileSize);
+		}
+
+		return file;
+	}
+
+	/**
+	 * Returns a leased file to the pool.
+	 *
+	 * @param file The file to return
+	 * @param reusable Flag indicating whether further segments can be appended to the file. This is
+	 *                 not the case after a failure while writing to the file.
+	 */
+	void release(SharedFile file, boolean reusable) {
+		boolean close = !reusable;
+		boolean discard = false;
+
+		if (!close) {
+			try {
+				close = file.getPos() >= file.maxFileSize;
+			} catch (IOException e) {
+				close = true;
+			}
+		}
+
+		synchronized (lock) {
+			final JobCheckpoints job = jobs.get(file.jobId);
+
+			if (job != null && job.abortedCheckpoints.contains(file.checkpointId)) {
+				close = true;
+				discard = true;
+			} else if (!close) {
+				if (closed || job == null || job.latestCheckpointId > file.checkpointId) {
+					close = true;
+				} else {
+					ArrayDeque<SharedFile> files = idleFiles.get(file.checkpointDirectory);
+					if (files == null) {
+						files = new ArrayDeque<>();
+						idleFiles.put(file.checkpointDirectory, files);
+					}
+					files.add(file);
+				}
+			}
+		}
+
+		if (close) {
+			file.close(discard);
+		}
+	}
+
+	/**
+	 * Deletes the files of the given checkpoint, after a task declined the checkpoint. The
+	 * checkpoint coordinator aborts a checkpoint that is declined by any task, so none of the
+	 * segments in the files of the checkpoint is ever restored. Files that are currently leased
+	 * are deleted once they are returned, and no further files are created for the checkpoint.
+	 *
+	 * @param jobId The job that the checkpoint belongs to
+	 * @param checkpointId The ID of the declined checkpoint
+	 */
+	public void abortCheckpoint(JobID jobId, long checkpointId) {
+		final List<SharedFile> filesToDiscard = new ArrayList<>();
+
+		synchronized (lock) {
+			final JobCheckpoints job = jobs.get(jobId);
+			if (job == null) {
+				return;
+			}
+
+			job.abortedCheckpoints.add(checkpointId);
+
+			final Iterator<ArrayDeque<SharedFile>> iterator = idleFiles.values().iterator();
+			while (iterator.hasNext()) {
+				final ArrayDeque<SharedFile> files = iterator.next();
+				final SharedFile first = files.peek();
+
+				if (first != null && first.jobId.equals(jobId) && first.checkpointId == checkpointId) {
+					filesToDiscard.addAll(files);
+					iterator.remove();
+				}
+			}
+		}
+
+		for (SharedFile fileToDiscard : filesToDiscard) {
+			fileToDiscard.close(true);
+		}
+	}
+
+	/**
+	 * Closes the idle files of all jobs. Files that are returned afterwards are closed rather than
+	 * kept open, and no further files are leased. This is called when the TaskManager shuts down.
+	 */
+	public void close() {
+		final List<SharedFile> filesToClose = new ArrayList<>();
+
+		synchronized (lock) {
+			closed = true;
+
+			for (ArrayDeque<SharedFile> files : idleFiles.values()) {
+				filesToClose.addAll(files);
+			}
+			idleFiles.clear();
+		}
+
+		for (SharedFile fileToClose : filesToClose) {
+			fileToClose.close(false);
+		}
+	}
+
+	/**
+	 * Gets the number of files that are currently not leased by a stream.
+	 */
+	int getNumberOfIdleFiles() {
+		synchronized (lock) {
+			int numIdleFiles = 0;
+			for (ArrayDeque<SharedFile> files : idleFiles.values()) {
+				numIdleFiles += files.size();
+			}
+			return numIdleFiles;
+		}
+	}
+
+	/**
+	 * Removes the idle files of the given job that belong to checkpoints older than the given one.
+	 */
+	@GuardedBy("lock")
+	private void removeIdleFiles(JobID jobId, long beforeCheckpointId, List<SharedFile> removedFiles) {
+		final Iterator<ArrayDeque<SharedFile>> iterator = idleFiles.values().iterator();
+		while (iterator.hasNext()) {
+			final ArrayDeque<SharedFile> files = iterator.next();
+			final SharedFile first = files.peek();
+
+			if (first != null && first.jobId.equals(jobId) && first.checkpointId < beforeCheckpointId) {
+				removedFiles.addAll(files);
+				iterator.remove();
+			}
+		}
+	}
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * The checkpoints of a job that uses the pool.
+	 */
+	private static final class JobCheckpoints {
+
+		/** The number of stream factories of the job that use the pool */
+		private int numReferences;
+
+		/** The latest checkpoint that a file has been requested for */
+		private long latestCheckpointId = -1L;
+
+		/** The declined checkpoints that are not older than the latest checkpoint */
+		private final TreeSet<Long> abortedCheckpoints = new TreeSet<>();
+	}
+
+	// ------------------------------------------------------------------------
+	/**
+	 * A file that holds segments of several checkpoint streams of one checkpoint.
+	 */
+	static final class SharedFile {
+
+		private final JobID jobId;
+
+		private final FileSystem fs;
+
+		private final Path checkpointDirectory;
+
+		private final long checkpointId;
+
+		private final long maxFileSize;
+
+		private final Path filePath;
+
+		private final FSDataOutputStream outStream;
+
+		/** The number of segments that have been completely written to the file */
+		private int numSegments;
+
+		private SharedFile(
+				JobID jobId,
+				FileSystem fs,
+				Path checkpointDirectory,
+				long checkpointId,
+				long maxFileSize,
+				Path filePath,
+				FSDataOutputStream outStream) {
+
+			this.jobId = checkNotNull(jobId);
+			this.fs = checkNotNull(fs);
+			this.checkpointDirectory = checkNotNull(checkpointDirectory);
+			this.checkpointId = checkpointId;
+			this.maxFileSize = maxFileSize;
+			this.filePath = checkNotNull(filePath);
+			this.outStream = checkNotNull(outStream);
+		}
+
+		Path getFilePath() {
+			return filePath;
+		}
+
+		FSDataOutputStream getOutputStream() {
+			return outStream;
+		}
+
+		long getPos() throws IOException {
+			return outStream.getPos();
+		}
+
+		void segmentCompleted() {
+			numSegments++;
+		}
+
+		/**
+		 * Closes the file, and deletes it if it is not referenced by any state handle, or if its
+		 * checkpoint was aborted.
+		 */
+		private void close(boolean discard) {
+			try {
+				outStream.close();
+			} catch (Throwable throwable) {
+				LOG.warn("Could not close the shared checkpoint file {}.", filePath, throwable);
+			}
+
+			// a file without any complete segment is not referenced by any state handle
+			if (discard || numSegments == 0) {
+				try {
+					fs.delete(filePath, false);
+				} catch (Exception e) {
+					LOG.warn("Cannot delete the unused shared checkpoint file {}.", filePath, e);
+				}
+			}
+		}
+
+		private static SharedFile create(
+				JobID jobId,
+				FileSystem fs,
+				Path checkpointDirectory,
+				long checkpointId,
+				long maxFileSize) throws IOException {
+
+			// make sure the directory for that specific checkpoint exists
+			fs.mkdirs(checkpointDirectory);
+
+			Exception latestException = null;
+			for (int attempt = 0; attempt < 10; attempt++) {
+				try {
+					final Path filePath = new Path(checkpointDirectory, UUID.randomUUID().toString());
+					final FSDataOutputStream outStream = fs.create(filePath, FileSystem.WriteMode.NO_OVERWRITE);
+
+					return new SharedFile(jobId, fs, checkpointDirectory, checkpointId, maxFileSize, filePath, outStream);
+				}
+				catch (Exception e) {
+					latestException = e;
+				}
+			}
+
+			throw new IOException("Could not open output stream for shared checkpoint file", latestException);
+		}
+	}
+}
@@ -65,6 +65,7 @@ import org.apache.flink.runtime.rpc.FatalErrorHandler;
 import org.apache.flink.runtime.rpc.RpcEndpoint;
 import org.apache.flink.runtime.rpc.RpcService;
 import org.apache.flink.runtime.rpc.akka.AkkaRpcServiceUtils;
+import org.apache.flink.runtime.state.filesystem.SharedCheckpointFilePool;
 import org.apache.flink.runtime.taskexecutor.exceptions.CheckpointException;
 import org.apache.flink.runtime.taskexecutor.exceptions.PartitionException;
 import org.apache.flink.runtime.taskexecutor.exceptions.SlotAllocationException;
@@ -92,6 +93,7 @@ import org.apache.flink.util.Preconditions;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -100,6 +102,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeoutException;
 
 import static org.apache.flink.util.Preconditions.checkArgument;
@@ -150,6 +153,9 @@ public class TaskExecutor extends RpcEndpoint implements TaskExecutorGateway {
 
 	private final BroadcastVariableManager broadcastVariableManager;
 
+	/** The pool of checkpoint files that are shared by the tasks of this TaskManager */
+	private final SharedCheckpointFilePool sharedCheckpointFilePool;
+
 	private final FileCache fileCache;
 
 	// --------- resource manager --------
@@ -203,6 +209,7 @@ public class TaskExecutor extends RpcEndpoint implements TaskExecutorGateway {
 		this.fatalErrorHandler = checkNotNull(fatalErrorHandler);
 		this.taskManagerMetricGroup = checkNotNull(taskManagerMetricGroup);
 		this.broadcastVariableManager = checkNotNull(broadcastVariableManager);
+		this.sharedCheckpointFilePool = new SharedCheckpointFilePool();
 		this.fileCache = checkNotNull(fileCache);
 		this.jobManagerTable = checkNotNull(jobManagerTable);
 		this.jobLeaderService = checkNotNull(jobLeaderService);
@@ -279,6 +286,8 @@ public class TaskExecutor extends RpcEndpoint implements TaskExecutorGateway {
 
 		fileCache.shutdown();
 
+		sharedCheckpointFilePool.close();
+
 		try {
 			super.postStop();
 		} catch (Throwable e) {
@@ -306,6 +315,10 @@ public class TaskExecutor extends RpcEndpoint implements TaskExecutorGateway {
 			JobMasterId jobMasterId,
 			Time timeout) {
 
+		if (tdd.hasOffloadedInformation()) {
+			return loadOffloadedInformationAndSubmitTask(tdd, jobMasterId, timeout);
+		}
+
 		try {
 			// first, deserialize the pre-serialized information
 			final JobInformation jobInformation;
@@ -381,6 +394,7 @@ public class TaskExecutor extends RpcEndpoint implements TaskExecutorGateway {
 				ioManager,
 				networkEnvironment,
 				broadcastVariableManager,
+				sharedCheckpointFilePool,
 				taskManagerActions,
 				inputSplitProvider,
 				checkpointResponder,
@@ -419,6 +433,79 @@ public class TaskExecutor extends RpcEndpoint implements TaskExecutorGateway {
 		}
 	}
 
+	/**
+	 * Loads the information which has been offloaded to the blob server of the job manager in the
+	 * I/O executor, so that the download does not block the main thread, and then submits the task
+	 * in the main thread.
+	 */
+	private CompletableFuture<Acknowledge> loadOffloadedInformationAndSubmitTask(
+			TaskDeploymentDescriptor tdd,
+			JobMasterId jobMasterId,
+			Time timeout) {
+
+		final JobID jobId = tdd.getJobId();
+		final JobManagerConnection jobManagerConnection = jobManagerTable.get(jobId);
+		final BlobCache blobCache = jobManagerConnection == null ? null : jobManagerConnection.getBlobCache();
+
+		final CompletableFuture<Acknowledge> submitResultFuture = new CompletableFuture<>();
+
+		try {
+			getRpcService().getExecutor().execute(() -> {
+				if (blobCache != null) {
+					blobCache.registerJob(jobId);
+				}
+				try {
+					tdd.loadBigData(blobCache);
+				} catch (Throwable t) {
+					submitResultFuture.completeExceptionally(
+						new TaskSubmissionException("Could not load the offloaded job or task information.", t));
+					return;
+				} finally {
+					if (blobCache != null) {
+						blobCache.releaseJob(jobId);
+					}
+				}
+
+				runAsync(() -> submitTask(tdd, jobMasterId, timeout).whenComplete(
+					(Acknowledge acknowledge, Throwable failure) -> {
+						if (failure != null) {
+							submitResultFuture.completeExceptionally(failure);
+						} else {
+							submitResultFuture.complete(acknowledge);
+						}
+					}));
+			});
+		} catch (Throwable t) {
+			submitResultFuture.completeExceptionally(
+				new TaskSubmissionException("Could not load the offloaded job or task information.", t));
+		}
+
+		return submitResultFuture;
+	}
+
+	@Override
+	public CompletableFuture<Map<ExecutionAttemptID, Throwable>> submitTasks(
+			Collection<TaskDeploymentDescriptor> tdds,
+			JobMasterId jobMasterId,
+			Time timeout) {
+
+		// the tasks are submitted independently, so that a failed task does not fail the others
+		final Map<ExecutionAttemptID, Throwable> failures = new ConcurrentHashMap<>();
+		final Collection<CompletableFuture<Void>> submitResultFutures = new ArrayList<>(tdds.size());
+
+		for (TaskDeploymentDescriptor tdd : tdds) {
+			submitResultFutures.add(submitTask(tdd, jobMasterId, timeout).handle(
+				(Acknowledge acknowledge, Throwable failure) -> {
+					if (failure != null) {
+						failures.put(tdd.getExecutionAttemptId(), failure);
+					}
+					return null;
+				}));
+		}
+
+		return FutureUtils.waitForAll(submitResultFutures).thenApply(ignored -> new HashMap<>(failures));
+	}
+
 	@Override
 	public CompletableFuture<Acknowledge> cancelTask(ExecutionAttemptID executionAttemptID, Time timeout) {
 		final Task task = taskSlotTable.getTask(executionAttemptID);
@@ -34,6 +34,8 @@ import org.apache.flink.runtime.rpc.RpcGateway;
 import org.apache.flink.runtime.rpc.RpcTimeout;
 import org.apache.flink.runtime.taskmanager.Task;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
 /**
@@ -73,6 +75,20 @@ public interface TaskExecutorGateway extends RpcGateway {
 		JobMasterId jobMasterId,
 		@RpcTimeout Time timeout);
 
+	/**
+	 * Submit several {@link Task}s to the {@link TaskExecutor} at once.
+	 *
+	 * @param tdds describing the tasks to submit
+	 * @param jobMasterId identifying the submitting JobMaster
+	 * @param timeout of the submit operation
+	 * @return Future of the failure causes of the tasks that could not be submitted, by execution
+	 * attempt. Tasks that are not contained have been submitted successfully.
+	 */
+	CompletableFuture<Map<ExecutionAttemptID, Throwable>> submitTasks(
+		Collection<TaskDeploymentDescriptor> tdds,
+		JobMasterId jobMasterId,
+		@RpcTimeout Time timeout);
+
 	/**
 	 * Update the task where the given partitions can be found.
 	 *
@@ -32,6 +32,7 @@ import org.apache.flink.runtime.highavailability.HighAvailabilityServicesUtils;
 import org.apache.flink.runtime.metrics.MetricRegistry;
 import org.apache.flink.runtime.metrics.MetricRegistryConfiguration;
 import org.apache.flink.runtime.metrics.groups.TaskManagerMetricGroup;
+import org.apache.flink.runtime.metrics.util.MetricUtils;
 import org.apache.flink.runtime.rpc.FatalErrorHandler;
 import org.apache.flink.runtime.rpc.RpcService;
 import org.apache.flink.runtime.rpc.akka.AkkaRpcServiceUtils;
@@ -269,6 +270,8 @@ public class TaskManagerRunner implements FatalErrorHandler {
 
 		// Initialize the TM metrics
 		TaskExecutorMetricsInitializer.instantiateStatusMetrics(taskManagerMetricGroup, taskManagerServices.getNetworkEnvironment());
+		MetricUtils.instantiateManagedMemoryMetrics(taskManagerMetricGroup, taskManagerServices.getMemoryManager());
+		MetricUtils.instantiateIOManagerMetrics(taskManagerMetricGroup, taskManagerServices.getIOManager());
 
 		return new TaskExecutor(
 			rpcService,
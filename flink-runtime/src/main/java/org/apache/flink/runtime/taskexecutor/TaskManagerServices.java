@@ -38,6 +38,7 @@ import org.apache.flink.runtime.io.network.partition.ResultPartitionManager;
 import org.apache.flink.runtime.memory.MemoryManager;
 import org.apache.flink.runtime.metrics.MetricRegistry;
 import org.apache.flink.runtime.metrics.groups.TaskManagerMetricGroup;
+import org.apache.flink.runtime.metrics.util.MetricUtils;
 import org.apache.flink.runtime.query.KvStateRegistry;
 import org.apache.flink.runtime.query.netty.DisabledKvStateRequestStats;
 import org.apache.flink.runtime.query.netty.KvStateServer;
@@ -182,7 +183,9 @@ public class TaskManagerServices {
 		final MemoryManager memoryManager = createMemoryManager(taskManagerServicesConfiguration);
 
 		// start the I/O manager, it will create some temp directories.
-		final IOManager ioManager = new IOManagerAsync(taskManagerServicesConfiguration.getTmpDirPaths());
+		final IOManager ioManager = new IOManagerAsync(
+			taskManagerServicesConfiguration.getTmpDirPaths(),
+			taskManagerServicesConfiguration.getIoThreadsPerTmpDir());
 
 		final MetricRegistry metricRegistry = new MetricRegistry(
 				taskManagerServicesConfiguration.getMetricRegistryConfiguration());
@@ -194,6 +197,8 @@ public class TaskManagerServices {
 
 		// Initialize the TM metrics
 		TaskExecutorMetricsInitializer.instantiateStatusMetrics(taskManagerMetricGroup, network);
+		MetricUtils.instantiateManagedMemoryMetrics(taskManagerMetricGroup, memoryManager);
+		MetricUtils.instantiateIOManagerMetrics(taskManagerMetricGroup, ioManager);
 
 		final BroadcastVariableManager broadcastVariableManager = new BroadcastVariableManager();
 
@@ -299,7 +304,8 @@ public class TaskManagerServices {
 				taskManagerServicesConfiguration.getNumberOfSlots(),
 				taskManagerServicesConfiguration.getNetworkConfig().networkBufferSize(),
 				memType,
-				preAllocateMemory);
+				preAllocateMemory,
+				taskManagerServicesConfiguration.getMemoryPoolReleaseInterval());
 		} catch (OutOfMemoryError e) {
 			if (memType == MemoryType.HEAP) {
 				throw new Exception("OutOfMemory error (" + e.getMessage() +
@@ -55,6 +55,8 @@ public class TaskManagerServicesConfiguration {
 
 	private final String[] tmpDirPaths;
 
+	private final int ioThreadsPerTmpDir;
+
 	private final int numberOfSlots;
 
 	private final NetworkEnvironmentConfiguration networkConfig;
@@ -70,6 +72,8 @@ public class TaskManagerServicesConfiguration {
 
 	private final boolean preAllocateMemory;
 
+	private final long memoryPoolReleaseInterval;
+
 	private final float memoryFraction;
 
 	private final MetricRegistryConfiguration metricRegistryConfiguration;
@@ -79,23 +83,27 @@ public class TaskManagerServicesConfiguration {
 	public TaskManagerServicesConfiguration(
 			InetAddress taskManagerAddress,
 			String[] tmpDirPaths,
+			int ioThreadsPerTmpDir,
 			NetworkEnvironmentConfiguration networkConfig,
 			QueryableStateConfiguration queryableStateConfig,
 			int numberOfSlots,
 			long configuredMemory,
 			boolean preAllocateMemory,
+			long memoryPoolReleaseInterval,
 			float memoryFraction,
 			MetricRegistryConfiguration metricRegistryConfiguration,
 			long timerServiceShutdownTimeout) {
 
 		this.taskManagerAddress = checkNotNull(taskManagerAddress);
 		this.tmpDirPaths = checkNotNull(tmpDirPaths);
+		this.ioThreadsPerTmpDir = ioThreadsPerTmpDir;
 		this.networkConfig = checkNotNull(networkConfig);
 		this.queryableStateConfig = checkNotNull(queryableStateConfig);
 		this.numberOfSlots = checkNotNull(numberOfSlots);
 
 		this.configuredMemory = configuredMemory;
 		this.preAllocateMemory = preAllocateMemory;
+		this.memoryPoolReleaseInterval = memoryPoolReleaseInterval;
 		this.memoryFraction = memoryFraction;
 
 		this.metricRegistryConfiguration = checkNotNull(metricRegistryConfiguration);
@@ -118,6 +126,15 @@ public class TaskManagerServicesConfiguration {
 		return tmpDirPaths;
 	}
 
+	/**
+	 * Returns the number of I/O reader and of I/O writer threads per temporary directory.
+	 *
+	 * @see TaskManagerOptions#IO_THREADS_PER_TMP_DIR
+	 */
+	public int getIoThreadsPerTmpDir() {
+		return ioThreadsPerTmpDir;
+	}
+
 	public NetworkEnvironmentConfiguration getNetworkConfig() {
 		return networkConfig;
 	}
@@ -149,6 +166,17 @@ public class TaskManagerServicesConfiguration {
 		return preAllocateMemory;
 	}
 
+	/**
+	 * Returns the interval (in milliseconds) in which idle pooled managed memory is released.
+	 *
+	 * @return the release interval, or <tt>0</tt> if lazily allocated memory is not pooled
+	 *
+	 * @see TaskManagerOptions#MANAGED_MEMORY_POOL_RELEASE_INTERVAL
+	 */
+	public long getMemoryPoolReleaseInterval() {
+		return memoryPoolReleaseInterval;
+	}
+
 	public MetricRegistryConfiguration getMetricRegistryConfiguration() {
 		return metricRegistryConfiguration;
 	}
@@ -186,6 +214,11 @@ public class TaskManagerServicesConfiguration {
 			ConfigConstants.TASK_MANAGER_TMP_DIR_KEY,
 			ConfigConstants.DEFAULT_TASK_MANAGER_TMP_PATH).split(",|" + File.pathSeparator);
 
+		final int ioThreadsPerTmpDir = configuration.getInteger(TaskManagerOptions.IO_THREADS_PER_TMP_DIR);
+		checkConfigParameter(ioThreadsPerTmpDir > 0, ioThreadsPerTmpDir,
+			TaskManagerOptions.IO_THREADS_PER_TMP_DIR.key(),
+			"The number of I/O threads per temporary directory must be positive.");
+
 		final NetworkEnvironmentConfiguration networkConfig = parseNetworkEnvironmentConfiguration(
 			configuration,
 			localCommunication,
@@ -208,6 +241,11 @@ public class TaskManagerServicesConfiguration {
 
 		boolean preAllocateMemory = configuration.getBoolean(TaskManagerOptions.MANAGED_MEMORY_PRE_ALLOCATE);
 
+		long memoryPoolReleaseInterval = configuration.getLong(TaskManagerOptions.MANAGED_MEMORY_POOL_RELEASE_INTERVAL);
+		checkConfigParameter(memoryPoolReleaseInterval >= 0, memoryPoolReleaseInterval,
+			TaskManagerOptions.MANAGED_MEMORY_POOL_RELEASE_INTERVAL.key(),
+			"The release interval of the memory pool must not be negative.");
+
 		float memoryFraction = configuration.getFloat(TaskManagerOptions.MANAGED_MEMORY_FRACTION);
 		checkConfigParameter(memoryFraction > 0.0f && memoryFraction < 1.0f, memoryFraction,
 			TaskManagerOptions.MANAGED_MEMORY_FRACTION.key(),
@@ -220,11 +258,13 @@ public class TaskManagerServicesConfiguration {
 		return new TaskManagerServicesConfiguration(
 			remoteAddress,
 			tmpDirs,
+			ioThreadsPerTmpDir,
 			networkConfig,
 			queryableStateConfig,
 			slots,
 			configuredMemory,
 			preAllocateMemory,
+			memoryPoolReleaseInterval,
 			memoryFraction,
 			metricRegistryConfiguration,
 			timerServiceShutdownTimeout);
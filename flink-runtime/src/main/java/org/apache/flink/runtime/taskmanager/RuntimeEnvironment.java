@@ -37,6 +37,7 @@ import org.apache.flink.runtime.jobgraph.tasks.InputSplitProvider;
 import org.apache.flink.runtime.memory.MemoryManager;
 import org.apache.flink.runtime.metrics.groups.TaskMetricGroup;
 import org.apache.flink.runtime.query.TaskKvStateRegistry;
+import org.apache.flink.runtime.state.filesystem.SharedCheckpointFilePool;
 
 import java.util.Map;
 import java.util.concurrent.Future;
@@ -63,6 +64,7 @@ public class RuntimeEnvironment implements Environment {
 	private final MemoryManager memManager;
 	private final IOManager ioManager;
 	private final BroadcastVariableManager bcVarManager;
+	private final SharedCheckpointFilePool sharedCheckpointFilePool;
 	private final InputSplitProvider splitProvider;
 	
 	private final Map<String, Future<Path>> distCacheEntries;
@@ -95,6 +97,7 @@ public class RuntimeEnvironment implements Environment {
 			MemoryManager memManager,
 			IOManager ioManager,
 			BroadcastVariableManager bcVarManager,
+			SharedCheckpointFilePool sharedCheckpointFilePool,
 			AccumulatorRegistry accumulatorRegistry,
 			TaskKvStateRegistry kvStateRegistry,
 			InputSplitProvider splitProvider,
@@ -117,6 +120,7 @@ public class RuntimeEnvironment implements Environment {
 		this.memManager = checkNotNull(memManager);
 		this.ioManager = checkNotNull(ioManager);
 		this.bcVarManager = checkNotNull(bcVarManager);
+		this.sharedCheckpointFilePool = checkNotNull(sharedCheckpointFilePool);
 		this.accumulatorRegistry = checkNotNull(accumulatorRegistry);
 		this.kvStateRegistry = checkNotNull(kvStateRegistry);
 		this.splitProvider = checkNotNull(splitProvider);
@@ -196,6 +200,11 @@ public class RuntimeEnvironment implements Environment {
 		return bcVarManager;
 	}
 
+	@Override
+	public SharedCheckpointFilePool getSharedCheckpointFilePool() {
+		return sharedCheckpointFilePool;
+	}
+
 	@Override
 	public AccumulatorRegistry getAccumulatorRegistry() {
 		return accumulatorRegistry;
@@ -254,6 +263,8 @@ public class RuntimeEnvironment implements Environment {
 
 	@Override
 	public void declineCheckpoint(long checkpointId, Throwable cause) {
+		// the checkpoint is aborted, so the shared files written for it are garbage
+		sharedCheckpointFilePool.abortCheckpoint(jobId, checkpointId);
 		checkpointResponder.declineCheckpoint(jobId, executionId, checkpointId, cause);
 	}
 
@@ -28,6 +28,7 @@ import org.apache.flink.configuration.TaskManagerOptions;
 import org.apache.flink.core.fs.FileSystemSafetyNet;
 import org.apache.flink.core.fs.Path;
 import org.apache.flink.core.fs.SafetyNetCloseableRegistry;
+import org.apache.flink.metrics.Gauge;
 import org.apache.flink.metrics.MetricGroup;
 import org.apache.flink.runtime.accumulators.AccumulatorRegistry;
 import org.apache.flink.runtime.blob.BlobCache;
@@ -69,6 +70,7 @@ import org.apache.flink.runtime.jobmanager.PartitionProducerDisposedException;
 import org.apache.flink.runtime.memory.MemoryManager;
 import org.apache.flink.runtime.metrics.groups.TaskMetricGroup;
 import org.apache.flink.runtime.query.TaskKvStateRegistry;
+import org.apache.flink.runtime.state.filesystem.SharedCheckpointFilePool;
 import org.apache.flink.util.ExceptionUtils;
 import org.apache.flink.util.Preconditions;
 import org.apache.flink.util.SerializedValue;
@@ -181,6 +183,9 @@ public class Task implements Runnable, TaskActions {
 	/** The BroadcastVariableManager to be used by this task */
 	private final BroadcastVariableManager broadcastVariableManager;
 
+	/** The pool of checkpoint files that this task shares with the other tasks of the TaskManager */
+	private final SharedCheckpointFilePool sharedCheckpointFilePool;
+
 	/** Serialized version of the job specific execution configuration (see {@link ExecutionConfig}). */
 	private final SerializedValue<ExecutionConfig> serializedExecutionConfig;
 
@@ -283,6 +288,7 @@ public class Task implements Runnable, TaskActions {
 		IOManager ioManager,
 		NetworkEnvironment networkEnvironment,
 		BroadcastVariableManager bcVarManager,
+		SharedCheckpointFilePool sharedCheckpointFilePool,
 		TaskManagerActions taskManagerActions,
 		InputSplitProvider inputSplitProvider,
 		CheckpointResponder checkpointResponder,
@@ -325,10 +331,12 @@ public class Task implements Runnable, TaskActions {
 		Configuration tmConfig = taskManagerConfig.getConfiguration();
 		this.taskCancellationInterval = tmConfig.getLong(TaskManagerOptions.TASK_CANCELLATION_INTERVAL);
 		this.taskCancellationTimeout = tmConfig.getLong(TaskManagerOptions.TASK_CANCELLATION_TIMEOUT);
+		final long maxRetainedBytesPerPartition = tmConfig.getLong(TaskManagerOptions.NETWORK_REPLAY_MAX_RETAINED_BYTES);
 
 		this.memoryManager = Preconditions.checkNotNull(memManager);
 		this.ioManager = Preconditions.checkNotNull(ioManager);
 		this.broadcastVariableManager = Preconditions.checkNotNull(bcVarManager);
+		this.sharedCheckpointFilePool = Preconditions.checkNotNull(sharedCheckpointFilePool);
 		this.accumulatorRegistry = new AccumulatorRegistry(jobId, executionId);
 
 		this.inputSplitProvider = Preconditions.checkNotNull(inputSplitProvider);
@@ -371,7 +379,9 @@ public class Task implements Runnable, TaskActions {
 				networkEnvironment.getResultPartitionManager(),
 				resultPartitionConsumableNotifier,
 				ioManager,
-				desc.sendScheduleOrUpdateConsumersMessage());
+				desc.sendScheduleOrUpdateConsumersMessage(),
+				desc.retainBuffersForReplay(),
+				maxRetainedBytesPerPartition);
 
 			writers[counter] = new ResultPartitionWriter(producedPartitions[counter]);
 
@@ -614,6 +624,15 @@ public class Task implements Runnable, TaskActions {
 			// add metrics for buffers
 			this.metrics.getIOMetricGroup().initializeBufferMetrics(this);
 
+			// add metrics for the managed memory, which is owned by the invokable
+			this.metrics.gauge("managedMemoryUsedPages", new Gauge<Integer>() {
+				@Override
+				public Integer getValue() {
+					final AbstractInvokable owner = Task.this.invokable;
+					return owner == null ? 0 : memoryManager.getNumberOfUsedPages(owner);
+				}
+			});
+
 			// register detailed network metrics, if configured
 			if (taskManagerConfig.getConfiguration().getBoolean(TaskManagerOptions.NETWORK_DETAILED_METRICS)) {
 				// similar to MetricUtils.instantiateNetworkMetrics() but inside this IOMetricGroup
@@ -664,7 +683,7 @@ public class Task implements Runnable, TaskActions {
 				jobId, vertexId, executionId, executionConfig, taskInfo,
 				jobConfiguration, taskConfiguration, userCodeClassLoader,
 				memoryManager, ioManager, broadcastVariableManager,
-				accumulatorRegistry, kvStateRegistry, inputSplitProvider,
+				sharedCheckpointFilePool, accumulatorRegistry, kvStateRegistry, inputSplitProvider,
 				distributedCacheEntries, writers, inputGates,
 				checkpointResponder, taskManagerConfig, metrics, this);
 
@@ -1235,6 +1254,11 @@ public class Task implements Runnable, TaskActions {
 	public void notifyCheckpointComplete(final long checkpointID) {
 		AbstractInvokable invokable = this.invokable;
 
+		// the produced data before the checkpoint does not have to be replayed anymore
+		for (ResultPartition partition : producedPartitions) {
+			partition.notifyCheckpointComplete(checkpointID);
+		}
+
 		if (executionState == ExecutionState.RUNNING && invokable != null) {
 			if (invokable instanceof StatefulTask) {
 
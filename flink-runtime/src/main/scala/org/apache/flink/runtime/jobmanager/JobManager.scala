@@ -724,7 +724,6 @@ class JobManager(
             null
           } else {
             val slot = execution.getAssignedResource
-            val taskId = execution.getVertex.getParallelSubtaskIndex
 
             val host = if (slot != null) {
               slot.getTaskManagerLocation().getHostname()
@@ -735,7 +734,7 @@ class JobManager(
             executionGraph.getJobVertex(vertexID) match {
               case vertex: ExecutionJobVertex => vertex.getSplitAssigner match {
                 case splitAssigner: InputSplitAssigner =>
-                  val nextInputSplit = splitAssigner.getNextInputSplit(host, taskId)
+                  val nextInputSplit = execution.getVertex.getNextInputSplit(host, execution)
 
                   log.debug(s"Send next input split $nextInputSplit.")
 
@@ -1324,6 +1323,10 @@ class JobManager(
           jobMetrics,
           numSlots,
           log.logger)
+
+        executionGraph.setBlobServer(
+          blobServer,
+          flinkConfiguration.getInteger(BlobServerOptions.OFFLOAD_MINSIZE))
         
         if (registerNewGraph) {
           currentJobs.put(jobGraph.getJobID, (executionGraph, jobInfo))
@@ -2506,7 +2509,9 @@ object JobManager {
     try {
       blobServer = new BlobServer(configuration, blobStore)
       instanceManager = new InstanceManager()
-      scheduler = new FlinkScheduler(ExecutionContext.fromExecutor(futureExecutor))
+      scheduler = new FlinkScheduler(
+        ExecutionContext.fromExecutor(futureExecutor),
+        configuration.getBoolean(JobManagerOptions.SCHEDULER_TOPOLOGY_AWARE))
       libraryCacheManager = new BlobLibraryCacheManager(blobServer)
 
       instanceManager.addInstanceListener(scheduler)
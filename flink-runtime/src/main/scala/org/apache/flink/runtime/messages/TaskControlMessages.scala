@@ -20,11 +20,14 @@ package org.apache.flink.runtime.messages
 
 import java.util
 
+import akka.actor.ActorRef
 import org.apache.flink.runtime.deployment.{InputChannelDeploymentDescriptor, TaskDeploymentDescriptor}
-import org.apache.flink.runtime.executiongraph.{ExecutionAttemptID, PartitionInfo}
+import org.apache.flink.runtime.executiongraph.{ExecutionAttemptID, JobInformation, PartitionInfo, TaskInformation}
 import org.apache.flink.runtime.jobgraph.IntermediateDataSetID
 import org.apache.flink.runtime.taskmanager.TaskExecutionState
 
+import scala.util.Try
+
 /**
  * A set of messages that control the deployment and the state of Tasks executed
  * on the TaskManager.
@@ -49,6 +52,32 @@ object TaskMessages {
   case class SubmitTask(tasks: TaskDeploymentDescriptor)
     extends TaskMessage with RequiresLeaderSessionID
 
+  /**
+   * Submits several tasks to the task manager at once. The tasks are started independently of
+   * each other. The result to this message is a map from the execution attempt IDs of the tasks
+   * which could not be started to the failure causes.
+   *
+   * @param tasks Descriptors which contain the information to start the tasks.
+   */
+  case class SubmitTasks(tasks: java.util.Collection[TaskDeploymentDescriptor])
+    extends TaskMessage with RequiresLeaderSessionID
+
+  /**
+   * Sent by the task manager to itself once the job and task information of submitted tasks
+   * has been loaded outside of the actor thread. Starts the tasks and replies to the original
+   * sender of the submission.
+   *
+   * @param tasks Descriptors of the tasks with their loaded job and task information, or the
+   *              cause why it could not be loaded.
+   * @param replyTo Original sender of the submission.
+   * @param batch True if the tasks have been submitted via [[SubmitTasks]].
+   */
+  case class StartLoadedTasks(
+      tasks: Iterable[(TaskDeploymentDescriptor, Try[(JobInformation, TaskInformation)])],
+      replyTo: ActorRef,
+      batch: Boolean)
+    extends TaskMessage with RequiresLeaderSessionID
+
   /**
    * Cancels the task associated with [[attemptID]]. The result is sent back to the sender as a
    * [[TaskOperationResult]] message.
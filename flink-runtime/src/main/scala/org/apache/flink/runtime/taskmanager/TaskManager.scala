@@ -43,7 +43,7 @@ import org.apache.flink.runtime.concurrent.Executors
 import org.apache.flink.runtime.deployment.TaskDeploymentDescriptor
 import org.apache.flink.runtime.execution.ExecutionState
 import org.apache.flink.runtime.execution.librarycache.{BlobLibraryCacheManager, FallbackLibraryCacheManager, LibraryCacheManager}
-import org.apache.flink.runtime.executiongraph.{ExecutionAttemptID, PartitionInfo}
+import org.apache.flink.runtime.executiongraph.{ExecutionAttemptID, JobInformation, PartitionInfo, TaskInformation}
 import org.apache.flink.runtime.filecache.FileCache
 import org.apache.flink.runtime.highavailability.HighAvailabilityServicesUtils.AddressResolution
 import org.apache.flink.runtime.highavailability.{HighAvailabilityServices, HighAvailabilityServicesUtils}
@@ -54,6 +54,7 @@ import org.apache.flink.runtime.io.network.netty.PartitionProducerStateChecker
 import org.apache.flink.runtime.io.network.partition.ResultPartitionConsumableNotifier
 import org.apache.flink.runtime.leaderretrieval.{LeaderRetrievalListener, LeaderRetrievalService}
 import org.apache.flink.runtime.memory.MemoryManager
+import org.apache.flink.runtime.messages.JobManagerMessages.LeaderSessionMessage
 import org.apache.flink.runtime.messages.Messages._
 import org.apache.flink.runtime.messages.RegistrationMessages._
 import org.apache.flink.runtime.messages.StackTraceSampleMessages.{SampleTaskStackTrace, StackTraceSampleMessages, TriggerStackTraceSample}
@@ -67,6 +68,7 @@ import org.apache.flink.runtime.metrics.{MetricRegistry => FlinkMetricRegistry}
 import org.apache.flink.runtime.process.ProcessReaper
 import org.apache.flink.runtime.security.SecurityUtils
 import org.apache.flink.runtime.security.SecurityUtils.SecurityConfiguration
+import org.apache.flink.runtime.state.filesystem.SharedCheckpointFilePool
 import org.apache.flink.runtime.taskexecutor.{TaskExecutor, TaskManagerConfiguration, TaskManagerServices, TaskManagerServicesConfiguration}
 import org.apache.flink.runtime.util._
 import org.apache.flink.runtime.{FlinkActor, LeaderSessionMessageFilter, LogMessages}
@@ -76,6 +78,7 @@ import scala.collection.JavaConverters._
 import scala.concurrent._
 import scala.concurrent.duration._
 import scala.language.postfixOps
+import scala.util.Try
 
 /**
  * The TaskManager is responsible for executing the individual tasks of a Flink job. It is
@@ -147,6 +150,9 @@ class TaskManager(
   /** Handler for shared broadcast variables (shared between multiple Tasks) */
   protected val bcVarManager = new BroadcastVariableManager()
 
+  /** Pool of checkpoint files that are shared by the tasks of this TaskManager */
+  protected val sharedCheckpointFilePool = new SharedCheckpointFilePool()
+
   /** Handler for distributed files cached by this TaskManager */
   protected val fileCache = new FileCache(config.getTmpDirectories())
 
@@ -156,6 +162,11 @@ class TaskManager(
 
   private var taskManagerMetricGroup : TaskManagerMetricGroup = _
 
+  /** Whether the heartbeats report the progress of the running tasks, which the JobManager
+    * needs only to detect slow tasks for speculative execution */
+  private val reportTaskProgress = config.getConfiguration().getBoolean(
+    JobManagerOptions.SPECULATIVE_EXECUTION_ENABLED)
+
   /** Actors which want to be notified once this task manager has been
     * registered at the job manager */
   private val waitForRegistration = scala.collection.mutable.Set[ActorRef]()
@@ -258,6 +269,12 @@ class TaskManager(
     } catch {
       case t: Exception => log.error("FileCache did not shutdown properly.", t)
     }
+
+    try {
+      sharedCheckpointFilePool.close()
+    } catch {
+      case t: Exception => log.error("Shared checkpoint file pool did not shutdown properly.", t)
+    }
     
     // failsafe shutdown of the metrics registry
     try {
@@ -453,7 +470,15 @@ class TaskManager(
 
         // starts a new task on the TaskManager
         case SubmitTask(tdd) =>
-          submitTask(tdd)
+          submitTasks(Seq(tdd), batch = false)
+
+        // starts several new tasks on the TaskManager
+        case SubmitTasks(tdds) =>
+          submitTasks(tdds.asScala, batch = true)
+
+        // starts the tasks whose offloaded information has been loaded
+        case StartLoadedTasks(tasks, replyTo, batch) =>
+          startTasks(tasks, replyTo, batch)
 
         // marks a task as failed for an external reason
         // external reasons are reasons other than the task code itself throwing an exception
@@ -988,6 +1013,8 @@ class TaskManager(
     
     MetricUtils.instantiateStatusMetrics(taskManagerMetricGroup)
     MetricUtils.instantiateNetworkMetrics(taskManagerMetricGroup, network)
+    MetricUtils.instantiateManagedMemoryMetrics(taskManagerMetricGroup, memoryManager)
+    MetricUtils.instantiateIOManagerMetrics(taskManagerMetricGroup, ioManager)
     
     // watch job manager to detect when it dies
     context.watch(jobManager)
@@ -1105,128 +1132,237 @@ class TaskManager(
   // --------------------------------------------------------------------------
 
   /**
-   * Receives a [[TaskDeploymentDescriptor]] describing the task to be executed. It eagerly
-   * acknowledges the task reception to the sender and asynchronously starts the initialization of
-   * the task.
+   * Receives [[TaskDeploymentDescriptor]]s describing the tasks to be executed. If job or task
+   * information has been offloaded to the blob server, it is downloaded and deserialized outside
+   * of the actor thread, and the tasks are started once this is done. Otherwise the tasks are
+   * started right away.
    *
-   * @param tdd TaskDeploymentDescriptor describing the task to be executed on this [[TaskManager]]
+   * @param tdds TaskDeploymentDescriptors describing the tasks to be executed on this
+   *             [[TaskManager]]
+   * @param batch True if the tasks have been submitted via [[SubmitTasks]], in which case the
+   *              sender receives the failures of the individual tasks instead of a single
+   *              acknowledgement.
    */
-  private def submitTask(tdd: TaskDeploymentDescriptor): Unit = {
-    try {
-      // grab some handles and sanity check on the fly
-      val jobManagerActor = currentJobManager match {
-        case Some(jm) => jm
-        case None =>
-          throw new IllegalStateException("TaskManager is not associated with a JobManager.")
-      }
-      val libCache = libraryCacheManager match {
-        case Some(manager) => manager
-        case None => throw new IllegalStateException("There is no valid library cache manager.")
-      }
-      val blobCache = this.blobCache match {
-        case Some(manager) => manager
-        case None => throw new IllegalStateException("There is no valid BLOB cache.")
-      }
+  private def submitTasks(tdds: Iterable[TaskDeploymentDescriptor], batch: Boolean): Unit = {
+    val replyTo = sender
+
+    if (tdds.exists(_.hasOffloadedInformation)) {
+      val blobCacheOption = blobCache
+      // the tasks must only be started if the leader did not change in the meantime
+      val currentLeaderSessionID = leaderSessionID.orNull
+
+      Future {
+        tdds.map(tdd => (tdd, Try(loadTaskInformation(tdd, blobCacheOption))))
+      }(context.dispatcher).onComplete {
+        result =>
+          val tasks = result match {
+            case scala.util.Success(loadedTasks) => loadedTasks
+            case scala.util.Failure(t) => tdds.map(tdd => (tdd, scala.util.Failure(t)))
+          }
 
-      val slot = tdd.getTargetSlotNumber
-      if (slot < 0 || slot >= numberOfSlots) {
-        throw new IllegalArgumentException(s"Target slot $slot does not exist on TaskManager.")
-      }
+          self ! LeaderSessionMessage(
+            currentLeaderSessionID,
+            StartLoadedTasks(tasks, replyTo, batch))
+      }(context.dispatcher)
+    } else {
+      startTasks(
+        tdds.map(tdd => (tdd, Try(loadTaskInformation(tdd, blobCache)))),
+        replyTo,
+        batch)
+    }
+  }
 
-      val (checkpointResponder,
-        partitionStateChecker,
-        resultPartitionConsumableNotifier,
-        taskManagerConnection) = connectionUtils match {
-        case Some(x) => x
-        case None => throw new IllegalStateException("The connection utils have not been " +
-                                                       "initialized.")
+  /**
+   * Starts the given tasks independently of each other and replies to the sender of the
+   * submission.
+   *
+   * @param tasks The deployment descriptors of the tasks with their loaded job and task
+   *              information, or the cause why it could not be loaded.
+   * @param replyTo The sender of the submission.
+   * @param batch True if the sender expects the failures of the individual tasks.
+   */
+  private def startTasks(
+      tasks: Iterable[(TaskDeploymentDescriptor, Try[(JobInformation, TaskInformation)])],
+      replyTo: ActorRef,
+      batch: Boolean)
+    : Unit = {
+
+    val failures = new util.HashMap[ExecutionAttemptID, Throwable]()
+
+    for ((tdd, information) <- tasks) {
+      try {
+        val (jobInformation, taskInformation) = information.get
+        startTask(tdd, jobInformation, taskInformation)
+      } catch {
+        case t: Throwable =>
+          log.error(s"SubmitTask failed for execution ${tdd.getExecutionAttemptId}", t)
+          failures.put(tdd.getExecutionAttemptId, t)
       }
+    }
 
-      // create the task. this does not grab any TaskManager resources or download
-      // and libraries - the operation does not block
+    if (batch) {
+      replyTo ! decorateMessage(failures)
+    } else if (failures.isEmpty) {
+      replyTo ! decorateMessage(Acknowledge.get())
+    } else {
+      replyTo ! decorateMessage(Status.Failure(failures.values().iterator().next()))
+    }
+  }
+
+  /**
+   * Loads the job and task information of the given deployment descriptor, downloading it from
+   * the blob server if it has been offloaded. This method may block and does not touch the
+   * state of the actor.
+   *
+   * @param tdd The deployment descriptor of the task.
+   * @param blobCacheOption The blob cache of the task manager.
+   * @return The deserialized job and task information.
+   */
+  private def loadTaskInformation(
+      tdd: TaskDeploymentDescriptor,
+      blobCacheOption: Option[BlobCache])
+    : (JobInformation, TaskInformation) = {
 
-      val jobManagerGateway = new AkkaActorGateway(jobManagerActor, leaderSessionID.orNull)
+    val blobCache = blobCacheOption match {
+      case Some(manager) => manager
+      case None => throw new IllegalStateException("There is no valid BLOB cache.")
+    }
 
-      val jobInformation = try {
-        tdd.getSerializedJobInformation.deserializeValue(getClass.getClassLoader)
+    // the blob cache keeps a local copy of offloaded information for all tasks of the job
+    if (tdd.getJobId != null) {
+      blobCache.registerJob(tdd.getJobId)
+      try {
+        tdd.loadBigData(blobCache)
       } catch {
         case e @ (_: IOException | _: ClassNotFoundException) =>
-          throw new IOException("Could not deserialize the job information.", e)
+          throw new IOException("Could not load the offloaded job and task information.", e)
+      } finally {
+        blobCache.releaseJob(tdd.getJobId)
       }
+    }
 
-      val taskInformation = try {
-        tdd.getSerializedTaskInformation.deserializeValue(getClass.getClassLoader)
-      } catch {
-        case e@(_: IOException | _: ClassNotFoundException) =>
-          throw new IOException("Could not deserialize the job vertex information.", e)
-      }
+    val jobInformation = try {
+      tdd.getSerializedJobInformation.deserializeValue(getClass.getClassLoader)
+    } catch {
+      case e @ (_: IOException | _: ClassNotFoundException) =>
+        throw new IOException("Could not deserialize the job information.", e)
+    }
 
-      val taskMetricGroup = taskManagerMetricGroup.addTaskForJob(
-        jobInformation.getJobId,
-        jobInformation.getJobName,
-        taskInformation.getJobVertexId,
-        tdd.getExecutionAttemptId,
-        taskInformation.getTaskName,
-        tdd.getSubtaskIndex,
-        tdd.getAttemptNumber)
-
-      val inputSplitProvider = new TaskInputSplitProvider(
-        jobManagerGateway,
-        jobInformation.getJobId,
-        taskInformation.getJobVertexId,
-        tdd.getExecutionAttemptId,
-        new FiniteDuration(
-          config.getTimeout().getSize(),
-          config.getTimeout().getUnit()))
-
-      val task = new Task(
-        jobInformation,
-        taskInformation,
-        tdd.getExecutionAttemptId,
-        tdd.getAllocationId,
-        tdd.getSubtaskIndex,
-        tdd.getAttemptNumber,
-        tdd.getProducedPartitions,
-        tdd.getInputGates,
-        tdd.getTargetSlotNumber,
-        tdd.getTaskStateHandles,
-        memoryManager,
-        ioManager,
-        network,
-        bcVarManager,
-        taskManagerConnection,
-        inputSplitProvider,
-        checkpointResponder,
-        blobCache,
-        libCache,
-        fileCache,
-        config,
-        taskMetricGroup,
-        resultPartitionConsumableNotifier,
-        partitionStateChecker,
-        context.dispatcher)
+    val taskInformation = try {
+      tdd.getSerializedTaskInformation.deserializeValue(getClass.getClassLoader)
+    } catch {
+      case e@(_: IOException | _: ClassNotFoundException) =>
+        throw new IOException("Could not deserialize the job vertex information.", e)
+    }
 
-      log.info(s"Received task ${task.getTaskInfo.getTaskNameWithSubtasks()}")
+    (jobInformation, taskInformation)
+  }
 
-      val execId = tdd.getExecutionAttemptId
-      // add the task to the map
-      val prevTask = runningTasks.put(execId, task)
-      if (prevTask != null) {
-        // already have a task for that ID, put if back and report an error
-        runningTasks.put(execId, prevTask)
-        throw new IllegalStateException("TaskManager already contains a task for id " + execId)
-      }
-      
-      // all good, we kick off the task, which performs its own initialization
-      task.startTaskThread()
+  /**
+   * Creates and starts the task which is described by the given deployment descriptor.
+   *
+   * @param tdd The deployment descriptor of the task.
+   * @param jobInformation The deserialized job information of the task.
+   * @param taskInformation The deserialized task information of the task.
+   */
+  private def startTask(
+      tdd: TaskDeploymentDescriptor,
+      jobInformation: JobInformation,
+      taskInformation: TaskInformation)
+    : Unit = {
+    // grab some handles and sanity check on the fly
+    val jobManagerActor = currentJobManager match {
+      case Some(jm) => jm
+      case None =>
+        throw new IllegalStateException("TaskManager is not associated with a JobManager.")
+    }
+    val libCache = libraryCacheManager match {
+      case Some(manager) => manager
+      case None => throw new IllegalStateException("There is no valid library cache manager.")
+    }
+    val blobCache = this.blobCache match {
+      case Some(manager) => manager
+      case None => throw new IllegalStateException("There is no valid BLOB cache.")
+    }
 
-      sender ! decorateMessage(Acknowledge.get())
+    val slot = tdd.getTargetSlotNumber
+    if (slot < 0 || slot >= numberOfSlots) {
+      throw new IllegalArgumentException(s"Target slot $slot does not exist on TaskManager.")
     }
-    catch {
-      case t: Throwable =>
-        log.error("SubmitTask failed", t)
-        sender ! decorateMessage(Status.Failure(t))
+
+    val (checkpointResponder,
+      partitionStateChecker,
+      resultPartitionConsumableNotifier,
+      taskManagerConnection) = connectionUtils match {
+      case Some(x) => x
+      case None => throw new IllegalStateException("The connection utils have not been " +
+                                                     "initialized.")
+    }
+
+    // create the task. this does not grab any TaskManager resources or download
+    // and libraries - the operation does not block
+
+    val jobManagerGateway = new AkkaActorGateway(jobManagerActor, leaderSessionID.orNull)
+
+    val taskMetricGroup = taskManagerMetricGroup.addTaskForJob(
+      jobInformation.getJobId,
+      jobInformation.getJobName,
+      taskInformation.getJobVertexId,
+      tdd.getExecutionAttemptId,
+      taskInformation.getTaskName,
+      tdd.getSubtaskIndex,
+      tdd.getAttemptNumber)
+
+    val inputSplitProvider = new TaskInputSplitProvider(
+      jobManagerGateway,
+      jobInformation.getJobId,
+      taskInformation.getJobVertexId,
+      tdd.getExecutionAttemptId,
+      new FiniteDuration(
+        config.getTimeout().getSize(),
+        config.getTimeout().getUnit()))
+
+    val task = new Task(
+      jobInformation,
+      taskInformation,
+      tdd.getExecutionAttemptId,
+      tdd.getAllocationId,
+      tdd.getSubtaskIndex,
+      tdd.getAttemptNumber,
+      tdd.getProducedPartitions,
+      tdd.getInputGates,
+      tdd.getTargetSlotNumber,
+      tdd.getTaskStateHandles,
+      memoryManager,
+      ioManager,
+      network,
+      bcVarManager,
+      sharedCheckpointFilePool,
+      taskManagerConnection,
+      inputSplitProvider,
+      checkpointResponder,
+      blobCache,
+      libCache,
+      fileCache,
+      config,
+      taskMetricGroup,
+      resultPartitionConsumableNotifier,
+      partitionStateChecker,
+      context.dispatcher)
+
+    log.info(s"Received task ${task.getTaskInfo.getTaskNameWithSubtasks()}")
+
+    val execId = tdd.getExecutionAttemptId
+    // add the task to the map
+    val prevTask = runningTasks.put(execId, task)
+    if (prevTask != null) {
+      // already have a task for that ID, put if back and report an error
+      runningTasks.put(execId, prevTask)
+      throw new IllegalStateException("TaskManager already contains a task for id " + execId)
     }
+    
+    // all good, we kick off the task, which performs its own initialization
+    task.startTaskThread()
   }
 
   /**
@@ -1365,7 +1501,11 @@ class TaskManager(
         case (execID, task) =>
           try {
             val registry = task.getAccumulatorRegistry
-            val accumulators = registry.getSnapshot
+            val accumulators = if (reportTaskProgress) {
+              registry.getSnapshot(task.getMetricGroup.getIOMetricGroup.createSnapshot())
+            } else {
+              registry.getSnapshot
+            }
             accumulatorEvents.append(accumulators)
           } catch {
             case e: Exception =>
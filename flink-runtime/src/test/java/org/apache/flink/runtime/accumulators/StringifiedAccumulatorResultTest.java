@@ -20,8 +20,10 @@ package org.apache.flink.runtime.accumulators;
 
 import org.apache.flink.api.common.accumulators.Accumulator;
 import org.apache.flink.api.common.accumulators.IntCounter;
+import org.apache.flink.api.common.accumulators.LongCounter;
 import org.apache.flink.api.common.accumulators.SimpleAccumulator;
 import org.apache.flink.core.testutils.CommonTestUtils;
+import org.apache.flink.runtime.operators.util.metrics.OutputStatisticsCollector;
 
 import org.junit.Test;
 
@@ -111,6 +113,24 @@ public class StringifiedAccumulatorResultTest {
 		assertEquals("null", firstResult.getValue());
 	}
 
+	@Test
+	public void stringifyingResultsShouldLeaveOutOptimizerStatistics() {
+		final String statisticsName = OutputStatisticsCollector.ACCUMULATOR_NAME_PREFIX + "0123#0";
+		final Map<String, Accumulator<?, ?>> accumulatorMap = new HashMap<>();
+		accumulatorMap.put("a", new IntCounter(1));
+		accumulatorMap.put(statisticsName, new LongCounter(2L));
+		accumulatorMap.put(statisticsName + OutputStatisticsCollector.SAMPLED_RECORDS_SUFFIX, new LongCounter(3L));
+		accumulatorMap.put(statisticsName + OutputStatisticsCollector.SAMPLED_BYTES_SUFFIX, new LongCounter(4L));
+
+		final StringifiedAccumulatorResult[] results = StringifiedAccumulatorResult.stringifyAccumulatorResults(accumulatorMap);
+
+		assertEquals(1, results.length);
+		assertEquals("a", results[0].getName());
+
+		// the given map is not modified
+		assertEquals(4, accumulatorMap.size());
+	}
+
 	private static class NullBearingAccumulator implements SimpleAccumulator<Serializable> {
 
 		@Override
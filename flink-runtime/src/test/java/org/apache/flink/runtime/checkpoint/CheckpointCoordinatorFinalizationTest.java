@@ -0,0 +1,286 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.checkpoint;
+
+import org.apache.flink.api.common.JobID;
+import org.apache.flink.core.testutils.ManuallyTriggeredDirectExecutor;
+import org.apache.flink.runtime.executiongraph.ExecutionAttemptID;
+import org.apache.flink.runtime.executiongraph.ExecutionVertex;
+import org.apache.flink.runtime.jobgraph.JobStatus;
+import org.apache.flink.runtime.jobgraph.OperatorID;
+import org.apache.flink.runtime.jobgraph.tasks.ExternalizedCheckpointSettings;
+import org.apache.flink.runtime.messages.checkpoint.AcknowledgeCheckpoint;
+import org.apache.flink.runtime.messages.checkpoint.DeclineCheckpoint;
+import org.apache.flink.runtime.state.SharedStateRegistry;
+import org.apache.flink.util.TestLogger;
+
+import org.junit.Test;
+
+import java.util.Iterator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for the asynchronous finalization of fully acknowledged checkpoints in the
+ * {@link CheckpointCoordinator}, and its interleavings with other coordinator actions.
+ */
+public class CheckpointCoordinatorFinalizationTest extends TestLogger {
+
+	private final JobID jobId = new JobID();
+
+	private final ExecutionAttemptID attemptId = new ExecutionAttemptID();
+
+	private final ExecutionVertex vertex = CheckpointCoordinatorTest.mockExecutionVertex(attemptId);
+
+	private final ManuallyTriggeredDirectExecutor executor = new ManuallyTriggeredDirectExecutor();
+
+	private final StandaloneCompletedCheckpointStore completedCheckpointStore = new StandaloneCompletedCheckpointStore(2);
+
+	/**
+	 * Tests that the last acknowledgement only hands the checkpoint to the executor, which then
+	 * completes it.
+	 */
+	@Test
+	public void testCheckpointIsCompletedAsynchronously() throws Exception {
+		final CheckpointCoordinator coord = createCoordinator(600000L);
+
+		assertTrue(coord.triggerCheckpoint(1L, false));
+		final PendingCheckpoint pending = getOnlyPendingCheckpoint(coord);
+		final OperatorSubtaskState subtaskState = acknowledge(coord, pending.getCheckpointId());
+
+		assertTrue(pending.isFinalizing());
+		assertFalse(pending.isDiscarded());
+		assertEquals(1, executor.numQueuedRunnables());
+		assertEquals(0, completedCheckpointStore.getNumberOfRetainedCheckpoints());
+
+		executor.trigger();
+
+		assertTrue(pending.isDiscarded());
+		assertEquals(0, coord.getNumberOfPendingCheckpoints());
+		assertEquals(pending.getCheckpointId(), completedCheckpointStore.getLatestCheckpoint().getCheckpointID());
+		verify(subtaskState).registerSharedStates(any(SharedStateRegistry.class));
+		verify(subtaskState, never()).discardState();
+
+		coord.shutdown(JobStatus.FINISHED);
+	}
+
+	/**
+	 * Tests that a checkpoint whose finalization ends after a newer checkpoint was stored is
+	 * discarded instead of being stored, and that the newer checkpoint does not abort it while
+	 * it is being finalized.
+	 */
+	@Test
+	public void testSubsumedWhileFinalizingIsDiscarded() throws Exception {
+		final CheckpointCoordinator coord = createCoordinator(600000L);
+
+		assertTrue(coord.triggerCheckpoint(1L, false));
+		assertTrue(coord.triggerCheckpoint(2L, false));
+
+		final Iterator<PendingCheckpoint> pendingCheckpoints = coord.getPendingCheckpoints().values().iterator();
+		final PendingCheckpoint older = pendingCheckpoints.next();
+		final long olderCheckpointId = older.getCheckpointId();
+		final long newerCheckpointId = pendingCheckpoints.next().getCheckpointId();
+		assertTrue(olderCheckpointId < newerCheckpointId);
+
+		// the newer checkpoint is acknowledged first and hence finalized first
+		acknowledge(coord, newerCheckpointId);
+		final OperatorSubtaskState olderState = acknowledge(coord, olderCheckpointId);
+		assertEquals(2, executor.numQueuedRunnables());
+
+		executor.trigger();
+
+		assertEquals(newerCheckpointId, completedCheckpointStore.getLatestCheckpoint().getCheckpointID());
+		assertFalse(older.isDiscarded());
+		assertEquals(1, coord.getNumberOfPendingCheckpoints());
+
+		drainExecutor();
+
+		assertEquals(1, completedCheckpointStore.getNumberOfRetainedCheckpoints());
+		assertEquals(newerCheckpointId, completedCheckpointStore.getLatestCheckpoint().getCheckpointID());
+		assertEquals(0, coord.getNumberOfPendingCheckpoints());
+		verify(olderState).discardState();
+
+		coord.shutdown(JobStatus.FINISHED);
+	}
+
+	/**
+	 * Tests that neither the timeout nor a decline abort a checkpoint that is being finalized.
+	 */
+	@Test
+	public void testTimeoutAndDeclineSkipFinalizingCheckpoint() throws Exception {
+		final long checkpointTimeout = 50L;
+		final CheckpointCoordinator coord = createCoordinator(checkpointTimeout);
+
+		assertTrue(coord.triggerCheckpoint(1L, false));
+		final PendingCheckpoint pending = getOnlyPendingCheckpoint(coord);
+		acknowledge(coord, pending.getCheckpointId());
+
+		// give the canceller the chance to fire
+		Thread.sleep(4 * checkpointTimeout);
+
+		coord.receiveDeclineMessage(new DeclineCheckpoint(jobId, attemptId, pending.getCheckpointId()));
+
+		assertFalse(pending.isDiscarded());
+		assertEquals(1, coord.getNumberOfPendingCheckpoints());
+
+		executor.trigger();
+
+		assertEquals(pending.getCheckpointId(), completedCheckpointStore.getLatestCheckpoint().getCheckpointID());
+
+		coord.shutdown(JobStatus.FINISHED);
+	}
+
+	/**
+	 * Tests that a checkpoint is neither registered nor stored if the checkpoint scheduler is
+	 * stopped before its finalization starts.
+	 */
+	@Test
+	public void testSchedulerStoppedBeforeFinalization() throws Exception {
+		final CheckpointCoordinator coord = createCoordinator(600000L);
+
+		assertTrue(coord.triggerCheckpoint(1L, false));
+		final PendingCheckpoint pending = getOnlyPendingCheckpoint(coord);
+		final OperatorSubtaskState subtaskState = acknowledge(coord, pending.getCheckpointId());
+
+		coord.stopCheckpointScheduler();
+
+		// the finalizing checkpoint is not aborted by stopping the scheduler
+		assertFalse(pending.isDiscarded());
+
+		drainExecutor();
+
+		assertTrue(pending.isDiscarded());
+		assertNull(completedCheckpointStore.getLatestCheckpoint());
+		verify(subtaskState, never()).registerSharedStates(any(SharedStateRegistry.class));
+		verify(subtaskState).discardState();
+
+		coord.shutdown(JobStatus.FINISHED);
+	}
+
+	/**
+	 * Tests that a checkpoint is not stored if the checkpoint scheduler is stopped after its state
+	 * has been registered.
+	 */
+	@Test
+	public void testSchedulerStoppedDuringFinalization() throws Exception {
+		final CheckpointCoordinator coord = createCoordinator(600000L);
+
+		assertTrue(coord.triggerCheckpoint(1L, false));
+		final PendingCheckpoint pending = getOnlyPendingCheckpoint(coord);
+		final OperatorSubtaskState subtaskState = acknowledge(coord, pending.getCheckpointId());
+
+		// the registration holds the coordinator lock, which is reentrant for the stopping call
+		doAnswer(invocation -> {
+			coord.stopCheckpointScheduler();
+			return null;
+		}).when(subtaskState).registerSharedStates(any(SharedStateRegistry.class));
+
+		drainExecutor();
+
+		assertTrue(pending.isDiscarded());
+		assertNull(completedCheckpointStore.getLatestCheckpoint());
+		assertEquals(0, coord.getNumberOfPendingCheckpoints());
+		verify(subtaskState).discardState();
+
+		// checkpoints triggered after the scheduler was stopped are stored again
+		assertTrue(coord.triggerCheckpoint(2L, false));
+		acknowledge(coord, getOnlyPendingCheckpoint(coord).getCheckpointId());
+		drainExecutor();
+
+		assertEquals(1, completedCheckpointStore.getNumberOfRetainedCheckpoints());
+
+		coord.shutdown(JobStatus.FINISHED);
+	}
+
+	/**
+	 * Tests that a checkpoint is neither registered nor stored if the coordinator is shut down
+	 * while the checkpoint waits for its finalization.
+	 */
+	@Test
+	public void testShutdownBeforeFinalization() throws Exception {
+		final CheckpointCoordinator coord = createCoordinator(600000L);
+
+		assertTrue(coord.triggerCheckpoint(1L, false));
+		final PendingCheckpoint pending = getOnlyPendingCheckpoint(coord);
+		final OperatorSubtaskState subtaskState = acknowledge(coord, pending.getCheckpointId());
+
+		coord.shutdown(JobStatus.CANCELED);
+		assertFalse(pending.isDiscarded());
+
+		drainExecutor();
+
+		assertTrue(pending.isDiscarded());
+		assertNull(completedCheckpointStore.getLatestCheckpoint());
+		verify(subtaskState, never()).registerSharedStates(any(SharedStateRegistry.class));
+		verify(subtaskState).discardState();
+	}
+
+	// ------------------------------------------------------------------------
+
+	private CheckpointCoordinator createCoordinator(long checkpointTimeout) {
+		return new CheckpointCoordinator(
+			jobId,
+			600000L,
+			checkpointTimeout,
+			0L,
+			Integer.MAX_VALUE,
+			ExternalizedCheckpointSettings.none(),
+			new ExecutionVertex[] { vertex },
+			new ExecutionVertex[] { vertex },
+			new ExecutionVertex[] { vertex },
+			new StandaloneCheckpointIDCounter(),
+			completedCheckpointStore,
+			null,
+			executor,
+			SharedStateRegistry.DEFAULT_FACTORY);
+	}
+
+	private static PendingCheckpoint getOnlyPendingCheckpoint(CheckpointCoordinator coord) {
+		assertEquals(1, coord.getNumberOfPendingCheckpoints());
+		return coord.getPendingCheckpoints().values().iterator().next();
+	}
+
+	/**
+	 * Acknowledges the checkpoint for the only task, with a mocked state.
+	 */
+	private OperatorSubtaskState acknowledge(CheckpointCoordinator coord, long checkpointId) throws Exception {
+		final OperatorSubtaskState subtaskState = mock(OperatorSubtaskState.class);
+		final TaskStateSnapshot taskState = new TaskStateSnapshot();
+		taskState.putSubtaskStateByOperatorID(OperatorID.fromJobVertexID(vertex.getJobvertexId()), subtaskState);
+
+		coord.receiveAcknowledgeMessage(new AcknowledgeCheckpoint(
+			jobId, attemptId, checkpointId, new CheckpointMetrics(), taskState));
+
+		return subtaskState;
+	}
+
+	private void drainExecutor() {
+		while (executor.numQueuedRunnables() > 0) {
+			executor.trigger();
+		}
+	}
+}
@@ -149,6 +149,12 @@ public class CheckpointSettingsSerializableTest extends TestLogger {
 			return null;
 		}
 
+		@Override
+		public CheckpointStreamFactory createStreamFactory(
+			Environment env, String operatorIdentifier) throws IOException {
+			return null;
+		}
+
 		@Override
 		public CheckpointStreamFactory createSavepointStreamFactory(
 			JobID jobId,
@@ -21,11 +21,18 @@ package org.apache.flink.runtime.checkpoint;
 import org.apache.flink.api.common.JobID;
 import org.apache.flink.core.fs.Path;
 import org.apache.flink.core.testutils.CommonTestUtils;
+import org.apache.flink.core.testutils.ManuallyTriggeredDirectExecutor;
 import org.apache.flink.runtime.jobgraph.JobStatus;
 import org.apache.flink.runtime.jobgraph.JobVertexID;
 import org.apache.flink.runtime.jobgraph.OperatorID;
+import org.apache.flink.runtime.concurrent.Executors;
+import org.apache.flink.runtime.state.KeyGroupRangeOffsets;
+import org.apache.flink.runtime.state.KeyGroupsStateHandle;
+import org.apache.flink.runtime.state.OperatorStateHandle;
 import org.apache.flink.runtime.state.SharedStateRegistry;
+import org.apache.flink.runtime.state.StateDisposalService;
 import org.apache.flink.runtime.state.filesystem.FileStateHandle;
+import org.apache.flink.runtime.state.filesystem.FsCheckpointStreamFactory;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
@@ -37,7 +44,10 @@ import java.util.HashMap;
 import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -102,6 +112,80 @@ public class CompletedCheckpointTest {
 		verify(state, times(1)).discardState();
 	}
 
+	/**
+	 * Tests that subsumed checkpoints are disposed via the disposal service, by deleting the
+	 * checkpoint directory if the checkpoint owns it, or by discarding the state files otherwise.
+	 */
+	@Test
+	public void testCleanUpOnSubsumeWithDisposalService() throws Exception {
+		StateDisposalService disposalService = new StateDisposalService(Executors.directExecutor(), 1);
+
+		// all state files are in the checkpoint's own directory
+		File checkpointDir = tmpFolder.newFolder(FsCheckpointStreamFactory.CHECKPOINT_DIR_PREFIX + 7);
+		File keyedStateFile = new File(checkpointDir, "keyed");
+		File operatorStateFile = new File(checkpointDir, "operator");
+		assertTrue(keyedStateFile.createNewFile());
+		assertTrue(operatorStateFile.createNewFile());
+
+		CompletedCheckpoint checkpoint = createCheckpointWithStateFiles(7, keyedStateFile, operatorStateFile);
+		checkpoint.setDisposalService(disposalService);
+
+		assertTrue(checkpoint.discardOnSubsume());
+		assertFalse(checkpointDir.exists());
+
+		// the state files are in a directory that the checkpoint does not own
+		File otherDir = tmpFolder.newFolder("other");
+		File otherFile = new File(otherDir, "other");
+		keyedStateFile = new File(otherDir, "keyed");
+		operatorStateFile = new File(otherDir, "operator");
+		assertTrue(otherFile.createNewFile());
+		assertTrue(keyedStateFile.createNewFile());
+		assertTrue(operatorStateFile.createNewFile());
+
+		checkpoint = createCheckpointWithStateFiles(8, keyedStateFile, operatorStateFile);
+		checkpoint.setDisposalService(disposalService);
+
+		assertTrue(checkpoint.discardOnSubsume());
+		assertFalse(keyedStateFile.exists());
+		assertFalse(operatorStateFile.exists());
+		assertTrue(otherFile.exists());
+
+		assertEquals(0, disposalService.getNumberOfPendingDisposals());
+	}
+
+	/**
+	 * Tests that the discard callback of a subsumed checkpoint is only notified once all of its
+	 * queued disposals have run.
+	 */
+	@Test
+	public void testDiscardCallbackAfterQueuedDisposals() throws Exception {
+		ManuallyTriggeredDirectExecutor ioExecutor = new ManuallyTriggeredDirectExecutor();
+		StateDisposalService disposalService = new StateDisposalService(ioExecutor, 1);
+
+		File stateDir = tmpFolder.newFolder();
+		File keyedStateFile = new File(stateDir, "keyed");
+		File operatorStateFile = new File(stateDir, "operator");
+		assertTrue(keyedStateFile.createNewFile());
+		assertTrue(operatorStateFile.createNewFile());
+
+		CompletedCheckpoint checkpoint = createCheckpointWithStateFiles(9, keyedStateFile, operatorStateFile);
+		checkpoint.setDisposalService(disposalService);
+
+		CompletedCheckpointStats.DiscardCallback callback = mock(CompletedCheckpointStats.DiscardCallback.class);
+		checkpoint.setDiscardCallback(callback);
+
+		assertTrue(checkpoint.discardOnSubsume());
+		verify(callback, never()).notifyDiscardedCheckpoint();
+		assertTrue(keyedStateFile.exists());
+
+		// the only worker runs all queued disposals
+		ioExecutor.trigger();
+
+		verify(callback, times(1)).notifyDiscardedCheckpoint();
+		assertFalse(keyedStateFile.exists());
+		assertFalse(operatorStateFile.exists());
+	}
+
 	/**
 	 * Tests that the garbage collection properties are respected when shutting down.
 	 */
@@ -213,4 +297,32 @@ public class CompletedCheckpointTest {
 		assertEquals(completed.getLatestAcknowledgedSubtaskStats().getSubtaskIndex(), copy.getLatestAcknowledgedSubtaskStats().getSubtaskIndex());
 		assertEquals(completed.getStatus(), copy.getStatus());
 	}
+
+	private static CompletedCheckpoint createCheckpointWithStateFiles(
+			long checkpointId,
+			File keyedStateFile,
+			File operatorStateFile) {
+
+		OperatorSubtaskState subtaskState = new OperatorSubtaskState(
+			new OperatorStateHandle(
+				Collections.<String, OperatorStateHandle.StateMetaInfo>emptyMap(),
+				new FileStateHandle(new Path(operatorStateFile.toURI()), operatorStateFile.length())),
+			null,
+			new KeyGroupsStateHandle(
+				new KeyGroupRangeOffsets(0, 0),
+				new FileStateHandle(new Path(keyedStateFile.toURI()), keyedStateFile.length())),
+			null);
+
+		OperatorID operatorID = new OperatorID();
+		OperatorState operatorState = new OperatorState(operatorID, 1, 1);
+		operatorState.putState(0, subtaskState);
+
+		return new CompletedCheckpoint(
+			new JobID(), checkpointId, 0, 1,
+			Collections.singletonMap(operatorID, operatorState),
+			Collections.<MasterState>emptyList(),
+			CheckpointProperties.forStandardCheckpoint(),
+			null,
+			null);
+	}
 }
@@ -23,6 +23,7 @@ import org.apache.flink.api.common.JobID;
 import org.apache.flink.configuration.Configuration;
 import org.apache.flink.core.testutils.CommonTestUtils;
 import org.apache.flink.runtime.blob.BlobKey;
+import org.apache.flink.runtime.blob.BlobService;
 import org.apache.flink.runtime.checkpoint.TaskStateSnapshot;
 import org.apache.flink.runtime.clusterframework.types.AllocationID;
 import org.apache.flink.runtime.executiongraph.ExecutionAttemptID;
@@ -31,22 +32,37 @@ import org.apache.flink.runtime.executiongraph.TaskInformation;
 import org.apache.flink.runtime.jobgraph.JobVertexID;
 import org.apache.flink.runtime.jobgraph.tasks.AbstractInvokable;
 import org.apache.flink.runtime.operators.BatchTask;
+import org.apache.flink.util.InstantiationUtil;
 import org.apache.flink.util.SerializedValue;
 
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
+import java.io.File;
 import java.net.URL;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 /**
  * Tests for the {@link TaskDeploymentDescriptor}.
  */
 public class TaskDeploymentDescriptorTest {
+
+	@Rule
+	public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
 	@Test
 	public void testSerialization() {
 		try {
@@ -112,4 +128,54 @@ public class TaskDeploymentDescriptorTest {
 			fail(e.getMessage());
 		}
 	}
+
+	@Test
+	public void testOffloadedInformationIsLoadedFromBlobService() throws Exception {
+		final JobID jobId = new JobID();
+		final SerializedValue<JobInformation> serializedJobInformation = new SerializedValue<>(new JobInformation(
+			jobId, "job name", new SerializedValue<>(new ExecutionConfig()), new Configuration(),
+			new ArrayList<BlobKey>(0), new ArrayList<URL>(0)));
+		final SerializedValue<TaskInformation> serializedTaskInformation = new SerializedValue<>(new TaskInformation(
+			new JobVertexID(), "task name", 1, 1, BatchTask.class.getName(), new Configuration()));
+
+		// the blob service returns the stored serialized values, first the job, then the task information
+		final File jobInformationFile = temporaryFolder.newFile();
+		final File taskInformationFile = temporaryFolder.newFile();
+		Files.write(jobInformationFile.toPath(), InstantiationUtil.serializeObject(serializedJobInformation));
+		Files.write(taskInformationFile.toPath(), InstantiationUtil.serializeObject(serializedTaskInformation));
+
+		final BlobService blobService = mock(BlobService.class);
+		when(blobService.getFile(eq(jobId), any(BlobKey.class))).thenReturn(jobInformationFile, taskInformationFile);
+
+		final TaskDeploymentDescriptor orig = new TaskDeploymentDescriptor(
+			jobId,
+			null,
+			new BlobKey(),
+			null,
+			new BlobKey(),
+			new ExecutionAttemptID(),
+			new AllocationID(),
+			0,
+			0,
+			0,
+			null,
+			new ArrayList<ResultPartitionDeploymentDescriptor>(0),
+			new ArrayList<InputGateDeploymentDescriptor>(0));
+
+		final TaskDeploymentDescriptor copy = CommonTestUtils.createCopySerializable(orig);
+
+		try {
+			copy.getSerializedJobInformation();
+			fail("The job information must be loaded before it can be accessed.");
+		} catch (IllegalStateException expected) {
+			// expected
+		}
+
+		copy.loadBigData(blobService);
+
+		assertEquals(jobId, copy.getJobId());
+		assertEquals(serializedJobInformation, copy.getSerializedJobInformation());
+		assertEquals(serializedTaskInformation, copy.getSerializedTaskInformation());
+		verify(blobService, times(2)).getFile(eq(jobId), any(BlobKey.class));
+	}
 }
@@ -25,6 +25,7 @@ import org.apache.flink.api.common.accumulators.Accumulator;
 import org.apache.flink.api.common.accumulators.LongCounter;
 import org.apache.flink.api.common.restartstrategy.RestartStrategies;
 import org.apache.flink.configuration.Configuration;
+import org.apache.flink.configuration.CoreOptions;
 import org.apache.flink.core.testutils.CommonTestUtils;
 import org.apache.flink.metrics.groups.UnregisteredMetricsGroup;
 import org.apache.flink.runtime.accumulators.StringifiedAccumulatorResult;
@@ -134,7 +135,8 @@ public class ArchivedExecutionGraphTest {
 			new StandaloneCompletedCheckpointStore(1),
 			null,
 			null,
-			statsTracker);
+			statsTracker,
+			CoreOptions.CHECKPOINTS_MAX_CONCURRENT_DISPOSALS.defaultValue());
 
 		Map<String, Accumulator<?, ?>> userAccumulators = new HashMap<>();
 		userAccumulators.put("userAcc", new LongCounter(64));
@@ -21,6 +21,7 @@ package org.apache.flink.runtime.executiongraph;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Mockito.mock;
@@ -133,6 +134,59 @@ public class ExecutionGraphConstructionTest {
 		verifyTestGraph(eg, jobId, v1, v2, v3, v4, v5);
 	}
 	
+	/**
+	 * Tests that the subtasks of an all-to-all connection share the consumed partitions and
+	 * that the partitions share their consumers instead of materializing every edge.
+	 */
+	@Test
+	public void testAllToAllConnectionIsShared() throws Exception {
+		JobVertex v1 = new JobVertex("vertex1");
+		JobVertex v2 = new JobVertex("vertex2");
+
+		v1.setParallelism(5);
+		v2.setParallelism(7);
+
+		v1.setInvokableClass(AbstractInvokable.class);
+		v2.setInvokableClass(AbstractInvokable.class);
+
+		v2.connectNewDataSetAsInput(v1, DistributionPattern.ALL_TO_ALL, ResultPartitionType.PIPELINED);
+
+		ExecutionGraph eg = new ExecutionGraph(
+			TestingUtils.defaultExecutor(),
+			TestingUtils.defaultExecutor(),
+			new JobID(),
+			"Test Job Sample Name",
+			new Configuration(),
+			new SerializedValue<>(new ExecutionConfig()),
+			AkkaUtils.getDefaultTimeout(),
+			new NoRestartStrategy(),
+			new Scheduler(TestingUtils.defaultExecutionContext()));
+
+		eg.attachJobGraph(Arrays.asList(v1, v2));
+
+		ExecutionJobVertex e1 = eg.getJobVertex(v1.getID());
+		ExecutionJobVertex e2 = eg.getJobVertex(v2.getID());
+		IntermediateResultPartition[] partitions = e1.getProducedDataSets()[0].getPartitions();
+
+		for (ExecutionVertex ev : e2.getTaskVertices()) {
+			assertSame(partitions, ev.getConsumedPartitions(0));
+
+			ExecutionEdge[] edges = ev.getInputEdges(0);
+			assertEquals(partitions.length, edges.length);
+			for (int i = 0; i < edges.length; i++) {
+				assertSame(partitions[i], edges[i].getSource());
+				assertSame(ev, edges[i].getTarget());
+			}
+		}
+
+		List<ExecutionVertex> consumers = partitions[0].getConsumers().get(0);
+		assertEquals(Arrays.asList(e2.getTaskVertices()), consumers);
+		for (IntermediateResultPartition partition : partitions) {
+			assertEquals(1, partition.getConsumers().size());
+			assertSame(consumers, partition.getConsumers().get(0));
+		}
+	}
+
 	@Test
 	public void testAttachViaDataSets() throws Exception {
 		final JobID jobId = new JobID();
@@ -26,7 +26,10 @@ import org.apache.flink.runtime.checkpoint.StandaloneCheckpointRecoveryFactory;
 import org.apache.flink.runtime.clusterframework.types.AllocationID;
 import org.apache.flink.runtime.clusterframework.types.ResourceID;
 import org.apache.flink.runtime.clusterframework.types.ResourceProfile;
+import org.apache.flink.runtime.deployment.InputChannelDeploymentDescriptor;
+import org.apache.flink.runtime.deployment.InputGateDeploymentDescriptor;
 import org.apache.flink.runtime.deployment.TaskDeploymentDescriptor;
+import org.apache.flink.runtime.execution.ExecutionState;
 import org.apache.flink.runtime.executiongraph.restart.NoRestartStrategy;
 import org.apache.flink.runtime.instance.SimpleSlot;
 import org.apache.flink.runtime.instance.Slot;
@@ -49,17 +52,21 @@ import org.apache.flink.util.TestLogger;
 import org.junit.After;
 import org.junit.Test;
 
+import org.mockito.ArgumentCaptor;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.verification.Timeout;
 
 import java.net.InetAddress;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
@@ -136,15 +143,15 @@ public class ExecutionGraphSchedulingTest extends TestLogger {
 		// that should not cause a deployment or deployment related failure
 		targetFuture.complete(targetSlot);
 
-		verify(gatewayTarget, new Timeout(50, times(0))).submitTask(any(TaskDeploymentDescriptor.class), any(Time.class));
+		verify(gatewayTarget, new Timeout(50, times(0))).submitTasks(anyCollectionOf(TaskDeploymentDescriptor.class), any(Time.class));
 		assertEquals(JobStatus.RUNNING, eg.getState());
 
 		// now supply the source slot
 		sourceFuture.complete(sourceSlot);
 
 		// by now, all deployments should have happened
-		verify(gatewaySource, timeout(1000)).submitTask(any(TaskDeploymentDescriptor.class), any(Time.class));
-		verify(gatewayTarget, timeout(1000)).submitTask(any(TaskDeploymentDescriptor.class), any(Time.class));
+		verify(gatewaySource, timeout(1000)).submitTasks(anyCollectionOf(TaskDeploymentDescriptor.class), any(Time.class));
+		verify(gatewayTarget, timeout(1000)).submitTasks(anyCollectionOf(TaskDeploymentDescriptor.class), any(Time.class));
 
 		assertEquals(JobStatus.RUNNING, eg.getState());
 	}
@@ -241,10 +248,145 @@ public class ExecutionGraphSchedulingTest extends TestLogger {
 		//  verify that all deployments have happened
 
 		for (TaskManagerGateway gateway : sourceTaskManagers) {
-			verify(gateway, timeout(500L)).submitTask(any(TaskDeploymentDescriptor.class), any(Time.class));
+			verify(gateway, timeout(500L)).submitTasks(anyCollectionOf(TaskDeploymentDescriptor.class), any(Time.class));
 		}
 		for (TaskManagerGateway gateway : targetTaskManagers) {
-			verify(gateway, timeout(500L)).submitTask(any(TaskDeploymentDescriptor.class), any(Time.class));
+			verify(gateway, timeout(500L)).submitTasks(anyCollectionOf(TaskDeploymentDescriptor.class), any(Time.class));
+		}
+	}
+
+	/**
+	 * This test verifies that eager scheduling deploys all tasks of a TaskManager with a single call,
+	 * and that the tasks of that call share the input channels of all-to-all inputs.
+	 */
+	@Test
+	public void testDeployTasksOfTaskManagerTogether() throws Exception {
+
+		//                                            [pipelined, all-to-all]
+		//  we construct a simple graph    (source) ----------------> (target)
+
+		final int sourceParallelism = 2;
+		final int targetParallelism = 4;
+
+		final JobVertex sourceVertex = new JobVertex("source");
+		sourceVertex.setParallelism(sourceParallelism);
+		sourceVertex.setInvokableClass(NoOpInvokable.class);
+
+		final JobVertex targetVertex = new JobVertex("target");
+		targetVertex.setParallelism(targetParallelism);
+		targetVertex.setInvokableClass(NoOpInvokable.class);
+
+		targetVertex.connectNewDataSetAsInput(sourceVertex, DistributionPattern.ALL_TO_ALL, ResultPartitionType.PIPELINED);
+
+		final JobID jobId = new JobID();
+		final JobGraph jobGraph = new JobGraph(jobId, "test", sourceVertex, targetVertex);
+
+		//  set up two TaskManagers, each hosting one source and two targets
+
+		final TaskManagerGateway[] taskManagers = new TaskManagerGateway[sourceParallelism];
+		final ProgrammedSlotProvider slotProvider = new ProgrammedSlotProvider(targetParallelism);
+
+		for (int i = 0; i < sourceParallelism; i++) {
+			taskManagers[i] = createTaskManager();
+			final TaskManagerLocation location = new TaskManagerLocation(
+					ResourceID.generate(), InetAddress.getLoopbackAddress(), 12345 + i);
+
+			slotProvider.addSlot(sourceVertex.getID(), i, CompletableFuture.completedFuture(
+					createSlot(taskManagers[i], location, jobId, mock(SlotOwner.class))));
+
+			for (int k = 0; k < 2; k++) {
+				slotProvider.addSlot(targetVertex.getID(), 2 * i + k, CompletableFuture.completedFuture(
+						createSlot(taskManagers[i], location, jobId, mock(SlotOwner.class))));
+			}
+		}
+
+		final ExecutionGraph eg = createExecutionGraph(jobGraph, slotProvider);
+		eg.setScheduleMode(ScheduleMode.EAGER);
+		eg.scheduleForExecution();
+
+		for (TaskManagerGateway taskManager : taskManagers) {
+			@SuppressWarnings("unchecked")
+			ArgumentCaptor<Collection<TaskDeploymentDescriptor>> deployments =
+					(ArgumentCaptor<Collection<TaskDeploymentDescriptor>>) (ArgumentCaptor<?>) ArgumentCaptor.forClass(Collection.class);
+
+			verify(taskManager, timeout(1000L)).submitTasks(deployments.capture(), any(Time.class));
+			verify(taskManager, times(0)).submitTask(any(TaskDeploymentDescriptor.class), any(Time.class));
+
+			final List<InputChannelDeploymentDescriptor[]> inputChannels = new ArrayList<>();
+			for (TaskDeploymentDescriptor deployment : deployments.getValue()) {
+				for (InputGateDeploymentDescriptor inputGate : deployment.getInputGates()) {
+					inputChannels.add(inputGate.getInputChannelDeploymentDescriptors());
+				}
+			}
+
+			assertEquals(3, deployments.getValue().size());
+			assertEquals(2, inputChannels.size());
+			assertEquals(sourceParallelism, inputChannels.get(0).length);
+			assertSame(inputChannels.get(0), inputChannels.get(1));
+		}
+	}
+
+	/**
+	 * This test verifies that if one task of a deployment batch could not be submitted, only that
+	 * task fails with the failure reported by the TaskManager.
+	 */
+	@Test
+	public void testFailedTaskOfBatchFailsOnlyThatTask() throws Exception {
+		final int parallelism = 2;
+
+		final JobVertex vertex = new JobVertex("vertex");
+		vertex.setParallelism(parallelism);
+		vertex.setInvokableClass(NoOpInvokable.class);
+
+		final JobID jobId = new JobID();
+		final JobGraph jobGraph = new JobGraph(jobId, "test", vertex);
+
+		final TestRuntimeException failure = new TestRuntimeException();
+		final AtomicReference<ExecutionAttemptID> failedAttemptId = new AtomicReference<>();
+		final TaskManagerGateway taskManager = createTaskManager();
+		when(taskManager.submitTasks(anyCollectionOf(TaskDeploymentDescriptor.class), any(Time.class))).thenAnswer(
+			(InvocationOnMock invocation) -> {
+				@SuppressWarnings("unchecked")
+				final Collection<TaskDeploymentDescriptor> deployments =
+						(Collection<TaskDeploymentDescriptor>) invocation.getArguments()[0];
+
+				failedAttemptId.set(deployments.iterator().next().getExecutionAttemptId());
+				return CompletableFuture.completedFuture(
+						Collections.singletonMap(failedAttemptId.get(), failure));
+			});
+
+		final TaskManagerLocation location = new TaskManagerLocation(
+				ResourceID.generate(), InetAddress.getLoopbackAddress(), 12345);
+
+		final ProgrammedSlotProvider slotProvider = new ProgrammedSlotProvider(parallelism);
+		for (int i = 0; i < parallelism; i++) {
+			slotProvider.addSlot(vertex.getID(), i, CompletableFuture.completedFuture(
+					createSlot(taskManager, location, jobId, mock(SlotOwner.class))));
+		}
+
+		final ExecutionGraph eg = createExecutionGraph(jobGraph, slotProvider);
+		eg.setScheduleMode(ScheduleMode.EAGER);
+		eg.scheduleForExecution();
+
+		verify(taskManager, timeout(1000L)).submitTasks(anyCollectionOf(TaskDeploymentDescriptor.class), any(Time.class));
+
+		for (ExecutionVertex executionVertex : eg.getJobVertex(vertex.getID()).getTaskVertices()) {
+			final Execution execution = executionVertex.getCurrentExecutionAttempt();
+
+			if (execution.getAttemptId().equals(failedAttemptId.get())) {
+				ExecutionGraphTestUtils.waitUntilExecutionState(execution, ExecutionState.FAILED, 2000L);
+
+				// the failure cause is set right after the state transition
+				final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2L);
+				while (execution.getFailureCause() == null && System.nanoTime() < deadline) {
+					Thread.sleep(10L);
+				}
+				assertSame(failure, execution.getFailureCause());
+			} else {
+				// the other task of the batch is only canceled by the failover
+				assertNotEquals(ExecutionState.FAILED, execution.getState());
+				assertNull(execution.getFailureCause());
+			}
 		}
 	}
 
@@ -325,7 +467,7 @@ public class ExecutionGraphSchedulingTest extends TestLogger {
 		verify(slotOwner, new Timeout(2000, times(6))).returnAllocatedSlot(any(Slot.class));
 
 		// no deployment calls must have happened
-		verify(taskManager, times(0)).submitTask(any(TaskDeploymentDescriptor.class), any(Time.class));
+		verify(taskManager, times(0)).submitTasks(anyCollectionOf(TaskDeploymentDescriptor.class), any(Time.class));
 
 		// all completed futures must have been returns
 		for (int i = 0; i < parallelism; i += 2) {
@@ -389,7 +531,7 @@ public class ExecutionGraphSchedulingTest extends TestLogger {
 		verify(slotOwner, new Timeout(2000, times(2))).returnAllocatedSlot(any(Slot.class));
 
 		//  verify that no deployments have happened
-		verify(taskManager, times(0)).submitTask(any(TaskDeploymentDescriptor.class), any(Time.class));
+		verify(taskManager, times(0)).submitTasks(anyCollectionOf(TaskDeploymentDescriptor.class), any(Time.class));
 
 		for (CompletableFuture<SimpleSlot> future : slotFutures) {
 			if (future.isDone()) {
@@ -566,6 +708,10 @@ public class ExecutionGraphSchedulingTest extends TestLogger {
 		TaskManagerLocation location = new TaskManagerLocation(
 				ResourceID.generate(), InetAddress.getLoopbackAddress(), 12345);
 
+		return createSlot(taskManager, location, jobId, slotOwner);
+	}
+
+	private SimpleSlot createSlot(TaskManagerGateway taskManager, TaskManagerLocation location, JobID jobId, SlotOwner slotOwner) {
 		AllocatedSlot slot = new AllocatedSlot(
 				new AllocationID(), jobId, location, 0, ResourceProfile.UNKNOWN, taskManager);
 
@@ -576,6 +722,8 @@ public class ExecutionGraphSchedulingTest extends TestLogger {
 		TaskManagerGateway tm = mock(TaskManagerGateway.class);
 		when(tm.submitTask(any(TaskDeploymentDescriptor.class), any(Time.class)))
 				.thenReturn(CompletableFuture.completedFuture(Acknowledge.get()));
+		when(tm.submitTasks(anyCollectionOf(TaskDeploymentDescriptor.class), any(Time.class)))
+				.thenReturn(CompletableFuture.completedFuture(Collections.<ExecutionAttemptID, Throwable>emptyMap()));
 
 		return tm;
 	}
@@ -586,7 +734,7 @@ public class ExecutionGraphSchedulingTest extends TestLogger {
 
 		// none of the TaskManager should have gotten a deployment call, yet
 		for (TaskManagerGateway gateway : taskManagers) {
-			verify(gateway, new Timeout(50, times(0))).submitTask(any(TaskDeploymentDescriptor.class), any(Time.class));
+			verify(gateway, new Timeout(50, times(0))).submitTasks(anyCollectionOf(TaskDeploymentDescriptor.class), any(Time.class));
 		}
 	}
 
@@ -176,7 +176,12 @@ public class ExecutionGraphTestUtils {
 	 */
 	public static void completeCancellingForAllVertices(ExecutionGraph eg) {
 		for (ExecutionVertex vertex : eg.getAllExecutionVertices()) {
-			vertex.getCurrentExecutionAttempt().cancelingComplete();
+			final Execution execution = vertex.getCurrentExecutionAttempt();
+
+			// the job may already be restarting and deploying new executions concurrently
+			if (execution.getState() == ExecutionState.CANCELING) {
+				execution.cancelingComplete();
+			}
 		}
 	}
 
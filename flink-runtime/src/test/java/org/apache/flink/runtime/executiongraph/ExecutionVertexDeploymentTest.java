@@ -364,10 +364,10 @@ public class ExecutionVertexDeploymentTest {
 		ExecutionVertex vertex =
 				new ExecutionVertex(jobVertex, 0, new IntermediateResult[]{result}, Time.minutes(1));
 
-		ExecutionEdge mockEdge = createMockExecutionEdge(1);
+		ExecutionVertex mockConsumer = createMockConsumer(1);
 
 		result.getPartitions()[0].addConsumerGroup();
-		result.getPartitions()[0].addConsumer(mockEdge, 0);
+		result.getPartitions()[0].addConsumer(mockConsumer, 0);
 
 		AllocatedSlot allocatedSlot = mock(AllocatedSlot.class);
 		when(allocatedSlot.getSlotAllocationId()).thenReturn(new AllocationID());
@@ -394,15 +394,13 @@ public class ExecutionVertexDeploymentTest {
 
 
 
-	private ExecutionEdge createMockExecutionEdge(int maxParallelism) {
+	private ExecutionVertex createMockConsumer(int maxParallelism) {
 		ExecutionVertex targetVertex = mock(ExecutionVertex.class);
 		ExecutionJobVertex targetJobVertex = mock(ExecutionJobVertex.class);
 
 		when(targetVertex.getJobVertex()).thenReturn(targetJobVertex);
 		when(targetJobVertex.getMaxParallelism()).thenReturn(maxParallelism);
 
-		ExecutionEdge edge = mock(ExecutionEdge.class);
-		when(edge.getTarget()).thenReturn(targetVertex);
-		return edge;
+		return targetVertex;
 	}
 }
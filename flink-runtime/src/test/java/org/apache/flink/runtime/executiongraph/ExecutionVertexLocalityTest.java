@@ -53,6 +53,7 @@ import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 
@@ -99,6 +100,57 @@ public class ExecutionVertexLocalityTest extends TestLogger {
 		}
 	}
 
+	/**
+	 * This test validates that the volume based location preferences put the location that
+	 * produced the most data first, and that they exclude inputs with too many input streams.
+	 */
+	@Test
+	public void testLocalityBasedOnInputVolume() throws Exception {
+		final int parallelism = 4;
+		final TaskManagerLocation[] locations = new TaskManagerLocation[parallelism];
+
+		final ExecutionGraph graph = createTestGraph(parallelism, true);
+
+		for (int i = 0; i < parallelism; i++) {
+			ExecutionVertex source = graph.getAllVertices().get(sourceVertexId).getTaskVertices()[i];
+			TaskManagerLocation location = new TaskManagerLocation(
+					ResourceID.generate(), InetAddress.getLoopbackAddress(), 10000 + i);
+
+			locations[i] = location;
+			initializeLocation(source, location);
+		}
+
+		// one source produced much more data than the others
+		ExecutionVertex heavySource = graph.getAllVertices().get(sourceVertexId).getTaskVertices()[2];
+		setIOMetrics(heavySource.getCurrentExecutionAttempt(), 1 << 20);
+
+		for (int i = 0; i < parallelism; i++) {
+			ExecutionVertex target = graph.getAllVertices().get(targetVertexId).getTaskVertices()[i];
+			Iterator<TaskManagerLocation> preference = target.getPreferredLocationsBasedOnInputVolume().iterator();
+
+			assertTrue(preference.hasNext());
+			assertEquals(locations[2], preference.next());
+
+			int numLocations = 1;
+			while (preference.hasNext()) {
+				preference.next();
+				numLocations++;
+			}
+			assertEquals(parallelism, numLocations);
+		}
+
+		// large all-to-all inputs result in no preferences, like for the input based preferences
+		final ExecutionGraph largeGraph = createTestGraph(100, true);
+		for (int i = 0; i < 100; i++) {
+			ExecutionVertex source = largeGraph.getAllVertices().get(sourceVertexId).getTaskVertices()[i];
+			initializeLocation(source, new TaskManagerLocation(
+					ResourceID.generate(), InetAddress.getLoopbackAddress(), 10000 + i));
+		}
+
+		ExecutionVertex target = largeGraph.getAllVertices().get(targetVertexId).getTaskVertices()[0];
+		assertFalse(target.getPreferredLocationsBasedOnInputVolume().iterator().hasNext());
+	}
+
 	/**
 	 * This test validates that vertices with too many input streams do not have a location
 	 * preference any more.
@@ -134,6 +186,7 @@ public class ExecutionVertexLocalityTest extends TestLogger {
 	public void testLocalityBasedOnState() throws Exception {
 		final int parallelism = 10;
 		final TaskManagerLocation[] locations = new TaskManagerLocation[parallelism];
+		final AllocationID[] allocations = new AllocationID[parallelism];
 
 		final ExecutionGraph graph = createTestGraph(parallelism, false);
 
@@ -150,7 +203,7 @@ public class ExecutionVertexLocalityTest extends TestLogger {
 
 			locations[i] = location;
 			initializeLocation(source, randomLocation);
-			initializeLocation(target, location);
+			allocations[i] = initializeLocation(target, location);
 
 			setState(source.getCurrentExecutionAttempt(), ExecutionState.CANCELED);
 			setState(target.getCurrentExecutionAttempt(), ExecutionState.CANCELED);
@@ -182,6 +235,11 @@ public class ExecutionVertexLocalityTest extends TestLogger {
 			assertTrue(preference.hasNext());
 			assertEquals(locations[i], preference.next());
 			assertFalse(preference.hasNext());
+
+			// the targets prefer the slots of their prior executions, the stateless sources do not
+			ExecutionVertex source = graph.getAllVertices().get(sourceVertexId).getTaskVertices()[i];
+			assertEquals(allocations[i], target.getPreferredAllocationBasedOnState());
+			assertNull(source.getPreferredAllocationBasedOnState());
 		}
 	}
 
@@ -223,7 +281,7 @@ public class ExecutionVertexLocalityTest extends TestLogger {
 			log);
 	}
 
-	private void initializeLocation(ExecutionVertex vertex, TaskManagerLocation location) throws Exception {
+	private AllocationID initializeLocation(ExecutionVertex vertex, TaskManagerLocation location) throws Exception {
 		// we need a bit of reflection magic to initialize the location without going through
 		// scheduling paths. we choose to do that, rather than the alternatives:
 		//  - mocking the scheduler created fragile tests that break whenever the scheduler is adjusted
@@ -238,6 +296,15 @@ public class ExecutionVertexLocalityTest extends TestLogger {
 		locationField.setAccessible(true);
 
 		locationField.set(vertex.getCurrentExecutionAttempt(), simpleSlot);
+
+		return slot.getSlotAllocationId();
+	}
+
+	private void setIOMetrics(Execution execution, int numBytesOut) throws Exception {
+		final Field metricsField = Execution.class.getDeclaredField("ioMetrics");
+		metricsField.setAccessible(true);
+
+		metricsField.set(execution, new IOMetrics(0, 0, numBytesOut, 0, 0, 0.0, 0.0, 0.0, 0.0, 0.0));
 	}
 
 	private void setState(Execution execution, ExecutionState state) throws Exception {
@@ -0,0 +1,181 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.executiongraph;
+
+import org.apache.flink.api.common.ExecutionConfig;
+import org.apache.flink.api.common.JobID;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.configuration.JobManagerOptions;
+import org.apache.flink.runtime.akka.AkkaUtils;
+import org.apache.flink.runtime.blob.BlobKey;
+import org.apache.flink.runtime.concurrent.Executors;
+import org.apache.flink.runtime.executiongraph.failover.FailoverStrategy;
+import org.apache.flink.runtime.executiongraph.failover.FailoverStrategyLoader;
+import org.apache.flink.runtime.executiongraph.failover.RestartWithUpstreamReplayStrategy;
+import org.apache.flink.runtime.executiongraph.restart.InfiniteDelayRestartStrategy;
+import org.apache.flink.runtime.executiongraph.utils.SimpleSlotProvider;
+import org.apache.flink.runtime.instance.SlotProvider;
+import org.apache.flink.runtime.io.network.partition.ResultPartitionProvider;
+import org.apache.flink.runtime.io.network.partition.ResultPartitionType;
+import org.apache.flink.runtime.jobgraph.DistributionPattern;
+import org.apache.flink.runtime.jobgraph.JobStatus;
+import org.apache.flink.runtime.jobgraph.JobVertex;
+import org.apache.flink.runtime.testingUtils.TestingUtils;
+import org.apache.flink.runtime.testtasks.NoOpInvokable;
+import org.apache.flink.util.SerializedValue;
+import org.apache.flink.util.TestLogger;
+
+import org.junit.Test;
+
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for the {@link RestartWithUpstreamReplayStrategy}.
+ */
+public class RestartWithUpstreamReplayStrategyTest extends TestLogger {
+
+	/**
+	 * Tests that only the failed task and its downstream tasks are restarted.
+	 *
+	 * <pre>
+	 *     (a1) --> (b1) --+--> (c1)
+	 *                      X
+	 *     (a2) --> (b2) --+--> (c2)
+	 * </pre>
+	 */
+	@Test
+	public void testRestartsDownstreamTasksOnly() throws Exception {
+		final JobID jobId = new JobID();
+		final SlotProvider slotProvider = new SimpleSlotProvider(jobId, 20);
+
+		final JobVertex a = createVertex("a");
+		final JobVertex b = createVertex("b");
+		final JobVertex c = createVertex("c");
+
+		b.connectNewDataSetAsInput(a, DistributionPattern.POINTWISE, ResultPartitionType.PIPELINED);
+		c.connectNewDataSetAsInput(b, DistributionPattern.ALL_TO_ALL, ResultPartitionType.PIPELINED);
+
+		final ExecutionGraph eg = new ExecutionGraph(
+				TestingUtils.defaultExecutor(),
+				TestingUtils.defaultExecutor(),
+				jobId,
+				"test job",
+				new Configuration(),
+				new SerializedValue<>(new ExecutionConfig()),
+				AkkaUtils.getDefaultTimeout(),
+				new InfiniteDelayRestartStrategy(10),
+				new UpstreamReplayWithDirectExecutor(),
+				Collections.<BlobKey>emptyList(),
+				Collections.<URL>emptyList(),
+				slotProvider,
+				ExecutionGraph.class.getClassLoader());
+
+		eg.attachJobGraph(Arrays.asList(a, b, c));
+		eg.scheduleForExecution();
+
+		final ExecutionVertex a1 = eg.getJobVertex(a.getID()).getTaskVertices()[0];
+		final ExecutionVertex a2 = eg.getJobVertex(a.getID()).getTaskVertices()[1];
+		final ExecutionVertex b1 = eg.getJobVertex(b.getID()).getTaskVertices()[0];
+		final ExecutionVertex b2 = eg.getJobVertex(b.getID()).getTaskVertices()[1];
+		final ExecutionVertex c1 = eg.getJobVertex(c.getID()).getTaskVertices()[0];
+		final ExecutionVertex c2 = eg.getJobVertex(c.getID()).getTaskVertices()[1];
+
+		for (ExecutionVertex ev : Arrays.asList(b1, b2, c1, c2)) {
+			ev.scheduleForExecution(slotProvider, true);
+		}
+
+		assertEquals(
+				new HashSet<>(Arrays.asList(b1, c1, c2)),
+				new HashSet<>(RestartWithUpstreamReplayStrategy.getDownstreamVertices(b1)));
+		assertEquals(
+				new HashSet<>(Arrays.asList(a2, b2, c1, c2)),
+				new HashSet<>(RestartWithUpstreamReplayStrategy.getDownstreamVertices(a2)));
+
+		final ExecutionAttemptID a1Attempt = a1.getCurrentExecutionAttempt().getAttemptId();
+		final ExecutionAttemptID a2Attempt = a2.getCurrentExecutionAttempt().getAttemptId();
+		final ExecutionAttemptID b2Attempt = b2.getCurrentExecutionAttempt().getAttemptId();
+		final ExecutionAttemptID c1Attempt = c1.getCurrentExecutionAttempt().getAttemptId();
+
+		b1.getCurrentExecutionAttempt().fail(new Exception("Test Exception"));
+		c1.getCurrentExecutionAttempt().cancelingComplete();
+		c2.getCurrentExecutionAttempt().cancelingComplete();
+
+		assertEquals(JobStatus.RUNNING, eg.getState());
+
+		// the upstream tasks and the unaffected task keep running
+		assertEquals(a1Attempt, a1.getCurrentExecutionAttempt().getAttemptId());
+		assertEquals(a2Attempt, a2.getCurrentExecutionAttempt().getAttemptId());
+		assertEquals(b2Attempt, b2.getCurrentExecutionAttempt().getAttemptId());
+
+		// the failed task and its downstream tasks have been restarted
+		assertEquals(1, b1.getCurrentExecutionAttempt().getAttemptNumber());
+		assertNotEquals(c1Attempt, c1.getCurrentExecutionAttempt().getAttemptId());
+		assertEquals(1, c2.getCurrentExecutionAttempt().getAttemptNumber());
+
+		// the restarted tasks request the replay from the start of the data, since there is no
+		// completed checkpoint to restore
+		for (ExecutionVertex ev : Arrays.asList(b1, c1, c2)) {
+			assertEquals(-1L, ev.getCurrentExecutionAttempt().getReplayFromCheckpointId());
+		}
+		assertEquals(ResultPartitionProvider.NO_REPLAY, b2.getCurrentExecutionAttempt().getReplayFromCheckpointId());
+
+		// without a new checkpoint, another failure of a restarted task fails the whole job
+		c1.getCurrentExecutionAttempt().fail(new Exception("Test Exception"));
+		assertEquals(JobStatus.FAILING, eg.getState());
+	}
+
+	@Test
+	public void testLoadFromConfiguration() {
+		final Configuration config = new Configuration();
+		config.setString(
+				JobManagerOptions.EXECUTION_FAILOVER_STRATEGY,
+				FailoverStrategyLoader.UPSTREAM_REPLAY_RESTART_STRATEGY_NAME);
+
+		assertTrue(FailoverStrategyLoader.loadFailoverStrategy(config, log)
+				instanceof RestartWithUpstreamReplayStrategy.Factory);
+	}
+
+	// ------------------------------------------------------------------------
+
+	private static JobVertex createVertex(String name) {
+		final JobVertex vertex = new JobVertex(name);
+		vertex.setInvokableClass(NoOpInvokable.class);
+		vertex.setParallelism(2);
+		return vertex;
+	}
+
+	/**
+	 * A factory to create a RestartWithUpstreamReplayStrategy that uses a
+	 * direct (synchronous) executor for easier testing.
+	 */
+	private static class UpstreamReplayWithDirectExecutor implements FailoverStrategy.Factory {
+
+		@Override
+		public FailoverStrategy create(ExecutionGraph executionGraph) {
+			return new RestartWithUpstreamReplayStrategy(executionGraph, Executors.directExecutor());
+		}
+	}
+}
@@ -0,0 +1,371 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.executiongraph;
+
+import org.apache.flink.api.common.JobID;
+import org.apache.flink.api.common.accumulators.Accumulator;
+import org.apache.flink.api.common.io.DefaultInputSplitAssigner;
+import org.apache.flink.api.common.io.ReplicatingInputSplitAssigner;
+import org.apache.flink.core.io.GenericInputSplit;
+import org.apache.flink.core.io.InputSplit;
+import org.apache.flink.core.io.InputSplitAssigner;
+import org.apache.flink.core.io.InputSplitSource;
+import org.apache.flink.runtime.accumulators.AccumulatorSnapshot;
+import org.apache.flink.runtime.execution.ExecutionState;
+import org.apache.flink.runtime.executiongraph.restart.NoRestartStrategy;
+import org.apache.flink.runtime.executiongraph.utils.SimpleSlotProvider;
+import org.apache.flink.runtime.io.network.partition.ResultPartitionType;
+import org.apache.flink.runtime.jobgraph.DistributionPattern;
+import org.apache.flink.runtime.jobgraph.JobStatus;
+import org.apache.flink.runtime.jobgraph.JobVertex;
+import org.apache.flink.runtime.testtasks.NoOpInvokable;
+import org.apache.flink.util.TestLogger;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Iterator;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for the speculative execution of slow tasks.
+ */
+public class SpeculativeExecutionTest extends TestLogger {
+
+	/**
+	 * Tests that a speculative attempt receives the input splits of the current execution in
+	 * lockstep and replaces the current execution if it finishes first.
+	 */
+	@Test
+	public void testSpeculativeAttemptFinishesFirst() throws Exception {
+		final ExecutionGraph graph = createRunningGraph(2, 5);
+		final ExecutionVertex vertex = getSourceVertices(graph)[0];
+		final Execution original = vertex.getCurrentExecutionAttempt();
+
+		final InputSplit split1 = vertex.getNextInputSplit(null, original);
+		final InputSplit split2 = vertex.getNextInputSplit(null, original);
+		assertNotNull(split1);
+		assertNotNull(split2);
+
+		assertTrue(vertex.launchSpeculativeExecution());
+		assertFalse(vertex.launchSpeculativeExecution());
+
+		final Execution speculative = vertex.getSpeculativeExecutionAttempt();
+		assertNotNull(speculative);
+		assertEquals(ExecutionState.DEPLOYING, speculative.getState());
+		assertEquals(original.getAttemptNumber() + 1, speculative.getAttemptNumber());
+		assertNotEquals(
+				original.getAssignedResource().getTaskManagerID(),
+				speculative.getAssignedResource().getTaskManagerID());
+
+		// both attempts receive the same splits, whichever attempt is ahead takes new splits
+		final InputSplit split3 = vertex.getNextInputSplit(null, original);
+		assertNotNull(split3);
+
+		speculative.switchToRunning();
+		assertSame(split1, vertex.getNextInputSplit(null, speculative));
+		assertSame(split2, vertex.getNextInputSplit(null, speculative));
+		assertSame(split3, vertex.getNextInputSplit(null, speculative));
+
+		final InputSplit split4 = vertex.getNextInputSplit(null, speculative);
+		assertNotNull(split4);
+		assertSame(split4, vertex.getNextInputSplit(null, original));
+
+		speculative.markFinished();
+
+		assertSame(speculative, vertex.getCurrentExecutionAttempt());
+		assertSame(original, vertex.getPriorExecutionAttempt(original.getAttemptNumber()));
+		assertNull(vertex.getSpeculativeExecutionAttempt());
+		assertEquals(ExecutionState.FINISHED, speculative.getState());
+		assertEquals(ExecutionState.CANCELING, original.getState());
+
+		original.cancelingComplete();
+		assertEquals(ExecutionState.CANCELED, original.getState());
+		assertEquals(JobStatus.RUNNING, graph.getState());
+	}
+
+	/**
+	 * Tests that the speculative attempt is canceled if the current execution finishes first.
+	 */
+	@Test
+	public void testCurrentAttemptFinishesFirst() throws Exception {
+		final ExecutionGraph graph = createRunningGraph(2, 5);
+		final ExecutionVertex vertex = getSourceVertices(graph)[1];
+		final Execution original = vertex.getCurrentExecutionAttempt();
+
+		assertTrue(vertex.launchSpeculativeExecution());
+		final Execution speculative = vertex.getSpeculativeExecutionAttempt();
+		assertNotNull(speculative);
+
+		original.markFinished();
+
+		assertSame(original, vertex.getCurrentExecutionAttempt());
+		assertNull(vertex.getSpeculativeExecutionAttempt());
+		assertEquals(ExecutionState.FINISHED, original.getState());
+		assertEquals(ExecutionState.CANCELING, speculative.getState());
+
+		// the discarded speculative attempt keeps its attempt number
+		speculative.cancelingComplete();
+		final Execution next = vertex.resetForNewExecution(System.currentTimeMillis(), graph.getGlobalModVersion());
+
+		assertEquals(speculative.getAttemptNumber() + 1, next.getAttemptNumber());
+		assertSame(original, vertex.getPriorExecutionAttempt(original.getAttemptNumber()));
+		assertSame(speculative, vertex.getPriorExecutionAttempt(speculative.getAttemptNumber()));
+	}
+
+	/**
+	 * Tests that failures of the speculative attempt and of the losing attempt neither fail nor
+	 * restart the job, and only discard the respective attempt.
+	 */
+	@Test
+	public void testAttemptFailuresDoNotFailJob() throws Exception {
+		final ExecutionGraph graph = createRunningGraph(2, 5);
+		final ExecutionVertex vertex = getSourceVertices(graph)[0];
+		final Execution original = vertex.getCurrentExecutionAttempt();
+
+		// e.g. the TaskManager of the speculative attempt is lost
+		assertTrue(vertex.launchSpeculativeExecution());
+		final Execution failing = vertex.getSpeculativeExecutionAttempt();
+		assertNotNull(failing);
+		failing.switchToRunning();
+		failing.fail(new Exception("test exception"));
+
+		assertEquals(ExecutionState.FAILED, failing.getState());
+		assertNull(vertex.getSpeculativeExecutionAttempt());
+		assertSame(original, vertex.getCurrentExecutionAttempt());
+		assertEquals(ExecutionState.RUNNING, original.getState());
+		assertEquals(JobStatus.RUNNING, graph.getState());
+
+		// the winning speculative attempt cancels the original attempt, which cannot be canceled
+		assertTrue(vertex.launchSpeculativeExecution());
+		final Execution speculative = vertex.getSpeculativeExecutionAttempt();
+		assertNotNull(speculative);
+		assertNotEquals(failing.getAttemptNumber(), speculative.getAttemptNumber());
+		speculative.switchToRunning();
+		speculative.markFinished();
+
+		assertEquals(ExecutionState.CANCELING, original.getState());
+		original.fail(new Exception("Task could not be canceled."));
+
+		assertEquals(ExecutionState.CANCELED, original.getState());
+		assertSame(speculative, vertex.getCurrentExecutionAttempt());
+		assertEquals(JobStatus.RUNNING, graph.getState());
+
+		// the prior executions are listed by their attempt number
+		assertSame(original, vertex.getPriorExecutionAttempt(original.getAttemptNumber()));
+		assertSame(failing, vertex.getPriorExecutionAttempt(failing.getAttemptNumber()));
+	}
+
+	/**
+	 * Tests that the losing attempt finishing right after the winning attempt does not finish the
+	 * vertex again.
+	 */
+	@Test
+	public void testLosingAttemptFinishesConcurrently() throws Exception {
+		final ExecutionGraph graph = createRunningGraph(2, 5);
+		final ExecutionVertex vertex = getSourceVertices(graph)[0];
+		final Execution original = vertex.getCurrentExecutionAttempt();
+
+		assertTrue(vertex.launchSpeculativeExecution());
+		final Execution speculative = vertex.getSpeculativeExecutionAttempt();
+		assertNotNull(speculative);
+		speculative.switchToRunning();
+
+		original.markFinished();
+		speculative.markFinished();
+
+		assertSame(original, vertex.getCurrentExecutionAttempt());
+		assertEquals(ExecutionState.CANCELED, speculative.getState());
+		assertEquals(JobStatus.RUNNING, graph.getState());
+
+		// the other source finishing schedules the sinks, which happens asynchronously
+		getSourceVertices(graph)[1].getCurrentExecutionAttempt().markFinished();
+
+		final Iterator<ExecutionJobVertex> jobVertices = graph.getVerticesTopologically().iterator();
+		jobVertices.next();
+		for (ExecutionVertex sink : jobVertices.next().getTaskVertices()) {
+			ExecutionGraphTestUtils.waitUntilExecutionState(
+				sink.getCurrentExecutionAttempt(), ExecutionState.DEPLOYING, 2000L);
+		}
+	}
+
+	/**
+	 * Tests that the current execution keeps receiving input splits from an assigner that hands
+	 * out a fixed set of splits to each subtask, such that no split is lost by speculation.
+	 */
+	@Test
+	public void testNoInputSplitsLostWithSubtaskAssigner() throws Exception {
+		final ExecutionGraph graph = createRunningGraph(2, 5, true);
+		final ExecutionVertex vertex = getSourceVertices(graph)[0];
+		final Execution original = vertex.getCurrentExecutionAttempt();
+
+		assertNotNull(vertex.getNextInputSplit(null, original));
+		assertTrue(vertex.launchSpeculativeExecution());
+		final Execution speculative = vertex.getSpeculativeExecutionAttempt();
+		assertNotNull(speculative);
+		speculative.switchToRunning();
+
+		// the assigner replicates all 8 splits to each subtask
+		int numOriginalSplits = 1;
+		while (vertex.getNextInputSplit(null, original) != null) {
+			numOriginalSplits++;
+		}
+
+		int numSpeculativeSplits = 0;
+		while (vertex.getNextInputSplit(null, speculative) != null) {
+			numSpeculativeSplits++;
+		}
+
+		assertEquals(8, numOriginalSplits);
+		assertEquals(8, numSpeculativeSplits);
+	}
+
+	/**
+	 * Tests that no speculative attempt is kept if there is no slot for it.
+	 */
+	@Test
+	public void testNoSpeculativeAttemptWithoutSlot() throws Exception {
+		final ExecutionGraph graph = createRunningGraph(2, 2);
+		final ExecutionVertex vertex = getSourceVertices(graph)[0];
+
+		assertTrue(vertex.launchSpeculativeExecution());
+		assertNull(vertex.getSpeculativeExecutionAttempt());
+		assertEquals(ExecutionState.RUNNING, vertex.getExecutionState());
+	}
+
+	/**
+	 * Tests that the progress reported with the accumulators leads to a speculative attempt of
+	 * the slowest task, and only for tasks that can be executed twice.
+	 */
+	@Test
+	public void testSpeculateOnSlowTask() throws Exception {
+		final ExecutionGraph graph = createRunningGraph(3, 7);
+		final ExecutionVertex[] vertices = getSourceVertices(graph);
+
+		vertices[0].getCurrentExecutionAttempt().setRunningIOMetrics(createIOMetrics(100));
+		vertices[1].getCurrentExecutionAttempt().setRunningIOMetrics(createIOMetrics(120));
+
+		final Execution slow = vertices[2].getCurrentExecutionAttempt();
+		graph.updateAccumulators(new AccumulatorSnapshot(
+				graph.getJobID(),
+				slow.getAttemptId(),
+				Collections.<String, Accumulator<?, ?>>emptyMap(),
+				createIOMetrics(10)));
+
+		assertNull(vertices[0].getSpeculativeExecutionAttempt());
+		assertNull(vertices[1].getSpeculativeExecutionAttempt());
+		assertNotNull(vertices[2].getSpeculativeExecutionAttempt());
+
+		final SpeculativeExecutionTracker tracker = graph.getSpeculativeExecutionTracker();
+		assertNotNull(tracker);
+		assertArrayEquals(
+				new ExecutionVertex[] { vertices[2] },
+				tracker.findSlowVertices(vertices[2].getJobVertex(), System.currentTimeMillis()));
+
+		// the sinks consume the sources' results, they cannot be speculated on
+		for (ExecutionJobVertex jobVertex : graph.getVerticesTopologically()) {
+			assertEquals(
+					jobVertex.getJobVertex().isInputVertex(),
+					SpeculativeExecutionTracker.isSpeculatable(jobVertex));
+		}
+	}
+
+	// ------------------------------------------------------------------------
+
+	/**
+	 * Creates a graph of a source with input splits and a sink, connected by a blocking exchange,
+	 * and switches the sources to running.
+	 */
+	private static ExecutionGraph createRunningGraph(int parallelism, int numSlots) throws Exception {
+		return createRunningGraph(parallelism, numSlots, false);
+	}
+
+	private static ExecutionGraph createRunningGraph(
+			int parallelism,
+			int numSlots,
+			boolean replicateSplits) throws Exception {
+
+		final JobID jobId = new JobID();
+
+		final JobVertex source = new JobVertex("source");
+		source.setParallelism(parallelism);
+		source.setInvokableClass(NoOpInvokable.class);
+		source.setInputSplitSource(new TestInputSplitSource(replicateSplits));
+
+		final JobVertex sink = new JobVertex("sink");
+		sink.setParallelism(parallelism);
+		sink.setInvokableClass(NoOpInvokable.class);
+		sink.connectNewDataSetAsInput(source, DistributionPattern.POINTWISE, ResultPartitionType.BLOCKING);
+
+		final ExecutionGraph graph = ExecutionGraphTestUtils.createSimpleTestGraph(
+				jobId, new SimpleSlotProvider(jobId, numSlots), new NoRestartStrategy(), source, sink);
+		graph.setSpeculativeExecutionTracker(new SpeculativeExecutionTracker(0.5, 0L));
+
+		graph.scheduleForExecution();
+
+		for (ExecutionVertex vertex : getSourceVertices(graph)) {
+			vertex.getCurrentExecutionAttempt().switchToRunning();
+		}
+
+		return graph;
+	}
+
+	private static ExecutionVertex[] getSourceVertices(ExecutionGraph graph) {
+		return graph.getVerticesTopologically().iterator().next().getTaskVertices();
+	}
+
+	private static IOMetrics createIOMetrics(int numRecordsOut) {
+		return new IOMetrics(0, 0, 0, 0, numRecordsOut, 0.0, 0.0, 0.0, 0.0, 0.0);
+	}
+
+	private static class TestInputSplitSource implements InputSplitSource<GenericInputSplit> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final boolean replicateSplits;
+
+		TestInputSplitSource(boolean replicateSplits) {
+			this.replicateSplits = replicateSplits;
+		}
+
+		@Override
+		public GenericInputSplit[] createInputSplits(int minNumSplits) {
+			final GenericInputSplit[] splits = new GenericInputSplit[4 * minNumSplits];
+			for (int i = 0; i < splits.length; i++) {
+				splits[i] = new GenericInputSplit(i, splits.length);
+			}
+			return splits;
+		}
+
+		@Override
+		public InputSplitAssigner getInputSplitAssigner(GenericInputSplit[] inputSplits) {
+			return replicateSplits ?
+					new ReplicatingInputSplitAssigner(inputSplits) :
+					new DefaultInputSplitAssigner(inputSplits);
+		}
+	}
+}
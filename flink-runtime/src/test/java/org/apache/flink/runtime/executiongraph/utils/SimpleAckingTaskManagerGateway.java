@@ -33,6 +33,9 @@ import org.apache.flink.runtime.messages.Acknowledge;
 import org.apache.flink.runtime.messages.StackTrace;
 import org.apache.flink.runtime.messages.StackTraceSampleResponse;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
@@ -89,6 +92,14 @@ public class SimpleAckingTaskManagerGateway implements TaskManagerGateway {
 		return CompletableFuture.completedFuture(Acknowledge.get());
 	}
 
+	@Override
+	public CompletableFuture<Map<ExecutionAttemptID, Throwable>> submitTasks(Collection<TaskDeploymentDescriptor> tdds, Time timeout) {
+		for (TaskDeploymentDescriptor tdd : tdds) {
+			submitTask(tdd, timeout);
+		}
+		return CompletableFuture.completedFuture(Collections.emptyMap());
+	}
+
 	@Override
 	public CompletableFuture<Acknowledge> stopTask(ExecutionAttemptID executionAttemptID, Time timeout) {
 		return CompletableFuture.completedFuture(Acknowledge.get());
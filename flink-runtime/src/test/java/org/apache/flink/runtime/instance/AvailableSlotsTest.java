@@ -22,12 +22,15 @@ import org.apache.flink.api.common.JobID;
 import org.apache.flink.runtime.clusterframework.types.AllocationID;
 import org.apache.flink.runtime.clusterframework.types.ResourceID;
 import org.apache.flink.runtime.clusterframework.types.ResourceProfile;
+import org.apache.flink.runtime.jobmanager.scheduler.Locality;
 import org.apache.flink.runtime.jobmanager.slots.AllocatedSlot;
 import org.apache.flink.runtime.jobmanager.slots.SlotAndLocality;
 import org.apache.flink.runtime.jobmanager.slots.TaskManagerGateway;
 import org.apache.flink.runtime.taskmanager.TaskManagerLocation;
 import org.junit.Test;
 
+import java.util.Collections;
+
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
@@ -95,15 +98,51 @@ public class AvailableSlotsTest {
 		assertTrue(availableSlots.contains(slot1.getSlotAllocationId()));
 		assertTrue(availableSlots.containsTaskManager(resource1));
 
-		assertNull(availableSlots.poll(DEFAULT_TESTING_BIG_PROFILE, null));
+		assertNull(availableSlots.poll(DEFAULT_TESTING_BIG_PROFILE, null, null));
 
-		SlotAndLocality slotAndLocality = availableSlots.poll(DEFAULT_TESTING_PROFILE, null);
+		SlotAndLocality slotAndLocality = availableSlots.poll(DEFAULT_TESTING_PROFILE, null, null);
 		assertEquals(slot1, slotAndLocality.slot());
 		assertEquals(0, availableSlots.size());
 		assertFalse(availableSlots.contains(slot1.getSlotAllocationId()));
 		assertFalse(availableSlots.containsTaskManager(resource1));
 	}
 
+	@Test
+	public void testPollPreferredAllocation() {
+		SlotPool.AvailableSlots availableSlots = new SlotPool.AvailableSlots();
+
+		final ResourceID resource1 = new ResourceID("resource1");
+		final ResourceID resource2 = new ResourceID("resource2");
+
+		final AllocatedSlot slot1 = createAllocatedSlot(resource1);
+		final AllocatedSlot slot2 = createAllocatedSlot(resource2);
+		final AllocatedSlot slot3 = createAllocatedSlot(resource2);
+
+		availableSlots.add(slot1, 1L);
+		availableSlots.add(slot2, 2L);
+		availableSlots.add(slot3, 3L);
+
+		// the preferred allocation takes precedence over the location preferences
+		SlotAndLocality slotAndLocality = availableSlots.poll(
+			DEFAULT_TESTING_PROFILE,
+			slot3.getSlotAllocationId(),
+			Collections.singleton(slot1.getTaskManagerLocation()));
+
+		assertEquals(slot3, slotAndLocality.slot());
+		assertEquals(Locality.LOCAL, slotAndLocality.locality());
+		assertFalse(availableSlots.contains(slot3.getSlotAllocationId()));
+
+		// fall back to the location preferences if the preferred allocation is not available
+		slotAndLocality = availableSlots.poll(
+			DEFAULT_TESTING_PROFILE,
+			slot3.getSlotAllocationId(),
+			Collections.singleton(slot1.getTaskManagerLocation()));
+
+		assertEquals(slot1, slotAndLocality.slot());
+		assertEquals(Locality.LOCAL, slotAndLocality.locality());
+		assertEquals(1, availableSlots.size());
+	}
+
 	static AllocatedSlot createAllocatedSlot(final ResourceID resourceId) {
 		TaskManagerLocation mockTaskManagerLocation = mock(TaskManagerLocation.class);
 		when(mockTaskManagerLocation.getResourceID()).thenReturn(resourceId);
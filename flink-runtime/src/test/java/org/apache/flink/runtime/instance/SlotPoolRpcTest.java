@@ -83,7 +83,7 @@ public class SlotPoolRpcTest extends TestLogger {
 		);
 		pool.start(JobMasterId.generate(), "foobar");
 
-		CompletableFuture<SimpleSlot> future = pool.allocateSlot(mock(ScheduledUnit.class), DEFAULT_TESTING_PROFILE, null, Time.days(1));
+		CompletableFuture<SimpleSlot> future = pool.allocateSlot(mock(ScheduledUnit.class), DEFAULT_TESTING_PROFILE, null, null, Time.days(1));
 
 		try {
 			future.get(4, TimeUnit.SECONDS);
@@ -370,4 +370,64 @@ public class ChannelViewsTest
 		this.memoryManager.release(inView.close());
 		reader.deleteChannel();
 	}
+
+	@Test
+	public void testWriteReadWithBatchedReadAhead() throws Exception
+	{
+		final TestData.TupleGenerator generator = new TestData.TupleGenerator(SEED, KEY_MAX, VALUE_SHORT_LENGTH, KeyMode.RANDOM, ValueMode.RANDOM_LENGTH);
+		final FileIOChannel.ID channel = this.ioManager.createChannel();
+		final TypeSerializer<Tuple2<Integer, String>> serializer = TestData.getIntStringTupleSerializer();
+		
+		// create the writer output view
+		List<MemorySegment> memory = this.memoryManager.allocatePages(this.parentTask, NUM_MEMORY_SEGMENTS);
+		final BlockChannelWriter<MemorySegment> writer = this.ioManager.createBlockChannelWriter(channel);
+		final ChannelWriterOutputView outView = new ChannelWriterOutputView(writer, memory, MEMORY_PAGE_SIZE);
+		
+		// write a number of pairs
+		final Tuple2<Integer, String> rec = new Tuple2<>();
+		for (int i = 0; i < NUM_PAIRS_SHORT; i++) {
+			generator.next(rec);
+			serializer.serialize(rec, outView);
+		}
+		this.memoryManager.release(outView.close());
+		
+		// read all records with an unknown block count and a read-ahead of several segments per request batch
+		for (int numSegments : new int[] {2, 5, 8}) {
+			memory = this.memoryManager.allocatePages(this.parentTask, numSegments);
+			final BlockChannelReader<MemorySegment> reader = this.ioManager.createBlockChannelReader(channel);
+			final ChannelReaderInputView inView = new ChannelReaderInputView(reader, memory, true);
+			generator.reset();
+			
+			final Tuple2<Integer, String> readRec = new Tuple2<>();
+			for (int i = 0; i < NUM_PAIRS_SHORT; i++) {
+				generator.next(rec);
+				serializer.deserialize(readRec, inView);
+				
+				Assert.assertTrue("The re-generated and the read record do not match.",
+					rec.f0.equals(readRec.f0) && rec.f1.equals(readRec.f1));
+			}
+			
+			final List<MemorySegment> returned = inView.close();
+			Assert.assertEquals("Segments of collected read requests were not returned.", numSegments, returned.size());
+			this.memoryManager.release(returned);
+		}
+		
+		// stop reading in the middle of the channel, while read requests are collected
+		memory = this.memoryManager.allocatePages(this.parentTask, 8);
+		final BlockChannelReader<MemorySegment> reader = this.ioManager.createBlockChannelReader(channel);
+		final ChannelReaderInputView inView = new ChannelReaderInputView(reader, memory, outView.getBlockCount(), true);
+		generator.reset();
+		
+		final Tuple2<Integer, String> readRec = new Tuple2<>();
+		for (int i = 0; i < NUM_PAIRS_SHORT / 3; i++) {
+			generator.next(rec);
+			serializer.deserialize(readRec, inView);
+			
+			Assert.assertTrue("The re-generated and the read record do not match.",
+				rec.f0.equals(readRec.f0) && rec.f1.equals(readRec.f1));
+		}
+		
+		this.memoryManager.release(inView.close());
+		reader.deleteChannel();
+	}
 }
@@ -20,19 +20,28 @@ package org.apache.flink.runtime.io.disk.iomanager;
 
 import org.apache.flink.core.memory.MemorySegment;
 import org.apache.flink.core.memory.MemorySegmentFactory;
+import org.apache.flink.core.testutils.OneShotLatch;
 import org.junit.After;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 public class IOManagerAsyncTest {
+
+	@Rule
+	public final TemporaryFolder temporaryFolder = new TemporaryFolder();
 	
 	private IOManagerAsync ioManager;
 	
@@ -347,6 +356,93 @@ public class IOManagerAsyncTest {
 		}
 	}
 
+	@Test
+	public void testChannelPlacementAvoidsBusyDirectories() throws Exception {
+		final File tempPath = temporaryFolder.newFolder();
+		final IOManagerAsync ioMan = new IOManagerAsync(new String[] {
+				new File(tempPath, "a").getAbsolutePath(),
+				new File(tempPath, "b").getAbsolutePath(),
+				new File(tempPath, "c").getAbsolutePath()});
+
+		final OneShotLatch readStarted = new OneShotLatch();
+		final OneShotLatch readReleased = new OneShotLatch();
+		try {
+			final ReadRequest blockingRequest = new ReadRequest() {
+				@Override
+				public void read() throws IOException {
+					readStarted.trigger();
+					try {
+						readReleased.await();
+					}
+					catch (InterruptedException e) {
+						throw new IOException(e);
+					}
+				}
+
+				@Override
+				public void requestDone(IOException ioex) {}
+			};
+
+			// block the reader thread of one directory and queue another request behind it
+			final FileIOChannel.ID busyChannel = ioMan.createChannel();
+			final int busyPathNum = busyChannel.getThreadNum();
+			final RequestQueue<ReadRequest> busyQueue = ioMan.getReadRequestQueue(busyChannel);
+			busyQueue.add(blockingRequest);
+			readStarted.await();
+			busyQueue.add(blockingRequest);
+			assertEquals(1, ioMan.getReadQueueLength(busyPathNum));
+
+			final FileIOChannel.Enumerator enumerator = ioMan.createChannelEnumerator();
+			for (int i = 0; i < 10; i++) {
+				assertNotEquals(busyPathNum, ioMan.createChannel().getThreadNum());
+				assertNotEquals(busyPathNum, enumerator.next().getThreadNum());
+			}
+
+			readReleased.trigger();
+			while (ioMan.getNumReadRequests(busyPathNum) < 2) {
+				Thread.sleep(10);
+			}
+			assertEquals(0, ioMan.getReadQueueLength(busyPathNum));
+		}
+		finally {
+			readReleased.trigger();
+			ioMan.shutdown();
+		}
+	}
+
+	@Test
+	public void channelReadWriteWithMultipleThreadsPerDirectory() throws Exception {
+		final int NUM_IOS = 100;
+
+		final IOManagerAsync ioMan = new IOManagerAsync(
+				new String[] {temporaryFolder.newFolder().getAbsolutePath()}, 3);
+		try {
+			final FileIOChannel.ID channelID = ioMan.createChannel();
+			final BlockChannelWriter<MemorySegment> writer = ioMan.createBlockChannelWriter(channelID);
+
+			MemorySegment memSeg = MemorySegmentFactory.allocateUnpooledSegment(4 * 1024);
+			for (int i = 0; i < NUM_IOS; i++) {
+				memSeg.putInt(0, i);
+				writer.writeBlock(memSeg);
+				memSeg = writer.getNextReturnedBlock();
+			}
+			writer.close();
+			assertEquals(NUM_IOS, ioMan.getNumWriteRequests(0));
+
+			final BlockChannelReader<MemorySegment> reader = ioMan.createBlockChannelReader(channelID);
+			for (int i = 0; i < NUM_IOS; i++) {
+				reader.readBlock(memSeg);
+				memSeg = reader.getNextReturnedBlock();
+				assertEquals(i, memSeg.getInt(0));
+			}
+			reader.closeAndDelete();
+			assertEquals(NUM_IOS, ioMan.getNumReadRequests(0));
+		}
+		finally {
+			ioMan.shutdown();
+		}
+		assertTrue("IO Manager has not properly shut down.", ioMan.isProperlyShutDown());
+	}
 	
 	
 	final class TestIOException extends IOException {
@@ -19,7 +19,10 @@
 package org.apache.flink.runtime.io.network.partition;
 
 import org.apache.flink.core.memory.MemorySegment;
+import org.apache.flink.runtime.checkpoint.CheckpointOptions;
 import org.apache.flink.runtime.event.AbstractEvent;
+import org.apache.flink.runtime.io.network.api.CheckpointBarrier;
+import org.apache.flink.runtime.io.network.api.serialization.EventSerializer;
 import org.apache.flink.runtime.io.network.buffer.Buffer;
 import org.apache.flink.runtime.io.network.buffer.BufferProvider;
 import org.apache.flink.runtime.io.network.partition.consumer.BufferOrEvent;
@@ -31,9 +34,11 @@ import org.apache.flink.runtime.io.network.util.TestSubpartitionProducer;
 import org.junit.AfterClass;
 import org.junit.Test;
 
+import java.io.IOException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.apache.flink.runtime.io.network.util.TestBufferFactory.createBuffer;
 import static org.junit.Assert.assertEquals;
@@ -154,6 +159,158 @@ public class PipelinedSubpartitionTest extends SubpartitionTestBase {
 		verify(subpartition, times(2)).isReleased();
 	}
 
+	@Test
+	public void testReplayToNewConsumerAfterRelease() throws Exception {
+		final PipelinedSubpartition subpartition = createSubpartitionRetainingBuffers(Long.MAX_VALUE);
+
+		subpartition.add(createBuffer());
+		subpartition.add(createBuffer());
+		subpartition.add(createBuffer());
+
+		// the first consumer reads two buffers and fails
+		ResultSubpartitionView view = subpartition.createReadView(mock(BufferAvailabilityListener.class));
+		assertNotNull(view.getNextBuffer());
+		assertNotNull(view.getNextBuffer());
+		view.releaseAllResources();
+
+		assertFalse(subpartition.isReleased());
+		assertNull(view.getNextBuffer());
+
+		// the new consumer did not restore a checkpoint and gets the consumed and the remaining buffers
+		BufferAvailabilityListener listener = mock(BufferAvailabilityListener.class);
+		view = subpartition.createReadView(listener, -1L);
+		verify(listener, times(1)).notifyBuffersAvailable(eq(3L));
+
+		assertNotNull(view.getNextBuffer());
+		assertNotNull(view.getNextBuffer());
+		assertNotNull(view.getNextBuffer());
+		assertNull(view.getNextBuffer());
+	}
+
+	@Test
+	public void testRetainedBuffersDroppedOnCheckpointComplete() throws Exception {
+		final PipelinedSubpartition subpartition = createSubpartitionRetainingBuffers(Long.MAX_VALUE);
+
+		subpartition.add(createBuffer());
+		subpartition.add(createBarrier(1L));
+		subpartition.add(createBuffer());
+		subpartition.add(createBuffer());
+
+		ResultSubpartitionView view = subpartition.createReadView(mock(BufferAvailabilityListener.class));
+		for (int i = 0; i < 4; i++) {
+			assertNotNull(view.getNextBuffer());
+		}
+
+		// only the buffers after the barrier of the completed checkpoint are replayed, without the barrier
+		subpartition.notifyCheckpointComplete(1L);
+		view.releaseAllResources();
+
+		view = subpartition.createReadView(mock(BufferAvailabilityListener.class), 1L);
+		assertTrue(view.getNextBuffer().isBuffer());
+		assertTrue(view.getNextBuffer().isBuffer());
+		assertNull(view.getNextBuffer());
+	}
+
+	@Test
+	public void testNoReplayAfterExceedingRetentionLimit() throws Exception {
+		final PipelinedSubpartition subpartition = createSubpartitionRetainingBuffers(createBuffer().getSize());
+
+		subpartition.add(createBuffer());
+		subpartition.add(createBuffer());
+		subpartition.add(createBarrier(1L));
+		subpartition.add(createBuffer());
+
+		ResultSubpartitionView view = subpartition.createReadView(mock(BufferAvailabilityListener.class));
+		for (int i = 0; i < 4; i++) {
+			assertNotNull(view.getNextBuffer());
+		}
+		view.releaseAllResources();
+
+		// the buffers before the barrier have been dropped
+		try {
+			subpartition.createReadView(mock(BufferAvailabilityListener.class), -1L);
+			fail("Did not throw expected exception when replaying incomplete data.");
+		} catch (IOException expected) {
+		}
+
+		// the data since the barrier can be replayed
+		view = subpartition.createReadView(mock(BufferAvailabilityListener.class), 1L);
+		assertTrue(view.getNextBuffer().isBuffer());
+		assertNull(view.getNextBuffer());
+	}
+
+	/**
+	 * Tests that the replay starts exactly after the barrier of the checkpoint restored by the new
+	 * consumer, even if the producer has not been notified about that checkpoint yet.
+	 */
+	@Test
+	public void testReplayFromRestoredCheckpointBeforeNotification() throws Exception {
+		final PipelinedSubpartition subpartition = createSubpartitionRetainingBuffers(Long.MAX_VALUE);
+
+		subpartition.add(createBuffer());
+		subpartition.add(createBarrier(1L));
+		subpartition.add(createBuffer());
+		subpartition.add(createBarrier(2L));
+		subpartition.add(createBuffer());
+
+		ResultSubpartitionView view = subpartition.createReadView(mock(BufferAvailabilityListener.class));
+		for (int i = 0; i < 5; i++) {
+			assertNotNull(view.getNextBuffer());
+		}
+		view.releaseAllResources();
+
+		view = subpartition.createReadView(mock(BufferAvailabilityListener.class), 2L);
+		assertTrue(view.getNextBuffer().isBuffer());
+		assertNull(view.getNextBuffer());
+	}
+
+	/**
+	 * Tests that a subpartition is not replayed from a checkpoint whose data has been dropped
+	 * already, and that a new consumer must request the replay.
+	 */
+	@Test
+	public void testNoReplayFromDroppedCheckpoint() throws Exception {
+		final PipelinedSubpartition subpartition = createSubpartitionRetainingBuffers(Long.MAX_VALUE);
+
+		subpartition.add(createBarrier(1L));
+		subpartition.add(createBuffer());
+		subpartition.add(createBarrier(2L));
+		subpartition.add(createBuffer());
+
+		ResultSubpartitionView view = subpartition.createReadView(mock(BufferAvailabilityListener.class));
+		for (int i = 0; i < 4; i++) {
+			assertNotNull(view.getNextBuffer());
+		}
+
+		subpartition.notifyCheckpointComplete(2L);
+		view.releaseAllResources();
+
+		try {
+			subpartition.createReadView(mock(BufferAvailabilityListener.class), 1L);
+			fail("Did not throw expected exception when replaying from a dropped checkpoint.");
+		} catch (IOException expected) {
+		}
+
+		try {
+			subpartition.createReadView(mock(BufferAvailabilityListener.class));
+			fail("Did not throw expected exception when consuming again without replay.");
+		} catch (IOException expected) {
+		}
+
+		view = subpartition.createReadView(mock(BufferAvailabilityListener.class), 2L);
+		assertTrue(view.getNextBuffer().isBuffer());
+		assertNull(view.getNextBuffer());
+	}
+
+	private static PipelinedSubpartition createSubpartitionRetainingBuffers(long maxRetainedBytes) {
+		return new PipelinedSubpartition(0, mock(ResultPartition.class),
+			new RetainedInFlightBuffers(new AtomicLong(), maxRetainedBytes));
+	}
+
+	private static Buffer createBarrier(long checkpointId) throws IOException {
+		return EventSerializer.toBuffer(new CheckpointBarrier(checkpointId, 0L, CheckpointOptions.forFullCheckpoint()));
+	}
+
 	private void testProduceConsume(boolean isSlowProducer, boolean isSlowConsumer) throws Exception {
 		// Config
 		final int producerBufferPoolSize = 8;
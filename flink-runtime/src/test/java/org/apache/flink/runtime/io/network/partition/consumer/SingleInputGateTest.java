@@ -177,6 +177,44 @@ public class SingleInputGateTest {
 		verify(taskEventDispatcher, times(2)).publish(any(ResultPartitionID.class), any(TaskEvent.class));
 	}
 
+	/**
+	 * Tests that task events which are sent before the partitions are requested are sent to the
+	 * producers with the partition requests, and that optional events may not reach their producer.
+	 */
+	@Test
+	public void testBackwardsEventBeforeRequest() throws Exception {
+		// The producer has already finished
+		final TaskEventDispatcher taskEventDispatcher = mock(TaskEventDispatcher.class);
+		when(taskEventDispatcher.publish(any(ResultPartitionID.class), any(TaskEvent.class))).thenReturn(false);
+
+		final ResultPartitionManager partitionManager = mock(ResultPartitionManager.class);
+		when(partitionManager.createSubpartitionView(
+			any(ResultPartitionID.class),
+			anyInt(),
+			any(BufferAvailabilityListener.class))).thenReturn(mock(ResultSubpartitionView.class));
+
+		final SingleInputGate inputGate = new SingleInputGate(
+			"Test Task Name", new JobID(),
+			new IntermediateDataSetID(), ResultPartitionType.PIPELINED,
+			0, 1,
+			mock(TaskActions.class),
+			new UnregisteredTaskMetricsGroup.DummyTaskIOMetricGroup());
+
+		final BufferPool bufferPool = mock(BufferPool.class);
+		when(bufferPool.getNumberOfRequiredMemorySegments()).thenReturn(1);
+		inputGate.setBufferPool(bufferPool);
+
+		final ResultPartitionID partitionId = new ResultPartitionID();
+		inputGate.setInputChannel(partitionId.getPartitionId(), new LocalInputChannel(
+			inputGate, 0, partitionId, partitionManager, taskEventDispatcher, new UnregisteredTaskMetricsGroup.DummyTaskIOMetricGroup()));
+
+		inputGate.sendTaskEvent(new OptionalTaskEvent());
+		verify(taskEventDispatcher, never()).publish(any(ResultPartitionID.class), any(TaskEvent.class));
+
+		inputGate.requestPartitions();
+		verify(taskEventDispatcher, times(1)).publish(any(ResultPartitionID.class), any(OptionalTaskEvent.class));
+	}
+
 	/**
 	 * Tests that an update channel does not trigger a partition request before the UDF has
 	 * requested any partitions. Otherwise, this can lead to races when registering a listener at
@@ -383,4 +421,12 @@ public class SingleInputGateTest {
 		assertEquals(isBuffer, boe.isBuffer());
 		assertEquals(channelIndex, boe.getChannelIndex());
 	}
+
+	private static class OptionalTaskEvent extends TestTaskEvent {
+
+		@Override
+		public boolean isOptional() {
+			return true;
+		}
+	}
 }
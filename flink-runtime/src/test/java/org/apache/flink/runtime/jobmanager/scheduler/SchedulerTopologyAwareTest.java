@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.jobmanager.scheduler;
+
+import org.apache.flink.runtime.clusterframework.types.ResourceID;
+import org.apache.flink.runtime.instance.Instance;
+import org.apache.flink.runtime.instance.SimpleSlot;
+import org.apache.flink.runtime.taskmanager.TaskManagerLocation;
+import org.apache.flink.runtime.testingUtils.TestingUtils;
+import org.apache.flink.util.TestLogger;
+
+import org.junit.Test;
+
+import static org.apache.flink.runtime.jobmanager.scheduler.SchedulerTestUtils.getDummyTask;
+import static org.apache.flink.runtime.jobmanager.scheduler.SchedulerTestUtils.getRandomInstance;
+import static org.apache.flink.runtime.jobmanager.scheduler.SchedulerTestUtils.getTestVertex;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for the {@link Scheduler} when placing tasks topology aware.
+ */
+public class SchedulerTopologyAwareTest extends TestLogger {
+
+	@Test
+	public void testPreferInstanceOnSameHost() throws Exception {
+		Instance i1 = getRandomInstance(1);
+		Instance i2 = getRandomInstance(1);
+
+		// a location on the same host as the instances, whose TaskManager has no slots left
+		TaskManagerLocation preferred = new TaskManagerLocation(
+				ResourceID.generate(), i1.getTaskManagerLocation().address(), 54321);
+
+		Scheduler topologyAware = new Scheduler(TestingUtils.directExecutionContext(), true);
+		topologyAware.newInstanceAvailable(i1);
+
+		SimpleSlot slot = topologyAware.allocateSlot(new ScheduledUnit(getTestVertex(preferred)), false).get();
+		assertEquals(Locality.HOST_LOCAL, slot.getLocality());
+		assertEquals(1, topologyAware.getNumberOfHostLocalizedAssignments());
+
+		// the default scheduler does not consider the host
+		Scheduler scheduler = new Scheduler(TestingUtils.directExecutionContext());
+		scheduler.newInstanceAvailable(i2);
+
+		slot = scheduler.allocateSlot(new ScheduledUnit(getTestVertex(preferred)), false).get();
+		assertEquals(Locality.NON_LOCAL, slot.getLocality());
+		assertEquals(0, scheduler.getNumberOfHostLocalizedAssignments());
+	}
+
+	@Test
+	public void testSpreadUnconstrainedTasks() throws Exception {
+		Instance small = getRandomInstance(1);
+		Instance large = getRandomInstance(3);
+
+		Scheduler scheduler = new Scheduler(TestingUtils.directExecutionContext(), true);
+		scheduler.newInstanceAvailable(small);
+		scheduler.newInstanceAvailable(large);
+
+		// the first two tasks go to the instance with the most free slots, after that both
+		// instances have one free slot
+		SimpleSlot s1 = scheduler.allocateSlot(new ScheduledUnit(getDummyTask()), false).get();
+		SimpleSlot s2 = scheduler.allocateSlot(new ScheduledUnit(getDummyTask()), false).get();
+		assertEquals(large.getTaskManagerID(), s1.getTaskManagerID());
+		assertEquals(large.getTaskManagerID(), s2.getTaskManagerID());
+		assertEquals(1, small.getNumberOfAvailableSlots());
+		assertEquals(1, large.getNumberOfAvailableSlots());
+
+		SimpleSlot s3 = scheduler.allocateSlot(new ScheduledUnit(getDummyTask()), false).get();
+		SimpleSlot s4 = scheduler.allocateSlot(new ScheduledUnit(getDummyTask()), false).get();
+		assertEquals(Locality.UNCONSTRAINED, s3.getLocality());
+		assertEquals(Locality.UNCONSTRAINED, s4.getLocality());
+		assertEquals(0, small.getNumberOfAvailableSlots());
+		assertEquals(0, large.getNumberOfAvailableSlots());
+		assertEquals(4, scheduler.getNumberOfUnconstrainedAssignments());
+	}
+}
@@ -19,31 +19,57 @@
 package org.apache.flink.runtime.jobmaster;
 
 import org.apache.flink.api.common.JobID;
+import org.apache.flink.api.common.io.DefaultInputSplitAssigner;
 import org.apache.flink.api.common.time.Time;
 import org.apache.flink.configuration.Configuration;
+import org.apache.flink.configuration.CoreOptions;
+import org.apache.flink.core.io.GenericInputSplit;
+import org.apache.flink.core.io.InputSplitAssigner;
+import org.apache.flink.core.io.InputSplitSource;
 import org.apache.flink.runtime.blob.BlobServer;
+import org.apache.flink.runtime.checkpoint.CheckpointMetrics;
 import org.apache.flink.runtime.checkpoint.CheckpointRecoveryFactory;
+import org.apache.flink.runtime.checkpoint.StandaloneCheckpointRecoveryFactory;
+import org.apache.flink.runtime.clusterframework.types.AllocationID;
 import org.apache.flink.runtime.clusterframework.types.ResourceID;
+import org.apache.flink.runtime.clusterframework.types.ResourceProfile;
 import org.apache.flink.runtime.concurrent.ScheduledExecutor;
+import org.apache.flink.runtime.deployment.TaskDeploymentDescriptor;
+import org.apache.flink.runtime.execution.ExecutionState;
 import org.apache.flink.runtime.execution.librarycache.BlobLibraryCacheManager;
 import org.apache.flink.runtime.execution.librarycache.FlinkUserCodeClassLoader;
+import org.apache.flink.runtime.executiongraph.ExecutionAttemptID;
+import org.apache.flink.runtime.executiongraph.TaskInformation;
+import org.apache.flink.runtime.executiongraph.restart.NoRestartStrategy;
 import org.apache.flink.runtime.executiongraph.restart.RestartStrategyFactory;
 import org.apache.flink.runtime.heartbeat.HeartbeatServices;
 import org.apache.flink.runtime.heartbeat.TestingHeartbeatServices;
 import org.apache.flink.runtime.highavailability.TestingHighAvailabilityServices;
 import org.apache.flink.runtime.jobgraph.JobGraph;
+import org.apache.flink.runtime.jobgraph.JobVertex;
+import org.apache.flink.runtime.jobgraph.JobVertexID;
+import org.apache.flink.runtime.jobgraph.tasks.ExternalizedCheckpointSettings;
+import org.apache.flink.runtime.jobgraph.tasks.JobCheckpointingSettings;
 import org.apache.flink.runtime.jobmanager.OnCompletionActions;
 import org.apache.flink.runtime.leaderelection.TestingLeaderRetrievalService;
 import org.apache.flink.runtime.messages.Acknowledge;
 import org.apache.flink.runtime.registration.RegistrationResponse;
 import org.apache.flink.runtime.resourcemanager.ResourceManagerGateway;
 import org.apache.flink.runtime.resourcemanager.ResourceManagerId;
+import org.apache.flink.runtime.resourcemanager.SlotRequest;
 import org.apache.flink.runtime.rpc.TestingRpcService;
 import org.apache.flink.runtime.taskexecutor.TaskExecutorGateway;
+import org.apache.flink.runtime.taskexecutor.slot.SlotOffer;
+import org.apache.flink.runtime.taskmanager.TaskExecutionState;
 import org.apache.flink.runtime.taskmanager.TaskManagerLocation;
+import org.apache.flink.runtime.testtasks.NoOpInvokable;
+import org.apache.flink.util.ExceptionUtils;
+import org.apache.flink.util.FlinkException;
 import org.apache.flink.runtime.util.TestingFatalErrorHandler;
 import org.apache.flink.util.TestLogger;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
 import org.powermock.core.classloader.annotations.PrepareForTest;
@@ -51,17 +77,32 @@ import org.powermock.modules.junit4.PowerMockRunner;
 
 import java.net.InetAddress;
 import java.net.URL;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.Mockito.*;
 
 @RunWith(PowerMockRunner.class)
 @PrepareForTest(BlobLibraryCacheManager.class)
 public class JobMasterTest extends TestLogger {
 
+	@Rule
+	public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
 	private final Time testingTimeout = Time.seconds(10L);
 
 	@Test
@@ -242,5 +283,295 @@ public class JobMasterTest extends TestLogger {
 		}
 	}
 
+	/**
+	 * Tests that a rescaling request is rejected if the operators cannot run with the new
+	 * parallelism or the job cannot take a savepoint.
+	 */
+	@Test
+	public void testRescalingPreconditions() throws Exception {
+		final TestingHighAvailabilityServices haServices = new TestingHighAvailabilityServices();
+		haServices.setResourceManagerLeaderRetriever(new TestingLeaderRetrievalService(null, null));
+		haServices.setCheckpointRecoveryFactory(mock(CheckpointRecoveryFactory.class));
+
+		final JobVertex vertex = new JobVertex("vertex");
+		vertex.setInvokableClass(NoOpInvokable.class);
+		vertex.setParallelism(1);
+		vertex.setMaxParallelism(4);
+
+		final JobGraph jobGraph = new JobGraph(vertex);
+
+		final TestingRpcService rpc = new TestingRpcService();
+		final ScheduledExecutorService executor = Executors.newScheduledThreadPool(1);
+		final TestingFatalErrorHandler testingFatalErrorHandler = new TestingFatalErrorHandler();
+
+		try {
+			final JobMaster jobMaster = new JobMaster(
+				rpc,
+				new ResourceID("jm"),
+				jobGraph,
+				new Configuration(),
+				haServices,
+				new TestingHeartbeatServices(1L, 5L, mock(ScheduledExecutor.class)),
+				executor,
+				mock(BlobServer.class),
+				mock(BlobLibraryCacheManager.class),
+				new NoRestartStrategy.NoRestartStrategyFactory(),
+				testingTimeout,
+				null,
+				mock(OnCompletionActions.class),
+				testingFatalErrorHandler,
+				new FlinkUserCodeClassLoader(new URL[0]));
+
+			jobMaster.start(JobMasterId.generate(), testingTimeout)
+				.get(testingTimeout.toMilliseconds(), TimeUnit.MILLISECONDS);
+
+			final JobMasterGateway jobMasterGateway = jobMaster.getSelfGateway(JobMasterGateway.class);
+
+			// the max parallelism bounds the new parallelism
+			assertRescalingFails(jobMasterGateway.rescaleJob(8, testingTimeout), "max parallelism");
+
+			// the job does not have checkpointing enabled
+			assertRescalingFails(jobMasterGateway.rescaleJob(2, testingTimeout), "checkpointing");
+
+			testingFatalErrorHandler.rethrowError();
+		} finally {
+			rpc.stopService();
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Tests that rescaling a running job takes a savepoint, cancels its tasks and deploys them again
+	 * with the new parallelism, without modifying the submitted job graph.
+	 */
+	@Test
+	public void testRescaling() throws Exception {
+		final JobVertex vertex = new JobVertex("vertex");
+		vertex.setInvokableClass(NoOpInvokable.class);
+		vertex.setParallelism(1);
+		vertex.setMaxParallelism(4);
+
+		testRescaling(vertex, 2, 2, null);
+	}
+
+	/**
+	 * Tests that the job resumes with its previous parallelism if it cannot be restored with the
+	 * new parallelism.
+	 */
+	@Test
+	public void testRescalingFallsBackToPreviousParallelism() throws Exception {
+		final JobVertex vertex = new JobVertex("vertex");
+		vertex.setInvokableClass(NoOpInvokable.class);
+		vertex.setParallelism(1);
+		vertex.setMaxParallelism(4);
+		vertex.setInputSplitSource(new SingleSplitInputSplitSource());
+
+		testRescaling(vertex, 2, 1, "previous parallelism");
+	}
+
+	/**
+	 * Runs the given single vertex job with parallelism 1, rescales it and checks the parallelism
+	 * with which its tasks are deployed afterwards.
+	 */
+	private void testRescaling(
+			JobVertex vertex,
+			int newParallelism,
+			int expectedParallelism,
+			String expectedFailure) throws Exception {
+
+		final String resourceManagerAddress = "rm";
+		final ResourceManagerId resourceManagerId = ResourceManagerId.generate();
+		final String taskManagerAddress = "tm";
+		final ResourceID tmResourceId = new ResourceID(taskManagerAddress);
+		final TaskManagerLocation taskManagerLocation = new TaskManagerLocation(tmResourceId, InetAddress.getLoopbackAddress(), 1234);
+
+		final JobGraph jobGraph = new JobGraph(vertex);
+		jobGraph.setAllowQueuedScheduling(true);
+		final JobID jobId = jobGraph.getJobID();
+		final List<JobVertexID> vertexIds = Collections.singletonList(vertex.getID());
+		jobGraph.setSnapshotSettings(new JobCheckpointingSettings(
+			vertexIds,
+			vertexIds,
+			vertexIds,
+			3600000L,
+			3600000L,
+			0L,
+			1,
+			ExternalizedCheckpointSettings.none(),
+			null,
+			true));
+
+		final Configuration configuration = new Configuration();
+		configuration.setString(CoreOptions.SAVEPOINT_DIRECTORY, temporaryFolder.newFolder().toURI().toString());
+
+		// the heartbeats must not time out while the job is being rescaled
+		final long heartbeatInterval = 1000L;
+		final long heartbeatTimeout = 60000L;
+
+		final TestingLeaderRetrievalService rmLeaderRetrievalService = new TestingLeaderRetrievalService(null, null);
+		final TestingHighAvailabilityServices haServices = new TestingHighAvailabilityServices();
+		haServices.setResourceManagerLeaderRetriever(rmLeaderRetrievalService);
+		haServices.setCheckpointRecoveryFactory(new StandaloneCheckpointRecoveryFactory());
+
+		final ResourceManagerGateway resourceManagerGateway = mock(ResourceManagerGateway.class);
+		when(resourceManagerGateway.registerJobManager(
+			any(JobMasterId.class),
+			any(ResourceID.class),
+			anyString(),
+			any(JobID.class),
+			any(Time.class)
+		)).thenReturn(CompletableFuture.completedFuture(new JobMasterRegistrationSuccess(
+			heartbeatInterval, resourceManagerId, new ResourceID(resourceManagerAddress))));
+		when(resourceManagerGateway.requestSlot(any(JobMasterId.class), any(SlotRequest.class), any(Time.class)))
+			.thenReturn(CompletableFuture.completedFuture(Acknowledge.get()));
+
+		final BlockingQueue<TaskDeploymentDescriptor> submittedTasks = new ArrayBlockingQueue<>(16);
+		final BlockingQueue<ExecutionAttemptID> canceledTasks = new ArrayBlockingQueue<>(16);
+		final TaskExecutorGateway taskExecutorGateway = mock(TaskExecutorGateway.class);
+		doAnswer(invocation -> {
+			submittedTasks.add((TaskDeploymentDescriptor) invocation.getArguments()[0]);
+			return CompletableFuture.completedFuture(Acknowledge.get());
+		}).when(taskExecutorGateway).submitTask(any(TaskDeploymentDescriptor.class), any(JobMasterId.class), any(Time.class));
+		doAnswer(invocation -> {
+			@SuppressWarnings("unchecked")
+			final Collection<TaskDeploymentDescriptor> tdds = (Collection<TaskDeploymentDescriptor>) invocation.getArguments()[0];
+			submittedTasks.addAll(tdds);
+			return CompletableFuture.completedFuture(Collections.emptyMap());
+		}).when(taskExecutorGateway).submitTasks(anyCollection(), any(JobMasterId.class), any(Time.class));
+		doAnswer(invocation -> {
+			canceledTasks.add((ExecutionAttemptID) invocation.getArguments()[0]);
+			return CompletableFuture.completedFuture(Acknowledge.get());
+		}).when(taskExecutorGateway).cancelTask(any(ExecutionAttemptID.class), any(Time.class));
+
+		final TestingRpcService rpc = new TestingRpcService();
+		rpc.registerGateway(resourceManagerAddress, resourceManagerGateway);
+		rpc.registerGateway(taskManagerAddress, taskExecutorGateway);
+
+		final BlobServer blobServer = mock(BlobServer.class);
+		when(blobServer.getPort()).thenReturn(1337);
+
+		final ScheduledExecutorService executor = Executors.newScheduledThreadPool(1);
+		final TestingFatalErrorHandler testingFatalErrorHandler = new TestingFatalErrorHandler();
+
+		try {
+			final JobMaster jobMaster = new JobMaster(
+				rpc,
+				new ResourceID("jm"),
+				jobGraph,
+				configuration,
+				haServices,
+				new TestingHeartbeatServices(heartbeatInterval, heartbeatTimeout, mock(ScheduledExecutor.class)),
+				executor,
+				blobServer,
+				mock(BlobLibraryCacheManager.class),
+				new NoRestartStrategy.NoRestartStrategyFactory(),
+				testingTimeout,
+				null,
+				mock(OnCompletionActions.class),
+				testingFatalErrorHandler,
+				new FlinkUserCodeClassLoader(new URL[0]));
+
+			jobMaster.start(JobMasterId.generate(), testingTimeout)
+				.get(testingTimeout.toMilliseconds(), TimeUnit.MILLISECONDS);
+
+			final JobMasterGateway jobMasterGateway = jobMaster.getSelfGateway(JobMasterGateway.class);
+
+			// the slot for the scheduled task is requested once the resource manager is known
+			rmLeaderRetrievalService.notifyListener(resourceManagerAddress, resourceManagerId.toUUID());
+
+			final ArgumentCaptor<SlotRequest> slotRequestCaptor = ArgumentCaptor.forClass(SlotRequest.class);
+			verify(resourceManagerGateway, timeout(testingTimeout.toMilliseconds())).requestSlot(
+				any(JobMasterId.class), slotRequestCaptor.capture(), any(Time.class));
+
+			jobMasterGateway.registerTaskManager(taskManagerAddress, taskManagerLocation, testingTimeout)
+				.get(testingTimeout.toMilliseconds(), TimeUnit.MILLISECONDS);
+
+			// the second slot stays available for the rescaled job
+			jobMasterGateway.offerSlots(
+				tmResourceId,
+				Arrays.asList(
+					new SlotOffer(slotRequestCaptor.getValue().getAllocationId(), 0, ResourceProfile.UNKNOWN),
+					new SlotOffer(new AllocationID(), 1, ResourceProfile.UNKNOWN)),
+				testingTimeout).get(testingTimeout.toMilliseconds(), TimeUnit.MILLISECONDS);
+
+			final TaskDeploymentDescriptor deployedTask = pollSubmittedTask(submittedTasks, 1);
+			final ExecutionAttemptID attemptId = deployedTask.getExecutionAttemptId();
+
+			jobMasterGateway.updateTaskExecutionState(new TaskExecutionState(jobId, attemptId, ExecutionState.RUNNING))
+				.get(testingTimeout.toMilliseconds(), TimeUnit.MILLISECONDS);
+
+			final CompletableFuture<Acknowledge> rescalingFuture = jobMasterGateway.rescaleJob(newParallelism, testingTimeout);
+
+			// the savepoint for the rescaling is the first checkpoint of the job
+			jobMasterGateway.acknowledgeCheckpoint(jobId, attemptId, 1L, new CheckpointMetrics(), null);
+
+			assertEquals(attemptId, canceledTasks.poll(testingTimeout.toMilliseconds(), TimeUnit.MILLISECONDS));
+			jobMasterGateway.updateTaskExecutionState(new TaskExecutionState(jobId, attemptId, ExecutionState.CANCELED));
+
+			for (int i = 0; i < expectedParallelism; i++) {
+				pollSubmittedTask(submittedTasks, expectedParallelism);
+			}
+
+			if (expectedFailure == null) {
+				rescalingFuture.get(testingTimeout.toMilliseconds(), TimeUnit.MILLISECONDS);
+			} else {
+				assertRescalingFails(rescalingFuture, expectedFailure);
+			}
+
+			// the rescaling works on a copy of the submitted job graph
+			assertEquals(1, vertex.getParallelism());
+
+			testingFatalErrorHandler.rethrowError();
+		} finally {
+			rpc.stopService();
+			executor.shutdownNow();
+		}
+	}
+
+	private TaskDeploymentDescriptor pollSubmittedTask(
+			BlockingQueue<TaskDeploymentDescriptor> submittedTasks,
+			int expectedParallelism) throws Exception {
+
+		final TaskDeploymentDescriptor tdd = submittedTasks.poll(testingTimeout.toMilliseconds(), TimeUnit.MILLISECONDS);
+		assertNotNull("The task has not been deployed.", tdd);
 
+		final TaskInformation taskInformation = tdd.getSerializedTaskInformation().deserializeValue(getClass().getClassLoader());
+		assertEquals(expectedParallelism, taskInformation.getNumberOfSubtasks());
+
+		return tdd;
+	}
+
+	private void assertRescalingFails(CompletableFuture<Acknowledge> rescalingFuture, String expectedMessage) throws Exception {
+		try {
+			rescalingFuture.get(testingTimeout.toMilliseconds(), TimeUnit.MILLISECONDS);
+			fail("The rescaling should have failed.");
+		} catch (ExecutionException e) {
+			final Throwable cause = ExceptionUtils.stripExecutionException(e);
+
+			assertTrue(cause instanceof FlinkException);
+			assertTrue(cause.getMessage().contains(expectedMessage));
+		}
+	}
+
+	/**
+	 * Input split source which cannot create splits for more than one subtask.
+	 */
+	private static class SingleSplitInputSplitSource implements InputSplitSource<GenericInputSplit> {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public GenericInputSplit[] createInputSplits(int minNumSplits) {
+			if (minNumSplits > 1) {
+				throw new IllegalArgumentException("Cannot create more than one split.");
+			}
+
+			return new GenericInputSplit[] { new GenericInputSplit(0, 1) };
+		}
+
+		@Override
+		public InputSplitAssigner getInputSplitAssigner(GenericInputSplit[] inputSplits) {
+			return new DefaultInputSplitAssigner(inputSplits);
+		}
+	}
 }
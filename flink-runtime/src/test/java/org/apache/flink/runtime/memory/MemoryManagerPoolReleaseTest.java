@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.memory;
+
+import org.apache.flink.core.memory.MemorySegment;
+import org.apache.flink.core.memory.MemoryType;
+import org.apache.flink.runtime.jobgraph.tasks.AbstractInvokable;
+import org.apache.flink.runtime.operators.testutils.DummyInvokable;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for the memory manager, in the mode where it allocates memory lazily and pools released memory.
+ */
+public class MemoryManagerPoolReleaseTest {
+
+	private static final int PAGE_SIZE = 1024 * 32; // 32 KiBytes
+
+	private static final int NUM_PAGES = 64;
+
+	/** The interval is long enough to never trigger during a test, the tests release idle memory explicitly. */
+	private static final long POOL_RELEASE_INTERVAL = 60 * 60 * 1000L;
+
+	private MemoryManager memoryManager;
+
+	@Before
+	public void setUp() {
+		this.memoryManager = new MemoryManager(
+			NUM_PAGES * PAGE_SIZE, 1, PAGE_SIZE, MemoryType.HEAP, false, POOL_RELEASE_INTERVAL);
+	}
+
+	@After
+	public void tearDown() {
+		assertTrue("Memory manager is not complete empty and valid at the end of the test.",
+			this.memoryManager.verifyEmpty());
+		this.memoryManager.shutdown();
+		this.memoryManager = null;
+	}
+
+	@Test
+	public void testReleasedPagesArePooledAndReused() throws Exception {
+		final AbstractInvokable owner = new DummyInvokable();
+
+		List<MemorySegment> segments = memoryManager.allocatePages(owner, 10);
+		memoryManager.release(segments);
+
+		assertEquals(10, memoryManager.getNumberOfAllocatedPages());
+		assertEquals(10, memoryManager.getNumberOfPooledPages());
+		assertEquals(0, memoryManager.getNumberOfUsedPages());
+
+		segments = memoryManager.allocatePages(owner, 15);
+
+		assertEquals(15, memoryManager.getNumberOfAllocatedPages());
+		assertEquals(0, memoryManager.getNumberOfPooledPages());
+		assertEquals(15, memoryManager.getNumberOfUsedPages());
+		assertEquals(15, memoryManager.getNumberOfUsedPages(owner));
+
+		memoryManager.releaseAll(owner);
+
+		assertEquals(15, memoryManager.getNumberOfPooledPages());
+		assertEquals(0, memoryManager.getNumberOfUsedPages(owner));
+	}
+
+	@Test
+	public void testAllMemoryCanBeAllocatedWithPooledPages() throws Exception {
+		final AbstractInvokable owner = new DummyInvokable();
+
+		memoryManager.release(memoryManager.allocatePages(owner, NUM_PAGES / 2));
+		memoryManager.allocatePages(owner, NUM_PAGES);
+
+		assertEquals(NUM_PAGES, memoryManager.getNumberOfAllocatedPages());
+		assertEquals(NUM_PAGES, memoryManager.getNumberOfUsedPages());
+
+		memoryManager.releaseAll(owner);
+	}
+
+	@Test
+	public void testIdleMemoryIsReleasedAfterOneInterval() throws Exception {
+		final AbstractInvokable owner = new DummyInvokable();
+
+		memoryManager.release(memoryManager.allocatePages(owner, 10));
+
+		// the pages were used during this interval
+		assertEquals(0, memoryManager.releaseIdleMemory());
+		assertEquals(10, memoryManager.getNumberOfPooledPages());
+
+		// the pages were not needed during the last interval
+		assertEquals(10, memoryManager.releaseIdleMemory());
+		assertEquals(0, memoryManager.getNumberOfPooledPages());
+		assertEquals(0, memoryManager.getNumberOfAllocatedPages());
+	}
+
+	@Test
+	public void testPoolKeepsPagesOfPeakUsage() throws Exception {
+		final AbstractInvokable owner = new DummyInvokable();
+
+		List<MemorySegment> segments = memoryManager.allocatePages(owner, 10);
+		memoryManager.release(segments.subList(0, 4));
+		assertEquals(0, memoryManager.releaseIdleMemory());
+
+		// the peak of this interval is six used pages
+		memoryManager.release(memoryManager.allocatePages(owner, 2));
+		assertEquals(2, memoryManager.releaseIdleMemory());
+		assertEquals(2, memoryManager.getNumberOfPooledPages());
+		assertEquals(6, memoryManager.getNumberOfUsedPages());
+
+		// six pages were in use at peak during this interval
+		memoryManager.releaseAll(owner);
+		assertEquals(2, memoryManager.releaseIdleMemory());
+		assertEquals(6, memoryManager.releaseIdleMemory());
+	}
+
+	@Test
+	public void testPreAllocatedMemoryIsNotReleased() throws Exception {
+		MemoryManager preAllocated = new MemoryManager(
+			NUM_PAGES * PAGE_SIZE, 1, PAGE_SIZE, MemoryType.HEAP, true, POOL_RELEASE_INTERVAL);
+		try {
+			preAllocated.releaseIdleMemory();
+			assertEquals(0, preAllocated.releaseIdleMemory());
+			assertEquals(NUM_PAGES, preAllocated.getNumberOfPooledPages());
+			assertTrue(preAllocated.verifyEmpty());
+		} finally {
+			preAllocated.shutdown();
+		}
+	}
+}
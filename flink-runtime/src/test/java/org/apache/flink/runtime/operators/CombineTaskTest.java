@@ -26,6 +26,8 @@ import org.apache.flink.api.common.typeutils.TypeComparator;
 import org.apache.flink.api.common.typeutils.TypeSerializer;
 import org.apache.flink.api.common.typeutils.base.IntComparator;
 import org.apache.flink.api.common.typeutils.base.IntSerializer;
+import org.apache.flink.api.java.functions.IncrementalCombine;
+import org.apache.flink.api.java.operators.translation.WrappingFunction;
 import org.apache.flink.api.java.tuple.Tuple2;
 import org.apache.flink.api.java.typeutils.runtime.TupleComparator;
 import org.apache.flink.api.java.typeutils.runtime.TupleSerializer;
@@ -113,6 +115,175 @@ public class CombineTaskTest
 		}
 	}
 
+	@Test
+	public void testHashCombineTask() throws Exception {
+		int keyCnt = 100;
+		int valCnt = 20;
+
+		setInput(new UniformIntTupleGenerator(keyCnt, valCnt, false), serializer);
+		addDriverComparator(this.comparator);
+		addDriverComparator(this.comparator);
+		setOutput(this.outList, serializer);
+
+		getTaskConfig().setDriverStrategy(DriverStrategy.SORTED_GROUP_COMBINE);
+		getTaskConfig().setRelativeMemoryDriver(combine_frac);
+		getTaskConfig().setFilehandlesDriver(2);
+
+		final GroupReduceCombineDriver<Tuple2<Integer, Integer>, Tuple2<Integer, Integer>> testTask =
+				new GroupReduceCombineDriver<>();
+
+		testDriver(testTask, MockIncrementalCombiningReduceStub.class);
+
+		int expSum = 0;
+		for (int i = 1; i < valCnt; i++) {
+			expSum += i;
+		}
+
+		assertTrue(testTask.isHashCombining());
+		assertEquals(keyCnt, this.outList.size());
+		for (Tuple2<Integer, Integer> record : this.outList) {
+			assertEquals(expSum, record.f1.intValue());
+		}
+
+		this.outList.clear();
+	}
+
+	@Test
+	public void testHashCombineTaskWithWrappedFunction() throws Exception {
+		int keyCnt = 100;
+		int valCnt = 20;
+
+		setInput(new UniformIntTupleGenerator(keyCnt, valCnt, false), serializer);
+		addDriverComparator(this.comparator);
+		addDriverComparator(this.comparator);
+		setOutput(this.outList, serializer);
+
+		getTaskConfig().setDriverStrategy(DriverStrategy.SORTED_GROUP_COMBINE);
+		getTaskConfig().setRelativeMemoryDriver(combine_frac);
+		getTaskConfig().setFilehandlesDriver(2);
+
+		final GroupReduceCombineDriver<Tuple2<Integer, Integer>, Tuple2<Integer, Integer>> testTask =
+				new GroupReduceCombineDriver<>();
+
+		testDriver(testTask, WrappedIncrementalCombiningReduceStub.class);
+
+		assertTrue(testTask.isHashCombining());
+		assertEquals(keyCnt, this.outList.size());
+
+		this.outList.clear();
+	}
+
+	@Test
+	public void testHashCombineTaskCombinesSingleRecords() throws Exception {
+		// every key occurs only once
+		int keyCnt = 100;
+
+		setInput(new UniformIntTupleGenerator(keyCnt, 1, false), serializer);
+		addDriverComparator(this.comparator);
+		addDriverComparator(this.comparator);
+		setOutput(this.outList, serializer);
+
+		getTaskConfig().setDriverStrategy(DriverStrategy.SORTED_GROUP_COMBINE);
+		getTaskConfig().setRelativeMemoryDriver(combine_frac);
+		getTaskConfig().setFilehandlesDriver(2);
+
+		final GroupReduceCombineDriver<Tuple2<Integer, Integer>, Tuple2<Integer, Integer>> testTask =
+				new GroupReduceCombineDriver<>();
+
+		testDriver(testTask, MockIncrementalMaxStub.class);
+
+		// like the sorting combiner, the hash combiner passes single records through the combine function
+		assertTrue(testTask.isHashCombining());
+		assertEquals(keyCnt, this.outList.size());
+		for (Tuple2<Integer, Integer> record : this.outList) {
+			assertEquals(MockIncrementalMaxStub.MIN_VALUE, record.f1.intValue());
+		}
+
+		this.outList.clear();
+	}
+
+	@Test
+	public void testIncrementalCombineTaskWithSortedGroups() throws Exception {
+		int keyCnt = 100;
+		int valCnt = 20;
+
+		// the groups are sorted by their values in descending order
+		@SuppressWarnings("unchecked")
+		final TypeComparator<Tuple2<Integer, Integer>> sortingComparator = new TupleComparator<>(
+				new int[]{0, 1},
+				new TypeComparator<?>[] { new IntComparator(true), new IntComparator(false) },
+				new TypeSerializer<?>[] { IntSerializer.INSTANCE, IntSerializer.INSTANCE });
+
+		setInput(new UniformIntTupleGenerator(keyCnt, valCnt, false), serializer);
+		addDriverComparator(sortingComparator);
+		addDriverComparator(this.comparator);
+		setOutput(this.outList, serializer);
+
+		getTaskConfig().setDriverStrategy(DriverStrategy.SORTED_GROUP_COMBINE);
+		getTaskConfig().setRelativeMemoryDriver(combine_frac);
+		getTaskConfig().setFilehandlesDriver(2);
+
+		final GroupReduceCombineDriver<Tuple2<Integer, Integer>, Tuple2<Integer, Integer>> testTask =
+				new GroupReduceCombineDriver<>();
+
+		testDriver(testTask, MockIncrementalFirstValueStub.class);
+
+		// the values arrive in ascending order, but the first value of each sorted group is the largest one
+		assertFalse(testTask.isHashCombining());
+		assertEquals(keyCnt, this.outList.size());
+		for (Tuple2<Integer, Integer> record : this.outList) {
+			assertEquals(valCnt - 1, record.f1.intValue());
+		}
+
+		this.outList.clear();
+	}
+
+	@Test
+	public void testIncrementalCombineOfWrappedFunctions() {
+		assertTrue(GroupReduceCombineDriver.isIncrementalCombine(new MockIncrementalCombiningReduceStub()));
+		assertFalse(GroupReduceCombineDriver.isIncrementalCombine(new MockCombiningReduceStub()));
+
+		// wrappers of combinable reducers combine into their own input type
+		assertTrue(GroupReduceCombineDriver.isIncrementalCombine(new WrappedIncrementalCombiningReduceStub()));
+
+		// other wrappers may change the type of the combined records
+		assertFalse(GroupReduceCombineDriver.isIncrementalCombine(new WrappedIncrementalCombineStub()));
+	}
+
+	@Test
+	public void testHashCombineTaskSwitchesToSorting() throws Exception {
+		// more distinct keys than the hash table can hold
+		int keyCnt = 200000;
+		int valCnt = 2;
+
+		setInput(new UniformIntTupleGenerator(keyCnt, valCnt, false), serializer);
+		addDriverComparator(this.comparator);
+		addDriverComparator(this.comparator);
+		setOutput(this.outList, serializer);
+
+		getTaskConfig().setDriverStrategy(DriverStrategy.SORTED_GROUP_COMBINE);
+		getTaskConfig().setRelativeMemoryDriver(combine_frac);
+		getTaskConfig().setFilehandlesDriver(2);
+
+		final GroupReduceCombineDriver<Tuple2<Integer, Integer>, Tuple2<Integer, Integer>> testTask =
+				new GroupReduceCombineDriver<>();
+
+		testDriver(testTask, MockIncrementalCombiningReduceStub.class);
+
+		assertFalse(testTask.isHashCombining());
+
+		// the partial results must add up to the sum of each key
+		int[] sums = new int[keyCnt];
+		for (Tuple2<Integer, Integer> record : this.outList) {
+			sums[record.f0] += record.f1;
+		}
+		for (int sum : sums) {
+			assertEquals(1, sum);
+		}
+
+		this.outList.clear();
+	}
+
 	@Test
 	public void testFailingCombineTask() {
 		try {
@@ -227,6 +398,88 @@ public class CombineTaskTest
 		}
 	}
 	
+	@IncrementalCombine
+	public static class MockIncrementalCombiningReduceStub extends MockCombiningReduceStub {
+		private static final long serialVersionUID = 1L;
+	}
+
+	/**
+	 * Keeps the largest value of each key, but at least {@link #MIN_VALUE}.
+	 */
+	@IncrementalCombine
+	public static class MockIncrementalMaxStub implements
+		GroupCombineFunction<Tuple2<Integer, Integer>, Tuple2<Integer, Integer>>
+	{
+		private static final long serialVersionUID = 1L;
+
+		static final int MIN_VALUE = 42;
+
+		@Override
+		public void combine(Iterable<Tuple2<Integer, Integer>> records, Collector<Tuple2<Integer, Integer>> out) {
+			int key = 0;
+			int max = MIN_VALUE;
+
+			for (Tuple2<Integer, Integer> next : records) {
+				key = next.f0;
+				max = Math.max(max, next.f1);
+			}
+
+			out.collect(new Tuple2<>(key, max));
+		}
+	}
+
+	/**
+	 * Keeps the first value of each key, which depends on the order of the records in the group.
+	 */
+	@IncrementalCombine
+	public static class MockIncrementalFirstValueStub implements
+		GroupCombineFunction<Tuple2<Integer, Integer>, Tuple2<Integer, Integer>>
+	{
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public void combine(Iterable<Tuple2<Integer, Integer>> records, Collector<Tuple2<Integer, Integer>> out) {
+			final Tuple2<Integer, Integer> first = records.iterator().next();
+			out.collect(new Tuple2<>(first.f0, first.f1));
+		}
+	}
+
+	public static class WrappedIncrementalCombiningReduceStub extends WrappingFunction<MockIncrementalCombiningReduceStub>
+		implements GroupReduceFunction<Tuple2<Integer, Integer>, Tuple2<Integer, Integer>>,
+		GroupCombineFunction<Tuple2<Integer, Integer>, Tuple2<Integer, Integer>>
+	{
+		private static final long serialVersionUID = 1L;
+
+		public WrappedIncrementalCombiningReduceStub() {
+			super(new MockIncrementalCombiningReduceStub());
+		}
+
+		@Override
+		public void reduce(Iterable<Tuple2<Integer, Integer>> records, Collector<Tuple2<Integer, Integer>> out) {
+			this.wrappedFunction.reduce(records, out);
+		}
+
+		@Override
+		public void combine(Iterable<Tuple2<Integer, Integer>> records, Collector<Tuple2<Integer, Integer>> out) {
+			this.wrappedFunction.combine(records, out);
+		}
+	}
+
+	public static class WrappedIncrementalCombineStub extends WrappingFunction<MockIncrementalCombiningReduceStub>
+		implements GroupCombineFunction<Tuple2<Integer, Integer>, Tuple2<Integer, Integer>>
+	{
+		private static final long serialVersionUID = 1L;
+
+		public WrappedIncrementalCombineStub() {
+			super(new MockIncrementalCombiningReduceStub());
+		}
+
+		@Override
+		public void combine(Iterable<Tuple2<Integer, Integer>> records, Collector<Tuple2<Integer, Integer>> out) {
+			this.wrappedFunction.combine(records, out);
+		}
+	}
+
 	public static final class MockFailingCombiningReduceStub implements
 		GroupReduceFunction<Tuple2<Integer, Integer>, Tuple2<Integer, Integer>>,
 		GroupCombineFunction<Tuple2<Integer, Integer>, Tuple2<Integer, Integer>>
@@ -24,6 +24,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import org.apache.flink.api.common.ExecutionConfig;
 import org.apache.flink.api.common.functions.FlatMapFunction;
 import org.apache.flink.api.common.functions.RichFlatMapFunction;
+import org.apache.flink.api.common.functions.util.BufferingFlatMapFunction;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.apache.flink.runtime.operators.testutils.DiscardingOutputCollector;
@@ -32,6 +33,7 @@ import org.apache.flink.runtime.operators.testutils.ExpectedTestException;
 import org.apache.flink.runtime.operators.testutils.InfiniteInputIterator;
 import org.apache.flink.runtime.operators.testutils.TaskCancelThread;
 import org.apache.flink.runtime.operators.testutils.UniformRecordGenerator;
+import org.apache.flink.types.IntValue;
 import org.apache.flink.types.Record;
 import org.apache.flink.util.Collector;
 import org.junit.Assert;
@@ -68,6 +70,28 @@ public class FlatMapTaskTest extends DriverTestBase<FlatMapFunction<Record, Reco
 		Assert.assertEquals("Wrong result set size.", keyCnt*valCnt, this.output.getNumberOfRecords());
 	}
 	
+	@Test
+	public void testBufferingMapTask() {
+		final int keyCnt = 100;
+		final int valCnt = 20;
+		
+		addInput(new UniformRecordGenerator(keyCnt, valCnt, false));
+		setOutput(this.output);
+		
+		final FlatMapDriver<Record, Record> testDriver = new FlatMapDriver<>();
+		
+		try {
+			testDriver(testDriver, MockBufferingMapStub.class);
+		} catch (Exception e) {
+			LOG.debug("Exception while running the test driver.", e);
+			Assert.fail("Invoke method caused exception.");
+		}
+		
+		// the last, partial group is emitted when the input is exhausted
+		final int numGroups = (keyCnt * valCnt + MockBufferingMapStub.GROUP_SIZE - 1) / MockBufferingMapStub.GROUP_SIZE;
+		Assert.assertEquals("Wrong result set size.", numGroups, this.output.getNumberOfRecords());
+	}
+	
 	@Test
 	public void testFailingMapTask() {
 		final int keyCnt = 100;
@@ -133,6 +157,33 @@ public class FlatMapTaskTest extends DriverTestBase<FlatMapFunction<Record, Reco
 		
 	}
 	
+	/**
+	 * Emits one record with the number of records per group of {@link #GROUP_SIZE} records.
+	 */
+	public static class MockBufferingMapStub extends RichFlatMapFunction<Record, Record>
+			implements BufferingFlatMapFunction<Record, Record> {
+		private static final long serialVersionUID = 1L;
+		
+		public static final int GROUP_SIZE = 3;
+		
+		private int numBuffered;
+		
+		@Override
+		public void flatMap(Record record, Collector<Record> out) throws Exception {
+			if (++this.numBuffered == GROUP_SIZE) {
+				flush(out);
+			}
+		}
+		
+		@Override
+		public void flush(Collector<Record> out) throws Exception {
+			if (this.numBuffered > 0) {
+				out.collect(new Record(new IntValue(this.numBuffered)));
+				this.numBuffered = 0;
+			}
+		}
+	}
+	
 	public static class MockFailingMapStub extends RichFlatMapFunction<Record, Record> {
 		private static final long serialVersionUID = 1L;
 		
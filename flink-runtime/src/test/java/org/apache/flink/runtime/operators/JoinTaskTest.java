@@ -25,6 +25,7 @@ import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.flink.api.common.ExecutionConfig;
 import org.apache.flink.api.common.functions.FlatJoinFunction;
+import org.apache.flink.configuration.TaskManagerOptions;
 import org.apache.flink.runtime.testutils.recordutils.RecordComparator;
 import org.apache.flink.runtime.testutils.recordutils.RecordPairComparatorFactory;
 import org.apache.flink.runtime.operators.testutils.DelayingInfinitiveInputIterator;
@@ -722,6 +723,75 @@ public class JoinTaskTest extends DriverTestBase<FlatJoinFunction<Record, Record
 		this.outList.clear();
 	}
 	
+	@Test
+	public void testAdaptiveHashMatchTaskSwapsBuildSide() {
+		// the planned build side is much larger than the probe side
+		int keyCnt1 = 10000;
+		int valCnt1 = 4;
+		
+		int keyCnt2 = 100;
+		int valCnt2 = 1;
+		
+		addInput(new UniformRecordGenerator(keyCnt1, valCnt1, false));
+		addInput(new UniformRecordGenerator(keyCnt2, valCnt2, false));
+		addDriverComparator(this.comparator1);
+		addDriverComparator(this.comparator2);
+		getTaskConfig().setDriverPairComparator(RecordPairComparatorFactory.get());
+		setOutput(this.outList);
+		getTaskConfig().setDriverStrategy(DriverStrategy.HYBRIDHASH_BUILD_FIRST);
+		getTaskConfig().setRelativeMemoryDriver(hash_frac);
+		getTaskConfig().setDriverAdaptiveBuildSide(true);
+		getTaskManagerInfo().getConfiguration().setBoolean(TaskManagerOptions.RUNTIME_HASH_JOIN_ADAPTIVE_BUILD_SIDE, true);
+		
+		JoinDriver<Record, Record, Record> testTask = new JoinDriver<>();
+		
+		try {
+			testDriver(testTask, MockMatchStub.class);
+		} catch (Exception e) {
+			e.printStackTrace();
+			Assert.fail("Test caused an exception.");
+		}
+		
+		final int expCnt = valCnt1*valCnt2*Math.min(keyCnt1, keyCnt2);
+		Assert.assertEquals("Wrong result set size.", expCnt, this.outList.size());
+		this.outList.clear();
+	}
+	
+	@Test
+	public void testAdaptiveHashMatchTaskFallsBackToSortMerge() {
+		// neither input fits into the memory of the join
+		int keyCnt1 = 100000;
+		int valCnt1 = 2;
+		
+		int keyCnt2 = 200000;
+		int valCnt2 = 1;
+		
+		addInput(new UniformRecordGenerator(keyCnt1, valCnt1, false));
+		addInput(new UniformRecordGenerator(keyCnt2, valCnt2, false));
+		addDriverComparator(this.comparator1);
+		addDriverComparator(this.comparator2);
+		getTaskConfig().setDriverPairComparator(RecordPairComparatorFactory.get());
+		setOutput(this.outList);
+		getTaskConfig().setDriverStrategy(DriverStrategy.HYBRIDHASH_BUILD_SECOND);
+		getTaskConfig().setRelativeMemoryDriver((double) (64 * PAGE_SIZE) / getMemoryManager().getMemorySize());
+		getTaskConfig().setFilehandlesDriver(128);
+		getTaskConfig().setDriverAdaptiveBuildSide(true);
+		getTaskManagerInfo().getConfiguration().setBoolean(TaskManagerOptions.RUNTIME_HASH_JOIN_ADAPTIVE_BUILD_SIDE, true);
+		
+		JoinDriver<Record, Record, Record> testTask = new JoinDriver<>();
+		
+		try {
+			testDriver(testTask, MockMatchStub.class);
+		} catch (Exception e) {
+			e.printStackTrace();
+			Assert.fail("Test caused an exception.");
+		}
+		
+		final int expCnt = valCnt1*valCnt2*Math.min(keyCnt1, keyCnt2);
+		Assert.assertEquals("Wrong result set size.", expCnt, this.outList.size());
+		this.outList.clear();
+	}
+	
 	@Test
 	public void testFailingHashFirstMatchTask() {
 		int keyCnt1 = 20;
@@ -22,17 +22,23 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.apache.flink.api.common.functions.FlatMapFunction;
+import org.apache.flink.api.common.functions.RichFlatMapFunction;
 import org.apache.flink.api.common.functions.GroupCombineFunction;
 import org.apache.flink.api.common.functions.GroupReduceFunction;
 import org.apache.flink.api.common.operators.util.UserCodeClassWrapper;
+import org.apache.flink.api.java.functions.IncrementalCombine;
 import org.apache.flink.runtime.testutils.recordutils.RecordComparatorFactory;
 import org.apache.flink.runtime.testutils.recordutils.RecordSerializerFactory;
 import org.apache.flink.api.common.functions.RichGroupReduceFunction;
+import org.apache.flink.api.common.functions.util.BatchCollector;
+import org.apache.flink.api.common.functions.util.BatchFlatMapFunction;
+import org.apache.flink.api.common.functions.util.BufferingFlatMapFunction;
 import org.apache.flink.configuration.Configuration;
 import org.apache.flink.runtime.io.network.api.writer.ResultPartitionWriter;
 import org.apache.flink.runtime.operators.DriverStrategy;
 import org.apache.flink.runtime.operators.BatchTask;
 import org.apache.flink.runtime.operators.FlatMapDriver;
+import org.apache.flink.runtime.operators.FlatMapTaskTest.MockBufferingMapStub;
 import org.apache.flink.runtime.operators.FlatMapTaskTest.MockMapStub;
 import org.apache.flink.runtime.operators.ReduceTaskTest.MockCombiningReduceStub;
 import org.apache.flink.runtime.operators.shipping.ShipStrategyType;
@@ -125,6 +131,191 @@ public class ChainTaskTest extends TaskTestBase {
 		}
 	}
 	
+	@Test
+	public void testMapTaskWithIncrementalCombine() throws Exception {
+		final int keyCnt = 100;
+		final int valCnt = 20;
+
+		runMapAndIncrementalCombine(keyCnt, valCnt, 1.0, compFact, MockIncrementalCombiningReduceStub.class);
+
+		// all keys fit into the hash table, so there is exactly one partial result per key
+		Assert.assertEquals(keyCnt, this.outList.size());
+		for (Record record : this.outList) {
+			Assert.assertEquals(valCnt * (valCnt - 1) / 2, record.getField(1, IntValue.class).getValue());
+		}
+	}
+
+	@Test
+	public void testMapTaskWithIncrementalCombineSwitchingToSorting() throws Exception {
+		// more distinct keys than the hash table can hold
+		final int keyCnt = 20000;
+		final int valCnt = 2;
+
+		runMapAndIncrementalCombine(keyCnt, valCnt, 0.1, compFact, MockIncrementalCombiningReduceStub.class);
+
+		// the partial results must add up to the sum of each key
+		final int[] sums = new int[keyCnt];
+		for (Record record : this.outList) {
+			sums[record.getField(0, IntValue.class).getValue()] += record.getField(1, IntValue.class).getValue();
+		}
+		for (int sum : sums) {
+			Assert.assertEquals(1, sum);
+		}
+	}
+
+	@Test
+	public void testMapTaskWithIncrementalCombineOfSortedGroups() throws Exception {
+		final int keyCnt = 100;
+		final int valCnt = 20;
+
+		// the groups are sorted by their values in descending order
+		final RecordComparatorFactory sortingCompFact = new RecordComparatorFactory(
+			new int[]{0, 1}, new Class[]{IntValue.class, IntValue.class}, new boolean[] {true, false});
+		runMapAndIncrementalCombine(keyCnt, valCnt, 1.0, sortingCompFact, MockIncrementalFirstValueStub.class);
+
+		// the values arrive in ascending order, but the first value of each sorted group is the largest one
+		Assert.assertEquals(keyCnt, this.outList.size());
+		for (Record record : this.outList) {
+			Assert.assertEquals(valCnt - 1, record.getField(1, IntValue.class).getValue());
+		}
+	}
+
+	private void runMapAndIncrementalCombine(
+			int keyCnt,
+			int valCnt,
+			double memoryFraction,
+			RecordComparatorFactory sortingCompFact,
+			Class<? extends GroupCombineFunction<Record, Record>> combinerClass) throws Exception {
+		// environment
+		initEnvironment(MEMORY_MANAGER_SIZE, NETWORK_BUFFER_SIZE);
+		addInput(new UniformRecordGenerator(keyCnt, valCnt, false), 0);
+		addOutput(this.outList);
+
+		// chained combine config
+		final TaskConfig combineConfig = new TaskConfig(new Configuration());
+		combineConfig.addInputToGroup(0);
+		combineConfig.setInputSerializer(serFact, 0);
+		combineConfig.addOutputShipStrategy(ShipStrategyType.FORWARD);
+		combineConfig.setOutputSerializer(serFact);
+		combineConfig.setDriverStrategy(DriverStrategy.SORTED_GROUP_COMBINE);
+		combineConfig.setDriverComparator(sortingCompFact, 0);
+		combineConfig.setDriverComparator(compFact, 1);
+		combineConfig.setRelativeMemoryDriver(memoryFraction);
+		combineConfig.setStubWrapper(new UserCodeClassWrapper<>(combinerClass));
+
+		getTaskConfig().addChainedTask(SynchronousChainedCombineDriver.class, combineConfig, "combine");
+
+		// chained map+combine
+		BatchTask<FlatMapFunction<Record, Record>, Record> testTask = new BatchTask<>();
+		registerTask(testTask, FlatMapDriver.class, MockMapStub.class);
+		testTask.invoke();
+	}
+
+	@Test
+	public void testChainedBufferingMapTask() {
+		final int keyCnt = 100;
+		final int valCnt = 20;
+		
+		try {
+			// environment
+			initEnvironment(MEMORY_MANAGER_SIZE, NETWORK_BUFFER_SIZE);
+			addInput(new UniformRecordGenerator(keyCnt, valCnt, false), 0);
+			addOutput(this.outList);
+			
+			// chained buffering map config
+			{
+				final TaskConfig mapConfig = new TaskConfig(new Configuration());
+				
+				// input
+				mapConfig.addInputToGroup(0);
+				mapConfig.setInputSerializer(serFact, 0);
+				
+				// output
+				mapConfig.addOutputShipStrategy(ShipStrategyType.FORWARD);
+				mapConfig.setOutputSerializer(serFact);
+				
+				// driver
+				mapConfig.setDriverStrategy(DriverStrategy.FLAT_MAP);
+				
+				// udf
+				mapConfig.setStubWrapper(new UserCodeClassWrapper<>(MockBufferingMapStub.class));
+				
+				getTaskConfig().addChainedTask(ChainedFlatMapDriver.class, mapConfig, "buffering map");
+			}
+			
+			// chained map+buffering map
+			{
+				BatchTask<FlatMapFunction<Record, Record>, Record> testTask = new BatchTask<>();
+				registerTask(testTask, FlatMapDriver.class, MockMapStub.class);
+				
+				try {
+					testTask.invoke();
+				} catch (Exception e) {
+					e.printStackTrace();
+					Assert.fail("Invoke method caused exception.");
+				}
+			}
+			
+			// the buffered records are emitted when the chain is closed
+			int numRecords = 0;
+			for (Record record : this.outList) {
+				numRecords += record.getField(0, IntValue.class).getValue();
+			}
+			Assert.assertEquals(keyCnt * valCnt, numRecords);
+		}
+		catch (Exception e) {
+			e.printStackTrace();
+			Assert.fail(e.getMessage());
+		}
+	}
+	
+	@Test
+	public void testChainedBatchMapTask() throws Exception {
+		final int keyCnt = 100;
+		final int valCnt = 20;
+
+		MockBatchConsumingMapStub.numRecordCalls = 0;
+		MockBatchConsumingMapStub.numBatchCalls = 0;
+
+		// environment
+		initEnvironment(MEMORY_MANAGER_SIZE, NETWORK_BUFFER_SIZE);
+		addInput(new UniformRecordGenerator(keyCnt, valCnt, false), 0);
+		addOutput(this.outList);
+
+		// chained batch consuming map config
+		{
+			final TaskConfig mapConfig = new TaskConfig(new Configuration());
+
+			// input
+			mapConfig.addInputToGroup(0);
+			mapConfig.setInputSerializer(serFact, 0);
+
+			// output
+			mapConfig.addOutputShipStrategy(ShipStrategyType.FORWARD);
+			mapConfig.setOutputSerializer(serFact);
+
+			// driver
+			mapConfig.setDriverStrategy(DriverStrategy.FLAT_MAP);
+
+			// udf
+			mapConfig.setStubWrapper(new UserCodeClassWrapper<>(MockBatchConsumingMapStub.class));
+
+			getTaskConfig().addChainedTask(ChainedFlatMapDriver.class, mapConfig, "batch map");
+		}
+
+		// batching map+batch consuming map
+		BatchTask<FlatMapFunction<Record, Record>, Record> testTask = new BatchTask<>();
+		registerTask(testTask, FlatMapDriver.class, MockBatchingMapStub.class);
+		testTask.invoke();
+
+		// the chained function is called once per batch instead of once per record
+		final int numRecords = keyCnt * valCnt;
+		Assert.assertEquals(numRecords, this.outList.size());
+		Assert.assertEquals(0, MockBatchConsumingMapStub.numRecordCalls);
+		Assert.assertEquals((numRecords + MockBatchingMapStub.BATCH_SIZE - 1) / MockBatchingMapStub.BATCH_SIZE,
+			MockBatchConsumingMapStub.numBatchCalls);
+	}
+
 	@Test
 	public void testFailingMapTask() {
 		int keyCnt = 100;
@@ -188,6 +379,88 @@ public class ChainTaskTest extends TaskTestBase {
 		}
 	}
 	
+	@IncrementalCombine
+	public static final class MockIncrementalCombiningReduceStub extends MockCombiningReduceStub {
+		private static final long serialVersionUID = 1L;
+	}
+
+	/**
+	 * Keeps the first record of each key, which depends on the order of the records in the group.
+	 */
+	@IncrementalCombine
+	public static final class MockIncrementalFirstValueStub implements GroupCombineFunction<Record, Record> {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public void combine(Iterable<Record> values, Collector<Record> out) {
+			out.collect(values.iterator().next().createCopy());
+		}
+	}
+
+	/**
+	 * Collects the records in lists and passes the lists on as batches, if the collector takes them.
+	 */
+	public static final class MockBatchingMapStub extends RichFlatMapFunction<Record, Record>
+			implements BufferingFlatMapFunction<Record, Record> {
+		private static final long serialVersionUID = 1L;
+
+		public static final int BATCH_SIZE = 64;
+
+		private final List<Record> batch = new ArrayList<>();
+
+		@Override
+		public void flatMap(Record record, Collector<Record> out) {
+			this.batch.add(record.createCopy());
+			if (this.batch.size() == BATCH_SIZE) {
+				flush(out);
+			}
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public void flush(Collector<Record> out) {
+			if (this.batch.isEmpty()) {
+				return;
+			}
+			if (!(out instanceof BatchCollector) || !((BatchCollector<Record>) out).collectBatch(this.batch, this.batch.size())) {
+				for (Record record : this.batch) {
+					out.collect(record);
+				}
+			}
+			this.batch.clear();
+		}
+	}
+
+	/**
+	 * Forwards the records and counts the calls per record and per batch.
+	 */
+	public static final class MockBatchConsumingMapStub implements BatchFlatMapFunction<Record, Record> {
+		private static final long serialVersionUID = 1L;
+
+		static int numRecordCalls;
+
+		static int numBatchCalls;
+
+		@Override
+		public void flatMap(Record record, Collector<Record> out) {
+			numRecordCalls++;
+			out.collect(record);
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public boolean flatMapBatch(Object batch, Collector<Record> out) {
+			numBatchCalls++;
+			for (Record record : (List<Record>) batch) {
+				out.collect(record);
+			}
+			return true;
+		}
+
+		@Override
+		public void flush(Collector<Record> out) {}
+	}
+
 	public static final class MockFailingCombineStub implements
 		GroupReduceFunction<Record, Record>,
 		GroupCombineFunction<Record, Record> {
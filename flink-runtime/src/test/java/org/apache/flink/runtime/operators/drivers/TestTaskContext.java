@@ -25,6 +25,7 @@ import org.apache.flink.api.common.typeutils.TypeSerializerFactory;
 import org.apache.flink.api.java.typeutils.runtime.RuntimeSerializerFactory;
 import org.apache.flink.configuration.Configuration;
 import org.apache.flink.core.memory.MemoryType;
+import org.apache.flink.runtime.event.TaskEvent;
 import org.apache.flink.runtime.io.disk.iomanager.IOManager;
 import org.apache.flink.runtime.jobgraph.tasks.AbstractInvokable;
 import org.apache.flink.runtime.memory.MemoryManager;
@@ -179,6 +180,11 @@ public class TestTaskContext<S, T> implements TaskContext<S, T> {
 		}
 	}
 
+	@Override
+	public void sendTaskEvent(int index, TaskEvent event) {
+		throw new UnsupportedOperationException();
+	}
+
 	@Override
 	@SuppressWarnings("unchecked")
 	public <X> TypeSerializerFactory<X> getInputSerializer(int index) {
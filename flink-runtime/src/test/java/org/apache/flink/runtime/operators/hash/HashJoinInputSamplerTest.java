@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.operators.hash;
+
+import org.apache.flink.runtime.io.disk.iomanager.IOManager;
+import org.apache.flink.runtime.io.disk.iomanager.IOManagerAsync;
+import org.apache.flink.runtime.memory.MemoryManager;
+import org.apache.flink.runtime.operators.DriverStrategy;
+import org.apache.flink.runtime.operators.testutils.DummyInvokable;
+import org.apache.flink.runtime.operators.testutils.UniformIntPairGenerator;
+import org.apache.flink.runtime.operators.testutils.types.IntPair;
+import org.apache.flink.runtime.operators.testutils.types.IntPairSerializer;
+import org.apache.flink.util.MutableObjectIterator;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for the {@link HashJoinInputSampler}.
+ */
+public class HashJoinInputSamplerTest {
+
+	private static final long MEMORY_SIZE = 2 * HashJoinInputSampler.NUM_PAGES_PER_INPUT * MemoryManager.DEFAULT_PAGE_SIZE;
+
+	private static final long MAX_BUILD_SIDE_BYTES = 16 * 1024 * 1024;
+
+	private MemoryManager memoryManager;
+
+	private IOManager ioManager;
+
+	@Before
+	public void setup() {
+		memoryManager = new MemoryManager(MEMORY_SIZE, 1);
+		ioManager = new IOManagerAsync();
+	}
+
+	@After
+	public void shutdown() {
+		ioManager.shutdown();
+		assertTrue("Not all memory was returned to the memory manager.", memoryManager.verifyEmpty());
+		memoryManager.shutdown();
+	}
+
+	@Test
+	public void testPlannedBuildSideIsKept() throws Exception {
+		final HashJoinInputSampler<IntPair, IntPair> sampler = createSampler(100, 1000, MAX_BUILD_SIDE_BYTES);
+		try {
+			assertEquals(DriverStrategy.HYBRIDHASH_BUILD_FIRST, sampler.sample(DriverStrategy.HYBRIDHASH_BUILD_FIRST));
+			assertTrue(sampler.getNumBytesSampled2() < 1000 * 8);
+
+			verifyInput(sampler.getInput1(), 100);
+			verifyInput(sampler.getInput2(), 1000);
+		} finally {
+			sampler.close();
+		}
+	}
+
+	@Test
+	public void testSmallerInputBecomesBuildSide() throws Exception {
+		final HashJoinInputSampler<IntPair, IntPair> sampler = createSampler(1000, 100, MAX_BUILD_SIDE_BYTES);
+		try {
+			assertEquals(DriverStrategy.HYBRIDHASH_BUILD_SECOND, sampler.sample(DriverStrategy.HYBRIDHASH_BUILD_FIRST));
+
+			verifyInput(sampler.getInput1(), 1000);
+			verifyInput(sampler.getInput2(), 100);
+		} finally {
+			sampler.close();
+		}
+	}
+
+	@Test
+	public void testEqualInputsKeepPlannedBuildSide() throws Exception {
+		HashJoinInputSampler<IntPair, IntPair> sampler = createSampler(100, 100, MAX_BUILD_SIDE_BYTES);
+		try {
+			assertEquals(DriverStrategy.HYBRIDHASH_BUILD_SECOND, sampler.sample(DriverStrategy.HYBRIDHASH_BUILD_SECOND));
+		} finally {
+			sampler.close();
+		}
+
+		sampler = createSampler(100, 100, MAX_BUILD_SIDE_BYTES);
+		try {
+			assertEquals(DriverStrategy.HYBRIDHASH_BUILD_FIRST, sampler.sample(DriverStrategy.HYBRIDHASH_BUILD_FIRST));
+		} finally {
+			sampler.close();
+		}
+	}
+
+	@Test
+	public void testFallBackToSortMerge() throws Exception {
+		final HashJoinInputSampler<IntPair, IntPair> sampler = createSampler(10000, 20000, 1024);
+		try {
+			assertEquals(DriverStrategy.INNER_MERGE, sampler.sample(DriverStrategy.HYBRIDHASH_BUILD_FIRST));
+
+			verifyInput(sampler.getInput1(), 10000);
+			verifyInput(sampler.getInput2(), 20000);
+		} finally {
+			sampler.close();
+		}
+	}
+
+	@Test
+	public void testSpilledRecordsAreReplayed() throws Exception {
+		// more records than fit into the memory pages of the sampler
+		final int numRecords = 4 * HashJoinInputSampler.NUM_PAGES_PER_INPUT * MemoryManager.DEFAULT_PAGE_SIZE / 8;
+
+		final HashJoinInputSampler<IntPair, IntPair> sampler = createSampler(numRecords, numRecords + 1, MAX_BUILD_SIDE_BYTES);
+		try {
+			assertEquals(DriverStrategy.HYBRIDHASH_BUILD_FIRST, sampler.sample(DriverStrategy.HYBRIDHASH_BUILD_SECOND));
+			assertTrue(sampler.getNumBytesSampled1() > MEMORY_SIZE);
+
+			verifyInput(sampler.getInput1(), numRecords);
+			verifyInput(sampler.getInput2(), numRecords + 1);
+		} finally {
+			sampler.close();
+		}
+	}
+
+	// ------------------------------------------------------------------------
+
+	private HashJoinInputSampler<IntPair, IntPair> createSampler(
+			int numRecords1, int numRecords2, long maxBuildSideBytes) throws Exception {
+
+		return new HashJoinInputSampler<>(
+			new UniformIntPairGenerator(numRecords1, 1, false), new IntPairSerializer(),
+			new UniformIntPairGenerator(numRecords2, 1, false), new IntPairSerializer(),
+			memoryManager, ioManager, new DummyInvokable(), maxBuildSideBytes);
+	}
+
+	private static void verifyInput(MutableObjectIterator<IntPair> input, int numRecords) throws IOException {
+		final MutableObjectIterator<IntPair> expected = new UniformIntPairGenerator(numRecords, 1, false);
+
+		IntPair record = new IntPair();
+		IntPair expectedRecord = new IntPair();
+		for (int i = 0; i < numRecords; i++) {
+			record = input.next(record);
+			expectedRecord = expected.next(expectedRecord);
+			assertEquals(expectedRecord.getKey(), record.getKey());
+			assertEquals(expectedRecord.getValue(), record.getValue());
+		}
+		assertNull(input.next(record));
+	}
+}
@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.operators.hash;
+
+import org.apache.flink.api.common.typeutils.base.IntComparator;
+import org.apache.flink.api.common.typeutils.base.IntSerializer;
+import org.apache.flink.runtime.io.network.api.serialization.EventSerializer;
+import org.apache.flink.runtime.util.RegularToMutableObjectIterator;
+import org.apache.flink.util.MutableObjectIterator;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for the {@link RuntimeFilterBuilder} and the {@link RuntimeFilterEvent}.
+ */
+public class RuntimeFilterTest {
+
+	private static final IntComparator COMPARATOR = new IntComparator(true);
+
+	@Test
+	public void testFilterContainsAllBuildSideRecords() throws Exception {
+		final RuntimeFilterBuilder<Integer> builder = createBuilder(0, 10000, 2);
+		consume(builder, 5000);
+
+		final RuntimeFilterEvent event = builder.createFilterEvent(3);
+		assertEquals(3, event.getSubpartitionIndex());
+		assertEquals(5000, event.getNumEntries());
+
+		int falsePositives = 0;
+		for (int i = 0; i < 10000; i++) {
+			if (i % 2 == 0) {
+				assertTrue(event.mightContain(hash(i)));
+			} else if (event.mightContain(hash(i))) {
+				falsePositives++;
+			}
+		}
+		assertTrue("Too many false positives: " + falsePositives, falsePositives < 500);
+	}
+
+	@Test
+	public void testSerialization() throws Exception {
+		final RuntimeFilterBuilder<Integer> builder = createBuilder(0, 1000, 1);
+		consume(builder, 1000);
+
+		final RuntimeFilterEvent event = builder.createFilterEvent(1);
+		final RuntimeFilterEvent copy = (RuntimeFilterEvent) EventSerializer.fromSerializedEvent(
+			EventSerializer.toSerializedEvent(event), getClass().getClassLoader());
+
+		assertEquals(event.getSubpartitionIndex(), copy.getSubpartitionIndex());
+		assertEquals(event.getNumEntries(), copy.getNumEntries());
+		assertTrue(copy.isOptional());
+		for (int i = 0; i < 2000; i++) {
+			assertEquals(event.mightContain(hash(i)), copy.mightContain(hash(i)));
+		}
+	}
+
+	@Test
+	public void testEmptyBuildSide() throws Exception {
+		final RuntimeFilterBuilder<Integer> builder = createBuilder(0, 0, 1);
+		consume(builder, 0);
+
+		final RuntimeFilterEvent event = builder.createFilterEvent(0);
+		assertEquals(0, event.getNumEntries());
+		for (int i = 0; i < 1000; i++) {
+			assertFalse(event.mightContain(hash(i)));
+		}
+	}
+
+	@Test
+	public void testNoFilterForLargeBuildSide() throws Exception {
+		final RuntimeFilterBuilder<Integer> builder = createBuilder(0, RuntimeFilterBuilder.MAX_NUM_ENTRIES + 1, 1);
+		consume(builder, RuntimeFilterBuilder.MAX_NUM_ENTRIES + 1);
+
+		assertNull(builder.createFilterEvent(0));
+	}
+
+	// ------------------------------------------------------------------------
+
+	private static RuntimeFilterBuilder<Integer> createBuilder(int from, int to, int step) {
+		final List<Integer> records = new ArrayList<>();
+		for (int i = from; i < to; i += step) {
+			records.add(i);
+		}
+		return new RuntimeFilterBuilder<>(
+			new RegularToMutableObjectIterator<>(records.iterator(), IntSerializer.INSTANCE), COMPARATOR);
+	}
+
+	private static void consume(MutableObjectIterator<Integer> input, int expectedRecords) throws Exception {
+		int count = 0;
+		while (input.next() != null) {
+			count++;
+		}
+		assertEquals(expectedRecords, count);
+	}
+
+	private static int hash(int key) {
+		return MutableHashTable.hash(COMPARATOR.hash(key), 0);
+	}
+}
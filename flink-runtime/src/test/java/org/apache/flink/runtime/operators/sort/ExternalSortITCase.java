@@ -23,6 +23,13 @@ import org.apache.flink.api.common.typeutils.TypeComparator;
 import org.apache.flink.api.common.typeutils.TypeSerializerFactory;
 import org.apache.flink.api.common.typeutils.base.IntComparator;
 import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.configuration.TaskManagerOptions;
+import org.apache.flink.core.memory.MemorySegment;
+import org.apache.flink.core.memory.MemoryType;
+import org.apache.flink.runtime.execution.Environment;
+import org.apache.flink.runtime.io.disk.iomanager.BlockChannelReader;
+import org.apache.flink.runtime.io.disk.iomanager.FileIOChannel;
 import org.apache.flink.runtime.io.disk.iomanager.IOManager;
 import org.apache.flink.runtime.io.disk.iomanager.IOManagerAsync;
 import org.apache.flink.runtime.jobgraph.tasks.AbstractInvokable;
@@ -34,6 +41,7 @@ import org.apache.flink.runtime.operators.testutils.TestData.TupleGenerator.KeyM
 import org.apache.flink.runtime.operators.testutils.TestData.TupleGenerator.ValueMode;
 import org.apache.flink.runtime.operators.testutils.types.IntPair;
 import org.apache.flink.runtime.operators.testutils.types.IntPairSerializer;
+import org.apache.flink.runtime.util.TestingTaskManagerRuntimeInfo;
 import org.apache.flink.util.MutableObjectIterator;
 import org.apache.flink.util.TestLogger;
 import org.junit.After;
@@ -43,6 +51,16 @@ import org.junit.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
 
 public class ExternalSortITCase extends TestLogger {
 	
@@ -248,6 +266,66 @@ public class ExternalSortITCase extends TestLogger {
 		}
 	}
 
+	@Test
+	public void testSpillingSortWithMultipleSortThreads() {
+		try {
+			// comparator
+			final TypeComparator<Integer> keyComparator = new IntComparator(true);
+
+			final TestData.TupleGenerator generator = new TestData.TupleGenerator(SEED, KEY_MAX, VALUE_LENGTH, KeyMode.RANDOM, ValueMode.CONSTANT, VAL);
+			final MutableObjectIterator<Tuple2<Integer, String>> source = new TestData.TupleGeneratorIterator(generator, NUM_PAIRS);
+
+			// a task that runs on a TaskManager which is configured to sort with several threads
+			final Configuration taskManagerConfig = new Configuration();
+			taskManagerConfig.setInteger(TaskManagerOptions.RUNTIME_SORT_THREADS, 4);
+
+			final Environment environment = mock(Environment.class);
+			when(environment.getTaskManagerInfo()).thenReturn(new TestingTaskManagerRuntimeInfo(taskManagerConfig));
+
+			final AbstractInvokable task = new DummyInvokable() {
+				@Override
+				public Environment getEnvironment() {
+					return environment;
+				}
+			};
+
+			// merge iterator
+			LOG.debug("Initializing sortmerger...");
+
+			Sorter<Tuple2<Integer, String>> merger = new UnilateralSortMerger<>(this.memoryManager, this.ioManager,
+					source, task, this.pactRecordSerializer, this.pactRecordComparator,
+					(double)16/78, 64, 0.7f, true /*use large record handler*/, true);
+
+			// check order
+			MutableObjectIterator<Tuple2<Integer, String>> iterator = merger.getIterator();
+
+			LOG.debug("Checking results...");
+			int pairsEmitted = 1;
+
+			Tuple2<Integer, String> rec1 = new Tuple2<>();
+			Tuple2<Integer, String> rec2 = new Tuple2<>();
+
+			Assert.assertTrue((rec1 = iterator.next(rec1)) != null);
+			while ((rec2 = iterator.next(rec2)) != null) {
+				pairsEmitted++;
+
+				Assert.assertTrue(keyComparator.compare(rec1.f0, rec2.f0) <= 0);
+
+				Tuple2<Integer, String> tmp = rec1;
+				rec1 = rec2;
+				rec2 = tmp;
+			}
+			Assert.assertEquals(NUM_PAIRS, pairsEmitted);
+
+			merger.close();
+			testSuccess = true;
+		}
+		catch (Exception e) {
+			e.printStackTrace();
+			Assert.fail(e.getMessage());
+		}
+	}
+
 	@Test
 	public void testSpillingSortWithIntermediateMerge() {
 		try {
@@ -365,4 +443,128 @@ public class ExternalSortITCase extends TestLogger {
 			Assert.fail(e.getMessage());
 		}
 	}
+
+	@Test
+	public void testMergeGroupsReadRequestsPerChannel() throws Exception {
+		// little memory for many sorted runs, such that the merges could give only one or two buffers to each run
+		final MemoryManager memoryManager = new MemoryManager(40 * MemoryManager.MIN_PAGE_SIZE, 1,
+			MemoryManager.MIN_PAGE_SIZE, MemoryType.HEAP, true);
+		final ReadRecordingIOManager ioManager = new ReadRecordingIOManager();
+
+		try {
+			final int PAIRS = 1000000;
+			final RandomIntPairGenerator generator = new RandomIntPairGenerator(12345678, PAIRS);
+
+			Sorter<IntPair> merger = new UnilateralSortMerger<>(memoryManager, ioManager,
+					generator, this.parentTask, new IntPairSerializer.IntPairSerializerFactory(),
+					new TestData.IntPairComparator(), 1.0, 64, 0.7f, false /*no large record handler*/, true);
+
+			MutableObjectIterator<IntPair> iterator = merger.getIterator();
+
+			int pairsRead = 0;
+			int lastKey = Integer.MIN_VALUE;
+			IntPair rec = new IntPair();
+			while ((rec = iterator.next(rec)) != null) {
+				Assert.assertTrue(lastKey <= rec.getKey());
+				lastKey = rec.getKey();
+				pairsRead++;
+			}
+			Assert.assertEquals("Not all pairs were read back in.", PAIRS, pairsRead);
+			merger.close();
+
+			// the read requests of a channel are issued in groups, rather than alternating between the channels
+			final List<FileIOChannel.ID> requests = ioManager.readRequests;
+			int numGroups = 0;
+			for (int i = 0; i < requests.size(); i++) {
+				if (i == 0 || !requests.get(i).equals(requests.get(i - 1))) {
+					numGroups++;
+				}
+			}
+			Assert.assertTrue("Too few sorted runs to merge: " + ioManager.numReaders, ioManager.numReaders > 16);
+			Assert.assertTrue("Only " + requests.size() + " read requests in " + numGroups + " groups.",
+				requests.size() >= 2 * numGroups);
+		}
+		finally {
+			ioManager.shutdown();
+			memoryManager.shutdown();
+		}
+	}
+
+	// --------------------------------------------------------------------------------------------
+
+	/**
+	 * I/O manager that records the channels of the read requests of its block readers in their order.
+	 */
+	private static final class ReadRecordingIOManager extends IOManagerAsync {
+
+		private final List<FileIOChannel.ID> readRequests = Collections.synchronizedList(new ArrayList<FileIOChannel.ID>());
+
+		private volatile int numReaders;
+
+		@Override
+		public BlockChannelReader<MemorySegment> createBlockChannelReader(FileIOChannel.ID channelID,
+				LinkedBlockingQueue<MemorySegment> returnQueue) throws IOException {
+			final BlockChannelReader<MemorySegment> reader = super.createBlockChannelReader(channelID, returnQueue);
+			numReaders++;
+
+			return new BlockChannelReader<MemorySegment>() {
+
+				@Override
+				public void readBlock(MemorySegment segment) throws IOException {
+					readRequests.add(reader.getChannelID());
+					reader.readBlock(segment);
+				}
+
+				@Override
+				public void seekToPosition(long position) throws IOException {
+					reader.seekToPosition(position);
+				}
+
+				@Override
+				public MemorySegment getNextReturnedBlock() throws IOException {
+					return reader.getNextReturnedBlock();
+				}
+
+				@Override
+				public LinkedBlockingQueue<MemorySegment> getReturnQueue() {
+					return reader.getReturnQueue();
+				}
+
+				@Override
+				public FileIOChannel.ID getChannelID() {
+					return reader.getChannelID();
+				}
+
+				@Override
+				public long getSize() throws IOException {
+					return reader.getSize();
+				}
+
+				@Override
+				public boolean isClosed() {
+					return reader.isClosed();
+				}
+
+				@Override
+				public void close() throws IOException {
+					reader.close();
+				}
+
+				@Override
+				public void deleteChannel() {
+					reader.deleteChannel();
+				}
+
+				@Override
+				public void closeAndDelete() throws IOException {
+					reader.closeAndDelete();
+				}
+
+				@Override
+				public FileChannel getNioFileChannel() {
+					return reader.getNioFileChannel();
+				}
+			};
+		}
+	}
 }
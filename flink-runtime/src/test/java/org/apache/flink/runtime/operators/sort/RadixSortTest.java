@@ -0,0 +1,161 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.operators.sort;
+
+import org.apache.flink.api.common.typeutils.TypeComparator;
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.core.memory.MemorySegment;
+import org.apache.flink.core.memory.MemoryType;
+import org.apache.flink.runtime.memory.MemoryManager;
+import org.apache.flink.runtime.operators.testutils.DummyInvokable;
+import org.apache.flink.runtime.operators.testutils.RandomIntPairGenerator;
+import org.apache.flink.runtime.operators.testutils.TestData;
+import org.apache.flink.runtime.operators.testutils.TestData.TupleGenerator.KeyMode;
+import org.apache.flink.runtime.operators.testutils.TestData.TupleGenerator.ValueMode;
+import org.apache.flink.runtime.operators.testutils.types.IntPair;
+import org.apache.flink.runtime.operators.testutils.types.IntPairComparator;
+import org.apache.flink.runtime.operators.testutils.types.IntPairSerializer;
+import org.apache.flink.util.MutableObjectIterator;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+/**
+ * Tests for the {@link RadixSort}.
+ */
+public class RadixSortTest {
+
+	private static final long SEED = 649180756312423613L;
+
+	private static final int NUM_RECORDS = 300000;
+
+	private static final int MEMORY_SIZE = 1024 * 1024 * 32;
+
+	private static final int MEMORY_PAGE_SIZE = 32 * 1024;
+
+	private MemoryManager memoryManager;
+
+	@Before
+	public void beforeTest() {
+		this.memoryManager = new MemoryManager(MEMORY_SIZE, 1, MEMORY_PAGE_SIZE, MemoryType.HEAP, true);
+	}
+
+	@After
+	public void afterTest() {
+		if (!this.memoryManager.verifyEmpty()) {
+			Assert.fail("Memory Leak: Some memory has not been returned to the memory manager.");
+		}
+
+		if (this.memoryManager != null) {
+			this.memoryManager.shutdown();
+			this.memoryManager = null;
+		}
+	}
+
+	@Test
+	public void testSortFixedLengthRecords() throws Exception {
+		final List<MemorySegment> memory = allocateMemory();
+		final FixedLengthRecordSorter<IntPair> sorter =
+			new FixedLengthRecordSorter<>(new IntPairSerializer(), new IntPairComparator(), memory);
+
+		try {
+			final RandomIntPairGenerator generator = new RandomIntPairGenerator(SEED);
+			final IntPair record = new IntPair();
+			int num = 0;
+			while (num < NUM_RECORDS && sorter.write(generator.next(record))) {
+				num++;
+			}
+
+			Assert.assertTrue(sorter.getRadixKeyLength() > 0);
+			new RadixSort().sort(sorter);
+
+			final MutableObjectIterator<IntPair> iterator = sorter.getIterator();
+			IntPair current = iterator.next(new IntPair());
+			int last = current.getKey();
+			int count = 1;
+			while ((current = iterator.next(current)) != null) {
+				Assert.assertTrue("Next key is smaller than previous key.", last <= current.getKey());
+				last = current.getKey();
+				count++;
+			}
+			Assert.assertEquals(num, count);
+		} finally {
+			sorter.dispose();
+			this.memoryManager.release(memory);
+		}
+	}
+
+	@Test
+	public void testSortNormalizedKeysAscending() throws Exception {
+		testSortNormalizedKeys(true);
+	}
+
+	@Test
+	public void testSortNormalizedKeysDescending() throws Exception {
+		testSortNormalizedKeys(false);
+	}
+
+	private void testSortNormalizedKeys(boolean ascending) throws Exception {
+		final TypeComparator<Tuple2<Integer, String>> comparator = TestData.getIntStringTupleTypeInfo()
+			.createComparator(new int[]{0}, new boolean[]{ascending}, 0, null);
+
+		final List<MemorySegment> memory = allocateMemory();
+		final NormalizedKeySorter<Tuple2<Integer, String>> sorter =
+			new NormalizedKeySorter<>(TestData.getIntStringTupleSerializer(), comparator, memory);
+
+		try {
+			final TestData.TupleGenerator generator = new TestData.TupleGenerator(
+				SEED, Integer.MAX_VALUE, 20, KeyMode.RANDOM, ValueMode.RANDOM_LENGTH);
+			final Tuple2<Integer, String> record = new Tuple2<>();
+			int num = 0;
+			while (num < NUM_RECORDS && sorter.write(generator.next(record))) {
+				num++;
+			}
+
+			Assert.assertTrue(sorter.getRadixKeyLength() > 0);
+			new RadixSort().sort(sorter);
+
+			final MutableObjectIterator<Tuple2<Integer, String>> iterator = sorter.getIterator();
+			Tuple2<Integer, String> current = iterator.next(new Tuple2<Integer, String>());
+			int last = current.f0;
+			int count = 1;
+			while ((current = iterator.next(current)) != null) {
+				if (ascending) {
+					Assert.assertTrue("Next key is smaller than previous key.", last <= current.f0);
+				} else {
+					Assert.assertTrue("Next key is larger than previous key.", last >= current.f0);
+				}
+				last = current.f0;
+				count++;
+			}
+			Assert.assertEquals(num, count);
+		} finally {
+			sorter.dispose();
+			this.memoryManager.release(memory);
+		}
+	}
+
+	private List<MemorySegment> allocateMemory() throws Exception {
+		return this.memoryManager.allocatePages(new DummyInvokable(), MEMORY_SIZE / MEMORY_PAGE_SIZE);
+	}
+}
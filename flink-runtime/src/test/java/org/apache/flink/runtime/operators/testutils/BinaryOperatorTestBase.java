@@ -28,6 +28,7 @@ import org.apache.flink.api.java.typeutils.runtime.RuntimeSerializerFactory;
 import org.apache.flink.configuration.Configuration;
 import org.apache.flink.metrics.MetricGroup;
 import org.apache.flink.metrics.groups.UnregisteredMetricsGroup;
+import org.apache.flink.runtime.event.TaskEvent;
 import org.apache.flink.runtime.io.disk.iomanager.IOManager;
 import org.apache.flink.runtime.io.disk.iomanager.IOManagerAsync;
 import org.apache.flink.runtime.jobgraph.tasks.AbstractInvokable;
@@ -337,6 +338,11 @@ public abstract class BinaryOperatorTestBase<S extends Function, IN, OUT> extend
 		return input;
 	}
 	
+	@Override
+	public void sendTaskEvent(int index, TaskEvent event) {
+		throw new UnsupportedOperationException();
+	}
+
 	@Override
 	@SuppressWarnings("unchecked")
 	public <X> TypeSerializerFactory<X> getInputSerializer(int index) {
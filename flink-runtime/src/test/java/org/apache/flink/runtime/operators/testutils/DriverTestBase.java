@@ -24,6 +24,7 @@ import org.apache.flink.api.common.functions.util.FunctionUtils;
 import org.apache.flink.api.common.typeutils.TypeComparator;
 import org.apache.flink.api.common.typeutils.TypeSerializerFactory;
 import org.apache.flink.configuration.Configuration;
+import org.apache.flink.runtime.event.TaskEvent;
 import org.apache.flink.runtime.io.disk.iomanager.IOManager;
 import org.apache.flink.runtime.io.disk.iomanager.IOManagerAsync;
 import org.apache.flink.runtime.jobgraph.tasks.AbstractInvokable;
@@ -332,6 +333,11 @@ public abstract class DriverTestBase<S extends Function> extends TestLogger impl
 		return input;
 	}
 
+	@Override
+	public void sendTaskEvent(int index, TaskEvent event) {
+		throw new UnsupportedOperationException();
+	}
+
 	@Override
 	public <X> TypeSerializerFactory<X> getInputSerializer(int index) {
 		@SuppressWarnings("unchecked")
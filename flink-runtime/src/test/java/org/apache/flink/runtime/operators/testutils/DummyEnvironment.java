@@ -38,6 +38,7 @@ import org.apache.flink.runtime.memory.MemoryManager;
 import org.apache.flink.runtime.metrics.groups.TaskMetricGroup;
 import org.apache.flink.runtime.query.KvStateRegistry;
 import org.apache.flink.runtime.query.TaskKvStateRegistry;
+import org.apache.flink.runtime.state.filesystem.SharedCheckpointFilePool;
 import org.apache.flink.runtime.taskmanager.TaskManagerRuntimeInfo;
 import org.apache.flink.runtime.util.TestingTaskManagerRuntimeInfo;
 
@@ -141,6 +142,11 @@ public class DummyEnvironment implements Environment {
 		return null;
 	}
 
+	@Override
+	public SharedCheckpointFilePool getSharedCheckpointFilePool() {
+		return null;
+	}
+
 	@Override
 	public AccumulatorRegistry getAccumulatorRegistry() {
 		return null;
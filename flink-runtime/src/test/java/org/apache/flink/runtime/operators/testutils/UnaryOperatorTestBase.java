@@ -26,6 +26,7 @@ import org.apache.flink.api.common.typeutils.TypeSerializer;
 import org.apache.flink.api.common.typeutils.TypeSerializerFactory;
 import org.apache.flink.api.java.typeutils.runtime.RuntimeSerializerFactory;
 import org.apache.flink.configuration.Configuration;
+import org.apache.flink.runtime.event.TaskEvent;
 import org.apache.flink.runtime.io.disk.iomanager.IOManager;
 import org.apache.flink.runtime.io.disk.iomanager.IOManagerAsync;
 import org.apache.flink.runtime.jobgraph.tasks.AbstractInvokable;
@@ -324,6 +325,11 @@ public abstract class UnaryOperatorTestBase<S extends Function, IN, OUT> extends
 		return input;
 	}
 
+	@Override
+	public void sendTaskEvent(int index, TaskEvent event) {
+		throw new UnsupportedOperationException();
+	}
+
 	@Override
 	public <X> TypeSerializerFactory<X> getInputSerializer(int index) {
 		if (index != 0) {
@@ -27,11 +27,15 @@ import org.apache.flink.core.memory.DataOutputView;
 import org.apache.flink.core.memory.DataOutputViewStreamWrapper;
 import org.apache.flink.core.memory.MemorySegment;
 import org.apache.flink.runtime.io.network.api.writer.ChannelSelector;
+import org.apache.flink.runtime.io.network.api.writer.ResultPartitionWriter;
+import org.apache.flink.runtime.operators.hash.RuntimeFilterBuilder;
+import org.apache.flink.runtime.operators.hash.RuntimeFilterEvent;
 import org.apache.flink.runtime.operators.shipping.OutputEmitter;
 import org.apache.flink.runtime.operators.shipping.ShipStrategyType;
 import org.apache.flink.runtime.plugable.SerializationDelegate;
 import org.apache.flink.runtime.testutils.recordutils.RecordComparatorFactory;
 import org.apache.flink.runtime.testutils.recordutils.RecordSerializerFactory;
+import org.apache.flink.runtime.util.RegularToMutableObjectIterator;
 import org.apache.flink.types.DeserializationException;
 import org.apache.flink.types.DoubleValue;
 import org.apache.flink.types.IntValue;
@@ -46,9 +50,15 @@ import org.junit.Test;
 import java.io.IOException;
 import java.io.PipedInputStream;
 import java.io.PipedOutputStream;
+import java.util.ArrayList;
+import java.util.List;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 public class OutputEmitterTest {
 	
@@ -445,6 +455,62 @@ public class OutputEmitterTest {
 		Assert.fail("Expected a NullKeyFieldException.");
 	}
 	
+	@Test
+	public void testPartitionHashWithRuntimeFilters() throws Exception {
+		final int numChannels = 4;
+		final int numRecords = 10000;
+
+		final IntComparator comparator = new IntComparator(true);
+		final OutputEmitter<Integer> oe = new OutputEmitter<>(ShipStrategyType.PARTITION_HASH, comparator);
+		final SerializationDelegate<Integer> delegate = new SerializationDelegate<>(IntSerializer.INSTANCE);
+
+		final ResultPartitionWriter writer = mock(ResultPartitionWriter.class);
+		when(writer.getNumberOfOutputChannels()).thenReturn(numChannels);
+		oe.subscribeToRuntimeFilters(writer);
+		verify(writer).subscribeToEvent(oe, RuntimeFilterEvent.class);
+
+		// the build side of each channel contains every tenth key
+		final int[] targetChannels = new int[numRecords];
+		final List<List<Integer>> buildSides = new ArrayList<>();
+		for (int i = 0; i < numChannels; i++) {
+			buildSides.add(new ArrayList<Integer>());
+		}
+		for (int i = 0; i < numRecords; i++) {
+			delegate.setInstance(i);
+			targetChannels[i] = oe.selectChannels(delegate, numChannels)[0];
+			if (i % 10 == 0) {
+				buildSides.get(targetChannels[i]).add(i);
+			}
+		}
+
+		// the last channel does not send a filter
+		for (int i = 0; i < numChannels - 1; i++) {
+			RuntimeFilterBuilder<Integer> builder = new RuntimeFilterBuilder<>(
+				new RegularToMutableObjectIterator<>(buildSides.get(i).iterator(), IntSerializer.INSTANCE), comparator);
+			while (builder.next() != null) {
+				// collect the hash codes of the build side
+			}
+			oe.onEvent(builder.createFilterEvent(i));
+		}
+
+		int numDropped = 0;
+		for (int i = 0; i < numRecords; i++) {
+			delegate.setInstance(i);
+			int[] channels = oe.selectChannels(delegate, numChannels);
+
+			if (channels.length == 0) {
+				// only records without a join partner of filtered channels are dropped
+				assertTrue(i % 10 != 0);
+				assertTrue(targetChannels[i] != numChannels - 1);
+				numDropped++;
+			} else {
+				assertEquals(1, channels.length);
+				assertEquals(targetChannels[i], channels[0]);
+			}
+		}
+		assertTrue("Too few records were dropped: " + numDropped, numDropped > numRecords / 2);
+	}
+
 	@SuppressWarnings({"serial", "rawtypes"})
 	private static class TestIntComparator extends TypeComparator<Integer> {
 		private TypeComparator[] comparators = new TypeComparator[]{new IntComparator(true)};
@@ -0,0 +1,166 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.state;
+
+import org.apache.flink.core.fs.Path;
+import org.apache.flink.core.testutils.OneShotLatch;
+import org.apache.flink.runtime.concurrent.Executors;
+import org.apache.flink.util.TestLogger;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+public class StateDisposalServiceTest extends TestLogger {
+
+	@Rule
+	public final TemporaryFolder tmpFolder = new TemporaryFolder();
+
+	/**
+	 * Tests that no more than the maximum number of disposals run concurrently, and that the
+	 * pending disposals are counted.
+	 */
+	@Test(timeout = 10000L)
+	public void testBoundedConcurrency() throws Exception {
+		final int maxConcurrentDisposals = 2;
+		final int numDisposals = 10;
+
+		final ExecutorService ioExecutor = java.util.concurrent.Executors.newFixedThreadPool(4);
+
+		try {
+			final StateDisposalService disposalService = new StateDisposalService(ioExecutor, maxConcurrentDisposals);
+
+			final OneShotLatch releaseLatch = new OneShotLatch();
+			final CountDownLatch finishedLatch = new CountDownLatch(numDisposals);
+			final AtomicInteger numRunning = new AtomicInteger();
+			final AtomicInteger maxRunning = new AtomicInteger();
+
+			for (int i = 0; i < numDisposals; i++) {
+				disposalService.execute(() -> {
+					int running = numRunning.incrementAndGet();
+					maxRunning.accumulateAndGet(running, Math::max);
+
+					try {
+						releaseLatch.await();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					} finally {
+						numRunning.decrementAndGet();
+						finishedLatch.countDown();
+					}
+				});
+			}
+
+			assertEquals(numDisposals, disposalService.getNumberOfPendingDisposals());
+
+			while (numRunning.get() < maxConcurrentDisposals) {
+				Thread.sleep(1L);
+			}
+
+			releaseLatch.trigger();
+			finishedLatch.await();
+
+			while (disposalService.getNumberOfPendingDisposals() > 0) {
+				Thread.sleep(1L);
+			}
+
+			assertEquals(maxConcurrentDisposals, maxRunning.get());
+		} finally {
+			ioExecutor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Tests that failing disposals do not prevent the following disposals from running.
+	 */
+	@Test
+	public void testFailingDisposals() throws Exception {
+		final StateDisposalService disposalService = new StateDisposalService(Executors.directExecutor(), 1);
+
+		final StateObject failingState = mock(StateObject.class);
+		doThrow(new Exception("Expected test exception")).when(failingState).discardState();
+		final StateObject state = mock(StateObject.class);
+
+		disposalService.execute(() -> {
+			throw new RuntimeException("Expected test exception");
+		});
+		disposalService.discard(failingState);
+		disposalService.discard(state);
+
+		verify(failingState).discardState();
+		verify(state).discardState();
+		assertEquals(0, disposalService.getNumberOfPendingDisposals());
+	}
+
+	/**
+	 * Tests that disposals run in the calling thread if the I/O executor rejects the worker, and
+	 * that the returned futures are completed once the disposals have run.
+	 */
+	@Test
+	public void testRejectedWorkerRunsInline() throws Exception {
+		final StateDisposalService disposalService = new StateDisposalService(
+			runnable -> {
+				throw new RejectedExecutionException("Expected test exception");
+			},
+			1);
+
+		final StateObject state = mock(StateObject.class);
+		final CompletableFuture<Void> disposalFuture = disposalService.discard(state);
+
+		verify(state).discardState();
+		assertTrue(disposalFuture.isDone());
+		assertEquals(0, disposalService.getNumberOfPendingDisposals());
+
+		// the service keeps accepting disposals
+		final StateObject otherState = mock(StateObject.class);
+		assertTrue(disposalService.discard(otherState).isDone());
+		verify(otherState).discardState();
+	}
+
+	/**
+	 * Tests that directories are deleted recursively.
+	 */
+	@Test
+	public void testDeleteDirectory() throws Exception {
+		final StateDisposalService disposalService = new StateDisposalService(Executors.directExecutor(), 1);
+
+		final File directory = tmpFolder.newFolder();
+		assertTrue(new File(directory, "first").createNewFile());
+		assertTrue(new File(directory, "second").createNewFile());
+
+		disposalService.deleteDirectory(new Path(directory.toURI()));
+
+		assertFalse(directory.exists());
+		assertEquals(0, disposalService.getNumberOfPendingDisposals());
+	}
+}
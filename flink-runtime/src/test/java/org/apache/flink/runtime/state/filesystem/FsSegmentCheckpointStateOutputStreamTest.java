@@ -0,0 +1,495 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.state.filesystem;
+
+import org.apache.flink.api.common.ExecutionConfig;
+import org.apache.flink.api.common.JobID;
+import org.apache.flink.api.common.TaskInfo;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.core.fs.FSDataInputStream;
+import org.apache.flink.core.fs.Path;
+import org.apache.flink.runtime.accumulators.AccumulatorRegistry;
+import org.apache.flink.runtime.broadcast.BroadcastVariableManager;
+import org.apache.flink.runtime.concurrent.Executors;
+import org.apache.flink.runtime.execution.Environment;
+import org.apache.flink.runtime.executiongraph.ExecutionAttemptID;
+import org.apache.flink.runtime.io.disk.iomanager.IOManager;
+import org.apache.flink.runtime.io.network.api.writer.ResultPartitionWriter;
+import org.apache.flink.runtime.io.network.partition.consumer.InputGate;
+import org.apache.flink.runtime.jobgraph.JobVertexID;
+import org.apache.flink.runtime.jobgraph.tasks.InputSplitProvider;
+import org.apache.flink.runtime.memory.MemoryManager;
+import org.apache.flink.runtime.query.TaskKvStateRegistry;
+import org.apache.flink.runtime.state.CheckpointStreamFactory;
+import org.apache.flink.runtime.state.CheckpointStreamFactory.CheckpointStateOutputStream;
+import org.apache.flink.runtime.state.SharedStateRegistry;
+import org.apache.flink.runtime.state.StreamStateHandle;
+import org.apache.flink.runtime.state.memory.ByteStreamStateHandle;
+import org.apache.flink.runtime.taskmanager.CheckpointResponder;
+import org.apache.flink.runtime.taskmanager.RuntimeEnvironment;
+import org.apache.flink.runtime.util.TestingTaskManagerRuntimeInfo;
+import org.apache.flink.util.TestLogger;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for the {@link FsSegmentCheckpointStreamFactory.FsSegmentCheckpointStateOutputStream} and the
+ * {@link FileSegmentStateHandle}.
+ */
+public class FsSegmentCheckpointStateOutputStreamTest extends TestLogger {
+
+	@Rule
+	public final TemporaryFolder tmpFolder = new TemporaryFolder();
+
+	/**
+	 * Tests that the streams of one checkpoint append their data to the same file, and that each
+	 * segment can be read back.
+	 */
+	@Test
+	public void testStreamsShareFile() throws Exception {
+		final SharedCheckpointFilePool filePool = new SharedCheckpointFilePool();
+		final FsSegmentCheckpointStreamFactory streamFactory = createStreamFactory(filePool, 16);
+
+		final byte[] first = randomBytes(1000);
+		final byte[] second = randomBytes(5000);
+
+		final FileSegmentStateHandle firstHandle = writeSegment(streamFactory, 1L, first);
+		final FileSegmentStateHandle secondHandle = writeSegment(streamFactory, 1L, second);
+
+		assertEquals(firstHandle.getFilePath(), secondHandle.getFilePath());
+		assertEquals(0L, firstHandle.getStartPosition());
+		assertEquals(first.length, firstHandle.getStateSize());
+		assertEquals(first.length, secondHandle.getStartPosition());
+		assertEquals(second.length, secondHandle.getStateSize());
+		assertEquals(1, filePool.getNumberOfIdleFiles());
+
+		assertArrayEquals(first, readSegment(firstHandle));
+		assertArrayEquals(second, readSegment(secondHandle));
+	}
+
+	/**
+	 * Tests that positions of the streams are relative to the start of their segment.
+	 */
+	@Test
+	public void testPositionsRelativeToSegment() throws Exception {
+		final SharedCheckpointFilePool filePool = new SharedCheckpointFilePool();
+		final FsSegmentCheckpointStreamFactory streamFactory = createStreamFactory(filePool, 16);
+
+		writeSegment(streamFactory, 1L, randomBytes(3000));
+
+		final byte[] data = randomBytes(2000);
+		final CheckpointStateOutputStream outStream = streamFactory.createCheckpointStateOutputStream(1L, 1L);
+		outStream.write(data, 0, 1000);
+		assertEquals(1000L, outStream.getPos());
+		outStream.write(data, 1000, 1000);
+		assertEquals(2000L, outStream.getPos());
+
+		final FileSegmentStateHandle handle = (FileSegmentStateHandle) outStream.closeAndGetHandle();
+
+		try (FSDataInputStream inStream = handle.openInputStream()) {
+			assertEquals(0L, inStream.getPos());
+
+			inStream.seek(1500L);
+			assertEquals(1500L, inStream.getPos());
+			assertEquals(data[1500] & 0xff, inStream.read());
+
+			inStream.seek(2000L);
+			assertEquals(-1, inStream.read());
+		}
+	}
+
+	/**
+	 * Tests that state below the threshold is stored inline and does not lease a shared file.
+	 */
+	@Test
+	public void testSmallStateStaysInline() throws Exception {
+		final SharedCheckpointFilePool filePool = new SharedCheckpointFilePool();
+		final FsSegmentCheckpointStreamFactory streamFactory = createStreamFactory(filePool, 1024);
+
+		final CheckpointStateOutputStream outStream = streamFactory.createCheckpointStateOutputStream(1L, 1L);
+		outStream.write(randomBytes(100));
+
+		assertTrue(outStream.closeAndGetHandle() instanceof ByteStreamStateHandle);
+		assertEquals(0, filePool.getNumberOfIdleFiles());
+	}
+
+	/**
+	 * Tests that files of older checkpoints are not appended to, and that a failed stream does not
+	 * return its file to the pool.
+	 */
+	@Test
+	public void testFilesAreNotReusedAcrossCheckpointsAndFailures() throws Exception {
+		final SharedCheckpointFilePool filePool = new SharedCheckpointFilePool();
+		final FsSegmentCheckpointStreamFactory streamFactory = createStreamFactory(filePool, 16);
+
+		final FileSegmentStateHandle firstHandle = writeSegment(streamFactory, 1L, randomBytes(100));
+		final FileSegmentStateHandle secondHandle = writeSegment(streamFactory, 2L, randomBytes(100));
+
+		assertNotEquals(firstHandle.getFilePath(), secondHandle.getFilePath());
+		assertEquals(1, filePool.getNumberOfIdleFiles());
+
+		final CheckpointStateOutputStream failedStream = streamFactory.createCheckpointStateOutputStream(2L, 2L);
+		failedStream.write(randomBytes(100));
+		failedStream.flush();
+		assertEquals(0, filePool.getNumberOfIdleFiles());
+		failedStream.close();
+		assertEquals(0, filePool.getNumberOfIdleFiles());
+
+		final FileSegmentStateHandle thirdHandle = writeSegment(streamFactory, 2L, randomBytes(100));
+		assertNotEquals(secondHandle.getFilePath(), thirdHandle.getFilePath());
+		assertEquals(0L, thirdHandle.getStartPosition());
+	}
+
+	/**
+	 * Tests that the shared file is deleted once the last registered segment is discarded.
+	 */
+	@Test
+	public void testSharedFileIsReferenceCounted() throws Exception {
+		final SharedCheckpointFilePool filePool = new SharedCheckpointFilePool();
+		final FsSegmentCheckpointStreamFactory streamFactory = createStreamFactory(filePool, 16);
+
+		final FileSegmentStateHandle firstHandle = writeSegment(streamFactory, 1L, randomBytes(100));
+		final FileSegmentStateHandle secondHandle = writeSegment(streamFactory, 1L, randomBytes(100));
+
+		// a newer checkpoint closes the file of the first checkpoint
+		writeSegment(streamFactory, 2L, randomBytes(100));
+
+		final File sharedFile = new File(firstHandle.getFilePath().toUri());
+		assertTrue(sharedFile.exists());
+
+		final SharedStateRegistry sharedStateRegistry = new SharedStateRegistry(Executors.directExecutor());
+		FileSegmentStateHandle.registerSharedFile(firstHandle, sharedStateRegistry);
+		FileSegmentStateHandle.registerSharedFile(secondHandle, sharedStateRegistry);
+
+		// registering again does not add another reference
+		FileSegmentStateHandle.registerSharedFile(secondHandle, sharedStateRegistry);
+
+		firstHandle.discardState();
+		assertTrue(sharedFile.exists());
+
+		secondHandle.discardState();
+		assertFalse(sharedFile.exists());
+	}
+
+	/**
+	 * Tests that discarding a segment that was never registered, such as a segment of an aborted
+	 * checkpoint, deletes the shared file.
+	 */
+	@Test
+	public void testUnregisteredSegmentDeletesSharedFile() throws Exception {
+		final SharedCheckpointFilePool filePool = new SharedCheckpointFilePool();
+		final FsSegmentCheckpointStreamFactory streamFactory = createStreamFactory(filePool, 16);
+
+		final FileSegmentStateHandle firstHandle = writeSegment(streamFactory, 1L, randomBytes(100));
+		final FileSegmentStateHandle secondHandle = writeSegment(streamFactory, 1L, randomBytes(100));
+		streamFactory.close();
+
+		final File sharedFile = new File(firstHandle.getFilePath().toUri());
+		assertTrue(sharedFile.exists());
+
+		firstHandle.discardState();
+		assertFalse(sharedFile.exists());
+
+		// discarding the other segments of the file does not fail
+		secondHandle.discardState();
+	}
+
+	/**
+	 * Tests that syncing a stream does not fail, both before and after data was written.
+	 */
+	@Test
+	public void testSyncBeforeAndAfterWrite() throws Exception {
+		final SharedCheckpointFilePool filePool = new SharedCheckpointFilePool();
+		final FsSegmentCheckpointStreamFactory streamFactory = createStreamFactory(filePool, 16);
+
+		final byte[] data = randomBytes(10);
+		final CheckpointStateOutputStream outStream = streamFactory.createCheckpointStateOutputStream(1L, 1L);
+		outStream.sync();
+		outStream.write(data);
+		outStream.sync();
+
+		final StreamStateHandle handle = outStream.closeAndGetHandle();
+		assertTrue(handle instanceof FileSegmentStateHandle);
+		assertArrayEquals(data, readSegment((FileSegmentStateHandle) handle));
+	}
+
+	/**
+	 * Tests that the pool closes the idle files of a job once the last stream factory of the job
+	 * is closed, that files which are returned afterwards are not kept open, and that closing the
+	 * pool closes the files of all jobs.
+	 */
+	@Test
+	public void testPoolClosesFilesWhenFactoriesAreClosed() throws Exception {
+		final SharedCheckpointFilePool filePool = new SharedCheckpointFilePool();
+		final JobID jobId = new JobID();
+		final Path checkpointPath = new Path(tmpFolder.newFolder().toURI());
+		final FsSegmentCheckpointStreamFactory firstFactory = createStreamFactory(filePool, jobId, checkpointPath, 16);
+		final FsSegmentCheckpointStreamFactory secondFactory = createStreamFactory(filePool, jobId, checkpointPath, 16);
+		final FsSegmentCheckpointStreamFactory otherJobFactory = createStreamFactory(filePool, 16);
+
+		writeSegment(firstFactory, 1L, randomBytes(100));
+		writeSegment(otherJobFactory, 1L, randomBytes(100));
+		assertEquals(2, filePool.getNumberOfIdleFiles());
+
+		firstFactory.close();
+		// closing a factory twice releases its reference only once
+		firstFactory.close();
+		assertEquals(2, filePool.getNumberOfIdleFiles());
+
+		final CheckpointStateOutputStream outStream = secondFactory.createCheckpointStateOutputStream(1L, 1L);
+		outStream.write(randomBytes(100));
+		outStream.flush();
+
+		// the files of the other job stay open
+		secondFactory.close();
+		assertEquals(1, filePool.getNumberOfIdleFiles());
+
+		final FileSegmentStateHandle handle = (FileSegmentStateHandle) outStream.closeAndGetHandle();
+		assertEquals(1, filePool.getNumberOfIdleFiles());
+		assertEquals(100L, readSegment(handle).length);
+
+		filePool.close();
+		assertEquals(0, filePool.getNumberOfIdleFiles());
+	}
+
+	/**
+	 * Tests that the streams of different tasks of a job on the TaskManager append to the same
+	 * files, while the streams of different jobs do not.
+	 */
+	@Test
+	public void testStreamsOfTasksShareFiles() throws Exception {
+		final SharedCheckpointFilePool filePool = new SharedCheckpointFilePool();
+		final JobID jobId = new JobID();
+		final FsStateBackend backend = new FsStateBackend(tmpFolder.newFolder().toURI(), 16, false, true);
+
+		final CheckpointStreamFactory firstTaskFactory = backend.createStreamFactory(createEnvironment(jobId, filePool), "op1");
+		final CheckpointStreamFactory secondTaskFactory = backend.createStreamFactory(createEnvironment(jobId, filePool), "op2");
+		final CheckpointStreamFactory otherJobFactory = backend.createStreamFactory(createEnvironment(new JobID(), filePool), "op1");
+
+		final FileSegmentStateHandle firstHandle = writeSegment(firstTaskFactory, 1L, randomBytes(100));
+		final FileSegmentStateHandle secondHandle = writeSegment(secondTaskFactory, 1L, randomBytes(100));
+		final FileSegmentStateHandle otherJobHandle = writeSegment(otherJobFactory, 1L, randomBytes(100));
+
+		assertEquals(firstHandle.getFilePath(), secondHandle.getFilePath());
+		assertEquals(100L, secondHandle.getStartPosition());
+		assertNotEquals(firstHandle.getFilePath(), otherJobHandle.getFilePath());
+		assertEquals(2, filePool.getNumberOfIdleFiles());
+	}
+
+	/**
+	 * Tests that the files of a declined checkpoint are deleted, including files that are leased
+	 * while the checkpoint is declined, and that no further files are created for the checkpoint.
+	 */
+	@Test
+	public void testDeclinedCheckpointDeletesSharedFiles() throws Exception {
+		final SharedCheckpointFilePool filePool = new SharedCheckpointFilePool();
+		final JobID jobId = new JobID();
+		final Path checkpointPath = new Path(tmpFolder.newFolder().toURI());
+		final FsSegmentCheckpointStreamFactory streamFactory = createStreamFactory(filePool, jobId, checkpointPath, 16);
+		final FsSegmentCheckpointStreamFactory otherJobFactory = createStreamFactory(filePool, 16);
+
+		final CheckpointStateOutputStream leasingStream = streamFactory.createCheckpointStateOutputStream(1L, 1L);
+		leasingStream.write(randomBytes(100));
+		leasingStream.flush();
+
+		final FileSegmentStateHandle idleFileHandle = writeSegment(streamFactory, 1L, randomBytes(100));
+		final FileSegmentStateHandle otherJobHandle = writeSegment(otherJobFactory, 1L, randomBytes(100));
+		assertEquals(2, filePool.getNumberOfIdleFiles());
+
+		filePool.abortCheckpoint(jobId, 1L);
+		assertFalse(new File(idleFileHandle.getFilePath().toUri()).exists());
+
+		// the leased file is deleted once it is returned
+		final FileSegmentStateHandle leasedFileHandle = (FileSegmentStateHandle) leasingStream.closeAndGetHandle();
+		assertNotEquals(idleFileHandle.getFilePath(), leasedFileHandle.getFilePath());
+		assertFalse(new File(leasedFileHandle.getFilePath().toUri()).exists());
+
+		try {
+			writeSegment(streamFactory, 1L, randomBytes(100));
+			fail("Files must not be created for a declined checkpoint.");
+		} catch (IOException ignored) {
+			// expected
+		}
+
+		// the files of other jobs and of later checkpoints are not affected
+		assertTrue(new File(otherJobHandle.getFilePath().toUri()).exists());
+		assertEquals(1, filePool.getNumberOfIdleFiles());
+
+		writeSegment(streamFactory, 2L, randomBytes(100));
+		assertEquals(2, filePool.getNumberOfIdleFiles());
+	}
+
+	/**
+	 * Tests that a task which declines a checkpoint through its environment deletes the shared
+	 * files of the checkpoint on the TaskManager.
+	 */
+	@Test
+	public void testEnvironmentAbortsDeclinedCheckpoint() throws Exception {
+		final SharedCheckpointFilePool filePool = new SharedCheckpointFilePool();
+		final JobID jobId = new JobID();
+		final ExecutionAttemptID executionId = new ExecutionAttemptID();
+		final Path checkpointPath = new Path(tmpFolder.newFolder().toURI());
+		final FsSegmentCheckpointStreamFactory streamFactory = createStreamFactory(filePool, jobId, checkpointPath, 16);
+		final FileSegmentStateHandle handle = writeSegment(streamFactory, 1L, randomBytes(100));
+
+		final CheckpointResponder checkpointResponder = mock(CheckpointResponder.class);
+		final RuntimeEnvironment environment = new RuntimeEnvironment(
+			jobId,
+			new JobVertexID(),
+			executionId,
+			new ExecutionConfig(),
+			new TaskInfo("test task", 1, 0, 1, 0),
+			new Configuration(),
+			new Configuration(),
+			getClass().getClassLoader(),
+			mock(MemoryManager.class),
+			mock(IOManager.class),
+			new BroadcastVariableManager(),
+			filePool,
+			new AccumulatorRegistry(jobId, executionId),
+			mock(TaskKvStateRegistry.class),
+			mock(InputSplitProvider.class),
+			Collections.<String, Future<Path>>emptyMap(),
+			new ResultPartitionWriter[0],
+			new InputGate[0],
+			checkpointResponder,
+			new TestingTaskManagerRuntimeInfo(),
+			null,
+			null);
+
+		final Exception cause = new Exception("test");
+		environment.declineCheckpoint(1L, cause);
+
+		verify(checkpointResponder).declineCheckpoint(eq(jobId), eq(executionId), eq(1L), eq(cause));
+		assertFalse(new File(handle.getFilePath().toUri()).exists());
+		assertEquals(0, filePool.getNumberOfIdleFiles());
+	}
+
+	/**
+	 * Tests that state which is not written for a checkpoint is written to a file of its own.
+	 */
+	@Test
+	public void testNonCheckpointStateIsNotAggregated() throws Exception {
+		final SharedCheckpointFilePool filePool = new SharedCheckpointFilePool();
+		final FsSegmentCheckpointStreamFactory streamFactory = createStreamFactory(filePool, 16);
+
+		final CheckpointStateOutputStream outStream = streamFactory.createCheckpointStateOutputStream(0L, 0L);
+		outStream.write(randomBytes(100));
+
+		assertTrue(outStream.closeAndGetHandle() instanceof FileStateHandle);
+		assertEquals(0, filePool.getNumberOfIdleFiles());
+	}
+
+	/**
+	 * Tests that the state backend creates an aggregating stream factory only if enabled, and if
+	 * the environment provides a pool of shared files.
+	 */
+	@Test
+	public void testStateBackendCreatesAggregatingFactory() throws Exception {
+		final JobID jobId = new JobID();
+		final URI checkpointDir = tmpFolder.newFolder().toURI();
+		final Environment environment = createEnvironment(jobId, new SharedCheckpointFilePool());
+
+		final FsStateBackend backend = new FsStateBackend(checkpointDir, 16, false, true, 1024L);
+		assertEquals(1024L, backend.getMaxAggregatedFileSize());
+		assertTrue(backend.createStreamFactory(environment, "op") instanceof FsSegmentCheckpointStreamFactory);
+		assertTrue(backend.createStreamFactory(jobId, "op") instanceof FsCheckpointStreamFactory);
+		assertTrue(backend.createStreamFactory(createEnvironment(jobId, null), "op") instanceof FsCheckpointStreamFactory);
+
+		final FsStateBackend nonAggregatingBackend = new FsStateBackend(checkpointDir, 16, false, false);
+		assertTrue(nonAggregatingBackend.createStreamFactory(environment, "op") instanceof FsCheckpointStreamFactory);
+	}
+
+	// ------------------------------------------------------------------------
+
+	private FsSegmentCheckpointStreamFactory createStreamFactory(
+			SharedCheckpointFilePool filePool,
+			int fileStateSizeThreshold) throws Exception {
+
+		return createStreamFactory(filePool, new JobID(), new Path(tmpFolder.newFolder().toURI()), fileStateSizeThreshold);
+	}
+
+	private static FsSegmentCheckpointStreamFactory createStreamFactory(
+			SharedCheckpointFilePool filePool,
+			JobID jobId,
+			Path checkpointPath,
+			int fileStateSizeThreshold) throws Exception {
+
+		return new FsSegmentCheckpointStreamFactory(
+			checkpointPath, jobId, fileStateSizeThreshold, FsStateBackend.DEFAULT_MAX_AGGREGATED_FILE_SIZE, filePool);
+	}
+
+	private static Environment createEnvironment(JobID jobId, SharedCheckpointFilePool filePool) {
+		final Environment environment = mock(Environment.class);
+		when(environment.getJobID()).thenReturn(jobId);
+		when(environment.getSharedCheckpointFilePool()).thenReturn(filePool);
+		return environment;
+	}
+
+	private static FileSegmentStateHandle writeSegment(
+			CheckpointStreamFactory streamFactory,
+			long checkpointId,
+			byte[] data) throws Exception {
+
+		final CheckpointStateOutputStream outStream = streamFactory.createCheckpointStateOutputStream(checkpointId, checkpointId);
+		outStream.write(data);
+
+		final StreamStateHandle handle = outStream.closeAndGetHandle();
+		assertTrue(handle instanceof FileSegmentStateHandle);
+		return (FileSegmentStateHandle) handle;
+	}
+
+	private static byte[] readSegment(FileSegmentStateHandle handle) throws Exception {
+		final byte[] data = new byte[(int) handle.getStateSize()];
+
+		try (FSDataInputStream inStream = handle.openInputStream()) {
+			new DataInputStream(inStream).readFully(data);
+			assertEquals(-1, inStream.read());
+		}
+
+		return data;
+	}
+
+	private static byte[] randomBytes(int size) {
+		final byte[] bytes = new byte[size];
+		new Random().nextBytes(bytes);
+		return bytes;
+	}
+}
@@ -253,11 +253,13 @@ public class TaskManagerServicesTest {
 		return new TaskManagerServicesConfiguration(
 			mock(InetAddress.class),
 			new String[] {},
+			1,
 			networkConfig,
 			QueryableStateConfiguration.disabled(),
 			1,
 			managedMemory,
 			false,
+			0L,
 			managedMemoryFraction,
 			mock(MetricRegistryConfiguration.class),
 			0);
@@ -115,10 +115,11 @@ public final class RecordComparator extends TypeComparator<Record> {
 			Value k = this.keyHolders[i];
 			if (k instanceof NormalizableKey) {
 				if (sortDirection != null) {
-					if (sortDirection[i] && inverted) {
+					// the normalized key can only cover keys which are sorted in the direction of the first key
+					if (i == 0) {
+						inverted = !sortDirection[0];
+					} else if (sortDirection[i] == inverted) {
 						break;
-					} else if (i == 0 && !sortDirection[0]) {
-						inverted = true;
 					}
 				}
 				nKeys++;
@@ -392,15 +393,23 @@ public final class RecordComparator extends TypeComparator<Record> {
 
 	@Override
 	public int extractKeys(Object record, Object[] target, int index) {
-		throw new UnsupportedOperationException("Record does not support extactKeys and " +
-				"getComparators. This cannot be used with the GenericPairComparator.");
+		throw new UnsupportedOperationException("Record does not support extactKeys. " +
+				"This cannot be used with the GenericPairComparator.");
 	}
 
 
 	@Override
+	@SuppressWarnings("unchecked")
 	public TypeComparator<?>[] getFlatComparators() {
-		throw new UnsupportedOperationException("Record does not support extactKeys and " +
-				"getComparators. This cannot be used with the GenericPairComparator.");
+		// one comparator per key field
+		final TypeComparator<?>[] comparators = new TypeComparator<?>[this.keyFields.length];
+		for (int i = 0; i < this.keyFields.length; i++) {
+			comparators[i] = new RecordComparator(
+				new int[] {this.keyFields[i]},
+				new Class[] {this.keyHolders[i].getClass()},
+				new boolean[] {this.ascending[i]});
+		}
+		return comparators;
 	}
 
 	@Override
@@ -0,0 +1,46 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.api.functions;
+
+import org.apache.flink.annotation.PublicEvolving;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares that a {@link org.apache.flink.api.common.functions.MapFunction MapFunction},
+ * {@link org.apache.flink.api.common.functions.FlatMapFunction FlatMapFunction} or
+ * {@link org.apache.flink.api.common.functions.FilterFunction FilterFunction} only reads its input.
+ *
+ * <p>When object reuse is disabled, records that are passed between chained operators are copied
+ * before they are handed to the next operator. The copy is skipped for functions with this annotation.
+ *
+ * <p><b>NOTE: An annotated function must neither modify its input records nor keep references to them,
+ * or to any objects reachable from them, in its fields or state beyond a single invocation.
+ * Violating this contract can lead to incorrect results.</b>
+ */
+@PublicEvolving
+@Documented
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ReadOnlyInput {
+}
@@ -327,6 +327,10 @@ public abstract class AbstractStreamOperator<OUT>
 		if (keyedStateBackend != null) {
 			keyedStateBackend.dispose();
 		}
+
+		if (checkpointStreamFactory != null) {
+			checkpointStreamFactory.close();
+		}
 	}
 
 	@Override
@@ -126,6 +126,17 @@ public abstract class GenericWriteAheadSink<IN> extends AbstractStreamOperator<I
 		committer.close();
 	}
 
+	@Override
+	public void dispose() throws Exception {
+		try {
+			if (checkpointStreamFactory != null) {
+				checkpointStreamFactory.close();
+			}
+		} finally {
+			super.dispose();
+		}
+	}
+
 	/**
 	 * Called when a checkpoint barrier arrives. It closes any open streams to the backend
 	 * and marks them as pending for committing to the external, third-party storage system.
@@ -18,6 +18,8 @@
 package org.apache.flink.streaming.runtime.tasks;
 
 import org.apache.flink.annotation.Internal;
+import org.apache.flink.annotation.VisibleForTesting;
+import org.apache.flink.api.common.functions.Function;
 import org.apache.flink.api.common.typeutils.TypeSerializer;
 import org.apache.flink.api.java.tuple.Tuple2;
 import org.apache.flink.metrics.Counter;
@@ -26,15 +28,21 @@ import org.apache.flink.runtime.execution.Environment;
 import org.apache.flink.runtime.io.network.api.CancelCheckpointMarker;
 import org.apache.flink.runtime.io.network.api.CheckpointBarrier;
 import org.apache.flink.runtime.io.network.api.writer.ResultPartitionWriter;
+import org.apache.flink.runtime.metrics.MetricNames;
 import org.apache.flink.runtime.metrics.groups.OperatorMetricGroup;
 import org.apache.flink.runtime.plugable.SerializationDelegate;
 import org.apache.flink.streaming.api.collector.selector.CopyingDirectedOutput;
 import org.apache.flink.streaming.api.collector.selector.DirectedOutput;
 import org.apache.flink.streaming.api.collector.selector.OutputSelector;
+import org.apache.flink.streaming.api.functions.ReadOnlyInput;
 import org.apache.flink.streaming.api.graph.StreamConfig;
 import org.apache.flink.streaming.api.graph.StreamEdge;
+import org.apache.flink.streaming.api.operators.AbstractUdfStreamOperator;
 import org.apache.flink.streaming.api.operators.OneInputStreamOperator;
 import org.apache.flink.streaming.api.operators.Output;
+import org.apache.flink.streaming.api.operators.StreamFilter;
+import org.apache.flink.streaming.api.operators.StreamFlatMap;
+import org.apache.flink.streaming.api.operators.StreamMap;
 import org.apache.flink.streaming.api.operators.StreamOperator;
 import org.apache.flink.streaming.api.watermark.Watermark;
 import org.apache.flink.streaming.runtime.io.RecordWriterOutput;
@@ -344,8 +352,34 @@ public class OperatorChain<OUT, OP extends StreamOperator<OUT>> implements Strea
 		}
 		else {
 			TypeSerializer<IN> inSerializer = operatorConfig.getTypeSerializerIn1(userCodeClassloader);
-			return new CopyingChainingOutput<>(chainedOperator, inSerializer, outputTag, this);
+
+			if (isCopyRequired(chainedOperator, inSerializer)) {
+				return new CopyingChainingOutput<>(chainedOperator, inSerializer, outputTag, this);
+			} else {
+				return new ChainingOutput<>(chainedOperator, this, outputTag);
+			}
+		}
+	}
+
+	/**
+	 * Checks whether the records that are passed to the given chained operator need to be copied
+	 * when object reuse is disabled. A copy is not required if the records are immutable or if the
+	 * operator executes a map, flat map, or filter function that is annotated with {@link ReadOnlyInput}.
+	 */
+	@VisibleForTesting
+	static boolean isCopyRequired(StreamOperator<?> chainedOperator, TypeSerializer<?> inSerializer) {
+		if (inSerializer != null && inSerializer.isImmutableType()) {
+			return false;
+		}
+
+		if (chainedOperator instanceof StreamMap
+				|| chainedOperator instanceof StreamFlatMap
+				|| chainedOperator instanceof StreamFilter) {
+			Function userFunction = ((AbstractUdfStreamOperator<?, ?>) chainedOperator).getUserFunction();
+			return !userFunction.getClass().isAnnotationPresent(ReadOnlyInput.class);
 		}
+
+		return true;
 	}
 
 	private <T> RecordWriterOutput<T> createStreamOutput(
@@ -484,6 +518,8 @@ public class OperatorChain<OUT, OP extends StreamOperator<OUT>> implements Strea
 
 		private final TypeSerializer<T> serializer;
 
+		private final Counter numRecordsCopied;
+
 		public CopyingChainingOutput(
 				OneInputStreamOperator<T, ?> operator,
 				TypeSerializer<T> serializer,
@@ -491,6 +527,7 @@ public class OperatorChain<OUT, OP extends StreamOperator<OUT>> implements Strea
 				StreamStatusProvider streamStatusProvider) {
 			super(operator, streamStatusProvider, outputTag);
 			this.serializer = serializer;
+			this.numRecordsCopied = operator.getMetricGroup().counter(MetricNames.IO_NUM_RECORDS_IN_COPIED);
 		}
 
 		@Override
@@ -523,6 +560,7 @@ public class OperatorChain<OUT, OP extends StreamOperator<OUT>> implements Strea
 				StreamRecord<T> castRecord = (StreamRecord<T>) record;
 
 				numRecordsIn.inc();
+				numRecordsCopied.inc();
 				StreamRecord<T> copy = castRecord.copy(serializer.copy(castRecord.getValue()));
 				operator.setKeyContextElement1(copy);
 				operator.processElement(copy);
@@ -768,7 +768,7 @@ public abstract class StreamTask<OUT, OP extends StreamOperator<OUT>>
 	 */
 	public CheckpointStreamFactory createCheckpointStreamFactory(StreamOperator<?> operator) throws IOException {
 		return stateBackend.createStreamFactory(
-				getEnvironment().getJobID(),
+				getEnvironment(),
 				createOperatorIdentifier(operator, configuration.getVertexID()));
 	}
 
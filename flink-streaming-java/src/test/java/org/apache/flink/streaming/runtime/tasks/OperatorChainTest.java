@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.runtime.tasks;
+
+import org.apache.flink.api.common.functions.FilterFunction;
+import org.apache.flink.api.common.functions.MapFunction;
+import org.apache.flink.api.common.typeutils.base.IntValueSerializer;
+import org.apache.flink.api.common.typeutils.base.StringSerializer;
+import org.apache.flink.streaming.api.functions.ProcessFunction;
+import org.apache.flink.streaming.api.functions.ReadOnlyInput;
+import org.apache.flink.streaming.api.operators.ProcessOperator;
+import org.apache.flink.streaming.api.operators.StreamFilter;
+import org.apache.flink.streaming.api.operators.StreamMap;
+import org.apache.flink.types.IntValue;
+import org.apache.flink.util.Collector;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for the copying behaviour of the {@link OperatorChain} between chained operators.
+ */
+public class OperatorChainTest {
+
+	@Test
+	public void testCopyRequiredForMutableTypes() {
+		assertTrue(OperatorChain.isCopyRequired(
+			new StreamMap<>(new IdentityMap()), IntValueSerializer.INSTANCE));
+		assertTrue(OperatorChain.isCopyRequired(
+			new ProcessOperator<>(new ReadOnlyProcessFunction()), IntValueSerializer.INSTANCE));
+	}
+
+	@Test
+	public void testNoCopyForImmutableTypes() {
+		assertFalse(OperatorChain.isCopyRequired(
+			new StreamMap<>(new StringLengthMap()), StringSerializer.INSTANCE));
+	}
+
+	@Test
+	public void testNoCopyForReadOnlyFunctions() {
+		assertFalse(OperatorChain.isCopyRequired(
+			new StreamMap<>(new ReadOnlyIdentityMap()), IntValueSerializer.INSTANCE));
+		assertFalse(OperatorChain.isCopyRequired(
+			new StreamFilter<>(new ReadOnlyFilter()), IntValueSerializer.INSTANCE));
+	}
+
+	// ------------------------------------------------------------------------
+
+	private static class IdentityMap implements MapFunction<IntValue, IntValue> {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public IntValue map(IntValue value) {
+			return value;
+		}
+	}
+
+	private static class StringLengthMap implements MapFunction<String, Integer> {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public Integer map(String value) {
+			return value.length();
+		}
+	}
+
+	@ReadOnlyInput
+	private static class ReadOnlyIdentityMap implements MapFunction<IntValue, IntValue> {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public IntValue map(IntValue value) {
+			return value;
+		}
+	}
+
+	@ReadOnlyInput
+	private static class ReadOnlyFilter implements FilterFunction<IntValue> {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public boolean filter(IntValue value) {
+			return value.getValue() > 0;
+		}
+	}
+
+	/**
+	 * The annotation is only honoured for map, flat map, and filter functions.
+	 */
+	@ReadOnlyInput
+	private static class ReadOnlyProcessFunction extends ProcessFunction<IntValue, IntValue> {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public void processElement(IntValue value, Context ctx, Collector<IntValue> out) {
+			out.collect(value);
+		}
+	}
+}
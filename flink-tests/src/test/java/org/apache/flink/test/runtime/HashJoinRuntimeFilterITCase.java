@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.test.runtime;
+
+import org.apache.flink.api.common.functions.JoinFunction;
+import org.apache.flink.api.common.functions.MapFunction;
+import org.apache.flink.api.common.operators.base.JoinOperatorBase.JoinHint;
+import org.apache.flink.api.java.DataSet;
+import org.apache.flink.api.java.ExecutionEnvironment;
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.configuration.TaskManagerOptions;
+import org.apache.flink.test.util.JavaProgramTestBase;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests hash joins whose build side sends runtime filters to the producers of the probe side.
+ */
+public class HashJoinRuntimeFilterITCase extends JavaProgramTestBase {
+
+	private static final int NUM_BUILD_RECORDS = 1000;
+
+	private static final int NUM_PROBE_RECORDS = 100000;
+
+	public HashJoinRuntimeFilterITCase() {
+		super(getConfiguration());
+	}
+
+	private static Configuration getConfiguration() {
+		Configuration config = new Configuration();
+		config.setBoolean(TaskManagerOptions.RUNTIME_HASH_JOIN_RUNTIME_FILTERS, true);
+		return config;
+	}
+
+	@Override
+	protected void testProgram() throws Exception {
+		ExecutionEnvironment env = ExecutionEnvironment.getExecutionEnvironment();
+		env.setParallelism(4);
+
+		// every tenth probe-side record finds a join partner
+		DataSet<Tuple2<Long, Long>> build = env.generateSequence(0, NUM_BUILD_RECORDS - 1)
+			.map(new MapFunction<Long, Tuple2<Long, Long>>() {
+				@Override
+				public Tuple2<Long, Long> map(Long value) {
+					return new Tuple2<>(value * 10, value);
+				}
+			});
+
+		DataSet<Tuple2<Long, Long>> probe = env.generateSequence(0, NUM_PROBE_RECORDS - 1)
+			.map(new MapFunction<Long, Tuple2<Long, Long>>() {
+				@Override
+				public Tuple2<Long, Long> map(Long value) {
+					return new Tuple2<>(value, value);
+				}
+			});
+
+		List<Long> result = build.join(probe, JoinHint.REPARTITION_HASH_FIRST)
+			.where(0).equalTo(0)
+			.with(new JoinFunction<Tuple2<Long, Long>, Tuple2<Long, Long>, Long>() {
+				@Override
+				public Long join(Tuple2<Long, Long> first, Tuple2<Long, Long> second) {
+					return second.f1 - first.f1 * 10;
+				}
+			})
+			.collect();
+
+		assertEquals(NUM_BUILD_RECORDS, result.size());
+		assertEquals(NUM_BUILD_RECORDS, Collections.frequency(result, 0L));
+	}
+
+	@Override
+	protected boolean skipCollectionExecution() {
+		// the runtime filters are part of the distributed runtime
+		return true;
+	}
+}